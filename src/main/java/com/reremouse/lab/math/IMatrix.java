@@ -1,6 +1,8 @@
 package com.reremouse.lab.math;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import com.reremouse.lab.util.Tuple2;
 import com.reremouse.lab.util.Tuple3;
@@ -173,15 +175,36 @@ public interface IMatrix {
      * less than or equal to 0
      */
     public static IMatrix rand(int rows, int cols) {
+        return rand(rows, cols, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 用给定的生成器创建随机矩阵 / Create random matrix with the given generator
+     * <p>
+     * 元素值服从[0,1)上的均匀分布，按行主序依次从生成器取值，相同状态的生成器得到相同的矩阵
+     * Elements are uniform on [0,1), drawn from the generator in row-major order, so generators in the same
+     * state produce the same matrix
+     * </p>
+     *
+     * @param rows 矩阵行数 / Number of rows
+     * @param cols 矩阵列数 / Number of columns
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机矩阵 / Random matrix
+     * @throws IllegalArgumentException 如果行数或列数小于等于0，或生成器为null / if rows or columns are less
+     * than or equal to 0, or the generator is null
+     */
+    public static IMatrix rand(int rows, int cols, RandomGenerator rng) {
         if (rows <= 0 || cols <= 0) {
             throw new IllegalArgumentException("行数和列数必须大于0 / Rows and columns must be greater than 0");
         }
+        if (rng == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
         
-        Random random = new Random();
         float[][] data = new float[rows][cols];
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                data[i][j] = (float) random.nextFloat(); // 生成均匀分布随机数 / Generate uniform distribution random numbers
+                data[i][j] = rng.nextFloat(); // 生成均匀分布随机数 / Generate uniform distribution random numbers
             }
         }
         return new RereMatrix(data);
@@ -201,18 +224,21 @@ public interface IMatrix {
      * less than or equal to 0
      */
     public static IMatrix randn(int rows, int cols) {
-        if (rows <= 0 || cols <= 0) {
-            throw new IllegalArgumentException("行数和列数必须大于0 / Rows and columns must be greater than 0");
-        }
-        
-        Random random = new Random();
-        float[][] data = new float[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                data[i][j] = (float) random.nextGaussian(); // 生成标准正态分布随机数 / Generate standard normal distribution random numbers
-            }
-        }
-        return new RereMatrix(data);
+        return randn(rows, cols, 0.0f, 1.0f, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 用给定的生成器创建标准正态随机矩阵 / Create standard normal random matrix with the given generator
+     *
+     * @param rows 矩阵行数 / Number of rows
+     * @param cols 矩阵列数 / Number of columns
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机矩阵 / Random matrix
+     * @throws IllegalArgumentException 如果行数或列数小于等于0，或生成器为null / if rows or columns are less
+     * than or equal to 0, or the generator is null
+     */
+    public static IMatrix randn(int rows, int cols, RandomGenerator rng) {
+        return randn(rows, cols, 0.0f, 1.0f, rng);
     }
     
     /**
@@ -230,20 +256,43 @@ public interface IMatrix {
      * @throws IllegalArgumentException 如果行数或列数小于等于0，或标准差小于0 / if rows or columns are less than or equal to 0, or standard deviation is negative
      */
     public static IMatrix randn(int rows, int cols, float mean, float std) {
+        return randn(rows, cols, mean, std, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 用给定的生成器创建正态随机矩阵（指定均值和标准差） / Create normal random matrix with the given generator,
+     * mean and standard deviation
+     * <p>
+     * 按行主序依次从生成器取值，相同状态的生成器得到相同的矩阵
+     * Values are drawn from the generator in row-major order, so generators in the same state produce the same matrix
+     * </p>
+     *
+     * @param rows 矩阵行数 / Number of rows
+     * @param cols 矩阵列数 / Number of columns
+     * @param mean 正态分布的均值 / Mean of normal distribution
+     * @param std 正态分布的标准差 / Standard deviation of normal distribution
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机矩阵 / Random matrix
+     * @throws IllegalArgumentException 如果行数或列数小于等于0、标准差小于0或生成器为null / if rows or columns are
+     * less than or equal to 0, the standard deviation is negative or the generator is null
+     */
+    public static IMatrix randn(int rows, int cols, float mean, float std, RandomGenerator rng) {
         if (rows <= 0 || cols <= 0) {
             throw new IllegalArgumentException("行数和列数必须大于0 / Rows and columns must be greater than 0");
         }
         if (std < 0) {
             throw new IllegalArgumentException("标准差不能为负数 / Standard deviation cannot be negative");
         }
+        if (rng == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
         
-        Random random = new Random();
         float[][] data = new float[rows][cols];
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
                 // 生成标准正态分布随机数，然后按公式 X = mean + std * Z 转换为指定均值和标准差的正态分布
                 // Generate standard normal distribution random number, then convert to normal distribution with specified mean and std using formula X = mean + std * Z
-                data[i][j] = mean + std * (float) random.nextGaussian();
+                data[i][j] = mean + std * (float) rng.nextGaussian();
             }
         }
         return new RereMatrix(data);
@@ -1001,18 +1050,8 @@ public interface IMatrix {
      * @throws IllegalArgumentException 如果行数或列数小于等于0 / if rows or columns are less than or equal to 0
      */
     public static IMatrix rand(int rows, int cols, long seed) {
-        if (rows <= 0 || cols <= 0) {
-            throw new IllegalArgumentException("行数和列数必须大于0 / Rows and columns must be greater than 0");
-        }
-        
-        Random random = new Random(seed);
-        float[][] data = new float[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                data[i][j] = (float) random.nextFloat();
-            }
-        }
-        return new RereMatrix(data);
+        // 沿用java.util.Random，保持已有种子的结果不变 / Keeps java.util.Random so existing seeds give the same matrices
+        return rand(rows, cols, new Random(seed));
     }
     
     /**
@@ -1029,18 +1068,8 @@ public interface IMatrix {
      * @throws IllegalArgumentException 如果行数或列数小于等于0 / if rows or columns are less than or equal to 0
      */
     public static IMatrix randn(int rows, int cols, long seed) {
-        if (rows <= 0 || cols <= 0) {
-            throw new IllegalArgumentException("行数和列数必须大于0 / Rows and columns must be greater than 0");
-        }
-        
-        Random random = new Random(seed);
-        float[][] data = new float[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                data[i][j] = (float) random.nextGaussian();
-            }
-        }
-        return new RereMatrix(data);
+        // 沿用java.util.Random，保持已有种子的结果不变 / Keeps java.util.Random so existing seeds give the same matrices
+        return randn(rows, cols, 0.0f, 1.0f, new Random(seed));
     }
 
     /**
@@ -2,6 +2,8 @@ package com.reremouse.lab.math;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 向量操作接口 / Vector Operations Interface
@@ -1399,12 +1401,32 @@ public interface IVector {
      * equal to 0
      */
     public static IVector rand(int length) {
+        return rand(length, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 用给定的生成器创建随机向量 / Create random vector with the given generator
+     * <p>
+     * 元素值在[0,1)范围内，相同状态的生成器得到相同的向量 Elements are in [0,1); generators in the same state
+     * produce the same vector
+     * </p>
+     *
+     * @param length 向量长度 / IVector length
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机向量 / Random vector
+     * @throws IllegalArgumentException 如果长度小于等于0或生成器为null / if length is less than or equal to 0 or
+     * the generator is null
+     */
+    public static IVector rand(int length, RandomGenerator rng) {
         if (length <= 0) {
             throw new IllegalArgumentException("向量长度必须大于0 / IVector length must be greater than 0");
         }
+        if (rng == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
         float[] v = new float[length];
         for (int i = 0; i < length; i++) {
-            v[i] = (float) Math.random();
+            v[i] = rng.nextFloat();
         }
         return IVector.of(v);
     }
@@ -1424,19 +1446,33 @@ public interface IVector {
      * than or equal to 0 or std is less than or equal to 0
      */
     public static IVector randn(int length, float mean, float std) {
+        return randn(length, mean, std, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 用给定的生成器创建正态分布随机向量 / Create normal distribution random vector with the given generator
+     *
+     * @param length 向量长度 / IVector length
+     * @param mean 均值 / Mean
+     * @param std 标准差 / Standard deviation
+     * @param rng 随机数生成器 / Random generator
+     * @return 正态分布随机向量 / Normal distribution random vector
+     * @throws IllegalArgumentException 如果长度小于等于0、标准差小于等于0或生成器为null / if length is less than or
+     * equal to 0, std is less than or equal to 0 or the generator is null
+     */
+    public static IVector randn(int length, float mean, float std, RandomGenerator rng) {
         if (length <= 0) {
             throw new IllegalArgumentException("向量长度必须大于0 / IVector length must be greater than 0");
         }
         if (std <= 0) {
             throw new IllegalArgumentException("标准差必须大于0 / Standard deviation must be greater than 0");
         }
+        if (rng == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
         float[] v = new float[length];
         for (int i = 0; i < length; i++) {
-            // Box-Muller变换生成正态分布随机数 / Box-Muller transform for normal distribution
-            double u1 = Math.random();
-            double u2 = Math.random();
-            double z0 = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
-            v[i] = (float) (mean + std * z0);
+            v[i] = (float) (mean + std * rng.nextGaussian());
         }
         return IVector.of(v);
     }
@@ -0,0 +1,711 @@
+package com.reremouse.lab.math;
+
+import com.reremouse.lab.util.RereExecutor;
+import com.reremouse.lab.util.Tuple2;
+import com.reremouse.lab.util.Tuple3;
+
+/**
+ * 列主序矩阵视图 / Column-major matrix view
+ * <p>
+ * 以一组等长的float数组作为矩阵的列，不复制数据。典型用途是把DataFrame中连续存储的Float列直接作为
+ * {@link IMatrix}使用：元素读写、按列访问、行列统计和矩阵乘法直接在列数组上进行，对视图的写入对底层列可见。
+ * 分解、求逆等其他运算先复制为行主序的{@link RereMatrix}再计算。
+ * </p>
+ * <p>
+ * Uses a set of equally long float arrays as the columns of a matrix without copying. The typical use is to
+ * expose the contiguous Float columns of a DataFrame as an {@link IMatrix}: element access, column access,
+ * row/column statistics and matrix multiplication work directly on the column arrays, and writes through the
+ * view are visible in the underlying columns. Decompositions, inversion and other operations first copy to a
+ * row-major {@link RereMatrix}.
+ * </p>
+ * <p>
+ * 注意：{@link #getData()}返回行主序的副本而不是内部存储，需要零拷贝访问时使用{@link #getColumnData()}。
+ * 线性回归、逻辑回归等模型的训练核按行主序访问数据，在视图上训练会把数据转换为行主序一次：线性回归带偏置项时
+ * 直接从列数组构造增广矩阵，其他情况通过getData()复制。
+ * Note: {@link #getData()} returns a row-major copy rather than the internal storage; use
+ * {@link #getColumnData()} for zero-copy access. The fit kernels of linear and logistic regression read row-major
+ * data, so fitting on a view converts it to row-major once: linear regression with a bias term builds its augmented
+ * matrix straight from the column arrays, the other cases copy through getData().
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereColumnMatrix implements IMatrix {
+
+    /** 列数组，columns[j][i]表示第i行第j列的元素 / Column arrays, columns[j][i] is the element at row i, column j */
+    float[][] columns;
+
+    /** 行数 / Number of rows */
+    int rows;
+
+    /**
+     * 构造函数 / Constructor
+     * <p>直接使用给定的列数组，不复制 / Uses the given column arrays directly without copying</p>
+     *
+     * @param columns 列数组 / Column arrays
+     * @throws IllegalArgumentException 如果没有列或各列长度不一致 / if there are no columns or their lengths differ
+     */
+    public RereColumnMatrix(float[][] columns) {
+        if (columns == null || columns.length == 0) {
+            throw new IllegalArgumentException("矩阵至少需要一列 / Matrix needs at least one column");
+        }
+        for (float[] column : columns) {
+            if (column == null) {
+                throw new IllegalArgumentException("矩阵列不能为null / Matrix column cannot be null");
+            }
+            if (column.length != columns[0].length) {
+                throw new IllegalArgumentException("矩阵各列长度必须相同 / All matrix columns must have the same length");
+            }
+        }
+        this.columns = columns;
+        this.rows = columns[0].length;
+    }
+
+    /**
+     * 获取底层列数组 / Get the underlying column arrays
+     *
+     * @return 列数组（非副本） / Column arrays (not a copy)
+     */
+    public float[][] getColumnData() {
+        return columns;
+    }
+
+    /**
+     * 复制为行主序矩阵 / Copy into a row-major matrix
+     *
+     * @return 行主序矩阵 / Row-major matrix
+     */
+    public RereMatrix toRowMajor() {
+        return new RereMatrix(getData());
+    }
+
+    // ==================== 元素与行列访问 / Element, row and column access ====================
+
+    @Override
+    public float get(int row, int col) {
+        return columns[checkCol(col)][checkRow(row)];
+    }
+
+    @Override
+    public void put(int row, int col, float value) {
+        columns[checkCol(col)][checkRow(row)] = value;
+    }
+
+    private int checkRow(int row) {
+        int r = row < 0 ? rows + row : row;
+        if (r < 0 || r >= rows) {
+            throw new IndexOutOfBoundsException("行索引超出范围: " + row + " / Row index out of bounds: " + row);
+        }
+        return r;
+    }
+
+    private int checkCol(int col) {
+        int c = col < 0 ? columns.length + col : col;
+        if (c < 0 || c >= columns.length) {
+            throw new IndexOutOfBoundsException("列索引超出范围: " + col + " / Column index out of bounds: " + col);
+        }
+        return c;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns.length;
+    }
+
+    @Override
+    public int getRowNum() {
+        return rows;
+    }
+
+    @Override
+    public int getColNum() {
+        return columns.length;
+    }
+
+    @Override
+    public int[] shape() {
+        return new int[]{rows, columns.length};
+    }
+
+    /**
+     * 获取指定列向量，与矩阵共享存储 / Get the specified column vector, sharing storage with the matrix
+     *
+     * @param i 列索引 / Column index
+     * @return 列向量 / Column vector
+     */
+    @Override
+    public IVector getColunm(int i) {
+        if (i < 0 || i >= columns.length) {
+            throw new IndexOutOfBoundsException("列索引超出范围: " + i + " / Column index out of bounds: " + i);
+        }
+        return IVector.of(columns[i]);
+    }
+
+    @Override
+    public IVector getRow(int i) {
+        if (i < 0 || i >= rows) {
+            throw new IndexOutOfBoundsException("行索引超出范围: " + i + " / Row index out of bounds: " + i);
+        }
+        float[] row = new float[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            row[j] = columns[j][i];
+        }
+        return IVector.of(row);
+    }
+
+    @Override
+    public IMatrix getColumn(int colIndex) {
+        return new RereColumnMatrix(new float[][]{columns[colIndex].clone()});
+    }
+
+    @Override
+    public void putColumn(int colIndex, IMatrix column) {
+        if (column == null) {
+            throw new IllegalArgumentException("列矩阵不能为null / Column matrix cannot be null");
+        }
+        if (colIndex < 0 || colIndex >= columns.length) {
+            throw new IndexOutOfBoundsException("列索引超出范围: " + colIndex + " / Column index out of bounds: " + colIndex);
+        }
+        if (column.getColNum() != 1) {
+            throw new IllegalArgumentException("输入必须是列向量 / Input must be a column vector");
+        }
+        if (column.getRowNum() != rows) {
+            throw new IllegalArgumentException("列向量高度不匹配 / Column vector height doesn't match");
+        }
+        float[] target = columns[colIndex];
+        for (int i = 0; i < rows; i++) {
+            target[i] = column.get(i, 0);
+        }
+    }
+
+    @Override
+    public IMatrix[] getColumns(int[] indices) {
+        IMatrix[] result = new IMatrix[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            result[i] = getColumn(indices[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 获取行主序数据 / Get row-major data
+     * <p>返回新分配的行主序副本，对它的修改不会影响本矩阵 /
+     * Returns a newly allocated row-major copy; changes to it do not affect this matrix</p>
+     *
+     * @return 行主序二维数组 / Row-major 2D array
+     */
+    @Override
+    public float[][] getData() {
+        float[][] data = new float[rows][columns.length];
+        RereExecutor.parallelFor(0, rows, 4096, (from, to) -> {
+            for (int j = 0; j < columns.length; j++) {
+                float[] col = columns[j];
+                for (int i = from; i < to; i++) {
+                    data[i][j] = col[i];
+                }
+            }
+        });
+        return data;
+    }
+
+    @Override
+    public float[] toArray() {
+        if (columns.length == 1) {
+            return columns[0].clone();
+        }
+        float[] result = new float[rows * columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            float[] col = columns[j];
+            for (int i = 0; i < rows; i++) {
+                result[i * columns.length + j] = col[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        float[] floatArray = toArray();
+        double[] result = new double[floatArray.length];
+        for (int i = 0; i < floatArray.length; i++) {
+            result[i] = floatArray[i];
+        }
+        return result;
+    }
+
+    // ==================== 转置与复制 / Transpose and copy ====================
+
+    /**
+     * 矩阵转置（就地操作） / Matrix transpose (in-place operation)
+     * <p>与{@link RereMatrix#transpose()}一样替换内部存储，转置后不再与原来的列共享数据 /
+     * Like {@link RereMatrix#transpose()}, replaces the internal storage, so the result no longer shares the
+     * original columns</p>
+     *
+     * @return 当前对象 / This matrix
+     */
+    @Override
+    public IMatrix transpose() {
+        this.columns = getData();
+        this.rows = columns[0].length;
+        return this;
+    }
+
+    /**
+     * 矩阵转置（创建新对象） / Matrix transpose (create new object)
+     * <p>列主序矩阵的转置就是以各列为行的行主序矩阵 / The transpose of a column-major matrix is the row-major
+     * matrix whose rows are the columns</p>
+     *
+     * @return 新的转置矩阵 / New transposed matrix
+     */
+    @Override
+    public IMatrix transposeNew() {
+        float[][] data = new float[columns.length][];
+        for (int j = 0; j < columns.length; j++) {
+            data[j] = columns[j].clone();
+        }
+        return new RereMatrix(data);
+    }
+
+    @Override
+    public IMatrix t() {
+        return this.transpose();
+    }
+
+    @Override
+    public IMatrix copy() {
+        float[][] copy = new float[columns.length][];
+        for (int j = 0; j < columns.length; j++) {
+            copy[j] = columns[j].clone();
+        }
+        return new RereColumnMatrix(copy);
+    }
+
+    // ==================== 统计 / Statistics ====================
+
+    /**
+     * 计算每一列的元素和（与{@link RereMatrix#rowSums()}语义一致） /
+     * Sum of each column (same semantics as {@link RereMatrix#rowSums()})
+     *
+     * @return 长度为列数的向量 / Vector with one entry per column
+     */
+    @Override
+    public IVector rowSums() {
+        float[] v = new float[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            float s = 0;
+            for (float x : columns[j]) {
+                s += x;
+            }
+            v[j] = s;
+        }
+        return IVector.of(v);
+    }
+
+    @Override
+    public IVector rowMeans() {
+        return rowSums().divideByScalar((float) rows);
+    }
+
+    /**
+     * 计算每一行的元素和（与{@link RereMatrix#colSums()}语义一致） /
+     * Sum of each row (same semantics as {@link RereMatrix#colSums()})
+     *
+     * @return 长度为行数的向量 / Vector with one entry per row
+     */
+    @Override
+    public IVector colSums() {
+        float[] v = new float[rows];
+        for (float[] col : columns) {
+            for (int i = 0; i < rows; i++) {
+                v[i] += col[i];
+            }
+        }
+        return IVector.of(v);
+    }
+
+    @Override
+    public IVector colMeans() {
+        return colSums().divideByScalar((float) columns.length);
+    }
+
+    @Override
+    public float max() {
+        float max = columns[0][0];
+        for (float[] col : columns) {
+            for (float x : col) {
+                if (x > max) {
+                    max = x;
+                }
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public float min() {
+        float min = columns[0][0];
+        for (float[] col : columns) {
+            for (float x : col) {
+                if (x < min) {
+                    min = x;
+                }
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public float sum() {
+        float sum = 0.0f;
+        for (float[] col : columns) {
+            for (float x : col) {
+                sum += x;
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public float mean() {
+        return sum() / (rows * columns.length);
+    }
+
+    @Override
+    public float std() {
+        return (float) Math.sqrt(var());
+    }
+
+    @Override
+    public float var() {
+        float mean = mean();
+        float sumSquaredDiff = 0.0f;
+        for (float[] col : columns) {
+            for (float x : col) {
+                float diff = x - mean;
+                sumSquaredDiff += diff * diff;
+            }
+        }
+        return sumSquaredDiff / (rows * columns.length);
+    }
+
+    @Override
+    public float frobeniusNorm() {
+        float sum = 0.0f;
+        for (float[] col : columns) {
+            for (float x : col) {
+                sum += x * x;
+            }
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    // ==================== 乘法 / Multiplication ====================
+
+    /**
+     * 矩阵乘法 / Matrix multiplication
+     * <p>按列累加（axpy）计算，结果同样为列主序，输出列之间并行 /
+     * Computed as column-wise axpy updates; the result is column-major as well, with output columns computed in
+     * parallel</p>
+     *
+     * @param other 另一个矩阵 / The other matrix
+     * @return 乘积 / Product
+     */
+    @Override
+    public IMatrix mmul(IMatrix other) {
+        if (other == null) {
+            throw new IllegalArgumentException("输入矩阵不能为null / Input matrix cannot be null");
+        }
+        if (columns.length != other.getRowNum()) {
+            throw new IllegalArgumentException("矩阵维度不匹配进行乘法运算 / Matrix dimensions don't match for multiplication");
+        }
+        int p = other.getColNum();
+        float[][] b = other.getData();
+        float[][] result = new float[p][rows];
+        RereExecutor.parallelFor(0, p, 1, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                float[] out = result[k];
+                for (int j = 0; j < columns.length; j++) {
+                    float w = b[j][k];
+                    if (w == 0.0f) {
+                        continue;
+                    }
+                    float[] col = columns[j];
+                    for (int i = 0; i < rows; i++) {
+                        out[i] += col[i] * w;
+                    }
+                }
+            }
+        });
+        return new RereColumnMatrix(result);
+    }
+
+    @Override
+    public IMatrix mmul(float scalar) {
+        float[][] result = new float[columns.length][rows];
+        for (int j = 0; j < columns.length; j++) {
+            float[] col = columns[j];
+            float[] out = result[j];
+            for (int i = 0; i < rows; i++) {
+                out[i] = col[i] * scalar;
+            }
+        }
+        return new RereColumnMatrix(result);
+    }
+
+    @Override
+    public IMatrix mmul(double scalar) {
+        return mmul((float) scalar);
+    }
+
+    @Override
+    public IMatrix sub(float scalar) {
+        float[][] result = new float[columns.length][rows];
+        for (int j = 0; j < columns.length; j++) {
+            float[] col = columns[j];
+            float[] out = result[j];
+            for (int i = 0; i < rows; i++) {
+                out[i] = col[i] - scalar;
+            }
+        }
+        return new RereColumnMatrix(result);
+    }
+
+    // ==================== 委托给行主序副本 / Delegated to a row-major copy ====================
+
+    @Override
+    public IMatrix sub(IMatrix other) {
+        return toRowMajor().sub(other);
+    }
+
+    @Override
+    public IMatrix add(IMatrix other) {
+        return toRowMajor().add(other);
+    }
+
+    @Override
+    public IMatrix divide(IMatrix other) {
+        return toRowMajor().divide(other);
+    }
+
+    @Override
+    public float dot(IMatrix other) {
+        return toRowMajor().dot(other);
+    }
+
+    @Override
+    public IMatrix sqrt() {
+        return toRowMajor().sqrt();
+    }
+
+    @Override
+    public IMatrix pow(float power) {
+        return toRowMajor().pow(power);
+    }
+
+    @Override
+    public Tuple2<IVector, IMatrix> eigen() {
+        return toRowMajor().eigen();
+    }
+
+    @Override
+    public Tuple2<IVector, IMatrix> qrEigenDecomposition() {
+        return toRowMajor().qrEigenDecomposition();
+    }
+
+    @Override
+    public Tuple3<IMatrix, IVector, IMatrix> svd() {
+        return toRowMajor().svd();
+    }
+
+    @Override
+    public Tuple2<IMatrix, IMatrix> qr() {
+        return toRowMajor().qr();
+    }
+
+    @Override
+    public IMatrix exp() {
+        return toRowMajor().exp();
+    }
+
+    @Override
+    public IMatrix log() {
+        return toRowMajor().log();
+    }
+
+    @Override
+    public float frobeniusDistance(IMatrix other) {
+        return toRowMajor().frobeniusDistance(other);
+    }
+
+    @Override
+    public IMatrix normalizeRows() {
+        return toRowMajor().normalizeRows();
+    }
+
+    @Override
+    public IMatrix normalizeColumns() {
+        return toRowMajor().normalizeColumns();
+    }
+
+    @Override
+    public IMatrix center() {
+        return toRowMajor().center();
+    }
+
+    @Override
+    public IMatrix covariance() {
+        return toRowMajor().covariance();
+    }
+
+    @Override
+    public IMatrix covarianceFromCentered() {
+        return toRowMajor().covarianceFromCentered();
+    }
+
+    @Override
+    public IMatrix inv() {
+        return toRowMajor().inv();
+    }
+
+    @Override
+    public IMatrix pinv() {
+        return toRowMajor().pinv();
+    }
+
+    @Override
+    public void save(String path) {
+        toRowMajor().save(path);
+    }
+
+    @Override
+    public IMatrix hstack(IMatrix other) {
+        return toRowMajor().hstack(other);
+    }
+
+    @Override
+    public IMatrix vstack(IMatrix other) {
+        return toRowMajor().vstack(other);
+    }
+
+    @Override
+    public IMatrix[] hsplit(int[] indices) {
+        return toRowMajor().hsplit(indices);
+    }
+
+    @Override
+    public IMatrix[] vsplit(int[] indices) {
+        return toRowMajor().vsplit(indices);
+    }
+
+    @Override
+    public IMatrix reshape(int rows, int cols) {
+        return toRowMajor().reshape(rows, cols);
+    }
+
+    @Override
+    public float det() {
+        return toRowMajor().det();
+    }
+
+    @Override
+    public float trace() {
+        return toRowMajor().trace();
+    }
+
+    @Override
+    public float cond() {
+        return toRowMajor().cond();
+    }
+
+    @Override
+    public int rank() {
+        return toRowMajor().rank();
+    }
+
+    @Override
+    public IMatrix abs() {
+        return toRowMajor().abs();
+    }
+
+    @Override
+    public IMatrix sign() {
+        return toRowMajor().sign();
+    }
+
+    @Override
+    public IMatrix sin() {
+        return toRowMajor().sin();
+    }
+
+    @Override
+    public IMatrix cos() {
+        return toRowMajor().cos();
+    }
+
+    @Override
+    public IMatrix tan() {
+        return toRowMajor().tan();
+    }
+
+    @Override
+    public IMatrix sinh() {
+        return toRowMajor().sinh();
+    }
+
+    @Override
+    public IMatrix cosh() {
+        return toRowMajor().cosh();
+    }
+
+    @Override
+    public IMatrix tanh() {
+        return toRowMajor().tanh();
+    }
+
+    @Override
+    public Tuple2<IMatrix, IMatrix> lu() {
+        return toRowMajor().lu();
+    }
+
+    @Override
+    public IMatrix cholesky() {
+        return toRowMajor().cholesky();
+    }
+
+    @Override
+    public IVector solve(IVector b) {
+        return toRowMajor().solve(b);
+    }
+
+    @Override
+    public IMatrix solve(IMatrix B) {
+        return toRowMajor().solve(B);
+    }
+
+    @Override
+    public IMatrix slice(String rowSlice, String colSlice) {
+        return toRowMajor().slice(rowSlice, colSlice);
+    }
+
+    @Override
+    public IMatrix sliceRows(String rowSlice) {
+        return toRowMajor().sliceRows(rowSlice);
+    }
+
+    @Override
+    public IMatrix sliceColumns(String colSlice) {
+        return toRowMajor().sliceColumns(colSlice);
+    }
+
+    @Override
+    public IMatrix fancyGet(int[] rowIndices, int[] colIndices) {
+        return toRowMajor().fancyGet(rowIndices, colIndices);
+    }
+}
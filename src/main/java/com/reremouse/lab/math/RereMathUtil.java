@@ -1,6 +1,8 @@
 package com.reremouse.lab.math;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 数学工具类，提供各种数学相关的实用方法 包括类型转换、随机数生成等功能
@@ -132,12 +134,35 @@ public class RereMathUtil {
             throw new IllegalArgumentException("num (" + num + ") must be non-negative");
         }
 
-        Random random = new Random(seed);
+        return generateRandomInts(new Random(seed), start, end, num);
+    }
+
+    /**
+     * 用给定的生成器生成从start（包括）到end（不包括）之间的随机整数序列，相同状态的生成器产生相同的序列
+     *
+     * @param rng 随机数生成器
+     * @param start 起始数（包括）
+     * @param end 结束数（不包括）
+     * @param num 要生成的随机整数数量
+     * @return 包含num个随机整数的数组，每个整数都在[start, end)范围内
+     * @throws IllegalArgumentException 如果start >= end、num < 0 或生成器为null
+     */
+    public static int[] generateRandomInts(RandomGenerator rng, int start, int end, int num) {
+        if (start >= end) {
+            throw new IllegalArgumentException("start (" + start + ") must be less than end (" + end + ")");
+        }
+        if (num < 0) {
+            throw new IllegalArgumentException("num (" + num + ") must be non-negative");
+        }
+        if (rng == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+
         int[] result = new int[num];
         int range = end - start;
 
         for (int i = 0; i < num; i++) {
-            result[i] = start + random.nextInt(range);
+            result[i] = start + rng.nextInt(range);
         }
 
         return result;
@@ -160,19 +185,27 @@ public class RereMathUtil {
             throw new IllegalArgumentException("num (" + num + ") must be non-negative");
         }
 
-        Random random = new Random();
-        int[] result = new int[num];
-        int range = end - start;
-
-        for (int i = 0; i < num; i++) {
-            result[i] = start + random.nextInt(range);
-        }
-
-        return result;
+        return generateRandomInts(ThreadLocalRandom.current(), start, end, num);
     }
 
     // ========== 概率分布相关数学函数 / Probability Distribution Mathematical Functions ==========
     
+    /** Lanczos近似系数（g = 7） / Lanczos approximation coefficients (g = 7) */
+    private static final double[] LANCZOS = {
+        676.5203681218851, -1259.1392167224028, 771.32342877765313,
+        -176.61502916214059, 12.507343278686905, -0.13857109526572012,
+        9.9843695780195716e-6, 1.5056327351493116e-7
+    };
+    
+    /** 级数与连分数的相对收敛精度 / Relative convergence accuracy of series and continued fractions */
+    private static final double SPECIAL_EPS = 1e-15;
+    
+    /** 连分数中防止除零的极小值 / Tiny value guarding divisions in continued fractions */
+    private static final double SPECIAL_TINY = 1e-300;
+    
+    /** 级数与连分数的最大项数 / Maximum number of series or continued fraction terms */
+    private static final int MAX_SPECIAL_ITERATIONS = 10000;
+    
     /**
      * 伽马函数的近似实现
      * Approximation implementation of gamma function
@@ -188,149 +221,91 @@ public class RereMathUtil {
         
         x = x - 1.0f;
         double result = 0.99999999999980993;
-        double[] coefficients = {
-            676.5203681218851, -1259.1392167224028, 771.32342877765313,
-            -176.61502916214059, 12.507343278686905, -0.13857109526572012,
-            9.9843695780195716e-6, 1.5056327351493116e-7
-        };
-        
-        for (int i = 0; i < coefficients.length; i++) {
-            result += coefficients[i] / (x + i + 1);
+        for (int i = 0; i < LANCZOS.length; i++) {
+            result += LANCZOS[i] / (x + i + 1);
         }
         
-        double t = x + coefficients.length - 0.5;
+        double t = x + LANCZOS.length - 0.5;
         return Math.sqrt(2 * Math.PI) * Math.pow(t, x + 0.5) * Math.exp(-t) * result;
     }
     
     /**
-     * 不完全贝塔函数的近似实现
-     * Approximation implementation of incomplete beta function
+     * 伽马函数的对数，参数较大时Γ(x)本身会溢出
+     * Logarithm of the gamma function, for arguments where Γ(x) itself overflows
      * 
-     * @param a 参数a / Parameter a
-     * @param b 参数b / Parameter b
-     * @param x 输入值 / Input value
-     * @return 不完全贝塔函数值 / Incomplete beta function value
-     */
-    public static double incompleteBeta(float a, float b, float x) {
-        if (x < 0.0f || x > 1.0f) {
-            throw new IllegalArgumentException("x必须在[0,1]范围内 / x must be in range [0,1]");
-        }
-        
-        if (x == 0.0f) return 0.0;
-        if (x == 1.0f) return 1.0;
-        
-        // 使用简单的数值积分方法
-        // Using simple numerical integration method
-        return incompleteBetaIntegral(a, b, x);
-    }
-    
-    /**
-     * 使用数值积分计算不完全贝塔函数
-     * Calculate incomplete beta function using numerical integration
-     */
-    private static double incompleteBetaIntegral(float a, float b, float x) {
-        // 使用自适应辛普森法则进行数值积分
-        // Using adaptive Simpson's rule for numerical integration
-        return adaptiveSimpson(a, b, 0.0, x, 1e-8, 100);
-    }
-    
-    /**
-     * 自适应辛普森法则积分
-     * Adaptive Simpson's rule integration
+     * @param x 输入值，必须大于0 / Input value, must be greater than 0
+     * @return ln Γ(x) / ln Γ(x)
      */
-    private static double adaptiveSimpson(float a, float b, double x1, double x2, double tolerance, int maxDepth) {
-        if (maxDepth <= 0) {
-            return simpson(a, b, x1, x2);
+    public static double logGamma(double x) {
+        if (x < 0.5) {
+            return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1.0 - x);
         }
         
-        double mid = (x1 + x2) / 2.0;
-        double left = simpson(a, b, x1, mid);
-        double right = simpson(a, b, mid, x2);
-        double whole = simpson(a, b, x1, x2);
-        
-        if (Math.abs(left + right - whole) < tolerance) {
-            return left + right;
+        double y = x - 1.0;
+        double result = 0.99999999999980993;
+        for (int i = 0; i < LANCZOS.length; i++) {
+            result += LANCZOS[i] / (y + i + 1);
         }
         
-        return adaptiveSimpson(a, b, x1, mid, tolerance / 2, maxDepth - 1) +
-               adaptiveSimpson(a, b, mid, x2, tolerance / 2, maxDepth - 1);
+        double t = y + LANCZOS.length - 0.5;
+        return 0.5 * Math.log(2 * Math.PI) + (y + 0.5) * Math.log(t) - t + Math.log(result);
     }
     
     /**
-     * 辛普森法则积分
-     * Simpson's rule integration
-     */
-    private static double simpson(float a, float b, double x1, double x2) {
-        double h = (x2 - x1) / 2.0;
-        double x0 = x1;
-        double x1_mid = x1 + h;
-        double x2_mid = x2;
-        
-        double f0 = betaIntegrand(a, b, x0);
-        double f1 = betaIntegrand(a, b, x1_mid);
-        double f2 = betaIntegrand(a, b, x2_mid);
-        
-        return h * (f0 + 4.0 * f1 + f2) / 3.0;
-    }
-    
-    /**
-     * 贝塔函数被积函数
-     * Beta function integrand
+     * 不完全贝塔函数B(x; a, b)
+     * Incomplete beta function B(x; a, b)
+     * 
+     * @param a 参数a / Parameter a
+     * @param b 参数b / Parameter b
+     * @param x 输入值 / Input value
+     * @return 不完全贝塔函数值 / Incomplete beta function value
      */
-    private static double betaIntegrand(float a, float b, double t) {
-        if (t <= 0.0 || t >= 1.0) {
-            return 0.0;
+    public static double incompleteBeta(float a, float b, float x) {
+        if (x < 0.0f || x > 1.0f) {
+            throw new IllegalArgumentException("x必须在[0,1]范围内 / x must be in range [0,1]");
         }
         
-        // 处理奇点
-        if (t == 0.0 && a <= 1.0) {
-            return 0.0;
-        }
-        if (t == 1.0 && b <= 1.0) {
-            return 0.0;
-        }
+        if (x == 0.0f) return 0.0;
+        if (x == 1.0f) return beta(a, b);
         
-        return Math.pow(t, a - 1.0) * Math.pow(1.0 - t, b - 1.0);
+        return regularizedIncompleteBeta(a, b, x) * beta(a, b);
     }
     
     /**
-     * 贝塔函数的连分数展开
-     * Continued fraction expansion for beta function
+     * 贝塔函数的连分数展开（修正Lentz算法）
+     * Continued fraction expansion for beta function (modified Lentz)
      */
-    private static double betaCF(float a, float b, float x) {
-        int maxIter = 100;
-        double eps = 1e-10;
-        
+    private static double betaCF(double a, double b, double x) {
         double qab = a + b;
         double qap = a + 1.0;
         double qam = a - 1.0;
         double c = 1.0;
         double d = 1.0 - qab * x / qap;
         
-        if (Math.abs(d) < eps) d = eps;
+        if (Math.abs(d) < SPECIAL_TINY) d = SPECIAL_TINY;
         d = 1.0 / d;
         double h = d;
         
-        for (int m = 1; m <= maxIter; m++) {
+        for (int m = 1; m <= MAX_SPECIAL_ITERATIONS; m++) {
             int m2 = 2 * m;
             double aa = m * (b - m) * x / ((qam + m2) * (a + m2));
             d = 1.0 + aa * d;
-            if (Math.abs(d) < eps) d = eps;
+            if (Math.abs(d) < SPECIAL_TINY) d = SPECIAL_TINY;
             c = 1.0 + aa / c;
-            if (Math.abs(c) < eps) c = eps;
+            if (Math.abs(c) < SPECIAL_TINY) c = SPECIAL_TINY;
             d = 1.0 / d;
             h *= d * c;
             
             aa = -(a + m) * (qab + m) * x / ((a + m2) * (qap + m2));
             d = 1.0 + aa * d;
-            if (Math.abs(d) < eps) d = eps;
+            if (Math.abs(d) < SPECIAL_TINY) d = SPECIAL_TINY;
             c = 1.0 + aa / c;
-            if (Math.abs(c) < eps) c = eps;
+            if (Math.abs(c) < SPECIAL_TINY) c = SPECIAL_TINY;
             d = 1.0 / d;
             double del = d * c;
             h *= del;
             
-            if (Math.abs(del - 1.0) < eps) break;
+            if (Math.abs(del - 1.0) < SPECIAL_EPS) break;
         }
         
         return h;
@@ -362,8 +337,8 @@ public class RereMathUtil {
     }
     
     /**
-     * 不完全伽马函数的近似实现
-     * Approximation implementation of incomplete gamma function
+     * 不完全伽马函数（下不完全伽马函数γ(a, x)）
+     * Incomplete gamma function (lower incomplete gamma function γ(a, x))
      * 
      * @param a 参数a / Parameter a
      * @param x 输入值 / Input value
@@ -377,63 +352,48 @@ public class RereMathUtil {
         if (x == 0.0f) return 0.0;
         if (a == 0.0f) return 1.0;
         
-        // 使用简单的数值积分方法
-        // Using simple numerical integration method
-        return incompleteGammaIntegral(a, x);
+        return regularizedIncompleteGamma(a, x) * gamma(a);
     }
     
     /**
-     * 使用数值积分计算不完全伽马函数
-     * Calculate incomplete gamma function using numerical integration
-     */
-    private static double incompleteGammaIntegral(float a, float x) {
-        // 使用梯形法则进行数值积分
-        // Using trapezoidal rule for numerical integration
-        int n = 1000; // 积分步数
-        double h = x / n;
-        double sum = 0.0;
-        
-        // 计算积分 ∫[0,x] t^(a-1) * e^(-t) dt
-        for (int i = 0; i <= n; i++) {
-            double t = i * h;
-            if (t == 0.0 && a <= 1.0) {
-                // 处理t=0时的奇点
-                continue;
-            }
-            
-            double weight = (i == 0 || i == n) ? 0.5 : 1.0;
-            double integrand = Math.pow(t, a - 1.0) * Math.exp(-t);
-            sum += weight * integrand;
+     * 正则化不完全伽马函数的级数部分：P(a, x) = x^a e^(-x) / Γ(a) * Σ x^n / (a(a+1)...(a+n))
+     * Series part of the regularized incomplete gamma function
+     */
+    private static double gammaSeries(double a, double x) {
+        double ap = a;
+        double del = 1.0 / a;
+        double sum = del;
+        for (int n = 0; n < MAX_SPECIAL_ITERATIONS; n++) {
+            ap += 1.0;
+            del *= x / ap;
+            sum += del;
+            if (Math.abs(del) < Math.abs(sum) * SPECIAL_EPS) break;
         }
-        
-        return h * sum;
+        return sum;
     }
     
     /**
-     * 伽马函数的连分数展开
-     * Continued fraction expansion for gamma function
+     * 上不完全伽马函数的连分数展开（修正Lentz算法）：Q(a, x) = x^a e^(-x) / Γ(a) * CF
+     * Continued fraction of the upper incomplete gamma function (modified Lentz): Q(a, x) = x^a e^(-x) / Γ(a) * CF
      */
-    private static double gammaCF(float a, float x) {
-        int maxIter = 100;
-        double eps = 1e-10;
-        
+    private static double gammaCF(double a, double x) {
         double b = x + 1.0 - a;
-        double c = 1e30;
+        double c = 1.0 / SPECIAL_TINY;
         double d = 1.0 / b;
         double h = d;
         
-        for (int i = 1; i <= maxIter; i++) {
+        for (int i = 1; i <= MAX_SPECIAL_ITERATIONS; i++) {
             double an = -i * (i - a);
             b += 2.0;
             d = an * d + b;
-            if (Math.abs(d) < eps) d = eps;
+            if (Math.abs(d) < SPECIAL_TINY) d = SPECIAL_TINY;
             c = b + an / c;
-            if (Math.abs(c) < eps) c = eps;
+            if (Math.abs(c) < SPECIAL_TINY) c = SPECIAL_TINY;
             d = 1.0 / d;
             double del = d * c;
             h *= del;
             
-            if (Math.abs(del - 1.0) < eps) break;
+            if (Math.abs(del - 1.0) < SPECIAL_EPS) break;
         }
         
         return h;
@@ -505,12 +465,7 @@ public class RereMathUtil {
             throw new IllegalArgumentException("数组长度必须大于等于0 / Array length must be greater than or equal to 0");
         }
         
-        Random random = new Random();
-        float[] result = new float[n];
-        for (int i = 0; i < n; i++) {
-            result[i] = random.nextFloat();
-        }
-        return result;
+        return generateRandomFloats(ThreadLocalRandom.current(), n);
     }
     
     /**
@@ -526,10 +481,28 @@ public class RereMathUtil {
             throw new IllegalArgumentException("数组长度必须大于等于0 / Array length must be greater than or equal to 0");
         }
         
-        Random random = new Random(seed);
+        return generateRandomFloats(new Random(seed), n);
+    }
+
+    /**
+     * 用给定的生成器生成随机浮点数数组
+     * Generate random float array with the given generator
+     * 
+     * @param rng 随机数生成器 / Random generator
+     * @param n 数组长度 / Array length
+     * @return 随机浮点数数组 / Random float array
+     */
+    public static float[] generateRandomFloats(RandomGenerator rng, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("数组长度必须大于等于0 / Array length must be greater than or equal to 0");
+        }
+        if (rng == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+        
         float[] result = new float[n];
         for (int i = 0; i < n; i++) {
-            result[i] = random.nextFloat();
+            result[i] = rng.nextFloat();
         }
         return result;
     }
@@ -651,20 +624,37 @@ public class RereMathUtil {
      * @return 正则化不完全Beta函数值 / Regularized incomplete beta function value
      */
     public static double regularizedIncompleteBeta(int a, int b, float x) {
-        return incompleteBeta(a, b, x) / beta(a, b);
+        return regularizedIncompleteBeta((float) a, (float) b, x);
     }
     
     /**
      * 正则化不完全Beta函数（float参数版本）
      * Regularized incomplete beta function (float parameter version)
      * 
+     * 使用连分数展开：x < (a+1)/(a+b+2)时直接展开，否则利用I_x(a,b) = 1 - I_{1-x}(b,a)，
+     * 两种情况下连分数都收敛很快。
+     * Uses the continued fraction directly for x < (a+1)/(a+b+2) and the symmetry I_x(a,b) = 1 - I_{1-x}(b,a)
+     * otherwise, where the fraction converges quickly in both cases.
+     * 
      * @param a 参数a / Parameter a
      * @param b 参数b / Parameter b
      * @param x 输入值 / Input value
      * @return 正则化不完全Beta函数值 / Regularized incomplete beta function value
      */
     public static double regularizedIncompleteBeta(float a, float b, float x) {
-        return incompleteBeta(a, b, x) / beta(a, b);
+        if (x < 0.0f || x > 1.0f) {
+            throw new IllegalArgumentException("x必须在[0,1]范围内 / x must be in range [0,1]");
+        }
+        
+        if (x == 0.0f) return 0.0;
+        if (x == 1.0f) return 1.0;
+        
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b)
+            + a * Math.log(x) + b * Math.log1p(-x));
+        if (x < (a + 1.0) / (a + b + 2.0)) {
+            return front * betaCF(a, b, x) / a;
+        }
+        return 1.0 - front * betaCF(b, a, 1.0 - x) / b;
     }
     
     /**
@@ -676,7 +666,33 @@ public class RereMathUtil {
      * @return 正则化不完全Gamma函数值 / Regularized incomplete gamma function value
      */
     public static double regularizedIncompleteGamma(int a, float x) {
-        return incompleteGamma(a, x) / gamma(a);
+        return regularizedIncompleteGamma((float) a, x);
+    }
+    
+    /**
+     * 正则化不完全Gamma函数（float参数版本）
+     * Regularized incomplete gamma function (float parameter version)
+     * 
+     * x < a+1时使用级数展开，否则使用上不完全Gamma函数的连分数展开。
+     * Uses the series expansion for x < a+1 and the continued fraction of the upper function otherwise.
+     * 
+     * @param a 参数a / Parameter a
+     * @param x 输入值 / Input value
+     * @return 正则化不完全Gamma函数值P(a, x) / Regularized incomplete gamma function value P(a, x)
+     */
+    public static double regularizedIncompleteGamma(float a, float x) {
+        if (x < 0.0f) {
+            throw new IllegalArgumentException("x必须大于等于0 / x must be greater than or equal to 0");
+        }
+        
+        if (x == 0.0f) return 0.0;
+        if (a == 0.0f || x == Float.POSITIVE_INFINITY) return 1.0;
+        
+        double front = Math.exp(a * Math.log(x) - x - logGamma(a));
+        if (x < a + 1.0f) {
+            return front * gammaSeries(a, x);
+        }
+        return 1.0 - front * gammaCF(a, x);
     }
     
     /**
@@ -700,11 +716,20 @@ public class RereMathUtil {
      * @return 正态分布随机数 / Normal distribution random number
      */
     public static double normalSample(float mean, float stdDev) {
-        // Box-Muller变换
-        double u1 = Math.random();
-        double u2 = Math.random();
-        double z0 = Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
-        return mean + stdDev * z0;
+        return normalSample(mean, stdDev, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * 用给定的生成器生成正态分布随机数
+     * Generate normal distribution random number with the given generator
+     * 
+     * @param mean 均值 / Mean
+     * @param stdDev 标准差 / Standard deviation
+     * @param rng 随机数生成器 / Random generator
+     * @return 正态分布随机数 / Normal distribution random number
+     */
+    public static double normalSample(float mean, float stdDev, RandomGenerator rng) {
+        return mean + stdDev * rng.nextGaussian();
     }
     
     public static void main(String args[]) {
@@ -0,0 +1,340 @@
+package com.reremouse.lab.math;
+
+import com.reremouse.lab.util.RereExecutor;
+
+/**
+ * 压缩稀疏行（CSR）矩阵 / Compressed sparse row (CSR) matrix
+ * <p>
+ * 只保存非零元素：第i行的非零元素位于[rowPointers[i], rowPointers[i + 1])，列号在columnIndices中，
+ * 值在values中。每行的列号严格递增（无重复）。存储与逐行运算的开销都与非零元素个数nnz成正比，
+ * 适合one-hot、哈希特征等维度很高但每行只有少量非零元素的数据。
+ * </p>
+ * <p>
+ * Stores only the non-zero entries: the entries of row i are at [rowPointers[i], rowPointers[i + 1]), with their
+ * column numbers in columnIndices and their values in values. Column numbers are strictly increasing within each
+ * row (no duplicates). Storage and row-wise operations cost O(nnz), which suits one-hot or hashed features with a
+ * huge dimension but only a few non-zeros per row.
+ * </p>
+ * <p>
+ * 本类不实现{@link IMatrix}：IMatrix的大部分运算需要稠密存储，高维稀疏数据无法稠密化。
+ * 需要时可用{@link #toDense()}显式转换。
+ * This class does not implement {@link IMatrix}: most IMatrix operations need dense storage, which high-dimensional
+ * sparse data cannot afford. Use {@link #toDense()} to convert explicitly when needed.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereSparseMatrix {
+
+    /** 并行矩阵向量乘法时每个块的最小行数 / Minimum rows per parallel block in matrix-vector products */
+    private static final int ROW_GRAIN = 4096;
+
+    /** 行数 / Number of rows */
+    private final int rows;
+
+    /** 列数 / Number of columns */
+    private final int cols;
+
+    /** 行指针，长度rows + 1 / Row pointers, length rows + 1 */
+    private final int[] rowPointers;
+
+    /** 非零元素的列号 / Column numbers of the non-zeros */
+    private final int[] columnIndices;
+
+    /** 非零元素的值 / Values of the non-zeros */
+    private final float[] values;
+
+    /**
+     * 构造函数 / Constructor
+     * <p>直接使用给定的数组，不复制 / Uses the given arrays directly without copying</p>
+     *
+     * @param rows 行数 / Number of rows
+     * @param cols 列数 / Number of columns
+     * @param rowPointers 行指针，长度rows + 1 / Row pointers, length rows + 1
+     * @param columnIndices 非零元素的列号，每行严格递增 / Column numbers, strictly increasing within each row
+     * @param values 非零元素的值 / Values of the non-zeros
+     * @throws IllegalArgumentException 如果数组不构成合法的CSR结构 / if the arrays do not form a valid CSR structure
+     */
+    public RereSparseMatrix(int rows, int cols, int[] rowPointers, int[] columnIndices, float[] values) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("矩阵维度不能为负 / Matrix dimensions cannot be negative");
+        }
+        if (rowPointers == null || columnIndices == null || values == null) {
+            throw new IllegalArgumentException("CSR数组不能为null / CSR arrays cannot be null");
+        }
+        if (rowPointers.length != rows + 1 || rowPointers[0] != 0) {
+            throw new IllegalArgumentException("行指针长度须为行数+1且从0开始 / Row pointers must have rows + 1 entries starting at 0");
+        }
+        if (columnIndices.length != values.length || rowPointers[rows] != values.length) {
+            throw new IllegalArgumentException("非零元素个数不一致 / Inconsistent number of non-zeros");
+        }
+        for (int i = 0; i < rows; i++) {
+            if (rowPointers[i + 1] < rowPointers[i]) {
+                throw new IllegalArgumentException("行指针必须非递减 / Row pointers must be non-decreasing");
+            }
+            int previous = -1;
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                int j = columnIndices[p];
+                if (j <= previous || j >= cols) {
+                    throw new IllegalArgumentException("第" + i + "行的列号须严格递增且小于列数 / Column numbers of row " + i
+                        + " must be strictly increasing and less than the column count");
+                }
+                previous = j;
+            }
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * 由稠密矩阵创建，只保留非零元素 / Create from a dense matrix, keeping only the non-zeros
+     *
+     * @param dense 稠密矩阵 / Dense matrix
+     * @return 稀疏矩阵 / Sparse matrix
+     */
+    public static RereSparseMatrix of(IMatrix dense) {
+        if (dense == null) {
+            throw new IllegalArgumentException("矩阵不能为null / Matrix cannot be null");
+        }
+        float[][] data = dense.getData();
+        int rows = dense.getRowNum();
+        int cols = dense.getColNum();
+        int[] rowPointers = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            int count = 0;
+            for (float v : data[i]) {
+                if (v != 0.0f) {
+                    count++;
+                }
+            }
+            rowPointers[i + 1] = rowPointers[i] + count;
+        }
+        int[] columnIndices = new int[rowPointers[rows]];
+        float[] values = new float[rowPointers[rows]];
+        for (int i = 0; i < rows; i++) {
+            int p = rowPointers[i];
+            for (int j = 0; j < cols; j++) {
+                if (data[i][j] != 0.0f) {
+                    columnIndices[p] = j;
+                    values[p++] = data[i][j];
+                }
+            }
+        }
+        return new RereSparseMatrix(rows, cols, rowPointers, columnIndices, values);
+    }
+
+    /**
+     * 由每行的列号与值创建 / Create from per-row column numbers and values
+     *
+     * @param cols 列数 / Number of columns
+     * @param indices 每行的列号，严格递增 / Column numbers of each row, strictly increasing
+     * @param values 每行的值，与indices等长 / Values of each row, same lengths as indices
+     * @return 稀疏矩阵 / Sparse matrix
+     */
+    public static RereSparseMatrix of(int cols, int[][] indices, float[][] values) {
+        if (indices == null || values == null || indices.length != values.length) {
+            throw new IllegalArgumentException("列号与值的行数必须相同 / Indices and values must have the same number of rows");
+        }
+        int rows = indices.length;
+        int[] rowPointers = new int[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            if (indices[i].length != values[i].length) {
+                throw new IllegalArgumentException("第" + i + "行的列号与值长度不同 / Row " + i + " has mismatched lengths");
+            }
+            rowPointers[i + 1] = rowPointers[i] + indices[i].length;
+        }
+        int[] columnIndices = new int[rowPointers[rows]];
+        float[] data = new float[rowPointers[rows]];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(indices[i], 0, columnIndices, rowPointers[i], indices[i].length);
+            System.arraycopy(values[i], 0, data, rowPointers[i], values[i].length);
+        }
+        return new RereSparseMatrix(rows, cols, rowPointers, columnIndices, data);
+    }
+
+    /**
+     * 获取行数 / Get the number of rows
+     *
+     * @return 行数 / Number of rows
+     */
+    public int getRowNum() {
+        return rows;
+    }
+
+    /**
+     * 获取列数 / Get the number of columns
+     *
+     * @return 列数 / Number of columns
+     */
+    public int getColNum() {
+        return cols;
+    }
+
+    /**
+     * 获取非零元素个数 / Get the number of non-zeros
+     *
+     * @return 非零元素个数 / Number of non-zeros
+     */
+    public int getNonZeroCount() {
+        return values.length;
+    }
+
+    /**
+     * 获取行指针（内部数组，不复制） / Get the row pointers (internal array, not copied)
+     *
+     * @return 行指针 / Row pointers
+     */
+    public int[] getRowPointers() {
+        return rowPointers;
+    }
+
+    /**
+     * 获取非零元素的列号（内部数组，不复制） / Get the column numbers of the non-zeros (internal array, not copied)
+     *
+     * @return 列号 / Column numbers
+     */
+    public int[] getColumnIndices() {
+        return columnIndices;
+    }
+
+    /**
+     * 获取非零元素的值（内部数组，不复制） / Get the values of the non-zeros (internal array, not copied)
+     *
+     * @return 值 / Values
+     */
+    public float[] getValues() {
+        return values;
+    }
+
+    /**
+     * 获取元素，按列号二分查找 / Get an element by binary search on the column numbers
+     *
+     * @param i 行索引 / Row index
+     * @param j 列索引 / Column index
+     * @return 元素值，不存在时为0 / Element value, 0 if absent
+     */
+    public float get(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols) {
+            throw new IndexOutOfBoundsException("索引越界 / Index out of bounds: (" + i + ", " + j + ")");
+        }
+        int low = rowPointers[i];
+        int high = rowPointers[i + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = columnIndices[mid];
+            if (c < j) {
+                low = mid + 1;
+            } else if (c > j) {
+                high = mid - 1;
+            } else {
+                return values[mid];
+            }
+        }
+        return 0.0f;
+    }
+
+    /**
+     * 第i行与稠密数组的点积 / Dot product of row i with a dense array
+     *
+     * @param i 行索引 / Row index
+     * @param w 稠密数组，长度不小于列数 / Dense array, at least as long as the column count
+     * @return 点积 / Dot product
+     */
+    public float rowDot(int i, float[] w) {
+        return rowDot(i, w, 0);
+    }
+
+    /**
+     * 第i行与稠密数组w[offset, offset + cols)的点积 / Dot product of row i with w[offset, offset + cols)
+     *
+     * @param i 行索引 / Row index
+     * @param w 稠密数组 / Dense array
+     * @param offset 起始偏移 / Start offset
+     * @return 点积 / Dot product
+     */
+    public float rowDot(int i, float[] w, int offset) {
+        float sum = 0.0f;
+        for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+            sum += values[p] * w[offset + columnIndices[p]];
+        }
+        return sum;
+    }
+
+    /**
+     * 矩阵向量乘法 y = A * x，按行分块并行 / Matrix-vector product y = A * x, parallel over row blocks
+     *
+     * @param x 向量，长度等于列数 / Vector whose length equals the column count
+     * @return 结果向量 / Result vector
+     */
+    public IVector multiply(IVector x) {
+        if (x == null || x.length() != cols) {
+            throw new IllegalArgumentException("向量长度与列数不匹配 / Vector length does not match the column count");
+        }
+        float[] w = x.getData();
+        float[] result = new float[rows];
+        RereExecutor.parallelFor(0, rows, ROW_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                result[i] = rowDot(i, w, 0);
+            }
+        });
+        return IVector.of(result);
+    }
+
+    /**
+     * 转置，O(nnz)的计数排序 / Transpose by an O(nnz) counting sort
+     * <p>
+     * 转置后的每行即原矩阵的一列，列号（原行号）自然递增。常用于按列累加，例如梯度 Xᵀr。
+     * Each row of the result is a column of this matrix, with its column numbers (original row numbers) increasing
+     * naturally. Typically used for column-wise accumulation such as the gradient Xᵀr.
+     * </p>
+     *
+     * @return 转置矩阵 / Transposed matrix
+     */
+    public RereSparseMatrix transpose() {
+        int nnz = values.length;
+        int[] pointers = new int[cols + 1];
+        for (int p = 0; p < nnz; p++) {
+            pointers[columnIndices[p] + 1]++;
+        }
+        for (int j = 0; j < cols; j++) {
+            pointers[j + 1] += pointers[j];
+        }
+        int[] next = new int[cols];
+        System.arraycopy(pointers, 0, next, 0, cols);
+        int[] indices = new int[nnz];
+        float[] data = new float[nnz];
+        for (int i = 0; i < rows; i++) {
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                int q = next[columnIndices[p]]++;
+                indices[q] = i;
+                data[q] = values[p];
+            }
+        }
+        return new RereSparseMatrix(cols, rows, pointers, indices, data);
+    }
+
+    /**
+     * 转换为稠密矩阵 / Convert to a dense matrix
+     *
+     * @return 稠密矩阵 / Dense matrix
+     */
+    public IMatrix toDense() {
+        float[][] data = new float[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                data[i][columnIndices[p]] = values[p];
+            }
+        }
+        return IMatrix.of(data);
+    }
+
+    @Override
+    public String toString() {
+        return "RereSparseMatrix(" + rows + "x" + cols + ", nnz=" + values.length + ")";
+    }
+}
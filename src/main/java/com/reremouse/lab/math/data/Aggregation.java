@@ -0,0 +1,227 @@
+package com.reremouse.lab.math.data;
+
+/**
+ * 聚合函数 / Aggregation function
+ * <p>描述对一个表达式的聚合计算（求和、均值、最值、计数、方差、标准差），
+ * 用于{@link LazyFrame#aggregate(Aggregation...)}。聚合状态可以分块累积后再合并，
+ * 因此既可以在并行分块中使用，也可以跨多个数据批次累积。NaN值在聚合中被忽略。</p>
+ * <p>Describes an aggregate computation over an expression (sum, mean, min, max, count, variance, std),
+ * used by {@link LazyFrame#aggregate(Aggregation...)}. Aggregation state can be accumulated per chunk and
+ * merged afterwards, so it works both across parallel chunks and across successive data batches.
+ * NaN values are ignored.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Aggregation {
+
+    /**
+     * 聚合函数类型 / Aggregation function type
+     */
+    public enum Function {
+        /** 求和 / Sum */
+        SUM,
+        /** 均值 / Mean */
+        MEAN,
+        /** 最小值 / Minimum */
+        MIN,
+        /** 最大值 / Maximum */
+        MAX,
+        /** 计数（非NaN） / Count of non-NaN values */
+        COUNT,
+        /** 样本方差（ddof=1） / Sample variance (ddof=1) */
+        VAR,
+        /** 样本标准差（ddof=1） / Sample standard deviation (ddof=1) */
+        STD
+    }
+
+    private final Function function;
+    private final Expr expr;
+    private final String alias;
+
+    private Aggregation(Function function, Expr expr, String alias) {
+        this.function = function;
+        this.expr = expr;
+        this.alias = alias;
+    }
+
+    private static Aggregation of(Function function, Expr expr) {
+        if (expr == null) {
+            throw new IllegalArgumentException("聚合表达式不能为null / Aggregation expression cannot be null");
+        }
+        return new Aggregation(function, expr, function.name().toLowerCase() + "(" + expr + ")");
+    }
+
+    /** 求和 / Sum */
+    public static Aggregation sum(Expr expr) { return of(Function.SUM, expr); }
+    /** 列求和 / Column sum */
+    public static Aggregation sum(String column) { return sum(Expr.col(column)); }
+    /** 均值 / Mean */
+    public static Aggregation mean(Expr expr) { return of(Function.MEAN, expr); }
+    /** 列均值 / Column mean */
+    public static Aggregation mean(String column) { return mean(Expr.col(column)); }
+    /** 最小值 / Minimum */
+    public static Aggregation min(Expr expr) { return of(Function.MIN, expr); }
+    /** 列最小值 / Column minimum */
+    public static Aggregation min(String column) { return min(Expr.col(column)); }
+    /** 最大值 / Maximum */
+    public static Aggregation max(Expr expr) { return of(Function.MAX, expr); }
+    /** 列最大值 / Column maximum */
+    public static Aggregation max(String column) { return max(Expr.col(column)); }
+    /** 非NaN计数 / Count of non-NaN values */
+    public static Aggregation count(Expr expr) { return of(Function.COUNT, expr); }
+    /** 列非NaN计数 / Column count of non-NaN values */
+    public static Aggregation count(String column) { return count(Expr.col(column)); }
+    /** 行计数 / Row count */
+    public static Aggregation count() { return new Aggregation(Function.COUNT, Expr.lit(0f), "count"); }
+    /** 样本方差 / Sample variance */
+    public static Aggregation var(Expr expr) { return of(Function.VAR, expr); }
+    /** 列样本方差 / Column sample variance */
+    public static Aggregation var(String column) { return var(Expr.col(column)); }
+    /** 样本标准差 / Sample standard deviation */
+    public static Aggregation std(Expr expr) { return of(Function.STD, expr); }
+    /** 列样本标准差 / Column sample standard deviation */
+    public static Aggregation std(String column) { return std(Expr.col(column)); }
+
+    /**
+     * 设置结果列名 / Set result column name
+     *
+     * @param name 结果列名 / Result column name
+     * @return 新的聚合对象 / New aggregation
+     */
+    public Aggregation as(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("列名不能为空 / Column name cannot be empty");
+        }
+        return new Aggregation(function, expr, name);
+    }
+
+    /**
+     * 获取聚合函数类型 / Get aggregation function type
+     *
+     * @return 函数类型 / Function type
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * 获取被聚合的表达式 / Get the aggregated expression
+     *
+     * @return 表达式 / Expression
+     */
+    public Expr getExpr() {
+        return expr;
+    }
+
+    /**
+     * 获取结果列名 / Get result column name
+     *
+     * @return 结果列名 / Result column name
+     */
+    public String getAlias() {
+        return alias;
+    }
+
+    /**
+     * 创建新的累积状态 / Create a new accumulator state
+     *
+     * @return 空状态 / Empty state
+     */
+    public State newState() {
+        return new State();
+    }
+
+    @Override
+    public String toString() {
+        return alias;
+    }
+
+    /**
+     * 可合并的聚合状态 / Mergeable aggregation state
+     * <p>同时维护计数、和、最值以及Welford均值/二阶中心矩，合并时使用Chan等人的并行公式，
+     * 保证分块累积与整体累积结果一致</p>
+     * <p>Tracks count, sum, extrema and Welford mean / second central moment; merging uses the parallel
+     * formula of Chan et al. so chunked accumulation matches a single sequential pass</p>
+     */
+    public final class State {
+        private long count;
+        private double sum;
+        private double mean;
+        private double m2;
+        private float min = Float.POSITIVE_INFINITY;
+        private float max = Float.NEGATIVE_INFINITY;
+
+        private State() {
+        }
+
+        /**
+         * 累积一个值，NaN被忽略 / Accumulate one value, NaN is ignored
+         *
+         * @param v 数值 / Value
+         */
+        public void add(float v) {
+            if (Float.isNaN(v)) {
+                return;
+            }
+            count++;
+            sum += v;
+            double delta = v - mean;
+            mean += delta / count;
+            m2 += delta * (v - mean);
+            if (v < min) {
+                min = v;
+            }
+            if (v > max) {
+                max = v;
+            }
+        }
+
+        /**
+         * 合并另一个状态 / Merge another state
+         *
+         * @param other 另一个状态 / Other state
+         */
+        public void merge(State other) {
+            if (other.count == 0) {
+                return;
+            }
+            if (count == 0) {
+                count = other.count;
+                sum = other.sum;
+                mean = other.mean;
+                m2 = other.m2;
+                min = other.min;
+                max = other.max;
+                return;
+            }
+            long n = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / n;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+            count = n;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * 获取聚合结果 / Get aggregation result
+         *
+         * @return 结果，无有效值时为NaN（计数为0） / Result, NaN when there is no valid value (0 for count)
+         */
+        public float result() {
+            switch (function) {
+                case COUNT: return count;
+                case SUM: return (float) sum;
+                case MEAN: return count == 0 ? Float.NaN : (float) mean;
+                case MIN: return count == 0 ? Float.NaN : min;
+                case MAX: return count == 0 ? Float.NaN : max;
+                case VAR: return count < 2 ? Float.NaN : (float) (m2 / (count - 1));
+                case STD: return count < 2 ? Float.NaN : (float) Math.sqrt(m2 / (count - 1));
+                default: throw new IllegalStateException("未知的聚合函数 / Unknown aggregation function: " + function);
+            }
+        }
+    }
+}
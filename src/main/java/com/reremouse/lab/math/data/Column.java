@@ -44,12 +44,32 @@ public class Column  implements Serializable{
     
     /**
      * 如果列类型为Float，返回；如果是String，报错
+     * 返回的向量是列数据的副本，修改向量不会影响列
      * @return 
      */
     public IVector toVec() {
+        if (data instanceof FloatColumnData) {
+            return IVector.of(((FloatColumnData) data).array().clone());
+        }
+        if (data instanceof MatrixColumnData) {
+            return IVector.of(((MatrixColumnData) data).toArray(new float[data.size()]));
+        }
         return IVector.of(data.toArray(Float[]::new));
     }
     
+    /**
+     * 以向量视图的形式返回Float列，不复制
+     * 原始float存储的列直接共享底层数组，对向量的修改（set、fill、sort等）会反映到列中；
+     * 其他存储的列无法共享，返回副本
+     * @return 
+     */
+    public IVector asVecView() {
+        if (data instanceof FloatColumnData) {
+            return IVector.of(((FloatColumnData) data).array());
+        }
+        return toVec();
+    }
+    
     /**
      * 如果列类型为String，返回；如果是Float，转换为String返回
      * @return 
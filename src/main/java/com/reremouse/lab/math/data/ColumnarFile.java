@@ -0,0 +1,701 @@
+package com.reremouse.lab.math.data;
+
+import com.reremouse.lab.util.RereExecutor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据框的列式二进制文件格式 / Columnar binary file format for DataFrame
+ * <p>每列按类型以二进制连续存储，文件末尾的页脚记录模式（列名、类型、编码）和各列的偏移量。
+ * 读取时只内存映射并解码所需的列，不需要重新推断类型。</p>
+ * <p>Each column is stored contiguously in a typed binary layout; a footer at the end of the file records the
+ * schema (names, types, encodings) and the offset of every column. Reads memory-map and decode only the
+ * requested columns, and types never need to be re-inferred.</p>
+ *
+ * <h3>文件布局 / File layout:</h3>
+ * <pre>
+ * "YSCF" | version(int) | column block 0 | column block 1 | ... | footer | footerLength(int) | "YSCF"
+ * footer = rowCount(long) | columnCount(int) | { name | type(byte) | encoding(byte) | offset(long) | length(long) }*
+ * </pre>
+ * <p>所有数值按小端序存储 / All numbers are little-endian</p>
+ *
+ * <h3>列编码 / Column encodings:</h3>
+ * <ul>
+ * <li>PLAIN：Float列为连续的float，String列为长度前缀的UTF-8 / Float columns as raw floats, String columns as length-prefixed UTF-8</li>
+ * <li>DICTIONARY：字典加定长编码（1/2/4字节） / Dictionary plus fixed-width codes (1/2/4 bytes)</li>
+ * <li>RLE：Float列的（值, 重复次数）游程 / (value, run length) pairs for Float columns</li>
+ * <li>DELTA：整数值Float列的zigzag变长差分 / Zigzag varint deltas for integral Float columns</li>
+ * </ul>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ColumnarFile {
+
+    /**
+     * 列编码方式 / Column encoding
+     */
+    public enum Encoding {
+        /** 自动选择体积最小的编码 / Choose the smallest applicable encoding */
+        AUTO,
+        /** 原始编码 / Plain encoding */
+        PLAIN,
+        /** 字典编码 / Dictionary encoding */
+        DICTIONARY,
+        /** 游程编码（仅Float列） / Run-length encoding (Float columns only) */
+        RLE,
+        /** 差分编码（仅整数值Float列） / Delta encoding (integral Float columns only) */
+        DELTA
+    }
+
+    private static final byte[] MAGIC = "YSCF".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final byte TYPE_FLOAT = 0;
+    private static final byte TYPE_STRING = 1;
+
+    /** 字典编码的最大字典大小 / Maximum dictionary size for dictionary encoding */
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    /** -0.0f的位模式 / Bit pattern of -0.0f */
+    private static final int NEGATIVE_ZERO_BITS = Float.floatToRawIntBits(-0.0f);
+
+    private ColumnarFile() {
+    }
+
+    /**
+     * 列的元信息 / Column metadata
+     */
+    private static final class ColumnMeta {
+        String name;
+        byte type;
+        Encoding encoding;
+        long offset;
+        long length;
+    }
+
+    // ==================== 写入 / Writing ====================
+
+    /**
+     * 写入文件，每列自动选择编码 / Write a file, choosing each column's encoding automatically
+     *
+     * @param df 数据框 / DataFrame
+     * @param filePath 文件路径 / File path
+     * @throws IOException 如果写入失败 / if writing fails
+     */
+    public static void write(DataFrame df, String filePath) throws IOException {
+        write(df, filePath, Collections.emptyMap());
+    }
+
+    /**
+     * 写入文件，可为各列指定编码 / Write a file with per-column encodings
+     * <p>未在encodings中出现的列使用{@link Encoding#AUTO}。各列并行编码后按顺序写入 /
+     * Columns missing from encodings use {@link Encoding#AUTO}. Columns are encoded in parallel and written in order</p>
+     *
+     * @param df 数据框 / DataFrame
+     * @param filePath 文件路径 / File path
+     * @param encodings 列名到编码的映射 / Map from column name to encoding
+     * @throws IOException 如果写入失败 / if writing fails
+     * @throws IllegalArgumentException 如果编码不适用于该列 / if an encoding does not apply to a column
+     */
+    public static void write(DataFrame df, String filePath, Map<String, Encoding> encodings) throws IOException {
+        if (df == null) {
+            throw new IllegalArgumentException("数据框不能为null / DataFrame cannot be null");
+        }
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空 / File path cannot be empty");
+        }
+        List<Column> columns = df.getColumns();
+        Map<String, Encoding> requested = encodings == null ? Collections.emptyMap() : encodings;
+
+        ByteBuffer[] blocks = new ByteBuffer[columns.size()];
+        RereExecutor.parallelFor(0, columns.size(), 1, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Column column = columns.get(i);
+                Encoding enc = requested.getOrDefault(column.getName(), Encoding.AUTO);
+                blocks[i] = column.getColumnType() == ColumnType.Float
+                    ? encodeFloat(FloatColumnData.toFloatArray(column.getData()), enc, column.getName())
+                    : encodeString(column.getData(), enc, column.getName());
+            }
+        });
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(VERSION).flip();
+            writeFully(channel, header);
+
+            List<ColumnMeta> metas = new ArrayList<>();
+            long offset = 8;
+            for (int i = 0; i < columns.size(); i++) {
+                ByteBuffer block = blocks[i];
+                ColumnMeta meta = new ColumnMeta();
+                meta.name = columns.get(i).getName();
+                meta.type = columns.get(i).getColumnType() == ColumnType.Float ? TYPE_FLOAT : TYPE_STRING;
+                meta.encoding = Encoding.values()[block.get(0)];
+                meta.offset = offset + 1;
+                meta.length = block.remaining() - 1;
+                metas.add(meta);
+                offset += block.remaining();
+                writeFully(channel, block);
+            }
+
+            ByteBuffer footer = encodeFooter(df.getRowCount(), metas);
+            int footerLength = footer.remaining();
+            writeFully(channel, footer);
+            ByteBuffer tail = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            tail.putInt(footerLength).put(MAGIC).flip();
+            writeFully(channel, tail);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer encodeFooter(int rowCount, List<ColumnMeta> metas) {
+        int size = 12;
+        List<byte[]> names = new ArrayList<>();
+        for (ColumnMeta meta : metas) {
+            byte[] name = (meta.name == null ? "" : meta.name).getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += 4 + name.length + 2 + 16;
+        }
+        ByteBuffer footer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        footer.putLong(rowCount).putInt(metas.size());
+        for (int i = 0; i < metas.size(); i++) {
+            ColumnMeta meta = metas.get(i);
+            footer.putInt(names.get(i).length).put(names.get(i));
+            footer.put(meta.type).put((byte) meta.encoding.ordinal());
+            footer.putLong(meta.offset).putLong(meta.length);
+        }
+        footer.flip();
+        return footer;
+    }
+
+    /**
+     * 编码Float列，块的第一个字节为实际使用的编码 / Encode a Float column; the block's first byte is the encoding used
+     */
+    private static ByteBuffer encodeFloat(float[] values, Encoding enc, String name) {
+        int n = values.length;
+        if (enc == Encoding.AUTO) {
+            long plain = 4L * n;
+            long rle = 4 + 8L * countRuns(values);
+            Map<Integer, Integer> dict = buildFloatDictionary(values);
+            long dictionary = dict == null ? Long.MAX_VALUE : 4 + 4L * dict.size() + 1 + (long) codeWidth(dict.size()) * n;
+            long delta = isIntegral(values) ? 8 + deltaSize(values) : Long.MAX_VALUE;
+            enc = Encoding.PLAIN;
+            long best = plain;
+            if (rle < best) { best = rle; enc = Encoding.RLE; }
+            if (dictionary < best) { best = dictionary; enc = Encoding.DICTIONARY; }
+            if (delta < best) { enc = Encoding.DELTA; }
+        }
+        switch (enc) {
+            case PLAIN: {
+                ByteBuffer buf = allocate(1 + 4L * n, enc);
+                buf.asFloatBuffer().put(values);
+                buf.position(buf.position() + 4 * n);
+                return finish(buf);
+            }
+            case RLE: {
+                int runs = countRuns(values);
+                ByteBuffer buf = allocate(1 + 4 + 8L * runs, enc);
+                buf.putInt(runs);
+                int i = 0;
+                while (i < n) {
+                    int bits = Float.floatToRawIntBits(values[i]);
+                    int j = i + 1;
+                    while (j < n && Float.floatToRawIntBits(values[j]) == bits) {
+                        j++;
+                    }
+                    buf.putFloat(values[i]).putInt(j - i);
+                    i = j;
+                }
+                return finish(buf);
+            }
+            case DICTIONARY: {
+                Map<Integer, Integer> dict = buildFloatDictionary(values);
+                if (dict == null) {
+                    throw new IllegalArgumentException("列 " + name + " 的不同值过多，无法使用字典编码 / Column " + name + " has too many distinct values for dictionary encoding");
+                }
+                int width = codeWidth(dict.size());
+                ByteBuffer buf = allocate(1 + 4 + 4L * dict.size() + 1 + (long) width * n, enc);
+                buf.putInt(dict.size());
+                for (Integer bits : dict.keySet()) {
+                    buf.putInt(bits);
+                }
+                buf.put((byte) width);
+                for (float v : values) {
+                    putCode(buf, width, dict.get(Float.floatToRawIntBits(v)));
+                }
+                return finish(buf);
+            }
+            case DELTA: {
+                if (!isIntegral(values)) {
+                    throw new IllegalArgumentException("列 " + name + " 含非整数值，无法使用差分编码 / Column " + name + " has non-integral values, cannot use delta encoding");
+                }
+                ByteBuffer buf = allocate(1 + 8 + deltaSize(values), enc);
+                long prev = n == 0 ? 0 : (long) values[0];
+                buf.putLong(prev);
+                for (int i = 1; i < n; i++) {
+                    long cur = (long) values[i];
+                    putVarLong(buf, zigzag(cur - prev));
+                    prev = cur;
+                }
+                return finish(buf);
+            }
+            default:
+                throw new IllegalArgumentException("不支持的编码 / Unsupported encoding: " + enc);
+        }
+    }
+
+    /**
+     * 编码String列 / Encode a String column
+     */
+    private static ByteBuffer encodeString(List<Object> data, Encoding enc, String name) {
+        int n = data.size();
+        byte[][] encoded = new byte[n][];
+        long plain = 0;
+        for (int i = 0; i < n; i++) {
+            Object o = data.get(i);
+            encoded[i] = o == null ? null : o.toString().getBytes(StandardCharsets.UTF_8);
+            plain += 4 + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+        Map<String, Integer> dict = null;
+        if (enc == Encoding.AUTO || enc == Encoding.DICTIONARY) {
+            dict = new LinkedHashMap<>();
+            for (int i = 0; i < n && dict != null; i++) {
+                Object o = data.get(i);
+                if (o == null) {
+                    dict = null;
+                    break;
+                }
+                dict.putIfAbsent(o.toString(), dict.size());
+                if (dict.size() > MAX_DICTIONARY_SIZE) {
+                    dict = null;
+                }
+            }
+        }
+        if (enc == Encoding.AUTO) {
+            enc = Encoding.PLAIN;
+            if (dict != null) {
+                long dictBytes = 4 + 1 + (long) codeWidth(dict.size()) * n;
+                for (String s : dict.keySet()) {
+                    dictBytes += 4 + s.getBytes(StandardCharsets.UTF_8).length;
+                }
+                if (dictBytes < plain) {
+                    enc = Encoding.DICTIONARY;
+                }
+            }
+        }
+        switch (enc) {
+            case PLAIN: {
+                ByteBuffer buf = allocate(1 + plain, enc);
+                for (byte[] bytes : encoded) {
+                    putBytes(buf, bytes);
+                }
+                return finish(buf);
+            }
+            case DICTIONARY: {
+                if (dict == null) {
+                    throw new IllegalArgumentException("列 " + name + " 含null或不同值过多，无法使用字典编码 / Column " + name + " has nulls or too many distinct values for dictionary encoding");
+                }
+                int width = codeWidth(dict.size());
+                List<byte[]> entries = new ArrayList<>();
+                long size = 1 + 4 + 1 + (long) width * n;
+                for (String s : dict.keySet()) {
+                    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                    entries.add(bytes);
+                    size += 4 + bytes.length;
+                }
+                ByteBuffer buf = allocate(size, enc);
+                buf.putInt(entries.size());
+                for (byte[] bytes : entries) {
+                    putBytes(buf, bytes);
+                }
+                buf.put((byte) width);
+                for (int i = 0; i < n; i++) {
+                    putCode(buf, width, dict.get(data.get(i).toString()));
+                }
+                return finish(buf);
+            }
+            default:
+                throw new IllegalArgumentException("String列 " + name + " 不支持编码 " + enc + " / String column " + name + " does not support encoding " + enc);
+        }
+    }
+
+    private static ByteBuffer allocate(long size, Encoding enc) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("单列编码后超过2GB / Encoded column exceeds 2GB");
+        }
+        ByteBuffer buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put((byte) enc.ordinal());
+        return buf;
+    }
+
+    private static ByteBuffer finish(ByteBuffer buf) {
+        buf.flip();
+        return buf;
+    }
+
+    private static void putBytes(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null) {
+            buf.putInt(-1);
+        } else {
+            buf.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static int countRuns(float[] values) {
+        int runs = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || Float.floatToRawIntBits(values[i]) != Float.floatToRawIntBits(values[i - 1])) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * 构建Float字典（按位模式），不同值过多时返回null / Build a Float dictionary by bit pattern, null when too many distinct values
+     */
+    private static Map<Integer, Integer> buildFloatDictionary(float[] values) {
+        Map<Integer, Integer> dict = new LinkedHashMap<>();
+        for (float v : values) {
+            dict.putIfAbsent(Float.floatToRawIntBits(v), dict.size());
+            if (dict.size() > MAX_DICTIONARY_SIZE) {
+                return null;
+            }
+        }
+        return dict;
+    }
+
+    private static int codeWidth(int dictSize) {
+        return dictSize <= 256 ? 1 : dictSize <= 65536 ? 2 : 4;
+    }
+
+    private static void putCode(ByteBuffer buf, int width, int code) {
+        if (width == 1) {
+            buf.put((byte) code);
+        } else if (width == 2) {
+            buf.putShort((short) code);
+        } else {
+            buf.putInt(code);
+        }
+    }
+
+    private static int getCode(ByteBuffer buf, int width) {
+        if (width == 1) {
+            return buf.get() & 0xFF;
+        } else if (width == 2) {
+            return buf.getShort() & 0xFFFF;
+        }
+        return buf.getInt();
+    }
+
+    /**
+     * 是否所有值都是可精确表示为long的整数；-0.0按long编码会变为+0.0，因此不算 / Whether every value is an integer
+     * exactly representable as long; -0.0 does not count because it would come back as +0.0
+     */
+    private static boolean isIntegral(float[] values) {
+        for (float v : values) {
+            if (v != Math.rint(v) || Float.isInfinite(v) || Math.abs(v) > 9.0e15f
+                || Float.floatToRawIntBits(v) == NEGATIVE_ZERO_BITS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long deltaSize(float[] values) {
+        long size = 0;
+        for (int i = 1; i < values.length; i++) {
+            long z = zigzag((long) values[i] - (long) values[i - 1]);
+            size += varLongSize(z);
+        }
+        return size;
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static int varLongSize(long v) {
+        int size = 1;
+        while ((v & ~0x7FL) != 0) {
+            v >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarLong(ByteBuffer buf, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private static long getVarLong(ByteBuffer buf) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.get();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    // ==================== 读取 / Reading ====================
+
+    /**
+     * 读取文件中的全部列 / Read all columns of a file
+     *
+     * @param filePath 文件路径 / File path
+     * @return 数据框 / DataFrame
+     * @throws IOException 如果读取失败或文件格式错误 / if reading fails or the file is malformed
+     */
+    public static DataFrame read(String filePath) throws IOException {
+        return read(filePath, (String[]) null);
+    }
+
+    /**
+     * 只读取指定的列 / Read only the specified columns
+     * <p>通过页脚定位各列，只内存映射并解码被请求的列，未请求的列不会被读取；结果按请求的顺序排列</p>
+     * <p>Columns are located through the footer; only requested columns are memory-mapped and decoded,
+     * others are never touched. The result follows the requested order</p>
+     *
+     * @param filePath 文件路径 / File path
+     * @param columnNames 列名，为null或空时读取全部列 / Column names, all columns when null or empty
+     * @return 数据框 / DataFrame
+     * @throws IOException 如果读取失败或文件格式错误 / if reading fails or the file is malformed
+     * @throws IllegalArgumentException 如果请求的列不存在 / if a requested column does not exist
+     */
+    public static DataFrame read(String filePath, String... columnNames) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空 / File path cannot be empty");
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            Footer footer = readFooter(channel);
+            List<ColumnMeta> selected = new ArrayList<>();
+            if (columnNames == null || columnNames.length == 0) {
+                selected.addAll(footer.columns.values());
+            } else {
+                for (String name : columnNames) {
+                    ColumnMeta meta = footer.columns.get(name);
+                    if (meta == null) {
+                        throw new IllegalArgumentException("列 " + name + " 不存在 / Column " + name + " does not exist");
+                    }
+                    selected.add(meta);
+                }
+            }
+
+            int rows = (int) footer.rowCount;
+            List<MappedByteBuffer> mapped = new ArrayList<>();
+            for (ColumnMeta meta : selected) {
+                mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, meta.offset, meta.length));
+            }
+            Column[] columns = new Column[selected.size()];
+            RereExecutor.parallelFor(0, selected.size(), 1, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    ColumnMeta meta = selected.get(i);
+                    ByteBuffer buf = mapped.get(i).order(ByteOrder.LITTLE_ENDIAN);
+                    Column column = new Column();
+                    column.setName(meta.name);
+                    if (meta.type == TYPE_FLOAT) {
+                        column.setColumnType(ColumnType.Float);
+                        column.setData(new FloatColumnData(decodeFloat(buf, meta.encoding, rows)));
+                    } else {
+                        column.setColumnType(ColumnType.String);
+                        column.setData(decodeString(buf, meta.encoding, rows));
+                    }
+                    columns[i] = column;
+                }
+            });
+            DataFrame df = new DataFrame();
+            for (Column column : columns) {
+                df.addColumn(column);
+            }
+            return df;
+        }
+    }
+
+    /**
+     * 读取文件的列名，不加载数据 / Read the column names of a file without loading data
+     *
+     * @param filePath 文件路径 / File path
+     * @return 列名列表 / Column names
+     * @throws IOException 如果读取失败或文件格式错误 / if reading fails or the file is malformed
+     */
+    public static List<String> readColumnNames(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            return new ArrayList<>(readFooter(channel).columns.keySet());
+        }
+    }
+
+    /**
+     * 页脚内容 / Footer contents
+     */
+    private static final class Footer {
+        long rowCount;
+        Map<String, ColumnMeta> columns = new LinkedHashMap<>();
+    }
+
+    private static Footer readFooter(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < 16) {
+            throw new IOException("文件过小，不是有效的列式文件 / File too small to be a columnar file");
+        }
+        ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, 8).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, size - 8, 8).order(ByteOrder.LITTLE_ENDIAN);
+        checkMagic(head);
+        int version = head.getInt();
+        if (version != VERSION) {
+            throw new IOException("不支持的文件版本 / Unsupported file version: " + version);
+        }
+        int footerLength = tail.getInt();
+        checkMagic(tail);
+        if (footerLength <= 0 || footerLength > size - 16) {
+            throw new IOException("页脚长度无效 / Invalid footer length: " + footerLength);
+        }
+        ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, size - 8 - footerLength, footerLength)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        Footer footer = new Footer();
+        footer.rowCount = buf.getLong();
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[buf.getInt()];
+            buf.get(name);
+            ColumnMeta meta = new ColumnMeta();
+            meta.name = new String(name, StandardCharsets.UTF_8);
+            meta.type = buf.get();
+            meta.encoding = Encoding.values()[buf.get()];
+            meta.offset = buf.getLong();
+            meta.length = buf.getLong();
+            footer.columns.put(meta.name, meta);
+        }
+        return footer;
+    }
+
+    private static void checkMagic(ByteBuffer buf) throws IOException {
+        for (byte b : MAGIC) {
+            if (buf.get() != b) {
+                throw new IOException("文件标识不匹配，不是有效的列式文件 / Magic mismatch, not a columnar file");
+            }
+        }
+    }
+
+    private static float[] decodeFloat(ByteBuffer buf, Encoding enc, int n) {
+        float[] values = new float[n];
+        switch (enc) {
+            case PLAIN:
+                // 批量读取映射内存 / Bulk read from mapped memory
+                buf.asFloatBuffer().get(values);
+                break;
+            case RLE: {
+                int runs = buf.getInt();
+                int pos = 0;
+                for (int r = 0; r < runs; r++) {
+                    float v = buf.getFloat();
+                    int len = buf.getInt();
+                    Arrays.fill(values, pos, pos + len, v);
+                    pos += len;
+                }
+                break;
+            }
+            case DICTIONARY: {
+                float[] dict = new float[buf.getInt()];
+                for (int d = 0; d < dict.length; d++) {
+                    dict[d] = Float.intBitsToFloat(buf.getInt());
+                }
+                int width = buf.get();
+                for (int i = 0; i < n; i++) {
+                    values[i] = dict[getCode(buf, width)];
+                }
+                break;
+            }
+            case DELTA: {
+                if (n > 0) {
+                    long prev = buf.getLong();
+                    values[0] = prev;
+                    for (int i = 1; i < n; i++) {
+                        prev += unzigzag(getVarLong(buf));
+                        values[i] = prev;
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("未知的编码 / Unknown encoding: " + enc);
+        }
+        return values;
+    }
+
+    private static List<Object> decodeString(ByteBuffer buf, Encoding enc, int n) {
+        List<Object> values = new ArrayList<>(n);
+        if (enc == Encoding.DICTIONARY) {
+            String[] dict = new String[buf.getInt()];
+            for (int d = 0; d < dict.length; d++) {
+                dict[d] = getString(buf);
+            }
+            int width = buf.get();
+            for (int i = 0; i < n; i++) {
+                values.add(dict[getCode(buf, width)]);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                values.add(getString(buf));
+            }
+        }
+        return values;
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int len = buf.getInt();
+        if (len < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 获取各列实际使用的编码 / Get the encoding actually used by each column
+     *
+     * @param filePath 文件路径 / File path
+     * @return 列名到编码的映射 / Map from column name to encoding
+     * @throws IOException 如果读取失败或文件格式错误 / if reading fails or the file is malformed
+     */
+    public static Map<String, Encoding> readEncodings(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            Map<String, Encoding> result = new LinkedHashMap<>();
+            for (ColumnMeta meta : readFooter(channel).columns.values()) {
+                result.put(meta.name, meta.encoding);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.reremouse.lab.math.data;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 分批CSV读取器 / Batched CSV reader
+ * <p>以固定行数的批次流式读取CSV文件，每个批次是一个列式的DataFrame，Float列以原始float数组存储。
+ * 任意时刻内存中只保留一个批次，因此可以处理远大于堆内存的文件。</p>
+ * <p>Streams a CSV file in batches of a fixed number of rows; every batch is a columnar DataFrame whose
+ * Float columns are stored as primitive float arrays. Only one batch is held in memory at a time, so files
+ * much larger than the heap can be processed.</p>
+ * <p>列类型由第一个批次推断，规则与{@link DataFrame#readCsv(String, String, boolean)}相同；
+ * 之后批次中Float列无法解析的值记为NaN。</p>
+ * <p>Column types are inferred from the first batch with the same rule as
+ * {@link DataFrame#readCsv(String, String, boolean)}; in later batches, values of a Float column that cannot
+ * be parsed become NaN.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class CsvBatchReader implements Iterator<DataFrame>, Closeable {
+
+    /** 默认每批行数 / Default number of rows per batch */
+    public static final int DEFAULT_BATCH_SIZE = 65536;
+
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> records;
+    private final int batchSize;
+    private String[] columnNames;
+    private ColumnType[] columnTypes;
+    private boolean closed;
+
+    /**
+     * 打开CSV文件进行分批读取 / Open a CSV file for batched reading
+     *
+     * @param filePath 文件路径 / File path
+     * @param separator 分隔符 / Separator
+     * @param ifHasHead 是否有表头 / Whether has header
+     * @param batchSize 每批行数 / Rows per batch
+     * @throws IOException 如果文件打开失败 / if the file cannot be opened
+     * @throws IllegalArgumentException 如果参数无效 / if parameters are invalid
+     */
+    public CsvBatchReader(String filePath, String separator, boolean ifHasHead, int batchSize) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空 / File path cannot be empty");
+        }
+        if (separator == null || separator.trim().isEmpty()) {
+            throw new IllegalArgumentException("分隔符不能为空 / Separator cannot be empty");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批大小必须为正数 / Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        BufferedReader reader = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8);
+        this.parser = new CSVParser(reader, CSVFormat.DEFAULT.builder().setDelimiter(separator.charAt(0)).build());
+        this.records = parser.iterator();
+        if (ifHasHead && records.hasNext()) {
+            CSVRecord header = records.next();
+            columnNames = new String[header.size()];
+            for (int i = 0; i < columnNames.length; i++) {
+                columnNames[i] = header.get(i);
+            }
+        }
+    }
+
+    /**
+     * 是否还有下一批 / Whether there is another batch
+     *
+     * @return 还有数据时返回true / true if more rows remain
+     */
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!records.hasNext()) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 读取下一批 / Read the next batch
+     *
+     * @return 最多batchSize行的数据框 / DataFrame of at most batchSize rows
+     * @throws NoSuchElementException 如果没有更多数据 / if no rows remain
+     * @throws UncheckedIOException 如果读取失败 / if reading fails
+     */
+    @Override
+    public DataFrame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("没有更多批次 / No more batches");
+        }
+        List<String[]> rows = new ArrayList<>(Math.min(batchSize, 4096));
+        try {
+            while (rows.size() < batchSize && records.hasNext()) {
+                CSVRecord record = records.next();
+                String[] row = new String[record.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = record.get(i).trim();
+                }
+                rows.add(row);
+            }
+        } catch (UncheckedIOException e) {
+            close();
+            throw e;
+        }
+        if (columnTypes == null) {
+            inferSchema(rows);
+        }
+        return toFrame(rows);
+    }
+
+    /**
+     * 获取列名，第一批读取前可能为null / Get column names, may be null before the first batch without a header
+     *
+     * @return 列名 / Column names
+     */
+    public List<String> getColumnNames() {
+        return columnNames == null ? null : List.of(columnNames);
+    }
+
+    /**
+     * 关闭底层文件 / Close the underlying file
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void inferSchema(List<String[]> rows) {
+        int numColumns = columnNames != null ? columnNames.length : rows.get(0).length;
+        if (columnNames == null) {
+            columnNames = new String[numColumns];
+            for (int i = 0; i < numColumns; i++) {
+                columnNames[i] = "col_" + i;
+            }
+        }
+        columnTypes = new ColumnType[numColumns];
+        for (int c = 0; c < numColumns; c++) {
+            boolean isNumeric = true;
+            for (String[] row : rows) {
+                try {
+                    Float.parseFloat(c < row.length ? row[c] : "");
+                } catch (NumberFormatException e) {
+                    isNumeric = false;
+                    break;
+                }
+            }
+            columnTypes[c] = isNumeric ? ColumnType.Float : ColumnType.String;
+        }
+    }
+
+    private DataFrame toFrame(List<String[]> rows) {
+        DataFrame df = new DataFrame();
+        int n = rows.size();
+        for (int c = 0; c < columnNames.length; c++) {
+            Column column = new Column();
+            column.setName(columnNames[c]);
+            column.setColumnType(columnTypes[c]);
+            if (columnTypes[c] == ColumnType.Float) {
+                float[] values = new float[n];
+                for (int r = 0; r < n; r++) {
+                    values[r] = parseOrNaN(rows.get(r), c);
+                }
+                column.setData(new FloatColumnData(values));
+            } else {
+                List<Object> values = new ArrayList<>(n);
+                for (String[] row : rows) {
+                    values.add(c < row.length ? row[c] : "");
+                }
+                column.setData(values);
+            }
+            df.addColumn(column);
+        }
+        return df;
+    }
+
+    private static float parseOrNaN(String[] row, int c) {
+        if (c >= row.length) {
+            return Float.NaN;
+        }
+        try {
+            return Float.parseFloat(row[c]);
+        } catch (NumberFormatException e) {
+            return Float.NaN;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.reremouse.lab.math.data;
+
+import com.reremouse.lab.util.RereExecutor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 高吞吐CSV写出器 / High-throughput CSV writer
+ * <p>将数据框按行切分为若干块，各块在共享线程池中并行格式化为字节缓冲区，再按顺序通过{@link FileChannel}写出。
+ * Float列直接读取原始数组，整数值逐位输出，其余值输出与{@link Float#toString(float)}一致；
+ * 引号规则与commons-csv的{@code CSVFormat.DEFAULT}一致（最小引用、CRLF换行）。</p>
+ * <p>Splits a DataFrame into row chunks that are formatted into byte buffers in parallel on the shared pool and
+ * written in order through a {@link FileChannel}. Float columns are read as primitive arrays without boxing;
+ * integral values are written digit by digit and all output matches {@link Float#toString(float)}. Quoting
+ * follows commons-csv's {@code CSVFormat.DEFAULT} (minimal quoting, CRLF record separator).</p>
+ * <p>启用gzip时每块被独立压缩为一个gzip成员，压缩同样并行进行；多成员gzip文件可被
+ * {@link java.util.zip.GZIPInputStream}和标准gzip工具直接读取。</p>
+ * <p>With gzip enabled every chunk is compressed into its own gzip member, so compression runs in parallel too;
+ * multi-member gzip files are read transparently by {@link java.util.zip.GZIPInputStream} and standard gzip
+ * tools.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CsvWriter {
+
+    /** 默认每块行数 / Default number of rows per chunk */
+    public static final int DEFAULT_CHUNK_ROWS = 32768;
+
+    /**
+     * 每块格式化后的预估字节数上限，超过时按列数减少每块行数 /
+     * Upper bound on the estimated formatted bytes per chunk; rows per chunk shrink for wide frames
+     */
+    static final long MAX_CHUNK_BYTES = 4L << 20;
+
+    /** 估算时每个单元格的字节数 / Bytes per cell used for estimates */
+    private static final int BYTES_PER_CELL = 16;
+
+    /** 块缓冲区的初始容量上限，之后按需增长 / Cap on the initial chunk buffer capacity; it grows on demand */
+    private static final int INITIAL_CHUNK_BUFFER = 64 << 10;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private CsvWriter() {
+    }
+
+    /**
+     * 以逗号分隔写出CSV文件 / Write a comma-separated CSV file
+     *
+     * @param df 数据框 / DataFrame
+     * @param filePath 文件路径 / File path
+     * @param gzip 是否gzip压缩 / Whether to gzip the output
+     * @throws IOException 如果写入失败 / if writing fails
+     */
+    public static void write(DataFrame df, String filePath, boolean gzip) throws IOException {
+        write(df, filePath, ',', gzip, DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * 写出CSV文件 / Write a CSV file
+     *
+     * @param df 数据框 / DataFrame
+     * @param filePath 文件路径 / File path
+     * @param separator 分隔符 / Separator
+     * @param gzip 是否gzip压缩 / Whether to gzip the output
+     * @param chunkRows 每块行数上限，列数较多时自动减少以限制每块的内存 /
+     *                  Maximum rows per chunk, reduced automatically for wide frames to bound per-chunk memory
+     * @throws IOException 如果写入失败 / if writing fails
+     * @throws IllegalArgumentException 如果参数无效 / if parameters are invalid
+     */
+    public static void write(DataFrame df, String filePath, char separator, boolean gzip, int chunkRows)
+            throws IOException {
+        if (df == null) {
+            throw new IllegalArgumentException("数据框不能为null / DataFrame cannot be null");
+        }
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空 / File path cannot be empty");
+        }
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("块大小必须为正数 / Chunk size must be positive");
+        }
+        if (separator == '"' || separator == '\r' || separator == '\n') {
+            throw new IllegalArgumentException("无效的分隔符 / Invalid separator: " + separator);
+        }
+
+        List<Column> columns = df.getColumns();
+        int rowCount = df.getRowCount();
+        // Float列预先取出原始数组，避免逐元素装箱 / Fetch primitive arrays of Float columns up front to avoid boxing
+        float[][] floats = new float[columns.size()][];
+        for (int j = 0; j < columns.size(); j++) {
+            List<Object> data = columns.get(j).getData();
+            if (data instanceof FloatColumnData || data instanceof MatrixColumnData) {
+                floats[j] = FloatColumnData.toFloatArray(data);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuf header = new ByteBuf(256);
+            for (int j = 0; j < columns.size(); j++) {
+                if (j > 0) {
+                    header.put((byte) separator);
+                }
+                header.putField(columns.get(j).getName(), separator, j == 0);
+            }
+            header.put(CRLF);
+            writeFully(channel, gzip ? gzip(header) : header.toBuffer());
+
+            // 每块的预估字节数不超过MAX_CHUNK_BYTES，每一批最多并行格式化parallelism*2块，限制内存占用
+            // Keep each chunk within MAX_CHUNK_BYTES (estimated) and format at most parallelism*2 chunks per wave
+            // to bound memory
+            long rowBytes = (long) BYTES_PER_CELL * Math.max(1, columns.size());
+            int rowsPerChunk = (int) Math.max(1, Math.min(chunkRows, MAX_CHUNK_BYTES / rowBytes));
+            int initialCapacity = (int) Math.min(INITIAL_CHUNK_BUFFER, rowBytes * rowsPerChunk);
+            int chunks = (int) (((long) rowCount + rowsPerChunk - 1) / rowsPerChunk);
+            int wave = Math.max(1, RereExecutor.getParallelism() * 2);
+            for (int first = 0; first < chunks; first += wave) {
+                List<ByteBuffer> buffers = RereExecutor.parallelMap(first, Math.min(chunks, first + wave), 1,
+                    (from, to) -> {
+                        ByteBuf buf = new ByteBuf(initialCapacity);
+                        int start = (int) Math.min(rowCount, (long) from * rowsPerChunk);
+                        int end = (int) Math.min(rowCount, (long) to * rowsPerChunk);
+                        formatRows(columns, floats, start, end, separator, buf);
+                        return gzip ? gzip(buf) : buf.toBuffer();
+                    });
+                for (ByteBuffer buffer : buffers) {
+                    writeFully(channel, buffer);
+                }
+            }
+        }
+    }
+
+    private static void formatRows(List<Column> columns, float[][] floats, int from, int to, char separator,
+                                   ByteBuf buf) {
+        int cols = columns.size();
+        for (int i = from; i < to; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (j > 0) {
+                    buf.put((byte) separator);
+                }
+                float[] f = floats[j];
+                if (f != null) {
+                    buf.putFloat(f[i]);
+                } else {
+                    List<Object> data = columns.get(j).getData();
+                    Object value = i < data.size() ? data.get(i) : "";
+                    // null与CSVPrinter一样原样输出为空，不加引号 / null is written as nothing without quotes, like CSVPrinter
+                    if (value instanceof Float) {
+                        buf.putFloat((Float) value);
+                    } else if (value != null) {
+                        buf.putField(value.toString(), separator, j == 0);
+                    }
+                }
+            }
+            buf.put(CRLF);
+        }
+    }
+
+    private static ByteBuffer gzip(ByteBuf buf) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, buf.size / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out, 65536)) {
+            gz.write(buf.bytes, 0, buf.size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 可增长的字节缓冲区 / Growable byte buffer
+     */
+    static final class ByteBuf {
+        private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+        byte[] bytes;
+        int size;
+
+        ByteBuf(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+
+        private void ensure(int extra) {
+            long required = (long) size + extra;
+            if (required > bytes.length) {
+                if (required > MAX_ARRAY_SIZE) {
+                    throw new OutOfMemoryError("CSV块超过数组长度上限 / CSV chunk exceeds the maximum array size");
+                }
+                long grown = Math.min(MAX_ARRAY_SIZE, bytes.length + ((long) bytes.length >> 1));
+                bytes = Arrays.copyOf(bytes, (int) Math.max(required, grown));
+            }
+        }
+
+        void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void put(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+
+        ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        /**
+         * 按CSVFormat.DEFAULT的最小引用规则写出字段 / Write a field with the minimal quoting rule of CSVFormat.DEFAULT
+         */
+        void putField(String value, char separator, boolean firstInRecord) {
+            int len = value.length();
+            boolean quote = false;
+            if (len == 0) {
+                // 行首的空字段总是加引号，否则可能被当作空行 / An empty first field is always quoted, it may be the whole line
+                quote = firstInRecord;
+            } else if (value.charAt(0) <= '#') {
+                quote = true;
+            } else {
+                for (int k = 0; k < len; k++) {
+                    char c = value.charAt(k);
+                    if (c == '\n' || c == '\r' || c == '"' || c == separator) {
+                        quote = true;
+                        break;
+                    }
+                }
+                if (!quote && value.charAt(len - 1) <= ' ') {
+                    quote = true;
+                }
+            }
+            if (!quote) {
+                putUtf8(value);
+                return;
+            }
+            put((byte) '"');
+            putUtf8(value.indexOf('"') < 0 ? value : value.replace("\"", "\"\""));
+            put((byte) '"');
+        }
+
+        private void putUtf8(String s) {
+            int len = s.length();
+            ensure(len);
+            int k = 0;
+            // ASCII快速路径 / ASCII fast path
+            for (; k < len; k++) {
+                char c = s.charAt(k);
+                if (c >= 0x80) {
+                    break;
+                }
+                bytes[size++] = (byte) c;
+            }
+            if (k < len) {
+                byte[] rest = s.substring(k).getBytes(StandardCharsets.UTF_8);
+                put(rest);
+            }
+        }
+
+        /**
+         * 写出与{@link Float#toString(float)}一致的文本 / Write the same text as {@link Float#toString(float)}
+         */
+        void putFloat(float v) {
+            // 整数值直接输出数字，避免创建字符串 / Integral values are written digit by digit without a String
+            if (v > -1e7f && v < 1e7f && v == (long) v) {
+                ensure(12);
+                if (v < 0 || Float.floatToRawIntBits(v) < 0) {
+                    bytes[size++] = '-';
+                }
+                putLong(Math.abs((long) v));
+                bytes[size++] = '.';
+                bytes[size++] = '0';
+                return;
+            }
+            putAscii(Float.toString(v));
+        }
+
+        private void putLong(long n) {
+            if (n == 0) {
+                bytes[size++] = '0';
+                return;
+            }
+            int start = size;
+            while (n > 0) {
+                bytes[size++] = (byte) ('0' + (n % 10));
+                n /= 10;
+            }
+            for (int lo = start, hi = size - 1; lo < hi; lo++, hi--) {
+                byte t = bytes[lo];
+                bytes[lo] = bytes[hi];
+                bytes[hi] = t;
+            }
+        }
+
+        private void putAscii(String s) {
+            ensure(s.length());
+            for (int k = 0; k < s.length(); k++) {
+                bytes[size++] = (byte) s.charAt(k);
+            }
+        }
+
+    }
+}
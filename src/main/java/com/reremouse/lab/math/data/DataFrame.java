@@ -1,13 +1,13 @@
 package com.reremouse.lab.math.data;
 
 import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.RereColumnMatrix;
 import com.reremouse.lab.math.RereMatrix;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -15,7 +15,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import com.reremouse.lab.math.SliceExpressionParser;
-import org.apache.commons.csv.CSVPrinter;
 
 /**
  * 数据框类，用于处理结构化数据，支持从CSV文件读取数据并与IMatrix进行转换
@@ -28,6 +27,10 @@ import org.apache.commons.csv.CSVPrinter;
  * <li>列切片和行切片操作 / Column and row slicing operations</li>
  * <li>数据类型转换（String/Float） / Data type conversion (String/Float)</li>
  * <li>与IMatrix的互转换 / Mutual conversion with IMatrix</li>
+ * <li>与IMatrix之间的零拷贝视图 / Zero-copy views to and from IMatrix</li>
+ * <li>惰性查询计划 / Lazy query plans</li>
+ * <li>列式二进制文件读写 / Columnar binary file I/O</li>
+ * <li>分批流式处理大于内存的数据 / Batched streaming of larger-than-memory data</li>
  * <li>数据访问和操作 / Data access and manipulation</li>
  * </ul>
  * 
@@ -157,33 +160,62 @@ public class DataFrame implements Serializable {
         return df;
     }
 
+    /**
+     * 写出CSV文件 / Write a CSV file
+     * <p>以".gz"结尾的路径自动启用gzip压缩。行被分块并行格式化，详见{@link CsvWriter} /
+     * Paths ending in ".gz" are gzip-compressed automatically. Rows are formatted in parallel chunks, see
+     * {@link CsvWriter}</p>
+     *
+     * @param filePath 文件路径 / File path
+     * @throws IOException 如果写入失败 / if writing fails
+     * @throws IllegalArgumentException 如果文件路径为空 / if the file path is empty
+     */
     public void toCsv(String filePath) throws IOException {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("文件路径不能为空 / File path cannot be empty");
         }
-        
-        try (FileWriter writer = new FileWriter(filePath);
-             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
-            
-            // 打印列名作为表头 / Print column names as header
-            printer.printRecord(columns.stream().map(Column::getName).toArray(String[]::new));
-            
-            // 按行打印数据 / Print data row by row
-            if (rowCount > 0) {
-                for (int i = 0; i < rowCount; i++) {
-                    Object[] rowData = new Object[columns.size()];
-                    for (int j = 0; j < columns.size(); j++) {
-                        List<Object> columnData = columns.get(j).getData();
-                        if (i < columnData.size()) {
-                            rowData[j] = columnData.get(i);
-                        } else {
-                            rowData[j] = ""; // 空值处理 / Handle empty values
-                        }
-                    }
-                    printer.printRecord(rowData);
-                }
-            }
-        }
+        toCsv(filePath, filePath.endsWith(".gz"));
+    }
+
+    /**
+     * 写出CSV文件，可选gzip压缩 / Write a CSV file with optional gzip compression
+     *
+     * @param filePath 文件路径 / File path
+     * @param gzip 是否gzip压缩 / Whether to gzip the output
+     * @throws IOException 如果写入失败 / if writing fails
+     * @throws IllegalArgumentException 如果文件路径为空 / if the file path is empty
+     */
+    public void toCsv(String filePath, boolean gzip) throws IOException {
+        CsvWriter.write(this, filePath, gzip);
+    }
+
+    /**
+     * 从列式二进制文件读取DataFrame / Read DataFrame from a columnar binary file
+     * <p>只内存映射并解码指定的列，列类型直接来自文件模式，无需重新推断</p>
+     * <p>Only the requested columns are memory-mapped and decoded; column types come from the file schema
+     * and are never re-inferred</p>
+     * 
+     * @param filePath 文件路径 / File path
+     * @param columnNames 要读取的列名，不指定时读取全部列 / Column names to read, all columns when omitted
+     * @return 读取的DataFrame / DataFrame read from the file
+     * @throws IOException 如果文件读取失败或格式错误 / if file reading fails or the format is invalid
+     * @see ColumnarFile
+     */
+    public static DataFrame readColumnar(String filePath, String... columnNames) throws IOException {
+        return ColumnarFile.read(filePath, columnNames);
+    }
+
+    /**
+     * 写入列式二进制文件 / Write to a columnar binary file
+     * <p>每列自动选择体积最小的编码（原始、字典、游程或差分）</p>
+     * <p>Each column automatically uses its smallest encoding (plain, dictionary, run-length or delta)</p>
+     * 
+     * @param filePath 文件路径 / File path
+     * @throws IOException 如果文件写入失败 / if file writing fails
+     * @see ColumnarFile
+     */
+    public void toColumnar(String filePath) throws IOException {
+        ColumnarFile.write(this, filePath);
     }
 
     /**
@@ -316,6 +348,51 @@ public class DataFrame implements Serializable {
     }
 
 
+    /**
+     * 创建惰性查询 / Create a lazy query
+     * <p>返回基于当前DataFrame的惰性查询，后续的过滤、投影、派生和聚合步骤只记录为计划，
+     * 直到调用{@link LazyFrame#collect()}或{@link LazyFrame#toMatrix()}时才经过优化后一次性执行</p>
+     * <p>Returns a lazy query over this DataFrame; subsequent filter, select, derive and aggregate steps are only
+     * recorded as a plan, which is optimized and executed in one pass by {@link LazyFrame#collect()} or
+     * {@link LazyFrame#toMatrix()}</p>
+     * 
+     * @return 惰性查询 / Lazy query
+     */
+    public LazyFrame lazy() {
+        return new LazyFrame(this);
+    }
+
+    /**
+     * 将数据框按行切分为批次流 / Split this DataFrame into a stream of row batches
+     * <p>便于用同一套流式代码处理内存数据和{@link #streamCsv(String, String, boolean, int)}读取的大文件</p>
+     * <p>Lets the same streaming code handle in-memory data and large files read by
+     * {@link #streamCsv(String, String, boolean, int)}</p>
+     * 
+     * @param batchSize 每批行数 / Rows per batch
+     * @return 批次流 / Batch stream
+     */
+    public StreamFrame stream(int batchSize) {
+        return StreamFrame.of(this, batchSize);
+    }
+
+    /**
+     * 分批流式读取CSV文件 / Stream a CSV file in row batches
+     * <p>与{@link #readCsv(String, String, boolean)}不同，任意时刻只有一个批次在内存中，适合大于堆内存的文件</p>
+     * <p>Unlike {@link #readCsv(String, String, boolean)}, only one batch is in memory at a time, which suits
+     * files larger than the heap</p>
+     * 
+     * @param filePath 文件路径 / File path
+     * @param separator 分隔符 / Separator
+     * @param ifHasHead 是否有表头 / Whether has header
+     * @param batchSize 每批行数 / Rows per batch
+     * @return 批次流 / Batch stream
+     * @throws IOException 如果文件打开失败 / if the file cannot be opened
+     */
+    public static StreamFrame streamCsv(String filePath, String separator, boolean ifHasHead, int batchSize)
+            throws IOException {
+        return StreamFrame.fromCsv(filePath, separator, ifHasHead, batchSize);
+    }
+
     /**
      * 将Float类型的列转换为IMatrix / Convert Float type columns to IMatrix
      * <p>提取所有Float类型的列并合并为一个矩阵</p>
@@ -348,16 +425,96 @@ public class DataFrame implements Serializable {
             }
         }
         
-        // 创建矩阵数据 / Create matrix data
-        float[][] matrixData = new float[actualRowCount][floatColumns.size()];
-        for (int i = 0; i < actualRowCount; i++) {
-            for (int j = 0; j < floatColumns.size(); j++) {
-                Object value = floatColumns.get(j).getData().get(i);
-                matrixData[i][j] = (Float) value;
+        // 创建矩阵数据，原始float列直接按数组读取 / Create matrix data, primitive float columns are read as arrays
+        float[][] columnArrays = new float[floatColumns.size()][];
+        for (int j = 0; j < columnArrays.length; j++) {
+            columnArrays[j] = FloatColumnData.toFloatArray(floatColumns.get(j).getData());
+        }
+        return new RereColumnMatrix(columnArrays).toRowMajor();
+    }
+
+    /**
+     * 将Float类型的列作为矩阵视图 / View the Float type columns as a matrix
+     * <p>与{@link #toMatrix()}不同，返回的列主序矩阵直接使用各列的float数组，不复制数据，
+     * 对矩阵元素的修改会反映到数据框中。以装箱形式存储的Float列会先被就地转换为原始float存储（只发生一次）。
+     * 如果所有Float列恰好是{@link #fromMatrix(IMatrix, String...)}包装的同一个矩阵的全部列，则直接返回该矩阵。</p>
+     * <p>Unlike {@link #toMatrix()}, the returned column-major matrix uses the float arrays of the columns
+     * directly without copying, and changes to its elements are reflected in this DataFrame. Float columns
+     * stored as boxed values are converted in place to primitive float storage first (only once). If the Float
+     * columns are exactly all columns of a matrix wrapped by {@link #fromMatrix(IMatrix, String...)}, that
+     * matrix is returned as is.</p>
+     * 
+     * @return 共享数据的矩阵视图 / Matrix view sharing the data
+     * @throws IllegalStateException 如果没有Float类型的列 / if no Float type columns exist
+     */
+    public IMatrix asMatrix() {
+        List<Column> floatColumns = new ArrayList<>();
+        for (Column column : columns) {
+            if (column.getColumnType() == ColumnType.Float) {
+                floatColumns.add(column);
             }
         }
-        
-        return new RereMatrix(matrixData);
+        if (floatColumns.isEmpty()) {
+            throw new IllegalStateException("没有Float类型的列可以转换为矩阵 / No Float type columns available for matrix conversion");
+        }
+
+        // 整个矩阵被原样包装时直接返回原矩阵 / Return the wrapped matrix when it is wrapped as a whole
+        if (floatColumns.get(0).getData() instanceof MatrixColumnData) {
+            float[][] rows = ((MatrixColumnData) floatColumns.get(0).getData()).rows;
+            boolean whole = rows.length > 0 && rows[0].length == floatColumns.size();
+            for (int j = 0; whole && j < floatColumns.size(); j++) {
+                List<Object> data = floatColumns.get(j).getData();
+                whole = data instanceof MatrixColumnData
+                    && ((MatrixColumnData) data).rows == rows && ((MatrixColumnData) data).col == j;
+            }
+            if (whole) {
+                return new RereMatrix(rows);
+            }
+        }
+
+        float[][] columnArrays = new float[floatColumns.size()][];
+        for (int j = 0; j < columnArrays.length; j++) {
+            Column column = floatColumns.get(j);
+            if (!(column.getData() instanceof FloatColumnData)) {
+                column.setData(new FloatColumnData(FloatColumnData.toFloatArray(column.getData())));
+            }
+            columnArrays[j] = ((FloatColumnData) column.getData()).array();
+        }
+        return new RereColumnMatrix(columnArrays);
+    }
+
+    /**
+     * 将矩阵包装为数据框视图 / Wrap a matrix as a DataFrame view
+     * <p>不复制数据：列主序矩阵的各列直接作为原始float列，行主序矩阵的各列以视图方式读写矩阵的行数组。
+     * 对数据框元素的修改会反映到矩阵中。</p>
+     * <p>No data is copied: the columns of a column-major matrix become primitive float columns directly, and
+     * the columns of a row-major matrix are views that read and write the row arrays of the matrix. Changes to
+     * DataFrame elements are reflected in the matrix.</p>
+     * 
+     * @param matrix 矩阵 / Matrix
+     * @param columnNames 列名，不指定时使用col_0、col_1…… / Column names, col_0, col_1, ... when omitted
+     * @return 数据框视图 / DataFrame view
+     * @throws IllegalArgumentException 如果矩阵为null或列名数量与列数不一致 / if matrix is null or the number of names does not match
+     */
+    public static DataFrame fromMatrix(IMatrix matrix, String... columnNames) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("矩阵不能为null / Matrix cannot be null");
+        }
+        int cols = matrix.getColNum();
+        if (columnNames != null && columnNames.length > 0 && columnNames.length != cols) {
+            throw new IllegalArgumentException("列名数量 " + columnNames.length + " 与矩阵列数 " + cols + " 不一致 / Number of column names " + columnNames.length + " doesn't match matrix columns " + cols);
+        }
+        float[][] columnArrays = matrix instanceof RereColumnMatrix ? ((RereColumnMatrix) matrix).getColumnData() : null;
+        float[][] rowArrays = columnArrays == null ? matrix.getData() : null;
+        DataFrame df = new DataFrame();
+        for (int j = 0; j < cols; j++) {
+            Column column = new Column();
+            column.setName(columnNames != null && columnNames.length > 0 ? columnNames[j] : "col_" + j);
+            column.setColumnType(ColumnType.Float);
+            column.setData(columnArrays != null ? new FloatColumnData(columnArrays[j]) : new MatrixColumnData(rowArrays, j));
+            df.addColumn(column);
+        }
+        return df;
     }
 
     /**
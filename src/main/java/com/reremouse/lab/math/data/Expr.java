@@ -0,0 +1,322 @@
+package com.reremouse.lab.math.data;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列表达式 / Column expression
+ * <p>用于{@link LazyFrame}的逐元素表达式，描述由列和常量组成的计算，例如
+ * {@code Expr.col("price").mul(Expr.col("qty")).gt(100)}。表达式本身不持有数据，
+ * 执行时被编译为逐行求值的融合计算，多个表达式在同一次数据扫描中完成。</p>
+ * <p>Element-wise expression used by {@link LazyFrame}, describing a computation over columns and constants,
+ * e.g. {@code Expr.col("price").mul(Expr.col("qty")).gt(100)}. Expressions hold no data; on execution they are
+ * compiled into fused per-row evaluators so that several expressions are computed in a single pass over the data.</p>
+ *
+ * <p>比较和逻辑运算的结果以1.0f（真）和0.0f（假）表示 /
+ * Results of comparisons and logical operations are represented as 1.0f (true) and 0.0f (false)</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Expr {
+
+    /**
+     * 表达式节点类型 / Expression node kind
+     */
+    enum Kind {
+        COLUMN, LITERAL, STRING_EQ,
+        ADD, SUB, MUL, DIV, POW,
+        NEG, ABS, LOG, EXP, SQRT, IS_NAN, NOT,
+        GT, GE, LT, LE, EQ, NE, AND, OR
+    }
+
+    /**
+     * 编译后的逐行求值器 / Compiled per-row evaluator
+     */
+    @FunctionalInterface
+    interface Evaluator {
+        /**
+         * 计算第row行的值 / Evaluate the value of row
+         *
+         * @param row 行索引 / Row index
+         * @return 表达式值 / Expression value
+         */
+        float eval(int row);
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final float value;
+    private final Expr left;
+    private final Expr right;
+
+    private Expr(Kind kind, String name, float value, Expr left, Expr right) {
+        this.kind = kind;
+        this.name = name;
+        this.value = value;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * 引用列 / Reference a column
+     *
+     * @param name 列名 / Column name
+     * @return 列表达式 / Column expression
+     * @throws IllegalArgumentException 如果列名为空 / if name is empty
+     */
+    public static Expr col(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("列名不能为空 / Column name cannot be empty");
+        }
+        return new Expr(Kind.COLUMN, name, 0f, null, null);
+    }
+
+    /**
+     * 常量 / Constant
+     *
+     * @param value 常量值 / Constant value
+     * @return 常量表达式 / Literal expression
+     */
+    public static Expr lit(float value) {
+        return new Expr(Kind.LITERAL, null, value, null, null);
+    }
+
+    private Expr binary(Kind k, Expr other) {
+        if (other == null) {
+            throw new IllegalArgumentException("表达式不能为null / Expression cannot be null");
+        }
+        return new Expr(k, null, 0f, this, other);
+    }
+
+    private Expr unary(Kind k) {
+        return new Expr(k, null, 0f, this, null);
+    }
+
+    /** 加法 / Addition */
+    public Expr add(Expr other) { return binary(Kind.ADD, other); }
+    /** 加常量 / Add constant */
+    public Expr add(float v) { return add(lit(v)); }
+    /** 减法 / Subtraction */
+    public Expr sub(Expr other) { return binary(Kind.SUB, other); }
+    /** 减常量 / Subtract constant */
+    public Expr sub(float v) { return sub(lit(v)); }
+    /** 乘法 / Multiplication */
+    public Expr mul(Expr other) { return binary(Kind.MUL, other); }
+    /** 乘常量 / Multiply by constant */
+    public Expr mul(float v) { return mul(lit(v)); }
+    /** 除法 / Division */
+    public Expr div(Expr other) { return binary(Kind.DIV, other); }
+    /** 除以常量 / Divide by constant */
+    public Expr div(float v) { return div(lit(v)); }
+    /** 幂运算 / Power */
+    public Expr pow(float p) { return binary(Kind.POW, lit(p)); }
+    /** 取负 / Negation */
+    public Expr neg() { return unary(Kind.NEG); }
+    /** 绝对值 / Absolute value */
+    public Expr abs() { return unary(Kind.ABS); }
+    /** 自然对数 / Natural logarithm */
+    public Expr log() { return unary(Kind.LOG); }
+    /** 指数 / Exponential */
+    public Expr exp() { return unary(Kind.EXP); }
+    /** 平方根 / Square root */
+    public Expr sqrt() { return unary(Kind.SQRT); }
+    /** 是否为NaN / Is NaN */
+    public Expr isNaN() { return unary(Kind.IS_NAN); }
+    /** 逻辑非 / Logical not */
+    public Expr not() { return unary(Kind.NOT); }
+    /** 大于 / Greater than */
+    public Expr gt(Expr other) { return binary(Kind.GT, other); }
+    /** 大于常量 / Greater than constant */
+    public Expr gt(float v) { return gt(lit(v)); }
+    /** 大于等于 / Greater or equal */
+    public Expr ge(Expr other) { return binary(Kind.GE, other); }
+    /** 大于等于常量 / Greater or equal to constant */
+    public Expr ge(float v) { return ge(lit(v)); }
+    /** 小于 / Less than */
+    public Expr lt(Expr other) { return binary(Kind.LT, other); }
+    /** 小于常量 / Less than constant */
+    public Expr lt(float v) { return lt(lit(v)); }
+    /** 小于等于 / Less or equal */
+    public Expr le(Expr other) { return binary(Kind.LE, other); }
+    /** 小于等于常量 / Less or equal to constant */
+    public Expr le(float v) { return le(lit(v)); }
+    /** 等于 / Equal */
+    public Expr eq(Expr other) { return binary(Kind.EQ, other); }
+    /** 等于常量 / Equal to constant */
+    public Expr eq(float v) { return eq(lit(v)); }
+    /** 不等于 / Not equal */
+    public Expr ne(Expr other) { return binary(Kind.NE, other); }
+    /** 不等于常量 / Not equal to constant */
+    public Expr ne(float v) { return ne(lit(v)); }
+    /** 逻辑与 / Logical and */
+    public Expr and(Expr other) { return binary(Kind.AND, other); }
+    /** 逻辑或 / Logical or */
+    public Expr or(Expr other) { return binary(Kind.OR, other); }
+
+    /**
+     * 字符串相等比较，仅适用于列表达式 / String equality, only valid on column expressions
+     *
+     * @param text 比较的字符串 / String to compare with
+     * @return 比较表达式 / Comparison expression
+     * @throws IllegalStateException 如果当前表达式不是列引用 / if this expression is not a column reference
+     */
+    public Expr eq(String text) {
+        if (kind != Kind.COLUMN) {
+            throw new IllegalStateException("字符串比较只能作用于列 / String comparison only applies to columns");
+        }
+        return new Expr(Kind.STRING_EQ, text, 0f, this, null);
+    }
+
+    /**
+     * 获取表达式引用的所有列名 / Get all column names referenced by this expression
+     *
+     * @return 列名集合 / Set of column names
+     */
+    public Set<String> referencedColumns() {
+        Set<String> names = new LinkedHashSet<>();
+        collectColumns(names);
+        return Collections.unmodifiableSet(names);
+    }
+
+    private void collectColumns(Set<String> names) {
+        if (kind == Kind.COLUMN) {
+            names.add(name);
+        }
+        if (left != null) {
+            left.collectColumns(names);
+        }
+        if (right != null) {
+            right.collectColumns(names);
+        }
+    }
+
+    /**
+     * 编译为逐行求值器 / Compile into a per-row evaluator
+     *
+     * @param floatColumns 可用的数值列 / Available numeric columns
+     * @param otherColumns 可用的非数值列 / Available non-numeric columns
+     * @return 求值器 / Evaluator
+     * @throws IllegalArgumentException 如果引用的列不存在或类型不符 / if a referenced column is missing or has the wrong type
+     */
+    Evaluator compile(Map<String, Evaluator> floatColumns, Map<String, List<Object>> otherColumns) {
+        switch (kind) {
+            case COLUMN: {
+                Evaluator e = floatColumns.get(name);
+                if (e == null) {
+                    throw new IllegalArgumentException(otherColumns.containsKey(name)
+                        ? "列 " + name + " 不是Float类型 / Column " + name + " is not of Float type"
+                        : "列 " + name + " 不存在 / Column " + name + " does not exist");
+                }
+                return e;
+            }
+            case LITERAL: {
+                final float v = value;
+                return r -> v;
+            }
+            case STRING_EQ: {
+                final List<Object> data = otherColumns.get(left.name);
+                final String text = name;
+                if (data == null) {
+                    if (floatColumns.containsKey(left.name)) {
+                        throw new IllegalArgumentException("列 " + left.name + " 不是String类型 / Column " + left.name + " is not of String type");
+                    }
+                    throw new IllegalArgumentException("列 " + left.name + " 不存在 / Column " + left.name + " does not exist");
+                }
+                return r -> {
+                    Object o = data.get(r);
+                    return (o == null ? text == null : o.toString().equals(text)) ? 1f : 0f;
+                };
+            }
+            default:
+                break;
+        }
+        final Evaluator a = left.compile(floatColumns, otherColumns);
+        if (right == null) {
+            switch (kind) {
+                case NEG: return r -> -a.eval(r);
+                case ABS: return r -> Math.abs(a.eval(r));
+                case LOG: return r -> (float) Math.log(a.eval(r));
+                case EXP: return r -> (float) Math.exp(a.eval(r));
+                case SQRT: return r -> (float) Math.sqrt(a.eval(r));
+                case IS_NAN: return r -> Float.isNaN(a.eval(r)) ? 1f : 0f;
+                case NOT: return r -> a.eval(r) != 0f ? 0f : 1f;
+                default: throw new IllegalStateException("未知的一元运算 / Unknown unary operation: " + kind);
+            }
+        }
+        // 右侧为常量时直接内联，减少一次间接调用 / Inline constant right operands to save an indirect call
+        if (right.kind == Kind.LITERAL) {
+            final float c = right.value;
+            switch (kind) {
+                case ADD: return r -> a.eval(r) + c;
+                case SUB: return r -> a.eval(r) - c;
+                case MUL: return r -> a.eval(r) * c;
+                case DIV: return r -> a.eval(r) / c;
+                case POW: return c == 2f ? r -> { float x = a.eval(r); return x * x; } : r -> (float) Math.pow(a.eval(r), c);
+                case GT: return r -> a.eval(r) > c ? 1f : 0f;
+                case GE: return r -> a.eval(r) >= c ? 1f : 0f;
+                case LT: return r -> a.eval(r) < c ? 1f : 0f;
+                case LE: return r -> a.eval(r) <= c ? 1f : 0f;
+                case EQ: return r -> a.eval(r) == c ? 1f : 0f;
+                case NE: return r -> a.eval(r) != c ? 1f : 0f;
+                default: break;
+            }
+        }
+        final Evaluator b = right.compile(floatColumns, otherColumns);
+        switch (kind) {
+            case ADD: return r -> a.eval(r) + b.eval(r);
+            case SUB: return r -> a.eval(r) - b.eval(r);
+            case MUL: return r -> a.eval(r) * b.eval(r);
+            case DIV: return r -> a.eval(r) / b.eval(r);
+            case POW: return r -> (float) Math.pow(a.eval(r), b.eval(r));
+            case GT: return r -> a.eval(r) > b.eval(r) ? 1f : 0f;
+            case GE: return r -> a.eval(r) >= b.eval(r) ? 1f : 0f;
+            case LT: return r -> a.eval(r) < b.eval(r) ? 1f : 0f;
+            case LE: return r -> a.eval(r) <= b.eval(r) ? 1f : 0f;
+            case EQ: return r -> a.eval(r) == b.eval(r) ? 1f : 0f;
+            case NE: return r -> a.eval(r) != b.eval(r) ? 1f : 0f;
+            // 逻辑运算短路求值 / Logical operations short-circuit
+            case AND: return r -> a.eval(r) != 0f && b.eval(r) != 0f ? 1f : 0f;
+            case OR: return r -> a.eval(r) != 0f || b.eval(r) != 0f ? 1f : 0f;
+            default: throw new IllegalStateException("未知的二元运算 / Unknown binary operation: " + kind);
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case COLUMN: return name;
+            case LITERAL: return Float.toString(value);
+            case STRING_EQ: return "(" + left + " == \"" + name + "\")";
+            case NEG: return "-" + left;
+            case ABS: case LOG: case EXP: case SQRT:
+                return kind.name().toLowerCase() + "(" + left + ")";
+            case IS_NAN: return "isNaN(" + left + ")";
+            case NOT: return "!" + left;
+            default: return "(" + left + " " + symbol() + " " + right + ")";
+        }
+    }
+
+    private String symbol() {
+        switch (kind) {
+            case ADD: return "+";
+            case SUB: return "-";
+            case MUL: return "*";
+            case DIV: return "/";
+            case POW: return "^";
+            case GT: return ">";
+            case GE: return ">=";
+            case LT: return "<";
+            case LE: return "<=";
+            case EQ: return "==";
+            case NE: return "!=";
+            case AND: return "&&";
+            case OR: return "||";
+            default: return kind.name();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.reremouse.lab.math.data;
+
+import com.reremouse.lab.math.RereSparseMatrix;
+import com.reremouse.lab.util.RereExecutor;
+
+import java.io.Serializable;
+
+/**
+ * 特征哈希变换器 / Feature hashing transformer
+ * <p>将DataFrame的列映射为固定维度的稀疏特征（哈希技巧）：String列的每个取值是一个类别特征，
+ * 对"列名=取值"做MurmurHash3得到列号，值为1；Float列对列名做哈希得到列号，值为该列的数值（0与NaN跳过）。
+ * 默认用哈希值的符号位给特征值取±1，使冲突的特征在期望上相互抵消。同一行落到同一列的值相加。
+ * 不需要保存词表：训练与预测分别变换即可得到一致的列号，内存只与非零元素个数成正比。</p>
+ * <p>Maps DataFrame columns to sparse features of a fixed dimension (the hashing trick): every value of a String
+ * column is a categorical feature whose column is the MurmurHash3 of "name=value", with value 1; a Float column is
+ * hashed by its name and keeps its numeric value (0 and NaN are skipped). By default the sign bit of the hash gives
+ * the feature a ±1 sign so that colliding features cancel out in expectation. Values landing in the same column of
+ * a row are summed. No vocabulary is stored: training and prediction data transformed separately get consistent
+ * columns, and memory is proportional to the number of non-zeros.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class FeatureHasher implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 并行变换时每个块的最小行数 / Minimum rows per parallel block */
+    private static final int ROW_GRAIN = 4096;
+
+    /** 输出特征维度 / Output feature dimension */
+    private final int numFeatures;
+
+    /** 是否用哈希的符号位给特征取±1 / Whether the hash sign bit gives features a ±1 sign */
+    private final boolean alternateSign;
+
+    /**
+     * 构造函数，启用符号哈希 / Constructor with signed hashing
+     *
+     * @param numFeatures 输出特征维度 / Output feature dimension
+     */
+    public FeatureHasher(int numFeatures) {
+        this(numFeatures, true);
+    }
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param numFeatures 输出特征维度 / Output feature dimension
+     * @param alternateSign 是否用哈希的符号位给特征取±1 / Whether the hash sign bit gives features a ±1 sign
+     * @throws IllegalArgumentException 如果维度不为正 / if the dimension is not positive
+     */
+    public FeatureHasher(int numFeatures, boolean alternateSign) {
+        if (numFeatures <= 0) {
+            throw new IllegalArgumentException("特征维度必须为正 / Feature dimension must be positive");
+        }
+        this.numFeatures = numFeatures;
+        this.alternateSign = alternateSign;
+    }
+
+    /**
+     * 变换DataFrame的指定列 / Transform the given columns of a DataFrame
+     * <p>按行分块并行：每行最多产生与列数相同的非零元素，按列号排序并合并冲突后写入CSR矩阵。</p>
+     * <p>Parallel over row blocks: each row yields at most one non-zero per column, which are sorted by column
+     * number and merged on collision before being written to the CSR matrix.</p>
+     *
+     * @param frame 数据框 / Data frame
+     * @param columnNames 参与哈希的列名，为空时使用全部列 / Columns to hash, all columns if empty
+     * @return n × numFeatures的稀疏矩阵 / Sparse matrix of n × numFeatures
+     * @throws IllegalArgumentException 如果数据框为null或列不存在 / if the frame is null or a column does not exist
+     */
+    public RereSparseMatrix transform(DataFrame frame, String... columnNames) {
+        if (frame == null) {
+            throw new IllegalArgumentException("数据框不能为null / Data frame cannot be null");
+        }
+        Column[] columns;
+        if (columnNames == null || columnNames.length == 0) {
+            columns = frame.getColumns().toArray(new Column[0]);
+        } else {
+            columns = new Column[columnNames.length];
+            for (int c = 0; c < columnNames.length; c++) {
+                columns[c] = frame.getColumnByName(columnNames[c]);
+                if (columns[c] == null) {
+                    throw new IllegalArgumentException("列不存在 / Column not found: " + columnNames[c]);
+                }
+            }
+        }
+
+        int n = frame.getRowCount();
+        int width = columns.length;
+        String[] names = new String[width];
+        float[][] numeric = new float[width][];
+        int[] numericIndex = new int[width];
+        float[] numericSign = new float[width];
+        for (int c = 0; c < width; c++) {
+            names[c] = columns[c].getName();
+            if (columns[c].getColumnType() == ColumnType.Float) {
+                numeric[c] = columns[c].asVecView().getData();
+                int h = murmur3(names[c]);
+                numericIndex[c] = Math.floorMod(h, numFeatures);
+                numericSign[c] = sign(h);
+            }
+        }
+
+        // 每行先写入自己的width个槽位，再压缩 / Each row fills its own width slots, compacted afterwards
+        int[] slotIndices = new int[n * width];
+        float[] slotValues = new float[n * width];
+        int[] counts = new int[n];
+        RereExecutor.parallelFor(0, n, ROW_GRAIN, (from, to) -> {
+            StringBuilder token = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                int base = i * width;
+                int count = 0;
+                for (int c = 0; c < width; c++) {
+                    int index;
+                    float value;
+                    if (numeric[c] != null) {
+                        value = numeric[c][i];
+                        if (value == 0.0f || Float.isNaN(value)) {
+                            continue;
+                        }
+                        index = numericIndex[c];
+                        value *= numericSign[c];
+                    } else {
+                        Object cell = columns[c].getData().get(i);
+                        if (cell == null) {
+                            continue;
+                        }
+                        token.setLength(0);
+                        token.append(names[c]).append('=').append(cell);
+                        int h = murmur3(token);
+                        index = Math.floorMod(h, numFeatures);
+                        value = sign(h);
+                    }
+                    // 按列号插入排序，冲突时累加 / Insertion sort by column, summing on collision
+                    int p = base + count - 1;
+                    while (p >= base && slotIndices[p] > index) {
+                        p--;
+                    }
+                    if (p >= base && slotIndices[p] == index) {
+                        slotValues[p] += value;
+                        continue;
+                    }
+                    for (int q = base + count; q > p + 1; q--) {
+                        slotIndices[q] = slotIndices[q - 1];
+                        slotValues[q] = slotValues[q - 1];
+                    }
+                    slotIndices[p + 1] = index;
+                    slotValues[p + 1] = value;
+                    count++;
+                }
+                // 去掉相互抵消为0的元素 / Drop entries that cancelled out to zero
+                int kept = 0;
+                for (int p = base; p < base + count; p++) {
+                    if (slotValues[p] != 0.0f) {
+                        slotIndices[base + kept] = slotIndices[p];
+                        slotValues[base + kept] = slotValues[p];
+                        kept++;
+                    }
+                }
+                counts[i] = kept;
+            }
+        });
+
+        int[] rowPointers = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            rowPointers[i + 1] = rowPointers[i] + counts[i];
+        }
+        int[] indices = new int[rowPointers[n]];
+        float[] values = new float[rowPointers[n]];
+        RereExecutor.parallelFor(0, n, ROW_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                System.arraycopy(slotIndices, i * width, indices, rowPointers[i], counts[i]);
+                System.arraycopy(slotValues, i * width, values, rowPointers[i], counts[i]);
+            }
+        });
+        return new RereSparseMatrix(n, numFeatures, rowPointers, indices, values);
+    }
+
+    /**
+     * 获取特征对应的列号，例如"city=Beijing"或Float列的列名 / Get the column of a feature token, such as
+     * "city=Beijing" or the name of a Float column
+     *
+     * @param token 特征 / Feature token
+     * @return 列号 / Column number
+     */
+    public int indexOf(String token) {
+        return Math.floorMod(murmur3(token), numFeatures);
+    }
+
+    /**
+     * 获取输出特征维度 / Get the output feature dimension
+     *
+     * @return 特征维度 / Feature dimension
+     */
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    /**
+     * 是否用哈希的符号位给特征取±1 / Whether the hash sign bit gives features a ±1 sign
+     *
+     * @return 是否启用符号哈希 / Whether signed hashing is enabled
+     */
+    public boolean isAlternateSign() {
+        return alternateSign;
+    }
+
+    private float sign(int hash) {
+        return alternateSign && hash < 0 ? -1.0f : 1.0f;
+    }
+
+    /**
+     * 对字符序列的UTF-16编码做32位MurmurHash3（种子为0） / 32-bit MurmurHash3 (seed 0) of the UTF-16 encoding
+     * of a character sequence
+     *
+     * @param s 字符序列 / Character sequence
+     * @return 哈希值 / Hash value
+     */
+    static int murmur3(CharSequence s) {
+        int length = s.length();
+        int h = 0;
+        int i = 0;
+        for (; i + 1 < length; i += 2) {
+            int k = s.charAt(i) | (s.charAt(i + 1) << 16);
+            h ^= mixKey(k);
+            h = Integer.rotateLeft(h, 13);
+            h = h * 5 + 0xe6546b64;
+        }
+        if (i < length) {
+            h ^= mixKey(s.charAt(i));
+        }
+        h ^= length * 2;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int mixKey(int k) {
+        k *= 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        return k * 0x1b873593;
+    }
+}
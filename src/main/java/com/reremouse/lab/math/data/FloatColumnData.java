@@ -0,0 +1,182 @@
+package com.reremouse.lab.math.data;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 基于原始float数组的列数据 / Column data backed by a primitive float array
+ * <p>以{@code List<Object>}的形式对外提供，保持与{@link Column#getData()}的兼容；
+ * 内部以连续的float数组存储，避免逐元素装箱，可通过{@link #array()}直接访问底层数组</p>
+ * <p>Exposed as a {@code List<Object>} so it stays compatible with {@link Column#getData()};
+ * values are stored in a contiguous float array without per-element boxing, and the backing
+ * array can be accessed directly through {@link #array()}</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class FloatColumnData extends AbstractList<Object> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 底层数组，长度可能大于size / Backing array, may be longer than size */
+    private float[] values;
+
+    /** 有效元素个数 / Number of valid elements */
+    private int size;
+
+    /**
+     * 创建空的列数据 / Create empty column data
+     */
+    public FloatColumnData() {
+        this(new float[16], 0);
+    }
+
+    /**
+     * 直接包装给定数组（不复制） / Wrap the given array directly (no copy)
+     *
+     * @param values 列数值 / Column values
+     */
+    public FloatColumnData(float[] values) {
+        this(values, values == null ? 0 : values.length);
+    }
+
+    /**
+     * 包装给定数组的前size个元素（不复制） / Wrap the first size elements of the given array (no copy)
+     *
+     * @param values 底层数组 / Backing array
+     * @param size 有效元素个数 / Number of valid elements
+     * @throws IllegalArgumentException 如果size超出数组长度 / if size exceeds array length
+     */
+    public FloatColumnData(float[] values, int size) {
+        if (values == null) {
+            throw new IllegalArgumentException("数组不能为null / Array cannot be null");
+        }
+        if (size < 0 || size > values.length) {
+            throw new IllegalArgumentException("有效长度 " + size + " 超出数组范围 / Size " + size + " out of array bounds");
+        }
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * 获取底层数组（不复制） / Get backing array (no copy)
+     * <p>当底层数组长度与size一致时返回原数组，否则先收缩到size</p>
+     * <p>Returns the original array when its length equals size, otherwise trims it to size first</p>
+     *
+     * @return 长度为size的底层数组 / Backing array of length size
+     */
+    public float[] array() {
+        if (values.length != size) {
+            values = Arrays.copyOf(values, size);
+        }
+        return values;
+    }
+
+    /**
+     * 读取原始float值 / Read primitive float value
+     *
+     * @param index 行索引 / Row index
+     * @return 数值 / Value
+     */
+    public float getFloat(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("索引 " + index + " 超出范围 / Index " + index + " out of bounds, size " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * 写入原始float值 / Write primitive float value
+     *
+     * @param index 行索引 / Row index
+     * @param value 数值 / Value
+     */
+    public void setFloat(int index, float value) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("索引 " + index + " 超出范围 / Index " + index + " out of bounds, size " + size);
+        }
+        values[index] = value;
+    }
+
+    /**
+     * 追加原始float值 / Append primitive float value
+     *
+     * @param value 数值 / Value
+     */
+    public void addFloat(float value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(16, size + (size >> 1)));
+        }
+        values[size++] = value;
+        modCount++;
+    }
+
+    @Override
+    public Object get(int index) {
+        return getFloat(index);
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        float old = getFloat(index);
+        values[index] = toFloat(element);
+        return old;
+    }
+
+    @Override
+    public boolean add(Object element) {
+        addFloat(toFloat(element));
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * 将任意对象转换为float / Convert an arbitrary object to float
+     */
+    static float toFloat(Object element) {
+        if (element instanceof Number) {
+            return ((Number) element).floatValue();
+        }
+        if (element == null) {
+            return Float.NaN;
+        }
+        return Float.parseFloat(element.toString().trim());
+    }
+
+    /**
+     * 获取任意列数据的float数组 / Get a float array for arbitrary column data
+     * <p>如果是FloatColumnData则直接返回底层数组（不复制），否则逐元素转换为新数组</p>
+     * <p>Returns the backing array for FloatColumnData (no copy), otherwise converts element by element into a new array</p>
+     *
+     * @param data 列数据 / Column data
+     * @return float数组 / Float array
+     */
+    public static float[] toFloatArray(List<Object> data) {
+        if (data instanceof FloatColumnData) {
+            return ((FloatColumnData) data).array();
+        }
+        if (data instanceof MatrixColumnData) {
+            return ((MatrixColumnData) data).toArray(new float[data.size()]);
+        }
+        float[] result = new float[data.size()];
+        int i = 0;
+        for (Object value : data) {
+            result[i++] = toFloat(value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,695 @@
+package com.reremouse.lab.math.data;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.RereMatrix;
+import com.reremouse.lab.util.RereExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 惰性数据框查询 / Lazy DataFrame query
+ * <p>记录过滤（filter）、投影（select）、派生列（withColumn）和聚合（aggregate）步骤形成查询计划，
+ * 仅在调用{@link #collect()}或{@link #toMatrix()}时才执行。执行前对计划进行优化：</p>
+ * <p>Records filter, select (projection), withColumn (derivation) and aggregate steps as a query plan that
+ * is only executed by {@link #collect()} or {@link #toMatrix()}. The plan is optimized before execution:</p>
+ * <ul>
+ * <li>谓词下推：过滤条件被移动到与其无关的派生列之前，相邻的过滤条件合并 /
+ *     Predicate pushdown: filters move ahead of derivations they do not depend on, adjacent filters are merged</li>
+ * <li>投影下推：只读取最终结果需要的源列，未被使用的派生列被删除 /
+ *     Projection pushdown: only source columns needed by the result are read, unused derivations are dropped</li>
+ * <li>算子融合：所有逐元素步骤在一次逐行扫描中完成，数据按块并行处理 /
+ *     Operator fusion: all element-wise steps run in a single row-wise pass, processed in parallel chunks</li>
+ * </ul>
+ *
+ * <h3>使用示例 / Usage Example:</h3>
+ * <pre>
+ * {@code
+ * DataFrame result = df.lazy()
+ *     .withColumn("total", Expr.col("price").mul(Expr.col("qty")))
+ *     .filter(Expr.col("qty").gt(0))
+ *     .select("id", "total")
+ *     .collect();
+ * }
+ * </pre>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class LazyFrame {
+
+    /** 默认每块行数 / Default number of rows per chunk */
+    public static final int DEFAULT_CHUNK_SIZE = 16384;
+
+    private final DataFrame source;
+    private final List<Step> steps;
+    private final String groupKey;
+    private final List<Aggregation> aggregations;
+    private final int chunkSize;
+
+    /**
+     * 基于数据框创建惰性查询 / Create a lazy query over a DataFrame
+     *
+     * @param source 源数据框 / Source DataFrame
+     * @throws IllegalArgumentException 如果源数据框为null / if source is null
+     */
+    public LazyFrame(DataFrame source) {
+        this(source, Collections.emptyList(), null, null, DEFAULT_CHUNK_SIZE);
+        if (source == null) {
+            throw new IllegalArgumentException("源数据框不能为null / Source DataFrame cannot be null");
+        }
+    }
+
+    private LazyFrame(DataFrame source, List<Step> steps, String groupKey,
+                      List<Aggregation> aggregations, int chunkSize) {
+        this.source = source;
+        this.steps = steps;
+        this.groupKey = groupKey;
+        this.aggregations = aggregations;
+        this.chunkSize = chunkSize;
+    }
+
+    private LazyFrame append(Step step) {
+        if (aggregations != null) {
+            throw new IllegalStateException("聚合之后不能再添加步骤 / Cannot add steps after an aggregation");
+        }
+        List<Step> next = new ArrayList<>(steps);
+        next.add(step);
+        return new LazyFrame(source, Collections.unmodifiableList(next), null, null, chunkSize);
+    }
+
+    /**
+     * 过滤行 / Filter rows
+     * <p>保留predicate结果不为0的行 / Keeps rows for which predicate evaluates to non-zero</p>
+     *
+     * @param predicate 过滤条件 / Predicate
+     * @return 新的惰性查询 / New lazy query
+     */
+    public LazyFrame filter(Expr predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("过滤条件不能为null / Predicate cannot be null");
+        }
+        return append(new Step(StepKind.FILTER, null, predicate, null));
+    }
+
+    /**
+     * 添加或替换派生列 / Add or replace a derived column
+     *
+     * @param name 列名 / Column name
+     * @param expr 计算表达式 / Expression
+     * @return 新的惰性查询 / New lazy query
+     */
+    public LazyFrame withColumn(String name, Expr expr) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("列名不能为空 / Column name cannot be empty");
+        }
+        if (expr == null) {
+            throw new IllegalArgumentException("表达式不能为null / Expression cannot be null");
+        }
+        return append(new Step(StepKind.DERIVE, name, expr, null));
+    }
+
+    /**
+     * 选择列 / Select columns
+     *
+     * @param names 列名 / Column names
+     * @return 新的惰性查询 / New lazy query
+     */
+    public LazyFrame select(String... names) {
+        if (names == null || names.length == 0) {
+            throw new IllegalArgumentException("至少需要选择一列 / At least one column must be selected");
+        }
+        return append(new Step(StepKind.PROJECT, null, null, List.of(names)));
+    }
+
+    /**
+     * 全表聚合 / Aggregate over all rows
+     *
+     * @param aggs 聚合函数 / Aggregation functions
+     * @return 新的惰性查询，结果只有一行 / New lazy query producing a single row
+     */
+    public LazyFrame aggregate(Aggregation... aggs) {
+        return aggregate(null, aggs);
+    }
+
+    /**
+     * 分组聚合 / Grouped aggregation
+     * <p>分组按首次出现的顺序输出 / Groups are emitted in order of first appearance</p>
+     *
+     * @param groupBy 分组列名，为null时全表聚合 / Group-by column name, null aggregates all rows
+     * @param aggs 聚合函数 / Aggregation functions
+     * @return 新的惰性查询 / New lazy query
+     */
+    public LazyFrame aggregate(String groupBy, Aggregation... aggs) {
+        if (aggregations != null) {
+            throw new IllegalStateException("聚合之后不能再添加步骤 / Cannot add steps after an aggregation");
+        }
+        if (aggs == null || aggs.length == 0) {
+            throw new IllegalArgumentException("至少需要一个聚合函数 / At least one aggregation is required");
+        }
+        return new LazyFrame(source, steps, groupBy, List.of(aggs), chunkSize);
+    }
+
+    /**
+     * 设置并行分块的行数 / Set the number of rows per parallel chunk
+     *
+     * @param rows 每块行数 / Rows per chunk
+     * @return 新的惰性查询 / New lazy query
+     */
+    public LazyFrame chunkSize(int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("分块行数必须大于0 / Chunk size must be greater than 0");
+        }
+        return new LazyFrame(source, steps, groupKey, aggregations, rows);
+    }
+
+    /**
+     * 输出原始计划与优化后的计划 / Describe the logical and optimized plans
+     *
+     * @return 计划描述 / Plan description
+     */
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("== 逻辑计划 / Logical plan ==\n");
+        sb.append("Scan ").append(source.getColumnNames()).append('\n');
+        for (Step s : steps) {
+            sb.append(s).append('\n');
+        }
+        if (aggregations != null) {
+            sb.append(describeAggregate()).append('\n');
+        }
+        Plan plan = optimize();
+        sb.append("== 优化后计划 / Optimized plan ==\n");
+        sb.append("Scan ").append(plan.scanColumns).append('\n');
+        if (!plan.steps.isEmpty()) {
+            sb.append("Fused {\n");
+            for (Step s : plan.steps) {
+                sb.append("  ").append(s).append('\n');
+            }
+            sb.append("}\n");
+        }
+        if (aggregations != null) {
+            sb.append(describeAggregate()).append('\n');
+        } else {
+            sb.append("Output ").append(plan.outputColumns).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private String describeAggregate() {
+        return "Aggregate " + (groupKey == null ? "" : "by " + groupKey + " ") + aggregations;
+    }
+
+    /**
+     * 执行计划并返回数据框 / Execute the plan and return a DataFrame
+     * <p>数值结果列以原始float数组存储（{@link FloatColumnData}） /
+     * Numeric result columns are stored as primitive float arrays ({@link FloatColumnData})</p>
+     *
+     * @return 结果数据框 / Result DataFrame
+     */
+    public DataFrame collect() {
+        Plan plan = optimize();
+        if (aggregations != null) {
+            return executeAggregate(plan);
+        }
+        List<ChunkResult> chunks = execute(plan, true);
+        DataFrame result = new DataFrame();
+        for (int c = 0; c < plan.outputColumns.size(); c++) {
+            String name = plan.outputColumns.get(c);
+            Column column = new Column();
+            column.setName(name);
+            if (plan.outputIsFloat[c]) {
+                column.setColumnType(ColumnType.Float);
+                column.setData(new FloatColumnData(concatFloat(chunks, c)));
+            } else {
+                column.setColumnType(plan.outputTypes[c]);
+                List<Object> data = new ArrayList<>(totalRows(chunks));
+                for (ChunkResult chunk : chunks) {
+                    data.addAll(Arrays.asList((Object[]) chunk.columns[c]).subList(0, chunk.rows));
+                }
+                column.setData(data);
+            }
+            result.addColumn(column);
+        }
+        return result;
+    }
+
+    /**
+     * 执行计划并将所有Float结果列转换为矩阵 / Execute the plan and convert all Float result columns to a matrix
+     * <p>跳过数据框的中间构建，各块结果直接并行写入矩阵 /
+     * Skips building an intermediate DataFrame, chunk results are written into the matrix in parallel</p>
+     *
+     * @return 结果矩阵 / Result matrix
+     * @throws IllegalStateException 如果结果中没有Float列 / if the result has no Float columns
+     */
+    public IMatrix toMatrix() {
+        if (aggregations != null) {
+            return collect().toMatrix();
+        }
+        Plan plan = optimize();
+        List<Integer> floatOutputs = new ArrayList<>();
+        for (int c = 0; c < plan.outputColumns.size(); c++) {
+            if (plan.outputIsFloat[c]) {
+                floatOutputs.add(c);
+            }
+        }
+        if (floatOutputs.isEmpty()) {
+            throw new IllegalStateException("没有Float类型的列可以转换为矩阵 / No Float type columns available for matrix conversion");
+        }
+        List<ChunkResult> chunks = execute(plan, false);
+        int rows = totalRows(chunks);
+        int cols = floatOutputs.size();
+        float[][] matrix = new float[rows][cols];
+        int[] offsets = new int[chunks.size()];
+        for (int k = 1; k < chunks.size(); k++) {
+            offsets[k] = offsets[k - 1] + chunks.get(k - 1).rows;
+        }
+        RereExecutor.parallelFor(0, chunks.size(), 1, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                ChunkResult chunk = chunks.get(k);
+                for (int j = 0; j < cols; j++) {
+                    float[] col = (float[]) chunk.columns[floatOutputs.get(j)];
+                    for (int i = 0; i < chunk.rows; i++) {
+                        matrix[offsets[k] + i][j] = col[i];
+                    }
+                }
+            }
+        });
+        return new RereMatrix(matrix);
+    }
+
+    // ==================== 计划优化 / Plan optimization ====================
+
+    private enum StepKind { FILTER, DERIVE, PROJECT }
+
+    /**
+     * 计划中的一个步骤 / A single plan step
+     */
+    private static final class Step {
+        final StepKind kind;
+        final String name;
+        final Expr expr;
+        final List<String> columns;
+
+        Step(StepKind kind, String name, Expr expr, List<String> columns) {
+            this.kind = kind;
+            this.name = name;
+            this.expr = expr;
+            this.columns = columns;
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+                case FILTER: return "Filter " + expr;
+                case DERIVE: return "Derive " + name + " = " + expr;
+                default: return "Project " + columns;
+            }
+        }
+    }
+
+    /**
+     * 优化后的物理计划 / Optimized physical plan
+     */
+    private static final class Plan {
+        List<String> scanColumns;
+        List<Step> steps;
+        List<String> outputColumns;
+        boolean[] outputIsFloat;
+        ColumnType[] outputTypes;
+        String groupKey;
+    }
+
+    private Plan optimize() {
+        List<String> sourceNames = source.getColumnNames();
+
+        // 1. 校验各步骤引用的列，并推导输出模式 / Validate references and derive the output schema
+        LinkedHashSet<String> visible = new LinkedHashSet<>(sourceNames);
+        List<Step> logical = new ArrayList<>();
+        for (Step s : steps) {
+            switch (s.kind) {
+                case FILTER:
+                    checkVisible(visible, s.expr.referencedColumns());
+                    logical.add(s);
+                    break;
+                case DERIVE:
+                    checkVisible(visible, s.expr.referencedColumns());
+                    visible.add(s.name);
+                    logical.add(s);
+                    break;
+                case PROJECT:
+                    checkVisible(visible, s.columns);
+                    visible = new LinkedHashSet<>(s.columns);
+                    break;
+                default:
+                    break;
+            }
+        }
+        List<String> output = new ArrayList<>();
+        Set<String> required = new HashSet<>();
+        if (aggregations != null) {
+            if (groupKey != null) {
+                checkVisible(visible, Collections.singleton(groupKey));
+                required.add(groupKey);
+            }
+            for (Aggregation a : aggregations) {
+                checkVisible(visible, a.getExpr().referencedColumns());
+                required.addAll(a.getExpr().referencedColumns());
+            }
+        } else {
+            output.addAll(visible);
+            required.addAll(visible);
+        }
+
+        // 2. 谓词下推并合并相邻过滤 / Push predicates down and merge adjacent filters
+        List<Step> pushed = new ArrayList<>();
+        for (Step s : logical) {
+            if (s.kind != StepKind.FILTER) {
+                pushed.add(s);
+                continue;
+            }
+            Set<String> refs = s.expr.referencedColumns();
+            int pos = pushed.size();
+            while (pos > 0) {
+                Step prev = pushed.get(pos - 1);
+                if (prev.kind == StepKind.DERIVE && !refs.contains(prev.name)) {
+                    pos--;
+                } else {
+                    break;
+                }
+            }
+            if (pos > 0 && pushed.get(pos - 1).kind == StepKind.FILTER) {
+                Step prev = pushed.get(pos - 1);
+                pushed.set(pos - 1, new Step(StepKind.FILTER, null, prev.expr.and(s.expr), null));
+            } else {
+                pushed.add(pos, s);
+            }
+        }
+
+        // 3. 从后向前删除无用的派生列并计算需要读取的源列 / Drop unused derivations and compute needed source columns
+        List<Step> live = new ArrayList<>();
+        for (int i = pushed.size() - 1; i >= 0; i--) {
+            Step s = pushed.get(i);
+            if (s.kind == StepKind.DERIVE) {
+                if (!required.remove(s.name)) {
+                    continue;
+                }
+            }
+            required.addAll(s.expr.referencedColumns());
+            live.add(0, s);
+        }
+        List<String> scan = new ArrayList<>();
+        for (String name : sourceNames) {
+            if (required.contains(name)) {
+                scan.add(name);
+            }
+        }
+
+        Plan plan = new Plan();
+        plan.scanColumns = scan;
+        plan.steps = live;
+        plan.outputColumns = output;
+        plan.groupKey = groupKey;
+        plan.outputIsFloat = new boolean[output.size()];
+        plan.outputTypes = new ColumnType[output.size()];
+        for (int c = 0; c < output.size(); c++) {
+            ColumnType type = typeOf(plan, output.get(c));
+            plan.outputTypes[c] = type;
+            plan.outputIsFloat[c] = type == ColumnType.Float;
+        }
+        return plan;
+    }
+
+    private ColumnType typeOf(Plan plan, String name) {
+        for (Step s : plan.steps) {
+            if (s.kind == StepKind.DERIVE && s.name.equals(name)) {
+                return ColumnType.Float;
+            }
+        }
+        return source.getColumnByName(name).getColumnType();
+    }
+
+    private static void checkVisible(Set<String> visible, Iterable<String> names) {
+        for (String name : names) {
+            if (!visible.contains(name)) {
+                throw new IllegalArgumentException("列 " + name + " 不存在 / Column " + name + " does not exist");
+            }
+        }
+    }
+
+    // ==================== 计划执行 / Plan execution ====================
+
+    /**
+     * 一个数据块的执行结果 / Execution result of one chunk
+     */
+    private static final class ChunkResult {
+        int rows;
+        Object[] columns;
+        Map<Object, Aggregation.State[]> groups;
+    }
+
+    /**
+     * 一个数据块的编译结果 / Compiled form of one chunk
+     */
+    private final class CompiledChunk {
+        final Map<String, Expr.Evaluator> floats = new HashMap<>();
+        final Map<String, List<Object>> others = new HashMap<>();
+        final boolean[] isFilter;
+        final Expr.Evaluator[] evals;
+        final float[][] buffers;
+        final int from;
+
+        CompiledChunk(Plan plan, Map<String, float[]> floatSources, int from, int to) {
+            this.from = from;
+            for (Map.Entry<String, float[]> e : floatSources.entrySet()) {
+                final float[] arr = e.getValue();
+                floats.put(e.getKey(), r -> arr[r]);
+            }
+            for (String name : plan.scanColumns) {
+                if (!floatSources.containsKey(name)) {
+                    others.put(name, source.getColumnByName(name).getData());
+                }
+            }
+            int n = plan.steps.size();
+            isFilter = new boolean[n];
+            evals = new Expr.Evaluator[n];
+            buffers = new float[n][];
+            for (int i = 0; i < n; i++) {
+                Step s = plan.steps.get(i);
+                evals[i] = s.expr.compile(floats, others);
+                if (s.kind == StepKind.FILTER) {
+                    isFilter[i] = true;
+                } else {
+                    final float[] buf = new float[to - from];
+                    buffers[i] = buf;
+                    floats.put(s.name, r -> buf[r - from]);
+                    others.remove(s.name);
+                }
+            }
+        }
+
+        /**
+         * 逐行执行所有融合步骤 / Run all fused steps for one row
+         *
+         * @return 该行是否通过所有过滤 / Whether the row passes every filter
+         */
+        boolean run(int r) {
+            for (int i = 0; i < evals.length; i++) {
+                if (isFilter[i]) {
+                    if (evals[i].eval(r) == 0f) {
+                        return false;
+                    }
+                } else {
+                    buffers[i][r - from] = evals[i].eval(r);
+                }
+            }
+            return true;
+        }
+    }
+
+    private Map<String, float[]> loadFloatSources(Plan plan) {
+        Map<String, float[]> floatSources = new HashMap<>();
+        for (String name : plan.scanColumns) {
+            Column column = source.getColumnByName(name);
+            if (column.getColumnType() == ColumnType.Float) {
+                floatSources.put(name, FloatColumnData.toFloatArray(column.getData()));
+            }
+        }
+        return floatSources;
+    }
+
+    private List<ChunkResult> execute(Plan plan, boolean includeNonFloat) {
+        Map<String, float[]> floatSources = loadFloatSources(plan);
+        return RereExecutor.parallelMap(0, source.getRowCount(), chunkSize, (from, to) -> {
+            CompiledChunk compiled = new CompiledChunk(plan, floatSources, from, to);
+            int[] selected = new int[to - from];
+            int count = 0;
+            for (int r = from; r < to; r++) {
+                if (compiled.run(r)) {
+                    selected[count++] = r;
+                }
+            }
+            ChunkResult result = new ChunkResult();
+            result.rows = count;
+            result.columns = new Object[plan.outputColumns.size()];
+            for (int c = 0; c < plan.outputColumns.size(); c++) {
+                String name = plan.outputColumns.get(c);
+                if (plan.outputIsFloat[c]) {
+                    Expr.Evaluator e = compiled.floats.get(name);
+                    float[] values = new float[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = e.eval(selected[i]);
+                    }
+                    result.columns[c] = values;
+                } else if (includeNonFloat) {
+                    List<Object> data = compiled.others.get(name);
+                    Object[] values = new Object[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = data.get(selected[i]);
+                    }
+                    result.columns[c] = values;
+                }
+            }
+            return result;
+        });
+    }
+
+    private DataFrame executeAggregate(Plan plan) {
+        return statesToFrame(aggregateStates(plan));
+    }
+
+    /**
+     * 执行聚合计划，返回合并后的各分组状态（供跨批次累积使用）
+     * / Execute the aggregate plan and return the merged per-group states (used to accumulate across batches)
+     */
+    Map<Object, Aggregation.State[]> aggregateStates() {
+        if (aggregations == null) {
+            throw new IllegalStateException("查询中没有聚合 / Query has no aggregation");
+        }
+        return aggregateStates(optimize());
+    }
+
+    private Map<Object, Aggregation.State[]> aggregateStates(Plan plan) {
+        Map<String, float[]> floatSources = loadFloatSources(plan);
+        int k = aggregations.size();
+        List<ChunkResult> chunks = RereExecutor.parallelMap(0, source.getRowCount(), chunkSize, (from, to) -> {
+            CompiledChunk compiled = new CompiledChunk(plan, floatSources, from, to);
+            Expr.Evaluator[] aggEvals = new Expr.Evaluator[k];
+            for (int a = 0; a < k; a++) {
+                aggEvals[a] = aggregations.get(a).getExpr().compile(compiled.floats, compiled.others);
+            }
+            Expr.Evaluator floatKey = plan.groupKey == null ? null : compiled.floats.get(plan.groupKey);
+            List<Object> otherKey = plan.groupKey == null ? null : compiled.others.get(plan.groupKey);
+            Map<Object, Aggregation.State[]> groups = new LinkedHashMap<>();
+            Aggregation.State[] single = plan.groupKey == null ? newStates() : null;
+            for (int r = from; r < to; r++) {
+                if (!compiled.run(r)) {
+                    continue;
+                }
+                Aggregation.State[] states = single;
+                if (states == null) {
+                    Object key = floatKey != null ? (Object) floatKey.eval(r) : otherKey.get(r);
+                    states = groups.computeIfAbsent(key, x -> newStates());
+                }
+                for (int a = 0; a < k; a++) {
+                    states[a].add(aggEvals[a].eval(r));
+                }
+            }
+            if (single != null) {
+                groups.put(null, single);
+            }
+            ChunkResult result = new ChunkResult();
+            result.groups = groups;
+            return result;
+        });
+
+        // 按块顺序合并各块状态 / Merge chunk states in chunk order
+        Map<Object, Aggregation.State[]> merged = new LinkedHashMap<>();
+        if (groupKey == null) {
+            merged.put(null, newStates());
+        }
+        for (ChunkResult chunk : chunks) {
+            for (Map.Entry<Object, Aggregation.State[]> e : chunk.groups.entrySet()) {
+                Aggregation.State[] target = merged.computeIfAbsent(e.getKey(), x -> newStates());
+                for (int a = 0; a < k; a++) {
+                    target[a].merge(e.getValue()[a]);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private Aggregation.State[] newStates() {
+        Aggregation.State[] states = new Aggregation.State[aggregations.size()];
+        for (int a = 0; a < states.length; a++) {
+            states[a] = aggregations.get(a).newState();
+        }
+        return states;
+    }
+
+    /**
+     * 将聚合状态转换为结果数据框 / Convert aggregation states into a result DataFrame
+     */
+    DataFrame statesToFrame(Map<Object, Aggregation.State[]> groups) {
+        DataFrame result = new DataFrame();
+        if (groupKey != null) {
+            Column keyColumn = new Column();
+            keyColumn.setName(groupKey);
+            Column sourceKey = source.getColumnByName(groupKey);
+            boolean floatKey = sourceKey == null || sourceKey.getColumnType() == ColumnType.Float
+                || isDerived(groupKey);
+            keyColumn.setColumnType(floatKey ? ColumnType.Float : ColumnType.String);
+            keyColumn.setData(new ArrayList<>(groups.keySet()));
+            result.addColumn(keyColumn);
+        }
+        for (int a = 0; a < aggregations.size(); a++) {
+            float[] values = new float[groups.size()];
+            int i = 0;
+            for (Aggregation.State[] states : groups.values()) {
+                values[i++] = states[a].result();
+            }
+            Column column = new Column();
+            column.setName(aggregations.get(a).getAlias());
+            column.setColumnType(ColumnType.Float);
+            column.setData(new FloatColumnData(values));
+            result.addColumn(column);
+        }
+        return result;
+    }
+
+    private boolean isDerived(String name) {
+        for (Step s : steps) {
+            if (s.kind == StepKind.DERIVE && s.name.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int totalRows(List<ChunkResult> chunks) {
+        int total = 0;
+        for (ChunkResult chunk : chunks) {
+            total += chunk.rows;
+        }
+        return total;
+    }
+
+    private static float[] concatFloat(List<ChunkResult> chunks, int c) {
+        float[] result = new float[totalRows(chunks)];
+        int offset = 0;
+        for (ChunkResult chunk : chunks) {
+            System.arraycopy((float[]) chunk.columns[c], 0, result, offset, chunk.rows);
+            offset += chunk.rows;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.reremouse.lab.math.data;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * 行主序矩阵中某一列的列表视图 / List view of one column of a row-major matrix
+ * <p>由{@link DataFrame#fromMatrix(com.reremouse.lab.math.IMatrix, String...)}创建，读写直接作用于矩阵的行数组，
+ * 不复制数据。视图长度固定，不支持添加或删除元素。</p>
+ * <p>Created by {@link DataFrame#fromMatrix(com.reremouse.lab.math.IMatrix, String...)}; reads and writes go
+ * straight to the row arrays of the matrix without copying. The view has a fixed length and does not support
+ * adding or removing elements.</p>
+ * <p>可序列化：同一数据框中共享同一矩阵的各列在反序列化后仍共享同一份行数组。</p>
+ * <p>Serializable: columns of one DataFrame that share a matrix still share one set of row arrays after
+ * deserialization.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+final class MatrixColumnData extends AbstractList<Object> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 行主序矩阵数据 / Row-major matrix data */
+    final float[][] rows;
+
+    /** 列索引 / Column index */
+    final int col;
+
+    MatrixColumnData(float[][] rows, int col) {
+        this.rows = rows;
+        this.col = col;
+    }
+
+    @Override
+    public Object get(int index) {
+        return rows[index][col];
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        float old = rows[index][col];
+        rows[index][col] = FloatColumnData.toFloat(element);
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * 将列复制到数组 / Copy the column into an array
+     */
+    float[] toArray(float[] target) {
+        for (int i = 0; i < rows.length; i++) {
+            target[i] = rows[i][col];
+        }
+        return target;
+    }
+}
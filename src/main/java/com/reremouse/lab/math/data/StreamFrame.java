@@ -0,0 +1,393 @@
+package com.reremouse.lab.math.data;
+
+import com.reremouse.lab.math.IMatrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * 分批流式数据框 / Batched streaming DataFrame
+ * <p>在数据框批次序列上执行流式算子（map、filter、派生列、投影和累积聚合），用于处理无法整体放入内存的数据集。
+ * 连续的表达式算子在每个批次上被编译为一个{@link LazyFrame}计划一次执行；聚合在批次之间合并可合并的
+ * {@link Aggregation.State}，因此内存占用只与批大小和分组数有关。</p>
+ * <p>Applies streaming operators (map, filter, derived columns, projection and running aggregates) over a
+ * sequence of DataFrame batches, for datasets that do not fit in memory as a whole. Consecutive expression
+ * operators are compiled into a single {@link LazyFrame} plan per batch; aggregations merge mergeable
+ * {@link Aggregation.State}s across batches, so memory use depends only on the batch size and the number of
+ * groups.</p>
+ * <p>流只能被消费一次；终止操作在结束时关闭底层数据源。</p>
+ * <p>A stream can be consumed only once; terminal operations close the underlying source when done.</p>
+ *
+ * <pre>
+ * {@code
+ * DataFrame stats = StreamFrame.fromCsv("big.csv", ",", true, 100000)
+ *     .filter(Expr.col("price").gt(0))
+ *     .withColumn("total", Expr.col("price").mul(Expr.col("qty")))
+ *     .aggregate("region", Aggregation.sum("total"), Aggregation.mean("price"));
+ * }
+ * </pre>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class StreamFrame implements Iterable<DataFrame>, Closeable {
+
+    private final Iterator<DataFrame> source;
+    private final Function<DataFrame, LazyFrame> pipeline;
+    private final boolean[] consumed;
+
+    private StreamFrame(Iterator<DataFrame> source, Function<DataFrame, LazyFrame> pipeline, boolean[] consumed) {
+        this.source = source;
+        this.pipeline = pipeline;
+        this.consumed = consumed;
+    }
+
+    /**
+     * 基于批次迭代器创建流 / Create a stream over a batch iterator
+     * <p>如果迭代器实现了{@link Closeable}，流关闭时会一并关闭它 /
+     * If the iterator implements {@link Closeable}, it is closed together with the stream</p>
+     *
+     * @param batches 批次迭代器 / Batch iterator
+     * @return 流 / Stream
+     */
+    public static StreamFrame of(Iterator<DataFrame> batches) {
+        if (batches == null) {
+            throw new IllegalArgumentException("批次迭代器不能为null / Batch iterator cannot be null");
+        }
+        return new StreamFrame(batches, null, new boolean[1]);
+    }
+
+    /**
+     * 将内存中的数据框按行切分为批次流 / Split an in-memory DataFrame into a stream of row batches
+     *
+     * @param df 数据框 / DataFrame
+     * @param batchSize 每批行数 / Rows per batch
+     * @return 流 / Stream
+     */
+    public static StreamFrame of(DataFrame df, int batchSize) {
+        if (df == null) {
+            throw new IllegalArgumentException("数据框不能为null / DataFrame cannot be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批大小必须为正数 / Batch size must be positive");
+        }
+        return of(new Iterator<DataFrame>() {
+            private int offset = 0;
+
+            @Override
+            public boolean hasNext() {
+                return offset < df.getRowCount();
+            }
+
+            @Override
+            public DataFrame next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多批次 / No more batches");
+                }
+                int end = Math.min(df.getRowCount(), offset + batchSize);
+                DataFrame batch = sliceRows(df, offset, end);
+                offset = end;
+                return batch;
+            }
+        });
+    }
+
+    /**
+     * 分批读取CSV文件 / Read a CSV file in batches
+     *
+     * @param filePath 文件路径 / File path
+     * @param separator 分隔符 / Separator
+     * @param ifHasHead 是否有表头 / Whether has header
+     * @param batchSize 每批行数 / Rows per batch
+     * @return 流 / Stream
+     * @throws IOException 如果文件打开失败 / if the file cannot be opened
+     * @see CsvBatchReader
+     */
+    public static StreamFrame fromCsv(String filePath, String separator, boolean ifHasHead, int batchSize)
+            throws IOException {
+        return of(new CsvBatchReader(filePath, separator, ifHasHead, batchSize));
+    }
+
+    private StreamFrame then(UnaryOperator<LazyFrame> op) {
+        Function<DataFrame, LazyFrame> base = pipeline != null ? pipeline : LazyFrame::new;
+        return new StreamFrame(source, base.andThen(op), consumed);
+    }
+
+    /**
+     * 逐批过滤行 / Filter rows batch by batch
+     *
+     * @param predicate 过滤条件 / Predicate
+     * @return 新的流 / New stream
+     */
+    public StreamFrame filter(Expr predicate) {
+        return then(lf -> lf.filter(predicate));
+    }
+
+    /**
+     * 逐批添加派生列 / Add a derived column batch by batch
+     *
+     * @param name 列名 / Column name
+     * @param expr 表达式 / Expression
+     * @return 新的流 / New stream
+     */
+    public StreamFrame withColumn(String name, Expr expr) {
+        return then(lf -> lf.withColumn(name, expr));
+    }
+
+    /**
+     * 逐批投影列 / Project columns batch by batch
+     *
+     * @param names 列名 / Column names
+     * @return 新的流 / New stream
+     */
+    public StreamFrame select(String... names) {
+        return then(lf -> lf.select(names));
+    }
+
+    /**
+     * 对每个批次应用任意变换 / Apply an arbitrary transformation to each batch
+     *
+     * @param fn 批次变换函数 / Batch transformation
+     * @return 新的流 / New stream
+     */
+    public StreamFrame map(UnaryOperator<DataFrame> fn) {
+        if (fn == null) {
+            throw new IllegalArgumentException("变换函数不能为null / Function cannot be null");
+        }
+        Function<DataFrame, LazyFrame> base = pipeline;
+        Function<DataFrame, LazyFrame> next = base == null
+            ? batch -> new LazyFrame(fn.apply(batch))
+            : batch -> new LazyFrame(fn.apply(base.apply(batch).collect()));
+        return new StreamFrame(source, next, consumed);
+    }
+
+    /**
+     * 获取处理后批次的迭代器，空批次被跳过 / Get an iterator over processed batches, empty batches are skipped
+     *
+     * @return 批次迭代器 / Batch iterator
+     * @throws IllegalStateException 如果流已被消费 / if the stream has already been consumed
+     */
+    @Override
+    public Iterator<DataFrame> iterator() {
+        return transform(batch -> pipeline == null ? batch : pipeline.apply(batch).collect(),
+            DataFrame::isEmpty);
+    }
+
+    /**
+     * 以矩阵批次的形式迭代所有Float列 / Iterate all Float columns as matrix batches
+     * <p>每个批次的Float列被直接并行填充为行主序矩阵，适合增量训练和增量统计 /
+     * The Float columns of each batch are filled directly into a row-major matrix in parallel, suitable for
+     * incremental training and incremental statistics</p>
+     *
+     * @return 矩阵迭代器 / Matrix iterator
+     * @throws IllegalStateException 如果流已被消费 / if the stream has already been consumed
+     */
+    public Iterator<IMatrix> toMatrixBatches() {
+        return transform(batch -> (pipeline == null ? new LazyFrame(batch) : pipeline.apply(batch)).toMatrix(),
+            m -> m.getRowNum() == 0);
+    }
+
+    /**
+     * 对每个处理后的批次执行操作 / Perform an action on every processed batch
+     *
+     * @param action 操作 / Action
+     */
+    @Override
+    public void forEach(Consumer<? super DataFrame> action) {
+        try {
+            Iterator<DataFrame> it = iterator();
+            while (it.hasNext()) {
+                action.accept(it.next());
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * 将所有批次合并为一个内存数据框 / Collect all batches into one in-memory DataFrame
+     *
+     * @return 合并后的数据框 / Concatenated DataFrame
+     */
+    public DataFrame collect() {
+        List<DataFrame> batches = new ArrayList<>();
+        forEach(batches::add);
+        return concat(batches);
+    }
+
+    /**
+     * 统计处理后的总行数 / Count rows after processing
+     *
+     * @return 行数 / Row count
+     */
+    public long count() {
+        long[] total = new long[1];
+        forEach(batch -> total[0] += batch.getRowCount());
+        return total[0];
+    }
+
+    /**
+     * 全流累积聚合 / Running aggregate over the whole stream
+     *
+     * @param aggs 聚合函数 / Aggregations
+     * @return 单行结果数据框 / Single-row result DataFrame
+     */
+    public DataFrame aggregate(Aggregation... aggs) {
+        return aggregate(null, aggs);
+    }
+
+    /**
+     * 全流分组累积聚合 / Grouped running aggregate over the whole stream
+     * <p>每个批次独立并行聚合，然后按批次顺序合并各组状态；分组按首次出现的顺序输出 /
+     * Each batch is aggregated in parallel on its own and group states are merged in batch order; groups are
+     * output in order of first appearance</p>
+     *
+     * @param groupBy 分组列，为null时全表聚合 / Group-by column, null for a global aggregate
+     * @param aggs 聚合函数 / Aggregations
+     * @return 结果数据框，没有任何批次时为空 / Result DataFrame, empty when there are no batches
+     */
+    public DataFrame aggregate(String groupBy, Aggregation... aggs) {
+        Function<DataFrame, LazyFrame> base = pipeline != null ? pipeline : LazyFrame::new;
+        Function<DataFrame, LazyFrame> plan = groupBy == null
+            ? base.andThen(lf -> lf.aggregate(aggs))
+            : base.andThen(lf -> lf.aggregate(groupBy, aggs));
+        Map<Object, Aggregation.State[]> merged = new LinkedHashMap<>();
+        LazyFrame last = null;
+        try {
+            Iterator<DataFrame> it = rawIterator();
+            while (it.hasNext()) {
+                last = plan.apply(it.next());
+                for (Map.Entry<Object, Aggregation.State[]> e : last.aggregateStates().entrySet()) {
+                    Aggregation.State[] target = merged.putIfAbsent(e.getKey(), e.getValue());
+                    if (target != null) {
+                        for (int a = 0; a < target.length; a++) {
+                            target[a].merge(e.getValue()[a]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            close();
+        }
+        return last == null ? new DataFrame() : last.statesToFrame(merged);
+    }
+
+    /**
+     * 关闭底层数据源 / Close the underlying source
+     */
+    @Override
+    public void close() {
+        consumed[0] = true;
+        if (source instanceof Closeable) {
+            try {
+                ((Closeable) source).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Iterator<DataFrame> rawIterator() {
+        if (consumed[0]) {
+            throw new IllegalStateException("流只能被消费一次 / Stream can only be consumed once");
+        }
+        consumed[0] = true;
+        return source;
+    }
+
+    private <T> Iterator<T> transform(Function<DataFrame, T> fn, Predicate<T> isEmpty) {
+        Iterator<DataFrame> raw = rawIterator();
+        return new Iterator<T>() {
+            private T pending;
+
+            @Override
+            public boolean hasNext() {
+                while (pending == null && raw.hasNext()) {
+                    T value = fn.apply(raw.next());
+                    if (!isEmpty.test(value)) {
+                        pending = value;
+                    }
+                }
+                return pending != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("没有更多批次 / No more batches");
+                }
+                T value = pending;
+                pending = null;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * 复制数据框的行区间[from, to) / Copy the row range [from, to) of a DataFrame
+     */
+    static DataFrame sliceRows(DataFrame df, int from, int to) {
+        DataFrame batch = new DataFrame();
+        for (Column column : df.getColumns()) {
+            Column part = new Column();
+            part.setName(column.getName());
+            part.setColumnType(column.getColumnType());
+            if (column.getData() instanceof FloatColumnData) {
+                float[] values = ((FloatColumnData) column.getData()).array();
+                part.setData(new FloatColumnData(Arrays.copyOfRange(values, from, to)));
+            } else {
+                part.setData(new ArrayList<>(column.getData().subList(from, to)));
+            }
+            batch.addColumn(part);
+        }
+        return batch;
+    }
+
+    private static DataFrame concat(List<DataFrame> batches) {
+        DataFrame result = new DataFrame();
+        if (batches.isEmpty()) {
+            return result;
+        }
+        DataFrame first = batches.get(0);
+        int total = 0;
+        for (DataFrame batch : batches) {
+            total += batch.getRowCount();
+        }
+        for (int c = 0; c < first.getColumnCount(); c++) {
+            Column column = new Column();
+            column.setName(first.get(c).getName());
+            column.setColumnType(first.get(c).getColumnType());
+            if (column.getColumnType() == ColumnType.Float) {
+                float[] values = new float[total];
+                int offset = 0;
+                for (DataFrame batch : batches) {
+                    float[] part = FloatColumnData.toFloatArray(batch.get(c).getData());
+                    System.arraycopy(part, 0, values, offset, part.length);
+                    offset += part.length;
+                }
+                column.setData(new FloatColumnData(values));
+            } else {
+                List<Object> values = new ArrayList<>(total);
+                for (DataFrame batch : batches) {
+                    values.addAll(batch.get(c).getData());
+                }
+                column.setData(values);
+            }
+            result.addColumn(column);
+        }
+        return result;
+    }
+}
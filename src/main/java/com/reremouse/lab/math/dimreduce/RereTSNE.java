@@ -1,8 +1,11 @@
 package com.reremouse.lab.math.dimreduce;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 import com.reremouse.lab.math.IMatrix;
 import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.optimize.IOptimizationListener;
+import com.reremouse.lab.math.optimize.OptimizationProgress;
+import com.reremouse.lab.util.RereRandom;
 
 /**
  * t-SNE降维算法实现类 / t-SNE Dimensionality Reduction Algorithm Implementation
@@ -10,6 +13,16 @@ import com.reremouse.lab.math.IVector;
  * 实现t-distributed Stochastic Neighbor Embedding (t-SNE)算法，用于非线性降维
  * Implements t-distributed Stochastic Neighbor Embedding (t-SNE) for nonlinear dimensionality reduction
  * </p>
+ * <p>
+ * 不向控制台输出；通过{@link #setListener}每{@value #REPORT_INTERVAL}次迭代接收KL散度与梯度范数，监听器返回false时提前停止
+ * Prints nothing; a listener set with {@link #setListener} receives the KL divergence and gradient norm every
+ * {@value #REPORT_INTERVAL} iterations and stops the run early by returning false
+ * </p>
+ * <p>
+ * 唯一的随机性来自初始嵌入；用{@link #setSeed}或{@link #setRandom}固定生成器后结果可复现
+ * The only randomness is the initial embedding; fix the generator with {@link #setSeed} or {@link #setRandom}
+ * for reproducible results
+ * </p>
  *
  * @author lteb2
  */
@@ -22,6 +35,13 @@ public class RereTSNE {
     private final double momentum = 0.8;       // 动量 / Momentum
     private final double tolerance = 1e-4;     // 收敛阈值 / Convergence tolerance
     
+    /** 通知监听器的迭代间隔 / Iterations between listener notifications */
+    public static final int REPORT_INTERVAL = 50;
+    
+    private IOptimizationListener listener = null; // 迭代监听器 / Iteration listener
+    
+    private RandomGenerator random = RereRandom.create(); // 初始嵌入的随机数生成器 / Generator for the initial embedding
+    
     /**
      * 用t-SNE方法降维
      * @param originalData 原数据，每行为一个样本
@@ -40,8 +60,6 @@ public class RereTSNE {
             throw new IllegalArgumentException("样本数量必须至少为2");
         }
         
-        System.out.println("开始t-SNE降维：样本数=" + n + "，原始维度=" + originalDim + "，目标维度=" + dim);
-        
         // 步骤1：计算高维空间中的相似度矩阵P
         IMatrix P = computeHighDimSimilarities(originalData);
         
@@ -51,7 +69,6 @@ public class RereTSNE {
         // 步骤3：使用梯度下降优化Y
         Y = optimizeEmbedding(P, Y);
         
-        System.out.println("t-SNE降维完成");
         return Y;
     }
     
@@ -178,7 +195,6 @@ public class RereTSNE {
      * 初始化低维嵌入Y
      */
     private IMatrix initializeLowDimEmbedding(int n, int dim) {
-        Random random = new Random();
         float[][] data = new float[n][dim];
         
         // 使用小的随机值初始化
@@ -198,6 +214,11 @@ public class RereTSNE {
         int n = Y.getRowNum();
         int dim = Y.getColNum();
         IMatrix velocity = IMatrix.zeros(n, dim); // 动量项
+        long start = System.nanoTime();
+        int reports = 0;
+        if (listener != null) {
+            listener.onStart();
+        }
         
         for (int iter = 0; iter < maxIter; iter++) {
             // 计算低维相似度矩阵Q
@@ -206,18 +227,23 @@ public class RereTSNE {
             // 计算梯度
             IMatrix gradient = computeGradient(P, Q, Y);
             
+            // 每REPORT_INTERVAL次迭代通知监听器，只在有监听器时计算KL散度
+            if (listener != null && iter % REPORT_INTERVAL == 0) {
+                double cost = computeKLDivergence(P, Q);
+                reports++;
+                OptimizationProgress progress = new OptimizationProgress(iter, (float) cost,
+                    gradient.frobeniusNorm(), (float) learningRate, 0, reports, iter + 1, System.nanoTime() - start);
+                if (!listener.onIteration(progress)) {
+                    break;
+                }
+            }
+            
             // 更新速度（应用动量）
             velocity = velocity.mmul(momentum).sub(gradient.mmul(learningRate));
             
             // 更新Y
             Y = Y.add(velocity);
             
-            // 每50次迭代输出一次进度
-            if (iter % 50 == 0) {
-                double cost = computeKLDivergence(P, Q);
-                System.out.println("迭代 " + iter + "，KL散度: " + cost);
-            }
-            
             // 检查收敛性
             if (iter > 100) {
                 IMatrix Q_prev = computeLowDimSimilarities(Y.sub(velocity));
@@ -225,7 +251,6 @@ public class RereTSNE {
                 double cost_prev = computeKLDivergence(P, Q_prev);
                 
                 if (Math.abs(cost_current - cost_prev) < tolerance) {
-                    System.out.println("收敛于迭代 " + iter);
                     break;
                 }
             }
@@ -327,4 +352,40 @@ public class RereTSNE {
         
         return kl;
     }
+    
+    /**
+     * 获取迭代监听器 / Get the iteration listener
+     * @return 监听器，未设置时为null / Listener, null if not set
+     */
+    public IOptimizationListener getListener() {
+        return listener;
+    }
+    
+    /**
+     * 设置迭代监听器，null表示不监听 / Set the iteration listener, null for none
+     * @param listener 监听器 / Listener
+     */
+    public void setListener(IOptimizationListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * 设置随机种子，使初始嵌入可复现 / Set the random seed so that the initial embedding is reproducible
+     * @param seed 随机种子 / Random seed
+     */
+    public void setSeed(long seed) {
+        this.random = RereRandom.create(seed);
+    }
+    
+    /**
+     * 设置随机数生成器 / Set the random generator
+     * @param random 随机数生成器 / Random generator
+     * @throws IllegalArgumentException 如果生成器为null / if the generator is null
+     */
+    public void setRandom(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+        this.random = random;
+    }
 }
@@ -1,9 +1,13 @@
 package com.reremouse.lab.math.dimreduce;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
 import com.reremouse.lab.math.IMatrix;
 import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.optimize.IOptimizationListener;
+import com.reremouse.lab.math.optimize.OptimizationProgress;
+import com.reremouse.lab.util.RereRandom;
 
 /**
  * UMAP (Uniform Manifold Approximation and Projection) 降维算法实现类
@@ -17,6 +21,18 @@ import com.reremouse.lab.math.IVector;
  * while discovering global structure, especially suitable for visualization
  * and dimensionality reduction tasks.
  * </p>
+ * <p>
+ * 不向控制台输出；通过{@link #setListener}每{@value #REPORT_INTERVAL}个epoch接收进度（步长为当前学习率，
+ * 随机梯度迭代没有函数值，为NaN），监听器返回false时提前停止。
+ * Prints nothing; a listener set with {@link #setListener} receives progress every {@value #REPORT_INTERVAL}
+ * epochs (the step is the current learning rate; stochastic epochs have no objective value, reported as NaN)
+ * and stops the run early by returning false.
+ * </p>
+ * <p>
+ * 初始嵌入与负采样共用一个生成器；用{@link #setSeed}或{@link #setRandom}固定后结果可复现。
+ * The initial embedding and negative sampling share one generator; fix it with {@link #setSeed} or
+ * {@link #setRandom} for reproducible results.
+ * </p>
  *
  * @author lteb2
  */
@@ -32,7 +48,12 @@ public class RereUMAP {
     private final float repulsionStrength = 1.0f; // 排斥强度 / Repulsion strength
     private final int negativeSampleRate = 5; // 负样本采样率 / Negative sampling rate
     private final float initialAlpha = 1.0f;  // 初始学习率 / Initial learning rate
-    private final Random random = new Random();
+    private RandomGenerator random = RereRandom.create(); // 随机数生成器 / Random generator
+    
+    /** 通知监听器的epoch间隔 / Epochs between listener notifications */
+    public static final int REPORT_INTERVAL = 50;
+    
+    private IOptimizationListener listener = null; // 迭代监听器 / Iteration listener
     
     /**
      * 用UMAP方法降维
@@ -41,32 +62,61 @@ public class RereUMAP {
      * @return 降维后的矩阵
      */
     public IMatrix dimensionReduction(IMatrix originalData, int dim){
-        System.out.println("开始UMAP降维，数据形状: " + Arrays.toString(originalData.shape()) + 
-                          "，目标维度: " + dim);
-        
         int n = originalData.getRowNum();
         
         // 第一步：构建k近邻图
-        System.out.println("步骤1: 构建k近邻图...");
         int[][] knnIndices = computeKNearestNeighbors(originalData);
         float[][] knnDistances = computeKNNDistances(originalData, knnIndices);
         
         // 第二步：计算流形结构（fuzzy simplicial complex）
-        System.out.println("步骤2: 计算流形结构...");
         IMatrix weights = computeFuzzySimplicialComplex(knnIndices, knnDistances, n);
         
         // 第三步：初始化低维嵌入
-        System.out.println("步骤3: 初始化低维嵌入...");
         IMatrix embedding = initializeEmbedding(n, dim);
         
         // 第四步：优化低维嵌入
-        System.out.println("步骤4: 优化低维嵌入...");
         embedding = optimizeEmbedding(weights, embedding, knnIndices);
         
-        System.out.println("UMAP降维完成");
         return embedding;
     }
     
+    /**
+     * 获取迭代监听器 / Get the iteration listener
+     * @return 监听器，未设置时为null / Listener, null if not set
+     */
+    public IOptimizationListener getListener() {
+        return listener;
+    }
+    
+    /**
+     * 设置迭代监听器，null表示不监听 / Set the iteration listener, null for none
+     * @param listener 监听器 / Listener
+     */
+    public void setListener(IOptimizationListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * 设置随机种子，使初始嵌入与负采样可复现
+     * Set the random seed so that the initial embedding and negative sampling are reproducible
+     * @param seed 随机种子 / Random seed
+     */
+    public void setSeed(long seed) {
+        this.random = RereRandom.create(seed);
+    }
+    
+    /**
+     * 设置随机数生成器 / Set the random generator
+     * @param random 随机数生成器 / Random generator
+     * @throws IllegalArgumentException 如果生成器为null / if the generator is null
+     */
+    public void setRandom(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+        this.random = random;
+    }
+    
     /**
      * 计算k近邻
      */
@@ -266,10 +316,23 @@ public class RereUMAP {
         
         // 准备边列表
         List<Edge> edges = prepareEdges(weights, knnIndices);
+        long start = System.nanoTime();
+        if (listener != null) {
+            listener.onStart();
+        }
         
         for (int epoch = 0; epoch < nEpochs; epoch++) {
             float alpha = initialAlpha * (1.0f - (float)epoch / nEpochs);
             
+            // 每REPORT_INTERVAL个epoch通知监听器
+            if (listener != null && epoch % REPORT_INTERVAL == 0) {
+                OptimizationProgress progress = new OptimizationProgress(epoch, Float.NaN, Float.NaN, alpha, 0, 0,
+                    epoch, System.nanoTime() - start);
+                if (!listener.onIteration(progress)) {
+                    break;
+                }
+            }
+            
             // 处理所有边
             for (Edge edge : edges) {
                 // 正样本梯度更新
@@ -283,11 +346,6 @@ public class RereUMAP {
                     }
                 }
             }
-            
-            // 每50个epoch输出进度
-            if (epoch % 50 == 0) {
-                System.out.println("UMAP优化进度: " + epoch + "/" + nEpochs);
-            }
         }
         
         return embedding;
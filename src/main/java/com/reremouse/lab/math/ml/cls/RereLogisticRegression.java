@@ -3,16 +3,22 @@ package com.reremouse.lab.math.ml.cls;
 import com.reremouse.lab.math.IMatrix;
 import com.reremouse.lab.math.IVector;
 import com.reremouse.lab.math.RereMatrix;
+import com.reremouse.lab.math.RereSparseMatrix;
 import com.reremouse.lab.math.RereVector;
-import com.reremouse.lab.math.optimize.IGradientFunction;
-import com.reremouse.lab.math.optimize.IObjectiveFunction;
+import com.reremouse.lab.math.optimize.IHessianVectorFunction;
+import com.reremouse.lab.math.optimize.IMiniBatchObjective;
 import com.reremouse.lab.math.optimize.IOptimizer;
 import com.reremouse.lab.math.optimize.RereLBFGS;
+import com.reremouse.lab.math.optimize.RereNewtonCG;
+import com.reremouse.lab.math.optimize.RereOWLQN;
+import com.reremouse.lab.util.RereExecutor;
+import com.reremouse.lab.util.RereRandom;
 import com.reremouse.lab.util.Tuple2;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * 统一逻辑回归实现类
@@ -21,15 +27,48 @@ import java.util.Random;
  * - 二分类：使用sigmoid函数，输出单个概率值
  * - 多分类：使用softmax函数，输出多个类别的概率分布
  * </p>
+ * <p>
+ * 默认使用LBFGS优化器训练；本类同时实现{@link IMiniBatchObjective}，
+ * 可通过{@link #setOptimizer}改用SGD、Adam等小批量优化器。
+ * 存在L1正则化（L1或ElasticNet）且优化器为LBFGS时自动改用同样参数的{@link RereOWLQN}，
+ * L1项由优化器按象限处理，得到精确为0的权重。
+ * 本类也实现{@link IHessianVectorFunction}，优化器在每个点上只做一次融合求值；
+ * 改用{@link RereNewtonCG}时Hessian-向量积 Xᵀ(D(Xv)) 只需两次数据遍历，光滑问题通常10到20次迭代收敛。
+ * </p>
+ * <p>
+ * 训练、增量训练与预测都接受{@link RereSparseMatrix}（CSR）特征，只访问非零元素，
+ * 适合维度很高的one-hot或哈希特征（见{@code FeatureHasher}）。
+ * </p>
+ * <p>
+ * 通过{@link #setWarmStart}可让fit从上一次训练的参数出发，适合在相邻的正则化参数上连续训练。
+ * </p>
  * 
  * @author lteb2
  * @version 2.0
  * @since 1.0
  */
-public class RereLogisticRegression implements IClassification, IGradientFunction, IObjectiveFunction {
+public class RereLogisticRegression implements IClassification, IMiniBatchObjective, IHessianVectorFunction {
     
     // ==================== 模型参数 ====================
     
+    /** 批量预测时每个并行块的最小行数 */
+    private static final int PREDICT_GRAIN = 1024;
+    
+    /** 融合求值时每个并行块的最小行数 */
+    private static final int KERNEL_GRAIN = 1024;
+    
+    /** 融合求值的最大块数，块的划分只取决于样本数，与线程数无关 */
+    private static final int MAX_KERNEL_BLOCKS = 64;
+    
+    /** 融合求值时一次计算logit的小块行数 */
+    private static final int KERNEL_ROWS = 64;
+    
+    /** 融合求值使用转置权重布局的最小类别数 */
+    private static final int WIDE_CLASSES = 8;
+    
+    /** 稀疏求值按列累加梯度时每个并行块的最小列数 */
+    private static final int COLUMN_GRAIN = 4096;
+    
     /** 权重矩阵：多分类时每行对应一个类别，二分类时只有一行 */
     private IMatrix weights;
     
@@ -74,8 +113,68 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
     /** 反向标签映射：将数值映射回字符串标签 */
     private Map<Integer, String> reverseLabelMapping;
     
-    /** 训练特征矩阵 */
-    private IMatrix trainingFeatures;
+    /** 训练特征的行主序数组，供融合求值与小批量梯度直接读取 */
+    private float[][] featureRows;
+    
+    /** 稀疏训练特征（CSR），稠密训练时为null */
+    private RereSparseMatrix sparseFeatures;
+    
+    /** 稀疏训练特征的转置，用于按列累加梯度 */
+    private RereSparseMatrix sparseColumns;
+    
+    /** 稀疏求值时每个样本的误差（n × K） */
+    private float[] sparseErrors;
+    
+    /** 稀疏求值时每个行块的损失 */
+    private double[] sparseLosses;
+    
+    /** 融合求值每个行块的行数 */
+    private int blockRows;
+    
+    /** 每个行块的梯度与损失累加缓冲区 */
+    private double[][] blockBuffers;
+    
+    /** 最近一次求值的点 */
+    private float[] cachedPoint;
+    
+    /** 最近一次求值的目标函数值 */
+    private float cachedObjective;
+    
+    /** 最近一次求值的梯度，为null表示缓存无效 */
+    private IVector cachedGradient;
+    
+    /** 曲率权重对应的点 */
+    private float[] curvaturePoint;
+    
+    /** Hessian-向量积使用的逐样本曲率权重（n × K）：二分类为p(1 - p)，多分类为各类别概率 */
+    private float[] curvature;
+    
+    /** 优化器 */
+    private IOptimizer optimizer = new RereLBFGS();
+    
+    /** L1项是否由OWL-QN处理，为true时求值只包含光滑部分 */
+    private boolean l1InOptimizer = false;
+    
+    /** 是否从上一次fit的参数热启动 */
+    private boolean warmStart = false;
+    
+    /** 参数随机初始化使用的生成器 */
+    private RandomGenerator random = RereRandom.create();
+    
+    /** FTRL学习率参数α */
+    private float ftrlAlpha = 0.1f;
+    
+    /** FTRL学习率参数β */
+    private float ftrlBeta = 1.0f;
+    
+    /** FTRL状态z（布局与参数向量相同），为null表示尚未调用partialFit */
+    private double[] ftrlZ;
+    
+    /** FTRL状态n：每个参数的梯度平方累积 */
+    private double[] ftrlN;
+    
+    /** 增量训练已处理的样本数 */
+    private long partialCount = 0;
     
     /** 训练标签数组（数值化后） */
     private int[] trainingLabels;
@@ -132,17 +231,84 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
             throw new IllegalArgumentException("训练数据不能为空");
         }
         
+        // 从头训练，清空增量状态
+        resetPartialFit();
+        
         // 保存训练数据
-        this.trainingFeatures = feature;
+        this.featureRows = feature.getData();
+        this.sparseFeatures = null;
+        this.sparseColumns = null;
+        clearKernel();
         this.featureDimension = feature.getColNum();
         
         // 标签预处理：将字符串标签转换为数值，并检测分类类型
-        preprocessLabels(labels);
+        boolean resume = reuseLabelMapping(labels);
+        if (!resume) {
+            preprocessLabels(labels);
+        }
+        
+        return train(resume);
+    }
+    
+    /**
+     * 使用稀疏特征训练
+     * <p>
+     * 特征以CSR格式给出，不做稠密化，只额外保存一份O(nnz)的转置。每次求值先按行计算各样本的误差
+     * （二分类 sigmoid(z) - y，多分类 softmax - onehot），再在转置矩阵上按列累加梯度 Eᵀ * X，
+     * 两步都只访问非零元素，内存与时间与nnz·K成正比（K为权重行数）。
+     * </p>
+     * 
+     * @param feature 稀疏特征矩阵，每行是一个样本
+     * @param labels 标签数组
+     * @return 训练结果
+     */
+    public LogisticRegressionResult fit(RereSparseMatrix feature, String[] labels) {
+        if (feature == null || labels == null) {
+            throw new IllegalArgumentException("特征矩阵和标签数组不能为null");
+        }
+        if (feature.getRowNum() != labels.length) {
+            throw new IllegalArgumentException("特征矩阵行数与标签数组长度不匹配");
+        }
+        if (feature.getRowNum() == 0) {
+            throw new IllegalArgumentException("训练数据不能为空");
+        }
         
+        resetPartialFit();
+        this.featureRows = null;
+        this.sparseFeatures = feature;
+        this.sparseColumns = feature.transpose();
+        clearKernel();
+        this.featureDimension = feature.getColNum();
+        boolean resume = reuseLabelMapping(labels);
+        if (!resume) {
+            preprocessLabels(labels);
+        }
+        
+        int m = feature.getRowNum();
+        int classes = isBinaryClassification ? 1 : numClasses;
+        long errorCount = (long) m * classes;
+        if (errorCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("样本数与类别数之积过大：" + m + " × " + classes);
+        }
+        this.blockRows = kernelBlockRows(m);
+        this.sparseLosses = new double[(m + blockRows - 1) / blockRows];
+        this.sparseErrors = new float[(int) errorCount];
+        
+        return train(resume);
+    }
+    
+    /**
+     * 初始化参数，用优化器训练并生成训练结果
+     * 
+     * @param resume 是否从当前参数热启动
+     */
+    private LogisticRegressionResult train(boolean resume) {
         // 初始化模型参数
-        initializeParameters();
+        if (!resume) {
+            initializeParameters();
+        }
         
-        // 使用LBFGS优化器训练模型
+        // 使用优化器训练模型
         trainWithOptimizer();
         
         // 标记模型已训练
@@ -180,11 +346,25 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
         // 创建初始参数向量
         IVector initParams = createParameterVector();
         
-        // 创建LBFGS优化器
-        IOptimizer optimizer = new RereLBFGS();
-        
-        // 执行优化
-        Tuple2<Float, IVector> optimizationResult = optimizer.optimize(initParams, this, this);
+        // 执行优化：存在L1正则化时LBFGS改用OWL-QN
+        Tuple2<Float, IVector> optimizationResult;
+        if (optimizer instanceof RereLBFGS && effectiveLambda1() > 0) {
+            RereLBFGS lbfgs = (RereLBFGS) optimizer;
+            RereOWLQN owlqn = new RereOWLQN(lambda1, lbfgs.getM(), lbfgs.getTolerance(), lbfgs.getMaxIterations());
+            owlqn.setListener(lbfgs.getListener());
+            // 偏置位于权重之后，不参与L1正则化
+            owlqn.setL1Range(0, isBinaryClassification ? featureDimension : numClasses * featureDimension);
+            this.l1InOptimizer = true;
+            this.cachedPoint = null;
+            try {
+                optimizationResult = owlqn.optimize(initParams, this, this);
+            } finally {
+                this.l1InOptimizer = false;
+                this.cachedPoint = null;
+            }
+        } else {
+            optimizationResult = optimizer.optimize(initParams, this, this);
+        }
         
         // 从优化结果中提取参数
         IVector optimalParams = optimizationResult._2;
@@ -207,23 +387,9 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
             throw new IllegalArgumentException("输入特征维度与训练特征维度不匹配");
         }
         
-        if (isBinaryClassification) {
-            // 二分类：使用sigmoid函数
-            float probability = predictProbability(x);
-            return probability >= 0.5 ? reverseLabelMapping.get(1) : reverseLabelMapping.get(0);
-        } else {
-            // 多分类：使用softmax函数
-            float[] probabilities = predictProbabilities(x);
-            int predictedClass = 0;
-            float maxProb = probabilities[0];
-            for (int i = 1; i < numClasses; i++) {
-                if (probabilities[i] > maxProb) {
-                    maxProb = probabilities[i];
-                    predictedClass = i;
-                }
-            }
-            return reverseLabelMapping.get(predictedClass);
-        }
+        float[] probabilities = new float[numClasses];
+        scoreRow(x.getData(), weights.getData(), bias.getData(), probabilities);
+        return reverseLabelMapping.get(predictedClass(probabilities));
     }
     
     /**
@@ -239,7 +405,7 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
         }
         
         // 计算线性组合：z = w^T * x + b
-        float z = weights.getRow(0).innerProduct(x) + bias.get(0);
+        float z = dot(weights.getData()[0], x.getData(), featureDimension) + bias.get(0);
         
         // 应用sigmoid函数：P(y=1|x) = 1 / (1 + e^(-z))
         return sigmoid(z);
@@ -257,283 +423,1436 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
             throw new IllegalStateException("模型尚未训练，请先调用fit方法");
         }
         
-        // 计算每个类别的线性组合
-        float[] logits = new float[numClasses];
-        for (int k = 0; k < numClasses; k++) {
-            IVector classWeights = weights.getRow(k);
-            logits[k] = classWeights.innerProduct(x) + bias.get(k);
+        // 计算每个类别的线性组合并应用softmax函数
+        float[] probabilities = new float[numClasses];
+        scoreRow(x.getData(), weights.getData(), bias.getData(), probabilities);
+        return probabilities;
+    }
+    
+    /**
+     * 批量预测
+     */
+    public String[] predictBatch(IMatrix features) {
+        if (features == null) {
+            throw new IllegalArgumentException("特征矩阵不能为null");
         }
-        
-        // 应用softmax函数
-        return softmax(logits);
+        return predictBatch(features, new String[features.getRowNum()]);
     }
     
     /**
-     * 内部预测概率方法（不检查训练状态）
+     * 批量预测，结果写入调用方提供的数组
+     * <p>
+     * 与{@link #predictProba(IMatrix, float[][])}相同按行分块并行，每个块只使用一行大小的概率工作区。
+     * </p>
+     * 
+     * @param features 特征矩阵，每行是一个样本
+     * @param output 输出数组，长度不小于样本数
+     * @return output
      */
-    private Object predictProbabilityInternal(IVector x) {
-        if (isBinaryClassification) {
-            // 二分类：返回单个概率值
-            float z = weights.getRow(0).innerProduct(x) + bias.get(0);
-            return sigmoid(z);
-        } else {
-            // 多分类：返回概率数组
-            float[] logits = new float[numClasses];
-            for (int k = 0; k < numClasses; k++) {
-                IVector classWeights = weights.getRow(k);
-                logits[k] = classWeights.innerProduct(x) + bias.get(k);
+    public String[] predictBatch(IMatrix features, String[] output) {
+        float[][] rows = checkBatch(features, output == null ? -1 : output.length);
+        float[][] w = weights.getData();
+        float[] b = bias.getData();
+        String[] classes = getClasses();
+        RereExecutor.parallelFor(0, rows.length, PREDICT_GRAIN, (from, to) -> {
+            float[] probabilities = new float[numClasses];
+            for (int i = from; i < to; i++) {
+                scoreRow(rows[i], w, b, probabilities);
+                output[i] = classes[predictedClass(probabilities)];
             }
-            return softmax(logits);
+        });
+        return output;
+    }
+    
+    /**
+     * 批量预测各类别的概率
+     * <p>
+     * 返回n×k矩阵，第c列对应{@link #getClasses()}中的第c个类别；二分类时k = 2。
+     * </p>
+     * 
+     * @param features 特征矩阵，每行是一个样本
+     * @return 概率数组，每行一个样本
+     */
+    public float[][] predictProba(IMatrix features) {
+        if (features == null) {
+            throw new IllegalArgumentException("特征矩阵不能为null");
         }
+        return predictProba(features, new float[features.getRowNum()][numClasses]);
     }
     
     /**
-     * 批量预测
+     * 批量预测各类别的概率，结果写入调用方提供的数组
+     * <p>
+     * 计算 X * Wᵀ + b：按行分块在线程池中并行，每行与各类别的权重行做点积（两者都是连续内存），
+     * logit直接写入输出行，再原地应用sigmoid或softmax，不创建中间向量。调用方可复用output以避免每批分配。
+     * </p>
+     * 
+     * @param features 特征矩阵，每行是一个样本
+     * @param output 输出数组，至少n行，每行长度不小于类别数
+     * @return output
      */
-    public String[] predictBatch(IMatrix features) {
-        if (!isTrained) {
-            throw new IllegalStateException("模型尚未训练，请先调用fit方法");
+    public float[][] predictProba(IMatrix features, float[][] output) {
+        float[][] rows = checkBatch(features, output == null ? -1 : output.length);
+        float[][] w = weights.getData();
+        float[] b = bias.getData();
+        for (int i = 0; i < rows.length; i++) {
+            if (output[i] == null || output[i].length < numClasses) {
+                throw new IllegalArgumentException("输出数组第" + i + "行长度小于类别数");
+            }
         }
-        
+        RereExecutor.parallelFor(0, rows.length, PREDICT_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                scoreRow(rows[i], w, b, output[i]);
+            }
+        });
+        return output;
+    }
+    
+    /**
+     * 稀疏特征的批量预测
+     * 
+     * @param features 稀疏特征矩阵，每行是一个样本
+     * @return 预测标签数组
+     */
+    public String[] predictBatch(RereSparseMatrix features) {
         if (features == null) {
             throw new IllegalArgumentException("特征矩阵不能为null");
         }
-        
-        if (features.getColNum() != featureDimension) {
-            throw new IllegalArgumentException("特征维度与训练特征维度不匹配");
+        return predictBatch(features, new String[features.getRowNum()]);
+    }
+    
+    /**
+     * 稀疏特征的批量预测，结果写入调用方提供的数组
+     * 
+     * @param features 稀疏特征矩阵，每行是一个样本
+     * @param output 输出数组，长度不小于样本数
+     * @return output
+     */
+    public String[] predictBatch(RereSparseMatrix features, String[] output) {
+        checkSparseBatch(features, output == null ? -1 : output.length);
+        float[][] w = weights.getData();
+        float[] b = bias.getData();
+        String[] classes = getClasses();
+        RereExecutor.parallelFor(0, features.getRowNum(), PREDICT_GRAIN, (from, to) -> {
+            float[] probabilities = new float[numClasses];
+            for (int i = from; i < to; i++) {
+                scoreSparseRow(features, i, w, b, probabilities);
+                output[i] = classes[predictedClass(probabilities)];
+            }
+        });
+        return output;
+    }
+    
+    /**
+     * 稀疏特征的批量概率预测，列与{@link #getClasses()}对应
+     * 
+     * @param features 稀疏特征矩阵，每行是一个样本
+     * @return 概率数组，每行一个样本
+     */
+    public float[][] predictProba(RereSparseMatrix features) {
+        if (features == null) {
+            throw new IllegalArgumentException("特征矩阵不能为null");
         }
-        
-        String[] predictions = new String[features.getRowNum()];
-        
+        return predictProba(features, new float[features.getRowNum()][numClasses]);
+    }
+    
+    /**
+     * 稀疏特征的批量概率预测，结果写入调用方提供的数组
+     * 
+     * @param features 稀疏特征矩阵，每行是一个样本
+     * @param output 输出数组，至少n行，每行长度不小于类别数
+     * @return output
+     */
+    public float[][] predictProba(RereSparseMatrix features, float[][] output) {
+        checkSparseBatch(features, output == null ? -1 : output.length);
+        float[][] w = weights.getData();
+        float[] b = bias.getData();
         for (int i = 0; i < features.getRowNum(); i++) {
-            IVector sample = features.getRow(i);
-            predictions[i] = predict(sample);
+            if (output[i] == null || output[i].length < numClasses) {
+                throw new IllegalArgumentException("输出数组第" + i + "行长度小于类别数");
+            }
         }
-        
-        return predictions;
+        RereExecutor.parallelFor(0, features.getRowNum(), PREDICT_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                scoreSparseRow(features, i, w, b, output[i]);
+            }
+        });
+        return output;
     }
     
-    // ==================== 损失函数和梯度计算 ====================
+    /**
+     * 获取按类别编号排列的类别标签，与{@link #predictProba}的列对应
+     */
+    public String[] getClasses() {
+        String[] classes = new String[numClasses];
+        for (int k = 0; k < numClasses; k++) {
+            classes[k] = reverseLabelMapping.get(k);
+        }
+        return classes;
+    }
     
-    @Override
-    public float computeObjective(IVector x) {
-        if (trainingFeatures == null || trainingLabels == null) {
-            throw new IllegalStateException("训练数据未设置");
+    /**
+     * 校验批量预测的输入
+     * 
+     * @param features 特征矩阵
+     * @param outputLength 输出数组长度，为-1表示输出数组为null
+     * @return 特征的行主序数组
+     */
+    private float[][] checkBatch(IMatrix features, int outputLength) {
+        if (!isTrained) {
+            throw new IllegalStateException("模型尚未训练，请先调用fit方法");
         }
-        
-        // 从参数向量中提取权重和偏置
-        extractParametersFromVector(x);
-        
-        float totalLoss = 0.0f;
-        int m = trainingFeatures.getRowNum();
-        
-        // 计算每个样本的损失
-        for (int i = 0; i < m; i++) {
-            IVector sample = trainingFeatures.getRow(i);
-            int label = trainingLabels[i];
-            
-            if (isBinaryClassification) {
-                // 二分类：使用sigmoid和交叉熵损失
-                float probability = (Float) predictProbabilityInternal(sample);
-                float sampleLoss = -label * (float) Math.log(probability + 1e-15f) - 
-                                  (1 - label) * (float) Math.log(1 - probability + 1e-15f);
-                totalLoss += sampleLoss;
-            } else {
-                // 多分类：使用softmax和交叉熵损失
-                float[] probabilities = (float[]) predictProbabilityInternal(sample);
-                float sampleLoss = -(float) Math.log(probabilities[label] + 1e-15f);
-                totalLoss += sampleLoss;
-            }
+        if (features == null || outputLength < 0) {
+            throw new IllegalArgumentException("特征矩阵和输出数组不能为null");
         }
-        
-        // 平均损失
-        totalLoss /= m;
-        
-        // 添加正则化项
-        totalLoss += computeRegularizationTerm();
-        
-        return totalLoss;
+        int n = features.getRowNum();
+        if (n > 0 && features.getColNum() != featureDimension) {
+            throw new IllegalArgumentException("特征维度与训练特征维度不匹配");
+        }
+        if (outputLength < n) {
+            throw new IllegalArgumentException("输出数组长度(" + outputLength + ")小于样本数(" + n + ")");
+        }
+        return features.getData();
     }
     
-    @Override
-    public IVector computeGradient(IVector x) {
-        if (trainingFeatures == null || trainingLabels == null) {
-            throw new IllegalStateException("训练数据未设置");
+    /**
+     * 校验稀疏批量预测的输入
+     * 
+     * @param features 稀疏特征矩阵
+     * @param outputLength 输出数组长度，为-1表示输出数组为null
+     */
+    private void checkSparseBatch(RereSparseMatrix features, int outputLength) {
+        if (!isTrained) {
+            throw new IllegalStateException("模型尚未训练，请先调用fit方法");
         }
-        
-        // 从参数向量中提取权重和偏置
-        extractParametersFromVector(x);
-        
-        int m = trainingFeatures.getRowNum();
-        
-        if (isBinaryClassification) {
-            // 二分类梯度计算
-            return computeBinaryClassificationGradient(m);
-        } else {
-            // 多分类梯度计算
-            return computeMulticlassClassificationGradient(m);
+        if (features == null || outputLength < 0) {
+            throw new IllegalArgumentException("特征矩阵和输出数组不能为null");
+        }
+        if (features.getColNum() != featureDimension) {
+            throw new IllegalArgumentException("特征维度与训练特征维度不匹配");
+        }
+        if (outputLength < features.getRowNum()) {
+            throw new IllegalArgumentException("输出数组长度(" + outputLength + ")小于样本数(" + features.getRowNum() + ")");
         }
     }
     
     /**
-     * 计算二分类梯度
+     * 计算一个样本属于各类别的概率，写入probabilities
+     * <p>
+     * 二分类写入[1 - p, p]，p = sigmoid(w·x + b)；多分类先写入logit，再原地做softmax。
+     * </p>
+     * 
+     * @param x 样本特征
+     * @param w 权重数组（每行一个类别，二分类只有一行）
+     * @param b 偏置数组
+     * @param probabilities 输出，长度不小于类别数
      */
-    private IVector computeBinaryClassificationGradient(int m) {
+    private void scoreRow(float[] x, float[][] w, float[] b, float[] probabilities) {
         int n = featureDimension;
-        
-        // 初始化梯度向量
-        float[] weightGradients = new float[n];
-        float biasGradient = 0.0f;
-        
-        // 计算每个样本的梯度
-        for (int i = 0; i < m; i++) {
-            IVector sample = trainingFeatures.getRow(i);
-            int label = trainingLabels[i];
-            
-            // 计算预测概率
-            float probability = (Float) predictProbabilityInternal(sample);
-            
-            // 计算误差
-            float error = probability - label;
-            
-            // 累积权重梯度
-            for (int j = 0; j < n; j++) {
-                weightGradients[j] += error * sample.get(j);
+        if (isBinaryClassification) {
+            probabilities[1] = dot(w[0], x, n) + b[0];
+        } else {
+            for (int k = 0; k < numClasses; k++) {
+                probabilities[k] = dot(w[k], x, n) + b[k];
             }
-            
-            // 累积偏置梯度
-            biasGradient += error;
         }
-        
-        // 平均梯度
-        for (int j = 0; j < n; j++) {
-            weightGradients[j] /= m;
-        }
-        biasGradient /= m;
-        
-        // 添加正则化梯度
-        addRegularizationGradients(weightGradients);
-        
-        // 创建梯度向量
-        return createGradientVector(weightGradients, biasGradient);
+        logitsToProbabilities(probabilities);
     }
     
     /**
-     * 计算多分类梯度
+     * 计算稀疏特征第i行属于各类别的概率，写入probabilities，只访问该行的非零元素
+     * 
+     * @param features 稀疏特征矩阵
+     * @param i 行索引
+     * @param w 权重数组（每行一个类别，二分类只有一行）
+     * @param b 偏置数组
+     * @param probabilities 输出，长度不小于类别数
      */
-    private IVector computeMulticlassClassificationGradient(int m) {
-        // 初始化梯度矩阵和向量
-        float[][] weightGradients = new float[numClasses][featureDimension];
-        float[] biasGradients = new float[numClasses];
-        
-        // 计算每个样本的梯度
-        for (int i = 0; i < m; i++) {
-            IVector sample = trainingFeatures.getRow(i);
-            int label = trainingLabels[i];
-            
-            // 计算预测概率
-            float[] probabilities = (float[]) predictProbabilityInternal(sample);
-            
-            // 计算每个类别的梯度
+    private void scoreSparseRow(RereSparseMatrix features, int i, float[][] w, float[] b, float[] probabilities) {
+        if (isBinaryClassification) {
+            probabilities[1] = features.rowDot(i, w[0]) + b[0];
+        } else {
             for (int k = 0; k < numClasses; k++) {
-                float error = probabilities[k] - (k == label ? 1.0f : 0.0f);
-                
-                // 权重梯度
-                for (int j = 0; j < featureDimension; j++) {
-                    weightGradients[k][j] += error * sample.get(j);
-                }
-                
-                // 偏置梯度
-                biasGradients[k] += error;
-            }
-        }
-        
-        // 平均梯度
-        for (int k = 0; k < numClasses; k++) {
-            for (int j = 0; j < featureDimension; j++) {
-                weightGradients[k][j] /= m;
+                probabilities[k] = features.rowDot(i, w[k]) + b[k];
             }
-            biasGradients[k] /= m;
         }
-        
-        // 添加正则化梯度
-        addRegularizationGradients(weightGradients);
-        
-        // 创建梯度向量
-        return createGradientVector(weightGradients, biasGradients);
+        logitsToProbabilities(probabilities);
     }
     
-    // ==================== 辅助方法 ====================
-    
     /**
-     * 标签预处理
+     * 把logit原地换成概率：二分类的logit位于probabilities[1]，换成[1 - p, p]；多分类做softmax
      */
-    private void preprocessLabels(String[] labels) {
-        labelMapping.clear();
-        reverseLabelMapping.clear();
-        
-        int nextLabel = 0;
-        for (String label : labels) {
-            if (!labelMapping.containsKey(label)) {
-                labelMapping.put(label, nextLabel);
-                reverseLabelMapping.put(nextLabel, label);
-                nextLabel++;
-            }
+    private void logitsToProbabilities(float[] probabilities) {
+        if (isBinaryClassification) {
+            float p = sigmoid(probabilities[1]);
+            probabilities[0] = 1.0f - p;
+            probabilities[1] = p;
+            return;
         }
-        
-        this.numClasses = labelMapping.size();
-        
-        if (numClasses < 2) {
-            throw new IllegalArgumentException("至少需要2个类别，当前标签数量：" + numClasses);
+        float maxLogit = Float.NEGATIVE_INFINITY;
+        for (int k = 0; k < numClasses; k++) {
+            maxLogit = Math.max(maxLogit, probabilities[k]);
         }
-        
-        // 判断分类类型
-        this.isBinaryClassification = (numClasses == 2);
-        
-        // 转换为数值标签数组
-        this.trainingLabels = new int[labels.length];
-        for (int i = 0; i < labels.length; i++) {
-            this.trainingLabels[i] = labelMapping.get(labels[i]);
+        float sum = 0.0f;
+        for (int k = 0; k < numClasses; k++) {
+            float e = (float) Math.exp(probabilities[k] - maxLogit);
+            probabilities[k] = e;
+            sum += e;
+        }
+        for (int k = 0; k < numClasses; k++) {
+            probabilities[k] /= sum;
         }
     }
     
     /**
-     * 初始化模型参数
+     * 由概率选出预测类别：二分类以0.5为阈值，多分类取最大概率（并列时取编号小者）
      */
-    private void initializeParameters() {
-        Random random = new Random();
-        
+    private int predictedClass(float[] probabilities) {
         if (isBinaryClassification) {
-            // 二分类：权重向量 + 单个偏置
-            float scale = (float) Math.sqrt(2.0 / featureDimension);
-            float[] weightData = new float[featureDimension];
-            for (int i = 0; i < featureDimension; i++) {
-                weightData[i] = (random.nextFloat() - 0.5f) * 2.0f * scale;
-            }
-            
-            this.weights = new RereMatrix(new float[][]{weightData});
-            this.bias = new RereVector(new float[]{0.0f});
-        } else {
-            // 多分类：权重矩阵 + 偏置向量
-            float scale = (float) Math.sqrt(2.0 / featureDimension);
-            float[][] weightData = new float[numClasses][featureDimension];
-            for (int k = 0; k < numClasses; k++) {
-                for (int j = 0; j < featureDimension; j++) {
-                    weightData[k][j] = (random.nextFloat() - 0.5f) * 2.0f * scale;
-                }
-            }
-            
-            this.weights = new RereMatrix(weightData);
-            float[] biasData = new float[numClasses];
-            for (int k = 0; k < numClasses; k++) {
-                biasData[k] = 0.0f;
+            return probabilities[1] >= 0.5f ? 1 : 0;
+        }
+        int predicted = 0;
+        for (int k = 1; k < numClasses; k++) {
+            if (probabilities[k] > probabilities[predicted]) {
+                predicted = k;
             }
-            this.bias = new RereVector(biasData);
         }
+        return predicted;
     }
     
     /**
-     * 创建参数向量
+     * y[0, n) += a * x[0, n)
+     * <p>
+     * 两个数组都从下标0开始访问，JIT才能把该循环向量化。
+     * </p>
+     */
+    private static void axpy(float a, float[] x, float[] y, int n) {
+        for (int i = 0; i < n; i++) {
+            y[i] += a * x[i];
+        }
+    }
+    
+    /**
+     * 前n个元素的点积，使用4个独立累加器以减少依赖链
+     */
+    private static float dot(float[] a, float[] b, int n) {
+        float s0 = 0.0f;
+        float s1 = 0.0f;
+        float s2 = 0.0f;
+        float s3 = 0.0f;
+        int j = 0;
+        for (; j + 3 < n; j += 4) {
+            s0 += a[j] * b[j];
+            s1 += a[j + 1] * b[j + 1];
+            s2 += a[j + 2] * b[j + 2];
+            s3 += a[j + 3] * b[j + 3];
+        }
+        for (; j < n; j++) {
+            s0 += a[j] * b[j];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+    
+    // ==================== 损失函数和梯度计算 ====================
+    
+    /**
+     * 计算平均交叉熵加正则化项
+     * <p>
+     * 与{@link #computeGradient}共用一次融合求值，同一点的重复调用直接返回缓存结果；不修改模型的权重与偏置。
+     * </p>
+     */
+    @Override
+    public float computeObjective(IVector x) {
+        if ((featureRows == null && sparseFeatures == null) || trainingLabels == null) {
+            throw new IllegalStateException("训练数据未设置");
+        }
+        evaluate(x.getData());
+        return cachedObjective;
+    }
+    
+    /**
+     * 计算目标函数的梯度
+     */
+    @Override
+    public IVector computeGradient(IVector x) {
+        if ((featureRows == null && sparseFeatures == null) || trainingLabels == null) {
+            throw new IllegalStateException("训练数据未设置");
+        }
+        evaluate(x.getData());
+        return cachedGradient;
+    }
+    
+    /**
+     * 一次融合求值同时得到目标函数值与梯度，梯度复制到给定的缓冲区
+     */
+    @Override
+    public float evaluate(IVector x, float[] gradient) {
+        if ((featureRows == null && sparseFeatures == null) || trainingLabels == null) {
+            throw new IllegalStateException("训练数据未设置");
+        }
+        evaluate(x.getData());
+        System.arraycopy(cachedGradient.getData(), 0, gradient, 0, gradient.length);
+        return cachedObjective;
+    }
+    
+    /**
+     * 融合求值：分块计算目标函数值与梯度
+     * <p>
+     * 参数布局统一看作K行权重加K个偏置（二分类K = 1，多分类K为类别数）。样本按行分块在线程池中并行，
+     * 每块再按{@value #KERNEL_ROWS}行的小块处理：
+     * 1. logit = X_b * Wᵀ + b，一次写入小块的logit工作区；
+     * 2. 原地把logit换成误差（二分类 sigmoid(z) - y，多分类 softmax - onehot），同时用log-sum-exp累加损失；
+     * 3. 梯度 += Eᵀ * X_b。
+     * 类别数不少于{@value #WIDE_CLASSES}时权重转置为d×K，两次乘法的最内层循环都沿类别方向连续访问；
+     * 类别较少时最内层沿特征方向。小块内用float累加，再并入该块的double缓冲区；
+     * 块的划分只取决于样本数（见{@link #kernelBlockRows}），各块按顺序归约，结果与线程数无关。
+     * </p>
+     * 
+     * @param x 参数数组
+     */
+    private void evaluate(float[] x) {
+        if (cachedGradient != null && Arrays.equals(x, cachedPoint)) {
+            return;
+        }
+        int classes = isBinaryClassification ? 1 : numClasses;
+        int d = featureDimension;
+        int weightCount = classes * d;
+        int paramCount = weightCount + classes;
+        if (x.length != paramCount) {
+            throw new IllegalArgumentException("参数维度不匹配：输入(" + x.length + ") != 期望(" + paramCount + ")");
+        }
+        if (sparseFeatures != null) {
+            evaluateSparse(x, classes, weightCount);
+            return;
+        }
+        int m = featureRows.length;
+        ensureBlockBuffers(paramCount);
+        
+        // 权重拆成行数组，小块内的乘法都从行首开始连续访问
+        // 多类别时使用转置布局：第j行为各类别在特征j上的权重
+        boolean wide = classes >= WIDE_CLASSES;
+        float[][] weightRows = wide ? new float[d][classes] : new float[classes][d];
+        for (int k = 0; k < classes; k++) {
+            for (int j = 0; j < d; j++) {
+                if (wide) {
+                    weightRows[j][k] = x[k * d + j];
+                } else {
+                    weightRows[k][j] = x[k * d + j];
+                }
+            }
+        }
+        float[] biases = Arrays.copyOfRange(x, weightCount, paramCount);
+        RereExecutor.parallelFor(0, blockBuffers.length, 1, (from, to) -> {
+            float[][] errors = new float[KERNEL_ROWS][classes];
+            float[][] partial = new float[weightRows.length][weightRows[0].length];
+            float[] biasPartial = new float[classes];
+            for (int b = from; b < to; b++) {
+                accumulateBlock(weightRows, biases, b, wide, errors, partial, biasPartial);
+            }
+        });
+        
+        // 按块顺序归约，转置布局在此还原
+        double[] sums = new double[paramCount + 1];
+        for (double[] buffer : blockBuffers) {
+            for (int j = 0; j <= paramCount; j++) {
+                sums[j] += buffer[j];
+            }
+        }
+        float[] gradient = new float[paramCount];
+        for (int j = 0; j < paramCount; j++) {
+            int target = wide && j < weightCount ? (j % classes) * d + j / classes : j;
+            gradient[target] = (float) (sums[j] / m);
+        }
+        float regularization = addRegularization(x, weightCount, gradient);
+        
+        this.cachedObjective = (float) (sums[paramCount] / m) + regularization;
+        this.cachedGradient = new RereVector(gradient);
+        this.cachedPoint = x.clone();
+    }
+    
+    /**
+     * 按需分配稠密求值的行块缓冲区
+     * 
+     * @param paramCount 参数数量
+     */
+    private void ensureBlockBuffers(int paramCount) {
+        if (blockBuffers == null || blockBuffers[0].length != paramCount + 1) {
+            int m = featureRows.length;
+            this.blockRows = kernelBlockRows(m);
+            this.blockBuffers = new double[(m + blockRows - 1) / blockRows][paramCount + 1];
+        }
+    }
+    
+    /**
+     * 融合求值每块的行数：至少{@value #KERNEL_GRAIN}行，最多{@value #MAX_KERNEL_BLOCKS}块。
+     * 只取决于样本数，因此各块的部分和以及按块顺序的归约结果与线程数无关
+     * 
+     * @param m 样本数
+     * @return 每块行数
+     */
+    private static int kernelBlockRows(int m) {
+        return Math.max(KERNEL_GRAIN, (int) (((long) m + MAX_KERNEL_BLOCKS - 1) / MAX_KERNEL_BLOCKS));
+    }
+    
+    /**
+     * 稀疏特征上的融合求值
+     * <p>
+     * 1. 按行分块并行：每个样本只用其非零元素计算logit，再换成误差写入n×K的误差数组，各块损失写入自己的槽位；
+     * 2. 在转置矩阵上按列并行：梯度的第j列 = Σ_i E[i] * x_ij，只累加第j列的非零元素；
+     * 3. 偏置梯度为误差按列求和。
+     * 块的划分只取决于样本数，每个梯度分量只由一个线程写入，块损失按顺序归约，结果与线程数无关。
+     * </p>
+     * 
+     * @param x 参数数组
+     * @param classes 权重行数K
+     * @param weightCount 权重数量
+     */
+    private void evaluateSparse(float[] x, int classes, int weightCount) {
+        int m = sparseFeatures.getRowNum();
+        RereExecutor.parallelFor(0, sparseLosses.length, 1, (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int start = b * blockRows;
+                int end = Math.min(m, start + blockRows);
+                double loss = 0.0;
+                for (int i = start; i < end; i++) {
+                    loss += sparseSample(x, sparseFeatures, i, trainingLabels[i], sparseErrors, i * classes);
+                }
+                sparseLosses[b] = loss;
+            }
+        });
+        
+        float[] gradient = new float[weightCount + classes];
+        accumulateColumns(classes, gradient);
+        double loss = 0.0;
+        for (double blockLoss : sparseLosses) {
+            loss += blockLoss;
+        }
+        float regularization = addRegularization(x, weightCount, gradient);
+        
+        this.cachedObjective = (float) (loss / m) + regularization;
+        this.cachedGradient = new RereVector(gradient);
+        this.cachedPoint = x.clone();
+    }
+    
+    /**
+     * 在转置矩阵上按列并行计算 Eᵀ * X / m，E取sparseErrors（n × K），结果按参数布局写入out
+     * <p>
+     * 每个分量只由一个线程写入；偏置分量为E按列求和。
+     * </p>
+     * 
+     * @param classes 权重行数K
+     * @param out 输出数组（覆盖写入）
+     */
+    private void accumulateColumns(int classes, float[] out) {
+        int m = sparseFeatures.getRowNum();
+        int d = featureDimension;
+        int weightCount = classes * d;
+        int[] pointers = sparseColumns.getRowPointers();
+        int[] rows = sparseColumns.getColumnIndices();
+        float[] values = sparseColumns.getValues();
+        RereExecutor.parallelFor(0, d, COLUMN_GRAIN, (from, to) -> {
+            double[] sums = new double[classes];
+            for (int j = from; j < to; j++) {
+                Arrays.fill(sums, 0.0);
+                for (int p = pointers[j]; p < pointers[j + 1]; p++) {
+                    float v = values[p];
+                    int offset = rows[p] * classes;
+                    for (int k = 0; k < classes; k++) {
+                        sums[k] += v * sparseErrors[offset + k];
+                    }
+                }
+                for (int k = 0; k < classes; k++) {
+                    out[k * d + j] = (float) (sums[k] / m);
+                }
+            }
+        });
+        double[] biasSums = new double[classes];
+        for (int i = 0; i < m; i++) {
+            for (int k = 0; k < classes; k++) {
+                biasSums[k] += sparseErrors[i * classes + k];
+            }
+        }
+        for (int k = 0; k < classes; k++) {
+            out[weightCount + k] = (float) (biasSums[k] / m);
+        }
+    }
+    
+    /**
+     * 计算稀疏特征第i个样本的交叉熵损失，并把误差写入errors[offset, offset + K)
+     * <p>
+     * 只访问该行的非零元素，数值形式与{@link #accumulateSample}相同：
+     * 二分类误差为sigmoid(z) - y，多分类为softmax - onehot。
+     * </p>
+     * 
+     * @param x 参数数组（只读取该行非零元素对应的权重与偏置）
+     * @param features 稀疏特征矩阵
+     * @param i 行索引
+     * @param label 样本标签（数值化后）
+     * @param errors 误差输出数组
+     * @param offset 输出起始位置
+     * @return 样本损失
+     */
+    private double sparseSample(float[] x, RereSparseMatrix features, int i, int label, float[] errors, int offset) {
+        int[] pointers = features.getRowPointers();
+        int[] columns = features.getColumnIndices();
+        float[] values = features.getValues();
+        int start = pointers[i];
+        int end = pointers[i + 1];
+        int n = featureDimension;
+        if (isBinaryClassification) {
+            float z = x[n];
+            for (int p = start; p < end; p++) {
+                z += x[columns[p]] * values[p];
+            }
+            errors[offset] = sigmoid(z) - label;
+            return Math.max(z, 0.0f) - label * z + Math.log1p(Math.exp(-Math.abs(z)));
+        }
+        int weightCount = numClasses * n;
+        float maxLogit = Float.NEGATIVE_INFINITY;
+        for (int k = 0; k < numClasses; k++) {
+            float z = x[weightCount + k];
+            int base = k * n;
+            for (int p = start; p < end; p++) {
+                z += x[base + columns[p]] * values[p];
+            }
+            errors[offset + k] = z;
+            maxLogit = Math.max(maxLogit, z);
+        }
+        double sum = 0.0;
+        for (int k = 0; k < numClasses; k++) {
+            sum += Math.exp(errors[offset + k] - maxLogit);
+        }
+        double loss = maxLogit + Math.log(sum) - errors[offset + label];
+        for (int k = 0; k < numClasses; k++) {
+            errors[offset + k] = (float) (Math.exp(errors[offset + k] - maxLogit) / sum) - (k == label ? 1.0f : 0.0f);
+        }
+        return loss;
+    }
+    
+    /**
+     * 累加一个行块的损失与梯度
+     * <p>
+     * 块缓冲区按权重行数组展开的顺序存放梯度，其后依次是K个偏置梯度与损失。
+     * </p>
+     * 
+     * @param weightRows 权重行数组（wide时为d×K，否则为K×d）
+     * @param biases 偏置
+     * @param block 块索引
+     * @param wide 是否使用转置布局
+     * @param errors logit/误差工作区（KERNEL_ROWS × K）
+     * @param partial 小块内的float权重梯度工作区，形状与weightRows相同
+     * @param biasPartial 小块内的float偏置梯度工作区
+     */
+    private void accumulateBlock(float[][] weightRows, float[] biases, int block, boolean wide,
+                                 float[][] errors, float[][] partial, float[] biasPartial) {
+        double[] buffer = blockBuffers[block];
+        Arrays.fill(buffer, 0.0);
+        int classes = biases.length;
+        int d = featureDimension;
+        int start = block * blockRows;
+        int end = Math.min(featureRows.length, start + blockRows);
+        double loss = 0.0;
+        
+        for (int r0 = start; r0 < end; r0 += KERNEL_ROWS) {
+            int rows = Math.min(KERNEL_ROWS, end - r0);
+            
+            // logit = X_b * Wᵀ + b
+            for (int r = 0; r < rows; r++) {
+                float[] row = featureRows[r0 + r];
+                float[] logits = errors[r];
+                if (wide) {
+                    System.arraycopy(biases, 0, logits, 0, classes);
+                    for (int j = 0; j < d; j++) {
+                        float v = row[j];
+                        if (v != 0.0f) {
+                            axpy(v, weightRows[j], logits, classes);
+                        }
+                    }
+                } else {
+                    for (int k = 0; k < classes; k++) {
+                        logits[k] = dot(row, weightRows[k], d) + biases[k];
+                    }
+                }
+            }
+            
+            // 原地换成误差并累加损失
+            for (int r = 0; r < rows; r++) {
+                int label = trainingLabels[r0 + r];
+                float[] error = errors[r];
+                if (classes == 1) {
+                    float z = error[0];
+                    loss += Math.max(z, 0.0f) - label * z + Math.log1p(Math.exp(-Math.abs(z)));
+                    error[0] = sigmoid(z) - label;
+                } else {
+                    float maxLogit = Float.NEGATIVE_INFINITY;
+                    for (int k = 0; k < classes; k++) {
+                        maxLogit = Math.max(maxLogit, error[k]);
+                    }
+                    float labelLogit = error[label];
+                    float sum = 0.0f;
+                    for (int k = 0; k < classes; k++) {
+                        float e = (float) Math.exp(error[k] - maxLogit);
+                        error[k] = e;
+                        sum += e;
+                    }
+                    loss += maxLogit + Math.log(sum) - labelLogit;
+                    float inverse = 1.0f / sum;
+                    for (int k = 0; k < classes; k++) {
+                        error[k] *= inverse;
+                    }
+                    error[label] -= 1.0f;
+                }
+            }
+            
+            // 梯度 += Eᵀ * X_b
+            for (float[] p : partial) {
+                Arrays.fill(p, 0.0f);
+            }
+            Arrays.fill(biasPartial, 0.0f);
+            if (wide) {
+                for (int r = 0; r < rows; r++) {
+                    float[] row = featureRows[r0 + r];
+                    float[] error = errors[r];
+                    for (int j = 0; j < d; j++) {
+                        float v = row[j];
+                        if (v != 0.0f) {
+                            axpy(v, error, partial[j], classes);
+                        }
+                    }
+                    axpy(1.0f, error, biasPartial, classes);
+                }
+            } else {
+                for (int k = 0; k < classes; k++) {
+                    for (int r = 0; r < rows; r++) {
+                        float e = errors[r][k];
+                        axpy(e, featureRows[r0 + r], partial[k], d);
+                        biasPartial[k] += e;
+                    }
+                }
+            }
+            int index = 0;
+            for (float[] p : partial) {
+                for (float v : p) {
+                    buffer[index++] += v;
+                }
+            }
+            for (float v : biasPartial) {
+                buffer[index++] += v;
+            }
+        }
+        buffer[buffer.length - 1] = loss;
+    }
+    
+    /**
+     * 在一批样本上计算目标函数值与梯度
+     * <p>
+     * 直接在参数数组上计算，不修改模型的权重与偏置。
+     * </p>
+     * 
+     * @param x 参数数组，布局与{@link #computeObjective}相同
+     * @param indices 样本索引
+     * @param from 起始位置（包含）
+     * @param to 结束位置（不包含）
+     * @param gradient 梯度数组（覆盖写入）
+     * @return 批内平均损失加正则化项
+     */
+    @Override
+    public float computeBatchGradient(float[] x, int[] indices, int from, int to, float[] gradient) {
+        if ((featureRows == null && sparseFeatures == null) || trainingLabels == null) {
+            throw new IllegalStateException("训练数据未设置");
+        }
+        int weightCount = isBinaryClassification ? featureDimension : numClasses * featureDimension;
+        Arrays.fill(gradient, 0.0f);
+        double totalLoss = 0.0;
+        
+        if (sparseFeatures != null) {
+            // 稀疏特征：每个样本只更新其非零元素对应的梯度分量
+            int classes = isBinaryClassification ? 1 : numClasses;
+            int[] pointers = sparseFeatures.getRowPointers();
+            int[] columns = sparseFeatures.getColumnIndices();
+            float[] values = sparseFeatures.getValues();
+            float[] errors = new float[classes];
+            for (int p = from; p < to; p++) {
+                int i = indices[p];
+                totalLoss += sparseSample(x, sparseFeatures, i, trainingLabels[i], errors, 0);
+                for (int k = 0; k < classes; k++) {
+                    float e = errors[k];
+                    int base = k * featureDimension;
+                    for (int q = pointers[i]; q < pointers[i + 1]; q++) {
+                        gradient[base + columns[q]] += e * values[q];
+                    }
+                    gradient[weightCount + k] += e;
+                }
+            }
+        } else {
+            float[] logits = isBinaryClassification ? null : new float[numClasses];
+            for (int p = from; p < to; p++) {
+                int i = indices[p];
+                totalLoss += accumulateSample(x, featureRows[i], trainingLabels[i], gradient, logits);
+            }
+        }
+        
+        int batch = to - from;
+        for (int j = 0; j < gradient.length; j++) {
+            gradient[j] /= batch;
+        }
+        
+        return (float) (totalLoss / batch) + addRegularization(x, weightCount, gradient);
+    }
+    
+    /**
+     * 计算Hessian与向量的乘积 H·v（不含L1项）
+     * <p>
+     * 交叉熵的Hessian为 Xᵀ·D·X / m（偏置看作取值恒为1的特征列），二分类时D是对角阵p(1 - p)，
+     * 多分类时每个样本的块为 diag(p) - ppᵀ。乘积分两步，都沿用融合求值的分块方式：
+     * 1. 每个样本 u_k = x·v_k + v_bk，再乘上曲率 r = D·u（多分类 r_k = p_k(u_k - Σ_j p_j u_j)）；
+     * 2. 累加 Xᵀ·r / m，稀疏特征在转置矩阵上按列累加；最后加上L2项λ₂v。
+     * 曲率权重在某个点上第一次调用时计算并缓存，共轭梯度求解中同一点上的乘积只需两次数据遍历。
+     * L1项没有曲率，存在L1正则化时建议使用默认的LBFGS（自动改用OWL-QN）。
+     * </p>
+     */
+    @Override
+    public void hessianVector(IVector x, float[] v, float[] out) {
+        if ((featureRows == null && sparseFeatures == null) || trainingLabels == null) {
+            throw new IllegalStateException("训练数据未设置");
+        }
+        float[] params = x.getData();
+        int classes = isBinaryClassification ? 1 : numClasses;
+        int d = featureDimension;
+        int weightCount = classes * d;
+        int paramCount = weightCount + classes;
+        if (params.length != paramCount || v.length != paramCount) {
+            throw new IllegalArgumentException("参数维度不匹配：输入(" + params.length + ", " + v.length
+                + ") != 期望(" + paramCount + ")");
+        }
+        if (curvature == null || !Arrays.equals(params, curvaturePoint)) {
+            computeCurvature(params, classes);
+        }
+        float[] directionBiases = Arrays.copyOfRange(v, weightCount, paramCount);
+        if (sparseFeatures != null) {
+            int[] pointers = sparseFeatures.getRowPointers();
+            int[] columns = sparseFeatures.getColumnIndices();
+            float[] values = sparseFeatures.getValues();
+            RereExecutor.parallelFor(0, sparseFeatures.getRowNum(), KERNEL_GRAIN, (from, to) -> {
+                float[] u = new float[classes];
+                for (int i = from; i < to; i++) {
+                    for (int k = 0; k < classes; k++) {
+                        float z = directionBiases[k];
+                        int base = k * d;
+                        for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                            z += v[base + columns[p]] * values[p];
+                        }
+                        u[k] = z;
+                    }
+                    applyCurvature(u, i * classes);
+                    System.arraycopy(u, 0, sparseErrors, i * classes, classes);
+                }
+            });
+            accumulateColumns(classes, out);
+        } else {
+            ensureBlockBuffers(paramCount);
+            float[][] directionRows = new float[classes][d];
+            for (int k = 0; k < classes; k++) {
+                System.arraycopy(v, k * d, directionRows[k], 0, d);
+            }
+            RereExecutor.parallelFor(0, blockBuffers.length, 1, (from, to) -> {
+                float[] u = new float[classes];
+                float[][] partial = new float[classes][d];
+                float[] biasPartial = new float[classes];
+                for (int b = from; b < to; b++) {
+                    hessianBlock(directionRows, directionBiases, b, u, partial, biasPartial);
+                }
+            });
+            // 按块顺序归约
+            int m = featureRows.length;
+            for (int j = 0; j < paramCount; j++) {
+                double sum = 0.0;
+                for (double[] buffer : blockBuffers) {
+                    sum += buffer[j];
+                }
+                out[j] = (float) (sum / m);
+            }
+        }
+        if (regularizationType == RegularizationType.L2 || regularizationType == RegularizationType.ELASTIC_NET) {
+            for (int j = 0; j < weightCount; j++) {
+                out[j] += lambda2 * v[j];
+            }
+        }
+    }
+    
+    /**
+     * 计算并缓存各样本在给定点上的曲率权重：二分类为p(1 - p)，多分类为各类别概率
+     * 
+     * @param x 参数数组
+     * @param classes 权重行数K
+     */
+    private void computeCurvature(float[] x, int classes) {
+        int m = sparseFeatures != null ? sparseFeatures.getRowNum() : featureRows.length;
+        int d = featureDimension;
+        if (curvature == null || curvature.length != m * classes) {
+            this.curvature = new float[m * classes];
+        }
+        float[][] w = new float[classes][d];
+        for (int k = 0; k < classes; k++) {
+            System.arraycopy(x, k * d, w[k], 0, d);
+        }
+        float[] b = Arrays.copyOfRange(x, classes * d, classes * d + classes);
+        float[] target = curvature;
+        RereExecutor.parallelFor(0, m, KERNEL_GRAIN, (from, to) -> {
+            float[] probabilities = new float[Math.max(2, classes)];
+            for (int i = from; i < to; i++) {
+                if (sparseFeatures != null) {
+                    scoreSparseRow(sparseFeatures, i, w, b, probabilities);
+                } else {
+                    scoreRow(featureRows[i], w, b, probabilities);
+                }
+                if (classes == 1) {
+                    target[i] = probabilities[0] * probabilities[1];
+                } else {
+                    System.arraycopy(probabilities, 0, target, i * classes, classes);
+                }
+            }
+        });
+        this.curvaturePoint = x.clone();
+    }
+    
+    /**
+     * 把方向导数u原地乘上第offset / K个样本的曲率块：二分类 r = p(1 - p)u，多分类 r_k = p_k(u_k - Σ_j p_j u_j)
+     */
+    private void applyCurvature(float[] u, int offset) {
+        if (u.length == 1) {
+            u[0] *= curvature[offset];
+            return;
+        }
+        float mean = 0.0f;
+        for (int k = 0; k < u.length; k++) {
+            mean += curvature[offset + k] * u[k];
+        }
+        for (int k = 0; k < u.length; k++) {
+            u[k] = curvature[offset + k] * (u[k] - mean);
+        }
+    }
+    
+    /**
+     * 累加一个行块的 Xᵀ·D·(X·v)，按{@value #KERNEL_ROWS}行的小块用float累加后并入块缓冲区
+     * 
+     * @param directionRows 方向的权重部分（K × d）
+     * @param directionBiases 方向的偏置部分
+     * @param block 块索引
+     * @param u 方向导数工作区
+     * @param partial 小块内的float权重工作区
+     * @param biasPartial 小块内的float偏置工作区
+     */
+    private void hessianBlock(float[][] directionRows, float[] directionBiases, int block, float[] u,
+                              float[][] partial, float[] biasPartial) {
+        double[] buffer = blockBuffers[block];
+        Arrays.fill(buffer, 0.0);
+        int classes = directionBiases.length;
+        int d = featureDimension;
+        int start = block * blockRows;
+        int end = Math.min(featureRows.length, start + blockRows);
+        for (int r0 = start; r0 < end; r0 += KERNEL_ROWS) {
+            int stop = Math.min(end, r0 + KERNEL_ROWS);
+            for (float[] p : partial) {
+                Arrays.fill(p, 0.0f);
+            }
+            Arrays.fill(biasPartial, 0.0f);
+            for (int i = r0; i < stop; i++) {
+                float[] row = featureRows[i];
+                for (int k = 0; k < classes; k++) {
+                    u[k] = dot(row, directionRows[k], d) + directionBiases[k];
+                }
+                applyCurvature(u, i * classes);
+                for (int k = 0; k < classes; k++) {
+                    axpy(u[k], row, partial[k], d);
+                    biasPartial[k] += u[k];
+                }
+            }
+            int index = 0;
+            for (float[] p : partial) {
+                for (float value : p) {
+                    buffer[index++] += value;
+                }
+            }
+            for (float value : biasPartial) {
+                buffer[index++] += value;
+            }
+        }
+    }
+    
+    /**
+     * 将正则化项的梯度加到梯度数组上，并返回正则化项的值
+     * <p>
+     * 正则化只作用于前weightCount个参数（权重），不作用于偏置：
+     * R(w) = λ₁||w||₁ + (λ₂/2)||w||²（按正则化类型取舍）。
+     * 使用OWL-QN训练时L1项由优化器处理，这里只计算L2项。
+     * </p>
+     * 
+     * @param x 参数数组
+     * @param weightCount 权重数量
+     * @param gradient 梯度数组（原地修改）
+     * @return 正则化项的值
+     */
+    private float addRegularization(float[] x, int weightCount, float[] gradient) {
+        boolean l1 = !l1InOptimizer
+            && (regularizationType == RegularizationType.L1 || regularizationType == RegularizationType.ELASTIC_NET);
+        boolean l2 = regularizationType == RegularizationType.L2 || regularizationType == RegularizationType.ELASTIC_NET;
+        if (!l1 && !l2) {
+            return 0.0f;
+        }
+        float l1Norm = 0.0f;
+        float squaredNorm = 0.0f;
+        for (int j = 0; j < weightCount; j++) {
+            if (l1) {
+                l1Norm += Math.abs(x[j]);
+                gradient[j] += lambda1 * Math.signum(x[j]);
+            }
+            if (l2) {
+                squaredNorm += x[j] * x[j];
+                gradient[j] += lambda2 * x[j];
+            }
+        }
+        return (l1 ? lambda1 * l1Norm : 0.0f) + (l2 ? lambda2 * squaredNorm / 2.0f : 0.0f);
+    }
+    
+    /**
+     * 计算单个样本的交叉熵损失，并将其梯度累加到gradient上（不含正则化）
+     * <p>
+     * 二分类损失使用 max(z, 0) - y*z + log(1 + e^(-|z|))，多分类使用 log-sum-exp 形式，
+     * 避免概率接近0或1时的溢出与log(0)。
+     * </p>
+     * 
+     * @param x 参数数组
+     * @param row 样本特征
+     * @param label 样本标签（数值化后）
+     * @param gradient 梯度数组（累加）
+     * @param logits 多分类时的logit工作区，二分类时为null
+     * @return 样本损失
+     */
+    private double accumulateSample(float[] x, float[] row, int label, float[] gradient, float[] logits) {
+        int n = featureDimension;
+        if (isBinaryClassification) {
+            float z = x[n];
+            for (int j = 0; j < n; j++) {
+                z += x[j] * row[j];
+            }
+            float error = sigmoid(z) - label;
+            for (int j = 0; j < n; j++) {
+                gradient[j] += error * row[j];
+            }
+            gradient[n] += error;
+            return Math.max(z, 0.0f) - label * z + Math.log1p(Math.exp(-Math.abs(z)));
+        }
+        int weightCount = numClasses * n;
+        float maxLogit = Float.NEGATIVE_INFINITY;
+        for (int k = 0; k < numClasses; k++) {
+            float z = x[weightCount + k];
+            int offset = k * n;
+            for (int j = 0; j < n; j++) {
+                z += x[offset + j] * row[j];
+            }
+            logits[k] = z;
+            maxLogit = Math.max(maxLogit, z);
+        }
+        double sum = 0.0;
+        for (int k = 0; k < numClasses; k++) {
+            sum += Math.exp(logits[k] - maxLogit);
+        }
+        for (int k = 0; k < numClasses; k++) {
+            float error = (float) (Math.exp(logits[k] - maxLogit) / sum) - (k == label ? 1.0f : 0.0f);
+            int offset = k * n;
+            for (int j = 0; j < n; j++) {
+                gradient[offset + j] += error * row[j];
+            }
+            gradient[weightCount + k] += error;
+        }
+        return maxLogit + Math.log(sum) - logits[label];
+    }
+    
+    // ==================== 增量训练 ====================
+    
+    /**
+     * 使用一批新数据增量训练（FTRL-Proximal）
+     * <p>
+     * 类别由首次调用时本批出现的标签确定（至少2个），之后的批次不能出现新标签；
+     * 若首批可能缺少某些类别，请使用{@link #partialFit(IMatrix, String[], String[])}事先声明全部类别。
+     * </p>
+     * 
+     * @param feature 本批特征矩阵
+     * @param labels 本批标签
+     * @return 训练结果，损失为本批样本在更新前的平均交叉熵（渐进验证损失）
+     */
+    public LogisticRegressionResult partialFit(IMatrix feature, String[] labels) {
+        return partialFit(feature, labels, null);
+    }
+    
+    /**
+     * 使用一批新数据增量训练（FTRL-Proximal）
+     * <p>
+     * 逐个样本按FTRL-Proximal更新，每个参数只保存z与n两个累积量，模型状态为O(k·d)，
+     * 不保留训练数据（此后computeObjective/computeGradient不可用）。
+     * 正则化强度按已处理样本数t放大为t·λ₁与t·λ₂，与fit使用的平均损失目标一致；L1正则化产生精确的零权重。
+     * 偏置不参与正则化。调用fit会从头训练并清空增量状态。
+     * </p>
+     * 
+     * @param feature 本批特征矩阵
+     * @param labels 本批标签
+     * @param classes 全部类别（仅首次调用时用于确定类别顺序，之后用于校验），可为null
+     * @return 训练结果，损失为本批样本在更新前的平均交叉熵（渐进验证损失）
+     */
+    public LogisticRegressionResult partialFit(IMatrix feature, String[] labels, String[] classes) {
+        if (feature == null || labels == null) {
+            throw new IllegalArgumentException("特征矩阵和标签数组不能为null");
+        }
+        if (feature.getRowNum() != labels.length) {
+            throw new IllegalArgumentException("特征矩阵行数与标签数组长度不匹配");
+        }
+        if (feature.getRowNum() == 0) {
+            throw new IllegalArgumentException("训练数据不能为空");
+        }
+        int[] numericLabels = prepareFtrl(feature.getColNum(), labels, classes);
+        
+        float[][] rows = feature.getData();
+        int weightCount = isBinaryClassification ? featureDimension : numClasses * featureDimension;
+        float[] params = new float[ftrlZ.length];
+        float[] gradient = new float[ftrlZ.length];
+        float[] logits = isBinaryClassification ? null : new float[numClasses];
+        double totalLoss = 0.0;
+        for (int i = 0; i < rows.length; i++) {
+            partialCount++;
+            ftrlWeights(params, weightCount);
+            Arrays.fill(gradient, 0.0f);
+            totalLoss += accumulateSample(params, rows[i], numericLabels[i], gradient, logits);
+            for (int j = 0; j < params.length; j++) {
+                ftrlUpdate(j, gradient[j], params[j]);
+            }
+        }
+        return finishPartialFit(params, weightCount, totalLoss / rows.length);
+    }
+    
+    /**
+     * 使用一批稀疏数据增量训练（FTRL-Proximal）
+     * 
+     * @param feature 本批稀疏特征矩阵
+     * @param labels 本批标签
+     * @return 训练结果，损失为本批样本在更新前的平均交叉熵（渐进验证损失）
+     * @see #partialFit(RereSparseMatrix, String[], String[])
+     */
+    public LogisticRegressionResult partialFit(RereSparseMatrix feature, String[] labels) {
+        return partialFit(feature, labels, null);
+    }
+    
+    /**
+     * 使用一批稀疏数据增量训练（FTRL-Proximal）
+     * <p>
+     * 与{@link #partialFit(IMatrix, String[], String[])}结果相同，但每个样本只按需计算并更新其非零元素
+     * 与偏置对应的参数：特征为零的参数梯度为零，其FTRL状态不变，惰性计算即可。
+     * 因此每个样本的开销为O(nnz·K)而不是O(d·K)，只在批末计算一次完整的权重。
+     * </p>
+     * 
+     * @param feature 本批稀疏特征矩阵
+     * @param labels 本批标签
+     * @param classes 全部类别（仅首次调用时用于确定类别顺序，之后用于校验），可为null
+     * @return 训练结果，损失为本批样本在更新前的平均交叉熵（渐进验证损失）
+     */
+    public LogisticRegressionResult partialFit(RereSparseMatrix feature, String[] labels, String[] classes) {
+        if (feature == null || labels == null) {
+            throw new IllegalArgumentException("特征矩阵和标签数组不能为null");
+        }
+        if (feature.getRowNum() != labels.length) {
+            throw new IllegalArgumentException("特征矩阵行数与标签数组长度不匹配");
+        }
+        if (feature.getRowNum() == 0) {
+            throw new IllegalArgumentException("训练数据不能为空");
+        }
+        int[] numericLabels = prepareFtrl(feature.getColNum(), labels, classes);
+        
+        int[] pointers = feature.getRowPointers();
+        int[] columns = feature.getColumnIndices();
+        float[] values = feature.getValues();
+        int d = featureDimension;
+        int classCount = isBinaryClassification ? 1 : numClasses;
+        int weightCount = classCount * d;
+        float[] params = new float[ftrlZ.length];
+        float[] errors = new float[classCount];
+        double totalLoss = 0.0;
+        for (int i = 0; i < feature.getRowNum(); i++) {
+            partialCount++;
+            // 只计算本样本用到的参数
+            for (int k = 0; k < classCount; k++) {
+                int base = k * d;
+                for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                    params[base + columns[p]] = ftrlWeight(base + columns[p], weightCount);
+                }
+                params[weightCount + k] = ftrlWeight(weightCount + k, weightCount);
+            }
+            totalLoss += sparseSample(params, feature, i, numericLabels[i], errors, 0);
+            for (int k = 0; k < classCount; k++) {
+                float e = errors[k];
+                int base = k * d;
+                for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                    int j = base + columns[p];
+                    ftrlUpdate(j, e * values[p], params[j]);
+                }
+                ftrlUpdate(weightCount + k, e, params[weightCount + k]);
+            }
+        }
+        return finishPartialFit(params, weightCount, totalLoss / feature.getRowNum());
+    }
+    
+    /**
+     * 校验增量训练的批次，首次调用时初始化FTRL状态，并释放fit保留的训练数据
+     * 
+     * @param columnCount 本批特征维度
+     * @param labels 本批标签
+     * @param classes 全部类别，可为null
+     * @return 数值化的标签
+     */
+    private int[] prepareFtrl(int columnCount, String[] labels, String[] classes) {
+        if (ftrlZ == null) {
+            this.featureDimension = columnCount;
+            preprocessLabels(classes != null ? classes : labels);
+            int paramCount = isBinaryClassification ? featureDimension + 1 : numClasses * (featureDimension + 1);
+            this.ftrlZ = new double[paramCount];
+            this.ftrlN = new double[paramCount];
+            this.partialCount = 0;
+        } else {
+            if (columnCount != featureDimension) {
+                throw new IllegalArgumentException("特征维度与之前的批次不匹配");
+            }
+            if (classes != null) {
+                for (String c : classes) {
+                    if (!labelMapping.containsKey(c)) {
+                        throw new IllegalArgumentException("类别与之前的批次不一致：" + c);
+                    }
+                }
+            }
+        }
+        
+        int[] numericLabels = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            Integer label = labelMapping.get(labels[i]);
+            if (label == null) {
+                throw new IllegalArgumentException("未知标签：" + labels[i]);
+            }
+            numericLabels[i] = label;
+        }
+        
+        // 只保留FTRL状态，释放训练数据
+        this.featureRows = null;
+        this.sparseFeatures = null;
+        this.sparseColumns = null;
+        this.trainingLabels = null;
+        clearKernel();
+        return numericLabels;
+    }
+    
+    /**
+     * 单个参数的FTRL-Proximal更新
+     * 
+     * @param j 参数下标
+     * @param g 该参数的梯度，为0时不更新
+     * @param w 计算梯度时使用的参数值
+     */
+    private void ftrlUpdate(int j, double g, float w) {
+        if (g == 0.0) {
+            return;
+        }
+        double sigma = (Math.sqrt(ftrlN[j] + g * g) - Math.sqrt(ftrlN[j])) / ftrlAlpha;
+        ftrlZ[j] += g - sigma * w;
+        ftrlN[j] += g * g;
+    }
+    
+    /**
+     * 批末由FTRL状态计算完整参数并生成训练结果
+     * 
+     * @param params 参数工作区
+     * @param weightCount 权重数量
+     * @param loss 本批平均损失
+     * @return 训练结果
+     */
+    private LogisticRegressionResult finishPartialFit(float[] params, int weightCount, double loss) {
+        ftrlWeights(params, weightCount);
+        extractParametersFromVector(new RereVector(params));
+        this.isTrained = true;
+        
+        LogisticRegressionResult result = new LogisticRegressionResult();
+        result.setWeights(weights.getRow(0));
+        result.setBias(new RereVector(new float[]{bias.get(0)}));
+        result.setLoss((float) loss);
+        return result;
+    }
+    
+    /**
+     * 由FTRL状态计算当前参数（闭式解）
+     * <p>
+     * w = 0（|z| ≤ tλ₁时），否则 w = -(z - sign(z)·tλ₁) / ((β + √n)/α + tλ₂)，t为已处理样本数。
+     * </p>
+     * 
+     * @param params 参数数组（输出）
+     * @param weightCount 权重数量（其后为偏置）
+     */
+    private void ftrlWeights(float[] params, int weightCount) {
+        for (int j = 0; j < params.length; j++) {
+            params[j] = ftrlWeight(j, weightCount);
+        }
+    }
+    
+    /**
+     * 由FTRL状态计算单个参数
+     * 
+     * @param j 参数下标
+     * @param weightCount 权重数量（其后为偏置，不参与正则化）
+     * @return 参数值
+     */
+    private float ftrlWeight(int j, int weightCount) {
+        boolean l1 = regularizationType == RegularizationType.L1 || regularizationType == RegularizationType.ELASTIC_NET;
+        boolean l2 = regularizationType == RegularizationType.L2 || regularizationType == RegularizationType.ELASTIC_NET;
+        double strength1 = l1 && j < weightCount ? (double) lambda1 * partialCount : 0.0;
+        double strength2 = l2 && j < weightCount ? (double) lambda2 * partialCount : 0.0;
+        double z = ftrlZ[j];
+        if (Math.abs(z) <= strength1) {
+            return 0.0f;
+        }
+        double denominator = (ftrlBeta + Math.sqrt(ftrlN[j])) / ftrlAlpha + strength2;
+        return (float) (-(z - Math.signum(z) * strength1) / denominator);
+    }
+    
+    /**
+     * 释放融合求值的缓冲区并使缓存失效
+     */
+    private void clearKernel() {
+        this.blockBuffers = null;
+        this.sparseErrors = null;
+        this.sparseLosses = null;
+        this.cachedPoint = null;
+        this.cachedGradient = null;
+        this.curvaturePoint = null;
+        this.curvature = null;
+    }
+    
+    /**
+     * 清空增量训练状态
+     */
+    public void resetPartialFit() {
+        this.ftrlZ = null;
+        this.ftrlN = null;
+        this.partialCount = 0;
+    }
+    
+    /**
+     * 获取训练样本数量
+     */
+    @Override
+    public int getSampleCount() {
+        if (sparseFeatures != null) {
+            return sparseFeatures.getRowNum();
+        }
+        return featureRows == null ? 0 : featureRows.length;
+    }
+    
+    // ==================== 辅助方法 ====================
+    
+    /**
+     * 标签预处理
+     */
+    private void preprocessLabels(String[] labels) {
+        labelMapping.clear();
+        reverseLabelMapping.clear();
+        
+        int nextLabel = 0;
+        for (String label : labels) {
+            if (!labelMapping.containsKey(label)) {
+                labelMapping.put(label, nextLabel);
+                reverseLabelMapping.put(nextLabel, label);
+                nextLabel++;
+            }
+        }
+        
+        this.numClasses = labelMapping.size();
+        
+        if (numClasses < 2) {
+            throw new IllegalArgumentException("至少需要2个类别，当前标签数量：" + numClasses);
+        }
+        
+        // 判断分类类型
+        this.isBinaryClassification = (numClasses == 2);
+        
+        // 转换为数值标签数组
+        this.trainingLabels = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            this.trainingLabels[i] = labelMapping.get(labels[i]);
+        }
+    }
+    
+    /**
+     * 热启动时沿用已有的标签映射
+     * <p>
+     * 仅当开启热启动、模型已训练、特征维度不变且标签恰好覆盖原有的全部类别时沿用，
+     * 此时原有的权重与偏置可直接作为优化的起点。
+     * </p>
+     * 
+     * @param labels 标签数组
+     * @return 是否沿用了原有映射
+     */
+    private boolean reuseLabelMapping(String[] labels) {
+        if (!warmStart || !isTrained || weights == null || weights.getColNum() != featureDimension) {
+            return false;
+        }
+        boolean[] seen = new boolean[numClasses];
+        int[] mapped = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            Integer label = labelMapping.get(labels[i]);
+            if (label == null) {
+                return false;
+            }
+            mapped[i] = label;
+            seen[label] = true;
+        }
+        for (boolean b : seen) {
+            if (!b) {
+                return false;
+            }
+        }
+        this.trainingLabels = mapped;
+        return true;
+    }
+    
+    /**
+     * 初始化模型参数
+     */
+    private void initializeParameters() {
+        if (isBinaryClassification) {
+            // 二分类：权重向量 + 单个偏置
+            float scale = (float) Math.sqrt(2.0 / featureDimension);
+            float[] weightData = new float[featureDimension];
+            for (int i = 0; i < featureDimension; i++) {
+                weightData[i] = (random.nextFloat() - 0.5f) * 2.0f * scale;
+            }
+            
+            this.weights = new RereMatrix(new float[][]{weightData});
+            this.bias = new RereVector(new float[]{0.0f});
+        } else {
+            // 多分类：权重矩阵 + 偏置向量
+            float scale = (float) Math.sqrt(2.0 / featureDimension);
+            float[][] weightData = new float[numClasses][featureDimension];
+            for (int k = 0; k < numClasses; k++) {
+                for (int j = 0; j < featureDimension; j++) {
+                    weightData[k][j] = (random.nextFloat() - 0.5f) * 2.0f * scale;
+                }
+            }
+            
+            this.weights = new RereMatrix(weightData);
+            float[] biasData = new float[numClasses];
+            for (int k = 0; k < numClasses; k++) {
+                biasData[k] = 0.0f;
+            }
+            this.bias = new RereVector(biasData);
+        }
+    }
+    
+    /**
+     * 创建参数向量
      */
     private IVector createParameterVector() {
         if (isBinaryClassification) {
@@ -614,43 +1933,13 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
     }
     
     /**
-     * 创建梯度向量（二分类）
-     */
-    private IVector createGradientVector(float[] weightGradients, float biasGradient) {
-        int n = weightGradients.length;
-        float[] gradientData = new float[n + 1];
-        
-        // 复制权重梯度
-        System.arraycopy(weightGradients, 0, gradientData, 0, n);
-        
-        // 添加偏置梯度
-        gradientData[n] = biasGradient;
-        
-        return new RereVector(gradientData);
-    }
-    
-    /**
-     * 创建梯度向量（多分类）
+     * 当前正则化类型下实际生效的L1系数
+     * 
+     * @return L1系数
      */
-    private IVector createGradientVector(float[][] weightGradients, float[] biasGradients) {
-        int totalParams = numClasses * featureDimension + numClasses;
-        float[] gradientData = new float[totalParams];
-        
-        int index = 0;
-        
-        // 复制权重梯度
-        for (int k = 0; k < numClasses; k++) {
-            for (int j = 0; j < featureDimension; j++) {
-                gradientData[index++] = weightGradients[k][j];
-            }
-        }
-        
-        // 复制偏置梯度
-        for (int k = 0; k < numClasses; k++) {
-            gradientData[index++] = biasGradients[k];
-        }
-        
-        return new RereVector(gradientData);
+    private float effectiveLambda1() {
+        return regularizationType == RegularizationType.L1 || regularizationType == RegularizationType.ELASTIC_NET
+            ? lambda1 : 0.0f;
     }
     
     /**
@@ -668,115 +1957,6 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
         }
     }
     
-    /**
-     * 计算正则化项
-     */
-    private float computeRegularizationTerm() {
-        float regularizationTerm = 0.0f;
-        
-        switch (regularizationType) {
-            case L1:
-                for (int i = 0; i < weights.getRowNum(); i++) {
-                    for (int j = 0; j < weights.getColNum(); j++) {
-                        regularizationTerm += Math.abs(weights.get(i, j));
-                    }
-                }
-                regularizationTerm *= lambda1;
-                break;
-            case L2:
-                for (int i = 0; i < weights.getRowNum(); i++) {
-                    for (int j = 0; j < weights.getColNum(); j++) {
-                        regularizationTerm += weights.get(i, j) * weights.get(i, j);
-                    }
-                }
-                regularizationTerm *= lambda2 / 2.0f;
-                break;
-            case ELASTIC_NET:
-                // L1部分
-                float l1Term = 0.0f;
-                for (int i = 0; i < weights.getRowNum(); i++) {
-                    for (int j = 0; j < weights.getColNum(); j++) {
-                        l1Term += Math.abs(weights.get(i, j));
-                    }
-                }
-                // L2部分
-                float l2Term = 0.0f;
-                for (int i = 0; i < weights.getRowNum(); i++) {
-                    for (int j = 0; j < weights.getColNum(); j++) {
-                        l2Term += weights.get(i, j) * weights.get(i, j);
-                    }
-                }
-                regularizationTerm = lambda1 * l1Term + lambda2 * l2Term / 2.0f;
-                break;
-            case NONE:
-            default:
-                regularizationTerm = 0.0f;
-                break;
-        }
-        
-        return regularizationTerm;
-    }
-    
-    /**
-     * 添加正则化梯度（二分类）
-     */
-    private void addRegularizationGradients(float[] weightGradients) {
-        switch (regularizationType) {
-            case L1:
-                for (int i = 0; i < weightGradients.length; i++) {
-                    weightGradients[i] += lambda1 * Math.signum(weights.get(0, i));
-                }
-                break;
-            case L2:
-                for (int i = 0; i < weightGradients.length; i++) {
-                    weightGradients[i] += lambda2 * weights.get(0, i);
-                }
-                break;
-            case ELASTIC_NET:
-                for (int i = 0; i < weightGradients.length; i++) {
-                    weightGradients[i] += lambda1 * Math.signum(weights.get(0, i)) + lambda2 * weights.get(0, i);
-                }
-                break;
-            case NONE:
-            default:
-                // 无正则化，不添加梯度
-                break;
-        }
-    }
-    
-    /**
-     * 添加正则化梯度（多分类）
-     */
-    private void addRegularizationGradients(float[][] weightGradients) {
-        switch (regularizationType) {
-            case L1:
-                for (int k = 0; k < numClasses; k++) {
-                    for (int j = 0; j < featureDimension; j++) {
-                        weightGradients[k][j] += lambda1 * Math.signum(weights.get(k, j));
-                    }
-                }
-                break;
-            case L2:
-                for (int k = 0; k < numClasses; k++) {
-                    for (int j = 0; j < featureDimension; j++) {
-                        weightGradients[k][j] += lambda2 * weights.get(k, j);
-                    }
-                }
-                break;
-            case ELASTIC_NET:
-                for (int k = 0; k < numClasses; k++) {
-                    for (int j = 0; j < featureDimension; j++) {
-                        weightGradients[k][j] += lambda1 * Math.signum(weights.get(k, j)) + lambda2 * weights.get(k, j);
-                    }
-                }
-                break;
-            case NONE:
-            default:
-                // 无正则化，不添加梯度
-                break;
-        }
-    }
-    
     /**
      * Sigmoid激活函数
      */
@@ -790,35 +1970,6 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
         }
     }
     
-    /**
-     * Softmax激活函数
-     */
-    private float[] softmax(float[] logits) {
-        float[] probabilities = new float[numClasses];
-        
-        // 找到最大值以提高数值稳定性
-        float maxLogit = logits[0];
-        for (int i = 1; i < numClasses; i++) {
-            if (logits[i] > maxLogit) {
-                maxLogit = logits[i];
-            }
-        }
-        
-        // 计算指数并求和
-        float sum = 0.0f;
-        for (int i = 0; i < numClasses; i++) {
-            probabilities[i] = (float) Math.exp(logits[i] - maxLogit);
-            sum += probabilities[i];
-        }
-        
-        // 归一化
-        for (int i = 0; i < numClasses; i++) {
-            probabilities[i] /= sum;
-        }
-        
-        return probabilities;
-    }
-    
     // ==================== Getter和Setter方法 ====================
     
     /**
@@ -856,6 +2007,93 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
         return featureDimension;
     }
     
+    /**
+     * 获取优化器
+     */
+    public IOptimizer getOptimizer() {
+        return optimizer;
+    }
+    
+    /**
+     * 设置优化器（默认LBFGS，存在L1正则化时自动改用同样参数的OWL-QN），为null时恢复默认的LBFGS
+     */
+    public void setOptimizer(IOptimizer optimizer) {
+        this.optimizer = optimizer == null ? new RereLBFGS() : optimizer;
+    }
+    
+    /**
+     * 是否从上一次fit的参数热启动
+     */
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+    
+    /**
+     * 设置是否从上一次fit的参数热启动
+     * <p>
+     * 开启后，若新的训练数据特征维度不变且类别集合相同，fit从上一次训练得到的权重与偏置出发，
+     * 而不是随机初始化。在相邻的正则化参数上依次训练时（如交叉验证的参数搜索）可明显减少迭代次数。
+     * </p>
+     */
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+    }
+    
+    /**
+     * 设置随机种子，使参数初始化可复现
+     * <p>
+     * 随机初始化是训练中唯一的随机性来源；设置相同种子的两个模型在相同数据上fit，得到完全相同的参数与迭代次数。
+     * 同一模型多次fit时依次使用生成器的后续取值。
+     * </p>
+     */
+    public void setSeed(long seed) {
+        this.random = RereRandom.create(seed);
+    }
+    
+    /**
+     * 设置参数初始化使用的随机数生成器
+     */
+    public void setRandom(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null");
+        }
+        this.random = random;
+    }
+    
+    /**
+     * 获取FTRL学习率参数α
+     */
+    public float getFtrlAlpha() {
+        return ftrlAlpha;
+    }
+    
+    /**
+     * 设置FTRL学习率参数α（默认0.1）
+     */
+    public void setFtrlAlpha(float ftrlAlpha) {
+        if (!(ftrlAlpha > 0)) {
+            throw new IllegalArgumentException("FTRL参数α必须为正");
+        }
+        this.ftrlAlpha = ftrlAlpha;
+    }
+    
+    /**
+     * 获取FTRL学习率参数β
+     */
+    public float getFtrlBeta() {
+        return ftrlBeta;
+    }
+    
+    /**
+     * 设置FTRL学习率参数β（默认1.0）
+     */
+    public void setFtrlBeta(float ftrlBeta) {
+        if (ftrlBeta < 0) {
+            throw new IllegalArgumentException("FTRL参数β不能为负");
+        }
+        this.ftrlBeta = ftrlBeta;
+    }
+    
     /**
      * 获取学习率
      */
@@ -911,6 +2149,7 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
     public void setLambda1(float lambda1) {
         this.lambda1 = lambda1;
         this.regularizationType = inferRegularizationType(this.lambda1, this.lambda2);
+        this.cachedGradient = null;
     }
     
     /**
@@ -926,6 +2165,7 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
     public void setLambda2(float lambda2) {
         this.lambda2 = lambda2;
         this.regularizationType = inferRegularizationType(this.lambda1, this.lambda2);
+        this.cachedGradient = null;
     }
     
     /**
@@ -935,6 +2175,7 @@ public class RereLogisticRegression implements IClassification, IGradientFunctio
         this.lambda1 = lambda1;
         this.lambda2 = lambda2;
         this.regularizationType = inferRegularizationType(lambda1, lambda2);
+        this.cachedGradient = null;
     }
     
     /**
@@ -0,0 +1,404 @@
+package com.reremouse.lab.math.ml.lr;
+
+import com.reremouse.lab.util.RereExecutor;
+
+/**
+ * 坐标下降求解器 / Coordinate descent solver
+ * <p>
+ * 求解弹性网问题 min (1/2n)||Xw - y||² + λ₁||w||₁ + (λ₂/2)||w||²，逐个坐标做软阈值闭式更新，得到精确的零权重。
+ * 特征较少时使用协方差更新：维护 q = XᵀXw/n，每次坐标变化只更新q（O(d)），无需再遍历数据；
+ * 特征很多时使用朴素更新：维护残差 r = y - Xw，按列访问列主序副本。
+ * </p>
+ * <p>
+ * Solves the elastic net problem min (1/2n)||Xw - y||² + λ₁||w||₁ + (λ₂/2)||w||² by cyclic closed-form
+ * soft-threshold updates of one coordinate at a time, which yields exact zeros. With few features covariance
+ * updates are used: q = XᵀXw/n is maintained and each coordinate change only updates q (O(d)) without touching
+ * the data again. With many features naive updates maintain the residual r = y - Xw over a column-major copy.
+ * </p>
+ * <p>
+ * 正则化路径从大到小的λ₁依次热启动求解。每个λ₁先用顺序强规则（strong rule）筛除大概率为零的坐标，
+ * 在剩余坐标上交替进行全量扫描与活跃集（非零坐标）扫描，收敛后对被筛除的坐标检查KKT条件，
+ * 若有违反则加入后重新求解。路径可被切分为若干段在线程池中并行计算，每段从自己的起点冷启动，
+ * 第一段也可以从给定的权重热启动。段数只取决于λ₁的个数，因此结果与线程数无关。
+ * </p>
+ * <p>
+ * A regularization path is solved for decreasing λ₁ with warm starts. For each λ₁ the sequential strong rule
+ * first discards coordinates that are likely zero; the remaining coordinates alternate between full sweeps and
+ * active-set (non-zero) sweeps, and after convergence the discarded coordinates are checked against the KKT
+ * conditions and re-admitted if violated. A path may be split into segments that run in parallel on the shared
+ * pool, each segment cold-starting from its first λ₁; the first segment may instead warm-start from given weights.
+ * The number of segments depends only on the number of λ₁ values, so the result does not depend on the thread
+ * count.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoordinateDescent {
+
+    /** 每段路径的最少λ个数 / Minimum number of lambdas per path segment */
+    private static final int MIN_SEGMENT = 4;
+
+    /**
+     * 路径的最大段数，固定而不随线程数变化，使路径结果与机器核数无关 /
+     * Maximum number of path segments; fixed rather than tied to the thread count so that path solutions do not
+     * depend on the number of cores
+     */
+    private static final int MAX_SEGMENTS = 8;
+
+    /** 权重数量 / Number of weights */
+    private final int d;
+
+    /** 样本数量 / Number of samples */
+    private final long n;
+
+    /** XᵀX（协方差模式）/ XᵀX (covariance mode) */
+    private final double[][] gram;
+
+    /** 列主序特征（朴素模式）/ Column-major features (naive mode) */
+    private final float[][] columns;
+
+    /** 标签 / Labels */
+    private final float[] y;
+
+    /** 各列的 ||x_j||²/n / ||x_j||²/n of each column */
+    private final double[] diag;
+
+    /** Xᵀy/n */
+    private final double[] c;
+
+    /** ||y||²/n */
+    private final double yy;
+
+    private CoordinateDescent(int d, long n, double[][] gram, float[][] columns, float[] y, double[] diag,
+                              double[] c, double yty) {
+        this.d = d;
+        this.n = n;
+        this.gram = gram;
+        this.columns = columns;
+        this.y = y;
+        this.diag = diag;
+        this.c = c;
+        this.yy = yty / n;
+    }
+
+    /**
+     * 使用协方差更新 / Use covariance updates
+     *
+     * @param gram {@link LeastSquares#gram}的结果 / Result of {@link LeastSquares#gram}
+     * @param y 标签 / Labels
+     * @return 求解器 / Solver
+     */
+    static CoordinateDescent covariance(double[][] gram, float[] y) {
+        return covariance(gram, sumOfSquares(y), y.length);
+    }
+
+    /**
+     * 仅由充分统计量构造，使用协方差更新 / Build from sufficient statistics only, using covariance updates
+     *
+     * @param gram {@link LeastSquares#gram}形式的XᵀX与Xᵀy / XᵀX and Xᵀy in the form of {@link LeastSquares#gram}
+     * @param yty yᵀy
+     * @param n 样本数量 / Number of samples
+     * @return 求解器 / Solver
+     */
+    static CoordinateDescent covariance(double[][] gram, double yty, long n) {
+        int d = gram.length - 1;
+        double[] diag = new double[d];
+        double[] c = new double[d];
+        for (int j = 0; j < d; j++) {
+            diag[j] = gram[j][j] / n;
+            c[j] = gram[d][j] / n;
+        }
+        return new CoordinateDescent(d, n, gram, null, null, diag, c, yty);
+    }
+
+    /**
+     * 使用朴素（残差）更新 / Use naive (residual) updates
+     *
+     * @param rows 行主序特征 / Row-major features
+     * @param y 标签 / Labels
+     * @param d 列数 / Number of columns
+     * @return 求解器 / Solver
+     */
+    static CoordinateDescent naive(float[][] rows, float[] y, int d) {
+        int n = rows.length;
+        float[][] columns = new float[d][n];
+        RereExecutor.parallelFor(0, d, Math.max(1, 65536 / Math.max(1, n)), (from, to) -> {
+            for (int j = from; j < to; j++) {
+                float[] col = columns[j];
+                for (int i = 0; i < n; i++) {
+                    col[i] = rows[i][j];
+                }
+            }
+        });
+        double[] diag = new double[d];
+        double[] c = new double[d];
+        for (int j = 0; j < d; j++) {
+            float[] col = columns[j];
+            double ss = 0.0;
+            double sy = 0.0;
+            for (int i = 0; i < n; i++) {
+                ss += (double) col[i] * col[i];
+                sy += (double) col[i] * y[i];
+            }
+            diag[j] = ss / n;
+            c[j] = sy / n;
+        }
+        return new CoordinateDescent(d, n, null, columns, y, diag, c, sumOfSquares(y));
+    }
+
+    /**
+     * 使所有权重为零的最小λ₁，即 max|Xᵀy/n| / Smallest λ₁ for which all weights are zero, max|Xᵀy/n|
+     *
+     * @return λ₁上界 / Upper bound of λ₁
+     */
+    double lambdaMax() {
+        double max = 0.0;
+        for (double v : c) {
+            max = Math.max(max, Math.abs(v));
+        }
+        return max;
+    }
+
+    /**
+     * 计算正则化路径 / Compute a regularization path
+     *
+     * @param lambda1s 从大到小排列的L1系数 / L1 coefficients in decreasing order
+     * @param lambda2 L2系数 / L2 coefficient
+     * @param tolerance 相对收敛容差 / Relative convergence tolerance
+     * @param maxSweeps 每个λ₁的最大扫描次数 / Maximum sweeps per λ₁
+     * @param losses 输出各λ₁下的目标函数值，可为null / Receives the objective for each λ₁, may be null
+     * @return 各λ₁下的权重 / Weights for each λ₁
+     */
+    float[][] path(double[] lambda1s, double lambda2, double tolerance, int maxSweeps, float[] losses) {
+        return path(lambda1s, lambda2, tolerance, maxSweeps, losses, null);
+    }
+
+    /**
+     * 计算正则化路径，第一段从给定的权重热启动 / Compute a regularization path whose first segment warm-starts
+     * from the given weights
+     *
+     * @param lambda1s 从大到小排列的L1系数 / L1 coefficients in decreasing order
+     * @param lambda2 L2系数 / L2 coefficient
+     * @param tolerance 相对收敛容差 / Relative convergence tolerance
+     * @param maxSweeps 每个λ₁的最大扫描次数 / Maximum sweeps per λ₁
+     * @param losses 输出各λ₁下的目标函数值，可为null / Receives the objective for each λ₁, may be null
+     * @param start 第一段的初始权重，为null时从零开始 / Initial weights of the first segment, zero if null
+     * @return 各λ₁下的权重 / Weights for each λ₁
+     */
+    float[][] path(double[] lambda1s, double lambda2, double tolerance, int maxSweeps, float[] losses,
+                   float[] start) {
+        if (start != null && start.length != d) {
+            throw new IllegalArgumentException("初始权重长度不匹配 / Initial weight length mismatch: " + start.length);
+        }
+        int count = lambda1s.length;
+        float[][] weights = new float[count][];
+        int segments = Math.max(1, Math.min(MAX_SEGMENTS, count / MIN_SEGMENT));
+        int segmentSize = (count + segments - 1) / segments;
+        double absTolerance = tolerance * Math.max(Math.sqrt(yy), 1e-12);
+        double lambdaMax = lambdaMax();
+        RereExecutor.parallelFor(0, segments, 1, (from, to) -> {
+            for (int s = from; s < to; s++) {
+                State state = new State();
+                if (s == 0 && start != null) {
+                    for (int j = 0; j < d; j++) {
+                        if (start[j] != 0.0f) {
+                            state.w[j] = start[j];
+                            update(state, j, start[j]);
+                        }
+                    }
+                }
+                double previous = Math.max(lambdaMax, s * segmentSize < count ? lambda1s[s * segmentSize] : 0.0);
+                int end = Math.min(count, (s + 1) * segmentSize);
+                for (int k = s * segmentSize; k < end; k++) {
+                    solve(state, lambda1s[k], lambda2, previous, absTolerance, maxSweeps);
+                    previous = lambda1s[k];
+                    float[] w = new float[d];
+                    for (int j = 0; j < d; j++) {
+                        w[j] = (float) state.w[j];
+                    }
+                    weights[k] = w;
+                    if (losses != null) {
+                        losses[k] = (float) objective(state, lambda1s[k], lambda2);
+                    }
+                }
+            }
+        });
+        return weights;
+    }
+
+    /**
+     * 一个路径段的求解状态 / Solver state of one path segment
+     */
+    private final class State {
+        /** 权重 / Weights */
+        final double[] w = new double[d];
+
+        /** 协方差模式为 XᵀXw/n，朴素模式为残差 y - Xw / XᵀXw/n in covariance mode, residual y - Xw in naive mode */
+        final double[] work;
+
+        State() {
+            if (gram != null) {
+                work = new double[d];
+            } else {
+                work = new double[y.length];
+                for (int i = 0; i < y.length; i++) {
+                    work[i] = y[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * 在一个λ₁下求解，带强规则筛选与KKT检查 / Solve at one λ₁ with strong-rule screening and KKT checks
+     */
+    private void solve(State state, double lambda1, double lambda2, double previous, double tolerance,
+                       int maxSweeps) {
+        boolean[] eligible = new boolean[d];
+        double threshold = 2.0 * lambda1 - previous;
+        for (int j = 0; j < d; j++) {
+            eligible[j] = state.w[j] != 0.0 || Math.abs(gradient(state, j)) >= threshold;
+        }
+        while (true) {
+            solveSubset(state, eligible, lambda1, lambda2, tolerance, maxSweeps);
+            boolean violated = false;
+            for (int j = 0; j < d; j++) {
+                if (!eligible[j] && Math.abs(gradient(state, j)) > lambda1) {
+                    eligible[j] = true;
+                    violated = true;
+                }
+            }
+            if (!violated) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 在候选坐标上交替进行全量扫描与活跃集扫描直至收敛 / Alternate full and active-set sweeps until convergence
+     */
+    private void solveSubset(State state, boolean[] eligible, double lambda1, double lambda2, double tolerance,
+                             int maxSweeps) {
+        int sweeps = 0;
+        while (sweeps < maxSweeps) {
+            sweeps++;
+            if (sweep(state, eligible, false, lambda1, lambda2) < tolerance) {
+                return;
+            }
+            while (sweeps < maxSweeps) {
+                sweeps++;
+                if (sweep(state, eligible, true, lambda1, lambda2) < tolerance) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 对候选坐标做一次循环更新 / One cyclic pass over the candidate coordinates
+     *
+     * @return 最大的加权变化量 sqrt(||x_j||²/n)·|Δw_j| / Largest weighted change
+     */
+    private double sweep(State state, boolean[] eligible, boolean activeOnly, double lambda1, double lambda2) {
+        double maxChange = 0.0;
+        double[] w = state.w;
+        for (int j = 0; j < d; j++) {
+            if (!eligible[j] || (activeOnly && w[j] == 0.0)) {
+                continue;
+            }
+            double denominator = diag[j] + lambda2;
+            double updated = 0.0;
+            if (denominator > 0.0) {
+                double z = gradient(state, j) + diag[j] * w[j];
+                updated = softThreshold(z, lambda1) / denominator;
+            }
+            double delta = updated - w[j];
+            if (delta != 0.0) {
+                w[j] = updated;
+                update(state, j, delta);
+                maxChange = Math.max(maxChange, Math.abs(delta) * Math.sqrt(diag[j]));
+            }
+        }
+        return maxChange;
+    }
+
+    /**
+     * 损失部分负梯度 xⱼᵀ(y - Xw)/n / Negative gradient of the loss, xⱼᵀ(y - Xw)/n
+     */
+    private double gradient(State state, int j) {
+        if (gram != null) {
+            return c[j] - state.work[j];
+        }
+        float[] col = columns[j];
+        double[] r = state.work;
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += col[i] * r[i];
+        }
+        return sum / n;
+    }
+
+    private void update(State state, int j, double delta) {
+        double[] work = state.work;
+        if (gram != null) {
+            // XᵀX对称，按行读取第j列 / XᵀX is symmetric, so column j is read as row j
+            double[] gj = gram[j];
+            double scale = delta / n;
+            for (int k = 0; k < d; k++) {
+                work[k] += scale * gj[k];
+            }
+        } else {
+            float[] col = columns[j];
+            for (int i = 0; i < n; i++) {
+                work[i] -= delta * col[i];
+            }
+        }
+    }
+
+    private double objective(State state, double lambda1, double lambda2) {
+        double[] w = state.w;
+        double loss;
+        if (gram != null) {
+            // ||y - Xw||²/n = yᵀy/n - 2cᵀw + wᵀq
+            double cw = 0.0;
+            double wq = 0.0;
+            for (int j = 0; j < d; j++) {
+                cw += c[j] * w[j];
+                wq += w[j] * state.work[j];
+            }
+            loss = Math.max(0.0, yy - 2.0 * cw + wq) / 2.0;
+        } else {
+            double ss = 0.0;
+            for (double r : state.work) {
+                ss += r * r;
+            }
+            loss = ss / (2.0 * n);
+        }
+        double l1 = 0.0;
+        double l2 = 0.0;
+        for (double v : w) {
+            l1 += Math.abs(v);
+            l2 += v * v;
+        }
+        return loss + lambda1 * l1 + lambda2 * l2 / 2.0;
+    }
+
+    private static double sumOfSquares(float[] y) {
+        double sum = 0.0;
+        for (float v : y) {
+            sum += (double) v * v;
+        }
+        return sum;
+    }
+
+    private static double softThreshold(double z, double gamma) {
+        if (z > gamma) {
+            return z - gamma;
+        }
+        if (z < -gamma) {
+            return z + gamma;
+        }
+        return 0.0;
+    }
+}
@@ -0,0 +1,388 @@
+package com.reremouse.lab.math.ml.lr;
+
+import com.reremouse.lab.util.RereExecutor;
+import java.util.Arrays;
+
+/**
+ * 最小二乘求解例程 / Least-squares solver routines
+ * <p>
+ * 求解岭回归问题 min ||Xw - y||² + μ||w||²（μ = 0 时为普通最小二乘），X按行主序给出。
+ * 提供三种方法：基于Gram矩阵XᵀX的Cholesky分解（正规方程）、Householder QR分解以及
+ * 不显式构造XᵀX的共轭梯度法（CGLS）。所有计算均使用double精度。
+ * </p>
+ * <p>
+ * Solves the ridge problem min ||Xw - y||² + μ||w||² (ordinary least squares when μ = 0) for a row-major X.
+ * Three methods are provided: Cholesky on the Gram matrix XᵀX (normal equations), Householder QR, and conjugate
+ * gradients on the normal equations without forming XᵀX (CGLS). All arithmetic is done in double precision.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+final class LeastSquares {
+
+    /** 每个并行块的最小行数 / Minimum rows per parallel block */
+    private static final int BLOCK_GRAIN = 1024;
+
+    /**
+     * 行块的最大数量，固定而不随线程数变化，使按块顺序归约的结果与机器核数无关 /
+     * Maximum number of row blocks; fixed rather than tied to the thread count so that the block-ordered reductions
+     * do not depend on the number of cores
+     */
+    private static final int MAX_BLOCKS = 64;
+
+    /** Gram矩阵各块缓冲区的总单元数上限 / Upper bound on the total cells of the per-block Gram buffers */
+    private static final long MAX_PARTIAL_CELLS = 1L << 23;
+
+    private LeastSquares() {
+    }
+
+    /**
+     * 计算Gram矩阵XᵀX与Xᵀy / Compute the Gram matrix XᵀX and Xᵀy
+     * <p>一次按行遍历；各行块在线程池中并行累加到自己的缓冲区后按块顺序归约。块的划分只取决于行数与列数，
+     * 块数还受缓冲区总大小的限制 /
+     * One pass over the rows; row blocks accumulate into their own buffers in parallel and are reduced in block
+     * order. The blocks only depend on the numbers of rows and columns, and their count is also bounded by the total
+     * size of the buffers</p>
+     *
+     * @param rows 行主序特征 / Row-major features
+     * @param y 标签 / Labels
+     * @param d 列数 / Number of columns
+     * @return 长度为d+1的数组，前d行为XᵀX，最后一行为Xᵀy / Array of d+1 rows: XᵀX followed by Xᵀy
+     */
+    static double[][] gram(float[][] rows, float[] y, int d) {
+        int n = rows.length;
+        int maxBlocks = (int) Math.max(1, Math.min(MAX_BLOCKS, MAX_PARTIAL_CELLS / ((long) d * d + d)));
+        int blockRows = blockRows(n, maxBlocks);
+        int blocks = Math.max(1, (n + blockRows - 1) / blockRows);
+        double[][] partials = new double[blocks][];
+        RereExecutor.parallelFor(0, blocks, 1, (from, to) -> {
+            for (int b = from; b < to; b++) {
+                double[] g = new double[d * d + d];
+                int end = Math.min(n, (b + 1) * blockRows);
+                for (int i = b * blockRows; i < end; i++) {
+                    float[] row = rows[i];
+                    double yi = y[i];
+                    for (int a = 0; a < d; a++) {
+                        double xa = row[a];
+                        if (xa == 0.0) {
+                            continue;
+                        }
+                        // 只累加上三角 / Accumulate the upper triangle only
+                        int base = a * d;
+                        for (int c = a; c < d; c++) {
+                            g[base + c] += xa * row[c];
+                        }
+                        g[d * d + a] += xa * yi;
+                    }
+                }
+                partials[b] = g;
+            }
+        });
+        double[][] result = new double[d + 1][d];
+        for (double[] g : partials) {
+            for (int a = 0; a < d; a++) {
+                for (int c = a; c < d; c++) {
+                    result[a][c] += g[a * d + c];
+                }
+                result[d][a] += g[d * d + a];
+            }
+        }
+        for (int a = 0; a < d; a++) {
+            for (int c = 0; c < a; c++) {
+                result[a][c] = result[c][a];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 用Cholesky分解求解正规方程 (XᵀX + μI)w = Xᵀy / Solve the normal equations with a Cholesky factorization
+     *
+     * @param gram {@link #gram}的结果，不会被修改 / Result of {@link #gram}, left unchanged
+     * @param mu 岭参数 / Ridge parameter
+     * @return 解，若矩阵在数值上不正定则返回null / Solution, or null if the matrix is not numerically positive definite
+     */
+    static float[] cholesky(double[][] gram, double mu) {
+        int d = gram.length - 1;
+        double[][] L = new double[d][d];
+        double maxDiag = 0.0;
+        for (int i = 0; i < d; i++) {
+            maxDiag = Math.max(maxDiag, gram[i][i] + mu);
+        }
+        double threshold = Math.max(maxDiag, 1.0) * 1e-12;
+        for (int j = 0; j < d; j++) {
+            double diag = gram[j][j] + mu;
+            double[] Lj = L[j];
+            for (int k = 0; k < j; k++) {
+                diag -= Lj[k] * Lj[k];
+            }
+            if (!(diag > threshold)) {
+                return null;
+            }
+            double ljj = Math.sqrt(diag);
+            Lj[j] = ljj;
+            for (int i = j + 1; i < d; i++) {
+                double[] Li = L[i];
+                double sum = gram[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= Li[k] * Lj[k];
+                }
+                Li[j] = sum / ljj;
+            }
+        }
+        // 前代 L z = Xᵀy，回代 Lᵀ w = z / Forward solve L z = Xᵀy, back solve Lᵀ w = z
+        double[] z = gram[d].clone();
+        for (int i = 0; i < d; i++) {
+            double sum = z[i];
+            for (int k = 0; k < i; k++) {
+                sum -= L[i][k] * z[k];
+            }
+            z[i] = sum / L[i][i];
+        }
+        for (int i = d - 1; i >= 0; i--) {
+            double sum = z[i];
+            for (int k = i + 1; k < d; k++) {
+                sum -= L[k][i] * z[k];
+            }
+            z[i] = sum / L[i][i];
+        }
+        return toFloat(z);
+    }
+
+    /**
+     * 用Householder QR分解求解 / Solve with a Householder QR factorization
+     * <p>μ > 0时对增广系统 [X; √μ I] w ≈ [y; 0] 分解。条件数只为正规方程的平方根，适合病态特征 /
+     * For μ > 0 the augmented system [X; √μ I] w ≈ [y; 0] is factorized. Its condition number is the square
+     * root of that of the normal equations, which suits ill-conditioned features</p>
+     *
+     * @param rows 行主序特征 / Row-major features
+     * @param y 标签 / Labels
+     * @param d 列数 / Number of columns
+     * @param mu 岭参数 / Ridge parameter
+     * @return 解，若矩阵列秩亏损则返回null / Solution, or null if the matrix is column rank deficient
+     */
+    static float[] qr(float[][] rows, float[] y, int d, double mu) {
+        int n = rows.length;
+        int m = mu > 0 ? n + d : n;
+        if (m < d) {
+            return null;
+        }
+        // 列主序存储便于Householder变换逐列访问 / Column-major storage for column-wise Householder updates
+        double[][] cols = new double[d][m];
+        double[] rhs = new double[m];
+        double sqrtMu = Math.sqrt(Math.max(0.0, mu));
+        for (int i = 0; i < n; i++) {
+            float[] row = rows[i];
+            for (int j = 0; j < d; j++) {
+                cols[j][i] = row[j];
+            }
+            rhs[i] = y[i];
+        }
+        if (mu > 0) {
+            for (int j = 0; j < d; j++) {
+                cols[j][n + j] = sqrtMu;
+            }
+        }
+
+        double[] diagR = new double[d];
+        double maxDiag = 0.0;
+        for (int k = 0; k < d; k++) {
+            double[] v = cols[k];
+            double norm = 0.0;
+            for (int i = k; i < m; i++) {
+                norm += v[i] * v[i];
+            }
+            norm = Math.sqrt(norm);
+            double alpha = v[k] > 0 ? -norm : norm;
+            diagR[k] = alpha;
+            maxDiag = Math.max(maxDiag, norm);
+            if (norm == 0.0) {
+                continue;
+            }
+            // v = x - alpha * e_k，保存在第k列 / v = x - alpha * e_k, kept in column k
+            v[k] -= alpha;
+            double vNorm2 = 0.0;
+            for (int i = k; i < m; i++) {
+                vNorm2 += v[i] * v[i];
+            }
+            if (vNorm2 == 0.0) {
+                continue;
+            }
+            double scale = 2.0 / vNorm2;
+            final int kk = k;
+            int grain = Math.max(1, 16384 / (m - k));
+            RereExecutor.parallelFor(k + 1, d, grain, (from, to) -> {
+                for (int j = from; j < to; j++) {
+                    reflect(v, cols[j], kk, m, scale);
+                }
+            });
+            reflect(v, rhs, k, m, scale);
+        }
+        for (int k = 0; k < d; k++) {
+            if (Math.abs(diagR[k]) <= maxDiag * 1e-10) {
+                return null;
+            }
+        }
+        // 回代 R w = Qᵀy / Back solve R w = Qᵀy
+        double[] w = new double[d];
+        for (int i = d - 1; i >= 0; i--) {
+            double sum = rhs[i];
+            for (int j = i + 1; j < d; j++) {
+                sum -= cols[j][i] * w[j];
+            }
+            w[i] = sum / diagR[i];
+        }
+        return toFloat(w);
+    }
+
+    private static void reflect(double[] v, double[] target, int k, int m, double scale) {
+        double dot = 0.0;
+        for (int i = k; i < m; i++) {
+            dot += v[i] * target[i];
+        }
+        if (dot == 0.0) {
+            return;
+        }
+        double f = scale * dot;
+        for (int i = k; i < m; i++) {
+            target[i] -= f * v[i];
+        }
+    }
+
+    /**
+     * 用共轭梯度法（CGLS）求解 / Solve with conjugate gradients on the normal equations (CGLS)
+     * <p>每次迭代只需两次遍历X（计算Xp与Xᵀr），不构造XᵀX，适合宽矩阵或大量特征；从零开始迭代时收敛到最小范数解 /
+     * Each iteration makes two passes over X (Xp and Xᵀr) and never forms XᵀX, which suits wide matrices and many
+     * features; started from zero it converges to the minimum-norm solution</p>
+     *
+     * @param rows 行主序特征 / Row-major features
+     * @param y 标签 / Labels
+     * @param d 列数 / Number of columns
+     * @param mu 岭参数 / Ridge parameter
+     * @param tolerance 相对残差容差 / Relative residual tolerance
+     * @param maxIterations 最大迭代次数 / Maximum iterations
+     * @return 解 / Solution
+     */
+    static float[] cgls(float[][] rows, float[] y, int d, double mu, double tolerance, int maxIterations) {
+        int n = rows.length;
+        int blockRows = blockRows(n, MAX_BLOCKS);
+        int blocks = Math.max(1, (n + blockRows - 1) / blockRows);
+        double[][] buffers = new double[blocks][d + 1];
+
+        double[] x = new double[d];
+        double[] r = new double[n];
+        double[] q = new double[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = y[i];
+        }
+        double[] s = new double[d];
+        transposeTimes(rows, r, q, 0.0, s, buffers, blockRows);
+        double[] p = s.clone();
+        double gamma = dot(s, s);
+        double stop = tolerance * Math.sqrt(gamma);
+
+        for (int iter = 0; iter < maxIterations && Math.sqrt(gamma) > stop; iter++) {
+            // q = X p，同时累加 ||q||² / q = X p while accumulating ||q||²
+            double[] pp = p;
+            RereExecutor.parallelFor(0, blocks, 1, (from, to) -> {
+                for (int b = from; b < to; b++) {
+                    double sum = 0.0;
+                    int end = Math.min(n, (b + 1) * blockRows);
+                    for (int i = b * blockRows; i < end; i++) {
+                        float[] row = rows[i];
+                        double qi = 0.0;
+                        for (int j = 0; j < d; j++) {
+                            qi += row[j] * pp[j];
+                        }
+                        q[i] = qi;
+                        sum += qi * qi;
+                    }
+                    buffers[b][d] = sum;
+                }
+            });
+            double qq = 0.0;
+            for (double[] buffer : buffers) {
+                qq += buffer[d];
+            }
+            double delta = qq + mu * dot(p, p);
+            if (delta <= 0.0) {
+                break;
+            }
+            double alpha = gamma / delta;
+            for (int j = 0; j < d; j++) {
+                x[j] += alpha * p[j];
+            }
+            // r -= alpha q 与 s = Xᵀr - μx 在同一次遍历中完成 / r -= alpha q and s = Xᵀr - μx in one pass
+            transposeTimes(rows, r, q, alpha, s, buffers, blockRows);
+            for (int j = 0; j < d; j++) {
+                s[j] -= mu * x[j];
+            }
+            double gammaNew = dot(s, s);
+            double beta = gammaNew / gamma;
+            for (int j = 0; j < d; j++) {
+                p[j] = s[j] + beta * p[j];
+            }
+            gamma = gammaNew;
+        }
+        return toFloat(x);
+    }
+
+    /**
+     * 每块的行数：至少{@value #BLOCK_GRAIN}行，最多maxBlocks块，只取决于行数 / Rows per block: at least
+     * {@value #BLOCK_GRAIN} rows and at most maxBlocks blocks, depending only on the number of rows
+     */
+    private static int blockRows(int n, int maxBlocks) {
+        return Math.max(BLOCK_GRAIN, (int) (((long) n + maxBlocks - 1) / maxBlocks));
+    }
+
+    /**
+     * 先执行 r -= alpha q，再计算 s = Xᵀr / Apply r -= alpha q, then compute s = Xᵀr
+     */
+    private static void transposeTimes(float[][] rows, double[] r, double[] q, double alpha, double[] s,
+                                       double[][] buffers, int blockRows) {
+        int n = rows.length;
+        int d = s.length;
+        RereExecutor.parallelFor(0, buffers.length, 1, (from, to) -> {
+            for (int b = from; b < to; b++) {
+                double[] buffer = buffers[b];
+                Arrays.fill(buffer, 0, d, 0.0);
+                int end = Math.min(n, (b + 1) * blockRows);
+                for (int i = b * blockRows; i < end; i++) {
+                    double ri = r[i] - alpha * q[i];
+                    r[i] = ri;
+                    if (ri == 0.0) {
+                        continue;
+                    }
+                    float[] row = rows[i];
+                    for (int j = 0; j < d; j++) {
+                        buffer[j] += ri * row[j];
+                    }
+                }
+            }
+        });
+        Arrays.fill(s, 0.0);
+        for (double[] buffer : buffers) {
+            for (int j = 0; j < d; j++) {
+                s[j] += buffer[j];
+            }
+        }
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static float[] toFloat(double[] values) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+}
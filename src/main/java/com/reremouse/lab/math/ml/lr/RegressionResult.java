@@ -15,6 +15,10 @@ public class RegressionResult {
 
     private float loss;
 
+    private float lambda1;
+
+    private float lambda2;
+
     public IVector getWeights() {
         return weights;
     }
@@ -38,6 +42,22 @@ public class RegressionResult {
     public void setLoss(float loss) {
         this.loss = loss;
     }
+
+    public float getLambda1() {
+        return lambda1;
+    }
+
+    public void setLambda1(float lambda1) {
+        this.lambda1 = lambda1;
+    }
+
+    public float getLambda2() {
+        return lambda2;
+    }
+
+    public void setLambda2(float lambda2) {
+        this.lambda2 = lambda2;
+    }
     
     
 }
@@ -2,11 +2,19 @@ package com.reremouse.lab.math.ml.lr;
 
 import com.reremouse.lab.math.IMatrix;
 import com.reremouse.lab.math.IVector;
-import com.reremouse.lab.math.optimize.IGradientFunction;
-import com.reremouse.lab.math.optimize.IObjectiveFunction;
+import com.reremouse.lab.math.RereColumnMatrix;
+import com.reremouse.lab.math.RereSparseMatrix;
+import com.reremouse.lab.math.optimize.IDifferentiableFunction;
+import com.reremouse.lab.math.optimize.IMiniBatchObjective;
 import com.reremouse.lab.math.optimize.IOptimizer;
 import com.reremouse.lab.math.optimize.RereLBFGS;
+import com.reremouse.lab.math.optimize.RereOWLQN;
+import com.reremouse.lab.util.RereExecutor;
 import com.reremouse.lab.util.Tuple2;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * 线性回归实现类
@@ -20,10 +28,18 @@ import com.reremouse.lab.util.Tuple2;
  * </p>
  * <p>
  * 算法特点：
- * 1. 使用LBFGS优化器求解最优权重
+ * 1. 无L1正则化时使用闭式/迭代最小二乘求解器（Cholesky、QR、共轭梯度），L1与ElasticNet使用坐标下降，
+ *    也可显式指定使用LBFGS优化器；此时若存在L1正则化则自动改用{@link RereOWLQN}，得到精确为0的权重
  * 2. 支持带偏置项和不带偏置项的线性回归
  * 3. 目标函数：均方误差损失 + 正则化项（L1、L2或ElasticNet）
  * 4. 自动处理特征矩阵的增广（添加偏置列）
+ * 5. 目标函数与梯度在一次按行分块的并行遍历中同时计算，并缓存最近一次求值的点
+ * 6. 通过{@link #fitPath}一次计算热启动的L1正则化路径
+ * 7. 实现{@link IMiniBatchObjective}，可配合SGD、Adam等小批量优化器训练；实现{@link IDifferentiableFunction}，
+ *    优化器在每个点上只做一次融合求值
+ * 8. 通过{@link #partialFit}增量训练：只保存XᵀX、Xᵀy、yᵀy等O(d²)的充分统计量，不保留训练数据
+ * 9. 接受{@link RereSparseMatrix}（CSR）特征，求值与预测只访问非零元素，适合高维稀疏特征
+ * 10. 通过{@link #setWarmStart}让迭代求解器从上一次fit的解出发，适合在相邻的正则化参数上连续训练
  * </p>
  * 
  * <h3>使用示例 / Usage Example:</h3>
@@ -48,7 +64,7 @@ import com.reremouse.lab.util.Tuple2;
  * @version 2.0
  * @since 1.0
  */
-public class RereLinearRegression implements IRegression, IGradientFunction, IObjectiveFunction {
+public class RereLinearRegression implements IRegression, IMiniBatchObjective, IDifferentiableFunction {
     
     /**
      * 正则化类型枚举
@@ -64,11 +80,100 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
         ELASTIC_NET
     }
     
+    /**
+     * 求解器类型枚举
+     * <p>
+     * 最小二乘求解器（CHOLESKY、QR、CG）只适用于无L1正则化的情形（NONE或L2），
+     * 存在L1正则化时除LBFGS外的设置都使用坐标下降。
+     * </p>
+     */
+    public enum SolverType {
+        /** 根据数据形状与正则化类型自动选择 */
+        AUTO,
+        /** 使用优化器（默认LBFGS，存在L1正则化时自动改用OWL-QN）迭代求解 */
+        LBFGS,
+        /** 正规方程 + Cholesky分解，缓存XᵀX，适合样本多、特征少的数据 */
+        CHOLESKY,
+        /** Householder QR分解，适合病态（强相关）特征；需要约两倍于float数据的double列主序副本 */
+        QR,
+        /** 共轭梯度法（CGLS），不构造XᵀX，适合宽矩阵或特征很多的数据 */
+        CG,
+        /** 坐标下降，L1与ElasticNet正则化的默认求解器，得到精确的零权重 */
+        COORDINATE_DESCENT
+    }
+    
+    /**
+     * 自动选择时使用Cholesky的最大权重数量，更多特征时使用共轭梯度法
+     */
+    private static final int MAX_DIRECT_WEIGHTS = 1024;
+    
+    /**
+     * Cholesky失败后退回QR的最大元素数（(n+d)·d），超过时直接退回共轭梯度法，避免为高瘦矩阵分配稠密副本
+     */
+    private static final long MAX_QR_FALLBACK_CELLS = 1L << 24;
+    
+    /**
+     * 共轭梯度法的相对容差
+     */
+    private static final double CG_TOLERANCE = 1e-6;
+    
+    /**
+     * 共轭梯度法的最大迭代次数
+     */
+    private static final int CG_MAX_ITERATIONS = 1000;
+    
+    /**
+     * 坐标下降的相对收敛容差
+     */
+    private static final double CD_TOLERANCE = 1e-6;
+    
+    /**
+     * 坐标下降在每个λ₁下的最大扫描次数
+     */
+    private static final int CD_MAX_SWEEPS = 10000;
+    
     /**
      * 优化器，用于求解最优权重
      */
     private IOptimizer optimizer = new RereLBFGS();
     
+    /**
+     * 求解器类型
+     */
+    private SolverType solver = SolverType.AUTO;
+    
+    /**
+     * L1项是否由OWL-QN处理，为true时求值只包含光滑部分
+     */
+    private boolean l1InOptimizer = false;
+    
+    /**
+     * 最近一次fit实际使用的求解器
+     */
+    private SolverType lastSolver = null;
+    
+    /**
+     * 缓存的Gram矩阵XᵀX与Xᵀy（见{@link LeastSquares#gram}）
+     * <p>同一份训练数据仅改变L2系数后重新fit时直接复用，无需再次遍历数据。
+     * 缓存只以弱引用标识对应的训练数据，不会使调用方的特征矩阵与标签向量在fit返回后一直可达</p>
+     */
+    private double[][] cachedGram = null;
+    
+    /**
+     * 缓存的Gram矩阵对应的特征矩阵（弱引用）
+     */
+    private WeakReference<IMatrix> gramFeatures = null;
+    
+    /**
+     * 缓存的Gram矩阵对应的标签向量（弱引用）
+     */
+    private WeakReference<IVector> gramLabels = null;
+    
+    /**
+     * 缓存的Gram矩阵对应的偏置设置
+     */
+    private boolean gramIncludeBias = false;
+    
     /**
      * 训练后的权重向量（包含偏置项）
      */
@@ -113,6 +218,97 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
      * 样本数量
      */
     private int sampleCount = 0;
+    
+    /**
+     * 每个并行块的最小行数
+     */
+    private static final int BLOCK_GRAIN = 1024;
+    
+    /**
+     * 融合核的最大块数，块的划分只取决于样本数，与线程数无关
+     */
+    private static final int MAX_KERNEL_BLOCKS = 64;
+    
+    /**
+     * 增广特征矩阵的行数组（行主序，供融合核直接遍历）
+     */
+    private float[][] featureRows = null;
+    
+    /**
+     * 标签数组
+     */
+    private float[] labelData = null;
+    
+    /**
+     * 每块的行数
+     */
+    private int blockRows = 0;
+    
+    /**
+     * 各行块的局部累加缓冲区：前weightCount个元素为X^T*r的部分和，最后一个元素为残差平方和
+     * <p>在fit时分配，之后每次求值复用，不再分配</p>
+     */
+    private double[][] blockBuffers = null;
+    
+    /**
+     * 最近一次求值的点
+     */
+    private float[] cachedPoint = null;
+    
+    /**
+     * 最近一次求值的目标函数值
+     */
+    private float cachedObjective = 0.0f;
+    
+    /**
+     * 最近一次求值的梯度
+     */
+    private IVector cachedGradient = null;
+    
+    /**
+     * 增量训练累积的XᵀX与Xᵀy（{@link LeastSquares#gram}的形式），为null表示尚未调用partialFit
+     */
+    private double[][] partialGram = null;
+    
+    /**
+     * 增量训练累积的yᵀy
+     */
+    private double partialYty = 0.0;
+    
+    /**
+     * 增量训练累积的样本数量
+     */
+    private long partialCount = 0;
+    
+    /**
+     * 稀疏训练特征（不含偏置列），稠密训练时为null
+     */
+    private RereSparseMatrix sparseFeatures = null;
+    
+    /**
+     * 稀疏训练特征的转置，用于按列累加X^T*r
+     */
+    private RereSparseMatrix sparseColumns = null;
+    
+    /**
+     * 稀疏求值时每个样本的残差
+     */
+    private float[] residuals = null;
+    
+    /**
+     * 稀疏求值时各行块的残差平方和
+     */
+    private double[] blockLosses = null;
+    
+    /**
+     * 稀疏求值时按列并行的每块最小列数
+     */
+    private static final int COLUMN_GRAIN = 4096;
+    
+    /**
+     * 是否从上一次fit的解热启动
+     */
+    private boolean warmStart = false;
 
     /**
      * 默认构造函数
@@ -176,7 +372,8 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
      * @param regularizationType 正则化类型
      * @param lambda1 L1正则化系数
      * @param lambda2 L2正则化系数
-     * @param optimizer 自定义优化器
+     * @param optimizer 自定义优化器，求解器随之设为{@link SolverType#LBFGS}（使用优化器求解）；
+     *                  为null时使用默认的LBFGS优化器与{@link SolverType#AUTO}求解器
      */
     public RereLinearRegression(boolean includeBias, RegularizationType regularizationType, 
                                float lambda1, float lambda2, IOptimizer optimizer) {
@@ -184,7 +381,8 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
         this.regularizationType = regularizationType;
         this.lambda1 = lambda1;
         this.lambda2 = lambda2;
-        this.optimizer = optimizer;
+        this.optimizer = optimizer != null ? optimizer : new RereLBFGS();
+        this.solver = optimizer != null ? SolverType.LBFGS : SolverType.AUTO;
         
         // 验证参数
         validateRegularizationParameters();
@@ -196,6 +394,8 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
      * @throws IllegalArgumentException 如果正则化参数无效
      */
     private void validateRegularizationParameters() {
+        // 正则化参数变化后缓存的目标函数值不再有效
+        this.cachedGradient = null;
         switch (regularizationType) {
             case L1:
                 if (lambda1 <= 0) {
@@ -261,6 +461,11 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
      * 4. 计算最终损失值
      * 5. 返回训练结果
      * </p>
+     * <p>
+     * 训练核按行主序访问数据。列主序视图（{@link RereColumnMatrix}，如{@link com.reremouse.lab.math.data.DataFrame#asMatrix()}的结果）
+     * 在增广时直接从列数组转换一次为行主序，不经过{@link IMatrix#getData()}的额外副本；
+     * 不带偏置项时仍需通过getData()复制一次。
+     * </p>
      * 
      * @param feature 特征矩阵，每行是一个样本，每列是一个特征
      * @param labels 标签向量，对应每个样本的真实值
@@ -268,6 +473,380 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
      * @throws IllegalArgumentException 如果输入参数无效
      */
     public RegressionResult fit(IMatrix feature, IVector labels) {
+        int weightCount = prepareTraining(feature, labels);
+        IVector initialWeights = initialWeights(weightCount);
+        
+        // 求解最优权重
+        float finalLoss;
+        float[] solution = solveLeastSquares(feature, labels, weightCount);
+        if (solution != null) {
+            this.trainedWeights = IVector.of(solution);
+            finalLoss = computeObjective(this.trainedWeights);
+        } else {
+            // 使用优化器求解最优权重
+            this.lastSolver = SolverType.LBFGS;
+            Tuple2<Float, IVector> optimizationResult = runOptimizer(initialWeights);
+            this.trainedWeights = optimizationResult._2;
+            finalLoss = optimizationResult._1;
+        }
+        
+        // 创建并返回训练结果
+        return buildResult(this.trainedWeights, finalLoss, effectiveLambda1(), effectiveLambda2());
+    }
+    
+    /**
+     * 使用稀疏特征训练线性回归模型
+     * <p>
+     * 特征以CSR格式给出，不做稠密化，只额外保存一份O(nnz)的转置用于按列累加梯度。
+     * 每次求值先按行计算残差 r = Xw + b - y，再按列计算 X^T*r，两步都只访问非零元素，
+     * 内存与时间都与非零元素个数成正比。
+     * 最小二乘求解器与坐标下降需要稠密的Gram矩阵，因此稀疏输入总是使用优化器求解
+     * （默认LBFGS，也可通过{@link #setOptimizer}改用小批量优化器），求解器设置不起作用。
+     * </p>
+     * 
+     * @param feature 稀疏特征矩阵，每行是一个样本
+     * @param labels 标签向量
+     * @return 训练结果
+     * @throws IllegalArgumentException 如果输入参数无效
+     */
+    public RegressionResult fit(RereSparseMatrix feature, IVector labels) {
+        if (feature == null || labels == null) {
+            throw new IllegalArgumentException("特征矩阵和标签向量不能为null");
+        }
+        if (feature.getRowNum() != labels.length()) {
+            throw new IllegalArgumentException("样本数量不匹配：特征矩阵行数(" + feature.getRowNum() + 
+                ") != 标签向量长度(" + labels.length() + ")");
+        }
+        if (feature.getRowNum() == 0) {
+            throw new IllegalArgumentException("训练数据不能为空");
+        }
+        
+        resetPartialFit();
+        releaseTrainingData();
+        this.sampleCount = feature.getRowNum();
+        this.featureCount = feature.getColNum();
+        this.trainingLabels = labels;
+        this.labelData = labels.getData();
+        this.sparseFeatures = feature;
+        this.sparseColumns = feature.transpose();
+        this.residuals = new float[this.sampleCount];
+        this.blockRows = kernelBlockRows(this.sampleCount);
+        this.blockLosses = new double[(this.sampleCount + this.blockRows - 1) / this.blockRows];
+        
+        int weightCount = this.featureCount + (this.includeBias ? 1 : 0);
+        this.lastSolver = SolverType.LBFGS;
+        Tuple2<Float, IVector> optimizationResult = runOptimizer(initialWeights(weightCount));
+        this.trainedWeights = optimizationResult._2;
+        return buildResult(this.trainedWeights, optimizationResult._1, effectiveLambda1(), effectiveLambda2());
+    }
+    
+    /**
+     * 计算L1正则化路径
+     * <p>
+     * 对给定的一组λ₁（λ₂保持当前值）用坐标下降依次热启动求解，一次调用得到整条路径。
+     * 路径按λ₁从大到小计算，较长的路径被切分为若干段并行计算；段数只取决于λ₁的个数，结果与线程数无关。
+     * 完成后模型保存数组中最后一个λ₁对应的解，并将λ₁设置为该值。
+     * </p>
+     * 
+     * @param feature 特征矩阵，每行是一个样本，每列是一个特征
+     * @param labels 标签向量
+     * @param lambda1s L1正则化系数数组（非负，顺序任意）
+     * @return 与lambda1s顺序一致的训练结果列表
+     * @throws IllegalArgumentException 如果输入参数无效
+     */
+    public List<RegressionResult> fitPath(IMatrix feature, IVector labels, float[] lambda1s) {
+        if (lambda1s == null || lambda1s.length == 0) {
+            throw new IllegalArgumentException("λ₁数组不能为空");
+        }
+        for (float l : lambda1s) {
+            if (!(l >= 0)) {
+                throw new IllegalArgumentException("λ₁必须是非负数：" + l);
+            }
+        }
+        int weightCount = prepareTraining(feature, labels);
+        return runPath(coordinateDescent(feature, labels, weightCount), lambda1s);
+    }
+    
+    /**
+     * 计算L1正则化路径，λ₁网格自动生成
+     * <p>
+     * 网格从使所有权重为零的最小值 λ_max = max|Xᵀy|/n 开始，按对数等间距递减到 λ_max × minRatio。
+     * </p>
+     * 
+     * @param feature 特征矩阵
+     * @param labels 标签向量
+     * @param numLambdas λ₁个数（至少为2）
+     * @param minRatio 最小λ₁与λ_max之比，取值(0, 1)
+     * @return 按λ₁从大到小排列的训练结果列表
+     * @throws IllegalArgumentException 如果输入参数无效
+     */
+    public List<RegressionResult> fitPath(IMatrix feature, IVector labels, int numLambdas, float minRatio) {
+        if (numLambdas < 2) {
+            throw new IllegalArgumentException("λ₁个数至少为2");
+        }
+        if (!(minRatio > 0 && minRatio < 1)) {
+            throw new IllegalArgumentException("minRatio必须在(0, 1)之间");
+        }
+        int weightCount = prepareTraining(feature, labels);
+        CoordinateDescent cd = coordinateDescent(feature, labels, weightCount);
+        double lambdaMax = cd.lambdaMax();
+        float[] lambda1s = new float[numLambdas];
+        for (int k = 0; k < numLambdas; k++) {
+            lambda1s[k] = (float) (lambdaMax * Math.pow(minRatio, (double) k / (numLambdas - 1)));
+        }
+        return runPath(cd, lambda1s);
+    }
+    
+    /**
+     * 按λ₁从大到小计算路径，并按输入顺序返回结果
+     * 
+     * @param cd 坐标下降求解器
+     * @param lambda1s L1正则化系数数组
+     * @return 与lambda1s顺序一致的训练结果列表
+     */
+    private List<RegressionResult> runPath(CoordinateDescent cd, float[] lambda1s) {
+        int count = lambda1s.length;
+        Integer[] order = new Integer[count];
+        for (int k = 0; k < count; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, (p, q) -> Float.compare(lambda1s[q], lambda1s[p]));
+        double[] sorted = new double[count];
+        for (int k = 0; k < count; k++) {
+            sorted[k] = lambda1s[order[k]];
+        }
+        
+        float lambda2Value = effectiveLambda2();
+        float[] losses = new float[count];
+        float[][] weights = cd.path(sorted, lambda2Value, CD_TOLERANCE, CD_MAX_SWEEPS, losses);
+        
+        RegressionResult[] results = new RegressionResult[count];
+        for (int k = 0; k < count; k++) {
+            results[order[k]] = buildResult(IVector.of(weights[k]), losses[k], lambda1s[order[k]], lambda2Value);
+        }
+        
+        // 模型保存最后一个λ₁对应的解
+        this.lastSolver = SolverType.COORDINATE_DESCENT;
+        updateRegularizationType(lambda1s[count - 1], lambda2Value);
+        for (int k = 0; k < count; k++) {
+            if (order[k] == count - 1) {
+                this.trainedWeights = IVector.of(weights[k]);
+            }
+        }
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * 使用一批新数据增量训练
+     * <p>
+     * 将本批数据的XᵀX、Xᵀy与yᵀy累加到充分统计量上，再由统计量求解，
+     * 结果与在此前所有批次的并集上调用fit相同（L1/ElasticNet使用协方差坐标下降，否则使用Cholesky）。
+     * 模型只保存O(d²)的统计量，不保留训练数据，因此之后不能再调用computeObjective/computeGradient。
+     * 调用fit或fitPath会从头训练并清空统计量；{@link #resetPartialFit}可显式清空。
+     * 不论求解器设置如何，增量训练总是由充分统计量求解。
+     * </p>
+     * 
+     * @param feature 本批特征矩阵
+     * @param labels 本批标签向量
+     * @return 基于所有已累积数据的训练结果
+     * @throws IllegalArgumentException 如果输入参数无效或特征数与之前的批次不一致
+     */
+    public RegressionResult partialFit(IMatrix feature, IVector labels) {
+        if (feature == null || labels == null) {
+            throw new IllegalArgumentException("特征矩阵和标签向量不能为null");
+        }
+        if (feature.getRowNum() != labels.length()) {
+            throw new IllegalArgumentException("样本数量不匹配：特征矩阵行数(" + feature.getRowNum() + 
+                ") != 标签向量长度(" + labels.length() + ")");
+        }
+        accumulateStatistics(feature.getData(), -1, labels.getData());
+        return solveStatistics();
+    }
+    
+    /**
+     * 使用矩阵批次序列增量训练，例如{@code StreamFrame.toMatrixBatches()}
+     * <p>
+     * 每个批次中labelColumn列为标签，其余列按顺序为特征。所有批次累加完后只求解一次。
+     * </p>
+     * 
+     * @param batches 矩阵批次迭代器
+     * @param labelColumn 标签所在列
+     * @return 基于所有已累积数据的训练结果
+     * @throws IllegalArgumentException 如果输入参数无效或没有任何样本
+     */
+    public RegressionResult partialFit(Iterator<IMatrix> batches, int labelColumn) {
+        if (batches == null) {
+            throw new IllegalArgumentException("批次迭代器不能为null");
+        }
+        if (labelColumn < 0) {
+            throw new IllegalArgumentException("标签列索引不能为负：" + labelColumn);
+        }
+        while (batches.hasNext()) {
+            IMatrix batch = batches.next();
+            if (batch.getRowNum() == 0) {
+                continue;
+            }
+            if (labelColumn >= batch.getColNum()) {
+                throw new IllegalArgumentException("标签列索引(" + labelColumn + ")超出列数(" + batch.getColNum() + ")");
+            }
+            accumulateStatistics(batch.getData(), labelColumn, null);
+        }
+        return solveStatistics();
+    }
+    
+    /**
+     * 清空增量训练的充分统计量
+     */
+    public void resetPartialFit() {
+        this.partialGram = null;
+        this.partialYty = 0.0;
+        this.partialCount = 0;
+    }
+    
+    /**
+     * 将一批数据累加到充分统计量上
+     * <p>
+     * 本批数据被增广为临时的行主序数组（大小与批次成正比），由{@link LeastSquares#gram}并行累加后即可丢弃。
+     * </p>
+     * 
+     * @param rows 行主序数据
+     * @param labelColumn 标签所在列，为负时标签由labels给出
+     * @param labels 标签数组（labelColumn为负时使用）
+     */
+    private void accumulateStatistics(float[][] rows, int labelColumn, float[] labels) {
+        int n = rows.length;
+        if (n == 0) {
+            return;
+        }
+        int inputCount = rows[0].length - (labelColumn >= 0 ? 1 : 0);
+        if (this.partialGram != null && inputCount != this.featureCount) {
+            throw new IllegalArgumentException("特征数量不匹配：本批(" + inputCount + 
+                ") != 之前的批次(" + this.featureCount + ")");
+        }
+        int weightCount = inputCount + (this.includeBias ? 1 : 0);
+        
+        float[][] augmented = rows;
+        float[] y = labels;
+        if (labelColumn >= 0 || this.includeBias) {
+            augmented = new float[n][weightCount];
+            for (int i = 0; i < n; i++) {
+                float[] row = rows[i];
+                float[] target = augmented[i];
+                if (labelColumn >= 0) {
+                    System.arraycopy(row, 0, target, 0, labelColumn);
+                    System.arraycopy(row, labelColumn + 1, target, labelColumn, inputCount - labelColumn);
+                } else {
+                    System.arraycopy(row, 0, target, 0, inputCount);
+                }
+                if (this.includeBias) {
+                    target[inputCount] = 1.0f;
+                }
+            }
+        }
+        if (labelColumn >= 0) {
+            y = new float[n];
+            for (int i = 0; i < n; i++) {
+                y[i] = rows[i][labelColumn];
+            }
+        }
+        
+        double[][] gram = LeastSquares.gram(augmented, y, weightCount);
+        if (this.partialGram == null) {
+            this.partialGram = gram;
+            this.featureCount = inputCount;
+        } else {
+            for (int a = 0; a <= weightCount; a++) {
+                double[] target = this.partialGram[a];
+                double[] source = gram[a];
+                for (int c = 0; c < weightCount; c++) {
+                    target[c] += source[c];
+                }
+            }
+        }
+        for (float v : y) {
+            this.partialYty += (double) v * v;
+        }
+        this.partialCount += n;
+    }
+    
+    /**
+     * 释放fit保留的训练数据（稠密与稀疏）并使求值缓存失效
+     */
+    private void releaseTrainingData() {
+        this.augmentedFeatures = null;
+        this.trainingLabels = null;
+        this.featureRows = null;
+        this.labelData = null;
+        this.blockBuffers = null;
+        this.sparseFeatures = null;
+        this.sparseColumns = null;
+        this.residuals = null;
+        this.blockLosses = null;
+        this.cachedPoint = null;
+        this.cachedGradient = null;
+    }
+    
+    /**
+     * 由充分统计量求解权重，并释放此前fit保留的训练数据
+     * 
+     * @return 训练结果
+     * @throws IllegalArgumentException 如果尚未累积任何样本
+     */
+    private RegressionResult solveStatistics() {
+        if (this.partialGram == null) {
+            throw new IllegalArgumentException("训练数据不能为空");
+        }
+        
+        // 只保留统计量，释放训练数据
+        releaseTrainingData();
+        clearGramCache();
+        this.sampleCount = (int) Math.min(this.partialCount, Integer.MAX_VALUE);
+        
+        int weightCount = this.partialGram.length - 1;
+        float l1 = effectiveLambda1();
+        float l2 = effectiveLambda2();
+        float[] solution = null;
+        if (l1 == 0.0f) {
+            solution = LeastSquares.cholesky(this.partialGram, (double) l2 * this.partialCount);
+            this.lastSolver = SolverType.CHOLESKY;
+        }
+        float loss;
+        if (solution == null) {
+            // L1正则化或XᵀX奇异（如样本少于特征）时使用协方差坐标下降
+            float[] losses = new float[1];
+            solution = CoordinateDescent.covariance(this.partialGram, this.partialYty, this.partialCount)
+                .path(new double[]{l1}, l2, CD_TOLERANCE, CD_MAX_SWEEPS, losses)[0];
+            loss = losses[0];
+            this.lastSolver = SolverType.COORDINATE_DESCENT;
+        } else {
+            // (wᵀXᵀXw - 2wᵀXᵀy + yᵀy) / 2n + R(w)
+            double quadratic = 0.0;
+            double linear = 0.0;
+            for (int a = 0; a < weightCount; a++) {
+                double row = 0.0;
+                for (int c = 0; c < weightCount; c++) {
+                    row += this.partialGram[a][c] * solution[c];
+                }
+                quadratic += solution[a] * row;
+                linear += solution[a] * this.partialGram[weightCount][a];
+            }
+            double residual = Math.max(0.0, quadratic - 2.0 * linear + this.partialYty);
+            loss = (float) (residual / (2.0 * this.partialCount)) + addRegularization(solution, new float[weightCount]);
+        }
+        
+        this.trainedWeights = IVector.of(solution);
+        return buildResult(this.trainedWeights, loss, l1, l2);
+    }
+    
+    /**
+     * 校验并保存训练数据，增广特征矩阵并准备融合核
+     * 
+     * @param feature 特征矩阵
+     * @param labels 标签向量
+     * @return 权重数量（包括偏置项）
+     * @throws IllegalArgumentException 如果输入参数无效
+     */
+    private int prepareTraining(IMatrix feature, IVector labels) {
         // 参数验证
         if (feature == null || labels == null) {
             throw new IllegalArgumentException("特征矩阵和标签向量不能为null");
@@ -280,6 +859,10 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
             throw new IllegalArgumentException("训练数据不能为空");
         }
         
+        // 从头训练，清空增量统计量与此前的训练数据
+        resetPartialFit();
+        releaseTrainingData();
+        
         // 保存训练数据
         this.sampleCount = feature.getRowNum();
         this.featureCount = feature.getColNum();
@@ -287,48 +870,42 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
         
         // 增广特征矩阵（添加偏置列）
         this.augmentedFeatures = augmentFeatures(feature);
-        
-        // 初始化权重向量
         int weightCount = this.augmentedFeatures.getColNum();
-        IVector initialWeights = IVector.zeros(weightCount);
         
-        // 使用优化器求解最优权重
-        Tuple2<Float, IVector> optimizationResult = optimizer.optimize(
-            initialWeights, this, this);
-        
-        // 保存训练结果
-        this.trainedWeights = optimizationResult._2;
-        float finalLoss = optimizationResult._1;
-        
-        // 创建并返回训练结果
+        // 准备融合核使用的原始数组与每块的累加缓冲区
+        prepareKernel(labels, weightCount);
+        return weightCount;
+    }
+    
+    /**
+     * 由完整权重向量创建训练结果，分离特征权重和偏置项
+     * 
+     * @param fullWeights 完整权重向量（包括偏置项，如果启用）
+     * @param loss 目标函数值
+     * @param lambda1Value 使用的L1正则化系数
+     * @param lambda2Value 使用的L2正则化系数
+     * @return 训练结果
+     */
+    private RegressionResult buildResult(IVector fullWeights, float loss, float lambda1Value, float lambda2Value) {
         RegressionResult result = new RegressionResult();
         
         // 分离特征权重和偏置项
-        if (this.includeBias && this.trainedWeights != null) {
+        if (this.includeBias && fullWeights != null) {
             // 包含偏置项：权重向量的最后一个元素是偏置项
-            int featureWeightCount = this.trainedWeights.length() - 1;
-            
-            // 提取特征权重（不包括偏置项）
-            float[] featureWeights = new float[featureWeightCount];
-            for (int i = 0; i < featureWeightCount; i++) {
-                featureWeights[i] = this.trainedWeights.getData()[i];
-            }
-            IVector featureWeightVector = IVector.of(featureWeights);
-            
-            // 提取偏置项（权重向量的最后一个元素）
-            float biasValue = this.trainedWeights.getData()[featureWeightCount];
-            IVector biasVector = IVector.of(new float[]{biasValue});
-            
-            result.setWeights(featureWeightVector);
-            result.setBias(biasVector);
+            int featureWeightCount = fullWeights.length() - 1;
+            float[] featureWeights = Arrays.copyOf(fullWeights.getData(), featureWeightCount);
+            float biasValue = fullWeights.getData()[featureWeightCount];
+            result.setWeights(IVector.of(featureWeights));
+            result.setBias(IVector.of(new float[]{biasValue}));
         } else {
             // 不包含偏置项：整个权重向量都是特征权重
-            result.setWeights(this.trainedWeights);
+            result.setWeights(fullWeights);
             result.setBias(IVector.of(new float[]{0.0f})); // 偏置项为0
         }
         
-        result.setLoss(finalLoss);
-        
+        result.setLoss(loss);
+        result.setLambda1(lambda1Value);
+        result.setLambda2(lambda2Value);
         return result;
     }
 
@@ -336,9 +913,10 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
     /**
      * 基于输入特征向量预测目标值
      * <p>
-     * 预测公式：y = w^T * x_aug，其中：
-     * - w 是训练得到的权重向量
-     * - x_aug 是增广后的特征向量（包含偏置项）
+     * 预测公式：y = w^T * x + b，其中：
+     * - w 是训练得到的特征权重
+     * - b 是偏置项（不包含偏置时为0）
+     * 直接读取权重数组，不构造增广向量。
      * </p>
      * 
      * @param x 输入特征向量
@@ -358,13 +936,144 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
                 ") != 训练时特征数(" + this.featureCount + ")");
         }
         
-        // 增广输入特征向量
-        IVector augmentedX = augmentFeatureVector(x);
+        float[] w = this.trainedWeights.getData();
+        float intercept = this.includeBias ? w[this.featureCount] : 0.0f;
+        return dot(x.getData(), w, this.featureCount) + intercept;
+    }
+    
+    /**
+     * 批量预测
+     * 
+     * @param features 特征矩阵，每行是一个样本
+     * @return 预测值数组
+     * @throws IllegalStateException 如果模型尚未训练
+     * @throws IllegalArgumentException 如果输入特征维度不匹配
+     */
+    public float[] predictBatch(IMatrix features) {
+        if (features == null) {
+            throw new IllegalArgumentException("特征矩阵不能为null");
+        }
+        return predictBatch(features, new float[features.getRowNum()]);
+    }
+    
+    /**
+     * 批量预测，结果写入调用方提供的数组
+     * <p>
+     * 计算 X * w + b：按行分块在线程池中并行，每行与权重数组做一次点积，不创建中间向量。
+     * 调用方可以复用output数组，避免每批分配。
+     * </p>
+     * 
+     * @param features 特征矩阵，每行是一个样本
+     * @param output 输出数组，长度不小于样本数
+     * @return output
+     * @throws IllegalStateException 如果模型尚未训练
+     * @throws IllegalArgumentException 如果输入特征维度不匹配或输出数组过短
+     */
+    public float[] predictBatch(IMatrix features, float[] output) {
+        if (this.trainedWeights == null) {
+            throw new IllegalStateException("模型尚未训练，请先调用fit方法");
+        }
+        if (features == null || output == null) {
+            throw new IllegalArgumentException("特征矩阵和输出数组不能为null");
+        }
+        int n = features.getRowNum();
+        if (n > 0 && features.getColNum() != this.featureCount) {
+            throw new IllegalArgumentException("特征维度不匹配：输入(" + features.getColNum() + 
+                ") != 训练时特征数(" + this.featureCount + ")");
+        }
+        if (output.length < n) {
+            throw new IllegalArgumentException("输出数组长度(" + output.length + ")小于样本数(" + n + ")");
+        }
         
-        // 计算预测值：w^T * x
-        float prediction = this.trainedWeights.innerProduct(augmentedX);
+        float[][] rows = features.getData();
+        float[] w = this.trainedWeights.getData();
+        int d = this.featureCount;
+        float intercept = this.includeBias ? w[d] : 0.0f;
+        RereExecutor.parallelFor(0, n, BLOCK_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                output[i] = dot(rows[i], w, d) + intercept;
+            }
+        });
+        return output;
+    }
+    
+    /**
+     * 稀疏特征的批量预测
+     * 
+     * @param features 稀疏特征矩阵，每行是一个样本
+     * @return 预测值数组
+     * @throws IllegalStateException 如果模型尚未训练
+     * @throws IllegalArgumentException 如果输入特征维度不匹配
+     */
+    public float[] predictBatch(RereSparseMatrix features) {
+        if (features == null) {
+            throw new IllegalArgumentException("特征矩阵不能为null");
+        }
+        return predictBatch(features, new float[features.getRowNum()]);
+    }
+    
+    /**
+     * 稀疏特征的批量预测，结果写入调用方提供的数组
+     * <p>
+     * 按行分块并行，每行只访问其非零元素对应的权重。
+     * </p>
+     * 
+     * @param features 稀疏特征矩阵，每行是一个样本
+     * @param output 输出数组，长度不小于样本数
+     * @return output
+     * @throws IllegalStateException 如果模型尚未训练
+     * @throws IllegalArgumentException 如果输入特征维度不匹配或输出数组过短
+     */
+    public float[] predictBatch(RereSparseMatrix features, float[] output) {
+        if (this.trainedWeights == null) {
+            throw new IllegalStateException("模型尚未训练，请先调用fit方法");
+        }
+        if (features == null || output == null) {
+            throw new IllegalArgumentException("特征矩阵和输出数组不能为null");
+        }
+        int n = features.getRowNum();
+        if (features.getColNum() != this.featureCount) {
+            throw new IllegalArgumentException("特征维度不匹配：输入(" + features.getColNum() + 
+                ") != 训练时特征数(" + this.featureCount + ")");
+        }
+        if (output.length < n) {
+            throw new IllegalArgumentException("输出数组长度(" + output.length + ")小于样本数(" + n + ")");
+        }
         
-        return prediction;
+        float[] w = this.trainedWeights.getData();
+        float intercept = this.includeBias ? w[this.featureCount] : 0.0f;
+        RereExecutor.parallelFor(0, n, BLOCK_GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                output[i] = features.rowDot(i, w) + intercept;
+            }
+        });
+        return output;
+    }
+    
+    /**
+     * 前d个元素的点积，使用4个独立累加器以减少依赖链
+     * 
+     * @param a 数组a
+     * @param b 数组b
+     * @param d 长度
+     * @return 点积
+     */
+    private static float dot(float[] a, float[] b, int d) {
+        float s0 = 0.0f;
+        float s1 = 0.0f;
+        float s2 = 0.0f;
+        float s3 = 0.0f;
+        int j = 0;
+        for (; j + 3 < d; j += 4) {
+            s0 += a[j] * b[j];
+            s1 += a[j + 1] * b[j + 1];
+            s2 += a[j + 2] * b[j + 2];
+            s3 += a[j + 3] * b[j + 3];
+        }
+        for (; j < d; j++) {
+            s0 += a[j] * b[j];
+        }
+        return (s0 + s1) + (s2 + s3);
     }
 
     @Override
@@ -394,26 +1103,13 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
      * @return 梯度向量
      */
     public IVector computeGradient(IVector w) {
-        if (this.augmentedFeatures == null || this.trainingLabels == null) {
+        if (this.trainingLabels == null) {
             throw new IllegalStateException("模型尚未训练，请先调用fit方法");
         }
         
-        // 计算预测值：X * w
-        IVector predictions = computePredictions(w);
-        
-        // 计算残差：X * w - y
-        IVector residuals = predictions.sub(this.trainingLabels);
-        
-        // 计算梯度：(1/n) * X^T * residuals
-        IVector gradient = computeMatrixVectorGradient(residuals);
-        
-        // 添加正则化项的梯度
-        IVector regularizationGradient = computeRegularizationGradient(w);
-        if (regularizationGradient != null) {
-            gradient = gradient.add(regularizationGradient);
-        }
-        
-        return gradient;
+        // 目标函数值与梯度在同一次遍历中计算，同一点重复调用直接返回缓存
+        evaluate(w);
+        return this.cachedGradient;
     }
 
     @Override
@@ -432,127 +1128,471 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
      * @return 目标函数值
      */
     public float computeObjective(IVector w) {
-        if (this.augmentedFeatures == null || this.trainingLabels == null) {
+        if (this.trainingLabels == null) {
             throw new IllegalStateException("模型尚未训练，请先调用fit方法");
         }
         
-        // 计算预测值
-        IVector predictions = computePredictions(w);
-        
-        // 计算残差
-        IVector residuals = predictions.sub(this.trainingLabels);
+        evaluate(w);
+        return this.cachedObjective;
+    }
+    
+    /**
+     * 一次融合求值同时得到目标函数值与梯度
+     * 
+     * @param w 权重向量（包括偏置项）
+     * @param gradient 梯度输出缓冲区
+     * @return 目标函数值
+     */
+    @Override
+    public float evaluate(IVector w, float[] gradient) {
+        if (this.trainingLabels == null) {
+            throw new IllegalStateException("模型尚未训练，请先调用fit方法");
+        }
         
-        // 计算均方误差：(1/2n) * ||residuals||^2
-        float mse = residuals.innerProduct(residuals) / (2.0f * this.sampleCount);
+        evaluate(w);
+        System.arraycopy(this.cachedGradient.getData(), 0, gradient, 0, gradient.length);
+        return this.cachedObjective;
+    }
+    
+    /**
+     * 在一批样本上计算目标函数值与梯度
+     * <p>
+     * J_B(w) = (1/2|B|) * Σ_{i∈B} (x_i^T * w - y_i)² + R(w)，梯度写入gradient。
+     * 直接读取行主序数组，不经过融合核的缓存，供小批量优化器使用。
+     * </p>
+     * 
+     * @param w 权重数组
+     * @param indices 样本索引
+     * @param from 起始位置（包含）
+     * @param to 结束位置（不包含）
+     * @param gradient 梯度数组（覆盖写入）
+     * @return 批内目标函数值
+     */
+    @Override
+    public float computeBatchGradient(float[] w, int[] indices, int from, int to, float[] gradient) {
+        if (this.trainingLabels == null) {
+            throw new IllegalStateException("模型尚未训练，请先调用fit方法");
+        }
+        if (this.sparseFeatures != null) {
+            return computeSparseBatchGradient(w, indices, from, to, gradient);
+        }
+        int d = w.length;
+        Arrays.fill(gradient, 0.0f);
+        double squaredError = 0.0;
+        for (int k = from; k < to; k++) {
+            int i = indices[k];
+            float[] row = this.featureRows[i];
+            float prediction = 0.0f;
+            for (int j = 0; j < d; j++) {
+                prediction += row[j] * w[j];
+            }
+            float residual = prediction - this.labelData[i];
+            squaredError += (double) residual * residual;
+            for (int j = 0; j < d; j++) {
+                gradient[j] += residual * row[j];
+            }
+        }
+        int batch = to - from;
+        for (int j = 0; j < d; j++) {
+            gradient[j] /= batch;
+        }
+        return (float) (squaredError / (2.0 * batch)) + addRegularization(w, gradient);
+    }
+    
+    /**
+     * 稀疏特征上的小批量目标函数值与梯度，每个样本只访问其非零元素
+     * 
+     * @param w 权重数组
+     * @param indices 样本索引
+     * @param from 起始位置（包含）
+     * @param to 结束位置（不包含）
+     * @param gradient 梯度数组（覆盖写入）
+     * @return 批内目标函数值
+     */
+    private float computeSparseBatchGradient(float[] w, int[] indices, int from, int to, float[] gradient) {
+        int d = this.featureCount;
+        int[] pointers = this.sparseFeatures.getRowPointers();
+        int[] columns = this.sparseFeatures.getColumnIndices();
+        float[] values = this.sparseFeatures.getValues();
+        float intercept = this.includeBias ? w[d] : 0.0f;
+        Arrays.fill(gradient, 0.0f);
+        double squaredError = 0.0;
+        for (int k = from; k < to; k++) {
+            int i = indices[k];
+            float residual = this.sparseFeatures.rowDot(i, w) + intercept - this.labelData[i];
+            squaredError += (double) residual * residual;
+            for (int p = pointers[i]; p < pointers[i + 1]; p++) {
+                gradient[columns[p]] += residual * values[p];
+            }
+            if (this.includeBias) {
+                gradient[d] += residual;
+            }
+        }
+        int batch = to - from;
+        for (int j = 0; j < gradient.length; j++) {
+            gradient[j] /= batch;
+        }
+        return (float) (squaredError / (2.0 * batch)) + addRegularization(w, gradient);
+    }
+    
+    /**
+     * 使用最小二乘求解器或坐标下降求解
+     * <p>
+     * 存在L1正则化（或显式指定）时使用坐标下降。
+     * 目标函数 (1/2n)||Xw - y||² + (λ₂/2)||w||² 的最优解满足 (XᵀX + nλ₂I)w = Xᵀy。
+     * AUTO模式下：权重数量不超过样本数且不超过{@value #MAX_DIRECT_WEIGHTS}时使用Cholesky，否则使用共轭梯度法。
+     * Cholesky失败（特征共线导致矩阵不正定）时，(n+d)·d不超过{@value #MAX_QR_FALLBACK_CELLS}则退回QR，
+     * 否则直接退回共轭梯度法；QR发现列秩亏损时同样退回共轭梯度法（收敛到最小范数解）。
+     * </p>
+     * 
+     * @param feature 原始特征矩阵
+     * @param labels 标签向量
+     * @param weightCount 权重数量（包括偏置项）
+     * @return 最优权重，若应使用优化器求解则返回null
+     */
+    private float[] solveLeastSquares(IMatrix feature, IVector labels, int weightCount) {
+        if (solver == SolverType.LBFGS) {
+            return null;
+        }
+        if (effectiveLambda1() > 0 || solver == SolverType.COORDINATE_DESCENT) {
+            this.lastSolver = SolverType.COORDINATE_DESCENT;
+            return coordinateDescent(feature, labels, weightCount).path(new double[]{effectiveLambda1()},
+                effectiveLambda2(), CD_TOLERANCE, CD_MAX_SWEEPS, null, initialWeights(weightCount).getData())[0];
+        }
+        double mu = (double) effectiveLambda2() * this.sampleCount;
         
-        // 计算正则化项
-        float regularization = computeRegularizationTerm(w);
+        SolverType chosen = solver;
+        if (chosen == SolverType.AUTO) {
+            chosen = weightCount <= this.sampleCount && weightCount <= MAX_DIRECT_WEIGHTS
+                ? SolverType.CHOLESKY : SolverType.CG;
+        }
         
-        return mse + regularization;
+        float[] solution = null;
+        if (chosen == SolverType.CHOLESKY) {
+            solution = LeastSquares.cholesky(gram(feature, labels, weightCount), mu);
+            if (solution == null) {
+                // QR需要(n+d)·d个double的稠密副本，高瘦矩阵直接改用不额外复制数据的CGLS
+                long qrCells = ((long) this.sampleCount + weightCount) * weightCount;
+                chosen = qrCells <= MAX_QR_FALLBACK_CELLS ? SolverType.QR : SolverType.CG;
+            }
+        }
+        if (chosen == SolverType.QR) {
+            solution = LeastSquares.qr(this.featureRows, this.labelData, weightCount, mu);
+            if (solution == null) {
+                chosen = SolverType.CG;
+            }
+        }
+        if (chosen == SolverType.CG) {
+            solution = LeastSquares.cgls(this.featureRows, this.labelData, weightCount, mu,
+                CG_TOLERANCE, CG_MAX_ITERATIONS);
+        }
+        this.lastSolver = chosen;
+        return solution;
     }
     
     /**
-     * 计算正则化项的值
+     * 使用优化器求解
+     * <p>
+     * 存在L1正则化且优化器为LBFGS时改用同样参数的{@link RereOWLQN}：求值期间目标函数与梯度只包含光滑部分，
+     * L1项由OWL-QN按象限处理，返回的最优值仍包含L1项。
+     * </p>
      * 
-     * @param w 权重向量
-     * @return 正则化项的值
+     * @param initialWeights 初始权重
+     * @return 最优值与最优权重
      */
-    private float computeRegularizationTerm(IVector w) {
-        switch (regularizationType) {
-            case L1:
-                return lambda1 * computeL1Norm(w);
-            case L2:
-                return lambda2 * w.innerProduct(w) / 2.0f;
-            case ELASTIC_NET:
-                return lambda1 * computeL1Norm(w) + lambda2 * w.innerProduct(w) / 2.0f;
-            case NONE:
-            default:
-                return 0.0f;
+    private Tuple2<Float, IVector> runOptimizer(IVector initialWeights) {
+        float l1 = effectiveLambda1();
+        if (!(optimizer instanceof RereLBFGS) || l1 <= 0) {
+            return optimizer.optimize(initialWeights, this, this);
+        }
+        RereLBFGS lbfgs = (RereLBFGS) optimizer;
+        RereOWLQN owlqn = new RereOWLQN(l1, lbfgs.getM(), lbfgs.getTolerance(), lbfgs.getMaxIterations());
+        owlqn.setListener(lbfgs.getListener());
+        this.l1InOptimizer = true;
+        this.cachedPoint = null;
+        try {
+            return owlqn.optimize(initialWeights, this, this);
+        } finally {
+            this.l1InOptimizer = false;
+            this.cachedPoint = null;
         }
     }
     
     /**
-     * 计算正则化项的梯度
+     * 迭代求解的初始权重：开启热启动且上一次的解维度相同时复制该解，否则为零向量
      * 
-     * @param w 权重向量
-     * @return 正则化项的梯度向量，如果无正则化则返回null
+     * @param weightCount 权重数量（包括偏置项）
+     * @return 初始权重
      */
-    private IVector computeRegularizationGradient(IVector w) {
-        switch (regularizationType) {
-            case L1:
-                return computeL1Gradient(w);
-            case L2:
-                return w.multiplyScalar(lambda2);
-            case ELASTIC_NET:
-                return computeElasticNetGradient(w);
-            case NONE:
-            default:
-                return null;
+    private IVector initialWeights(int weightCount) {
+        if (this.warmStart && this.trainedWeights != null && this.trainedWeights.length() == weightCount) {
+            return IVector.of(this.trainedWeights.getData().clone());
         }
+        return IVector.zeros(weightCount);
     }
     
     /**
-     * 计算L1范数：||w||₁ = Σ|wᵢ|
+     * 创建坐标下降求解器：权重不多时使用基于缓存Gram矩阵的协方差更新，否则使用残差更新
      * 
-     * @param w 权重向量
-     * @return L1范数值
+     * @param feature 原始特征矩阵
+     * @param labels 标签向量
+     * @param weightCount 权重数量（包括偏置项）
+     * @return 坐标下降求解器
+     */
+    private CoordinateDescent coordinateDescent(IMatrix feature, IVector labels, int weightCount) {
+        if (weightCount <= MAX_DIRECT_WEIGHTS) {
+            return CoordinateDescent.covariance(gram(feature, labels, weightCount), this.labelData);
+        }
+        return CoordinateDescent.naive(this.featureRows, this.labelData, weightCount);
+    }
+    
+    /**
+     * 当前正则化类型下实际生效的L1系数
+     * 
+     * @return L1系数
      */
-    private float computeL1Norm(IVector w) {
-        float[] data = w.getData();
-        float sum = 0.0f;
-        for (int i = 0; i < data.length; i++) {
-            sum += Math.abs(data[i]);
+    private float effectiveLambda1() {
+        return regularizationType == RegularizationType.L1 || regularizationType == RegularizationType.ELASTIC_NET
+            ? lambda1 : 0.0f;
+    }
+    
+    /**
+     * 当前正则化类型下实际生效的L2系数
+     * 
+     * @return L2系数
+     */
+    private float effectiveLambda2() {
+        return regularizationType == RegularizationType.L2 || regularizationType == RegularizationType.ELASTIC_NET
+            ? lambda2 : 0.0f;
+    }
+    
+    /**
+     * 获取Gram矩阵，同一份训练数据（同一对象且偏置设置相同）直接复用缓存
+     * 
+     * @param feature 原始特征矩阵
+     * @param labels 标签向量
+     * @param weightCount 权重数量（包括偏置项）
+     * @return Gram矩阵与Xᵀy
+     */
+    private double[][] gram(IMatrix feature, IVector labels, int weightCount) {
+        if (this.cachedGram == null || this.gramFeatures.get() != feature || this.gramLabels.get() != labels
+                || this.gramIncludeBias != this.includeBias) {
+            this.cachedGram = LeastSquares.gram(this.featureRows, this.labelData, weightCount);
+            this.gramFeatures = new WeakReference<>(feature);
+            this.gramLabels = new WeakReference<>(labels);
+            this.gramIncludeBias = this.includeBias;
         }
-        return sum;
+        return this.cachedGram;
+    }
+    
+    /**
+     * 准备融合核：取出行主序数组并按行分块分配累加缓冲区
+     * 
+     * @param labels 标签向量
+     * @param weightCount 权重数量（包括偏置项）
+     */
+    private void prepareKernel(IVector labels, int weightCount) {
+        this.featureRows = this.augmentedFeatures.getData();
+        this.labelData = labels.getData();
+        
+        // 块数不超过MAX_KERNEL_BLOCKS，每块至少BLOCK_GRAIN行
+        this.blockRows = kernelBlockRows(this.sampleCount);
+        int blocks = (this.sampleCount + this.blockRows - 1) / this.blockRows;
+        this.blockBuffers = new double[blocks][weightCount + 1];
+        
+        this.cachedPoint = null;
+        this.cachedGradient = null;
+    }
+    
+    /**
+     * 融合核每块的行数：至少{@value #BLOCK_GRAIN}行，最多{@value #MAX_KERNEL_BLOCKS}块。
+     * 只取决于样本数，因此按块顺序归约的结果与线程数无关
+     * 
+     * @param n 样本数
+     * @return 每块行数
+     */
+    private static int kernelBlockRows(int n) {
+        return Math.max(BLOCK_GRAIN, (int) (((long) n + MAX_KERNEL_BLOCKS - 1) / MAX_KERNEL_BLOCKS));
     }
     
     /**
-     * 计算L1正则化的梯度
+     * 融合求值：一次按行遍历同时计算目标函数值与梯度
      * <p>
-     * L1正则化的梯度是符号函数：∇||w||₁ = sign(w)
-     * 其中sign(wᵢ) = 1 if wᵢ > 0, -1 if wᵢ < 0, 0 if wᵢ = 0
+     * 对每一行计算残差 r_i = x_i^T * w - y_i，累加 r_i² 与 r_i * x_i。
+     * 各行块在线程池中并行处理，结果写入该块自己的缓冲区，最后按块顺序归约，
+     * 因此结果与线程数无关。若w与最近一次求值的点相同则直接使用缓存。
      * </p>
      * 
      * @param w 权重向量
-     * @return L1正则化的梯度向量
-     */
-    private IVector computeL1Gradient(IVector w) {
-        float[] data = w.getData();
-        float[] gradient = new float[data.length];
-        
-        for (int i = 0; i < data.length; i++) {
-            if (data[i] > 0) {
-                gradient[i] = lambda1;
-            } else if (data[i] < 0) {
-                gradient[i] = -lambda1;
-            } else {
-                // 当wᵢ = 0时，使用次梯度，这里选择0
-                gradient[i] = 0.0f;
+     */
+    private void evaluate(IVector w) {
+        float[] weights = w.getData();
+        if (this.cachedGradient != null && Arrays.equals(weights, this.cachedPoint)) {
+            return;
+        }
+        if (this.sparseFeatures != null) {
+            evaluateSparse(weights);
+            return;
+        }
+        if (weights.length != this.blockBuffers[0].length - 1) {
+            throw new IllegalArgumentException("权重维度不匹配：输入(" + weights.length + 
+                ") != 期望(" + (this.blockBuffers[0].length - 1) + ")");
+        }
+        
+        int d = weights.length;
+        RereExecutor.parallelFor(0, this.blockBuffers.length, 1, (from, to) -> {
+            for (int b = from; b < to; b++) {
+                accumulateBlock(weights, b);
             }
+        });
+        
+        // 按块顺序归约
+        double squaredError = 0.0;
+        double[] sums = new double[d];
+        for (double[] buffer : this.blockBuffers) {
+            for (int j = 0; j < d; j++) {
+                sums[j] += buffer[j];
+            }
+            squaredError += buffer[d];
+        }
+        
+        float[] gradient = new float[d];
+        for (int j = 0; j < d; j++) {
+            gradient[j] = (float) (sums[j] / this.sampleCount);
         }
+        float regularization = addRegularization(weights, gradient);
         
-        return IVector.of(gradient);
+        this.cachedObjective = (float) (squaredError / (2.0 * this.sampleCount)) + regularization;
+        this.cachedGradient = IVector.of(gradient);
+        this.cachedPoint = weights.clone();
     }
     
     /**
-     * 计算ElasticNet正则化的梯度
+     * 稀疏特征上的融合求值
      * <p>
-     * ElasticNet = L1 + L2，所以梯度是两者的组合：
-     * ∇R(w) = λ₁ * sign(w) + λ₂ * w
+     * 1. 按行分块并行计算残差 r_i = x_i^T * w + b - y_i，各块的残差平方和写入自己的槽位；
+     * 2. 在转置矩阵上按列并行计算 (X^T * r)_j，每列只累加该列的非零元素；
+     * 3. 偏置梯度为残差之和。
+     * 两步都是O(nnz)，每个梯度分量只由一个线程写入，块损失按顺序归约，结果与线程数无关。
      * </p>
      * 
-     * @param w 权重向量
-     * @return ElasticNet正则化的梯度向量
+     * @param weights 权重数组
      */
-    private IVector computeElasticNetGradient(IVector w) {
-        // L1部分
-        IVector l1Gradient = computeL1Gradient(w);
+    private void evaluateSparse(float[] weights) {
+        int d = this.featureCount;
+        int weightCount = d + (this.includeBias ? 1 : 0);
+        if (weights.length != weightCount) {
+            throw new IllegalArgumentException("权重维度不匹配：输入(" + weights.length + 
+                ") != 期望(" + weightCount + ")");
+        }
+        RereSparseMatrix x = this.sparseFeatures;
+        float intercept = this.includeBias ? weights[d] : 0.0f;
+        RereExecutor.parallelFor(0, this.blockLosses.length, 1, (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int start = b * this.blockRows;
+                int end = Math.min(this.sampleCount, start + this.blockRows);
+                double squaredError = 0.0;
+                for (int i = start; i < end; i++) {
+                    float residual = x.rowDot(i, weights) + intercept - this.labelData[i];
+                    this.residuals[i] = residual;
+                    squaredError += (double) residual * residual;
+                }
+                this.blockLosses[b] = squaredError;
+            }
+        });
         
-        // L2部分
-        IVector l2Gradient = w.multiplyScalar(lambda2);
+        float[] gradient = new float[weightCount];
+        int[] pointers = this.sparseColumns.getRowPointers();
+        int[] rows = this.sparseColumns.getColumnIndices();
+        float[] values = this.sparseColumns.getValues();
+        RereExecutor.parallelFor(0, d, COLUMN_GRAIN, (from, to) -> {
+            for (int j = from; j < to; j++) {
+                double sum = 0.0;
+                for (int p = pointers[j]; p < pointers[j + 1]; p++) {
+                    sum += (double) values[p] * this.residuals[rows[p]];
+                }
+                gradient[j] = (float) (sum / this.sampleCount);
+            }
+        });
+        if (this.includeBias) {
+            double sum = 0.0;
+            for (float r : this.residuals) {
+                sum += r;
+            }
+            gradient[d] = (float) (sum / this.sampleCount);
+        }
+        double squaredError = 0.0;
+        for (double loss : this.blockLosses) {
+            squaredError += loss;
+        }
+        float regularization = addRegularization(weights, gradient);
         
-        // 组合梯度
-        return l1Gradient.add(l2Gradient);
+        this.cachedObjective = (float) (squaredError / (2.0 * this.sampleCount)) + regularization;
+        this.cachedGradient = IVector.of(gradient);
+        this.cachedPoint = weights.clone();
+    }
+    
+    /**
+     * 累加一个行块的残差平方和与X^T*r
+     * 
+     * @param weights 权重数组
+     * @param block 块索引
+     */
+    private void accumulateBlock(float[] weights, int block) {
+        double[] buffer = this.blockBuffers[block];
+        int d = weights.length;
+        Arrays.fill(buffer, 0.0);
+        int start = block * this.blockRows;
+        int end = Math.min(this.sampleCount, start + this.blockRows);
+        double squaredError = 0.0;
+        for (int i = start; i < end; i++) {
+            float[] row = this.featureRows[i];
+            float prediction = 0.0f;
+            for (int j = 0; j < d; j++) {
+                prediction += row[j] * weights[j];
+            }
+            float residual = prediction - this.labelData[i];
+            squaredError += (double) residual * residual;
+            for (int j = 0; j < d; j++) {
+                buffer[j] += residual * row[j];
+            }
+        }
+        buffer[d] = squaredError;
+    }
+    
+    /**
+     * 将正则化项的梯度加到梯度数组上，并返回正则化项的值
+     * <p>
+     * - L1正则化：R(w) = λ₁ * ||w||₁，次梯度为 λ₁ * sign(w)（wᵢ = 0时取0）
+     * - L2正则化：R(w) = (λ₂/2) * ||w||²，梯度为 λ₂ * w
+     * - ElasticNet：两者之和
+     * 使用OWL-QN求解时L1项由优化器处理，这里只计算L2项。
+     * </p>
+     * 
+     * @param w 权重数组
+     * @param gradient 梯度数组（原地修改）
+     * @return 正则化项的值
+     */
+    private float addRegularization(float[] w, float[] gradient) {
+        boolean l1 = !l1InOptimizer
+            && (regularizationType == RegularizationType.L1 || regularizationType == RegularizationType.ELASTIC_NET);
+        boolean l2 = regularizationType == RegularizationType.L2 || regularizationType == RegularizationType.ELASTIC_NET;
+        if (!l1 && !l2) {
+            return 0.0f;
+        }
+        float l1Norm = 0.0f;
+        float squaredNorm = 0.0f;
+        for (int i = 0; i < w.length; i++) {
+            if (l1) {
+                l1Norm += Math.abs(w[i]);
+                gradient[i] += Math.signum(w[i]) * lambda1;
+            }
+            if (l2) {
+                squaredNorm += w[i] * w[i];
+                gradient[i] += lambda2 * w[i];
+            }
+        }
+        return (l1 ? lambda1 * l1Norm : 0.0f) + (l2 ? lambda2 * squaredNorm / 2.0f : 0.0f);
     }
     
     /**
@@ -578,11 +1618,25 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
         // 创建增广矩阵：原特征 + 偏置列
         float[][] augmentedData = new float[rows][cols + 1];
         
-        // 复制原特征数据
+        // 复制原特征数据；列主序视图直接按列读取，避免getData()先生成一份行主序副本
+        if (feature instanceof RereColumnMatrix) {
+            float[][] columns = ((RereColumnMatrix) feature).getColumnData();
+            RereExecutor.parallelFor(0, rows, BLOCK_GRAIN, (from, to) -> {
+                for (int j = 0; j < cols; j++) {
+                    float[] column = columns[j];
+                    for (int i = from; i < to; i++) {
+                        augmentedData[i][j] = column[i];
+                    }
+                }
+                for (int i = from; i < to; i++) {
+                    augmentedData[i][cols] = 1.0f;
+                }
+            });
+            return IMatrix.of(augmentedData);
+        }
+        float[][] source = feature.getData();
         for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                augmentedData[i][j] = feature.get(i, j);
-            }
+            System.arraycopy(source[i], 0, augmentedData[i], 0, cols);
             // 添加偏置列（全1）
             augmentedData[i][cols] = 1.0f;
         }
@@ -591,86 +1645,73 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
     }
     
     /**
-     * 增广单个特征向量，添加偏置项
-     * <p>
-     * 如果includeBias为true，在特征向量末尾添加偏置项1：
-     * [x1, x2, ..., xn] -> [x1, x2, ..., xn, 1]
+     * 获取求解器类型
      * 
-     * 如果includeBias为false，直接返回原特征向量
+     * @return 求解器类型
+     */
+    public SolverType getSolver() {
+        return this.solver;
+    }
+    
+    /**
+     * 设置求解器类型
+     * <p>
+     * 存在L1正则化时，除LBFGS外的设置都使用坐标下降。
      * </p>
      * 
-     * @param x 原始特征向量
-     * @return 增广后的特征向量
+     * @param solver 求解器类型
+     * @throws IllegalArgumentException 如果solver为null
      */
-    private IVector augmentFeatureVector(IVector x) {
-        if (!this.includeBias) {
-            return x;
-        }
-        
-        int length = x.length();
-        float[] augmentedData = new float[length + 1];
-        
-        // 复制原特征数据
-        for (int i = 0; i < length; i++) {
-            augmentedData[i] = x.getData()[i];
+    public void setSolver(SolverType solver) {
+        if (solver == null) {
+            throw new IllegalArgumentException("求解器类型不能为null");
         }
-        // 添加偏置项
-        augmentedData[length] = 1.0f;
-        
-        return IVector.of(augmentedData);
+        this.solver = solver;
     }
     
     /**
-     * 计算预测值：X * w
+     * 是否从上一次fit的解热启动
+     * 
+     * @return 是否热启动
+     */
+    public boolean isWarmStart() {
+        return this.warmStart;
+    }
+    
+    /**
+     * 设置是否从上一次fit的解热启动
      * <p>
-     * 使用矩阵-向量乘法计算所有样本的预测值
+     * 开启后，坐标下降与优化器在权重维度相同时从上一次fit得到的权重出发，而不是从零开始。
+     * 在相邻的正则化参数上依次训练时（如交叉验证的参数搜索），上一次的解已接近新的最优解，迭代次数明显减少。
+     * Cholesky、QR等直接求解器不依赖初始点；同一份训练数据仅改变λ₂时它们本就复用缓存的Gram矩阵。
      * </p>
      * 
-     * @param w 权重向量
-     * @return 预测值向量
+     * @param warmStart 是否热启动
      */
-    private IVector computePredictions(IVector w) {
-        // 使用矩阵-向量乘法计算预测值
-        // 这里需要将矩阵转换为向量形式进行计算
-        // 由于IMatrix接口的限制，我们手动实现矩阵-向量乘法
-        
-        int rows = this.augmentedFeatures.getRowNum();
-        float[] predictions = new float[rows];
-        
-        for (int i = 0; i < rows; i++) {
-            float prediction = 0.0f;
-            for (int j = 0; j < w.length(); j++) {
-                prediction += this.augmentedFeatures.get(i, j) * w.getData()[j];
-            }
-            predictions[i] = prediction;
-        }
-        
-        return IVector.of(predictions);
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
     }
     
     /**
-     * 计算梯度中的矩阵-向量部分：(1/n) * X^T * residuals
+     * 获取最近一次fit实际使用的求解器
+     * 
+     * @return 求解器类型，如果未训练则返回null
+     */
+    public SolverType getLastSolver() {
+        return this.lastSolver;
+    }
+    
+    /**
+     * 清除缓存的Gram矩阵
      * <p>
-     * 这是梯度计算的核心部分，计算特征矩阵转置与残差向量的乘积
+     * Gram矩阵按训练数据对象缓存。若在两次fit之间原地修改了同一特征矩阵或标签向量的数据，
+     * 需先调用本方法。
      * </p>
-     * 
-     * @param residuals 残差向量
-     * @return 梯度向量
      */
-    private IVector computeMatrixVectorGradient(IVector residuals) {
-        int cols = this.augmentedFeatures.getColNum();
-        float[] gradient = new float[cols];
-        
-        // 计算 (1/n) * X^T * residuals
-        for (int j = 0; j < cols; j++) {
-            float sum = 0.0f;
-            for (int i = 0; i < this.sampleCount; i++) {
-                sum += this.augmentedFeatures.get(i, j) * residuals.getData()[i];
-            }
-            gradient[j] = sum / this.sampleCount;
-        }
-        
-        return IVector.of(gradient);
+    public void clearGramCache() {
+        this.cachedGram = null;
+        this.gramFeatures = null;
+        this.gramLabels = null;
     }
     
     /**
@@ -738,11 +1779,31 @@ public class RereLinearRegression implements IRegression, IGradientFunction, IOb
     
     /**
      * 设置优化器
+     * <p>
+     * 求解器随之设为{@link SolverType#LBFGS}，即使用该优化器求解；
+     * 需要恢复自动选择时调用{@code setSolver(SolverType.AUTO)}。
+     * 传入null时恢复默认设置：新的LBFGS优化器与{@link SolverType#AUTO}求解器。
+     * </p>
      * 
-     * @param optimizer 新的优化器
+     * @param optimizer 新的优化器，为null时恢复默认
      */
     public void setOptimizer(IOptimizer optimizer) {
+        if (optimizer == null) {
+            this.optimizer = new RereLBFGS();
+            this.solver = SolverType.AUTO;
+            return;
+        }
         this.optimizer = optimizer;
+        this.solver = SolverType.LBFGS;
+    }
+    
+    /**
+     * 获取优化器
+     * 
+     * @return 优化器
+     */
+    public IOptimizer getOptimizer() {
+        return this.optimizer;
     }
     
     /**
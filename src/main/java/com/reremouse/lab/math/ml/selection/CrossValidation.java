@@ -0,0 +1,245 @@
+package com.reremouse.lab.math.ml.selection;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.RereRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * 交叉验证划分工具 / Cross-validation splitting utilities
+ * <p>划分只产生行号数组（{@link Fold}），不复制数据。{@link #rows}按行号取出的子矩阵共享原矩阵的行数组，
+ * 因此k折交叉验证的额外内存只有O(k·n)个行号与行引用。相同的种子总是产生相同的划分。</p>
+ * <p>Splits only produce row index arrays ({@link Fold}) and never copy data. The sub-matrix taken by
+ * {@link #rows} shares the row arrays of the original matrix, so k-fold cross-validation only costs O(k·n) extra
+ * indices and row references. The same seed always yields the same split.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CrossValidation {
+
+    private CrossValidation() {
+    }
+
+    /**
+     * 打乱后的k折划分 / Shuffled k-fold split
+     * <p>样本随机打乱后切成k个大小相差不超过1的测试集，每折以其余样本为训练集。</p>
+     * <p>Samples are shuffled and cut into k test sets whose sizes differ by at most one; each fold trains on the
+     * remaining samples.</p>
+     *
+     * @param n 样本数量 / Number of samples
+     * @param k 折数 / Number of folds
+     * @param seed 随机种子 / Random seed
+     * @return k个折 / k folds
+     * @throws IllegalArgumentException 如果k小于2或大于n / if k is less than 2 or greater than n
+     */
+    public static List<Fold> kFold(int n, int k, long seed) {
+        return kFold(n, k, RereRandom.create(seed));
+    }
+
+    /**
+     * 用给定的生成器打乱后做k折划分 / Shuffled k-fold split with the given generator
+     *
+     * @param n 样本数量 / Number of samples
+     * @param k 折数 / Number of folds
+     * @param random 随机数生成器 / Random generator
+     * @return k个折 / k folds
+     * @throws IllegalArgumentException 如果k小于2或大于n，或生成器为null / if k is less than 2 or greater than n,
+     *         or the generator is null
+     */
+    public static List<Fold> kFold(int n, int k, RandomGenerator random) {
+        checkFolds(n, k);
+        checkRandom(random);
+        int[] order = permutation(n, random);
+        int[] assignment = new int[n];
+        for (int f = 0; f < k; f++) {
+            int from = (int) ((long) f * n / k);
+            int to = (int) ((long) (f + 1) * n / k);
+            for (int p = from; p < to; p++) {
+                assignment[order[p]] = f;
+            }
+        }
+        return buildFolds(assignment, k);
+    }
+
+    /**
+     * 分层k折划分 / Stratified k-fold split
+     * <p>每个类别的样本各自打乱后依次轮流分到各折，使每折的类别比例与整体一致。
+     * 类别之间接续轮转的位置，因此各折大小相差不超过1。</p>
+     * <p>The samples of each class are shuffled and dealt to the folds in turn, so every fold keeps the overall
+     * class proportions. The dealing position carries over from one class to the next, so fold sizes differ by at
+     * most one.</p>
+     *
+     * @param labels 类别标签 / Class labels
+     * @param k 折数 / Number of folds
+     * @param seed 随机种子 / Random seed
+     * @return k个折 / k folds
+     * @throws IllegalArgumentException 如果标签为null、k小于2或大于样本数 / if labels are null, or k is less
+     *         than 2 or greater than the number of samples
+     */
+    public static List<Fold> stratifiedKFold(String[] labels, int k, long seed) {
+        return stratifiedKFold(labels, k, RereRandom.create(seed));
+    }
+
+    /**
+     * 用给定的生成器做分层k折划分 / Stratified k-fold split with the given generator
+     *
+     * @param labels 类别标签 / Class labels
+     * @param k 折数 / Number of folds
+     * @param random 随机数生成器 / Random generator
+     * @return k个折 / k folds
+     * @throws IllegalArgumentException 如果标签或生成器为null、k小于2或大于样本数 / if labels or the generator are
+     *         null, or k is less than 2 or greater than the number of samples
+     */
+    public static List<Fold> stratifiedKFold(String[] labels, int k, RandomGenerator random) {
+        if (labels == null) {
+            throw new IllegalArgumentException("标签不能为null / Labels cannot be null");
+        }
+        int n = labels.length;
+        checkFolds(n, k);
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(labels[i], key -> new ArrayList<>()).add(i);
+        }
+        checkRandom(random);
+        int[] assignment = new int[n];
+        int next = 0;
+        for (List<Integer> group : groups.values()) {
+            int[] order = permutation(group.size(), random);
+            for (int p : order) {
+                assignment[group.get(p)] = next;
+                next = (next + 1) % k;
+            }
+        }
+        return buildFolds(assignment, k);
+    }
+
+    /**
+     * 按行号取出子矩阵，共享原矩阵的行数组 / Take the rows at the given indices, sharing the row arrays of the
+     * original matrix
+     *
+     * @param x 原矩阵 / Original matrix
+     * @param indices 行号 / Row indices
+     * @return 子矩阵 / Sub-matrix
+     */
+    public static IMatrix rows(IMatrix x, int[] indices) {
+        return rows(x.getData(), indices);
+    }
+
+    /**
+     * 按行号取出子矩阵，共享给定的行数组 / Take the rows at the given indices, sharing the given row arrays
+     *
+     * @param rows 行主序数据 / Row-major data
+     * @param indices 行号 / Row indices
+     * @return 子矩阵 / Sub-matrix
+     */
+    public static IMatrix rows(float[][] rows, int[] indices) {
+        float[][] selected = new float[indices.length][];
+        for (int p = 0; p < indices.length; p++) {
+            selected[p] = rows[indices[p]];
+        }
+        return IMatrix.of(selected);
+    }
+
+    /**
+     * 按行号取出向量元素 / Take the vector elements at the given indices
+     *
+     * @param y 原向量 / Original vector
+     * @param indices 行号 / Row indices
+     * @return 新向量 / New vector
+     */
+    public static IVector select(IVector y, int[] indices) {
+        float[] data = y.getData();
+        float[] selected = new float[indices.length];
+        for (int p = 0; p < indices.length; p++) {
+            selected[p] = data[indices[p]];
+        }
+        return IVector.of(selected);
+    }
+
+    /**
+     * 按行号取出标签 / Take the labels at the given indices
+     *
+     * @param labels 原标签 / Original labels
+     * @param indices 行号 / Row indices
+     * @return 新标签数组 / New label array
+     */
+    public static String[] select(String[] labels, int[] indices) {
+        String[] selected = new String[indices.length];
+        for (int p = 0; p < indices.length; p++) {
+            selected[p] = labels[indices[p]];
+        }
+        return selected;
+    }
+
+    private static void checkFolds(int n, int k) {
+        if (k < 2 || k > n) {
+            throw new IllegalArgumentException("折数必须在2到样本数之间 / Number of folds must be between 2 and the "
+                + "number of samples: k=" + k + ", n=" + n);
+        }
+    }
+
+    private static void checkRandom(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+    }
+
+    /**
+     * Fisher-Yates洗牌得到的排列 / Permutation from a Fisher-Yates shuffle
+     */
+    private static int[] permutation(int n, RandomGenerator random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    /**
+     * 由每个样本所属的折生成升序的行号数组 / Build ascending index arrays from the fold of every sample
+     */
+    private static List<Fold> buildFolds(int[] assignment, int k) {
+        int n = assignment.length;
+        int[] sizes = new int[k];
+        for (int f : assignment) {
+            sizes[f]++;
+        }
+        int[][] tests = new int[k][];
+        int[][] trains = new int[k][];
+        for (int f = 0; f < k; f++) {
+            tests[f] = new int[sizes[f]];
+            trains[f] = new int[n - sizes[f]];
+        }
+        int[] testFill = new int[k];
+        int[] trainFill = new int[k];
+        for (int i = 0; i < n; i++) {
+            int owner = assignment[i];
+            for (int f = 0; f < k; f++) {
+                if (f == owner) {
+                    tests[f][testFill[f]++] = i;
+                } else {
+                    trains[f][trainFill[f]++] = i;
+                }
+            }
+        }
+        Fold[] folds = new Fold[k];
+        for (int f = 0; f < k; f++) {
+            folds[f] = new Fold(trains[f], tests[f]);
+        }
+        return Arrays.asList(folds);
+    }
+}
@@ -0,0 +1,58 @@
+package com.reremouse.lab.math.ml.selection;
+
+/**
+ * 交叉验证的一折 / One fold of cross-validation
+ * <p>一折只保存训练与测试样本的行号，不复制数据；行号按升序排列。</p>
+ * <p>A fold only holds the row indices of the training and test samples and never copies data; the indices are in
+ * ascending order.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Fold {
+
+    /** 训练样本行号 / Row indices of the training samples */
+    private final int[] trainIndices;
+
+    /** 测试样本行号 / Row indices of the test samples */
+    private final int[] testIndices;
+
+    /**
+     * 构造函数，共享传入的数组 / Constructor, sharing the given arrays
+     *
+     * @param trainIndices 训练样本行号 / Row indices of the training samples
+     * @param testIndices 测试样本行号 / Row indices of the test samples
+     * @throws IllegalArgumentException 如果任一数组为null或为空 / if either array is null or empty
+     */
+    public Fold(int[] trainIndices, int[] testIndices) {
+        if (trainIndices == null || testIndices == null || trainIndices.length == 0 || testIndices.length == 0) {
+            throw new IllegalArgumentException("训练集与测试集不能为空 / Training and test sets cannot be empty");
+        }
+        this.trainIndices = trainIndices;
+        this.testIndices = testIndices;
+    }
+
+    /**
+     * 获取训练样本行号 / Get the row indices of the training samples
+     *
+     * @return 行号数组（共享，不要修改） / Index array (shared, do not modify)
+     */
+    public int[] getTrainIndices() {
+        return trainIndices;
+    }
+
+    /**
+     * 获取测试样本行号 / Get the row indices of the test samples
+     *
+     * @return 行号数组（共享，不要修改） / Index array (shared, do not modify)
+     */
+    public int[] getTestIndices() {
+        return testIndices;
+    }
+
+    @Override
+    public String toString() {
+        return "Fold(train=" + trainIndices.length + ", test=" + testIndices.length + ")";
+    }
+}
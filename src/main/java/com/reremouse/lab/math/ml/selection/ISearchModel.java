@@ -0,0 +1,32 @@
+package com.reremouse.lab.math.ml.selection;
+
+import java.util.Map;
+
+/**
+ * 参数搜索中绑定到一折数据的模型 / A model bound to the data of one fold during a parameter search
+ * <p>{@link ModelSearch}为每条热启动链创建一个实例，并在同一线程中依次对链上的参数组合调用
+ * {@link #fit}与{@link #score}，因此实现无需线程安全，且可以保留上一次训练的解作为下一次的起点。</p>
+ * <p>{@link ModelSearch} creates one instance per warm-start chain and calls {@link #fit} and {@link #score} for
+ * the parameter combinations of the chain in turn on a single thread, so implementations need not be thread-safe
+ * and may keep the previous solution as the starting point of the next fit.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public interface ISearchModel {
+
+    /**
+     * 在本折的训练集上按给定参数训练 / Train on the training set of this fold with the given parameters
+     *
+     * @param parameters 参数名到取值的映射 / Map from parameter name to value
+     */
+    void fit(Map<String, Float> parameters);
+
+    /**
+     * 在本折的测试集上评分，越大越好 / Score on the test set of this fold, higher is better
+     *
+     * @return 得分 / Score
+     */
+    float score();
+}
@@ -0,0 +1,339 @@
+package com.reremouse.lab.math.ml.selection;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.ml.cls.RereLogisticRegression;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import com.reremouse.lab.util.RereExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 基于交叉验证的并行超参数搜索 / Parallel hyper-parameter search with cross-validation
+ * <p>对每个参数组合在每一折上训练并评分，汇总为{@link SearchResult}。参数组合先按取值从大到小排序
+ * （正则化由强到弱），使相邻的组合彼此接近；每折上排好序的组合被切成若干条链，链内用同一个模型实例依次训练，
+ * 从上一个组合的解热启动。折 × 链的任务在共享线程池中并行执行，每条链在一个线程内按顺序进行，
+ * 因此结果与线程调度无关；链的条数只取决于组合数与折数，与线程池的并行度无关，同一网格和折在不同机器上
+ * 得到相同的得分。</p>
+ * <p>Every parameter combination is trained and scored on every fold and the scores are collected into a
+ * {@link SearchResult}. Combinations are first sorted by decreasing values (from strong to weak regularization) so
+ * that neighbours are close to each other; on each fold the sorted combinations are cut into chains, and each chain
+ * trains one model instance in turn, warm-starting from the solution of the previous combination. The folds ×
+ * chains tasks run in parallel on the shared pool, and each chain runs sequentially on one thread, so the results do
+ * not depend on thread scheduling; the number of chains only depends on the number of combinations and the number
+ * of folds, not on the parallelism of the pool, so the same grid and folds give the same scores on every
+ * machine.</p>
+ *
+ * <h3>使用示例 / Usage Example:</h3>
+ * <pre>
+ * {@code
+ * Map<String, float[]> grid = new LinkedHashMap<>();
+ * grid.put("lambda1", ParameterGrid.logSpace(1e-4f, 1f, 10));
+ * grid.put("lambda2", new float[]{0f, 0.01f, 0.1f});
+ * SearchResult result = ModelSearch.linearRegression(x, y)
+ *     .run(ParameterGrid.grid(grid), CrossValidation.kFold(x.getRowNum(), 5, 42L));
+ * Map<String, Float> best = result.getBestParameters();
+ * }
+ * </pre>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class ModelSearch {
+
+    /** 每条热启动链的最少组合数 / Minimum number of combinations per warm-start chain */
+    private static final int MIN_CHAIN = 4;
+
+    /**
+     * 折 × 链任务数的目标值，固定而不随线程数变化，使热启动的邻居与机器核数无关 /
+     * Target number of folds × chains tasks; fixed rather than tied to the thread count so that warm starts use the
+     * same neighbours regardless of the number of cores
+     */
+    private static final int TARGET_TASKS = 16;
+
+    /** L1正则化系数的参数名 / Parameter name of the L1 coefficient */
+    public static final String LAMBDA1 = "lambda1";
+
+    /** L2正则化系数的参数名 / Parameter name of the L2 coefficient */
+    public static final String LAMBDA2 = "lambda2";
+
+    /** 为一折创建模型的工厂 / Factory creating the model of one fold */
+    private final Function<Fold, ISearchModel> factory;
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param factory 为一折创建模型的工厂，每条链调用一次 / Factory creating the model of a fold, called once per
+     *                chain
+     * @throws IllegalArgumentException 如果工厂为null / if the factory is null
+     */
+    public ModelSearch(Function<Fold, ISearchModel> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("模型工厂不能为null / Model factory cannot be null");
+        }
+        this.factory = factory;
+    }
+
+    /**
+     * 线性回归的搜索，使用默认模型，得分为测试集的负均方误差 / Search for linear regression with default models,
+     * scored by the negative mean squared error on the test set
+     *
+     * @param x 特征矩阵 / Feature matrix
+     * @param y 标签向量 / Label vector
+     * @return 搜索器 / Search
+     */
+    public static ModelSearch linearRegression(IMatrix x, IVector y) {
+        return linearRegression(x, y, RereLinearRegression::new);
+    }
+
+    /**
+     * 线性回归的搜索，得分为测试集的负均方误差 / Search for linear regression, scored by the negative mean squared
+     * error on the test set
+     * <p>参数{@code lambda1}、{@code lambda2}覆盖模型的正则化系数，未给出的保持supplier中的设置。
+     * 每条链的模型开启热启动，且在同一折上复用同一个训练子矩阵，因此只改变λ₂时Cholesky求解复用缓存的Gram矩阵。</p>
+     * <p>The parameters {@code lambda1} and {@code lambda2} override the regularization coefficients of the model;
+     * the ones not given keep the supplier's settings. The model of every chain has warm starts enabled and reuses
+     * one training sub-matrix per fold, so Cholesky solves reuse the cached Gram matrix when only λ₂ changes.</p>
+     *
+     * @param x 特征矩阵 / Feature matrix
+     * @param y 标签向量 / Label vector
+     * @param supplier 创建并配置模型（求解器、偏置等） / Creates and configures the model (solver, bias, ...)
+     * @return 搜索器 / Search
+     * @throws IllegalArgumentException 如果输入无效 / if the inputs are invalid
+     */
+    public static ModelSearch linearRegression(IMatrix x, IVector y, Supplier<RereLinearRegression> supplier) {
+        if (x == null || y == null || supplier == null) {
+            throw new IllegalArgumentException("特征、标签与模型不能为null / Features, labels and model cannot be null");
+        }
+        if (x.getRowNum() != y.length()) {
+            throw new IllegalArgumentException("样本数量不匹配 / Sample count mismatch");
+        }
+        float[][] rows = x.getData();
+        return new ModelSearch(fold -> new LinearModel(rows, y, fold, supplier.get()));
+    }
+
+    /**
+     * 逻辑回归的搜索，使用默认模型，得分为测试集的准确率 / Search for logistic regression with default models,
+     * scored by the accuracy on the test set
+     *
+     * @param x 特征矩阵 / Feature matrix
+     * @param labels 类别标签 / Class labels
+     * @return 搜索器 / Search
+     */
+    public static ModelSearch logisticRegression(IMatrix x, String[] labels) {
+        return logisticRegression(x, labels, RereLogisticRegression::new);
+    }
+
+    /**
+     * 逻辑回归的搜索，得分为测试集的准确率 / Search for logistic regression, scored by the accuracy on the test set
+     * <p>参数{@code lambda1}、{@code lambda2}覆盖模型的正则化系数，每条链的模型开启热启动。
+     * 训练折需包含全部类别才能在链内热启动，通常配合{@link CrossValidation#stratifiedKFold}使用。</p>
+     * <p>The parameters {@code lambda1} and {@code lambda2} override the regularization coefficients and the model
+     * of every chain has warm starts enabled. Warm starts within a chain need every class in the training fold, so
+     * this is usually combined with {@link CrossValidation#stratifiedKFold}.</p>
+     *
+     * @param x 特征矩阵 / Feature matrix
+     * @param labels 类别标签 / Class labels
+     * @param supplier 创建并配置模型（优化器等） / Creates and configures the model (optimizer, ...)
+     * @return 搜索器 / Search
+     * @throws IllegalArgumentException 如果输入无效 / if the inputs are invalid
+     */
+    public static ModelSearch logisticRegression(IMatrix x, String[] labels,
+                                                 Supplier<RereLogisticRegression> supplier) {
+        if (x == null || labels == null || supplier == null) {
+            throw new IllegalArgumentException("特征、标签与模型不能为null / Features, labels and model cannot be null");
+        }
+        if (x.getRowNum() != labels.length) {
+            throw new IllegalArgumentException("样本数量不匹配 / Sample count mismatch");
+        }
+        float[][] rows = x.getData();
+        return new ModelSearch(fold -> new LogisticModel(rows, labels, fold, supplier.get()));
+    }
+
+    /**
+     * 在所有折上评估所有参数组合 / Evaluate every parameter combination on every fold
+     *
+     * @param candidates 参数组合 / Parameter combinations
+     * @param folds 交叉验证的折 / Cross-validation folds
+     * @return 搜索结果，组合顺序与输入一致 / Search result, in the order of the input combinations
+     * @throws IllegalArgumentException 如果组合或折为空 / if there are no combinations or folds
+     */
+    public SearchResult run(List<Map<String, Float>> candidates, List<Fold> folds) {
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("参数组合不能为空 / Parameter combinations cannot be empty");
+        }
+        if (folds == null || folds.isEmpty()) {
+            throw new IllegalArgumentException("交叉验证的折不能为空 / Folds cannot be empty");
+        }
+        int count = candidates.size();
+        int foldCount = folds.size();
+        int[] order = chainOrder(candidates);
+
+        int chains = Math.max(1, Math.min((TARGET_TASKS + foldCount - 1) / foldCount, count / MIN_CHAIN));
+        int chainSize = (count + chains - 1) / chains;
+        int chainCount = (count + chainSize - 1) / chainSize;
+
+        float[][] scores = new float[count][foldCount];
+        float[][] fitMillis = new float[count][foldCount];
+        float[][] scoreMillis = new float[count][foldCount];
+        long start = System.nanoTime();
+        RereExecutor.parallelFor(0, foldCount * chainCount, 1, (from, to) -> {
+            for (int t = from; t < to; t++) {
+                int f = t / chainCount;
+                int end = Math.min(count, (t % chainCount + 1) * chainSize);
+                ISearchModel model = factory.apply(folds.get(f));
+                for (int p = (t % chainCount) * chainSize; p < end; p++) {
+                    int c = order[p];
+                    long t0 = System.nanoTime();
+                    model.fit(candidates.get(c));
+                    long t1 = System.nanoTime();
+                    scores[c][f] = model.score();
+                    long t2 = System.nanoTime();
+                    fitMillis[c][f] = (t1 - t0) / 1e6f;
+                    scoreMillis[c][f] = (t2 - t1) / 1e6f;
+                }
+            }
+        });
+        float elapsed = (System.nanoTime() - start) / 1e6f;
+        return new SearchResult(candidates, scores, fitMillis, scoreMillis, elapsed);
+    }
+
+    /**
+     * 热启动链的顺序：按参数名的字典序逐个比较，取值大的在前 / Order of the warm-start chains: compare the
+     * parameters in lexicographic order of their names, larger values first
+     */
+    private static int[] chainOrder(List<Map<String, Float>> candidates) {
+        TreeSet<String> names = new TreeSet<>();
+        for (Map<String, Float> candidate : candidates) {
+            names.addAll(candidate.keySet());
+        }
+        List<String> keys = new ArrayList<>(names);
+        Integer[] order = new Integer[candidates.size()];
+        for (int c = 0; c < order.length; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (p, q) -> {
+            for (String key : keys) {
+                int cmp = Float.compare(value(candidates.get(q), key), value(candidates.get(p), key));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(p, q);
+        });
+        int[] result = new int[order.length];
+        for (int c = 0; c < order.length; c++) {
+            result[c] = order[c];
+        }
+        return result;
+    }
+
+    private static float value(Map<String, Float> candidate, String key) {
+        Float v = candidate.get(key);
+        return v == null ? Float.NEGATIVE_INFINITY : v;
+    }
+
+    /**
+     * 读取正则化系数，不认识的参数名视为错误 / Read the regularization coefficients, rejecting unknown names
+     *
+     * @return {λ₁, λ₂}
+     */
+    private static float[] regularization(Map<String, Float> parameters, float lambda1, float lambda2) {
+        for (String key : parameters.keySet()) {
+            if (!LAMBDA1.equals(key) && !LAMBDA2.equals(key)) {
+                throw new IllegalArgumentException("不支持的参数 / Unsupported parameter: " + key);
+            }
+        }
+        return new float[]{parameters.getOrDefault(LAMBDA1, lambda1), parameters.getOrDefault(LAMBDA2, lambda2)};
+    }
+
+    /**
+     * 绑定到一折的线性回归 / Linear regression bound to one fold
+     */
+    private static final class LinearModel implements ISearchModel {
+
+        private final RereLinearRegression model;
+        private final IMatrix trainFeatures;
+        private final IVector trainLabels;
+        private final IMatrix testFeatures;
+        private final float[] testLabels;
+        private final float[] predictions;
+
+        LinearModel(float[][] rows, IVector y, Fold fold, RereLinearRegression model) {
+            this.model = model;
+            this.model.setWarmStart(true);
+            this.trainFeatures = CrossValidation.rows(rows, fold.getTrainIndices());
+            this.trainLabels = CrossValidation.select(y, fold.getTrainIndices());
+            this.testFeatures = CrossValidation.rows(rows, fold.getTestIndices());
+            this.testLabels = CrossValidation.select(y, fold.getTestIndices()).getData();
+            this.predictions = new float[testLabels.length];
+        }
+
+        @Override
+        public void fit(Map<String, Float> parameters) {
+            float[] lambdas = regularization(parameters, model.getLambda1(), model.getLambda2());
+            model.setRegularization(lambdas[0], lambdas[1]);
+            model.fit(trainFeatures, trainLabels);
+        }
+
+        @Override
+        public float score() {
+            model.predictBatch(testFeatures, predictions);
+            double sum = 0.0;
+            for (int i = 0; i < predictions.length; i++) {
+                double r = predictions[i] - testLabels[i];
+                sum += r * r;
+            }
+            return (float) (-sum / predictions.length);
+        }
+    }
+
+    /**
+     * 绑定到一折的逻辑回归 / Logistic regression bound to one fold
+     */
+    private static final class LogisticModel implements ISearchModel {
+
+        private final RereLogisticRegression model;
+        private final IMatrix trainFeatures;
+        private final String[] trainLabels;
+        private final IMatrix testFeatures;
+        private final String[] testLabels;
+        private final String[] predictions;
+
+        LogisticModel(float[][] rows, String[] labels, Fold fold, RereLogisticRegression model) {
+            this.model = model;
+            this.model.setWarmStart(true);
+            this.trainFeatures = CrossValidation.rows(rows, fold.getTrainIndices());
+            this.trainLabels = CrossValidation.select(labels, fold.getTrainIndices());
+            this.testFeatures = CrossValidation.rows(rows, fold.getTestIndices());
+            this.testLabels = CrossValidation.select(labels, fold.getTestIndices());
+            this.predictions = new String[testLabels.length];
+        }
+
+        @Override
+        public void fit(Map<String, Float> parameters) {
+            float[] lambdas = regularization(parameters, model.getLambda1(), model.getLambda2());
+            model.setRegularization(lambdas[0], lambdas[1]);
+            model.fit(trainFeatures, trainLabels);
+        }
+
+        @Override
+        public float score() {
+            model.predictBatch(testFeatures, predictions);
+            int correct = 0;
+            for (int i = 0; i < predictions.length; i++) {
+                if (predictions[i].equals(testLabels[i])) {
+                    correct++;
+                }
+            }
+            return (float) correct / predictions.length;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.reremouse.lab.math.ml.selection;
+
+import com.reremouse.lab.util.RereRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * 超参数候选生成 / Hyper-parameter candidate generation
+ * <p>每个候选是"参数名 → 取值"的有序映射，参数名与{@link ModelSearch}中模型接受的名称一致，
+ * 如{@code "lambda1"}、{@code "lambda2"}。</p>
+ * <p>Each candidate is an ordered "parameter name → value" map whose names match those accepted by the models in
+ * {@link ModelSearch}, such as {@code "lambda1"} and {@code "lambda2"}.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ParameterGrid {
+
+    private ParameterGrid() {
+    }
+
+    /**
+     * 网格搜索：各参数取值的笛卡尔积 / Grid search: the Cartesian product of the parameter values
+     * <p>按参数的插入顺序展开，最后一个参数变化最快。</p>
+     * <p>Expanded in the insertion order of the parameters, with the last parameter varying fastest.</p>
+     *
+     * @param values 参数名到候选取值的映射 / Map from parameter name to candidate values
+     * @return 全部参数组合 / All parameter combinations
+     * @throws IllegalArgumentException 如果映射为空或某个参数没有取值 / if the map is empty or a parameter has no values
+     */
+    public static List<Map<String, Float>> grid(Map<String, float[]> values) {
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("参数网格不能为空 / Parameter grid cannot be empty");
+        }
+        List<Map<String, Float>> candidates = new ArrayList<>();
+        candidates.add(new LinkedHashMap<>());
+        for (Map.Entry<String, float[]> entry : values.entrySet()) {
+            float[] options = entry.getValue();
+            if (options == null || options.length == 0) {
+                throw new IllegalArgumentException("参数没有候选取值 / Parameter has no values: " + entry.getKey());
+            }
+            List<Map<String, Float>> expanded = new ArrayList<>(candidates.size() * options.length);
+            for (Map<String, Float> partial : candidates) {
+                for (float v : options) {
+                    Map<String, Float> candidate = new LinkedHashMap<>(partial);
+                    candidate.put(entry.getKey(), v);
+                    expanded.add(candidate);
+                }
+            }
+            candidates = expanded;
+        }
+        return freeze(candidates);
+    }
+
+    /**
+     * 随机搜索：在各参数的区间内独立抽样 / Random search: sample every parameter independently within its range
+     * <p>对数尺度时在[ln low, ln high]上均匀抽样，适合跨越多个数量级的正则化系数。</p>
+     * <p>On a log scale values are uniform on [ln low, ln high], which suits regularization coefficients spanning
+     * several orders of magnitude.</p>
+     *
+     * @param ranges 参数名到区间{low, high}的映射 / Map from parameter name to the range {low, high}
+     * @param count 候选个数 / Number of candidates
+     * @param logScale 是否在对数尺度上抽样 / Whether to sample on a log scale
+     * @param seed 随机种子 / Random seed
+     * @return 随机参数组合 / Random parameter combinations
+     * @throws IllegalArgumentException 如果区间无效或个数不为正 / if a range is invalid or the count is not positive
+     */
+    public static List<Map<String, Float>> random(Map<String, float[]> ranges, int count, boolean logScale,
+                                                  long seed) {
+        return random(ranges, count, logScale, RereRandom.create(seed));
+    }
+
+    /**
+     * 用给定的生成器做随机搜索 / Random search with the given generator
+     *
+     * @param ranges 参数名到区间{low, high}的映射 / Map from parameter name to the range {low, high}
+     * @param count 候选个数 / Number of candidates
+     * @param logScale 是否在对数尺度上抽样 / Whether to sample on a log scale
+     * @param random 随机数生成器 / Random generator
+     * @return 随机参数组合 / Random parameter combinations
+     * @throws IllegalArgumentException 如果区间无效、个数不为正或生成器为null / if a range is invalid, the count is
+     *         not positive or the generator is null
+     */
+    public static List<Map<String, Float>> random(Map<String, float[]> ranges, int count, boolean logScale,
+                                                  RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+        if (ranges == null || ranges.isEmpty()) {
+            throw new IllegalArgumentException("参数区间不能为空 / Parameter ranges cannot be empty");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("候选个数必须为正 / Number of candidates must be positive");
+        }
+        for (Map.Entry<String, float[]> entry : ranges.entrySet()) {
+            float[] range = entry.getValue();
+            if (range == null || range.length != 2 || !(range[0] <= range[1]) || (logScale && !(range[0] > 0))) {
+                throw new IllegalArgumentException("参数区间无效 / Invalid parameter range: " + entry.getKey());
+            }
+        }
+        List<Map<String, Float>> candidates = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            Map<String, Float> candidate = new LinkedHashMap<>();
+            for (Map.Entry<String, float[]> entry : ranges.entrySet()) {
+                double low = entry.getValue()[0];
+                double high = entry.getValue()[1];
+                double u = random.nextDouble();
+                double v = logScale ? Math.exp(Math.log(low) + u * (Math.log(high) - Math.log(low)))
+                    : low + u * (high - low);
+                candidate.put(entry.getKey(), (float) v);
+            }
+            candidates.add(candidate);
+        }
+        return freeze(candidates);
+    }
+
+    /**
+     * 对数等间距的取值 / Logarithmically spaced values
+     *
+     * @param low 最小值（正数） / Smallest value (positive)
+     * @param high 最大值 / Largest value
+     * @param count 取值个数（至少为2） / Number of values (at least 2)
+     * @return 从low到high的取值 / Values from low to high
+     * @throws IllegalArgumentException 如果参数无效 / if the arguments are invalid
+     */
+    public static float[] logSpace(float low, float high, int count) {
+        if (!(low > 0 && high >= low) || count < 2) {
+            throw new IllegalArgumentException("需要 0 < low <= high 且 count >= 2 / Requires 0 < low <= high and "
+                + "count >= 2");
+        }
+        float[] values = new float[count];
+        double ratio = Math.log((double) high / low);
+        for (int i = 0; i < count; i++) {
+            values[i] = (float) (low * Math.exp(ratio * i / (count - 1)));
+        }
+        return values;
+    }
+
+    private static List<Map<String, Float>> freeze(List<Map<String, Float>> candidates) {
+        List<Map<String, Float>> frozen = new ArrayList<>(candidates.size());
+        for (Map<String, Float> candidate : candidates) {
+            frozen.add(Collections.unmodifiableMap(candidate));
+        }
+        return Collections.unmodifiableList(frozen);
+    }
+}
@@ -0,0 +1,279 @@
+package com.reremouse.lab.math.ml.selection;
+
+import com.reremouse.lab.math.data.Column;
+import com.reremouse.lab.math.data.DataFrame;
+import com.reremouse.lab.math.data.FloatColumnData;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 参数搜索的结果表 / Result table of a parameter search
+ * <p>保存每个参数组合在每一折上的得分与训练、评分耗时，并给出均值、标准差与排名（1为最好，并列取较小的名次）。
+ * 得分越大越好。</p>
+ * <p>Holds the score and the fit and scoring times of every parameter combination on every fold, together with the
+ * mean, standard deviation and rank (1 is best, ties share the smaller rank). Higher scores are better.</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class SearchResult {
+
+    /** 参数组合 / Parameter combinations */
+    private final List<Map<String, Float>> candidates;
+
+    /** 各组合在各折上的得分 / Score of every combination on every fold */
+    private final float[][] scores;
+
+    /** 各组合在各折上的训练耗时（毫秒） / Fit time of every combination on every fold (milliseconds) */
+    private final float[][] fitMillis;
+
+    /** 各组合在各折上的评分耗时（毫秒） / Scoring time of every combination on every fold (milliseconds) */
+    private final float[][] scoreMillis;
+
+    /** 整个搜索的墙钟耗时（毫秒） / Wall-clock time of the whole search (milliseconds) */
+    private final float elapsedMillis;
+
+    /** 各组合的名次 / Rank of every combination */
+    private final int[] ranks;
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param candidates 参数组合 / Parameter combinations
+     * @param scores 得分（组合 × 折） / Scores (combination × fold)
+     * @param fitMillis 训练耗时（组合 × 折） / Fit times (combination × fold)
+     * @param scoreMillis 评分耗时（组合 × 折） / Scoring times (combination × fold)
+     * @param elapsedMillis 墙钟耗时 / Wall-clock time
+     */
+    SearchResult(List<Map<String, Float>> candidates, float[][] scores, float[][] fitMillis, float[][] scoreMillis,
+                 float elapsedMillis) {
+        this.candidates = candidates;
+        this.scores = scores;
+        this.fitMillis = fitMillis;
+        this.scoreMillis = scoreMillis;
+        this.elapsedMillis = elapsedMillis;
+        this.ranks = new int[candidates.size()];
+        for (int c = 0; c < ranks.length; c++) {
+            float mean = getMeanScore(c);
+            int rank = 1;
+            for (int o = 0; o < ranks.length; o++) {
+                if (getMeanScore(o) > mean) {
+                    rank++;
+                }
+            }
+            ranks[c] = rank;
+        }
+    }
+
+    /**
+     * 获取参数组合的个数 / Get the number of parameter combinations
+     *
+     * @return 组合个数 / Number of combinations
+     */
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * 获取折数 / Get the number of folds
+     *
+     * @return 折数 / Number of folds
+     */
+    public int getFoldCount() {
+        return scores[0].length;
+    }
+
+    /**
+     * 获取参数组合 / Get a parameter combination
+     *
+     * @param index 组合序号 / Combination index
+     * @return 参数组合 / Parameter combination
+     */
+    public Map<String, Float> getParameters(int index) {
+        return candidates.get(index);
+    }
+
+    /**
+     * 获取某组合在各折上的得分 / Get the scores of a combination on every fold
+     *
+     * @param index 组合序号 / Combination index
+     * @return 各折得分的副本 / Copy of the fold scores
+     */
+    public float[] getFoldScores(int index) {
+        return scores[index].clone();
+    }
+
+    /**
+     * 获取平均得分 / Get the mean score
+     *
+     * @param index 组合序号 / Combination index
+     * @return 各折得分的均值 / Mean of the fold scores
+     */
+    public float getMeanScore(int index) {
+        return (float) mean(scores[index]);
+    }
+
+    /**
+     * 获取得分的标准差 / Get the standard deviation of the scores
+     *
+     * @param index 组合序号 / Combination index
+     * @return 各折得分的总体标准差 / Population standard deviation of the fold scores
+     */
+    public float getStdScore(int index) {
+        double mean = mean(scores[index]);
+        double sum = 0.0;
+        for (float s : scores[index]) {
+            sum += (s - mean) * (s - mean);
+        }
+        return (float) Math.sqrt(sum / scores[index].length);
+    }
+
+    /**
+     * 获取平均训练耗时 / Get the mean fit time
+     *
+     * @param index 组合序号 / Combination index
+     * @return 毫秒 / Milliseconds
+     */
+    public float getMeanFitMillis(int index) {
+        return (float) mean(fitMillis[index]);
+    }
+
+    /**
+     * 获取平均评分耗时 / Get the mean scoring time
+     *
+     * @param index 组合序号 / Combination index
+     * @return 毫秒 / Milliseconds
+     */
+    public float getMeanScoreMillis(int index) {
+        return (float) mean(scoreMillis[index]);
+    }
+
+    /**
+     * 获取名次 / Get the rank
+     *
+     * @param index 组合序号 / Combination index
+     * @return 名次，1为最好 / Rank, 1 is best
+     */
+    public int getRank(int index) {
+        return ranks[index];
+    }
+
+    /**
+     * 获取整个搜索的墙钟耗时 / Get the wall-clock time of the whole search
+     *
+     * @return 毫秒 / Milliseconds
+     */
+    public float getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 获取平均得分最高的组合序号，并列时取靠前的 / Get the index of the combination with the highest mean score,
+     * the earliest one on ties
+     *
+     * @return 组合序号 / Combination index
+     */
+    public int getBestIndex() {
+        int best = 0;
+        for (int c = 1; c < ranks.length; c++) {
+            if (getMeanScore(c) > getMeanScore(best)) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 获取平均得分最高的参数组合 / Get the parameter combination with the highest mean score
+     *
+     * @return 参数组合 / Parameter combination
+     */
+    public Map<String, Float> getBestParameters() {
+        return candidates.get(getBestIndex());
+    }
+
+    /**
+     * 获取最高的平均得分 / Get the highest mean score
+     *
+     * @return 平均得分 / Mean score
+     */
+    public float getBestScore() {
+        return getMeanScore(getBestIndex());
+    }
+
+    /**
+     * 转换为数据框：每个组合一行，列依次为各参数、mean_score、std_score、rank、mean_fit_ms、mean_score_ms
+     * 与各折得分split0_score、split1_score…，缺少的参数为NaN / Convert to a data frame with one row per combination;
+     * the columns are the parameters, mean_score, std_score, rank, mean_fit_ms, mean_score_ms and the fold scores
+     * split0_score, split1_score, ..., with NaN for missing parameters
+     *
+     * @return 数据框 / Data frame
+     */
+    public DataFrame toDataFrame() {
+        int count = candidates.size();
+        Set<String> names = new LinkedHashSet<>();
+        for (Map<String, Float> candidate : candidates) {
+            names.addAll(candidate.keySet());
+        }
+        List<Column> columns = new ArrayList<>();
+        for (String name : names) {
+            float[] values = new float[count];
+            for (int c = 0; c < count; c++) {
+                Float v = candidates.get(c).get(name);
+                values[c] = v == null ? Float.NaN : v;
+            }
+            columns.add(column(name, values));
+        }
+        float[] meanScores = new float[count];
+        float[] stdScores = new float[count];
+        float[] rankValues = new float[count];
+        float[] fitTimes = new float[count];
+        float[] scoreTimes = new float[count];
+        for (int c = 0; c < count; c++) {
+            meanScores[c] = getMeanScore(c);
+            stdScores[c] = getStdScore(c);
+            rankValues[c] = ranks[c];
+            fitTimes[c] = getMeanFitMillis(c);
+            scoreTimes[c] = getMeanScoreMillis(c);
+        }
+        columns.add(column("mean_score", meanScores));
+        columns.add(column("std_score", stdScores));
+        columns.add(column("rank", rankValues));
+        columns.add(column("mean_fit_ms", fitTimes));
+        columns.add(column("mean_score_ms", scoreTimes));
+        for (int f = 0; f < getFoldCount(); f++) {
+            float[] values = new float[count];
+            for (int c = 0; c < count; c++) {
+                values[c] = scores[c][f];
+            }
+            columns.add(column("split" + f + "_score", values));
+        }
+        return new DataFrame(columns);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult(candidates=" + candidates.size() + ", folds=" + getFoldCount() + ", best="
+            + getBestParameters() + ", score=" + getBestScore() + ")";
+    }
+
+    private static Column column(String name, float[] values) {
+        Column column = new Column();
+        column.setName(name);
+        column.setData(new FloatColumnData(values));
+        return column;
+    }
+
+    private static double mean(float[] values) {
+        double sum = 0.0;
+        for (float v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+}
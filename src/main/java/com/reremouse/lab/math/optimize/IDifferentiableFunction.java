@@ -0,0 +1,45 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+
+/**
+ * 可微函数：一次求值同时得到函数值与梯度 / Differentiable function: value and gradient from one evaluation
+ * <p>
+ * 许多目标函数（如线性回归、逻辑回归的损失）的函数值与梯度共享同一次数据遍历，分开计算会使遍历次数翻倍。
+ * 实现本接口后，优化器通过{@link RereCachedFunction}对每个点只调用一次{@link #evaluate}。
+ * {@link #computeObjective}与{@link #computeGradient}的默认实现都基于{@link #evaluate}。
+ * </p>
+ * <p>
+ * For many objectives (such as the losses of linear and logistic regression) the value and the gradient share one
+ * pass over the data, and computing them separately doubles the passes. With this interface the optimizers call
+ * {@link #evaluate} exactly once per point through {@link RereCachedFunction}. The default implementations of
+ * {@link #computeObjective} and {@link #computeGradient} are built on {@link #evaluate}.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public interface IDifferentiableFunction extends IObjectiveFunction, IGradientFunction {
+
+    /**
+     * 计算函数值，并把梯度写入给定的缓冲区 / Compute the value and write the gradient into the given buffer
+     *
+     * @param x 变量值（向量） / Variables (vector)
+     * @param gradient 梯度输出缓冲区，长度与x相同 / Gradient output buffer of the same length as x
+     * @return 函数值 / Function value
+     */
+    float evaluate(IVector x, float[] gradient);
+
+    @Override
+    default float computeObjective(IVector x) {
+        return evaluate(x, new float[x.length()]);
+    }
+
+    @Override
+    default IVector computeGradient(IVector x) {
+        float[] gradient = new float[x.length()];
+        evaluate(x, gradient);
+        return IVector.of(gradient);
+    }
+}
@@ -0,0 +1,35 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+
+/**
+ * 可计算Hessian-向量积的可微函数 / Differentiable function with Hessian-vector products
+ * <p>
+ * 截断牛顿法（{@link RereNewtonCG}）只通过乘积H(x)·v使用Hessian，不需要形成n×n矩阵。对广义线性模型，
+ * H = Xᵀ·D·X / m（D为逐样本的曲率权重），乘积只需两次数据遍历：先算u = X·v，再累加Xᵀ·(D·u)。
+ * 实现可以在某个点上第一次调用时计算并缓存D之类的逐点量，之后在同一点上的乘积（一次共轭梯度求解中的全部乘积）
+ * 直接复用。
+ * </p>
+ * <p>
+ * Truncated Newton methods ({@link RereNewtonCG}) only use the Hessian through products H(x)·v and never form the
+ * n×n matrix. For generalized linear models H = Xᵀ·D·X / m with per-sample curvature weights D, so a product is
+ * two passes over the data: u = X·v, then Xᵀ·(D·u) accumulated. Implementations may compute per-point quantities
+ * such as D on the first call at a point and reuse them for later products at the same point (all products of one
+ * conjugate gradient solve).
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public interface IHessianVectorFunction extends IDifferentiableFunction {
+
+    /**
+     * 计算Hessian与向量的乘积 / Compute a Hessian-vector product
+     *
+     * @param x 求Hessian的点 / Point at which the Hessian is taken
+     * @param v 方向向量，长度与x相同 / Direction of the same length as x
+     * @param out 输出缓冲区，写入H(x)·v / Output buffer receiving H(x)·v
+     */
+    void hessianVector(IVector x, float[] v, float[] out);
+}
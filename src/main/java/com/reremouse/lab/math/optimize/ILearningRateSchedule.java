@@ -0,0 +1,87 @@
+package com.reremouse.lab.math.optimize;
+
+/**
+ * 学习率调度 / Learning-rate schedule
+ * <p>根据已完成的更新步数给出当前学习率 / Gives the learning rate for the number of completed update steps</p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface ILearningRateSchedule {
+
+    /**
+     * 获取学习率 / Get the learning rate
+     *
+     * @param step 已完成的更新步数，从0开始 / Number of completed update steps, starting from 0
+     * @return 学习率 / Learning rate
+     */
+    public float getRate(int step);
+
+    /**
+     * 常数学习率 / Constant learning rate
+     *
+     * @param rate 学习率 / Learning rate
+     * @return 调度 / Schedule
+     */
+    public static ILearningRateSchedule constant(float rate) {
+        checkRate(rate);
+        return step -> rate;
+    }
+
+    /**
+     * 逆时间衰减 η / (1 + decay·t) / Inverse-time decay η / (1 + decay·t)
+     *
+     * @param rate 初始学习率 / Initial learning rate
+     * @param decay 衰减系数 / Decay coefficient
+     * @return 调度 / Schedule
+     */
+    public static ILearningRateSchedule inverseTime(float rate, float decay) {
+        checkRate(rate);
+        if (decay < 0) {
+            throw new IllegalArgumentException("衰减系数不能为负 / Decay cannot be negative");
+        }
+        return step -> rate / (1.0f + decay * step);
+    }
+
+    /**
+     * 阶梯衰减，每隔stepSize步乘以factor / Step decay, multiplied by factor every stepSize steps
+     *
+     * @param rate 初始学习率 / Initial learning rate
+     * @param factor 衰减因子，取值(0, 1] / Decay factor in (0, 1]
+     * @param stepSize 衰减间隔步数 / Steps between decays
+     * @return 调度 / Schedule
+     */
+    public static ILearningRateSchedule stepDecay(float rate, float factor, int stepSize) {
+        checkRate(rate);
+        if (!(factor > 0 && factor <= 1) || stepSize <= 0) {
+            throw new IllegalArgumentException("衰减因子须在(0, 1]且间隔为正 / Factor must be in (0, 1] and step size positive");
+        }
+        return step -> rate * (float) Math.pow(factor, step / stepSize);
+    }
+
+    /**
+     * 余弦退火，在totalSteps步内从rate降到minRate，之后保持minRate /
+     * Cosine annealing from rate to minRate over totalSteps steps, minRate afterwards
+     *
+     * @param rate 初始学习率 / Initial learning rate
+     * @param minRate 最小学习率 / Minimum learning rate
+     * @param totalSteps 退火步数 / Annealing steps
+     * @return 调度 / Schedule
+     */
+    public static ILearningRateSchedule cosine(float rate, float minRate, int totalSteps) {
+        checkRate(rate);
+        if (minRate < 0 || minRate > rate || totalSteps <= 0) {
+            throw new IllegalArgumentException("最小学习率须在[0, rate]且步数为正 / minRate must be in [0, rate] and totalSteps positive");
+        }
+        return step -> step >= totalSteps ? minRate
+            : minRate + 0.5f * (rate - minRate) * (1.0f + (float) Math.cos(Math.PI * step / totalSteps));
+    }
+
+    private static void checkRate(float rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("学习率必须为正 / Learning rate must be positive");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+
+/**
+ * 原地线搜索的通用接口 / Common interface of in-place line searches
+ * <p>
+ * 线搜索沿方向d寻找步长α，把试探点x + α·d写入调用方提供的向量，不分配新向量；函数经{@link RereCachedFunction}
+ * 求值，同一点不会被重复计算。实现可以在多次调用之间保存状态（如上一次的步长），因此一个实例只服务于一次优化过程。
+ * </p>
+ * <p>
+ * A line search looks for a step α along the direction d and writes the trial points x + α·d into a vector
+ * supplied by the caller without allocating new ones; the function is evaluated through a
+ * {@link RereCachedFunction}, so no point is computed twice. Implementations may keep state between calls (such as
+ * the previous step), so one instance serves a single optimization run.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public interface ILineSearch {
+
+    /**
+     * 沿给定方向搜索步长 / Search for a step along the given direction
+     * <p>返回时trial为x + α·d，trialGradient为该点梯度的副本，{@link #getLastValue()}为该点的函数值。
+     * 返回0表示找不到使函数值下降的步长，此时trial等于x。</p>
+     * <p>On return trial holds x + α·d, trialGradient a copy of the gradient there and {@link #getLastValue()}
+     * the value there. A return value of 0 means no step decreasing the function was found, and trial equals x.</p>
+     *
+     * @param x 当前位置 / Current position
+     * @param value 当前位置的函数值 / Value at the current position
+     * @param grad 当前梯度 / Current gradient
+     * @param direction 搜索方向 / Search direction
+     * @param trial 试探点，其数据被原地改写 / Trial point whose data is overwritten in place
+     * @param trialGradient 接受点的梯度 / Receives the gradient at the accepted point
+     * @param function 带缓存的目标函数 / Cached objective function
+     * @return 步长 / Step size
+     */
+    float search(float[] x, float value, float[] grad, float[] direction, IVector trial, float[] trialGradient,
+                 RereCachedFunction function);
+
+    /**
+     * 最近一次搜索接受点的函数值 / Value at the point accepted by the last search
+     *
+     * @return 函数值 / Objective value
+     */
+    float getLastValue();
+}
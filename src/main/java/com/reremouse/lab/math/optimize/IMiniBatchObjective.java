@@ -0,0 +1,42 @@
+package com.reremouse.lab.math.optimize;
+
+/**
+ * 可按小批量样本求值的目标函数 / Objective that can be evaluated on mini-batches of samples
+ * <p>
+ * 目标函数形如 (1/m)Σ loss_i(x) + R(x)。随机优化器（{@link RereStochasticOptimizer}）每一步只在一小批样本上
+ * 计算损失与梯度，因此无需每步遍历全部数据。
+ * </p>
+ * <p>
+ * The objective has the form (1/m)Σ loss_i(x) + R(x). Stochastic optimizers ({@link RereStochasticOptimizer})
+ * evaluate the loss and gradient on a small batch of samples per step, so no step needs a full pass over the
+ * data.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public interface IMiniBatchObjective extends IObjectiveFunction, IGradientFunction {
+
+    /**
+     * 获取样本数量 / Get the number of samples
+     *
+     * @return 样本数量 / Number of samples
+     */
+    public int getSampleCount();
+
+    /**
+     * 在一批样本上计算平均损失与梯度 / Compute the mean loss and gradient over a batch of samples
+     * <p>批次由indices[from, to)给出；结果为批内平均损失加正则化项，梯度写入gradient（覆盖原值） /
+     * The batch is indices[from, to); the result is the batch mean loss plus the regularization term and the
+     * gradient is written into gradient (overwriting it)</p>
+     *
+     * @param x 参数 / Parameters
+     * @param indices 样本索引 / Sample indices
+     * @param from 起始位置（包含）/ Start position (inclusive)
+     * @param to 结束位置（不包含）/ End position (exclusive)
+     * @param gradient 梯度输出，长度与x相同 / Gradient output with the same length as x
+     * @return 批内目标函数值 / Batch objective value
+     */
+    public float computeBatchGradient(float[] x, int[] indices, int from, int to, float[] gradient);
+}
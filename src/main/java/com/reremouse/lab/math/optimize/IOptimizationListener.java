@@ -0,0 +1,143 @@
+package com.reremouse.lab.math.optimize;
+
+import java.io.PrintStream;
+
+/**
+ * 优化过程监听器 / Optimization listener
+ * <p>
+ * 优化器在每次迭代开始时调用{@link #onIteration}，返回false则提前停止（结果的停止原因为
+ * {@link OptimizationResult.StopReason#STOPPED}）。可用于记录进度、导出收敛曲线或在已经收敛时截断运行。
+ * 同一个监听器可被多次优化复用，每次优化开始时调用{@link #onStart}，有状态的监听器在其中重置。
+ * </p>
+ * <p>
+ * Optimizers call {@link #onIteration} at the start of every iteration; returning false stops early (the stop
+ * reason of the result is {@link OptimizationResult.StopReason#STOPPED}). Useful for logging progress, exporting
+ * convergence curves or cutting runs that have already converged. A listener may be reused across runs:
+ * {@link #onStart} is called at the start of each run and stateful listeners reset there.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface IOptimizationListener {
+
+    /**
+     * 每次迭代开始时调用 / Called at the start of every iteration
+     *
+     * @param progress 当前进度 / Current progress
+     * @return 是否继续优化 / Whether to continue
+     */
+    boolean onIteration(OptimizationProgress progress);
+
+    /**
+     * 每次优化开始时调用 / Called at the start of every run
+     */
+    default void onStart() {
+    }
+
+    /**
+     * 与另一个监听器组合：两者都被调用，任一返回false即停止 / Combine with another listener: both are called and
+     * either one returning false stops
+     *
+     * @param other 另一个监听器 / Other listener
+     * @return 组合后的监听器 / Combined listener
+     * @throws IllegalArgumentException 如果other为null / if other is null
+     */
+    default IOptimizationListener and(IOptimizationListener other) {
+        if (other == null) {
+            throw new IllegalArgumentException("监听器不能为空 / Listener cannot be null");
+        }
+        IOptimizationListener self = this;
+        return new IOptimizationListener() {
+            @Override
+            public boolean onIteration(OptimizationProgress progress) {
+                boolean a = self.onIteration(progress);
+                boolean b = other.onIteration(progress);
+                return a && b;
+            }
+
+            @Override
+            public void onStart() {
+                self.onStart();
+                other.onStart();
+            }
+        };
+    }
+
+    /**
+     * 每隔若干次迭代打印一行进度 / Print one line of progress every few iterations
+     *
+     * @param out 输出流 / Output stream
+     * @param every 打印间隔（迭代次数） / Interval in iterations
+     * @return 监听器 / Listener
+     * @throws IllegalArgumentException 如果输出流为null或间隔不为正 / if the stream is null or the interval is not
+     *         positive
+     */
+    static IOptimizationListener printing(PrintStream out, int every) {
+        if (out == null || every <= 0) {
+            throw new IllegalArgumentException("输出流不能为空且间隔必须为正 / Stream required and interval must be positive");
+        }
+        return progress -> {
+            if (progress.getIteration() % every == 0) {
+                out.println(progress);
+            }
+            return true;
+        };
+    }
+
+    /**
+     * 函数值的相对下降连续patience次迭代低于tolerance时停止 / Stop once the relative decrease of the value stays
+     * below tolerance for patience consecutive iterations
+     *
+     * @param tolerance 相对下降阈值 / Relative decrease threshold
+     * @param patience 连续次数 / Consecutive iterations
+     * @return 监听器 / Listener
+     * @throws IllegalArgumentException 如果阈值为负或次数不为正 / if the threshold is negative or patience is not
+     *         positive
+     */
+    static IOptimizationListener relativeDecrease(float tolerance, int patience) {
+        if (!(tolerance >= 0) || patience <= 0) {
+            throw new IllegalArgumentException("阈值不能为负且次数必须为正 / Threshold must be non-negative and patience positive");
+        }
+        return new IOptimizationListener() {
+            private float previous = Float.NaN;
+            private int stalled = 0;
+
+            @Override
+            public boolean onIteration(OptimizationProgress progress) {
+                float value = progress.getValue();
+                if (!Float.isNaN(previous)
+                    && previous - value <= tolerance * Math.max(1.0f, Math.abs(previous))) {
+                    stalled++;
+                } else {
+                    stalled = 0;
+                }
+                previous = value;
+                return stalled < patience;
+            }
+
+            @Override
+            public void onStart() {
+                previous = Float.NaN;
+                stalled = 0;
+            }
+        };
+    }
+
+    /**
+     * 运行时间超过给定毫秒数时停止 / Stop once the run has taken longer than the given milliseconds
+     *
+     * @param millis 时间上限（毫秒） / Time limit in milliseconds
+     * @return 监听器 / Listener
+     * @throws IllegalArgumentException 如果时间上限不为正 / if the limit is not positive
+     */
+    static IOptimizationListener timeLimit(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("时间上限必须为正 / Time limit must be positive");
+        }
+        long limit = millis * 1_000_000L;
+        return progress -> progress.getElapsedNanos() < limit;
+    }
+}
@@ -0,0 +1,150 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+import java.util.Arrays;
+
+/**
+ * 优化器共用的迭代记录 / Iteration bookkeeping shared by the optimizers
+ * <p>
+ * 记录收敛曲线与各阶段耗时，通知监听器，最后生成{@link OptimizationResult}。不设置监听器时每次迭代只有
+ * 几次计时与数组写入，不分配对象（曲线数组按倍数增长）。拟牛顿优化器从{@link RereCachedFunction}读取求值次数；
+ * 不经过缓存求值的优化器（如小批量随机优化器）不传函数，改为通过{@link #evaluated}自行累计。
+ * </p>
+ * <p>
+ * Records the convergence trace and time per phase, notifies the listener and finally builds the
+ * {@link OptimizationResult}. Without a listener each iteration costs a few clock reads and array writes and
+ * allocates nothing (the trace arrays grow geometrically). Quasi-Newton optimizers read evaluation counts from a
+ * {@link RereCachedFunction}; optimizers that do not evaluate through the cache (such as the mini-batch stochastic
+ * optimizers) pass no function and report their evaluations through {@link #evaluated} instead.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+final class OptimizationMonitor {
+
+    private final IOptimizationListener listener;
+    private final RereCachedFunction function;
+    private final long start;
+    private float[] values = new float[16];
+    private float[] norms = new float[16];
+    private int size = 0;
+    private long lineSearchNanos = 0;
+    private long directionNanos = 0;
+    private int lineSearchEvaluations = 0;
+    private float lastStep = Float.NaN;
+    private int lastLineSearchEvaluations = 0;
+    private int valueEvaluations = 0;
+    private int gradientEvaluations = 0;
+    private long evaluationNanos = 0;
+
+    /**
+     * 构造函数，开始计时并通知监听器 / Constructor; starts the clock and notifies the listener
+     *
+     * @param listener 监听器，可以为null / Listener, may be null
+     * @param function 被优化的函数，用于读取求值次数与耗时；为null时由{@link #evaluated}累计 / Function being
+     *                 optimized, for evaluation counts and time; when null they are accumulated by
+     *                 {@link #evaluated}
+     */
+    OptimizationMonitor(IOptimizationListener listener, RereCachedFunction function) {
+        this.listener = listener;
+        this.function = function;
+        if (listener != null) {
+            listener.onStart();
+        }
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * 记录当前点并通知监听器 / Record the current point and notify the listener
+     *
+     * @param iteration 已完成的迭代次数 / Completed iterations
+     * @param value 当前函数值 / Current value
+     * @param gradientNorm 当前梯度范数 / Current gradient norm
+     * @return 是否继续 / Whether to continue
+     */
+    boolean report(int iteration, float value, float gradientNorm) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            norms = Arrays.copyOf(norms, size * 2);
+        }
+        values[size] = value;
+        norms[size] = gradientNorm;
+        size++;
+        if (listener == null) {
+            return true;
+        }
+        return listener.onIteration(new OptimizationProgress(iteration, value, gradientNorm, lastStep,
+            lastLineSearchEvaluations, valueEvaluations(), gradientEvaluations(), System.nanoTime() - start));
+    }
+
+    /**
+     * 累计不经过缓存函数的求值 / Add evaluations made without the cached function
+     *
+     * @param values 函数值求值次数 / Value evaluations
+     * @param gradients 梯度求值次数 / Gradient evaluations
+     * @param since 求值开始时刻（{@link System#nanoTime()}） / Start time from {@link System#nanoTime()}
+     */
+    void evaluated(int values, int gradients, long since) {
+        valueEvaluations += values;
+        gradientEvaluations += gradients;
+        evaluationNanos += System.nanoTime() - since;
+    }
+
+    /**
+     * 记录一次更新的步长（学习率） / Record the step (learning rate) of one update
+     *
+     * @param step 步长 / Step
+     */
+    void stepDone(float step) {
+        lastStep = step;
+    }
+
+    /**
+     * 累加计算方向的耗时 / Add search direction time
+     *
+     * @param since 开始时刻（{@link System#nanoTime()}） / Start time from {@link System#nanoTime()}
+     */
+    void directionDone(long since) {
+        directionNanos += System.nanoTime() - since;
+    }
+
+    /**
+     * 记录一次线搜索 / Record one line search
+     *
+     * @param since 开始时刻 / Start time
+     * @param evaluationsBefore 开始前的函数值求值次数 / Value evaluations before it started
+     * @param step 接受的步长 / Accepted step
+     */
+    void lineSearchDone(long since, int evaluationsBefore, float step) {
+        lineSearchNanos += System.nanoTime() - since;
+        lastLineSearchEvaluations = function.getValueEvaluations() - evaluationsBefore;
+        lineSearchEvaluations += lastLineSearchEvaluations;
+        lastStep = step;
+    }
+
+    /**
+     * 生成优化结果 / Build the result
+     *
+     * @param value 最优值 / Optimal value
+     * @param x 最优点（被复制） / Optimal point (copied)
+     * @param reason 停止原因 / Stop reason
+     * @param iterations 完成的迭代次数 / Completed iterations
+     * @return 优化结果 / Result
+     */
+    OptimizationResult finish(float value, float[] x, OptimizationResult.StopReason reason, int iterations) {
+        return new OptimizationResult(value, IVector.of(x.clone()), reason, iterations,
+            valueEvaluations(), gradientEvaluations(), lineSearchEvaluations, System.nanoTime() - start,
+            evaluationNanos + (function == null ? 0 : function.getEvaluationNanos()), lineSearchNanos,
+            directionNanos, Arrays.copyOf(values, size), Arrays.copyOf(norms, size));
+    }
+
+    private int valueEvaluations() {
+        return valueEvaluations + (function == null ? 0 : function.getValueEvaluations());
+    }
+
+    private int gradientEvaluations() {
+        return gradientEvaluations + (function == null ? 0 : function.getGradientEvaluations());
+    }
+}
@@ -0,0 +1,133 @@
+package com.reremouse.lab.math.optimize;
+
+/**
+ * 一次迭代的进度 / Progress of one iteration
+ * <p>
+ * 由优化器在每次迭代开始时（检查收敛之前）传给{@link IOptimizationListener}，描述当前点：
+ * 已完成的迭代次数、函数值、梯度范数、上一次迭代的步长与线搜索求值次数、累计求值次数与耗时。
+ * 不可用的量为NaN（例如UMAP的随机梯度迭代没有函数值）。
+ * </p>
+ * <p>
+ * Passed by an optimizer to an {@link IOptimizationListener} at the start of every iteration (before the
+ * convergence check) and describes the current point: completed iterations, value, gradient norm, step and line
+ * search evaluations of the previous iteration, and accumulated evaluation counts and time. Quantities that are
+ * not available are NaN (UMAP's stochastic epochs, for example, have no objective value).
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public final class OptimizationProgress {
+
+    private final int iteration;
+    private final float value;
+    private final float gradientNorm;
+    private final float step;
+    private final int lineSearchEvaluations;
+    private final int valueEvaluations;
+    private final int gradientEvaluations;
+    private final long elapsedNanos;
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param iteration 已完成的迭代次数 / Completed iterations
+     * @param value 当前函数值 / Current value
+     * @param gradientNorm 当前梯度（或伪梯度）范数 / Current gradient (or pseudo-gradient) norm
+     * @param step 上一次迭代的步长 / Step of the previous iteration
+     * @param lineSearchEvaluations 上一次迭代线搜索的求值次数 / Line search evaluations of the previous iteration
+     * @param valueEvaluations 累计的函数值求值次数 / Accumulated value evaluations
+     * @param gradientEvaluations 累计的梯度求值次数 / Accumulated gradient evaluations
+     * @param elapsedNanos 从开始优化起经过的纳秒数 / Nanoseconds since the optimization started
+     */
+    public OptimizationProgress(int iteration, float value, float gradientNorm, float step, int lineSearchEvaluations,
+                                int valueEvaluations, int gradientEvaluations, long elapsedNanos) {
+        this.iteration = iteration;
+        this.value = value;
+        this.gradientNorm = gradientNorm;
+        this.step = step;
+        this.lineSearchEvaluations = lineSearchEvaluations;
+        this.valueEvaluations = valueEvaluations;
+        this.gradientEvaluations = gradientEvaluations;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * 获取已完成的迭代次数 / Get the completed iterations
+     * @return 迭代次数 / Iterations
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * 获取当前函数值 / Get the current value
+     * @return 函数值 / Value
+     */
+    public float getValue() {
+        return value;
+    }
+
+    /**
+     * 获取当前梯度范数 / Get the current gradient norm
+     * @return 梯度范数 / Gradient norm
+     */
+    public float getGradientNorm() {
+        return gradientNorm;
+    }
+
+    /**
+     * 获取上一次迭代的步长 / Get the step of the previous iteration
+     * @return 步长 / Step
+     */
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * 获取上一次迭代线搜索的求值次数 / Get the line search evaluations of the previous iteration
+     * @return 求值次数 / Evaluations
+     */
+    public int getLineSearchEvaluations() {
+        return lineSearchEvaluations;
+    }
+
+    /**
+     * 获取累计的函数值求值次数 / Get the accumulated value evaluations
+     * @return 求值次数 / Evaluations
+     */
+    public int getValueEvaluations() {
+        return valueEvaluations;
+    }
+
+    /**
+     * 获取累计的梯度求值次数 / Get the accumulated gradient evaluations
+     * @return 求值次数 / Evaluations
+     */
+    public int getGradientEvaluations() {
+        return gradientEvaluations;
+    }
+
+    /**
+     * 获取从开始优化起经过的纳秒数 / Get the nanoseconds since the optimization started
+     * @return 纳秒数 / Nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 获取从开始优化起经过的毫秒数 / Get the milliseconds since the optimization started
+     * @return 毫秒数 / Milliseconds
+     */
+    public double getElapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("iter=%d value=%.6g |g|=%.3g step=%.3g ls=%d f=%d g=%d %.1fms", iteration, value,
+            gradientNorm, step, lineSearchEvaluations, valueEvaluations, gradientEvaluations, getElapsedMillis());
+    }
+}
@@ -0,0 +1,214 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.Tuple2;
+
+/**
+ * 优化结果 / Optimization result
+ * <p>
+ * 继承{@link Tuple2}，_1为最优值、_2为最优点，与{@link IOptimizer#optimize}的返回值兼容；另外记录停止原因、
+ * 迭代与求值次数、各阶段耗时以及每次迭代的函数值与梯度范数（收敛曲线）。
+ * 各阶段耗时：求值耗时是调用目标函数与梯度的时间，线搜索耗时包含其中的求值，方向耗时是两循环递归与历史更新。
+ * </p>
+ * <p>
+ * Extends {@link Tuple2} with the optimal value in _1 and the optimal point in _2, so it is compatible with the
+ * return value of {@link IOptimizer#optimize}; it also records why the run stopped, iteration and evaluation
+ * counts, time per phase and the value and gradient norm of every iteration (the convergence trace). Evaluation
+ * time is spent inside the objective and gradient, line search time includes its evaluations, and direction time
+ * covers the two-loop recursion and history updates.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class OptimizationResult extends Tuple2<Float, IVector> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 停止原因 / Stop reason
+     */
+    public enum StopReason {
+        /** 梯度范数低于容差 / The gradient norm fell below the tolerance */
+        CONVERGED,
+        /** 找不到下降的步长或函数值不再可测地下降 / No decreasing step, or the value no longer decreases measurably */
+        NO_PROGRESS,
+        /** 达到最大迭代次数 / The maximum number of iterations was reached */
+        MAX_ITERATIONS,
+        /** 监听器要求停止 / A listener requested the stop */
+        STOPPED
+    }
+
+    private final StopReason stopReason;
+    private final int iterations;
+    private final int valueEvaluations;
+    private final int gradientEvaluations;
+    private final int lineSearchEvaluations;
+    private final long elapsedNanos;
+    private final long evaluationNanos;
+    private final long lineSearchNanos;
+    private final long directionNanos;
+    private final float[] valueTrace;
+    private final float[] gradientNormTrace;
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param value 最优值 / Optimal value
+     * @param point 最优点 / Optimal point
+     * @param stopReason 停止原因 / Stop reason
+     * @param iterations 完成的迭代次数 / Completed iterations
+     * @param valueEvaluations 函数值求值次数 / Value evaluations
+     * @param gradientEvaluations 梯度求值次数 / Gradient evaluations
+     * @param lineSearchEvaluations 线搜索中的函数值求值次数 / Value evaluations inside line searches
+     * @param elapsedNanos 总耗时（纳秒） / Total time in nanoseconds
+     * @param evaluationNanos 求值耗时（纳秒） / Evaluation time in nanoseconds
+     * @param lineSearchNanos 线搜索耗时（纳秒） / Line search time in nanoseconds
+     * @param directionNanos 计算搜索方向的耗时（纳秒） / Search direction time in nanoseconds
+     * @param valueTrace 每次迭代的函数值，第0个为初始点 / Value per iteration, entry 0 for the initial point
+     * @param gradientNormTrace 每次迭代的梯度范数 / Gradient norm per iteration
+     */
+    public OptimizationResult(float value, IVector point, StopReason stopReason, int iterations,
+                              int valueEvaluations, int gradientEvaluations, int lineSearchEvaluations,
+                              long elapsedNanos, long evaluationNanos, long lineSearchNanos, long directionNanos,
+                              float[] valueTrace, float[] gradientNormTrace) {
+        super(value, point);
+        this.stopReason = stopReason;
+        this.iterations = iterations;
+        this.valueEvaluations = valueEvaluations;
+        this.gradientEvaluations = gradientEvaluations;
+        this.lineSearchEvaluations = lineSearchEvaluations;
+        this.elapsedNanos = elapsedNanos;
+        this.evaluationNanos = evaluationNanos;
+        this.lineSearchNanos = lineSearchNanos;
+        this.directionNanos = directionNanos;
+        this.valueTrace = valueTrace;
+        this.gradientNormTrace = gradientNormTrace;
+    }
+
+    /**
+     * 获取最优值 / Get the optimal value
+     * @return 最优值 / Optimal value
+     */
+    public float getValue() {
+        return _1;
+    }
+
+    /**
+     * 获取最优点 / Get the optimal point
+     * @return 最优点 / Optimal point
+     */
+    public IVector getPoint() {
+        return _2;
+    }
+
+    /**
+     * 获取停止原因 / Get the stop reason
+     * @return 停止原因 / Stop reason
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * 获取完成的迭代次数 / Get the completed iterations
+     * @return 迭代次数 / Iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * 获取函数值求值次数 / Get the value evaluations
+     * @return 求值次数 / Evaluations
+     */
+    public int getValueEvaluations() {
+        return valueEvaluations;
+    }
+
+    /**
+     * 获取梯度求值次数 / Get the gradient evaluations
+     * @return 求值次数 / Evaluations
+     */
+    public int getGradientEvaluations() {
+        return gradientEvaluations;
+    }
+
+    /**
+     * 获取线搜索中的函数值求值次数 / Get the value evaluations inside line searches
+     * @return 求值次数 / Evaluations
+     */
+    public int getLineSearchEvaluations() {
+        return lineSearchEvaluations;
+    }
+
+    /**
+     * 获取总耗时（纳秒） / Get the total time in nanoseconds
+     * @return 纳秒数 / Nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 获取求值耗时（纳秒） / Get the evaluation time in nanoseconds
+     * @return 纳秒数 / Nanoseconds
+     */
+    public long getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    /**
+     * 获取线搜索耗时（纳秒），包含其中的求值 / Get the line search time in nanoseconds, including its evaluations
+     * @return 纳秒数 / Nanoseconds
+     */
+    public long getLineSearchNanos() {
+        return lineSearchNanos;
+    }
+
+    /**
+     * 获取计算搜索方向的耗时（纳秒） / Get the search direction time in nanoseconds
+     * @return 纳秒数 / Nanoseconds
+     */
+    public long getDirectionNanos() {
+        return directionNanos;
+    }
+
+    /**
+     * 获取每次迭代的函数值，第0个为初始点 / Get the value of every iteration, entry 0 for the initial point
+     * @return 函数值曲线（副本） / Value trace (a copy)
+     */
+    public float[] getValueTrace() {
+        return valueTrace.clone();
+    }
+
+    /**
+     * 获取每次迭代的梯度（或伪梯度）范数 / Get the gradient (or pseudo-gradient) norm of every iteration
+     * @return 梯度范数曲线（副本） / Gradient norm trace (a copy)
+     */
+    public float[] getGradientNormTrace() {
+        return gradientNormTrace.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s after %d iterations: value=%.6g f=%d g=%d ls=%d %.1fms (eval %.1fms, "
+                + "line search %.1fms, direction %.1fms)", stopReason, iterations, _1, valueEvaluations,
+            gradientEvaluations, lineSearchEvaluations, elapsedNanos / 1e6, evaluationNanos / 1e6,
+            lineSearchNanos / 1e6, directionNanos / 1e6);
+    }
+
+    /**
+     * 收敛曲线的文本形式 / Text form of the convergence trace
+     *
+     * @return 每行一次迭代 / One line per iteration
+     */
+    public String traceToString() {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < valueTrace.length; k++) {
+            sb.append(k).append('\t').append(valueTrace[k]).append('\t').append(gradientNormTrace[k]).append('\n');
+        }
+        return sb.toString();
+    }
+}
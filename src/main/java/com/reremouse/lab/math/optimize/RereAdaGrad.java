@@ -0,0 +1,73 @@
+package com.reremouse.lab.math.optimize;
+
+/**
+ * AdaGrad小批量优化器 / AdaGrad mini-batch optimizer
+ * <p>
+ * 累积梯度平方和G，按坐标缩放步长：x = x - η·g / (√G + ε)。适合稀疏或尺度差异大的特征。
+ * </p>
+ * <p>
+ * Accumulates the sum of squared gradients G and scales the step per coordinate: x = x - η·g / (√G + ε).
+ * Suited to sparse features or features with very different scales.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereAdaGrad extends RereStochasticOptimizer {
+
+    private float epsilon = 1e-8f;     // 数值稳定项 / Numerical stability term
+    private float[] accumulator;       // 梯度平方累积 / Accumulated squared gradients
+
+    /**
+     * 构造函数，使用默认参数 / Constructor with default parameters
+     */
+    public RereAdaGrad() {
+        this(0.1f, 32, 100);
+    }
+
+    /**
+     * 构造函数，允许自定义参数 / Constructor with custom parameters
+     *
+     * @param learningRate 学习率 / Learning rate
+     * @param batchSize 批大小 / Batch size
+     * @param maxEpochs 最大轮数 / Maximum epochs
+     */
+    public RereAdaGrad(float learningRate, int batchSize, int maxEpochs) {
+        super(learningRate, batchSize, maxEpochs);
+    }
+
+    @Override
+    protected void reset(int dimension) {
+        accumulator = new float[dimension];
+    }
+
+    @Override
+    protected void step(float[] x, float[] grad, float rate, int t) {
+        for (int i = 0; i < x.length; i++) {
+            float g = grad[i];
+            accumulator[i] += g * g;
+            x[i] -= rate * g / ((float) Math.sqrt(accumulator[i]) + epsilon);
+        }
+    }
+
+    /**
+     * 获取数值稳定项 / Get the numerical stability term
+     * @return 数值稳定项 / Numerical stability term
+     */
+    public float getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * 设置数值稳定项 / Set the numerical stability term
+     * @param epsilon 数值稳定项 / Numerical stability term
+     * @throws IllegalArgumentException 如果epsilon不为正 / if epsilon is not positive
+     */
+    public void setEpsilon(float epsilon) {
+        if (!(epsilon > 0)) {
+            throw new IllegalArgumentException("epsilon必须为正 / Epsilon must be positive");
+        }
+        this.epsilon = epsilon;
+    }
+}
@@ -0,0 +1,124 @@
+package com.reremouse.lab.math.optimize;
+
+/**
+ * Adam小批量优化器 / Adam mini-batch optimizer
+ * <p>
+ * 维护梯度的一阶矩m与二阶矩v的指数滑动平均，并做偏差修正：
+ * x = x - η·m̂ / (√v̂ + ε)，其中m̂ = m / (1 - β1^t)，v̂ = v / (1 - β2^t)。
+ * </p>
+ * <p>
+ * Keeps exponential moving averages of the first moment m and second moment v of the gradient with bias
+ * correction: x = x - η·m̂ / (√v̂ + ε), where m̂ = m / (1 - β1^t) and v̂ = v / (1 - β2^t).
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereAdam extends RereStochasticOptimizer {
+
+    private float beta1 = 0.9f;        // 一阶矩衰减率 / First-moment decay rate
+    private float beta2 = 0.999f;      // 二阶矩衰减率 / Second-moment decay rate
+    private float epsilon = 1e-8f;     // 数值稳定项 / Numerical stability term
+    private float[] firstMoment;       // 一阶矩 / First moment
+    private float[] secondMoment;      // 二阶矩 / Second moment
+
+    /**
+     * 构造函数，使用默认参数 / Constructor with default parameters
+     */
+    public RereAdam() {
+        this(0.001f, 32, 100);
+    }
+
+    /**
+     * 构造函数，允许自定义参数 / Constructor with custom parameters
+     *
+     * @param learningRate 学习率 / Learning rate
+     * @param batchSize 批大小 / Batch size
+     * @param maxEpochs 最大轮数 / Maximum epochs
+     */
+    public RereAdam(float learningRate, int batchSize, int maxEpochs) {
+        super(learningRate, batchSize, maxEpochs);
+    }
+
+    @Override
+    protected void reset(int dimension) {
+        firstMoment = new float[dimension];
+        secondMoment = new float[dimension];
+    }
+
+    @Override
+    protected void step(float[] x, float[] grad, float rate, int t) {
+        // 偏差修正合并到步长中 / Fold the bias correction into the step size
+        double c1 = 1.0 - Math.pow(beta1, t + 1);
+        double c2 = 1.0 - Math.pow(beta2, t + 1);
+        float alpha = (float) (rate * Math.sqrt(c2) / c1);
+        float eps = (float) (epsilon * Math.sqrt(c2));
+        for (int i = 0; i < x.length; i++) {
+            float g = grad[i];
+            firstMoment[i] = beta1 * firstMoment[i] + (1 - beta1) * g;
+            secondMoment[i] = beta2 * secondMoment[i] + (1 - beta2) * g * g;
+            x[i] -= alpha * firstMoment[i] / ((float) Math.sqrt(secondMoment[i]) + eps);
+        }
+    }
+
+    /**
+     * 获取一阶矩衰减率 / Get the first-moment decay rate
+     * @return 一阶矩衰减率 / First-moment decay rate
+     */
+    public float getBeta1() {
+        return beta1;
+    }
+
+    /**
+     * 设置一阶矩衰减率 / Set the first-moment decay rate
+     * @param beta1 一阶矩衰减率，取值[0, 1) / First-moment decay rate in [0, 1)
+     * @throws IllegalArgumentException 如果衰减率不在[0, 1) / if the rate is outside [0, 1)
+     */
+    public void setBeta1(float beta1) {
+        if (!(beta1 >= 0 && beta1 < 1)) {
+            throw new IllegalArgumentException("beta1须在[0, 1) / beta1 must be in [0, 1)");
+        }
+        this.beta1 = beta1;
+    }
+
+    /**
+     * 获取二阶矩衰减率 / Get the second-moment decay rate
+     * @return 二阶矩衰减率 / Second-moment decay rate
+     */
+    public float getBeta2() {
+        return beta2;
+    }
+
+    /**
+     * 设置二阶矩衰减率 / Set the second-moment decay rate
+     * @param beta2 二阶矩衰减率，取值[0, 1) / Second-moment decay rate in [0, 1)
+     * @throws IllegalArgumentException 如果衰减率不在[0, 1) / if the rate is outside [0, 1)
+     */
+    public void setBeta2(float beta2) {
+        if (!(beta2 >= 0 && beta2 < 1)) {
+            throw new IllegalArgumentException("beta2须在[0, 1) / beta2 must be in [0, 1)");
+        }
+        this.beta2 = beta2;
+    }
+
+    /**
+     * 获取数值稳定项 / Get the numerical stability term
+     * @return 数值稳定项 / Numerical stability term
+     */
+    public float getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * 设置数值稳定项 / Set the numerical stability term
+     * @param epsilon 数值稳定项 / Numerical stability term
+     * @throws IllegalArgumentException 如果epsilon不为正 / if epsilon is not positive
+     */
+    public void setEpsilon(float epsilon) {
+        if (!(epsilon > 0)) {
+            throw new IllegalArgumentException("epsilon必须为正 / Epsilon must be positive");
+        }
+        this.epsilon = epsilon;
+    }
+}
@@ -0,0 +1,262 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.RereExecutor;
+import com.reremouse.lab.util.RereRandom;
+import com.reremouse.lab.util.Tuple2;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * 批量优化器：并行求解大量相互独立的优化问题 / Batch optimizer: solves many independent problems in parallel
+ * <p>
+ * 面向"很多个小问题"的吞吐量：单个小问题（例如每个细分人群一个回归模型）内部难以并行，逐个求解时只用到一个核。
+ * 本类把问题按区间切块交给共享的工作窃取线程池（{@link RereExecutor}），每块在一个线程上依次求解块内的问题，
+ * 并只创建一个优化器（以及多起点优化时的一个函数实例），块内的问题复用它们；空闲线程会窃取尚未开始的块。
+ * 每个问题的结果只取决于它自己的函数与初始点，与线程数及切块方式无关。
+ * 支持三种用法：
+ * 1. {@link #optimize(List, List)}：每个问题一个函数实例与初始点；
+ * 2. {@link #multiStart}：同一个目标函数从多个初始点出发，用{@link #best}取最优结果，函数实例由工厂按块创建，
+ *    因此不要求函数线程安全；
+ * 3. {@link #map}：并行执行任意独立任务，例如训练大量小模型。
+ * </p>
+ * <p>
+ * Aimed at throughput over many small problems: a single small problem (such as one regression model per
+ * segment) hardly parallelizes internally, so solving them one by one uses a single core. This class cuts the
+ * problems into ranges on the shared work-stealing pool ({@link RereExecutor}); each range solves its problems
+ * sequentially on one thread with a single optimizer (and, for multi-start, a single function instance) reused
+ * across them, and idle threads steal ranges that have not started. Each problem's result depends only on its own
+ * function and start, not on the thread count or the split. Three forms are supported:
+ * 1. {@link #optimize(List, List)}: one function instance and start per problem;
+ * 2. {@link #multiStart}: one objective from many starts, with {@link #best} picking the best result; function
+ *    instances come from a factory per range, so the function need not be thread-safe;
+ * 3. {@link #map}: arbitrary independent tasks in parallel, for instance fitting many small models.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereBatchOptimizer {
+
+    /** 优化器工厂，每块创建一个 / Optimizer factory, called once per range */
+    private final Supplier<? extends IOptimizer> optimizerFactory;
+
+    /**
+     * 构造函数，使用默认参数的LBFGS / Constructor using LBFGS with default parameters
+     */
+    public RereBatchOptimizer() {
+        this(RereLBFGS::new);
+    }
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param optimizerFactory 优化器工厂，每块调用一次；创建的优化器在块内被依次复用 / Optimizer factory called
+     *                         once per range; the optimizer is reused sequentially within the range
+     * @throws IllegalArgumentException 如果工厂为null / if the factory is null
+     */
+    public RereBatchOptimizer(Supplier<? extends IOptimizer> optimizerFactory) {
+        if (optimizerFactory == null) {
+            throw new IllegalArgumentException("优化器工厂不能为空 / Optimizer factory cannot be null");
+        }
+        this.optimizerFactory = optimizerFactory;
+    }
+
+    /**
+     * 并行求解一组独立的可微问题 / Solve independent differentiable problems in parallel
+     *
+     * @param problems 问题，每个实例只被一个线程使用 / Problems; each instance is used by one thread only
+     * @param starts 与问题一一对应的初始点 / Starting points, one per problem
+     * @return 与问题顺序一致的结果 / Results in problem order
+     * @throws IllegalArgumentException 如果参数为null或数量不一致 / if an argument is null or the sizes differ
+     */
+    public List<Tuple2<Float, IVector>> optimize(List<? extends IDifferentiableFunction> problems,
+                                                 List<? extends IVector> starts) {
+        if (problems == null) {
+            throw new IllegalArgumentException("问题列表不能为空 / Problem list cannot be null");
+        }
+        return optimize(problems, problems, starts);
+    }
+
+    /**
+     * 并行求解一组目标函数与梯度分开给出的独立问题 / Solve independent problems given as separate objectives and
+     * gradients in parallel
+     *
+     * @param objectives 目标函数 / Objectives
+     * @param gradients 与目标函数一一对应的梯度 / Gradients, one per objective
+     * @param starts 与问题一一对应的初始点 / Starting points, one per problem
+     * @return 与问题顺序一致的结果 / Results in problem order
+     * @throws IllegalArgumentException 如果参数为null或数量不一致 / if an argument is null or the sizes differ
+     */
+    public List<Tuple2<Float, IVector>> optimize(List<? extends IObjectiveFunction> objectives,
+                                                 List<? extends IGradientFunction> gradients,
+                                                 List<? extends IVector> starts) {
+        if (objectives == null || gradients == null || starts == null) {
+            throw new IllegalArgumentException("参数不能为空 / Arguments cannot be null");
+        }
+        if (objectives.size() != gradients.size() || objectives.size() != starts.size()) {
+            throw new IllegalArgumentException("问题与初始点的数量不一致 / Problem and start counts differ: "
+                + objectives.size() + ", " + gradients.size() + ", " + starts.size());
+        }
+        return solve(starts, k -> objectives.get(k), k -> gradients.get(k), null);
+    }
+
+    /**
+     * 多起点优化：同一个目标函数从每个初始点出发求解一次 / Multi-start optimization: one run of the same objective
+     * from every starting point
+     * <p>
+     * 工厂在每块调用一次，块内的初始点共用该实例；函数无状态且线程安全时可直接传入 {@code () -> f}。
+     * The factory is called once per range and the starts of a range share the instance; a stateless thread-safe
+     * function may be passed as {@code () -> f}.
+     * </p>
+     *
+     * @param functionFactory 函数工厂 / Function factory
+     * @param starts 初始点 / Starting points
+     * @return 与初始点顺序一致的结果 / Results in start order
+     * @throws IllegalArgumentException 如果参数为null / if an argument is null
+     */
+    public List<Tuple2<Float, IVector>> multiStart(Supplier<? extends IDifferentiableFunction> functionFactory,
+                                                   List<? extends IVector> starts) {
+        if (functionFactory == null || starts == null) {
+            throw new IllegalArgumentException("参数不能为空 / Arguments cannot be null");
+        }
+        return solve(starts, null, null, functionFactory);
+    }
+
+    /**
+     * 求解全部问题 / Solve all problems
+     */
+    private List<Tuple2<Float, IVector>> solve(List<? extends IVector> starts,
+                                               IntFunction<? extends IObjectiveFunction> objectives,
+                                               IntFunction<? extends IGradientFunction> gradients,
+                                               Supplier<? extends IDifferentiableFunction> functionFactory) {
+        int count = starts.size();
+        List<Tuple2<Float, IVector>> results = new ArrayList<>(Collections.nCopies(count, null));
+        RereExecutor.parallelFor(0, count, 1, (from, to) -> {
+            IOptimizer optimizer = optimizerFactory.get();
+            IDifferentiableFunction shared = functionFactory != null ? functionFactory.get() : null;
+            for (int k = from; k < to; k++) {
+                IVector start = starts.get(k);
+                if (start == null) {
+                    throw new IllegalArgumentException("初始点不能为空 / Starting point cannot be null: " + k);
+                }
+                Tuple2<Float, IVector> result = shared != null
+                    ? optimizer.optimize(start, shared, shared)
+                    : optimizer.optimize(start, objectives.apply(k), gradients.apply(k));
+                results.set(k, result);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * 找出函数值最小的结果 / Find the result with the lowest value
+     *
+     * @param results 结果列表 / Results
+     * @return 最优结果的下标，NaN不参与比较；全部为NaN时返回0 / Index of the best result, ignoring NaN; 0 if all are
+     *         NaN
+     * @throws IllegalArgumentException 如果结果列表为空 / if the list is empty
+     */
+    public static int best(List<? extends Tuple2<Float, IVector>> results) {
+        if (results == null || results.isEmpty()) {
+            throw new IllegalArgumentException("结果列表不能为空 / Result list cannot be empty");
+        }
+        int best = 0;
+        float bestValue = Float.NaN;
+        for (int k = 0; k < results.size(); k++) {
+            float value = results.get(k)._1;
+            if (!Float.isNaN(value) && (Float.isNaN(bestValue) || value < bestValue)) {
+                best = k;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 在给定的盒子内均匀生成初始点 / Generate starting points uniformly inside a box
+     *
+     * @param count 初始点个数 / Number of starts
+     * @param lower 各维下界 / Lower bounds
+     * @param upper 各维上界 / Upper bounds
+     * @param seed 随机种子 / Random seed
+     * @return 初始点 / Starting points
+     * @throws IllegalArgumentException 如果个数为负或上下界无效 / if the count is negative or the bounds are invalid
+     */
+    public static List<IVector> uniformStarts(int count, float[] lower, float[] upper, long seed) {
+        return uniformStarts(count, lower, upper, RereRandom.create(seed));
+    }
+
+    /**
+     * 用给定的生成器在盒子内均匀生成初始点 / Generate starting points uniformly inside a box with the given generator
+     *
+     * @param count 初始点个数 / Number of starts
+     * @param lower 各维下界 / Lower bounds
+     * @param upper 各维上界 / Upper bounds
+     * @param random 随机数生成器 / Random generator
+     * @return 初始点 / Starting points
+     * @throws IllegalArgumentException 如果个数为负、上下界无效或生成器为null / if the count is negative, the bounds
+     *         are invalid or the generator is null
+     */
+    public static List<IVector> uniformStarts(int count, float[] lower, float[] upper, RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+        if (count < 0 || lower == null || upper == null || lower.length != upper.length) {
+            throw new IllegalArgumentException("个数不能为负，上下界维度必须一致 / Count must be non-negative and bounds "
+                + "must have the same dimension");
+        }
+        for (int j = 0; j < lower.length; j++) {
+            if (!(lower[j] <= upper[j])) {
+                throw new IllegalArgumentException("下界大于上界 / Lower bound exceeds upper bound at " + j);
+            }
+        }
+        List<IVector> starts = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            float[] x = new float[lower.length];
+            for (int j = 0; j < x.length; j++) {
+                x[j] = lower[j] + (upper[j] - lower[j]) * random.nextFloat();
+            }
+            starts.add(IVector.of(x));
+        }
+        return starts;
+    }
+
+    /**
+     * 在线程池中并行执行一组独立任务，例如训练大量小模型 / Run independent tasks on the pool, for instance fitting
+     * many small models
+     * <p>
+     * 任务内部再调用并行方法（如模型的按行分块求值）时直接在同一个池中拆分，不会死锁。
+     * A task that itself calls parallel methods (such as a model's row-blocked evaluation) splits within the same
+     * pool without deadlock.
+     * </p>
+     *
+     * @param <T> 输入类型 / Input type
+     * @param <R> 结果类型 / Result type
+     * @param items 输入 / Inputs
+     * @param task 任务 / Task
+     * @return 与输入顺序一致的结果 / Results in input order
+     * @throws IllegalArgumentException 如果参数为null / if an argument is null
+     */
+    public static <T, R> List<R> map(List<? extends T> items, Function<? super T, ? extends R> task) {
+        if (items == null || task == null) {
+            throw new IllegalArgumentException("参数不能为空 / Arguments cannot be null");
+        }
+        Object[] results = new Object[items.size()];
+        RereExecutor.parallelFor(0, items.size(), 1, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                results[k] = task.apply(items.get(k));
+            }
+        });
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(results);
+        return list;
+    }
+}
@@ -0,0 +1,220 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+
+import java.util.Arrays;
+
+/**
+ * 带最近一点缓存的可微函数 / Differentiable function with a last-point cache
+ * <p>
+ * 保存最近一次求值的点、函数值与梯度，在同一点上的重复请求直接返回缓存，优化器因此可以放心地在不同位置
+ * 分别索取函数值与梯度。包装{@link IDifferentiableFunction}时一次调用同时得到两者；包装分开的函数值与梯度函数时
+ * 按需分别计算（例如线搜索中Armijo条件不满足的试探点只计算函数值）。
+ * 缓存按内容比较点，点的数据被原地修改后仍能正确识别；缓冲区在第一次求值时分配，之后不再分配。本类不是线程安全的。
+ * </p>
+ * <p>
+ * Keeps the point, value and gradient of the last evaluation and answers repeated requests at the same point from
+ * the cache, so optimizers can freely ask for the value and the gradient in different places. Wrapping an
+ * {@link IDifferentiableFunction} yields both from one call; wrapping separate objective and gradient functions
+ * computes each on demand (for instance only the value at a line-search trial that fails the Armijo condition).
+ * Points are compared by content, so data modified in place is still recognised; buffers are allocated on the first
+ * evaluation and reused afterwards. This class is not thread-safe.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereCachedFunction implements IDifferentiableFunction {
+
+    /** 融合的函数，分开求值时为null / Fused function, null when value and gradient are separate */
+    private final IDifferentiableFunction fused;
+
+    /** 函数值计算法 / Objective function */
+    private final IObjectiveFunction objective;
+
+    /** 梯度计算法 / Gradient function */
+    private final IGradientFunction gradient;
+
+    /** 缓存的点 / Cached point */
+    private float[] point;
+
+    /** 缓存的函数值 / Cached value */
+    private float value;
+
+    /** 缓存的梯度 / Cached gradient */
+    private float[] cachedGradient;
+
+    /** 缓存中是否有函数值 / Whether the cache holds the value */
+    private boolean hasValue;
+
+    /** 缓存中是否有梯度 / Whether the cache holds the gradient */
+    private boolean hasGradient;
+
+    /** 底层函数值的求值次数（融合求值计入此项） / Underlying value evaluations (fused evaluations count here) */
+    private int valueEvaluations;
+
+    /** 底层梯度的单独求值次数 / Separate underlying gradient evaluations */
+    private int gradientEvaluations;
+
+    /** 底层求值累计耗时（纳秒） / Accumulated time inside underlying evaluations in nanoseconds */
+    private long evaluationNanos;
+
+    /**
+     * 包装融合的可微函数 / Wrap a fused differentiable function
+     *
+     * @param function 可微函数 / Differentiable function
+     * @throws IllegalArgumentException 如果函数为null / if the function is null
+     */
+    public RereCachedFunction(IDifferentiableFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("函数不能为空 / Function cannot be null");
+        }
+        this.fused = function;
+        this.objective = function;
+        this.gradient = function;
+    }
+
+    /**
+     * 包装分开的函数值与梯度函数；两者是同一个{@link IDifferentiableFunction}对象时按融合方式求值 / Wrap separate
+     * objective and gradient functions; if both are the same {@link IDifferentiableFunction} it is evaluated fused
+     *
+     * @param objFun 目标函数计算法 / Objective function
+     * @param grdFun 梯度计算法 / Gradient function
+     * @throws IllegalArgumentException 如果任一函数为null / if either function is null
+     */
+    public RereCachedFunction(IObjectiveFunction objFun, IGradientFunction grdFun) {
+        if (objFun == null || grdFun == null) {
+            throw new IllegalArgumentException("目标函数与梯度函数不能为空 / Objective and gradient functions cannot be null");
+        }
+        this.fused = objFun == grdFun && objFun instanceof IDifferentiableFunction
+            ? (IDifferentiableFunction) objFun : null;
+        this.objective = objFun;
+        this.gradient = grdFun;
+    }
+
+    /**
+     * 获取函数值 / Get the value
+     *
+     * @param x 变量值 / Variables
+     * @return 函数值 / Function value
+     */
+    public float value(IVector x) {
+        if (!moveTo(x) || !hasValue) {
+            if (fused != null) {
+                evaluateFused(x);
+            } else {
+                long start = System.nanoTime();
+                value = objective.computeObjective(x);
+                evaluationNanos += System.nanoTime() - start;
+                valueEvaluations++;
+                hasValue = true;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 把梯度复制到给定的缓冲区 / Copy the gradient into the given buffer
+     *
+     * @param x 变量值 / Variables
+     * @param out 梯度输出缓冲区 / Gradient output buffer
+     */
+    public void gradient(IVector x, float[] out) {
+        if (!moveTo(x) || !hasGradient) {
+            if (fused != null) {
+                evaluateFused(x);
+            } else {
+                long start = System.nanoTime();
+                System.arraycopy(gradient.computeGradient(x).getData(), 0, cachedGradient, 0, cachedGradient.length);
+                evaluationNanos += System.nanoTime() - start;
+                gradientEvaluations++;
+                hasGradient = true;
+            }
+        }
+        System.arraycopy(cachedGradient, 0, out, 0, out.length);
+    }
+
+    @Override
+    public float evaluate(IVector x, float[] out) {
+        float v = value(x);
+        gradient(x, out);
+        return v;
+    }
+
+    @Override
+    public float computeObjective(IVector x) {
+        return value(x);
+    }
+
+    @Override
+    public IVector computeGradient(IVector x) {
+        float[] out = new float[x.length()];
+        gradient(x, out);
+        return IVector.of(out);
+    }
+
+    /**
+     * 清空缓存，底层函数改变（如训练数据被替换）后调用 / Clear the cache; call after the underlying function changes
+     * (for example when the training data is replaced)
+     */
+    public void invalidate() {
+        hasValue = false;
+        hasGradient = false;
+    }
+
+    /**
+     * 获取底层函数值的求值次数（包括融合求值） / Get the number of underlying value evaluations (including fused ones)
+     *
+     * @return 求值次数 / Number of evaluations
+     */
+    public int getValueEvaluations() {
+        return valueEvaluations;
+    }
+
+    /**
+     * 获取底层梯度的单独求值次数 / Get the number of separate underlying gradient evaluations
+     *
+     * @return 求值次数 / Number of evaluations
+     */
+    public int getGradientEvaluations() {
+        return gradientEvaluations;
+    }
+
+    /**
+     * 获取底层求值的累计耗时 / Get the accumulated time inside underlying evaluations
+     *
+     * @return 纳秒数 / Nanoseconds
+     */
+    public long getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    /**
+     * 把缓存对准x，返回x是否就是缓存的点 / Point the cache at x and return whether x is the cached point
+     */
+    private boolean moveTo(IVector x) {
+        float[] data = x.getData();
+        if (point != null && point.length == data.length) {
+            if ((hasValue || hasGradient) && Arrays.equals(point, data)) {
+                return true;
+            }
+        } else {
+            point = new float[data.length];
+            cachedGradient = new float[data.length];
+        }
+        System.arraycopy(data, 0, point, 0, data.length);
+        hasValue = false;
+        hasGradient = false;
+        return false;
+    }
+
+    private void evaluateFused(IVector x) {
+        long start = System.nanoTime();
+        value = fused.evaluate(x, cachedGradient);
+        evaluationNanos += System.nanoTime() - start;
+        valueEvaluations++;
+        hasValue = true;
+        hasGradient = true;
+    }
+}
@@ -1,9 +1,7 @@
 package com.reremouse.lab.math.optimize;
 
-import com.reremouse.lab.util.Tuple2;
-import java.util.ArrayList;
-import java.util.List;
 import com.reremouse.lab.math.IVector;
+import java.util.function.Supplier;
 
 /**
  * LBFGS优化器
@@ -24,6 +22,18 @@ import com.reremouse.lab.math.IVector;
  *   <li>超线性收敛：在接近最优解时收敛速度很快 / Superlinear convergence: fast convergence near optimal solution</li>
  *   <li>无需计算Hessian矩阵：只需要目标函数和梯度 / No Hessian computation: only requires objective function and gradient</li>
  *   <li>适用于大规模问题：内存使用量与问题维度线性相关 / Suitable for large-scale problems: memory usage linear in problem dimension</li>
+ *   <li>无额外分配：历史信息存放在预分配的环形缓冲区中，两循环递归与线搜索原地进行，
+ *       迭代中只有用户梯度函数自身的分配 / Allocation-free: history lives in preallocated ring buffers and the
+ *       two-loop recursion and line search work in place, so iterations allocate nothing beyond the user's
+ *       gradient</li>
+ *   <li>每个点只求值一次：objFun与grdFun是同一个{@link IDifferentiableFunction}时函数值与梯度一次得到，
+ *       线搜索接受的点的梯度直接复用 / Each point is evaluated once: when objFun and grdFun are the same
+ *       {@link IDifferentiableFunction} value and gradient come from one call, and the gradient at the point
+ *       accepted by the line search is reused</li>
+ *   <li>可观测：返回的{@link OptimizationResult}记录停止原因、求值次数、各阶段耗时与收敛曲线，
+ *       {@link IOptimizationListener}可逐次迭代观察并提前停止 / Observable: the returned
+ *       {@link OptimizationResult} records the stop reason, evaluation counts, time per phase and the convergence
+ *       trace, and an {@link IOptimizationListener} sees every iteration and may stop early</li>
  * </ul>
  * 
  * @author lteb2
@@ -34,6 +44,8 @@ public class RereLBFGS implements IOptimizer{
     private int m = 10;                    // 存储的历史信息对数 / Number of stored history pairs
     private float tolerance = 1e-6f;       // 收敛容差 / Convergence tolerance
     private int maxIterations = 1000;      // 最大迭代次数 / Maximum iterations
+    private Supplier<? extends ILineSearch> lineSearchFactory = RereWolfeLineSearch::new; // 线搜索 / Line search
+    private IOptimizationListener listener = null; // 迭代监听器 / Iteration listener
 
     
     /**
@@ -45,12 +57,12 @@ public class RereLBFGS implements IOptimizer{
     /**
      * 构造函数，允许自定义参数 / Constructor with custom parameters
      * 
-     * @param m 存储的历史信息对数 / Number of stored history pairs
+     * @param m 存储的历史信息对数，小于1时按1处理 / Number of stored history pairs, treated as 1 if less than 1
      * @param tolerance 收敛容差 / Convergence tolerance
      * @param maxIterations 最大迭代次数 / Maximum iterations
      */
     public RereLBFGS(int m, float tolerance, int maxIterations) {
-        this.m = m;
+        this.m = Math.max(1, m);
         this.tolerance = tolerance;
         this.maxIterations = maxIterations;
     }
@@ -64,19 +76,21 @@ public class RereLBFGS implements IOptimizer{
      *    a) 计算梯度
      *    b) 检查收敛条件
      *    c) 使用两循环递归计算搜索方向
-     *    d) 线搜索确定步长
+     *    d) 满足强Wolfe条件的插值线搜索确定步长（找不到下降时丢弃历史改用负梯度，仍失败则停止）
      *    e) 更新参数和历史信息
-     * 3. 返回最优解
+     * 3. 返回最优解，以及停止原因、求值次数、各阶段耗时与收敛曲线
+     * 每次迭代开始时（检查收敛之前）通知监听器，监听器返回false则提前停止。
      * </p>
      * 
      * @param initX 初始点 / Initial point
      * @param objFun 目标函数计算法 / Objective function
      * @param grdFun 梯度计算法 / Gradient function
-     * @return 返回最优值及最优点的变量值（向量） / Returns optimal value and optimal point
+     * @return 返回最优值及最优点的变量值（向量），以及迭代记录 / Returns optimal value and optimal point together
+     *         with the iteration record
      * @throws IllegalArgumentException 如果输入参数无效 / if input parameters are invalid
      */
     @Override
-    public Tuple2<Float, IVector> optimize(IVector initX, IObjectiveFunction objFun, IGradientFunction grdFun) {
+    public OptimizationResult optimize(IVector initX, IObjectiveFunction objFun, IGradientFunction grdFun) {
         // 参数验证 / Parameter validation
         if (initX == null) {
             throw new IllegalArgumentException("初始点不能为空 / Initial point cannot be null");
@@ -88,168 +102,266 @@ public class RereLBFGS implements IOptimizer{
             throw new IllegalArgumentException("梯度函数不能为空 / Gradient function cannot be null");
         }
         
-        // 初始化变量 / Initialize variables
-        IVector x = initX.copy();  // 当前点 / Current point
-        int n = x.length();       // 问题维度 / Problem dimension
+        // 工作区只在开始时分配一次 / The workspace is allocated once up front
+        int n = initX.length();   // 问题维度 / Problem dimension
+        int memory = m;
+        float[] x = initX.getData().clone();   // 当前点 / Current point
+        float[] next = new float[n];           // 试探点 / Trial point
+        IVector xVector = IVector.of(x);
+        IVector nextVector = IVector.of(next);
+        float[] grad = new float[n];
+        float[] nextGrad = new float[n];
+        float[] direction = new float[n];
         
-        // 历史信息存储 / History information storage
-        List<IVector> s_history = new ArrayList<>();  // 位置差向量历史 / Position difference history
-        List<IVector> y_history = new ArrayList<>();  // 梯度差向量历史 / Gradient difference history
-        List<Float> rho_history = new ArrayList<>(); // ρ值历史 / Rho value history
+        // 环形历史缓冲区：第head个是最旧的一对，共count对 / Ring buffer: slot head is the oldest of count pairs
+        float[][] sHistory = new float[memory][n];   // 位置差 / Position differences
+        float[][] yHistory = new float[memory][n];   // 梯度差 / Gradient differences
+        double[] rho = new double[memory];           // ρ = 1 / (yᵀs)
+        double[] alpha = new double[memory];
+        float[] spareS = new float[n];               // 新一对的暂存区 / Staging area for the new pair
+        float[] spareY = new float[n];
+        int head = 0;
+        int count = 0;
         
-        // 计算初始梯度 / Compute initial gradient
-        IVector grad = grdFun.computeGradient(x);
+        // 每个点只求值一次：函数值与梯度经最近一点缓存获取 / Each point is evaluated once through a last-point cache
+        RereCachedFunction function = new RereCachedFunction(objFun, grdFun);
+        ILineSearch lineSearch = lineSearchFactory.get();
+        float value = function.value(xVector);
+        function.gradient(xVector, grad);
+        
+        OptimizationMonitor monitor = new OptimizationMonitor(listener, function);
+        OptimizationResult.StopReason reason;
         
         // 主迭代循环 / Main iteration loop
-        for (int iter = 0; iter < maxIterations; iter++) {
-            // 检查收敛条件：梯度范数足够小 / Check convergence: gradient norm is small enough
-            float gradNorm = grad.norm2();
+        int iter = 0;
+        while (true) {
+            // 记录当前点，检查收敛条件：梯度范数足够小 / Record the point and check convergence: gradient norm
+            // is small enough
+            float gradNorm = (float) Math.sqrt(dot(grad, grad));
+            if (!monitor.report(iter, value, gradNorm)) {
+                reason = OptimizationResult.StopReason.STOPPED;
+                break;
+            }
             if (gradNorm < tolerance) {
-                float optimalValue = objFun.computeObjective(x);
-                return new Tuple2<>(optimalValue, x);
+                reason = OptimizationResult.StopReason.CONVERGED;
+                break;
+            }
+            if (iter >= maxIterations) {
+                reason = OptimizationResult.StopReason.MAX_ITERATIONS;
+                break;
             }
             
-            // 计算搜索方向：使用两循环递归 / Compute search direction: two-loop recursion
-            IVector direction = computeSearchDirection(grad, s_history, y_history, rho_history);
-            direction = direction.multiplyScalar(-1.0f); // 负梯度方向 / Negative gradient direction
-            
-            // 线搜索确定步长 / Line search to determine step size
-            float stepSize = new RereLineSearch().search(x, direction, objFun, grdFun, grad);
+            // 两循环递归计算搜索方向 -H·g / Two-loop recursion for the search direction -H·g
+            long phase = System.nanoTime();
+            computeSearchDirection(grad, sHistory, yHistory, rho, alpha, head, count, direction);
+            if (count > 0 && !(dot(grad, direction) < 0)) {
+                // 数值误差使方向不再下降：丢弃历史，改用负梯度 / Not a descent direction due to rounding: drop
+                // the history and use the negative gradient
+                count = 0;
+                head = 0;
+                computeSearchDirection(grad, sHistory, yHistory, rho, alpha, head, count, direction);
+            }
+            monitor.directionDone(phase);
             
-            // 更新位置 / Update position
-            IVector newX = x.add(direction.multiplyScalar(stepSize));
-            IVector newGrad = grdFun.computeGradient(newX);
+            // 线搜索确定步长，试探点与其梯度写入next与nextGrad / Line search writes the point into next and nextGrad
+            phase = System.nanoTime();
+            int evaluations = function.getValueEvaluations();
+            float step = lineSearch.search(x, value, grad, direction, nextVector, nextGrad, function);
+            if (step == 0.0f && count > 0) {
+                // 丢弃可能失真的历史，沿负梯度重试 / Drop the possibly stale history and retry along the
+                // negative gradient
+                count = 0;
+                head = 0;
+                computeSearchDirection(grad, sHistory, yHistory, rho, alpha, head, count, direction);
+                step = lineSearch.search(x, value, grad, direction, nextVector, nextGrad, function);
+            }
+            monitor.lineSearchDone(phase, evaluations, step);
+            if (step == 0.0f) {
+                // 负梯度方向上也找不到下降：已无法继续改进 / No decrease even along the negative gradient
+                reason = OptimizationResult.StopReason.NO_PROGRESS;
+                break;
+            }
             
-            // 更新历史信息 / Update history information
-            updateHistory(x, newX, grad, newGrad, s_history, y_history, rho_history);
+            // 更新历史信息：新的一对先写入暂存区 / Update history: the new pair goes to the staging area first
+            phase = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                spareS[i] = next[i] - x[i];
+                spareY[i] = nextGrad[i] - grad[i];
+            }
+            double sTy = dot(spareS, spareY);
+            // 检查曲率条件：s^T * y > 0，确保正定性 / Check curvature condition: s^T * y > 0 for positive definiteness
+            if (sTy > 1e-10f) {
+                int slot;
+                if (count < memory) {
+                    slot = (head + count) % memory;
+                    count++;
+                } else {
+                    // 覆盖最旧的一对 / Overwrite the oldest pair
+                    slot = head;
+                    head = (head + 1) % memory;
+                }
+                // 与槽位交换数组，不复制 / Swap arrays with the slot instead of copying
+                float[] t = sHistory[slot];
+                sHistory[slot] = spareS;
+                spareS = t;
+                t = yHistory[slot];
+                yHistory[slot] = spareY;
+                spareY = t;
+                rho[slot] = 1.0 / sTy;
+            }
+            monitor.directionDone(phase);
             
-            // 更新当前点和梯度 / Update current point and gradient
-            x = newX;
-            grad = newGrad;
+            // 交换当前点与试探点 / Swap the current and trial points
+            float[] t = x;
+            x = next;
+            next = t;
+            IVector tv = xVector;
+            xVector = nextVector;
+            nextVector = tv;
+            t = grad;
+            grad = nextGrad;
+            nextGrad = t;
+            value = lineSearch.getLastValue();
+            iter++;
         }
         
-        // 达到最大迭代次数，返回当前最优解 / Maximum iterations reached, return current best solution
-        float finalValue = objFun.computeObjective(x);
-        return new Tuple2<>(finalValue, x);
+        return monitor.finish(value, x, reason, iter);
+    }
+    
+    /**
+     * 求解可微函数的最优化问题，函数值与梯度在一次求值中得到 / Optimize a differentiable function whose value and
+     * gradient come from one evaluation
+     * 
+     * @param initX 初始点 / Initial point
+     * @param function 可微函数 / Differentiable function
+     * @return 返回最优值及最优点的变量值（向量） / Returns optimal value and optimal point
+     */
+    public OptimizationResult optimize(IVector initX, IDifferentiableFunction function) {
+        return optimize(initX, function, function);
     }
     
     /**
      * 计算LBFGS搜索方向
      * <p>
-     * 使用两循环递归算法计算搜索方向：
+     * 在direction中原地执行两循环递归，得到 -H·g：
      * 1. 第一个循环：从最新到最旧的历史信息，向后递归
-     * 2. 第二个循环：从最旧到最新的历史信息，向前递归
-     * 3. 使用初始Hessian近似（单位矩阵的标量倍数）
+     * 2. 使用初始Hessian近似（单位矩阵的标量倍数 γ = sᵀy / yᵀy，取最新的一对）
+     * 3. 第二个循环：从最旧到最新的历史信息，向前递归
      * </p>
      * 
      * @param grad 当前梯度 / Current gradient
-     * @param s_history 位置差历史 / Position difference history
-     * @param y_history 梯度差历史 / Gradient difference history  
-     * @param rho_history ρ值历史 / Rho value history
-     * @return 搜索方向 / Search direction
+     * @param sHistory 位置差环形缓冲区 / Ring buffer of position differences
+     * @param yHistory 梯度差环形缓冲区 / Ring buffer of gradient differences
+     * @param rho ρ值 / Rho values
+     * @param alpha 第一个循环的系数（工作区） / Coefficients of the first loop (workspace)
+     * @param head 最旧一对的位置 / Slot of the oldest pair
+     * @param count 历史对数 / Number of pairs
+     * @param direction 输出的搜索方向 / Receives the search direction
      */
-    private IVector computeSearchDirection(IVector grad, List<IVector> s_history, 
-                                        List<IVector> y_history, List<Float> rho_history) {
-        
-        IVector q = grad.copy();
-        int historySize = s_history.size();
-        float[] alpha = new float[historySize];
+    static void computeSearchDirection(float[] grad, float[][] sHistory, float[][] yHistory, double[] rho,
+                                       double[] alpha, int head, int count, float[] direction) {
+        int memory = sHistory.length;
+        int n = grad.length;
+        System.arraycopy(grad, 0, direction, 0, n);
         
         // 第一个循环：向后递归 / First loop: backward recursion
-        for (int i = historySize - 1; i >= 0; i--) {
-            alpha[i] = rho_history.get(i) * s_history.get(i).innerProduct(q);
-            q = q.sub(y_history.get(i).multiplyScalar(alpha[i]));
+        for (int k = count - 1; k >= 0; k--) {
+            int slot = (head + k) % memory;
+            alpha[slot] = rho[slot] * dot(sHistory[slot], direction);
+            axpy((float) -alpha[slot], yHistory[slot], direction);
         }
         
         // 应用初始Hessian近似 / Apply initial Hessian approximation
-        IVector r = applyInitialHessianApproximation(q, s_history, y_history);
-        
-        // 第二个循环：向前递归 / Second loop: forward recursion
-        for (int i = 0; i < historySize; i++) {
-            float beta = rho_history.get(i) * y_history.get(i).innerProduct(r);
-            r = r.add(s_history.get(i).multiplyScalar(alpha[i] - beta));
+        float gamma = -1.0f;
+        if (count > 0) {
+            int newest = (head + count - 1) % memory;
+            float[] y = yHistory[newest];
+            gamma = (float) (-1.0 / (rho[newest] * dot(y, y)));
         }
         
-        return r;
+        // 第二个循环：向前递归，方向取负号后继续 / Second loop: forward recursion on the negated direction
+        for (int i = 0; i < n; i++) {
+            direction[i] *= gamma;
+        }
+        for (int k = 0; k < count; k++) {
+            int slot = (head + k) % memory;
+            double beta = rho[slot] * dot(yHistory[slot], direction);
+            axpy((float) (-alpha[slot] - beta), sHistory[slot], direction);
+        }
     }
     
     /**
-     * 应用初始Hessian矩阵近似
-     * <p>
-     * 使用标量γ乘以单位矩阵作为初始Hessian近似，其中：
-     * γ = (s^T * y) / (y^T * y)
-     * 这是基于最新的历史信息计算得出的。
-     * </p>
-     * 
-     * @param q 输入向量 / Input vector
-     * @param s_history 位置差历史 / Position difference history
-     * @param y_history 梯度差历史 / Gradient difference history
-     * @return 应用初始Hessian近似后的向量 / IVector after applying initial Hessian approximation
+     * 八路独立累加的点积，打断加法的依赖链 / Dot product with eight independent accumulators to break the add
+     * dependency chain
      */
-    private IVector applyInitialHessianApproximation(IVector q, List<IVector> s_history, List<IVector> y_history) {
-        if (s_history.isEmpty()) {
-            // 如果没有历史信息，使用单位矩阵 / If no history, use identity matrix
-            return q;
+    static double dot(float[] a, float[] b) {
+        int n = a.length;
+        double s0 = 0.0;
+        double s1 = 0.0;
+        double s2 = 0.0;
+        double s3 = 0.0;
+        double s4 = 0.0;
+        double s5 = 0.0;
+        double s6 = 0.0;
+        double s7 = 0.0;
+        int i = 0;
+        for (; i + 7 < n; i += 8) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+            s4 += a[i + 4] * b[i + 4];
+            s5 += a[i + 5] * b[i + 5];
+            s6 += a[i + 6] * b[i + 6];
+            s7 += a[i + 7] * b[i + 7];
+        }
+        for (; i < n; i++) {
+            s0 += a[i] * b[i];
+        }
+        return ((s0 + s1) + (s2 + s3)) + ((s4 + s5) + (s6 + s7));
+    }
+    
+    private static void axpy(float a, float[] x, float[] y) {
+        for (int i = 0; i < y.length; i++) {
+            y[i] += a * x[i];
         }
-        
-        // 使用最新的历史信息计算初始Hessian近似 / Use latest history to compute initial Hessian approximation
-        IVector s_k = s_history.get(s_history.size() - 1);
-        IVector y_k = y_history.get(y_history.size() - 1);
-        
-        float gamma = s_k.innerProduct(y_k) / y_k.innerProduct(y_k);
-        
-        return q.multiplyScalar(gamma);
     }
     
+    // Getter和Setter方法 / Getter and Setter methods
     
     /**
-     * 更新LBFGS历史信息
+     * 设置线搜索，每次优化调用工厂创建一个新实例 / Set the line search; the factory creates a new instance for every
+     * optimization run
      * <p>
-     * 更新存储的历史信息，包括：
-     * 1. 位置差向量：s_k = x_{k+1} - x_k
-     * 2. 梯度差向量：y_k = ∇f(x_{k+1}) - ∇f(x_k)
-     * 3. ρ值：ρ_k = 1 / (y_k^T * s_k)
-     * 
-     * 如果存储的历史信息超过限制m，则删除最旧的信息。
+     * 默认使用{@link RereWolfeLineSearch}；{@code RereLineSearch::new}恢复旧的减半回溯搜索。
+     * Defaults to {@link RereWolfeLineSearch}; {@code RereLineSearch::new} restores the old halving backtracking
+     * search.
      * </p>
-     * 
-     * @param oldX 旧位置 / Old position
-     * @param newX 新位置 / New position
-     * @param oldGrad 旧梯度 / Old gradient
-     * @param newGrad 新梯度 / New gradient
-     * @param s_history 位置差历史 / Position difference history
-     * @param y_history 梯度差历史 / Gradient difference history
-     * @param rho_history ρ值历史 / Rho value history
+     * @param lineSearchFactory 线搜索工厂 / Line search factory
+     * @throws IllegalArgumentException 如果工厂为null / if the factory is null
      */
-    private void updateHistory(IVector oldX, IVector newX, IVector oldGrad, IVector newGrad,
-                             List<IVector> s_history, List<IVector> y_history, List<Float> rho_history) {
-        
-        // 计算位置差和梯度差 / Compute position and gradient differences
-        IVector s_k = newX.sub(oldX);
-        IVector y_k = newGrad.sub(oldGrad);
-        
-        // 计算ρ值 / Compute rho value
-        float sTy = s_k.innerProduct(y_k);
-        
-        // 检查曲率条件：s^T * y > 0，确保正定性 / Check curvature condition: s^T * y > 0 for positive definiteness
-        if (sTy > 1e-10f) {
-            float rho_k = 1.0f / sTy;
-            
-            // 添加新的历史信息 / Add new history information
-            s_history.add(s_k);
-            y_history.add(y_k);
-            rho_history.add(rho_k);
-            
-            // 如果超过存储限制，删除最旧的信息 / If exceeds storage limit, remove oldest information
-            if (s_history.size() > m) {
-                s_history.remove(0);
-                y_history.remove(0);
-                rho_history.remove(0);
-            }
+    public void setLineSearch(Supplier<? extends ILineSearch> lineSearchFactory) {
+        if (lineSearchFactory == null) {
+            throw new IllegalArgumentException("线搜索工厂不能为空 / Line search factory cannot be null");
         }
+        this.lineSearchFactory = lineSearchFactory;
     }
     
-    // Getter和Setter方法 / Getter and Setter methods
+    /**
+     * 获取迭代监听器 / Get the iteration listener
+     * @return 监听器，未设置时为null / Listener, null if not set
+     */
+    public IOptimizationListener getListener() {
+        return listener;
+    }
+    
+    /**
+     * 设置迭代监听器，null表示不监听 / Set the iteration listener, null for none
+     * @param listener 监听器 / Listener
+     */
+    public void setListener(IOptimizationListener listener) {
+        this.listener = listener;
+    }
     
     /**
      * 获取存储的历史信息对数 / Get number of stored history pairs
@@ -4,14 +4,19 @@ import com.reremouse.lab.math.IVector;
 
 /**
  * 最优化中的线搜索器
+ * <p>
+ * 从固定的初始步长开始逐次减半的回溯线搜索。{@link RereLBFGS}默认使用带插值的{@link RereWolfeLineSearch}，
+ * 可通过{@link RereLBFGS#setLineSearch}改用本类。
+ * </p>
  *
  * @author lteb2
  */
-public class RereLineSearch {
+public class RereLineSearch implements ILineSearch {
 
     private float c1 = 1e-4f;             // Armijo条件参数 / Armijo condition parameter
     private float c2 = 0.9f;              // Wolfe条件参数 / Wolfe condition parameter
     private float initialStepSize = 1.0f;  // 初始步长 / Initial step size
+    private float lastValue = Float.NaN;   // 最近一次原地搜索接受点的函数值 / Value at the last accepted point
 
     public RereLineSearch() {
     }
@@ -83,4 +88,105 @@ public class RereLineSearch {
         return alpha;
     }
 
+    /**
+     * 原地线搜索 / In-place line search
+     * <p>
+     * 与{@link #search(IVector, IVector, IObjectiveFunction, IGradientFunction, IVector)}的条件与步长序列相同，
+     * 但试探点直接写入调用方提供的向量，不分配新向量；当前点的函数值由调用方给出，不再重新计算。
+     * 函数经{@link RereCachedFunction}求值：Armijo条件满足后索取同一点的梯度时直接使用缓存，
+     * 因此每个试探点只求值一次。
+     * 返回时trial为x + α·d，trialGradient为该点梯度的副本，{@link #getLastValue()}为该点的函数值。
+     * 曲率条件始终不满足时取满足Armijo条件的最大步长；不是下降方向或没有步长满足Armijo条件时返回0，
+     * trial与trialGradient恢复为x及其梯度。
+     * </p>
+     * <p>
+     * Same conditions and step sequence as
+     * {@link #search(IVector, IVector, IObjectiveFunction, IGradientFunction, IVector)}, but trial points are
+     * written into a vector supplied by the caller instead of allocating new ones, and the value at the current
+     * point is passed in rather than recomputed. The function is evaluated through a {@link RereCachedFunction}, so
+     * asking for the gradient after the Armijo condition holds reuses the cache and every trial point is evaluated
+     * once. On return trial holds x + α·d, trialGradient a copy of the gradient there and {@link #getLastValue()}
+     * the value there. When the curvature condition is never met the largest step satisfying the Armijo condition
+     * is taken; for a non-descent direction, or when no step satisfies the Armijo condition, 0 is returned and
+     * trial and trialGradient are restored to x and its gradient.
+     * </p>
+     *
+     * @param x 当前位置 / Current position
+     * @param value 当前位置的函数值 / Value at the current position
+     * @param grad 当前梯度 / Current gradient
+     * @param direction 搜索方向 / Search direction
+     * @param trial 试探点，其数据被原地改写 / Trial point whose data is overwritten in place
+     * @param trialGradient 接受点的梯度 / Receives the gradient at the accepted point
+     * @param function 带缓存的目标函数 / Cached objective function
+     * @return 步长，找不到下降步长时为0 / Step size, 0 if no decreasing step was found
+     */
+    @Override
+    public float search(float[] x, float value, float[] grad, float[] direction, IVector trial,
+            float[] trialGradient, RereCachedFunction function) {
+        float[] t = trial.getData();
+        float directionalDerivative = (float) RereLBFGS.dot(grad, direction);
+        if (!(directionalDerivative < 0)) {
+            // 不是下降方向 / Not a descent direction
+            return noStep(x, value, grad, t, trialGradient);
+        }
+        float alpha = initialStepSize;
+        float armijoStep = 0.0f;
+        int maxLineSearchIterations = 50;
+        for (int i = 0; i < maxLineSearchIterations; i++) {
+            step(x, direction, alpha, t);
+            float newValue = function.value(trial);
+            if (newValue <= value + c1 * alpha * directionalDerivative) {
+                function.gradient(trial, trialGradient);
+                if (RereLBFGS.dot(trialGradient, direction) >= c2 * directionalDerivative) {
+                    this.lastValue = newValue;
+                    return alpha;
+                }
+                if (armijoStep == 0.0f) {
+                    armijoStep = alpha;
+                }
+            }
+            alpha *= 0.5f;
+            if (alpha < 1e-10f) {
+                break;
+            }
+        }
+        if (armijoStep == 0.0f) {
+            return noStep(x, value, grad, t, trialGradient);
+        }
+        // 曲率条件未满足时取满足Armijo条件的最大步长 / Take the largest step satisfying the Armijo condition when the
+        // curvature condition was never met
+        step(x, direction, armijoStep, t);
+        this.lastValue = function.value(trial);
+        function.gradient(trial, trialGradient);
+        return armijoStep;
+    }
+
+    /**
+     * 最近一次原地线搜索接受点的函数值 / Value at the point accepted by the last in-place search
+     *
+     * @return 函数值 / Objective value
+     */
+    @Override
+    public float getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * 找不到下降步长：试探点与梯度恢复为当前点 / No decreasing step: restore the trial point and gradient to the
+     * current point
+     */
+    private float noStep(float[] x, float value, float[] grad, float[] t, float[] trialGradient) {
+        System.arraycopy(x, 0, t, 0, x.length);
+        System.arraycopy(grad, 0, trialGradient, 0, grad.length);
+        this.lastValue = value;
+        return 0.0f;
+    }
+
+    static void step(float[] x, float[] direction, float alpha, float[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] + alpha * direction[i];
+        }
+    }
+
+
 }
@@ -0,0 +1,569 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+import java.util.Arrays;
+
+/**
+ * 信赖域Newton-CG优化器（截断牛顿法） / Trust-region Newton-CG optimizer (truncated Newton)
+ * <p>
+ * 每次外层迭代在半径Δ的信赖域内近似求解牛顿方程 H·p = -g，得到二次模型 m(p) = gᵀp + ½pᵀHp 的极小点：
+ * 1. 内层用Steihaug共轭梯度法，只需Hessian-向量积；残差降到 η·||g||（η = min(0.5, √||g||)）、
+ *    步长碰到信赖域边界或遇到负曲率时截断，远离最优点时只做几步CG，接近时解得越来越精确（超线性收敛）；
+ * 2. 用实际下降与模型预测下降之比ρ判断是否接受：ρ &gt; 10⁻⁴接受，ρ &lt; 0.25缩小半径，
+ *    ρ &gt; 0.75且步长到达边界时放大半径；不需要线搜索；
+ * 3. 函数实现{@link IHessianVectorFunction}（objFun与grdFun是同一对象）时使用精确的乘积，
+ *    否则用梯度的前向差分 (∇f(x + εv) - ∇f(x)) / ε 近似，每次乘积多一次梯度求值。
+ * 信赖域以欧氏范数度量，变量尺度相差悬殊时半径要经过多次迭代才能放大到合适的量级。对这类凸问题
+ * 可改用{@link Globalization#LINE_SEARCH}：不限制共轭梯度的步长（遇到负曲率时截断），再沿该方向从步长1开始
+ * 回溯，只要求Armijo条件；该方向不是下降方向时改用负梯度。牛顿方向不受变量缩放影响，通常仍是10到20次外层迭代。
+ * 非凸问题建议保留默认的信赖域。
+ * 对逻辑回归等光滑凸问题，每次外层迭代是一次求值加几次两遍数据遍历的乘积，而LBFGS在病态问题上需要数百次迭代。
+ * 返回的{@link OptimizationResult}中，方向耗时是共轭梯度求解（包括Hessian-向量积）的时间，
+ * 线搜索耗时与次数对应试探点的求值，步长为接受的步的长度（被拒绝时为0）。
+ * </p>
+ * <p>
+ * Every outer iteration approximately solves the Newton system H·p = -g inside a trust region of radius Δ,
+ * minimizing the quadratic model m(p) = gᵀp + ½pᵀHp:
+ * 1. The inner Steihaug conjugate gradient only needs Hessian-vector products; it stops once the residual drops to
+ *    η·||g|| (η = min(0.5, √||g||)), the step reaches the trust-region boundary or negative curvature appears, so
+ *    far from the optimum only a few CG steps are taken and near it the solves become exact (superlinear
+ *    convergence);
+ * 2. The ratio ρ of actual to predicted decrease decides acceptance: accept for ρ &gt; 10⁻⁴, shrink the radius for
+ *    ρ &lt; 0.25 and grow it for ρ &gt; 0.75 when the step reached the boundary; no line search is needed;
+ * 3. When the function implements {@link IHessianVectorFunction} (objFun and grdFun are the same object) the exact
+ *    product is used; otherwise it is approximated by forward differences of the gradient
+ *    (∇f(x + εv) - ∇f(x)) / ε at the cost of one gradient evaluation per product.
+ * The trust region is measured in the Euclidean norm, so when variable scales differ widely the radius needs many
+ * iterations to grow to the right magnitude. For such convex problems {@link Globalization#LINE_SEARCH} leaves the
+ * conjugate gradient step unbounded (truncating at negative curvature) and backtracks along it from a unit step,
+ * requiring only the Armijo condition and falling back to the negative gradient when the direction is not a descent
+ * direction; the Newton direction does not depend on variable scaling, so 10 to 20 outer iterations remain typical. Keep the
+ * default trust region for nonconvex problems.
+ * For smooth convex problems such as logistic regression each outer iteration costs one evaluation plus a few
+ * two-pass products, where LBFGS needs hundreds of iterations on ill-conditioned problems.
+ * In the returned {@link OptimizationResult} direction time is the conjugate gradient solve (including the
+ * Hessian-vector products), line search time and counts refer to the evaluation of trial points, and the step is
+ * the length of the accepted step (0 when rejected).
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereNewtonCG implements IOptimizer {
+
+    /**
+     * 全局化策略 / Globalization strategy
+     */
+    public enum Globalization {
+        /** 信赖域（默认），对非凸问题稳健 / Trust region (default), robust on nonconvex problems */
+        TRUST_REGION,
+        /** 牛顿方向上的回溯线搜索，不受变量缩放影响 / Backtracking line search along the Newton direction,
+         * unaffected by variable scaling */
+        LINE_SEARCH
+    }
+
+    /** 接受试探步的最小比值ρ / Smallest ratio ρ at which a trial step is accepted */
+    private static final float ETA = 1e-4f;
+
+    /** 视为停滞的相对下降量，接近float精度 / Relative decrease counted as a stall, near float precision */
+    private static final float MIN_RELATIVE_DECREASE = 1e-6f;
+
+    /** 连续停滞多少次后停止 / Consecutive stalled iterations before stopping */
+    private static final int MAX_STALLED_ITERATIONS = 5;
+
+    /** 回溯线搜索的Armijo条件参数 / Armijo condition parameter of the backtracking search */
+    private static final float ARMIJO = 1e-4f;
+
+    /** 回溯线搜索的最多减半次数 / Maximum halvings of the backtracking search */
+    private static final int MAX_BACKTRACKS = 40;
+
+    /** 停止迭代的相对信赖域半径 / Relative trust-region radius to stop at */
+    private static final float MIN_RELATIVE_RADIUS = 1e-7f;
+
+    /** 差分近似的相对步长，约为float机器精度的平方根 / Relative difference step, about the square root of float
+     * machine epsilon */
+    private static final float DIFFERENCE_STEP = 3.5e-4f;
+
+    private float tolerance = 1e-6f;       // 收敛容差 / Convergence tolerance
+    private int maxIterations = 100;       // 最大外层迭代次数 / Maximum outer iterations
+    private int maxCgIterations = 250;     // 每次迭代的最大共轭梯度步数 / Maximum CG steps per iteration
+    private float maxRadius = 1e4f;        // 信赖域半径上限 / Upper bound of the trust-region radius
+    private Globalization globalization = Globalization.TRUST_REGION; // 全局化策略 / Globalization strategy
+    private IOptimizationListener listener = null; // 迭代监听器 / Iteration listener
+
+    /**
+     * 构造函数，使用默认参数 / Constructor with default parameters
+     */
+    public RereNewtonCG() {
+    }
+
+    /**
+     * 构造函数，允许自定义参数 / Constructor with custom parameters
+     *
+     * @param tolerance 收敛容差（梯度范数） / Convergence tolerance on the gradient norm
+     * @param maxIterations 最大外层迭代次数 / Maximum outer iterations
+     */
+    public RereNewtonCG(float tolerance, int maxIterations) {
+        this.tolerance = Math.max(1e-12f, tolerance);
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+
+    /**
+     * 根据提供的初始点、目标函数计算方法、梯度计算方法，求解数学最优化问题
+     * <p>
+     * 每次迭代开始时（检查收敛之前）通知监听器，监听器返回false则提前停止。初始信赖域半径取初始梯度范数；
+     * 线搜索方式下沿牛顿方向和负梯度方向都找不到下降步长即停止。梯度范数达到容差前，连续多次相对下降量
+     * 接近float精度时也停止。
+     * The listener is notified at the start of every iteration, before the convergence check, and returning false
+     * stops early. The initial trust-region radius is the initial gradient norm; with the line search the run stops
+     * once neither the Newton direction nor the negative gradient gives a decreasing step. Before the gradient norm
+     * reaches the tolerance, the run also stops after several consecutive relative decreases near float
+     * precision.
+     * </p>
+     *
+     * @param initX 初始点 / Initial point
+     * @param objFun 目标函数计算法 / Objective function
+     * @param grdFun 梯度计算法 / Gradient function
+     * @return 返回最优值及最优点的变量值（向量），以及迭代记录 / Returns optimal value and optimal point together
+     *         with the iteration record
+     * @throws IllegalArgumentException 如果输入参数无效 / if input parameters are invalid
+     */
+    @Override
+    public OptimizationResult optimize(IVector initX, IObjectiveFunction objFun, IGradientFunction grdFun) {
+        if (initX == null) {
+            throw new IllegalArgumentException("初始点不能为空 / Initial point cannot be null");
+        }
+        if (objFun == null) {
+            throw new IllegalArgumentException("目标函数不能为空 / Objective function cannot be null");
+        }
+        if (grdFun == null) {
+            throw new IllegalArgumentException("梯度函数不能为空 / Gradient function cannot be null");
+        }
+
+        // 工作区只在开始时分配一次 / The workspace is allocated once up front
+        int n = initX.length();
+        float[] x = initX.getData().clone();
+        float[] next = new float[n];
+        IVector xVector = IVector.of(x);
+        IVector nextVector = IVector.of(next);
+        float[] grad = new float[n];
+        float[] nextGrad = new float[n];
+        float[] step = new float[n];
+        float[] residual = new float[n];
+        float[] direction = new float[n];
+        float[] product = new float[n];
+
+        RereCachedFunction function = new RereCachedFunction(objFun, grdFun);
+        HessianProduct hessian = new HessianProduct(objFun, grdFun, n);
+        float value = function.value(xVector);
+        function.gradient(xVector, grad);
+
+        OptimizationMonitor monitor = new OptimizationMonitor(listener, function);
+        OptimizationResult.StopReason reason;
+        boolean trustRegion = globalization == Globalization.TRUST_REGION;
+        float radius = trustRegion ? Float.NaN : Float.POSITIVE_INFINITY;
+
+        int iter = 0;
+        int stalled = 0;
+        while (true) {
+            float gradNorm = (float) Math.sqrt(RereLBFGS.dot(grad, grad));
+            if (!monitor.report(iter, value, gradNorm)) {
+                reason = OptimizationResult.StopReason.STOPPED;
+                break;
+            }
+            if (gradNorm < tolerance) {
+                reason = OptimizationResult.StopReason.CONVERGED;
+                break;
+            }
+            if (iter >= maxIterations) {
+                reason = OptimizationResult.StopReason.MAX_ITERATIONS;
+                break;
+            }
+            if (Float.isNaN(radius)) {
+                radius = Math.min(maxRadius, gradNorm);
+            }
+
+            // 信赖域内的截断共轭梯度 / Truncated conjugate gradient inside the trust region
+            long phase = System.nanoTime();
+            float forcing = Math.min(0.5f, (float) Math.sqrt(gradNorm));
+            float predicted = -steihaug(xVector, x, grad, gradNorm, forcing * gradNorm, radius, hessian,
+                step, residual, direction, product);
+            monitor.directionDone(phase);
+
+            phase = System.nanoTime();
+            int evaluations = function.getValueEvaluations();
+            if (!trustRegion) {
+                // 沿截断牛顿方向回溯，不是下降方向或找不到下降步长时改用负梯度
+                // Backtrack along the truncated Newton direction, falling back to the negative gradient when it is
+                // not a descent direction or no decreasing step exists
+                float alpha = RereLBFGS.dot(grad, step) < 0
+                    ? backtrack(x, value, grad, step, next, nextVector, function) : 0.0f;
+                if (alpha == 0.0f) {
+                    for (int i = 0; i < n; i++) {
+                        step[i] = -grad[i];
+                    }
+                    alpha = backtrack(x, value, grad, step, next, nextVector, function);
+                }
+                monitor.lineSearchDone(phase, evaluations, alpha * (float) Math.sqrt(RereLBFGS.dot(step, step)));
+                iter++;
+                if (alpha == 0.0f) {
+                    reason = OptimizationResult.StopReason.NO_PROGRESS;
+                    break;
+                }
+                // 接受点的函数值来自缓存 / The value at the accepted point comes from the cache
+                function.gradient(nextVector, nextGrad);
+                float previous = value;
+                value = function.value(nextVector);
+                float[] t = x;
+                x = next;
+                next = t;
+                IVector tv = xVector;
+                xVector = nextVector;
+                nextVector = tv;
+                t = grad;
+                grad = nextGrad;
+                nextGrad = t;
+                stalled = previous - value <= MIN_RELATIVE_DECREASE * Math.max(1.0f, Math.abs(value)) ? stalled + 1 : 0;
+                if (stalled >= MAX_STALLED_ITERATIONS) {
+                    reason = OptimizationResult.StopReason.NO_PROGRESS;
+                    break;
+                }
+                continue;
+            }
+
+            // 试探点与比值检验 / Trial point and ratio test
+            for (int i = 0; i < n; i++) {
+                next[i] = x[i] + step[i];
+            }
+            float stepNorm = (float) Math.sqrt(RereLBFGS.dot(step, step));
+            float trialValue = function.value(nextVector);
+            float actual = value - trialValue;
+            float ratio = predicted > 0 && !Float.isNaN(trialValue) ? actual / predicted : -1.0f;
+            if (ratio < 0.25f) {
+                radius = 0.25f * stepNorm;
+            } else if (ratio > 0.75f && stepNorm >= 0.99f * radius) {
+                radius = Math.min(2.0f * radius, maxRadius);
+            }
+            boolean accepted = ratio > ETA;
+            monitor.lineSearchDone(phase, evaluations, accepted ? stepNorm : 0.0f);
+            iter++;
+            if (!accepted) {
+                // 半径缩小到float精度以下时已无法继续改进 / No further progress once the radius is below float
+                // precision
+                float xNorm = (float) Math.sqrt(RereLBFGS.dot(x, x));
+                if (radius <= MIN_RELATIVE_RADIUS * Math.max(1.0f, xNorm)) {
+                    reason = OptimizationResult.StopReason.NO_PROGRESS;
+                    break;
+                }
+                continue;
+            }
+
+            // 接受试探点，函数值来自缓存 / Accept the trial point; its value comes from the cache
+            function.gradient(nextVector, nextGrad);
+            float previous = value;
+            float[] t = x;
+            x = next;
+            next = t;
+            IVector tv = xVector;
+            xVector = nextVector;
+            nextVector = tv;
+            t = grad;
+            grad = nextGrad;
+            nextGrad = t;
+            value = trialValue;
+            stalled = previous - value <= MIN_RELATIVE_DECREASE * Math.max(1.0f, Math.abs(value)) ? stalled + 1 : 0;
+            if (stalled >= MAX_STALLED_ITERATIONS) {
+                reason = OptimizationResult.StopReason.NO_PROGRESS;
+                break;
+            }
+        }
+
+        return monitor.finish(value, x, reason, iter);
+    }
+
+    /**
+     * 求解可计算Hessian-向量积的函数的最优化问题 / Optimize a function with Hessian-vector products
+     *
+     * @param initX 初始点 / Initial point
+     * @param function 函数 / Function
+     * @return 返回最优值及最优点的变量值（向量） / Returns optimal value and optimal point
+     */
+    public OptimizationResult optimize(IVector initX, IHessianVectorFunction function) {
+        return optimize(initX, function, function);
+    }
+
+    /**
+     * 沿方向回溯的Armijo线搜索：从步长1开始逐次减半，直到 f(x + αp) ≤ f(x) + c₁α·gᵀp
+     * <p>
+     * 截断牛顿步只需要充分下降条件：步长过短的牛顿步永远满足不了曲率条件。返回时next为x + α·p，
+     * 其函数值在缓存中；返回0表示找不到满足条件的步长。
+     * A truncated Newton step only needs the sufficient decrease condition: a Newton step that is too short can
+     * never satisfy the curvature condition. On return next holds x + α·p with its value cached; 0 means no step
+     * satisfied the condition.
+     * </p>
+     *
+     * @param x 当前点 / Current point
+     * @param value 当前点的函数值 / Value at the current point
+     * @param grad 当前梯度 / Current gradient
+     * @param step 下降方向 / Descent direction
+     * @param next 试探点，其数据被原地改写 / Trial point whose data is overwritten in place
+     * @param nextVector 包装next的向量 / Vector wrapping next
+     * @param function 带缓存的函数 / Cached function
+     * @return 步长，找不到时为0 / Step size, 0 if none was found
+     */
+    private static float backtrack(float[] x, float value, float[] grad, float[] step, float[] next,
+                                   IVector nextVector, RereCachedFunction function) {
+        float slope = (float) RereLBFGS.dot(grad, step);
+        float alpha = 1.0f;
+        for (int k = 0; k < MAX_BACKTRACKS; k++) {
+            RereLineSearch.step(x, step, alpha, next);
+            if (function.value(nextVector) <= value + ARMIJO * alpha * slope) {
+                return alpha;
+            }
+            alpha *= 0.5f;
+        }
+        return 0.0f;
+    }
+
+    /**
+     * Steihaug截断共轭梯度：在半径radius内近似极小化 m(p) = gᵀp + ½pᵀHp
+     * <p>
+     * 维护残差 r = g + H·p，由此不需额外的乘积即可得到模型值 m(p) = ½pᵀ(g + r)。半径为无穷大（线搜索方式）时
+     * 遇到负曲率即截断，第一步就遇到时取负梯度。
+     * Keeps the residual r = g + H·p so that the model value m(p) = ½pᵀ(g + r) needs no extra product. With an
+     * infinite radius (line search mode) negative curvature truncates the solve, falling back to the negative
+     * gradient when it appears at the first step.
+     * </p>
+     *
+     * @param xVector 当前点 / Current point
+     * @param x 当前点的数据 / Data of the current point
+     * @param grad 当前梯度 / Current gradient
+     * @param gradNorm 梯度范数 / Gradient norm
+     * @param threshold 残差阈值 / Residual threshold
+     * @param radius 信赖域半径 / Trust-region radius
+     * @param hessian Hessian-向量积 / Hessian-vector products
+     * @param step 输出的试探步p / Receives the trial step p
+     * @param residual 残差工作区 / Residual workspace
+     * @param direction 共轭方向工作区 / Conjugate direction workspace
+     * @param product 乘积工作区 / Product workspace
+     * @return 模型值m(p) / Model value m(p)
+     */
+    private float steihaug(IVector xVector, float[] x, float[] grad, float gradNorm, float threshold, float radius,
+                           HessianProduct hessian, float[] step, float[] residual, float[] direction,
+                           float[] product) {
+        int n = grad.length;
+        for (int i = 0; i < n; i++) {
+            step[i] = 0.0f;
+            residual[i] = grad[i];
+            direction[i] = -grad[i];
+        }
+        double rr = (double) gradNorm * gradNorm;
+        int limit = Math.min(maxCgIterations, Math.max(1, n));
+        for (int j = 0; j < limit; j++) {
+            hessian.multiply(xVector, x, grad, direction, product);
+            double curvature = RereLBFGS.dot(direction, product);
+            if (curvature <= 0 && Float.isInfinite(radius)) {
+                if (j == 0) {
+                    update(1.0f, step, residual, direction, product);
+                }
+                break;
+            }
+            double alpha = curvature > 0 ? rr / curvature : Double.POSITIVE_INFINITY;
+            double stepDirection = RereLBFGS.dot(step, direction);
+            double directionSquared = RereLBFGS.dot(direction, direction);
+            double stepSquared = RereLBFGS.dot(step, step);
+            if (curvature <= 0 || stepSquared + 2 * alpha * stepDirection + alpha * alpha * directionSquared
+                >= (double) radius * radius) {
+                // 负曲率或越过边界：沿当前方向走到边界 / Negative curvature or crossing the boundary: follow the
+                // direction up to the boundary
+                double tau = (-stepDirection + Math.sqrt(stepDirection * stepDirection
+                    + directionSquared * ((double) radius * radius - stepSquared))) / directionSquared;
+                update((float) tau, step, residual, direction, product);
+                break;
+            }
+            update((float) alpha, step, residual, direction, product);
+            double rrNext = RereLBFGS.dot(residual, residual);
+            if (Math.sqrt(rrNext) <= threshold) {
+                break;
+            }
+            float beta = (float) (rrNext / rr);
+            for (int i = 0; i < n; i++) {
+                direction[i] = -residual[i] + beta * direction[i];
+            }
+            rr = rrNext;
+        }
+        double model = 0.0;
+        for (int i = 0; i < n; i++) {
+            model += step[i] * ((double) grad[i] + residual[i]);
+        }
+        return (float) (0.5 * model);
+    }
+
+    /**
+     * p += a·d，r += a·H·d / p += a·d, r += a·H·d
+     */
+    private static void update(float a, float[] step, float[] residual, float[] direction, float[] product) {
+        for (int i = 0; i < step.length; i++) {
+            step[i] += a * direction[i];
+            residual[i] += a * product[i];
+        }
+    }
+
+    /**
+     * Hessian-向量积：精确乘积或梯度的前向差分 / Hessian-vector product: exact, or forward differences of the
+     * gradient
+     */
+    private static final class HessianProduct {
+
+        private final IHessianVectorFunction exact;
+        private final IGradientFunction gradient;
+        private final float[] probe;
+        private final IVector probeVector;
+
+        HessianProduct(IObjectiveFunction objFun, IGradientFunction grdFun, int n) {
+            this.exact = objFun == grdFun && grdFun instanceof IHessianVectorFunction
+                ? (IHessianVectorFunction) grdFun : null;
+            this.gradient = grdFun;
+            this.probe = exact == null ? new float[n] : null;
+            this.probeVector = exact == null ? IVector.of(probe) : null;
+        }
+
+        /**
+         * 计算H(x)·v写入out / Write H(x)·v into out
+         */
+        void multiply(IVector xVector, float[] x, float[] grad, float[] v, float[] out) {
+            if (exact != null) {
+                exact.hessianVector(xVector, v, out);
+                return;
+            }
+            float vNorm = (float) Math.sqrt(RereLBFGS.dot(v, v));
+            if (vNorm == 0.0f) {
+                Arrays.fill(out, 0.0f);
+                return;
+            }
+            float xNorm = (float) Math.sqrt(RereLBFGS.dot(x, x));
+            float epsilon = DIFFERENCE_STEP * (1.0f + xNorm) / vNorm;
+            for (int i = 0; i < x.length; i++) {
+                probe[i] = x[i] + epsilon * v[i];
+            }
+            // 直接调用梯度函数，不打乱当前点的缓存 / Call the gradient directly so the cache of the current point
+            // is kept
+            if (gradient instanceof IDifferentiableFunction) {
+                ((IDifferentiableFunction) gradient).evaluate(probeVector, out);
+            } else {
+                System.arraycopy(gradient.computeGradient(probeVector).getData(), 0, out, 0, out.length);
+            }
+            for (int i = 0; i < out.length; i++) {
+                out[i] = (out[i] - grad[i]) / epsilon;
+            }
+        }
+    }
+
+    // Getter和Setter方法 / Getter and Setter methods
+
+    /**
+     * 获取迭代监听器 / Get the iteration listener
+     * @return 监听器，未设置时为null / Listener, null if not set
+     */
+    public IOptimizationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * 设置迭代监听器，null表示不监听 / Set the iteration listener, null for none
+     * @param listener 监听器 / Listener
+     */
+    public void setListener(IOptimizationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 获取收敛容差 / Get convergence tolerance
+     * @return 收敛容差 / Convergence tolerance
+     */
+    public float getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * 设置收敛容差 / Set convergence tolerance
+     * @param tolerance 收敛容差 / Convergence tolerance
+     */
+    public void setTolerance(float tolerance) {
+        this.tolerance = Math.max(1e-12f, tolerance);
+    }
+
+    /**
+     * 获取最大外层迭代次数 / Get maximum outer iterations
+     * @return 最大迭代次数 / Maximum iterations
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * 设置最大外层迭代次数 / Set maximum outer iterations
+     * @param maxIterations 最大迭代次数 / Maximum iterations
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+
+    /**
+     * 获取每次迭代的最大共轭梯度步数 / Get the maximum conjugate gradient steps per iteration
+     * @return 最大步数 / Maximum steps
+     */
+    public int getMaxCgIterations() {
+        return maxCgIterations;
+    }
+
+    /**
+     * 设置每次迭代的最大共轭梯度步数（不超过问题维度） / Set the maximum conjugate gradient steps per iteration
+     * (capped at the problem dimension)
+     * @param maxCgIterations 最大步数 / Maximum steps
+     */
+    public void setMaxCgIterations(int maxCgIterations) {
+        this.maxCgIterations = Math.max(1, maxCgIterations);
+    }
+
+    /**
+     * 获取全局化策略 / Get the globalization strategy
+     * @return 全局化策略 / Globalization strategy
+     */
+    public Globalization getGlobalization() {
+        return globalization;
+    }
+
+    /**
+     * 设置全局化策略 / Set the globalization strategy
+     * @param globalization 全局化策略 / Globalization strategy
+     * @throws IllegalArgumentException 如果策略为null / if the strategy is null
+     */
+    public void setGlobalization(Globalization globalization) {
+        if (globalization == null) {
+            throw new IllegalArgumentException("全局化策略不能为空 / Globalization cannot be null");
+        }
+        this.globalization = globalization;
+    }
+
+    /**
+     * 获取信赖域半径上限 / Get the upper bound of the trust-region radius
+     * @return 半径上限 / Radius bound
+     */
+    public float getMaxRadius() {
+        return maxRadius;
+    }
+
+    /**
+     * 设置信赖域半径上限 / Set the upper bound of the trust-region radius
+     * @param maxRadius 半径上限 / Radius bound
+     * @throws IllegalArgumentException 如果上限不为正 / if the bound is not positive
+     */
+    public void setMaxRadius(float maxRadius) {
+        if (!(maxRadius > 0)) {
+            throw new IllegalArgumentException("半径上限必须为正 / Radius bound must be positive");
+        }
+        this.maxRadius = maxRadius;
+    }
+}
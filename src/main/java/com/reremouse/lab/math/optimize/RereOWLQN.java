@@ -0,0 +1,418 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+
+/**
+ * OWL-QN优化器 / OWL-QN optimizer
+ * <p>
+ * OWL-QN（Orthant-Wise Limited-memory Quasi-Newton）求解 min f(x) + λ₁||x||₁，其中f光滑可微，
+ * 目标函数与梯度只需给出光滑部分f，L1项由优化器处理。L1项在x的每个象限内是线性的，OWL-QN在当前象限内
+ * 做LBFGS迭代：
+ * 1. 伪梯度：xᵢ ≠ 0时为 ∇ᵢf + λ₁·sign(xᵢ)；xᵢ = 0时取左右导数中使目标下降的一侧，两侧都不下降则为0；
+ * 2. 方向：对伪梯度做两循环递归得到 -H·v，与 -v 符号不一致的分量置0；
+ * 3. 象限投影：线搜索的试探点中离开当前象限（符号与xᵢ不同，xᵢ = 0时与 -vᵢ 不同）的分量被置为0，
+ *    因此权重会精确地落在0上；
+ * 4. 回溯线搜索：满足 F(x') ≤ F(x) + c₁·vᵀ(x' - x) 即接受，步长每次减半；
+ * 5. 历史信息只记录光滑部分的梯度差，L1项不破坏曲率条件。
+ * 与用次梯度运行LBFGS相比，不会在0附近来回振荡，迭代次数更少，得到真正稀疏的解。
+ * </p>
+ * <p>
+ * OWL-QN (Orthant-Wise Limited-memory Quasi-Newton) solves min f(x) + λ₁||x||₁ for a smooth f; the objective and
+ * gradient functions only describe the smooth part f and the L1 term is handled by the optimizer. Within an orthant
+ * the L1 term is linear, so OWL-QN runs LBFGS iterations inside the current orthant:
+ * 1. Pseudo-gradient: ∇ᵢf + λ₁·sign(xᵢ) for xᵢ ≠ 0; for xᵢ = 0 the one-sided derivative that decreases the
+ *    objective, or 0 if neither side does;
+ * 2. Direction: the two-loop recursion applied to the pseudo-gradient gives -H·v, and components whose sign
+ *    disagrees with -v are set to 0;
+ * 3. Orthant projection: components of a line search trial that leave the current orthant (sign differs from
+ *    xᵢ, or from -vᵢ when xᵢ = 0) are set to 0, so weights land exactly on 0;
+ * 4. Backtracking line search: a trial is accepted when F(x') ≤ F(x) + c₁·vᵀ(x' - x), halving the step otherwise;
+ * 5. The history only stores differences of the smooth gradient, so the L1 term does not break the curvature
+ *    condition.
+ * Compared with LBFGS on a subgradient it does not oscillate around 0, needs fewer iterations and yields truly
+ * sparse solutions.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereOWLQN implements IOptimizer {
+
+    /** 充分下降条件参数 / Sufficient decrease parameter */
+    private static final float C1 = 1e-4f;
+
+    /** 每次线搜索的最大试探次数 / Maximum trials per line search */
+    private static final int MAX_TRIALS = 40;
+
+    /** 停止迭代的相对下降量，接近float精度 / Relative decrease to stop at, near float precision */
+    private static final float MIN_RELATIVE_DECREASE = 1e-6f;
+
+    private float lambda1;                 // L1正则化系数 / L1 coefficient
+    private int m = 10;                    // 存储的历史信息对数 / Number of stored history pairs
+    private float tolerance = 1e-6f;       // 收敛容差 / Convergence tolerance
+    private int maxIterations = 1000;      // 最大迭代次数 / Maximum iterations
+    private int l1Start = 0;               // 受L1约束的第一个分量 / First component under L1
+    private int l1End = -1;                // 受L1约束的分量上界（不含），负数表示到末尾 / End (exclusive), negative for all
+    private IOptimizationListener listener = null; // 迭代监听器 / Iteration listener
+
+    /**
+     * 构造函数，使用默认参数 / Constructor with default parameters
+     *
+     * @param lambda1 L1正则化系数 / L1 coefficient
+     * @throws IllegalArgumentException 如果lambda1为负 / if lambda1 is negative
+     */
+    public RereOWLQN(float lambda1) {
+        this.lambda1 = checkLambda1(lambda1);
+    }
+
+    /**
+     * 构造函数，允许自定义参数 / Constructor with custom parameters
+     *
+     * @param lambda1 L1正则化系数 / L1 coefficient
+     * @param m 存储的历史信息对数 / Number of stored history pairs
+     * @param tolerance 收敛容差（伪梯度范数） / Convergence tolerance on the pseudo-gradient norm
+     * @param maxIterations 最大迭代次数 / Maximum iterations
+     * @throws IllegalArgumentException 如果lambda1为负 / if lambda1 is negative
+     */
+    public RereOWLQN(float lambda1, int m, float tolerance, int maxIterations) {
+        this.lambda1 = checkLambda1(lambda1);
+        this.m = Math.max(1, m);
+        this.tolerance = Math.max(1e-12f, tolerance);
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+
+    /**
+     * 求解 min f(x) + λ₁||x||₁ / Solve min f(x) + λ₁||x||₁
+     *
+     * @param initX 初始点 / Initial point
+     * @param objFun 光滑部分f的目标函数 / Objective of the smooth part f
+     * @param grdFun 光滑部分f的梯度 / Gradient of the smooth part f
+     * @return 返回含L1项的最优值及最优点，以及迭代记录（梯度范数为伪梯度范数） / Returns the optimal value
+     *         including the L1 term, the optimal point and the iteration record (norms are pseudo-gradient norms)
+     * @throws IllegalArgumentException 如果输入参数无效 / if input parameters are invalid
+     */
+    @Override
+    public OptimizationResult optimize(IVector initX, IObjectiveFunction objFun, IGradientFunction grdFun) {
+        if (initX == null) {
+            throw new IllegalArgumentException("初始点不能为空 / Initial point cannot be null");
+        }
+        if (objFun == null) {
+            throw new IllegalArgumentException("目标函数不能为空 / Objective function cannot be null");
+        }
+        if (grdFun == null) {
+            throw new IllegalArgumentException("梯度函数不能为空 / Gradient function cannot be null");
+        }
+
+        int n = initX.length();
+        int start = Math.min(l1Start, n);
+        int end = l1End < 0 ? n : Math.min(l1End, n);
+        int memory = m;
+        float[] x = initX.getData().clone();
+        float[] next = new float[n];
+        IVector nextVector = IVector.of(next);
+        IVector xVector = IVector.of(x);
+        float[] grad = new float[n];
+        float[] nextGrad = new float[n];
+        float[] pseudo = new float[n];
+        float[] direction = new float[n];
+
+        float[][] sHistory = new float[memory][n];
+        float[][] yHistory = new float[memory][n];
+        double[] rho = new double[memory];
+        double[] alpha = new double[memory];
+        float[] spareS = new float[n];
+        float[] spareY = new float[n];
+        int head = 0;
+        int count = 0;
+
+        RereCachedFunction function = new RereCachedFunction(objFun, grdFun);
+        function.gradient(xVector, grad);
+        float value = function.value(xVector) + l1(x, start, end);
+        OptimizationMonitor monitor = new OptimizationMonitor(listener, function);
+        OptimizationResult.StopReason reason;
+
+        int iter = 0;
+        while (true) {
+            pseudoGradient(x, grad, start, end, pseudo);
+            float norm = (float) Math.sqrt(RereLBFGS.dot(pseudo, pseudo));
+            if (!monitor.report(iter, value, norm)) {
+                reason = OptimizationResult.StopReason.STOPPED;
+                break;
+            }
+            if (norm < tolerance) {
+                reason = OptimizationResult.StopReason.CONVERGED;
+                break;
+            }
+            if (iter >= maxIterations) {
+                reason = OptimizationResult.StopReason.MAX_ITERATIONS;
+                break;
+            }
+
+            // 对伪梯度做两循环递归，再约束到 -v 的符号；历史失真时丢弃后重试 / Two-loop recursion on the
+            // pseudo-gradient, then constrain to the sign of -v; a stale history is dropped and the step retried
+            float step = 0.0f;
+            while (true) {
+                long phase = System.nanoTime();
+                RereLBFGS.computeSearchDirection(pseudo, sHistory, yHistory, rho, alpha, head, count, direction);
+                for (int i = start; i < end; i++) {
+                    if (direction[i] * pseudo[i] >= 0) {
+                        direction[i] = 0.0f;
+                    }
+                }
+                monitor.directionDone(phase);
+                phase = System.nanoTime();
+                int evaluations = function.getValueEvaluations();
+                if (RereLBFGS.dot(pseudo, direction) < 0) {
+                    float initial = iter == 0
+                        ? (float) Math.min(1.0, 1.0 / Math.sqrt(RereLBFGS.dot(direction, direction))) : 1.0f;
+                    step = lineSearch(x, value, pseudo, direction, initial, start, end, next, nextVector, function);
+                }
+                monitor.lineSearchDone(phase, evaluations, step);
+                if (step > 0 || count == 0) {
+                    break;
+                }
+                count = 0;
+                head = 0;
+            }
+            if (step == 0.0f) {
+                reason = OptimizationResult.StopReason.NO_PROGRESS;
+                break;
+            }
+            // 接受点的函数值与梯度都来自缓存 / Value and gradient at the accepted point come from the cache
+            float nextValue = function.value(nextVector) + l1(next, start, end);
+            function.gradient(nextVector, nextGrad);
+
+            // 历史信息使用光滑部分的梯度差 / History uses differences of the smooth gradient
+            long phase = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                spareS[i] = next[i] - x[i];
+                spareY[i] = nextGrad[i] - grad[i];
+            }
+            double sTy = RereLBFGS.dot(spareS, spareY);
+            if (sTy > 1e-10f) {
+                int slot;
+                if (count < memory) {
+                    slot = (head + count) % memory;
+                    count++;
+                } else {
+                    slot = head;
+                    head = (head + 1) % memory;
+                }
+                float[] t = sHistory[slot];
+                sHistory[slot] = spareS;
+                spareS = t;
+                t = yHistory[slot];
+                yHistory[slot] = spareY;
+                spareY = t;
+                rho[slot] = 1.0 / sTy;
+            }
+            monitor.directionDone(phase);
+
+            float[] t = x;
+            x = next;
+            next = t;
+            IVector tv = xVector;
+            xVector = nextVector;
+            nextVector = tv;
+            t = grad;
+            grad = nextGrad;
+            nextGrad = t;
+            float previous = value;
+            value = nextValue;
+            iter++;
+            // float精度下伪梯度可能无法降到容差以下：函数值不再有可测的下降时停止 / In float precision the
+            // pseudo-gradient may never reach the tolerance: stop once the value no longer decreases measurably
+            if (previous - value <= MIN_RELATIVE_DECREASE * Math.max(1.0f, Math.abs(value))) {
+                reason = OptimizationResult.StopReason.NO_PROGRESS;
+                break;
+            }
+        }
+
+        return monitor.finish(value, x, reason, iter);
+    }
+
+    /**
+     * 投影回溯线搜索，试探点写入next / Projected backtracking line search writing the trial point into next
+     *
+     * @return 接受的步长，找不到下降时为0 / Accepted step, 0 if no decrease is found
+     */
+    private float lineSearch(float[] x, float value, float[] pseudo, float[] direction, float step, int start,
+                             int end, float[] next, IVector nextVector, RereCachedFunction function) {
+        int n = x.length;
+        for (int trial = 0; trial < MAX_TRIALS; trial++) {
+            for (int i = 0; i < n; i++) {
+                next[i] = x[i] + step * direction[i];
+            }
+            // 离开当前象限的分量置0 / Zero the components that leave the current orthant
+            for (int i = start; i < end; i++) {
+                float orthant = x[i] != 0.0f ? x[i] : -pseudo[i];
+                if (next[i] * orthant <= 0.0f) {
+                    next[i] = 0.0f;
+                }
+            }
+            float nextValue = function.value(nextVector) + l1(next, start, end);
+            double decrease = 0.0;
+            for (int i = 0; i < n; i++) {
+                decrease += (double) pseudo[i] * (next[i] - x[i]);
+            }
+            if (nextValue <= value + C1 * decrease) {
+                return step;
+            }
+            step *= 0.5f;
+        }
+        return 0.0f;
+    }
+
+    /**
+     * 求解可微光滑部分加L1项的最优化问题 / Optimize a differentiable smooth part plus the L1 term
+     *
+     * @param initX 初始点 / Initial point
+     * @param function 光滑部分f / Smooth part f
+     * @return 返回含L1项的最优值及最优点 / Returns the optimal value including the L1 term and the optimal point
+     */
+    public OptimizationResult optimize(IVector initX, IDifferentiableFunction function) {
+        return optimize(initX, function, function);
+    }
+
+    /**
+     * 计算伪梯度 / Compute the pseudo-gradient
+     *
+     * @param x 当前点 / Current point
+     * @param grad 光滑部分的梯度 / Gradient of the smooth part
+     * @param start 受L1约束的第一个分量 / First component under L1
+     * @param end 受L1约束的分量上界（不含） / End of the components under L1 (exclusive)
+     * @param pseudo 输出的伪梯度 / Receives the pseudo-gradient
+     */
+    private void pseudoGradient(float[] x, float[] grad, int start, int end, float[] pseudo) {
+        System.arraycopy(grad, 0, pseudo, 0, grad.length);
+        for (int i = start; i < end; i++) {
+            if (x[i] > 0) {
+                pseudo[i] = grad[i] + lambda1;
+            } else if (x[i] < 0) {
+                pseudo[i] = grad[i] - lambda1;
+            } else if (grad[i] + lambda1 < 0) {
+                // 右导数为负：向正方向下降 / Negative right derivative: decrease towards positive values
+                pseudo[i] = grad[i] + lambda1;
+            } else if (grad[i] - lambda1 > 0) {
+                // 左导数为正：向负方向下降 / Positive left derivative: decrease towards negative values
+                pseudo[i] = grad[i] - lambda1;
+            } else {
+                pseudo[i] = 0.0f;
+            }
+        }
+    }
+
+    private float l1(float[] x, int start, int end) {
+        double sum = 0.0;
+        for (int i = start; i < end; i++) {
+            sum += Math.abs(x[i]);
+        }
+        return (float) (lambda1 * sum);
+    }
+
+    // Getter和Setter方法 / Getter and Setter methods
+
+    /**
+     * 获取L1正则化系数 / Get the L1 coefficient
+     * @return L1正则化系数 / L1 coefficient
+     */
+    public float getLambda1() {
+        return lambda1;
+    }
+
+    /**
+     * 设置L1正则化系数 / Set the L1 coefficient
+     * @param lambda1 L1正则化系数 / L1 coefficient
+     * @throws IllegalArgumentException 如果lambda1为负 / if lambda1 is negative
+     */
+    public void setLambda1(float lambda1) {
+        this.lambda1 = checkLambda1(lambda1);
+    }
+
+    private static float checkLambda1(float lambda1) {
+        if (!(lambda1 >= 0)) {
+            throw new IllegalArgumentException("L1正则化系数不能为负 / L1 coefficient cannot be negative");
+        }
+        return lambda1;
+    }
+
+    /**
+     * 设置受L1约束的分量范围[start, end)，其余分量（例如偏置）不受约束 / Set the range [start, end) of components
+     * under L1; the other components (such as biases) are unpenalized
+     * @param start 第一个分量 / First component
+     * @param end 上界（不含），负数表示到末尾 / End (exclusive), negative for the last component
+     * @throws IllegalArgumentException 如果范围无效 / if the range is invalid
+     */
+    public void setL1Range(int start, int end) {
+        if (start < 0 || (end >= 0 && end < start)) {
+            throw new IllegalArgumentException("L1范围无效 / Invalid L1 range: [" + start + ", " + end + ")");
+        }
+        this.l1Start = start;
+        this.l1End = end;
+    }
+
+    /**
+     * 获取迭代监听器 / Get the iteration listener
+     * @return 监听器，未设置时为null / Listener, null if not set
+     */
+    public IOptimizationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * 设置迭代监听器，null表示不监听 / Set the iteration listener, null for none
+     * @param listener 监听器 / Listener
+     */
+    public void setListener(IOptimizationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 获取存储的历史信息对数 / Get number of stored history pairs
+     * @return 历史信息对数 / Number of history pairs
+     */
+    public int getM() {
+        return m;
+    }
+
+    /**
+     * 设置存储的历史信息对数 / Set number of stored history pairs
+     * @param m 历史信息对数 / Number of history pairs
+     */
+    public void setM(int m) {
+        this.m = Math.max(1, m);
+    }
+
+    /**
+     * 获取收敛容差 / Get convergence tolerance
+     * @return 收敛容差 / Convergence tolerance
+     */
+    public float getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * 设置收敛容差 / Set convergence tolerance
+     * @param tolerance 收敛容差 / Convergence tolerance
+     */
+    public void setTolerance(float tolerance) {
+        this.tolerance = Math.max(1e-12f, tolerance);
+    }
+
+    /**
+     * 获取最大迭代次数 / Get maximum iterations
+     * @return 最大迭代次数 / Maximum iterations
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * 设置最大迭代次数 / Set maximum iterations
+     * @param maxIterations 最大迭代次数 / Maximum iterations
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = Math.max(1, maxIterations);
+    }
+}
@@ -0,0 +1,77 @@
+package com.reremouse.lab.math.optimize;
+
+/**
+ * 带动量的小批量随机梯度下降 / Mini-batch stochastic gradient descent with momentum
+ * <p>
+ * 更新规则：v = μ·v - η·g，x = x + v。μ = 0时即为普通SGD。
+ * </p>
+ * <p>
+ * Update rule: v = μ·v - η·g, x = x + v. With μ = 0 this is plain SGD.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereSGD extends RereStochasticOptimizer {
+
+    private float momentum = 0.9f;     // 动量系数 / Momentum coefficient
+    private float[] velocity;          // 速度 / Velocity
+
+    /**
+     * 构造函数，使用默认参数 / Constructor with default parameters
+     */
+    public RereSGD() {
+        this(0.01f, 0.9f, 32, 100);
+    }
+
+    /**
+     * 构造函数，允许自定义参数 / Constructor with custom parameters
+     *
+     * @param learningRate 学习率 / Learning rate
+     * @param momentum 动量系数，取值[0, 1) / Momentum coefficient in [0, 1)
+     * @param batchSize 批大小 / Batch size
+     * @param maxEpochs 最大轮数 / Maximum epochs
+     */
+    public RereSGD(float learningRate, float momentum, int batchSize, int maxEpochs) {
+        super(learningRate, batchSize, maxEpochs);
+        this.momentum = checkMomentum(momentum);
+    }
+
+    @Override
+    protected void reset(int dimension) {
+        velocity = new float[dimension];
+    }
+
+    @Override
+    protected void step(float[] x, float[] grad, float rate, int t) {
+        for (int i = 0; i < x.length; i++) {
+            velocity[i] = momentum * velocity[i] - rate * grad[i];
+            x[i] += velocity[i];
+        }
+    }
+
+    /**
+     * 获取动量系数 / Get the momentum coefficient
+     * @return 动量系数 / Momentum coefficient
+     */
+    public float getMomentum() {
+        return momentum;
+    }
+
+    /**
+     * 设置动量系数，0表示不使用动量 / Set the momentum coefficient, 0 for none
+     * @param momentum 动量系数，取值[0, 1) / Momentum coefficient in [0, 1)
+     * @throws IllegalArgumentException 如果系数不在[0, 1) / if the coefficient is outside [0, 1)
+     */
+    public void setMomentum(float momentum) {
+        this.momentum = checkMomentum(momentum);
+    }
+
+    private static float checkMomentum(float momentum) {
+        if (!(momentum >= 0 && momentum < 1)) {
+            throw new IllegalArgumentException("动量系数须在[0, 1) / Momentum must be in [0, 1)");
+        }
+        return momentum;
+    }
+}
@@ -0,0 +1,359 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.RereRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 小批量随机优化器基类 / Base class for mini-batch stochastic optimizers
+ * <p>
+ * 当目标函数实现{@link IMiniBatchObjective}时，每轮（epoch）将样本顺序随机打乱（Fisher-Yates，原地操作int数组），
+ * 按批次计算梯度并调用子类的更新规则；当一轮的平均损失相对变化小于容差时停止。
+ * 否则退化为全量梯度下降，在梯度范数小于容差时停止。
+ * </p>
+ * <p>
+ * When the objective implements {@link IMiniBatchObjective}, every epoch shuffles the sample order in place
+ * (Fisher-Yates over an int array), computes the gradient batch by batch and applies the subclass update rule;
+ * it stops once the relative change of the epoch mean loss falls below the tolerance. Otherwise it falls back
+ * to full-batch gradient descent and stops when the gradient norm falls below the tolerance.
+ * </p>
+ * <p>
+ * 与拟牛顿优化器一样返回{@link OptimizationResult}并支持{@link IOptimizationListener}：小批量模式下每轮
+ * 开始时通知一次，函数值为上一轮的平均损失（第0轮为NaN），梯度范数为NaN，每个批次的梯度计为一次梯度求值；
+ * 全量模式下每步通知一次，函数值为NaN。损失变为非有限值时停止原因为
+ * {@link OptimizationResult.StopReason#NO_PROGRESS}。
+ * </p>
+ * <p>
+ * Like the quasi-Newton optimizers it returns an {@link OptimizationResult} and supports an
+ * {@link IOptimizationListener}: in mini-batch mode the listener is called at the start of every epoch with the
+ * mean loss of the previous epoch as the value (NaN for epoch 0) and a NaN gradient norm, and every batch gradient
+ * counts as one gradient evaluation; in full-batch mode it is called once per step with a NaN value. A loss that
+ * becomes non-finite stops the run with {@link OptimizationResult.StopReason#NO_PROGRESS}.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public abstract class RereStochasticOptimizer implements IOptimizer {
+
+    private int batchSize = 32;                    // 批大小 / Batch size
+    private int maxEpochs = 100;                   // 最大轮数 / Maximum epochs
+    private float tolerance = 1e-6f;               // 收敛容差 / Convergence tolerance
+    private ILearningRateSchedule schedule;        // 学习率调度 / Learning-rate schedule
+    private RandomGenerator random = RereRandom.create(); // 随机数生成器 / Random number generator
+    private IOptimizationListener listener = null; // 迭代监听器 / Iteration listener
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param learningRate 学习率 / Learning rate
+     * @param batchSize 批大小 / Batch size
+     * @param maxEpochs 最大轮数 / Maximum epochs
+     */
+    protected RereStochasticOptimizer(float learningRate, int batchSize, int maxEpochs) {
+        this.schedule = ILearningRateSchedule.constant(learningRate);
+        this.batchSize = checkBatchSize(batchSize);
+        this.maxEpochs = checkMaxEpochs(maxEpochs);
+    }
+
+    /**
+     * 根据提供的初始点、目标函数计算方法、梯度计算方法，求解数学最优化问题
+     *
+     * @param initX 初始点 / Initial point
+     * @param objFun 目标函数计算法 / Objective function
+     * @param grdFun 梯度计算法 / Gradient function
+     * @return 返回最优值及最优点的变量值（向量），以及迭代记录 / Returns optimal value and optimal point together
+     *         with the iteration record
+     * @throws IllegalArgumentException 如果输入参数无效 / if input parameters are invalid
+     */
+    @Override
+    public OptimizationResult optimize(IVector initX, IObjectiveFunction objFun, IGradientFunction grdFun) {
+        if (initX == null) {
+            throw new IllegalArgumentException("初始点不能为空 / Initial point cannot be null");
+        }
+        if (objFun == null) {
+            throw new IllegalArgumentException("目标函数不能为空 / Objective function cannot be null");
+        }
+        if (grdFun == null && !(objFun instanceof IMiniBatchObjective)) {
+            throw new IllegalArgumentException("梯度函数不能为空 / Gradient function cannot be null");
+        }
+
+        float[] x = initX.getData().clone();
+        reset(x.length);
+        IVector result = IVector.of(x);
+        OptimizationMonitor monitor = new OptimizationMonitor(listener, null);
+        if (objFun instanceof IMiniBatchObjective) {
+            return optimizeMiniBatch(result, (IMiniBatchObjective) objFun, monitor);
+        }
+        return optimizeFullBatch(result, objFun, grdFun, monitor);
+    }
+
+    /**
+     * 小批量迭代 / Mini-batch iteration
+     */
+    private OptimizationResult optimizeMiniBatch(IVector point, IMiniBatchObjective objective,
+                                                 OptimizationMonitor monitor) {
+        float[] x = point.getData();
+        int m = objective.getSampleCount();
+        if (m <= 0) {
+            throw new IllegalArgumentException("样本数量必须为正 / Sample count must be positive");
+        }
+        int[] order = new int[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        float[] grad = new float[x.length];
+        int batch = Math.min(batchSize, m);
+        double previous = Double.NaN;
+        double current = Double.NaN;
+        OptimizationResult.StopReason reason;
+        int t = 0;
+        int epoch = 0;
+        while (true) {
+            if (!monitor.report(epoch, (float) current, Float.NaN)) {
+                reason = OptimizationResult.StopReason.STOPPED;
+                break;
+            }
+            if (epoch > 0 && !Double.isFinite(current)) {
+                reason = OptimizationResult.StopReason.NO_PROGRESS;
+                break;
+            }
+            if (Math.abs(previous - current) <= tolerance * Math.max(1.0, Math.abs(previous))) {
+                reason = OptimizationResult.StopReason.CONVERGED;
+                break;
+            }
+            if (epoch >= maxEpochs) {
+                reason = OptimizationResult.StopReason.MAX_ITERATIONS;
+                break;
+            }
+            shuffle(order);
+            double epochLoss = 0;
+            for (int from = 0; from < m; from += batch) {
+                int to = Math.min(from + batch, m);
+                long since = System.nanoTime();
+                float loss = objective.computeBatchGradient(x, order, from, to, grad);
+                monitor.evaluated(0, 1, since);
+                epochLoss += (double) loss * (to - from);
+                float rate = schedule.getRate(t);
+                step(x, grad, rate, t);
+                monitor.stepDone(rate);
+                t++;
+            }
+            previous = current;
+            current = epochLoss / m;
+            epoch++;
+        }
+        return finish(point, objective, monitor, reason, epoch);
+    }
+
+    /**
+     * 全量梯度迭代，每轮一步 / Full-batch iteration, one step per epoch
+     */
+    private OptimizationResult optimizeFullBatch(IVector x, IObjectiveFunction objFun, IGradientFunction grdFun,
+                                                 OptimizationMonitor monitor) {
+        float[] data = x.getData();
+        OptimizationResult.StopReason reason;
+        int t = 0;
+        while (true) {
+            if (t >= maxEpochs) {
+                reason = OptimizationResult.StopReason.MAX_ITERATIONS;
+                break;
+            }
+            long since = System.nanoTime();
+            IVector grad = grdFun.computeGradient(x);
+            monitor.evaluated(0, 1, since);
+            float norm = grad.norm2();
+            if (!monitor.report(t, Float.NaN, norm)) {
+                reason = OptimizationResult.StopReason.STOPPED;
+                break;
+            }
+            if (norm < tolerance) {
+                reason = OptimizationResult.StopReason.CONVERGED;
+                break;
+            }
+            float rate = schedule.getRate(t);
+            step(data, grad.getData(), rate, t);
+            monitor.stepDone(rate);
+            t++;
+        }
+        return finish(x, objFun, monitor, reason, t);
+    }
+
+    /**
+     * 在最终点上求目标函数值并生成结果 / Evaluate the objective at the final point and build the result
+     */
+    private static OptimizationResult finish(IVector x, IObjectiveFunction objFun, OptimizationMonitor monitor,
+                                             OptimizationResult.StopReason reason, int iterations) {
+        long since = System.nanoTime();
+        float value = objFun.computeObjective(x);
+        monitor.evaluated(1, 0, since);
+        return monitor.finish(value, x.getData(), reason, iterations);
+    }
+
+    /**
+     * 原地打乱索引顺序 / Shuffle the index order in place
+     */
+    private void shuffle(int[] order) {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+
+    /**
+     * 重置优化器内部状态 / Reset the internal optimizer state
+     *
+     * @param dimension 参数维度 / Parameter dimension
+     */
+    protected abstract void reset(int dimension);
+
+    /**
+     * 原地执行一步更新 / Apply one update step in place
+     *
+     * @param x 参数，原地更新 / Parameters, updated in place
+     * @param grad 梯度 / Gradient
+     * @param rate 当前学习率 / Current learning rate
+     * @param t 已完成的更新步数 / Number of completed update steps
+     */
+    protected abstract void step(float[] x, float[] grad, float rate, int t);
+
+    /**
+     * 获取批大小 / Get the batch size
+     * @return 批大小 / Batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 设置批大小 / Set the batch size
+     * @param batchSize 批大小 / Batch size
+     * @throws IllegalArgumentException 如果批大小不为正 / if the batch size is not positive
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = checkBatchSize(batchSize);
+    }
+
+    private static int checkBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批大小必须为正 / Batch size must be positive");
+        }
+        return batchSize;
+    }
+
+    /**
+     * 获取最大轮数 / Get the maximum number of epochs
+     * @return 最大轮数 / Maximum epochs
+     */
+    public int getMaxEpochs() {
+        return maxEpochs;
+    }
+
+    /**
+     * 设置最大轮数 / Set the maximum number of epochs
+     * @param maxEpochs 最大轮数 / Maximum epochs
+     * @throws IllegalArgumentException 如果轮数不为正 / if the number of epochs is not positive
+     */
+    public void setMaxEpochs(int maxEpochs) {
+        this.maxEpochs = checkMaxEpochs(maxEpochs);
+    }
+
+    private static int checkMaxEpochs(int maxEpochs) {
+        if (maxEpochs <= 0) {
+            throw new IllegalArgumentException("最大轮数必须为正 / Maximum epochs must be positive");
+        }
+        return maxEpochs;
+    }
+
+    /**
+     * 获取收敛容差 / Get the convergence tolerance
+     * @return 收敛容差 / Convergence tolerance
+     */
+    public float getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * 设置收敛容差：小批量时用于每轮平均损失的相对变化，全批量时用于梯度范数 / Set the convergence tolerance,
+     * applied to the relative change of the epoch mean loss for mini-batches and to the gradient norm for full
+     * batches
+     * @param tolerance 收敛容差 / Convergence tolerance
+     * @throws IllegalArgumentException 如果容差为负 / if the tolerance is negative
+     */
+    public void setTolerance(float tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("容差不能为负 / Tolerance cannot be negative");
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * 获取学习率调度 / Get the learning-rate schedule
+     * @return 学习率调度 / Learning-rate schedule
+     */
+    public ILearningRateSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * 设置学习率调度 / Set the learning-rate schedule
+     * @param schedule 学习率调度 / Learning-rate schedule
+     * @throws IllegalArgumentException 如果调度为null / if the schedule is null
+     */
+    public void setSchedule(ILearningRateSchedule schedule) {
+        if (schedule == null) {
+            throw new IllegalArgumentException("学习率调度不能为空 / Schedule cannot be null");
+        }
+        this.schedule = schedule;
+    }
+
+    /**
+     * 设置学习率，等价于常数调度 / Set the learning rate, equivalent to a constant schedule
+     *
+     * @param learningRate 学习率 / Learning rate
+     */
+    public void setLearningRate(float learningRate) {
+        setSchedule(ILearningRateSchedule.constant(learningRate));
+    }
+
+    /**
+     * 获取迭代监听器 / Get the iteration listener
+     * @return 监听器，未设置时为null / Listener, null if not set
+     */
+    public IOptimizationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * 设置迭代监听器，null表示不监听 / Set the iteration listener, null for none
+     * @param listener 监听器 / Listener
+     */
+    public void setListener(IOptimizationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 设置随机种子，使样本打乱顺序可复现 / Set the random seed so that the shuffling order is reproducible
+     *
+     * @param seed 随机种子 / Random seed
+     */
+    public void setSeed(long seed) {
+        this.random = RereRandom.create(seed);
+    }
+
+    /**
+     * 设置打乱样本顺序使用的随机数生成器 / Set the random generator used to shuffle the samples
+     *
+     * @param random 随机数生成器 / Random generator
+     * @throws IllegalArgumentException 如果生成器为null / if the generator is null
+     */
+    public void setRandom(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null / Random generator cannot be null");
+        }
+        this.random = random;
+    }
+}
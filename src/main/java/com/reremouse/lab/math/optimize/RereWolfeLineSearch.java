@@ -0,0 +1,300 @@
+package com.reremouse.lab.math.optimize;
+
+import com.reremouse.lab.math.IVector;
+
+/**
+ * 满足强Wolfe条件的插值线搜索 / Interpolating line search for the strong Wolfe conditions
+ * <p>
+ * 采用括区间（bracketing）加缩放（zoom）的两阶段结构，与More-Thuente方法使用相同的三次/二次插值构件：
+ * 1. 括区间：从初始步长出发，若充分下降条件不满足、函数值不再下降或方向导数变为非负，则得到包含可接受步长的区间；
+ *    否则用三次外推增大步长；
+ * 2. 缩放：在区间内用三次插值（两端的函数值与方向导数都已知时）或二次插值（只知道一端的导数时）取下一个试探步长，
+ *    并限制在区间内部的[10%, 90%]范围，避免退化；插值失败时二分。
+ * 初始步长复用上一次迭代的信息：首次搜索取 min(1, 1/||d||)，之后用上一次的函数下降量估计
+ * α₀ = min(1, 1.01 · 2(f_k - f_{k-1}) / φ'(0))，拟牛顿方向通常在1~2次求值内被接受。
+ * 试探点原地写入调用方的向量，函数经{@link RereCachedFunction}求值，每个试探点只计算一次。
+ * </p>
+ * <p>
+ * Two phases, bracketing and zoom, built from the same cubic/quadratic interpolation pieces as the More-Thuente
+ * method:
+ * 1. Bracketing: starting from the initial step, an interval containing acceptable steps is found once sufficient
+ *    decrease fails, the value stops decreasing or the directional derivative turns non-negative; otherwise the
+ *    step grows by cubic extrapolation;
+ * 2. Zoom: inside the interval the next trial comes from cubic interpolation (when values and directional
+ *    derivatives are known at both ends) or quadratic interpolation (when only one derivative is known), kept
+ *    within [10%, 90%] of the interval to avoid degeneracy, with bisection when interpolation fails.
+ * The initial step reuses information from the previous iteration: the first search takes min(1, 1/||d||) and
+ * later ones estimate α₀ = min(1, 1.01 · 2(f_k - f_{k-1}) / φ'(0)) from the previous decrease, so quasi-Newton
+ * directions are usually accepted after 1-2 evaluations. Trial points are written in place into the caller's
+ * vector and the function is evaluated through a {@link RereCachedFunction}, once per trial.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+public class RereWolfeLineSearch implements ILineSearch {
+
+    /** 充分下降条件参数 / Sufficient decrease parameter */
+    private final float c1;
+
+    /** 曲率条件参数 / Curvature condition parameter */
+    private final float c2;
+
+    /** 初始步长的上限 / Upper bound of the initial step */
+    private final float maxInitialStep;
+
+    /** 每次搜索的最大求值次数 / Maximum evaluations per search */
+    private final int maxEvaluations;
+
+    /** 最大步长 / Largest step */
+    private static final float MAX_STEP = 1e10f;
+
+    /** 上一次搜索开始时的函数值，NaN表示尚未搜索 / Value at the start of the previous search, NaN before the first */
+    private float previousValue = Float.NaN;
+
+    /** 最近一次搜索接受点的函数值 / Value at the last accepted point */
+    private float lastValue = Float.NaN;
+
+    /** 累计的求值次数 / Accumulated number of evaluations */
+    private int evaluations = 0;
+
+    /**
+     * 构造函数，c1 = 1e-4，c2 = 0.9，初始步长不超过1，每次最多20次求值 / Constructor with c1 = 1e-4, c2 = 0.9, an
+     * initial step of at most 1 and at most 20 evaluations per search
+     */
+    public RereWolfeLineSearch() {
+        this(1e-4f, 0.9f, 1.0f, 20);
+    }
+
+    /**
+     * 构造函数 / Constructor
+     *
+     * @param c1 充分下降条件参数 / Sufficient decrease parameter
+     * @param c2 曲率条件参数，拟牛顿法通常取0.9，共轭梯度法取0.1 / Curvature parameter, usually 0.9 for
+     *           quasi-Newton and 0.1 for conjugate gradient methods
+     * @param maxInitialStep 初始步长的上限 / Upper bound of the initial step
+     * @param maxEvaluations 每次搜索的最大求值次数 / Maximum evaluations per search
+     * @throws IllegalArgumentException 如果不满足 0 &lt; c1 &lt; c2 &lt; 1 或其他参数不为正 / unless
+     *         0 &lt; c1 &lt; c2 &lt; 1 and the other parameters are positive
+     */
+    public RereWolfeLineSearch(float c1, float c2, float maxInitialStep, int maxEvaluations) {
+        if (!(c1 > 0 && c1 < c2 && c2 < 1)) {
+            throw new IllegalArgumentException("需要 0 < c1 < c2 < 1 / Requires 0 < c1 < c2 < 1");
+        }
+        if (!(maxInitialStep > 0) || maxEvaluations <= 0) {
+            throw new IllegalArgumentException("初始步长与求值次数必须为正 / Initial step and evaluations must be positive");
+        }
+        this.c1 = c1;
+        this.c2 = c2;
+        this.maxInitialStep = maxInitialStep;
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    @Override
+    public float search(float[] x, float value, float[] grad, float[] direction, IVector trial,
+                        float[] trialGradient, RereCachedFunction function) {
+        float[] t = trial.getData();
+        double slope0 = RereLBFGS.dot(grad, direction);
+        double alpha0 = initialStep(value, slope0, direction);
+        this.previousValue = value;
+        if (!(slope0 < 0)) {
+            return noStep(x, value, grad, t, trialGradient);
+        }
+
+        double armijo = c1 * slope0;
+        double curvature = -c2 * slope0;
+
+        // 括区间阶段 / Bracketing phase
+        double alphaPrev = 0.0;
+        double valuePrev = value;
+        double slopePrev = slope0;
+        double alpha = alpha0;
+        double lo;
+        double hi;
+        double valueLo;
+        double valueHi;
+        double slopeLo;
+        double slopeHi;
+        boolean slopeHiKnown;
+        int count = 0;
+        while (true) {
+            double phi = evaluate(x, direction, alpha, t, trial, function);
+            count++;
+            if (phi > value + armijo * alpha || (alphaPrev > 0 && phi >= valuePrev) || !Double.isFinite(phi)) {
+                lo = alphaPrev;
+                valueLo = valuePrev;
+                slopeLo = slopePrev;
+                hi = alpha;
+                valueHi = phi;
+                slopeHi = 0.0;
+                slopeHiKnown = false;
+                break;
+            }
+            double slope = slope(trial, direction, trialGradient, function);
+            if (Math.abs(slope) <= curvature) {
+                return accept(alpha, phi);
+            }
+            if (slope >= 0) {
+                lo = alpha;
+                valueLo = phi;
+                slopeLo = slope;
+                hi = alphaPrev;
+                valueHi = valuePrev;
+                slopeHi = slopePrev;
+                slopeHiKnown = true;
+                break;
+            }
+            if (count >= maxEvaluations || alpha >= MAX_STEP) {
+                // 步长已很大且仍满足充分下降，接受当前点 / The step is already large and decreases enough
+                return accept(alpha, phi);
+            }
+            // 三次外推，限制在[2α, 8α] / Cubic extrapolation restricted to [2α, 8α]
+            double next = cubic(alphaPrev, valuePrev, slopePrev, alpha, phi, slope);
+            if (!(next >= 2 * alpha && next <= 8 * alpha)) {
+                next = 4 * alpha;
+            }
+            alphaPrev = alpha;
+            valuePrev = phi;
+            slopePrev = slope;
+            alpha = Math.min(next, MAX_STEP);
+        }
+
+        // 缩放阶段：lo始终满足充分下降且函数值最小 / Zoom phase: lo always satisfies sufficient decrease with the
+        // lowest value
+        while (count < maxEvaluations) {
+            double width = hi - lo;
+            if (Math.abs(width) <= 1e-12 * Math.max(1.0, Math.abs(lo))) {
+                break;
+            }
+            double next = slopeHiKnown ? cubic(lo, valueLo, slopeLo, hi, valueHi, slopeHi)
+                : quadratic(lo, valueLo, slopeLo, hi, valueHi);
+            double left = Math.min(lo, hi) + 0.1 * Math.abs(width);
+            double right = Math.max(lo, hi) - 0.1 * Math.abs(width);
+            if (!(next >= left && next <= right)) {
+                next = lo + 0.5 * width;
+            }
+            alpha = next;
+            double phi = evaluate(x, direction, alpha, t, trial, function);
+            count++;
+            if (phi > value + armijo * alpha || phi >= valueLo || !Double.isFinite(phi)) {
+                hi = alpha;
+                valueHi = phi;
+                slopeHiKnown = false;
+            } else {
+                double slope = slope(trial, direction, trialGradient, function);
+                if (Math.abs(slope) <= curvature) {
+                    return accept(alpha, phi);
+                }
+                if (slope * (hi - lo) >= 0) {
+                    hi = lo;
+                    valueHi = valueLo;
+                    slopeHi = slopeLo;
+                    slopeHiKnown = true;
+                }
+                lo = alpha;
+                valueLo = phi;
+                slopeLo = slope;
+            }
+        }
+
+        // 求值次数用尽：退回满足充分下降的最好步长 / Out of evaluations: fall back to the best step with sufficient
+        // decrease
+        if (lo > 0) {
+            double phi = evaluate(x, direction, lo, t, trial, function);
+            function.gradient(trial, trialGradient);
+            return accept(lo, phi);
+        }
+        return noStep(x, value, grad, t, trialGradient);
+    }
+
+    @Override
+    public float getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * 获取累计的求值次数 / Get the accumulated number of evaluations
+     *
+     * @return 求值次数 / Number of evaluations
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * 初始步长：首次为 min(1, 1/||d||)，之后由上一次的函数下降量估计 / Initial step: min(1, 1/||d||) the first time,
+     * then estimated from the previous decrease
+     */
+    private double initialStep(float value, double slope0, float[] direction) {
+        double alpha;
+        if (Float.isNaN(previousValue)) {
+            alpha = 1.0 / Math.sqrt(RereLBFGS.dot(direction, direction));
+        } else {
+            alpha = 1.01 * 2.0 * (value - previousValue) / slope0;
+        }
+        if (!(alpha > 0) || !Double.isFinite(alpha)) {
+            alpha = maxInitialStep;
+        }
+        return Math.min(alpha, maxInitialStep);
+    }
+
+    private double evaluate(float[] x, float[] direction, double alpha, float[] t, IVector trial,
+                            RereCachedFunction function) {
+        RereLineSearch.step(x, direction, (float) alpha, t);
+        evaluations++;
+        return function.value(trial);
+    }
+
+    private static double slope(IVector trial, float[] direction, float[] trialGradient,
+                                RereCachedFunction function) {
+        function.gradient(trial, trialGradient);
+        return RereLBFGS.dot(trialGradient, direction);
+    }
+
+    private float accept(double alpha, double phi) {
+        this.lastValue = (float) phi;
+        return (float) alpha;
+    }
+
+    /**
+     * 找不到下降的步长：试探点退回x / No decreasing step: the trial point falls back to x
+     */
+    private float noStep(float[] x, float value, float[] grad, float[] t, float[] trialGradient) {
+        System.arraycopy(x, 0, t, 0, x.length);
+        System.arraycopy(grad, 0, trialGradient, 0, grad.length);
+        this.lastValue = value;
+        return 0.0f;
+    }
+
+    /**
+     * 由两点的函数值与方向导数确定的三次多项式的极小点 / Minimizer of the cubic fitted to values and directional
+     * derivatives at two points
+     */
+    static double cubic(double a, double fa, double da, double b, double fb, double db) {
+        double d1 = da + db - 3.0 * (fa - fb) / (a - b);
+        double radicand = d1 * d1 - da * db;
+        if (radicand < 0) {
+            return Double.NaN;
+        }
+        double d2 = Math.signum(b - a) * Math.sqrt(radicand);
+        double denominator = db - da + 2.0 * d2;
+        if (denominator == 0) {
+            return Double.NaN;
+        }
+        return b - (b - a) * (db + d2 - d1) / denominator;
+    }
+
+    /**
+     * 由一端的函数值、方向导数与另一端的函数值确定的二次多项式的极小点 / Minimizer of the quadratic fitted to the
+     * value and directional derivative at one point and the value at another
+     */
+    static double quadratic(double a, double fa, double da, double b, double fb) {
+        double h = b - a;
+        double curvature = fb - fa - da * h;
+        if (!(curvature > 0)) {
+            return Double.NaN;
+        }
+        return a - da * h * h / (2.0 * curvature);
+    }
+}
@@ -129,7 +129,7 @@ import com.reremouse.lab.math.stat.distribution.PoissonDistribution;
  *   <li><strong>生存函数 (SF)</strong> - sf(x) 方法</li>
  *   <li><strong>逆生存函数 (ISF)</strong> - isf(p) 方法</li>
  *   <li><strong>统计量计算</strong> - 均值、方差、标准差、中位数、众数、四分位数、偏度、峰度</li>
- *   <li><strong>随机采样</strong> - sample() 和 sample(n) 方法</li>
+ *   <li><strong>随机采样</strong> - sample()、sample(n)，以及可复现的 sample(rng) 和 sample(n, seed) 方法</li>
  *   <li><strong>高级统计方法</strong> - 矩计算、熵计算、分布比较等</li>
  * </ul>
  * 
@@ -153,7 +153,7 @@ import com.reremouse.lab.math.stat.distribution.PoissonDistribution;
  * <ul>
  *   <li>所有分布参数都使用float类型，确保计算效率</li>
  *   <li>分布对象是不可变的，创建后参数不能修改</li>
- *   <li>随机数生成使用Java内置的Math.random()方法</li>
+ *   <li>随机数来自java.util.random.RandomGenerator，默认使用线程本地的生成器；需要复现时传入生成器或种子（见RereRandom）</li>
  *   <li>某些统计量在特定条件下可能不存在（返回Float.NaN）</li>
  *   <li>数值计算使用近似方法，精度可能有限</li>
  * </ul>
@@ -1,8 +1,8 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
-import com.reremouse.lab.math.IVector;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * Beta分布 (Beta Distribution)
@@ -31,6 +31,9 @@ public class BetaDistribution implements IContinuousDistribution, Serializable {
     /** Beta函数值B(α,β)的缓存 / Cached value of Beta function B(α,β) */
     private final float betaFunction;
     
+    /** Beta函数值的对数 / Logarithm of the Beta function value */
+    private final double logBetaFunction;
+    
     /** 均值 / Mean */
     private final float mean;
     
@@ -59,6 +62,8 @@ public class BetaDistribution implements IContinuousDistribution, Serializable {
         this.alpha = alpha;
         this.beta = beta;
         this.betaFunction = (float) RereMathUtil.beta(alpha, beta);
+        this.logBetaFunction = RereMathUtil.logGamma(alpha) + RereMathUtil.logGamma(beta)
+            - RereMathUtil.logGamma(alpha + beta);
         
         // 计算统计量
         this.mean = alpha / (alpha + beta);
@@ -94,10 +99,25 @@ public class BetaDistribution implements IContinuousDistribution, Serializable {
             return 0.0f;
         }
         
-        double logPdf = (alpha - 1.0f) * Math.log(x) + (beta - 1.0f) * Math.log(1.0f - x) - Math.log(betaFunction);
+        double logPdf = (alpha - 1.0f) * Math.log(x) + (beta - 1.0f) * Math.log(1.0f - x) - logBetaFunction;
         return (float) Math.exp(logPdf);
     }
     
+    /**
+     * 计算对数概率密度，密度下溢为0时仍然有限
+     * Calculate log density, finite where the density itself underflows to 0
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度 / Log density
+     */
+    @Override
+    public float logPdf(float x) {
+        if (!(x > 0.0f && x < 1.0f)) {
+            return (float) Math.log(pdf(x));
+        }
+        return (float) ((alpha - 1.0f) * Math.log(x) + (beta - 1.0f) * Math.log(1.0f - x) - logBetaFunction);
+    }
+    
     /**
      * 计算累积分布函数值
      * Calculate cumulative distribution function value
@@ -118,7 +138,7 @@ public class BetaDistribution implements IContinuousDistribution, Serializable {
         if (x == 0.0f) return 0.0f;
         if (x == 1.0f) return 1.0f;
         
-        return (float) RereMathUtil.incompleteBeta(alpha, beta, x) / betaFunction;
+        return (float) RereMathUtil.regularizedIncompleteBeta(alpha, beta, x);
     }
     
     /**
@@ -137,37 +157,9 @@ public class BetaDistribution implements IContinuousDistribution, Serializable {
         if (p == 0.0f) return 0.0f;
         if (p == 1.0f) return 1.0f;
         
-        // 使用二分法求解逆Beta分布
-        // Using binary search to solve inverse Beta distribution
-        return inverseBetaCDF(p);
-    }
-    
-    /**
-     * 使用二分法计算逆Beta CDF
-     * Calculate inverse Beta CDF using binary search
-     */
-    private float inverseBetaCDF(float p) {
-        float low = 0.0f;
-        float high = 1.0f;
-        float tolerance = 1e-6f;
-        int maxIter = 100;
-        
-        for (int i = 0; i < maxIter; i++) {
-            float mid = (low + high) / 2.0f;
-            float cdfValue = cdf(mid);
-            
-            if (Math.abs(cdfValue - p) < tolerance) {
-                return mid;
-            }
-            
-            if (cdfValue < p) {
-                low = mid;
-            } else {
-                high = mid;
-            }
-        }
-        
-        return (low + high) / 2.0f;
+        // 从闭式近似出发做Halley迭代
+        // Halley iteration from a closed-form approximation
+        return (float) QuantileSolver.betaQuantile(alpha, beta, p);
     }
     
     /**
@@ -303,71 +295,24 @@ public class BetaDistribution implements IContinuousDistribution, Serializable {
     }
     
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
+    public float sample(RandomGenerator rng) {
         // 使用Gamma分布生成Beta分布样本
         // Using Gamma distribution to generate Beta distribution samples
-        float gamma1 = gammaSample(alpha, 1.0f);
-        float gamma2 = gammaSample(beta, 1.0f);
-        return gamma1 / (gamma1 + gamma2);
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
-    }
-    
-    /**
-     * 使用Box-Muller变换生成Gamma分布样本
-     * Generate Gamma distribution sample using Box-Muller transform
-     */
-    private float gammaSample(float shape, float scale) {
-        if (shape < 1.0f) {
-            // 对于形状参数小于1的情况，使用变换
-            return gammaSample(shape + 1.0f, scale) * (float) Math.pow(Math.random(), 1.0f / shape);
-        }
-        
-        // 使用Marsaglia和Tsang的方法
-        float d = shape - 1.0f / 3.0f;
-        float c = 1.0f / (float) Math.sqrt(9.0f * d);
-        
-        while (true) {
-            float x = (float) RereMathUtil.normalSample(0.0f, 1.0f);
-            float v = 1.0f + c * x;
-            
-            if (v <= 0.0f) continue;
-            
-            v = v * v * v;
-            float u = (float) Math.random();
-            
-            if (u < 1.0f - 0.0331f * x * x * x * x) {
-                return d * v * scale;
-            }
-            
-            if (Math.log(u) < 0.5f * x * x + d * (1.0f - v + Math.log(v))) {
-                return d * v * scale;
-            }
+        double gamma1 = RereSampler.nextGamma(rng, alpha);
+        double gamma2 = RereSampler.nextGamma(rng, beta);
+        double sum = gamma1 + gamma2;
+        if (sum == 0.0) {
+            // 两个形状参数都很小时两者可能同时下溢 / Both may underflow when both shapes are tiny
+            return rng.nextDouble() * (alpha + beta) < alpha ? 1.0f : 0.0f;
         }
+        return (float) (gamma1 / sum);
     }
     
     /**
@@ -1,6 +1,7 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
+import java.util.random.RandomGenerator;
 
 /**
  * 二项分布 (Binomial Distribution)
@@ -33,6 +34,10 @@ public class BinomialDistribution implements IDiscreteDistribution {
     /** 失败概率 / Probability of failure */
     private final float q;
     
+    /** ln p与ln q的预计算值 / Precomputed values of ln p and ln q */
+    private final double logP;
+    private final double logQ;
+    
     /**
      * 构造函数
      * Constructor
@@ -51,6 +56,8 @@ public class BinomialDistribution implements IDiscreteDistribution {
         this.n = n;
         this.p = p;
         this.q = 1.0f - p;
+        this.logP = Math.log(p);
+        this.logQ = Math.log(q);
     }
     
     /**
@@ -134,10 +141,18 @@ public class BinomialDistribution implements IDiscreteDistribution {
         if (p == 1.0f) return (x == n) ? 1.0f : 0.0f;
         
         // 使用对数避免数值溢出
-        double logPmf = RereMathUtil.logCombination(n, x) + x * Math.log(p) + (n - x) * Math.log(q);
+        double logPmf = RereMathUtil.logCombination(n, x) + x * logP + (n - x) * logQ;
         return (float) Math.exp(logPmf);
     }
     
+    @Override
+    public float logPmf(int x) {
+        if (x < 0 || x > n) return Float.NEGATIVE_INFINITY;
+        if (p == 0.0f || p == 1.0f) return (float) Math.log(pmf(x));
+        
+        return (float) (RereMathUtil.logCombination(n, x) + x * logP + (n - x) * logQ);
+    }
+    
     @Override
     public float cdf(int x) {
         if (x < 0) return 0.0f;
@@ -184,32 +199,17 @@ public class BinomialDistribution implements IDiscreteDistribution {
     
     // ==================== 随机采样 / Random Sampling ====================
     
+    /**
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
+     * 
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机样本 / Random sample
+     */
     @Override
-    public int sample() {
-        // 使用逆变换采样
-        double u = Math.random();
-        float cdf = 0.0f;
-        
-        for (int k = 0; k <= n; k++) {
-            cdf += pmf(k);
-            if (u <= cdf) {
-                return k;
-            }
-        }
-        return n; // 理论上不应该到达这里
-    }
-    
-    @Override
-    public int[] sample(int sampleSize) {
-        if (sampleSize <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        int[] samples = new int[sampleSize];
-        for (int i = 0; i < sampleSize; i++) {
-            samples[i] = sample();
-        }
-        return samples;
+    public int sample(RandomGenerator rng) {
+        // n·p较小时逆变换，否则BTPE / Inversion for small n·p, otherwise BTPE
+        return RereSampler.nextBinomial(rng, n, p);
     }
     
     // ==================== 支持区间和验证 / Support and Validation ====================
@@ -1,8 +1,8 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
-import com.reremouse.lab.math.IVector;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * 卡方分布 (Chi-Squared Distribution)
@@ -28,6 +28,7 @@ public class Chi2Distribution implements IContinuousDistribution, Serializable {
     /** 预计算的常数 / Precomputed constants */
     private final float halfDof;
     private final float normalizationConstant;
+    private final double logNormalizationConstant;
     
     /**
      * 构造函数
@@ -46,6 +47,7 @@ public class Chi2Distribution implements IContinuousDistribution, Serializable {
         // 计算归一化常数
         // Calculate normalization constant
         this.normalizationConstant = (float) (1.0 / (Math.pow(2.0, halfDof) * RereMathUtil.gamma(halfDof)));
+        this.logNormalizationConstant = -(halfDof * Math.log(2.0) + Math.log(RereMathUtil.gamma(halfDof)));
     }
     
     /**
@@ -66,6 +68,21 @@ public class Chi2Distribution implements IContinuousDistribution, Serializable {
         return normalizationConstant * (float) Math.pow(x, power) * (float) Math.exp(exponent);
     }
     
+    /**
+     * 计算对数概率密度，密度下溢为0时仍然有限
+     * Calculate log density, finite where the density itself underflows to 0
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度 / Log density
+     */
+    @Override
+    public float logPdf(float x) {
+        if (x <= 0) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        return (float) (logNormalizationConstant + (halfDof - 1.0) * Math.log(x) - x / 2.0);
+    }
+    
     /**
      * 计算累积分布函数值（使用近似方法）
      * Calculate cumulative distribution function value (using approximation)
@@ -79,9 +96,9 @@ public class Chi2Distribution implements IContinuousDistribution, Serializable {
             return 0.0f;
         }
         
-        // 使用不完全伽马函数
-        // Using incomplete gamma function
-        return (float) RereMathUtil.incompleteGamma(halfDof, x / 2.0f);
+        // 使用正则化不完全伽马函数
+        // Using regularized incomplete gamma function
+        return (float) RereMathUtil.regularizedIncompleteGamma(halfDof, x / 2.0f);
     }
     
     /**
@@ -100,9 +117,9 @@ public class Chi2Distribution implements IContinuousDistribution, Serializable {
         if (p == 0.0f) return 0.0f;
         if (p == 1.0f) return Float.POSITIVE_INFINITY;
         
-        // 使用数值方法求解
-        // Using numerical method to solve
-        return inverseChi2CDF(p);
+        // 卡方分布是尺度为2的Gamma分布，从Wilson-Hilferty近似出发做Halley迭代
+        // Chi-squared is a gamma distribution with scale 2; Halley iteration from the Wilson-Hilferty approximation
+        return (float) (2.0 * QuantileSolver.gammaQuantile(halfDof, p));
     }
     
     /**
@@ -201,54 +218,6 @@ public class Chi2Distribution implements IContinuousDistribution, Serializable {
     // 使用RereMathUtil中的incompleteGamma函数
     // Using incompleteGamma function from RereMathUtil
     
-    /**
-     * 逆卡方分布累积分布函数的数值求解
-     * Numerical solution for inverse chi-squared distribution CDF
-     */
-    private float inverseChi2CDF(float p) {
-        // 使用二分法求解
-        // Using bisection method to solve
-        float left = 0.0f;
-        float right = 2.0f * degreesOfFreedom + 10.0f; // 初始右边界
-        float tolerance = 1e-6f;
-        int maxIter = 100;
-        
-        // 调整右边界直到CDF(right) >= p
-        // Adjust right boundary until CDF(right) >= p
-        while (cdf(right) < p && right < 1000.0f) {
-            right *= 2.0f;
-        }
-        
-        // 确保左边界CDF值小于p
-        // Ensure left boundary CDF value is less than p
-        while (cdf(left) >= p && left > 1e-10f) {
-            left /= 2.0f;
-        }
-        
-        for (int i = 0; i < maxIter; i++) {
-            float mid = (left + right) / 2.0f;
-            float cdfMid = cdf(mid);
-            
-            if (Math.abs(cdfMid - p) < tolerance) {
-                return mid;
-            }
-            
-            if (cdfMid < p) {
-                left = mid;
-            } else {
-                right = mid;
-            }
-            
-            // 检查收敛性
-            // Check convergence
-            if (Math.abs(right - left) < tolerance) {
-                break;
-            }
-        }
-        
-        return (left + right) / 2.0f;
-    }
-    
     /**
      * 检查值是否在分布的支持区间内
      * Check if value is within the support interval of the distribution
@@ -360,87 +329,17 @@ public class Chi2Distribution implements IContinuousDistribution, Serializable {
     }
     
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
-        // 使用伽马分布生成卡方分布随机数
-        // Using gamma distribution to generate chi-squared random numbers
-        float gammaSample = gammaSample(halfDof, 2.0f);
-        return gammaSample;
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        // 使用IVector进行数组操作
-        // Using IVector for array operations
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
-    }
-    
-    /**
-     * 生成伽马分布随机数
-     * Generate gamma distribution random number
-     * 
-     * @param shape 形状参数 / Shape parameter
-     * @param scale 尺度参数 / Scale parameter
-     * @return 伽马分布随机数 / Gamma distribution random number
-     */
-    private float gammaSample(float shape, float scale) {
-        // 使用逆变换采样方法
-        // Using inverse transform sampling method
-        if (shape < 1.0f) {
-            // 对于形状参数小于1的情况，使用变换
-            // For shape parameter less than 1, use transformation
-            return gammaSample(shape + 1.0f, scale) * (float) Math.pow(Math.random(), 1.0f / shape);
-        }
-        
-        // 使用Box-Muller变换的变体生成伽马分布
-        // Using variant of Box-Muller transform to generate gamma distribution
-        float d = shape - 1.0f / 3.0f;
-        float c = 1.0f / (float) Math.sqrt(9.0f * d);
-        
-        while (true) {
-            // 生成两个独立的均匀随机数
-            // Generate two independent uniform random numbers
-            float u1 = (float) Math.random();
-            float u2 = (float) Math.random();
-            
-            // 使用Box-Muller变换生成正态分布随机数
-            // Use Box-Muller transform to generate normal random numbers
-            float z1 = (float) Math.sqrt(-2.0 * Math.log(u1)) * (float) Math.cos(2.0 * Math.PI * u2);
-            
-            float v = 1.0f + c * z1;
-            if (v <= 0) continue;
-            
-            v = v * v * v;
-            float u = (float) Math.random();
-            
-            if (u < 1.0f - 0.0331f * z1 * z1 * z1 * z1) {
-                return d * v * scale;
-            }
-            
-            if (Math.log(u) < 0.5f * z1 * z1 + d * (1.0f - v + Math.log(v))) {
-                return d * v * scale;
-            }
-        }
+    public float sample(RandomGenerator rng) {
+        // 卡方分布是形状为k/2、尺度为2的Gamma分布
+        // Chi-squared is the gamma distribution with shape k/2 and scale 2
+        return (float) (2.0 * RereSampler.nextGamma(rng, halfDof));
     }
     
     @Override
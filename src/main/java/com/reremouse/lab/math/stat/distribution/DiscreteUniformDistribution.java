@@ -1,6 +1,7 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
+import java.util.random.RandomGenerator;
 
 /**
  * 离散均匀分布 (Discrete Uniform Distribution)
@@ -184,22 +185,16 @@ public class DiscreteUniformDistribution implements IDiscreteDistribution {
     
     // ==================== 随机采样 / Random Sampling ====================
     
+    /**
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
+     * 
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机样本 / Random sample
+     */
     @Override
-    public int sample() {
-        return a + (int) (Math.random() * n);
-    }
-    
-    @Override
-    public int[] sample(int sampleSize) {
-        if (sampleSize <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        int[] samples = new int[sampleSize];
-        for (int i = 0; i < sampleSize; i++) {
-            samples[i] = sample();
-        }
-        return samples;
+    public int sample(RandomGenerator rng) {
+        return a + rng.nextInt(n);
     }
     
     // ==================== 支持区间和验证 / Support and Validation ====================
@@ -0,0 +1,53 @@
+package com.reremouse.lab.math.stat.distribution;
+
+/**
+ * 分布批量求值的公共工具 / Shared helpers for batched distribution evaluation
+ * <p>
+ * 批量方法按{@link #GRAIN}个元素一块在共享线程池中并行（见{@code RereExecutor.parallelFor}），
+ * 输入较短时直接在调用线程中执行。每个元素的结果只取决于它自己的输入，与线程数无关。
+ * </p>
+ * <p>
+ * Batched methods split their input into blocks of {@link #GRAIN} elements on the shared pool (see
+ * {@code RereExecutor.parallelFor}) and run inline for short inputs. Each element depends only on its own input, so
+ * results do not depend on the thread count.
+ * </p>
+ *
+ * @author lteb2
+ * @version 1.0
+ * @since 1.0
+ */
+final class DistributionBatch {
+
+    /** 每个并行块的最小元素数 / Minimum elements per parallel block */
+    static final int GRAIN = 4096;
+
+    private DistributionBatch() {
+    }
+
+    /**
+     * 检查输入与输出数组 / Check the input and output arrays
+     *
+     * @param input 输入长度，数组为null时传-1 / Input length, -1 for a null array
+     * @param output 输出长度，数组为null时传-1 / Output length, -1 for a null array
+     * @throws IllegalArgumentException 如果数组为null或长度不一致 / if an array is null or the lengths differ
+     */
+    static void check(int input, int output) {
+        if (input < 0 || output < 0) {
+            throw new IllegalArgumentException("输入与输出数组不能为空 / Input and output arrays cannot be null");
+        }
+        if (input != output) {
+            throw new IllegalArgumentException("输出数组长度与输入不一致 / Output length differs from input: "
+                + output + " != " + input);
+        }
+    }
+
+    /**
+     * 检查浮点输入与输出数组 / Check float input and output arrays
+     *
+     * @param x 输入 / Input
+     * @param out 输出 / Output
+     */
+    static void check(float[] x, float[] out) {
+        check(x == null ? -1 : x.length, out == null ? -1 : out.length);
+    }
+}
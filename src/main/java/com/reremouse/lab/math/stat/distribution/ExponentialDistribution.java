@@ -1,7 +1,8 @@
 package com.reremouse.lab.math.stat.distribution;
 
-import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.RereExecutor;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * 指数分布 (Exponential Distribution)
@@ -126,6 +127,101 @@ public class ExponentialDistribution implements IContinuousDistribution, Seriali
         return ppf(1.0f - p);
     }
     
+    /**
+     * 计算对数概率密度
+     * Calculate log density
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度，x < 0时为负无穷 / Log density, negative infinity for x < 0
+     */
+    @Override
+    public float logPdf(float x) {
+        if (x < 0) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        return (float) (Math.log(rate) - (double) rate * x);
+    }
+    
+    /**
+     * 批量计算概率密度
+     * Batched density
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void pdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        float r = rate;
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float v = x[i];
+                out[i] = v < 0 ? 0.0f : r * (float) Math.exp(-r * v);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算对数概率密度，ln λ只计算一次
+     * Batched log density with ln λ computed once
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void logPdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        double r = rate;
+        double logRate = Math.log(rate);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float v = x[i];
+                out[i] = v < 0 ? Float.NEGATIVE_INFINITY : (float) (logRate - r * v);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算累积分布
+     * Batched CDF
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void cdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        float r = rate;
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float v = x[i];
+                out[i] = v < 0 ? 0.0f : 1.0f - (float) Math.exp(-r * v);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算百分点函数
+     * Batched percent point function
+     * 
+     * @param prob 概率值，范围[0,1] / Probabilities in [0,1]
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void ppf(float[] prob, float[] out) {
+        DistributionBatch.check(prob, out);
+        float r = rate;
+        RereExecutor.parallelFor(0, prob.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float p = prob[i];
+                if (p < 0.0f || p > 1.0f) {
+                    throw new IllegalArgumentException("概率值必须在[0,1]范围内 / Probability must be in range [0,1]");
+                }
+                out[i] = p == 1.0f ? Float.POSITIVE_INFINITY : -(float) Math.log(1.0f - p) / r;
+            }
+        });
+    }
+    
     /**
      * 获取速率参数
      * Get rate parameter
@@ -335,39 +431,17 @@ public class ExponentialDistribution implements IContinuousDistribution, Seriali
     }
     
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
-        // 使用逆变换采样生成指数分布随机数
-        // Using inverse transform sampling to generate exponential random numbers
-        float u = (float) Math.random();
-        return -(float) Math.log(1.0f - u) / rate;
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        // 使用IVector进行数组操作
-        // Using IVector for array operations
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
+    public float sample(RandomGenerator rng) {
+        // JDK的nextExponential使用改进的ziggurat算法，避免每个样本一次对数运算
+        // The JDK's nextExponential uses a modified ziggurat, avoiding a logarithm per sample
+        return (float) (rng.nextExponential() / rate);
     }
     
     @Override
@@ -1,8 +1,8 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
-import com.reremouse.lab.math.IVector;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * F分布 (F-Distribution)
@@ -34,6 +34,7 @@ public class FDistribution implements IContinuousDistribution, Serializable {
     private final float halfDenominatorDof;
     private final float halfSumDof;
     private final float normalizationConstant;
+    private final double logNormalizationConstant;
     
     /**
      * 构造函数
@@ -58,6 +59,7 @@ public class FDistribution implements IContinuousDistribution, Serializable {
         this.normalizationConstant = (float) (RereMathUtil.gamma(halfSumDof) / 
             (RereMathUtil.gamma(halfNumeratorDof) * RereMathUtil.gamma(halfDenominatorDof)) * 
             Math.pow(numeratorDof / denominatorDof, halfNumeratorDof));
+        this.logNormalizationConstant = Math.log(normalizationConstant);
     }
     
     /**
@@ -80,6 +82,22 @@ public class FDistribution implements IContinuousDistribution, Serializable {
         return normalizationConstant * (float) Math.pow(x, power1) * (float) Math.pow(base, power2);
     }
     
+    /**
+     * 计算对数概率密度，密度下溢为0时仍然有限
+     * Calculate log density, finite where the density itself underflows to 0
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度 / Log density
+     */
+    @Override
+    public float logPdf(float x) {
+        if (x <= 0) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        return (float) (logNormalizationConstant + (halfNumeratorDof - 1.0) * Math.log(x)
+            - halfSumDof * Math.log1p((double) numeratorDof * x / denominatorDof));
+    }
+    
     /**
      * 计算累积分布函数值（使用近似方法）
      * Calculate cumulative distribution function value (using approximation)
@@ -115,9 +133,10 @@ public class FDistribution implements IContinuousDistribution, Serializable {
         if (p == 0.0f) return 0.0f;
         if (p == 1.0f) return Float.POSITIVE_INFINITY;
         
-        // 使用数值方法求解
-        // Using numerical method to solve
-        return inverseFCDF(p);
+        // 求Beta(d1/2, d2/2)分位数y，再变换为x = d2·y / (d1·(1 - y))
+        // Solve the Beta(d1/2, d2/2) quantile y, then map it to x = d2·y / (d1·(1 - y))
+        double y = QuantileSolver.betaQuantile(halfNumeratorDof, halfDenominatorDof, p);
+        return (float) (denominatorDof * y / (numeratorDof * (1.0 - y)));
     }
     
     /**
@@ -228,62 +247,6 @@ public class FDistribution implements IContinuousDistribution, Serializable {
     // 使用RereMathUtil中的betaCF函数
     // Using betaCF function from RereMathUtil
     
-    /**
-     * 逆F分布累积分布函数的数值求解
-     * Numerical solution for inverse F-distribution CDF
-     */
-    private float inverseFCDF(float p) {
-        // 使用改进的二分法求解
-        // Using improved bisection method to solve
-        float left = 0.0f;
-        float right = 1.0f; // 从较小的初始值开始
-        float tolerance = 1e-8f;
-        int maxIter = 200;
-        
-        // 调整右边界直到CDF(right) >= p
-        // Adjust right boundary until CDF(right) >= p
-        int attempts = 0;
-        while (cdf(right) < p && attempts < 20) {
-            right *= 2.0f;
-            attempts++;
-        }
-        
-        // 如果右边界调整失败，使用更大的初始值
-        if (cdf(right) < p) {
-            right = 100.0f;
-            while (cdf(right) < p && right < 10000.0f) {
-                right *= 2.0f;
-            }
-        }
-        
-        // 确保左边界CDF < p
-        while (cdf(left) >= p && left > 1e-10f) {
-            left /= 2.0f;
-        }
-        
-        for (int i = 0; i < maxIter; i++) {
-            float mid = (left + right) / 2.0f;
-            float cdfMid = cdf(mid);
-            
-            if (Math.abs(cdfMid - p) < tolerance) {
-                return mid;
-            }
-            
-            if (cdfMid < p) {
-                left = mid;
-            } else {
-                right = mid;
-            }
-            
-            // 检查收敛
-            if (right - left < tolerance) {
-                break;
-            }
-        }
-        
-        return (left + right) / 2.0f;
-    }
-    
     /**
      * 检查值是否在分布的支持区间内
      * Check if value is within the support interval of the distribution
@@ -408,54 +371,20 @@ public class FDistribution implements IContinuousDistribution, Serializable {
         return Float.NaN; // 当分母自由度 <= 8 时峰度不存在
     }
     
-    // 缓存的卡方分布对象，避免重复创建
-    // Cached chi-squared distribution objects to avoid repeated creation
-    private Chi2Distribution chi2Num;
-    private Chi2Distribution chi2Den;
-    
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
-        // 使用卡方分布生成F分布随机数
-        // Using chi-squared distributions to generate F-distribution random numbers
-        if (chi2Num == null) {
-            chi2Num = new Chi2Distribution(numeratorDof);
-        }
-        if (chi2Den == null) {
-            chi2Den = new Chi2Distribution(denominatorDof);
-        }
-        
-        float chi2NumSample = chi2Num.sample();
-        float chi2DenSample = chi2Den.sample();
-        
-        return (chi2NumSample / numeratorDof) / (chi2DenSample / denominatorDof);
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        // 使用IVector进行数组操作
-        // Using IVector for array operations
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
+    public float sample(RandomGenerator rng) {
+        // 使用两个独立的卡方随机数生成F分布随机数
+        // Using two independent chi-squared variates to generate F-distribution random numbers
+        double chi2Num = 2.0 * RereSampler.nextGamma(rng, 0.5 * numeratorDof);
+        double chi2Den = 2.0 * RereSampler.nextGamma(rng, 0.5 * denominatorDof);
+        return (float) ((chi2Num / numeratorDof) / (chi2Den / denominatorDof));
     }
     
     @Override
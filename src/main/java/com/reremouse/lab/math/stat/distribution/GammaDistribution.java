@@ -1,8 +1,8 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
-import com.reremouse.lab.math.IVector;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * Gamma分布 (Gamma Distribution)
@@ -31,6 +31,9 @@ public class GammaDistribution implements IContinuousDistribution, Serializable
     /** Gamma函数值Γ(α)的缓存 / Cached value of Gamma function Γ(α) */
     private final float gammaFunction;
     
+    /** 对数归一化常数 α ln β - ln Γ(α) / Log normalizer α ln β - ln Γ(α) */
+    private final double logNormalizer;
+    
     /** 均值 / Mean */
     private final float mean;
     
@@ -59,6 +62,7 @@ public class GammaDistribution implements IContinuousDistribution, Serializable
         this.alpha = alpha;
         this.beta = beta;
         this.gammaFunction = (float) RereMathUtil.gamma(alpha);
+        this.logNormalizer = alpha * Math.log(beta) - RereMathUtil.logGamma(alpha);
         
         // 计算统计量
         this.mean = alpha / beta;
@@ -87,9 +91,22 @@ public class GammaDistribution implements IContinuousDistribution, Serializable
             return Float.POSITIVE_INFINITY;
         }
         
-        double logPdf = alpha * Math.log(beta) - Math.log(gammaFunction) + 
-                       (alpha - 1.0f) * Math.log(x) - beta * x;
-        return (float) Math.exp(logPdf);
+        return (float) Math.exp(logNormalizer + (alpha - 1.0f) * Math.log(x) - beta * x);
+    }
+    
+    /**
+     * 计算对数概率密度，密度下溢为0时仍然有限
+     * Calculate log density, finite where the density itself underflows to 0
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度 / Log density
+     */
+    @Override
+    public float logPdf(float x) {
+        if (x <= 0.0f || Float.isInfinite(x) || Float.isNaN(x)) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        return (float) (logNormalizer + (alpha - 1.0f) * Math.log(x) - beta * x);
     }
     
     /**
@@ -110,7 +127,7 @@ public class GammaDistribution implements IContinuousDistribution, Serializable
         if (x < 0.0f) return 0.0f;
         if (x == 0.0f) return 0.0f;
         
-        return (float) RereMathUtil.incompleteGamma(alpha, beta * x) / gammaFunction;
+        return (float) RereMathUtil.regularizedIncompleteGamma(alpha, beta * x);
     }
     
     /**
@@ -129,42 +146,9 @@ public class GammaDistribution implements IContinuousDistribution, Serializable
         if (p == 0.0f) return 0.0f;
         if (p == 1.0f) return Float.POSITIVE_INFINITY;
         
-        // 使用二分法求解逆Gamma分布
-        // Using binary search to solve inverse Gamma distribution
-        return inverseGammaCDF(p);
-    }
-    
-    /**
-     * 使用二分法计算逆Gamma CDF
-     * Calculate inverse Gamma CDF using binary search
-     */
-    private float inverseGammaCDF(float p) {
-        float low = 0.0f;
-        float high = mean + 10.0f * stdDev; // 使用均值+10倍标准差作为上界
-        float tolerance = 1e-6f;
-        int maxIter = 100;
-        
-        // 如果概率很小，调整上界
-        if (p < 0.01f) {
-            high = mean + 20.0f * stdDev;
-        }
-        
-        for (int i = 0; i < maxIter; i++) {
-            float mid = (low + high) / 2.0f;
-            float cdfValue = cdf(mid);
-            
-            if (Math.abs(cdfValue - p) < tolerance) {
-                return mid;
-            }
-            
-            if (cdfValue < p) {
-                low = mid;
-            } else {
-                high = mid;
-            }
-        }
-        
-        return (low + high) / 2.0f;
+        // 从Wilson-Hilferty近似出发做Halley迭代
+        // Halley iteration from the Wilson-Hilferty approximation
+        return (float) (QuantileSolver.gammaQuantile(alpha, p) / beta);
     }
     
     /**
@@ -294,67 +278,15 @@ public class GammaDistribution implements IContinuousDistribution, Serializable
     }
     
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
-        return gammaSample(alpha, beta);
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
-    }
-    
-    /**
-     * 使用Marsaglia和Tsang的方法生成Gamma分布样本
-     * Generate Gamma distribution sample using Marsaglia and Tsang method
-     */
-    private float gammaSample(float shape, float scale) {
-        if (shape < 1.0f) {
-            // 对于形状参数小于1的情况，使用变换
-            return gammaSample(shape + 1.0f, scale) * (float) Math.pow(Math.random(), 1.0f / shape);
-        }
-        
-        // 使用Marsaglia和Tsang的方法
-        float d = shape - 1.0f / 3.0f;
-        float c = 1.0f / (float) Math.sqrt(9.0f * d);
-        
-        while (true) {
-            float x = (float) RereMathUtil.normalSample(0.0f, 1.0f);
-            float v = 1.0f + c * x;
-            
-            if (v <= 0.0f) continue;
-            
-            v = v * v * v;
-            float u = (float) Math.random();
-            
-            if (u < 1.0f - 0.0331f * x * x * x * x) {
-                return d * v / scale;
-            }
-            
-            if (Math.log(u) < 0.5f * x * x + d * (1.0f - v + Math.log(v))) {
-                return d * v / scale;
-            }
-        }
+    public float sample(RandomGenerator rng) {
+        return (float) (RereSampler.nextGamma(rng, alpha) / beta);
     }
     
     /**
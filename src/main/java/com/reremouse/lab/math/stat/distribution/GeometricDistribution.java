@@ -1,6 +1,7 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
+import java.util.random.RandomGenerator;
 
 /**
  * 几何分布 (Geometric Distribution)
@@ -143,24 +144,17 @@ public class GeometricDistribution implements IDiscreteDistribution {
     
     // ==================== 随机采样 / Random Sampling ====================
     
+    /**
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
+     * 
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机样本 / Random sample
+     */
     @Override
-    public int sample() {
-        // 使用逆变换采样
-        double u = Math.random();
-        return (int) Math.ceil(Math.log(1.0 - u) / Math.log(q));
-    }
-    
-    @Override
-    public int[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        int[] samples = new int[n];
-        for (int i = 0; i < n; i++) {
-            samples[i] = sample();
-        }
-        return samples;
+    public int sample(RandomGenerator rng) {
+        // 逆变换：ceil(E / -ln q)，E为标准指数随机数 / Inversion: ceil(E / -ln q) with E standard exponential
+        return (int) Math.max(1.0, Math.ceil(-rng.nextExponential() / Math.log1p(-p)));
     }
     
     // ==================== 支持区间和验证 / Support and Validation ====================
@@ -1,6 +1,30 @@
 package com.reremouse.lab.math.stat.distribution;
 
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.RereExecutor;
+import com.reremouse.lab.util.RereRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 /**
+ * 连续分布接口
+ * <p>
+ * 除逐点方法外还提供批量方法（数组输入、数组输出，以及{@link IVector}重载）。默认实现逐个调用逐点方法，
+ * 并把较长的输入切块交给共享线程池；常用分布覆盖批量方法，归一化常数只计算一次，循环体内没有虚调用。
+ * </p>
+ * <p>
+ * Besides the pointwise methods there are batched ones (array in, array out, plus {@link IVector} overloads). The
+ * default implementations call the pointwise methods and split long inputs across the shared pool; common
+ * distributions override them so normalizing constants are computed once and the loops make no virtual calls.
+ * </p>
+ * <p>
+ * 采样基于{@link RandomGenerator}：无参采样使用线程本地的生成器；传入生成器或种子即可复现，
+ * 见{@link RereRandom}与{@link RereSampler}。
+ * </p>
+ * <p>
+ * Sampling is built on {@link RandomGenerator}: the no-argument methods use a thread-local generator; pass a
+ * generator or a seed for reproducible draws, see {@link RereRandom} and {@link RereSampler}.
+ * </p>
  *
  * @author lteb2
  */
@@ -61,17 +85,75 @@ public interface IContinuousDistribution {
     public float kurtosis();
     
     /**
-     * 采样
+     * 采样，使用线程本地的生成器
      * @return 
      */
-    public float sample();
+    public default float sample() {
+        return sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 用给定的生成器采样 / Draw one sample with the given generator
+     * <p>默认用逆变换法 ppf(U)，U在(0, 1)上均匀分布；库内的分布都覆盖为更快的专用算法。
+     * The default uses inverse transform sampling ppf(U) with U uniform on (0, 1); the distributions of this
+     * library override it with faster dedicated algorithms.</p>
+     *
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机样本 / Random sample
+     */
+    public default float sample(RandomGenerator rng) {
+        float u;
+        do {
+            u = rng.nextFloat();
+        } while (u == 0.0f);
+        return ppf(u);
+    }
     
     /**
      * 采样N个
      * @param n
      * @return 
      */
-    public float[] sample(int n);
+    public default float[] sample(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
+        }
+        return sample(n, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 用给定的种子并行采样N个，结果只取决于种子，与线程数无关
+     * Draw n samples in parallel from the given seed; the result depends only on the seed, not on the thread count
+     *
+     * @param n 样本数量 / Number of samples
+     * @param seed 随机种子 / Random seed
+     * @return 随机样本数组 / Array of random samples
+     * @throws IllegalArgumentException 如果n小于0 / if n is negative
+     */
+    public default float[] sample(int n, long seed) {
+        if (n < 0) {
+            throw new IllegalArgumentException("样本数量不能为负 / Sample size cannot be negative");
+        }
+        float[] out = new float[n];
+        RereRandom.parallelFor(0, n, RereSampler.BLOCK_SIZE, seed, (from, to, rng) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = sample(rng);
+            }
+        });
+        return out;
+    }
+
+    /**
+     * 用给定的生成器填充整个数组 / Fill the whole array with the given generator
+     *
+     * @param out 输出数组 / Output array
+     * @param rng 随机数生成器 / Random generator
+     */
+    public default void sample(float[] out, RandomGenerator rng) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = sample(rng);
+        }
+    }
 
     /**
      * 概率密度函数
@@ -112,4 +194,128 @@ public interface IContinuousDistribution {
      * @return
      */
     public float isf(float prob);
+
+    /**
+     * 概率密度的对数，密度下溢为0时仍然有限
+     * Logarithm of the density, finite where the density itself underflows to 0
+     *
+     * @param x 输入值 / Input value
+     * @return 对数密度 / Log density
+     */
+    public default float logPdf(float x) {
+        return (float) Math.log(pdf(x));
+    }
+
+    /**
+     * 批量计算概率密度 / Batched probability density
+     *
+     * @param x 输入值 / Input values
+     * @param out 输出数组，长度与x相同 / Output array of the same length as x
+     * @throws IllegalArgumentException 如果数组为null或长度不一致 / if an array is null or the lengths differ
+     */
+    public default void pdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = pdf(x[i]);
+            }
+        });
+    }
+
+    /**
+     * 批量计算对数密度 / Batched log density
+     *
+     * @param x 输入值 / Input values
+     * @param out 输出数组，长度与x相同 / Output array of the same length as x
+     * @throws IllegalArgumentException 如果数组为null或长度不一致 / if an array is null or the lengths differ
+     */
+    public default void logPdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = logPdf(x[i]);
+            }
+        });
+    }
+
+    /**
+     * 批量计算累积分布 / Batched cumulative distribution
+     *
+     * @param x 输入值 / Input values
+     * @param out 输出数组，长度与x相同 / Output array of the same length as x
+     * @throws IllegalArgumentException 如果数组为null或长度不一致 / if an array is null or the lengths differ
+     */
+    public default void cdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = cdf(x[i]);
+            }
+        });
+    }
+
+    /**
+     * 批量计算百分点函数 / Batched percent point function
+     *
+     * @param prob 概率值，范围[0,1] / Probabilities in [0,1]
+     * @param out 输出数组，长度与prob相同 / Output array of the same length as prob
+     * @throws IllegalArgumentException 如果数组为null、长度不一致或概率值不在[0,1]范围内 / if an array is null, the
+     *         lengths differ or a probability is outside [0,1]
+     */
+    public default void ppf(float[] prob, float[] out) {
+        DistributionBatch.check(prob, out);
+        RereExecutor.parallelFor(0, prob.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = ppf(prob[i]);
+            }
+        });
+    }
+
+    /**
+     * 批量计算概率密度 / Batched probability density
+     *
+     * @param x 输入向量 / Input vector
+     * @return 各元素的密度 / Density of every element
+     */
+    public default IVector pdf(IVector x) {
+        float[] out = new float[x.length()];
+        pdf(x.getData(), out);
+        return IVector.of(out);
+    }
+
+    /**
+     * 批量计算对数密度 / Batched log density
+     *
+     * @param x 输入向量 / Input vector
+     * @return 各元素的对数密度 / Log density of every element
+     */
+    public default IVector logPdf(IVector x) {
+        float[] out = new float[x.length()];
+        logPdf(x.getData(), out);
+        return IVector.of(out);
+    }
+
+    /**
+     * 批量计算累积分布 / Batched cumulative distribution
+     *
+     * @param x 输入向量 / Input vector
+     * @return 各元素的累积概率 / Cumulative probability of every element
+     */
+    public default IVector cdf(IVector x) {
+        float[] out = new float[x.length()];
+        cdf(x.getData(), out);
+        return IVector.of(out);
+    }
+
+    /**
+     * 批量计算百分点函数 / Batched percent point function
+     *
+     * @param prob 概率向量 / Probability vector
+     * @return 各概率对应的分位数 / Quantile of every probability
+     */
+    public default IVector ppf(IVector prob) {
+        float[] out = new float[prob.length()];
+        ppf(prob.getData(), out);
+        return IVector.of(out);
+    }
 }
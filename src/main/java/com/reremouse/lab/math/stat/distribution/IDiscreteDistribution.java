@@ -1,6 +1,10 @@
 package com.reremouse.lab.math.stat.distribution;
 
+import com.reremouse.lab.util.RereExecutor;
+import com.reremouse.lab.util.RereRandom;
 import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * 离散分布接口
@@ -12,9 +16,10 @@ import java.io.Serializable;
  * 该接口定义了离散概率分布的基本操作，包括：
  * - 统计量计算（均值、方差、偏度、峰度等）
  * - 概率计算（PMF、CDF、生存函数等）
- * - 随机采样
+ * - 随机采样（基于RandomGenerator，可传入生成器或种子复现）
  * - 分位数计算
  * - 支持区间查询
+ * - 批量计算（数组输入、数组输出，较长的输入切块并行）
  * 
  * Discrete distribution interface
  * 
@@ -23,6 +28,8 @@ import java.io.Serializable;
  * discrete distribution is a step function with jumps at each value point.
  * Unlike continuous distributions, discrete distributions use probability 
  * mass function (PMF) instead of probability density function (PDF).
+ * Batched methods take arrays in and out and split long inputs across the shared pool.
+ * Sampling is built on RandomGenerator; pass a generator or a seed for reproducible draws.
  * 
  * @author lteb2
  */
@@ -155,12 +162,33 @@ public interface IDiscreteDistribution extends Serializable {
     // ==================== 随机采样 / Random Sampling ====================
     
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 生成一个随机样本，使用线程本地的生成器
+     * Generate a random sample with a thread-local generator
      * 
      * @return 随机样本 / Random sample
      */
-    public int sample();
+    public default int sample() {
+        return sample(ThreadLocalRandom.current());
+    }
+
+    /**
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
+     *
+     * <p>默认用逆变换法 ppf(U)，U在(0, 1)上均匀分布；库内的分布都覆盖为更快的专用算法。
+     * The default uses inverse transform sampling ppf(U) with U uniform on (0, 1); the distributions of this
+     * library override it with faster dedicated algorithms.</p>
+     *
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机样本 / Random sample
+     */
+    public default int sample(RandomGenerator rng) {
+        float u;
+        do {
+            u = rng.nextFloat();
+        } while (u == 0.0f);
+        return ppf(u);
+    }
     
     /**
      * 生成n个随机样本
@@ -170,7 +198,48 @@ public interface IDiscreteDistribution extends Serializable {
      * @return 随机样本数组 / Array of random samples
      * @throws IllegalArgumentException 如果n小于等于0 / If n is less than or equal to 0
      */
-    public int[] sample(int n);
+    public default int[] sample(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
+        }
+        return sample(n, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 用给定的种子并行生成n个随机样本，结果只取决于种子，与线程数无关
+     * Generate n random samples in parallel from the given seed; the result depends only on the seed, not on the
+     * thread count
+     *
+     * @param n 样本数量 / Number of samples
+     * @param seed 随机种子 / Random seed
+     * @return 随机样本数组 / Array of random samples
+     * @throws IllegalArgumentException 如果n小于0 / If n is negative
+     */
+    public default int[] sample(int n, long seed) {
+        if (n < 0) {
+            throw new IllegalArgumentException("样本数量不能为负 / Sample size cannot be negative");
+        }
+        int[] out = new int[n];
+        RereRandom.parallelFor(0, n, RereSampler.BLOCK_SIZE, seed, (from, to, rng) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = sample(rng);
+            }
+        });
+        return out;
+    }
+
+    /**
+     * 用给定的生成器填充整个数组
+     * Fill the whole array with the given generator
+     *
+     * @param out 输出数组 / Output array
+     * @param rng 随机数生成器 / Random generator
+     */
+    public default void sample(int[] out, RandomGenerator rng) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = sample(rng);
+        }
+    }
     
     // ==================== 支持区间和验证 / Support and Validation ====================
     
@@ -344,4 +413,86 @@ public interface IDiscreteDistribution extends Serializable {
      */
     public boolean isMemoryless();
     
+    // ==================== 批量计算 / Batched Evaluation ====================
+    
+    /**
+     * 计算概率质量的对数，概率质量下溢为0时仍然有限
+     * Logarithm of the probability mass, finite where the mass itself underflows to 0
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率质量 / Log probability mass
+     */
+    public default float logPmf(int x) {
+        return (float) Math.log(pmf(x));
+    }
+    
+    /**
+     * 批量计算概率质量函数值
+     * Batched probability mass function
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组，长度与x相同 / Output array of the same length as x
+     * @throws IllegalArgumentException 如果数组为null或长度不一致 / If an array is null or the lengths differ
+     */
+    public default void pmf(int[] x, float[] out) {
+        DistributionBatch.check(x == null ? -1 : x.length, out == null ? -1 : out.length);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = pmf(x[i]);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算对数概率质量
+     * Batched log probability mass
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组，长度与x相同 / Output array of the same length as x
+     * @throws IllegalArgumentException 如果数组为null或长度不一致 / If an array is null or the lengths differ
+     */
+    public default void logPmf(int[] x, float[] out) {
+        DistributionBatch.check(x == null ? -1 : x.length, out == null ? -1 : out.length);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = logPmf(x[i]);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算累积分布函数值
+     * Batched cumulative distribution function
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组，长度与x相同 / Output array of the same length as x
+     * @throws IllegalArgumentException 如果数组为null或长度不一致 / If an array is null or the lengths differ
+     */
+    public default void cdf(int[] x, float[] out) {
+        DistributionBatch.check(x == null ? -1 : x.length, out == null ? -1 : out.length);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = cdf(x[i]);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算百分点函数值
+     * Batched percent point function
+     * 
+     * @param prob 概率值，范围[0,1] / Probabilities in [0,1]
+     * @param out 输出数组，长度与prob相同 / Output array of the same length as prob
+     * @throws IllegalArgumentException 如果数组为null、长度不一致或概率值不在[0,1]范围内 / If an array is null, the
+     *         lengths differ or a probability is outside [0,1]
+     */
+    public default void ppf(float[] prob, int[] out) {
+        DistributionBatch.check(prob == null ? -1 : prob.length, out == null ? -1 : out.length);
+        RereExecutor.parallelFor(0, prob.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = ppf(prob[i]);
+            }
+        });
+    }
+    
 }
@@ -1,6 +1,7 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
+import java.util.random.RandomGenerator;
 
 /**
  * 负二项分布 (Negative Binomial Distribution)
@@ -178,25 +179,19 @@ public class NegativeBinomialDistribution implements IDiscreteDistribution {
     
     // ==================== 随机采样 / Random Sampling ====================
     
+    /**
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
+     * 
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机样本 / Random sample
+     */
     @Override
-    public int sample() {
-        // 使用Gamma-Poisson混合方法进行采样
-        // 首先生成Gamma分布的样本，然后生成泊松分布样本
-        float gammaSample = sampleGamma(r, 1.0f);
-        return samplePoisson((float) (gammaSample * p / q)) + r;
-    }
-    
-    @Override
-    public int[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        int[] samples = new int[n];
-        for (int i = 0; i < n; i++) {
-            samples[i] = sample();
-        }
-        return samples;
+    public int sample(RandomGenerator rng) {
+        // Gamma-Poisson混合：失败次数服从均值为Gamma(r)·q/p的泊松分布
+        // Gamma-Poisson mixture: the number of failures is Poisson with mean Gamma(r)·q/p
+        double gamma = RereSampler.nextGamma(rng, r);
+        return RereSampler.nextPoisson(rng, gamma * q / p) + r;
     }
     
     // ==================== 支持区间和验证 / Support and Validation ====================
@@ -411,67 +406,4 @@ public class NegativeBinomialDistribution implements IDiscreteDistribution {
     public int hashCode() {
         return 31 * r + Float.hashCode(p);
     }
-    
-    // ==================== 辅助方法 / Helper Methods ====================
-    
-    /**
-     * 生成Gamma分布的样本
-     * Generate Gamma distribution sample
-     * 
-     * @param shape 形状参数 / Shape parameter
-     * @param scale 尺度参数 / Scale parameter
-     * @return Gamma分布样本 / Gamma distribution sample
-     */
-    private float sampleGamma(float shape, float scale) {
-        // 使用Marsaglia和Tsang的方法生成Gamma分布样本
-        if (shape < 1.0f) {
-            return sampleGamma(shape + 1.0f, scale) * (float) Math.pow(Math.random(), 1.0 / shape);
-        }
-        
-        float d = shape - 1.0f / 3.0f;
-        float c = 1.0f / (float) Math.sqrt(9.0 * d);
-        
-        while (true) {
-            float x, v;
-            do {
-                x = (float) RereMathUtil.normalSample(0, 1);
-                v = 1.0f + c * x;
-            } while (v <= 0.0f);
-            
-            v = v * v * v;
-            float u = (float) Math.random();
-            
-            if (u < 1.0f - 0.0331f * (x * x * x * x)) {
-                return d * v * scale;
-            }
-            
-            if (Math.log(u) < 0.5f * x * x + d * (1.0f - v + Math.log(v))) {
-                return d * v * scale;
-            }
-        }
-    }
-    
-    /**
-     * 生成泊松分布的样本
-     * Generate Poisson distribution sample
-     * 
-     * @param lambda 泊松参数 / Poisson parameter
-     * @return 泊松分布样本 / Poisson distribution sample
-     */
-    private int samplePoisson(float lambda) {
-        if (lambda < 10.0f) {
-            // 对于小的lambda，使用直接方法
-            double p = Math.exp(-lambda);
-            int k = 0;
-            double u = Math.random();
-            while (u > p) {
-                u *= Math.random();
-                k++;
-            }
-            return k;
-        } else {
-            // 对于大的lambda，使用正态近似
-            return Math.max(0, (int) Math.round(RereMathUtil.normalSample(lambda, (float) Math.sqrt(lambda))));
-        }
-    }
 }
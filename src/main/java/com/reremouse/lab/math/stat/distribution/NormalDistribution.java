@@ -1,8 +1,9 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
-import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.RereExecutor;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * 正态分布 (Normal Distribution)
@@ -34,6 +35,12 @@ public class NormalDistribution implements IContinuousDistribution, Serializable
     /** 1/√(2π) 的预计算值 / Precomputed value of 1/√(2π) */
     private static final float INV_SQRT_2PI = 0.3989422804014327f;
     
+    /** ln(√(2π)) 的预计算值 / Precomputed value of ln(√(2π)) */
+    private static final double LOG_SQRT_2PI = 0.9189385332046728;
+    
+    /** 1/√2 的预计算值 / Precomputed value of 1/√2 */
+    private static final float INV_SQRT_2 = 0.70710678118654752f;
+    
     /**
      * 构造函数，创建标准正态分布（均值为0，标准差为1）
      * Constructor for standard normal distribution (mean=0, stdDev=1)
@@ -134,6 +141,80 @@ public class NormalDistribution implements IContinuousDistribution, Serializable
         return ppf(1.0f - p);
     }
     
+    /**
+     * 计算对数概率密度，远离均值时不下溢
+     * Calculate log density, without underflow far from the mean
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度 / Log density
+     */
+    @Override
+    public float logPdf(float x) {
+        double z = (x - mean) / (double) stdDev;
+        return (float) (-0.5 * z * z - Math.log(stdDev) - LOG_SQRT_2PI);
+    }
+    
+    /**
+     * 批量计算概率密度，归一化常数与1/(2σ²)只计算一次
+     * Batched density with the normalizer and 1/(2σ²) computed once
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void pdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        float m = mean;
+        float scale = INV_SQRT_2PI / stdDev;
+        float halfPrecision = -1.0f / (2.0f * variance);
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float diff = x[i] - m;
+                out[i] = scale * (float) Math.exp(diff * diff * halfPrecision);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算对数概率密度
+     * Batched log density
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void logPdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        double m = mean;
+        double invStd = 1.0 / stdDev;
+        double offset = -Math.log(stdDev) - LOG_SQRT_2PI;
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                double z = (x[i] - m) * invStd;
+                out[i] = (float) (offset - 0.5 * z * z);
+            }
+        });
+    }
+    
+    /**
+     * 批量计算累积分布，1/(σ√2)只计算一次
+     * Batched CDF with 1/(σ√2) computed once
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void cdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        float m = mean;
+        float scale = INV_SQRT_2 / stdDev;
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                out[i] = 0.5f * (1.0f + (float) RereMathUtil.erf((x[i] - m) * scale));
+            }
+        });
+    }
+    
     /**
      * 获取均值
      * Get mean
@@ -270,54 +351,19 @@ public class NormalDistribution implements IContinuousDistribution, Serializable
     }
     
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
-        // 使用Box-Muller变换生成正态分布随机数
-        // Using Box-Muller transform to generate normal random numbers
-        if (hasSpare) {
-            hasSpare = false;
-            return mean + stdDev * spare;
-        }
-        
-        hasSpare = true;
-        double u = Math.random();
-        double v = Math.random();
-        double mag = stdDev * Math.sqrt(-2.0 * Math.log(u));
-        spare = (float) (mag * Math.sin(2.0 * Math.PI * v));
-        return mean + (float) (mag * Math.cos(2.0 * Math.PI * v));
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        // 使用IVector进行数组操作
-        // Using IVector for array operations
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
+    public float sample(RandomGenerator rng) {
+        // JDK的nextGaussian使用改进的ziggurat算法，无需缓存Box-Muller的第二个值
+        // The JDK's nextGaussian uses a modified ziggurat, so no Box-Muller spare needs to be cached
+        return mean + stdDev * (float) rng.nextGaussian();
     }
-    
-    // Box-Muller变换的辅助变量
-    // Helper variables for Box-Muller transform
-    private boolean hasSpare = false;
-    private float spare = 0.0f;
+
     
     @Override
     public String toString() {
@@ -1,6 +1,7 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
+import java.util.random.RandomGenerator;
 
 /**
  * 泊松分布 (Poisson Distribution)
@@ -27,8 +28,8 @@ public class PoissonDistribution implements IDiscreteDistribution {
     /** 平均发生率（期望值）/ Average rate of occurrence (expected value) */
     private final float lambda;
     
-    /** e^(-λ)的预计算值 / Precomputed value of e^(-λ) */
-    private final float expNegLambda;
+    /** ln λ的预计算值 / Precomputed value of ln λ */
+    private final double logLambda;
     
     /**
      * 构造函数
@@ -42,7 +43,7 @@ public class PoissonDistribution implements IDiscreteDistribution {
             throw new IllegalArgumentException("平均发生率必须大于0 / Lambda must be greater than 0");
         }
         this.lambda = lambda;
-        this.expNegLambda = (float) Math.exp(-lambda);
+        this.logLambda = Math.log(lambda);
     }
     
     /**
@@ -110,10 +111,17 @@ public class PoissonDistribution implements IDiscreteDistribution {
         if (x < 0) return 0.0f;
         
         // 使用对数避免数值溢出
-        double logPmf = x * Math.log(lambda) - lambda - RereMathUtil.logFactorial(x);
+        double logPmf = x * logLambda - lambda - RereMathUtil.logFactorial(x);
         return (float) Math.exp(logPmf);
     }
     
+    @Override
+    public float logPmf(int x) {
+        if (x < 0) return Float.NEGATIVE_INFINITY;
+        
+        return (float) (x * logLambda - lambda - RereMathUtil.logFactorial(x));
+    }
+    
     @Override
     public float cdf(int x) {
         if (x < 0) return 0.0f;
@@ -159,28 +167,17 @@ public class PoissonDistribution implements IDiscreteDistribution {
     
     // ==================== 随机采样 / Random Sampling ====================
     
+    /**
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
+     * 
+     * @param rng 随机数生成器 / Random generator
+     * @return 随机样本 / Random sample
+     */
     @Override
-    public int sample() {
-        if (lambda < 10.0f) {
-            // 对于小的lambda，使用Knuth算法
-            return sampleKnuth();
-        } else {
-            // 对于大的lambda，使用正态近似
-            return Math.max(0, (int) Math.round(RereMathUtil.normalSample(lambda, (float) Math.sqrt(lambda))));
-        }
-    }
-    
-    @Override
-    public int[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        int[] samples = new int[n];
-        for (int i = 0; i < n; i++) {
-            samples[i] = sample();
-        }
-        return samples;
+    public int sample(RandomGenerator rng) {
+        // λ较小时乘积法，否则PTRS变换拒绝法 / Multiplication method for small λ, otherwise PTRS
+        return RereSampler.nextPoisson(rng, lambda);
     }
     
     // ==================== 支持区间和验证 / Support and Validation ====================
@@ -376,23 +373,4 @@ public class PoissonDistribution implements IDiscreteDistribution {
     public int hashCode() {
         return Float.hashCode(lambda);
     }
-    
-    // ==================== 辅助方法 / Helper Methods ====================
-    
-    /**
-     * 使用Knuth算法生成泊松分布样本（适用于小的lambda）
-     * Generate Poisson distribution sample using Knuth's algorithm (for small lambda)
-     * 
-     * @return 泊松分布样本 / Poisson distribution sample
-     */
-    private int sampleKnuth() {
-        double p = expNegLambda;
-        int k = 0;
-        double u = Math.random();
-        while (u > p) {
-            u *= Math.random();
-            k++;
-        }
-        return k;
-    }
 }
@@ -1,8 +1,8 @@
 package com.reremouse.lab.math.stat.distribution;
 
 import com.reremouse.lab.math.RereMathUtil;
-import com.reremouse.lab.math.IVector;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * t分布 (Student's t-Distribution)
@@ -27,6 +27,7 @@ public class StudentDistribution implements IContinuousDistribution, Serializabl
     
     /** 预计算的常数 / Precomputed constants */
     private final float normalizationConstant;
+    private final double logNormalizationConstant;
     private final float halfDof;
     private final float halfDofPlusHalf;
     
@@ -49,6 +50,7 @@ public class StudentDistribution implements IContinuousDistribution, Serializabl
         // Calculate normalization constant
         this.normalizationConstant = (float) (RereMathUtil.gamma(halfDofPlusHalf) / 
             (Math.sqrt(degreesOfFreedom * Math.PI) * RereMathUtil.gamma(halfDof)));
+        this.logNormalizationConstant = Math.log(normalizationConstant);
     }
     
     /**
@@ -65,6 +67,18 @@ public class StudentDistribution implements IContinuousDistribution, Serializabl
         return normalizationConstant * (float) Math.pow(base, power);
     }
     
+    /**
+     * 计算对数概率密度，密度下溢为0时仍然有限
+     * Calculate log density, finite where the density itself underflows to 0
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度 / Log density
+     */
+    @Override
+    public float logPdf(float x) {
+        return (float) (logNormalizationConstant - halfDofPlusHalf * Math.log1p((double) x * x / degreesOfFreedom));
+    }
+    
     /**
      * 计算累积分布函数值（使用近似方法）
      * Calculate cumulative distribution function value (using approximation)
@@ -80,10 +94,10 @@ public class StudentDistribution implements IContinuousDistribution, Serializabl
             return 0.5f * (1.0f + (float) RereMathUtil.erf(x / (float) Math.sqrt(2.0)));
         }
         
-        // 使用不完全贝塔函数
-        // Using incomplete beta function
+        // 使用正则化不完全贝塔函数：P(|T| ≤ |x|) = I_{x²/(ν+x²)}(1/2, ν/2)
+        // Using regularized incomplete beta function: P(|T| ≤ |x|) = I_{x²/(ν+x²)}(1/2, ν/2)
         float t = x / (float) Math.sqrt(degreesOfFreedom + x * x);
-        return 0.5f + 0.5f * sign(x) * (float) RereMathUtil.incompleteBeta(halfDof, 0.5f, t * t);
+        return 0.5f + 0.5f * sign(x) * (float) RereMathUtil.regularizedIncompleteBeta(0.5f, halfDof, t * t);
     }
     
     /**
@@ -108,9 +122,13 @@ public class StudentDistribution implements IContinuousDistribution, Serializabl
             return (float) RereMathUtil.inverseNormalCDF(p);
         }
         
-        // 使用数值方法求解
-        // Using numerical method to solve
-        return inverseTCDF(p);
+        if (p == 0.5f) return 0.0f;
+        
+        // 求Beta(1/2, ν/2)分位数s = x²/(ν+x²)，再取x = ±√(ν·s/(1-s))
+        // Solve the Beta(1/2, ν/2) quantile s = x²/(ν+x²), then take x = ±√(ν·s/(1-s))
+        double s = QuantileSolver.betaQuantile(0.5f, halfDof, Math.abs(2.0 * p - 1.0));
+        float x = (float) Math.sqrt(degreesOfFreedom * s / (1.0 - s));
+        return p < 0.5f ? -x : x;
     }
     
     /**
@@ -159,50 +177,6 @@ public class StudentDistribution implements IContinuousDistribution, Serializabl
     // 使用RereMathUtil中的erf和inverseNormalCDF函数
     // Using erf and inverseNormalCDF functions from RereMathUtil
     
-    /**
-     * 逆t分布累积分布函数的数值求解
-     * Numerical solution for inverse t-distribution CDF
-     */
-    private float inverseTCDF(float p) {
-        // 使用改进的二分法求解
-        // Using improved bisection method to solve
-        float left = -10.0f;
-        float right = 10.0f;
-        float tolerance = 1e-8f;
-        int maxIter = 200;
-        
-        // 调整边界以确保包含解
-        // Adjust boundaries to ensure solution is included
-        while (cdf(left) > p && left > -1000.0f) {
-            left *= 2.0f;
-        }
-        while (cdf(right) < p && right < 1000.0f) {
-            right *= 2.0f;
-        }
-        
-        for (int i = 0; i < maxIter; i++) {
-            float mid = (left + right) / 2.0f;
-            float cdfMid = cdf(mid);
-            
-            if (Math.abs(cdfMid - p) < tolerance) {
-                return mid;
-            }
-            
-            if (cdfMid < p) {
-                left = mid;
-            } else {
-                right = mid;
-            }
-            
-            // 检查收敛
-            if (right - left < tolerance) {
-                break;
-            }
-        }
-        
-        return (left + right) / 2.0f;
-    }
-    
     /**
      * 符号函数
      * Sign function
@@ -323,54 +297,20 @@ public class StudentDistribution implements IContinuousDistribution, Serializabl
         return Float.NaN; // 当自由度 <= 4 时峰度不存在
     }
     
-    // 缓存的分布对象，避免重复创建
-    // Cached distribution objects to avoid repeated creation
-    private NormalDistribution normal;
-    private Chi2Distribution chi2;
-    
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
+    public float sample(RandomGenerator rng) {
         // 使用正态分布和卡方分布生成t分布随机数
         // Using normal and chi-squared distributions to generate t-distribution random numbers
-        if (normal == null) {
-            normal = new NormalDistribution(0.0f, 1.0f);
-        }
-        if (chi2 == null) {
-            chi2 = new Chi2Distribution(degreesOfFreedom);
-        }
-        
-        float z = normal.sample();
-        float chi2Sample = chi2.sample();
-        
-        return z / (float) Math.sqrt(chi2Sample / degreesOfFreedom);
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        // 使用IVector进行数组操作
-        // Using IVector for array operations
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
+        double z = rng.nextGaussian();
+        double chi2 = 2.0 * RereSampler.nextGamma(rng, 0.5 * degreesOfFreedom);
+        return (float) (z / Math.sqrt(chi2 / degreesOfFreedom));
     }
     
     @Override
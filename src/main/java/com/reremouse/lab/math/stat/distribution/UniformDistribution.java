@@ -1,7 +1,8 @@
 package com.reremouse.lab.math.stat.distribution;
 
-import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.util.RereExecutor;
 import java.io.Serializable;
+import java.util.random.RandomGenerator;
 
 /**
  * 均匀分布 (Uniform Distribution)
@@ -135,6 +136,63 @@ public class UniformDistribution implements IContinuousDistribution, Serializabl
         return ppf(1.0f - p);
     }
     
+    /**
+     * 计算对数概率密度
+     * Calculate log density
+     * 
+     * @param x 输入值 / Input value
+     * @return 对数概率密度，区间外为负无穷 / Log density, negative infinity outside the interval
+     */
+    @Override
+    public float logPdf(float x) {
+        if (x < lowerBound || x > upperBound) {
+            return Float.NEGATIVE_INFINITY;
+        }
+        return (float) -Math.log(range);
+    }
+    
+    /**
+     * 批量计算概率密度
+     * Batched density
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void pdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        float a = lowerBound;
+        float b = upperBound;
+        float d = density;
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float v = x[i];
+                out[i] = v < a || v > b ? 0.0f : d;
+            }
+        });
+    }
+    
+    /**
+     * 批量计算累积分布
+     * Batched CDF
+     * 
+     * @param x 输入值 / Input values
+     * @param out 输出数组 / Output array
+     */
+    @Override
+    public void cdf(float[] x, float[] out) {
+        DistributionBatch.check(x, out);
+        float a = lowerBound;
+        float b = upperBound;
+        float r = range;
+        RereExecutor.parallelFor(0, x.length, DistributionBatch.GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                float v = x[i];
+                out[i] = v < a ? 0.0f : v >= b ? 1.0f : (v - a) / r;
+            }
+        });
+    }
+    
     /**
      * 获取下界
      * Get lower bound
@@ -306,36 +364,15 @@ public class UniformDistribution implements IContinuousDistribution, Serializabl
     }
     
     /**
-     * 生成一个随机样本
-     * Generate a random sample
+     * 用给定的生成器生成一个随机样本
+     * Generate a random sample with the given generator
      * 
+     * @param rng 随机数生成器 / Random generator
      * @return 随机样本 / Random sample
      */
     @Override
-    public float sample() {
-        return lowerBound + (float) Math.random() * range;
-    }
-    
-    /**
-     * 生成n个随机样本
-     * Generate n random samples
-     * 
-     * @param n 样本数量 / Number of samples
-     * @return 随机样本数组 / Array of random samples
-     */
-    @Override
-    public float[] sample(int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException("样本数量必须大于0 / Sample size must be greater than 0");
-        }
-        
-        // 使用IVector进行数组操作
-        // Using IVector for array operations
-        IVector samples = IVector.zeros(n);
-        for (int i = 0; i < n; i++) {
-            samples.set(i, sample());
-        }
-        return samples.getData();
+    public float sample(RandomGenerator rng) {
+        return lowerBound + rng.nextFloat() * range;
     }
     
     @Override
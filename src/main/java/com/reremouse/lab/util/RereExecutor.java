@@ -1,10 +1,16 @@
 package com.reremouse.lab.util;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * 本类对多线程操作进行统一控制，以避免在批量操作中过多混乱创建线程
+ * <p>
+ * 线程池采用工作窃取（work-stealing）的ForkJoinPool，在池内线程中再次调用并行方法时
+ * 会直接拆分到当前池中执行，不会因嵌套等待而死锁。
+ * </p>
  * @author RereMouse
  */
 public class RereExecutor {
@@ -12,14 +18,128 @@ public class RereExecutor {
     /**
      * 根据CPU数量创建线程池
      */
-    private static ExecutorService exec = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());    
-    
+    private static final ForkJoinPool exec = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 按区间执行的任务
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+        /**
+         * 处理区间[from, to)
+         * @param from 起始位置（包含）
+         * @param to 结束位置（不包含）
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * 按区间计算并返回结果的任务
+     * @param <T> 结果类型
+     */
+    @FunctionalInterface
+    public interface RangeFunction<T> {
+        /**
+         * 处理区间[from, to)并返回该区间的结果
+         * @param from 起始位置（包含）
+         * @param to 结束位置（不包含）
+         * @return 区间结果
+         */
+        T apply(int from, int to);
+    }
+
     /**
      * 执行某线程
-     * @param run 
+     * @param run
      */
     public static void execute(Runnable run) {
         exec.execute(run);
     }
-    
+
+    /**
+     * 获取线程池的并行度
+     * @return 并行线程数
+     */
+    public static int getParallelism() {
+        return exec.getParallelism();
+    }
+
+    /**
+     * 将区间[start, end)按grain大小切块并行执行，全部完成后返回
+     * <p>
+     * 区间长度不超过grain或只有一个线程时直接在调用线程中执行。
+     * </p>
+     * @param start 起始位置（包含）
+     * @param end 结束位置（不包含）
+     * @param grain 每块的最小长度
+     * @param task 区间任务
+     */
+    public static void parallelFor(int start, int end, int grain, RangeTask task) {
+        parallelMap(start, end, grain, (from, to) -> {
+            task.run(from, to);
+            return null;
+        });
+    }
+
+    /**
+     * 将区间[start, end)按grain大小切块并行计算，按块的先后顺序返回各块结果
+     * @param <T> 结果类型
+     * @param start 起始位置（包含）
+     * @param end 结束位置（不包含）
+     * @param grain 每块的最小长度
+     * @param fun 区间计算函数
+     * @return 各块结果，顺序与区间顺序一致
+     */
+    public static <T> List<T> parallelMap(int start, int end, int grain, RangeFunction<T> fun) {
+        List<T> results = new ArrayList<>();
+        if (end <= start) {
+            return results;
+        }
+        int total = end - start;
+        int chunkSize = Math.max(1, grain);
+        // 块数不超过并行度的4倍，既保证负载均衡又避免过多的小任务
+        int maxChunks = Math.max(1, exec.getParallelism() * 4);
+        if ((total + chunkSize - 1) / chunkSize > maxChunks) {
+            chunkSize = (total + maxChunks - 1) / maxChunks;
+        }
+        int chunks = (total + chunkSize - 1) / chunkSize;
+        if (chunks == 1 || exec.getParallelism() == 1) {
+            results.add(fun.apply(start, end));
+            return results;
+        }
+
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final int from = start + c * chunkSize;
+            final int to = Math.min(end, from + chunkSize);
+            tasks.add(ForkJoinTask.adapt(() -> fun.apply(from, to)));
+        }
+        invokeAll(tasks);
+        for (ForkJoinTask<T> t : tasks) {
+            results.add(t.join());
+        }
+        return results;
+    }
+
+    /**
+     * 并行执行一组独立任务，按提交顺序返回结果
+     * @param <T> 结果类型
+     * @param tasks 任务列表
+     * @return 各任务结果
+     */
+    public static <T> List<T> invokeAll(List<? extends ForkJoinTask<T>> tasks) {
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == exec) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            exec.invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(tasks);
+            }));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<T> t : tasks) {
+            results.add(t.join());
+        }
+        return results;
+    }
+
 }
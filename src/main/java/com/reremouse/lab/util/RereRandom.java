@@ -0,0 +1,135 @@
+package com.reremouse.lab.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * 本类统一管理库内的随机数来源
+ * <p>
+ * 库内所有随机组件（随机矩阵、概率分布采样、t-SNE、UMAP、逻辑回归的参数初始化、随机优化器、交叉验证等）
+ * 都接受{@link RandomGenerator}，因此可以替换为任意JDK生成器；给定种子时使用{@link #create(long)}得到的
+ * 可分裂生成器，结果可复现。
+ * </p>
+ * <p>
+ * 需要并行的随机任务使用{@link #parallelFor}：区间按固定的块大小切分，块的边界只取决于区间和块大小，
+ * 每块使用从根生成器依次分裂出的独立流，再交给{@link RereExecutor}执行。因此结果只取决于种子，与线程数和
+ * 调度顺序无关。
+ * </p>
+ *
+ * @author lteb2
+ */
+public final class RereRandom {
+
+    /**
+     * 默认的可分裂生成器算法
+     */
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    private RereRandom() {
+    }
+
+    /**
+     * 使用独立随机流处理区间的任务
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+        /**
+         * 用给定的生成器处理区间[from, to)
+         * @param from 起始位置（包含）
+         * @param to 结束位置（不包含）
+         * @param rng 该块独占的生成器
+         */
+        void run(int from, int to, RandomGenerator rng);
+    }
+
+    /**
+     * 创建带种子的默认生成器，相同种子产生相同的序列
+     * @param seed 随机种子
+     * @return 可分裂生成器
+     */
+    public static SplittableGenerator create(long seed) {
+        return RandomGeneratorFactory.<SplittableGenerator>of(DEFAULT_ALGORITHM).create(seed);
+    }
+
+    /**
+     * 创建随机种子的默认生成器，每次调用得到不同的序列
+     * @return 可分裂生成器
+     */
+    public static SplittableGenerator create() {
+        return create(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 将任意生成器转为可分裂生成器：本身可分裂时直接返回，否则用它产生的种子创建默认生成器
+     * @param rng 生成器
+     * @return 可分裂生成器
+     * @throws IllegalArgumentException 如果生成器为null
+     */
+    public static SplittableGenerator splittable(RandomGenerator rng) {
+        if (rng == null) {
+            throw new IllegalArgumentException("随机数生成器不能为null");
+        }
+        if (rng instanceof SplittableGenerator) {
+            return (SplittableGenerator) rng;
+        }
+        return create(rng.nextLong());
+    }
+
+    /**
+     * 从根生成器依次分裂出count个独立流
+     * @param root 根生成器
+     * @param count 流的个数
+     * @return 独立流，第i个流只取决于根生成器的状态和i
+     */
+    public static SplittableGenerator[] split(SplittableGenerator root, int count) {
+        SplittableGenerator[] streams = new SplittableGenerator[count];
+        for (int i = 0; i < count; i++) {
+            streams[i] = root.split();
+        }
+        return streams;
+    }
+
+    /**
+     * 将区间[start, end)按固定的块大小切块并行执行，每块使用独立的随机流，全部完成后返回
+     * <p>
+     * 与{@link RereExecutor#parallelFor}不同，块的边界不随线程数调整，第b块总是使用从根生成器分裂出的
+     * 第b个流，因此结果与线程数无关。
+     * </p>
+     * @param start 起始位置（包含）
+     * @param end 结束位置（不包含）
+     * @param block 每块的长度
+     * @param root 根生成器，调用后其状态前进
+     * @param task 区间任务
+     * @throws IllegalArgumentException 如果块长度不为正
+     */
+    public static void parallelFor(int start, int end, int block, SplittableGenerator root, RangeTask task) {
+        if (block <= 0) {
+            throw new IllegalArgumentException("块长度必须为正");
+        }
+        if (end <= start) {
+            return;
+        }
+        int blocks = (int) (((long) end - start + block - 1) / block);
+        SplittableGenerator[] streams = split(root, blocks);
+        RereExecutor.parallelFor(0, blocks, 1, (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int lo = start + b * block;
+                task.run(lo, (int) Math.min(end, (long) lo + block), streams[b]);
+            }
+        });
+    }
+
+    /**
+     * 用给定的种子将区间[start, end)按固定的块大小切块并行执行，结果只取决于种子
+     * @param start 起始位置（包含）
+     * @param end 结束位置（不包含）
+     * @param block 每块的长度
+     * @param seed 随机种子
+     * @param task 区间任务
+     */
+    public static void parallelFor(int start, int end, int block, long seed, RangeTask task) {
+        parallelFor(start, end, block, create(seed), task);
+    }
+}
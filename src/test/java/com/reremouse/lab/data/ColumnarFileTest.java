@@ -0,0 +1,221 @@
+package com.reremouse.lab.data;
+
+import com.reremouse.lab.math.data.Column;
+import com.reremouse.lab.math.data.ColumnType;
+import com.reremouse.lab.math.data.ColumnarFile;
+import com.reremouse.lab.math.data.DataFrame;
+import com.reremouse.lab.math.data.FloatColumnData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 测试DataFrame的列式二进制文件读写
+ * Test for DataFrame columnar binary file I/O
+ */
+public class ColumnarFileTest {
+
+    private DataFrame testDataFrame;
+    private String testFilePath = "test_output.yscf";
+
+    public static void main(String[] args) {
+        ColumnarFileTest test = new ColumnarFileTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        int n = 5000;
+        float[] ids = new float[n];
+        float[] constant = new float[n];
+        float[] levels = new float[n];
+        float[] values = new float[n];
+        List<Object> cities = new ArrayList<>();
+        List<Object> notes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids[i] = 1000 + i * 3;
+            constant[i] = 7.5f;
+            levels[i] = (i % 5) * 0.25f;
+            values[i] = (float) Math.sin(i) * 100;
+            cities.add(i % 3 == 0 ? "北京" : i % 3 == 1 ? "上海" : "广州");
+            notes.add(i == 10 ? null : "note-" + i);
+        }
+        testDataFrame = new DataFrame();
+        testDataFrame.addColumn(floatColumn("id", ids));
+        testDataFrame.addColumn(floatColumn("constant", constant));
+        testDataFrame.addColumn(floatColumn("level", levels));
+        testDataFrame.addColumn(floatColumn("value", values));
+        testDataFrame.addColumn(stringColumn("city", cities));
+        testDataFrame.addColumn(stringColumn("note", notes));
+    }
+
+    private Column floatColumn(String name, float[] data) {
+        Column c = new Column();
+        c.setName(name);
+        c.setColumnType(ColumnType.Float);
+        c.setData(new FloatColumnData(data));
+        return c;
+    }
+
+    private Column stringColumn(String name, List<Object> data) {
+        Column c = new Column();
+        c.setName(name);
+        c.setColumnType(ColumnType.String);
+        c.setData(data);
+        return c;
+    }
+
+    void tearDown() {
+        // 清理测试文件 / Clean up test files
+        try {
+            Files.deleteIfExists(Paths.get(testFilePath));
+        } catch (IOException e) {
+            // 忽略清理错误 / Ignore cleanup errors
+        }
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行列式文件测试 / Starting columnar file tests");
+
+        try {
+            testRoundTrip();
+            System.out.println("✓ testRoundTrip 通过 / passed");
+        } catch (Exception | AssertionError e) {
+            System.out.println("✗ testRoundTrip 失败 / failed: " + e.getMessage());
+        }
+
+        try {
+            testAutoEncodings();
+            System.out.println("✓ testAutoEncodings 通过 / passed");
+        } catch (Exception | AssertionError e) {
+            System.out.println("✗ testAutoEncodings 失败 / failed: " + e.getMessage());
+        }
+
+        try {
+            testColumnPruning();
+            System.out.println("✓ testColumnPruning 通过 / passed");
+        } catch (Exception | AssertionError e) {
+            System.out.println("✗ testColumnPruning 失败 / failed: " + e.getMessage());
+        }
+
+        try {
+            testInvalidEncoding();
+            System.out.println("✓ testInvalidEncoding 通过 / passed");
+        } catch (Exception | AssertionError e) {
+            System.out.println("✗ testInvalidEncoding 失败 / failed: " + e.getMessage());
+        }
+
+        try {
+            testNegativeZero();
+            System.out.println("✓ testNegativeZero 通过 / passed");
+        } catch (Exception | AssertionError e) {
+            System.out.println("✗ testNegativeZero 失败 / failed: " + e.getMessage());
+        }
+
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    void testRoundTrip() throws IOException {
+        // 强制所有列使用原始编码，再与自动编码的结果比较 / Force plain encoding, then compare with automatic encoding
+        Map<String, ColumnarFile.Encoding> plain = Map.of(
+            "id", ColumnarFile.Encoding.PLAIN, "constant", ColumnarFile.Encoding.PLAIN,
+            "level", ColumnarFile.Encoding.PLAIN, "value", ColumnarFile.Encoding.PLAIN,
+            "city", ColumnarFile.Encoding.PLAIN, "note", ColumnarFile.Encoding.PLAIN);
+        ColumnarFile.write(testDataFrame, testFilePath, plain);
+        assertSameFrame(testDataFrame, ColumnarFile.read(testFilePath));
+
+        testDataFrame.toColumnar(testFilePath);
+        DataFrame loaded = DataFrame.readColumnar(testFilePath);
+        assertSameFrame(testDataFrame, loaded);
+        assertTrue(loaded.get(0).getData() instanceof FloatColumnData, "Float列应以原始数组加载 / Float columns should load as primitive arrays");
+        tearDown();
+    }
+
+    void testAutoEncodings() throws IOException {
+        testDataFrame.toColumnar(testFilePath);
+        Map<String, ColumnarFile.Encoding> encodings = ColumnarFile.readEncodings(testFilePath);
+        assertEquals(ColumnarFile.Encoding.DELTA, encodings.get("id"), "递增整数列应使用差分编码 / Increasing integers should use delta");
+        assertEquals(ColumnarFile.Encoding.RLE, encodings.get("constant"), "常数列应使用游程编码 / Constant column should use RLE");
+        assertEquals(ColumnarFile.Encoding.DICTIONARY, encodings.get("level"), "低基数列应使用字典编码 / Low cardinality should use dictionary");
+        assertEquals(ColumnarFile.Encoding.PLAIN, encodings.get("value"), "随机列应使用原始编码 / Random column should stay plain");
+        assertEquals(ColumnarFile.Encoding.DICTIONARY, encodings.get("city"), "字符串低基数列应使用字典编码 / Low cardinality strings should use dictionary");
+        assertEquals(ColumnarFile.Encoding.PLAIN, encodings.get("note"), "含null的字符串列应使用原始编码 / Strings with null should stay plain");
+        tearDown();
+    }
+
+    void testColumnPruning() throws IOException {
+        testDataFrame.toColumnar(testFilePath);
+        DataFrame loaded = DataFrame.readColumnar(testFilePath, "city", "value");
+        assertEquals(List.of("city", "value"), loaded.getColumnNames(), "只应读取请求的列 / Only requested columns should be read");
+        assertEquals(5000, loaded.getRowCount(), "行数 / Row count");
+        assertEquals(testDataFrame.get(3).getData().get(42), loaded.get(1).getData().get(42), "数值 / Value");
+        assertEquals(List.of("id", "constant", "level", "value", "city", "note"), ColumnarFile.readColumnNames(testFilePath), "列名 / Column names");
+        tearDown();
+    }
+
+    void testNegativeZero() throws IOException {
+        // -0.0是整数值，但差分编码会把它读回+0.0 / -0.0 is integral, but delta encoding would read it back as +0.0
+        float[] data = new float[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i % 100 == 0 ? -0.0f : i;
+        }
+        DataFrame frame = new DataFrame();
+        frame.addColumn(floatColumn("signed", data));
+        try {
+            frame.toColumnar(testFilePath);
+            assertTrue(ColumnarFile.readEncodings(testFilePath).get("signed") != ColumnarFile.Encoding.DELTA,
+                "含-0.0的列不应使用差分编码 / A column with -0.0 should not use delta");
+            float[] loaded = ((FloatColumnData) DataFrame.readColumnar(testFilePath).get(0).getData()).array();
+            for (int i = 0; i < data.length; i++) {
+                assertEquals(Float.floatToRawIntBits(data[i]), Float.floatToRawIntBits(loaded[i]), "位模式 / Bits at " + i);
+            }
+            try {
+                ColumnarFile.write(frame, testFilePath, Map.of("signed", ColumnarFile.Encoding.DELTA));
+                throw new AssertionError("含-0.0的列强制差分编码应该抛出异常 / Forcing delta with -0.0 should throw");
+            } catch (IllegalArgumentException e) {
+                // 期望的异常 / Expected exception
+            }
+        } finally {
+            tearDown();
+        }
+    }
+
+    void testInvalidEncoding() throws IOException {
+        try {
+            ColumnarFile.write(testDataFrame, testFilePath, Map.of("value", ColumnarFile.Encoding.DELTA));
+            throw new AssertionError("非整数列使用差分编码应该抛出异常 / Delta on non-integral column should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected exception
+        } finally {
+            tearDown();
+        }
+    }
+
+    private void assertSameFrame(DataFrame expected, DataFrame actual) {
+        assertEquals(expected.getColumnNames(), actual.getColumnNames(), "列名 / Column names");
+        assertEquals(expected.getColumnTypes(), actual.getColumnTypes(), "列类型 / Column types");
+        assertEquals(expected.getRowCount(), actual.getRowCount(), "行数 / Row count");
+        for (int c = 0; c < expected.getColumnCount(); c++) {
+            assertEquals(expected.get(c).getData(), actual.get(c).getData(), "列数据 / Column data " + expected.get(c).getName());
+        }
+    }
+
+    // 自定义断言方法 / Custom assertion methods
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertEquals(Object expected, Object actual, String message) {
+        if (expected == null && actual == null) {
+            return;
+        }
+        if (expected == null || !expected.equals(actual)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.reremouse.lab.data;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.data.Aggregation;
+import com.reremouse.lab.math.data.Column;
+import com.reremouse.lab.math.data.ColumnType;
+import com.reremouse.lab.math.data.DataFrame;
+import com.reremouse.lab.math.data.Expr;
+import com.reremouse.lab.math.data.LazyFrame;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试DataFrame的惰性查询
+ * Test for DataFrame lazy queries
+ */
+public class LazyFrameTest {
+
+    private DataFrame df;
+
+    public static void main(String[] args) {
+        LazyFrameTest test = new LazyFrameTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        // 创建测试数据：1000行，小分块以覆盖多块执行 / 1000 rows, small chunks to exercise multi-chunk execution
+        df = new DataFrame();
+        int n = 1000;
+        List<Object> ids = new ArrayList<>();
+        List<Object> prices = new ArrayList<>();
+        List<Object> qtys = new ArrayList<>();
+        List<Object> groups = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids.add((float) i);
+            prices.add(1.0f + (i % 10));
+            qtys.add((float) (i % 7));
+            groups.add(i % 2 == 0 ? "even" : "odd");
+        }
+        df.addColumn(column("id", ColumnType.Float, ids));
+        df.addColumn(column("price", ColumnType.Float, prices));
+        df.addColumn(column("qty", ColumnType.Float, qtys));
+        df.addColumn(column("group", ColumnType.String, groups));
+    }
+
+    private Column column(String name, ColumnType type, List<Object> data) {
+        Column c = new Column();
+        c.setName(name);
+        c.setColumnType(type);
+        c.setData(data);
+        return c;
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行LazyFrame测试 / Starting LazyFrame tests");
+        run("testFilterDeriveSelect", this::testFilterDeriveSelect);
+        run("testStringFilter", this::testStringFilter);
+        run("testAggregate", this::testAggregate);
+        run("testGroupedAggregate", this::testGroupedAggregate);
+        run("testToMatrix", this::testToMatrix);
+        run("testOptimizedPlan", this::testOptimizedPlan);
+        run("testUnknownColumn", this::testUnknownColumn);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+        }
+    }
+
+    void testFilterDeriveSelect() {
+        DataFrame result = df.lazy().chunkSize(64)
+            .withColumn("total", Expr.col("price").mul(Expr.col("qty")))
+            .filter(Expr.col("qty").gt(3))
+            .withColumn("total2", Expr.col("total").mul(2))
+            .select("id", "total2")
+            .collect();
+
+        int expectedRows = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (i % 7 > 3) {
+                expectedRows++;
+            }
+        }
+        assertEquals(expectedRows, result.getRowCount(), "过滤后的行数 / Row count after filter");
+        assertEquals(List.of("id", "total2"), result.getColumnNames(), "输出列 / Output columns");
+        for (int r = 0; r < result.getRowCount(); r++) {
+            int id = (int) (float) (Float) result.get(0).getData().get(r);
+            float expected = 2.0f * (1.0f + (id % 10)) * (id % 7);
+            assertEquals(expected, result.get(1).getData().get(r), "派生列的值 / Derived value at id " + id);
+        }
+    }
+
+    void testStringFilter() {
+        DataFrame result = df.lazy().chunkSize(100)
+            .filter(Expr.col("group").eq("odd").and(Expr.col("id").lt(10)))
+            .collect();
+        assertEquals(5, result.getRowCount(), "应该有5个奇数行 / Should have 5 odd rows");
+        assertEquals("odd", result.getColumnByName("group").getData().get(0), "字符串列应保留 / String column kept");
+    }
+
+    void testAggregate() {
+        DataFrame result = df.lazy().chunkSize(50)
+            .aggregate(Aggregation.sum("qty"), Aggregation.mean("price").as("avgPrice"),
+                Aggregation.max("id"), Aggregation.count(), Aggregation.var("id"))
+            .collect();
+        assertEquals(1, result.getRowCount(), "全表聚合只有一行 / Global aggregate has one row");
+        float sumQty = 0;
+        for (int i = 0; i < 1000; i++) {
+            sumQty += i % 7;
+        }
+        assertEquals(sumQty, result.get(0).getData().get(0), "sum(qty)");
+        assertEquals(5.5f, result.getColumnByName("avgPrice").getData().get(0), "mean(price)");
+        assertEquals(999.0f, result.get(2).getData().get(0), "max(id)");
+        assertEquals(1000.0f, result.get(3).getData().get(0), "count");
+        // 0..999 的样本方差 = n(n+1)/12 / Sample variance of 0..999 = n(n+1)/12
+        float var = (Float) result.get(4).getData().get(0);
+        assertTrue(Math.abs(var - 1000f * 1001f / 12f) < 1.0f, "var(id) = " + var);
+    }
+
+    void testGroupedAggregate() {
+        DataFrame result = df.lazy().chunkSize(64)
+            .aggregate("group", Aggregation.count().as("n"), Aggregation.min("id"))
+            .collect();
+        assertEquals(2, result.getRowCount(), "应该有两组 / Should have two groups");
+        assertEquals("even", result.get(0).getData().get(0), "首次出现的分组在前 / First seen group first");
+        assertEquals(500.0f, result.getColumnByName("n").getData().get(0), "组大小 / Group size");
+        assertEquals(1.0f, result.get(2).getData().get(1), "odd组最小id / Min id of odd group");
+    }
+
+    void testToMatrix() {
+        IMatrix m = df.lazy().chunkSize(128)
+            .filter(Expr.col("id").lt(300))
+            .withColumn("logPrice", Expr.col("price").log())
+            .select("id", "group", "logPrice")
+            .toMatrix();
+        assertEquals(300, m.getRowNum(), "矩阵行数 / Matrix rows");
+        assertEquals(2, m.getColNum(), "只包含Float列 / Only Float columns");
+        assertEquals((float) Math.log(1.0f + 17 % 10), m.get(17, 1), "矩阵元素 / Matrix element");
+    }
+
+    void testOptimizedPlan() {
+        LazyFrame plan = df.lazy()
+            .withColumn("unused", Expr.col("price").exp())
+            .withColumn("total", Expr.col("price").mul(Expr.col("qty")))
+            .filter(Expr.col("id").gt(10))
+            .filter(Expr.col("id").lt(20))
+            .select("id", "total");
+        String explain = plan.explain();
+        String optimized = explain.substring(explain.indexOf("Optimized plan"));
+        assertTrue(!optimized.contains("unused"), "未使用的派生列应被删除 / Unused derivation should be dropped");
+        assertTrue(!optimized.contains("group"), "未使用的源列不应被读取 / Unused source column should not be scanned");
+        assertTrue(optimized.indexOf("Filter") < optimized.indexOf("Derive total"), "过滤应被下推 / Filter should be pushed down");
+        assertTrue(optimized.contains("&&"), "相邻过滤应被合并 / Adjacent filters should be merged");
+        assertEquals(9, plan.collect().getRowCount(), "结果行数 / Result rows");
+    }
+
+    void testUnknownColumn() {
+        try {
+            df.lazy().select("id").filter(Expr.col("price").gt(1)).collect();
+            throw new AssertionError("引用已被投影掉的列应该抛出异常 / Referencing a projected-away column should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected exception
+        }
+    }
+
+    // 自定义断言方法 / Custom assertion methods
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertEquals(Object expected, Object actual, String message) {
+        if (expected == null && actual == null) {
+            return;
+        }
+        if (expected == null || !expected.equals(actual)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
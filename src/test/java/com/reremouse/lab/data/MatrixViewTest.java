@@ -0,0 +1,220 @@
+package com.reremouse.lab.data;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.RereColumnMatrix;
+import com.reremouse.lab.math.data.Column;
+import com.reremouse.lab.math.data.ColumnType;
+import com.reremouse.lab.math.data.DataFrame;
+import com.reremouse.lab.math.data.FloatColumnData;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试DataFrame与IMatrix之间的零拷贝视图
+ * Test for zero-copy views between DataFrame and IMatrix
+ */
+public class MatrixViewTest {
+
+    private DataFrame df;
+
+    public static void main(String[] args) {
+        MatrixViewTest test = new MatrixViewTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        df = new DataFrame();
+        List<Object> a = new ArrayList<>();
+        List<Object> names = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            a.add((float) i);
+            names.add("r" + i);
+        }
+        df.addColumn(column("a", ColumnType.Float, a));
+        df.addColumn(column("name", ColumnType.String, names));
+        df.addColumn(column("b", ColumnType.Float, new FloatColumnData(new float[]{10, 20, 30, 40, 50, 60})));
+    }
+
+    private Column column(String name, ColumnType type, List<Object> data) {
+        Column c = new Column();
+        c.setName(name);
+        c.setColumnType(type);
+        c.setData(data);
+        return c;
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行矩阵视图测试 / Starting matrix view tests");
+        run("testToMatrixCopies", this::testToMatrixCopies);
+        run("testAsMatrixSharesColumns", this::testAsMatrixSharesColumns);
+        run("testColumnMatrixOperations", this::testColumnMatrixOperations);
+        run("testFromRowMajorMatrix", this::testFromRowMajorMatrix);
+        run("testFromColumnMatrix", this::testFromColumnMatrix);
+        run("testToVecCopiesAndViewShares", this::testToVecCopiesAndViewShares);
+        run("testSerializeMatrixFrame", this::testSerializeMatrixFrame);
+        run("testFitOnView", this::testFitOnView);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+        }
+    }
+
+    void testToMatrixCopies() {
+        IMatrix m = df.toMatrix();
+        assertEquals(6, m.getRowNum(), "行数 / Rows");
+        assertEquals(2, m.getColNum(), "只包含Float列 / Only Float columns");
+        assertEquals(30.0f, m.get(2, 1), "矩阵元素 / Matrix element");
+        m.put(0, 0, -1f);
+        assertEquals(0.0f, df.get(0).getData().get(0), "toMatrix应返回副本 / toMatrix should return a copy");
+    }
+
+    void testAsMatrixSharesColumns() {
+        IMatrix view = df.asMatrix();
+        assertTrue(view instanceof RereColumnMatrix, "应为列主序视图 / Should be a column-major view");
+        assertTrue(df.get(0).getData() instanceof FloatColumnData, "装箱列应被转换为原始存储 / Boxed column converted to primitive storage");
+        view.put(3, 1, 99f);
+        assertEquals(99.0f, df.getColumnByName("b").getData().get(3), "视图写入应反映到数据框 / Writes through the view should reach the DataFrame");
+        df.get(0).getData().set(5, 7f);
+        assertEquals(7.0f, view.get(-1, 0), "数据框写入应反映到视图 / DataFrame writes should reach the view");
+        assertTrue(df.asMatrix().getColunm(1).getData() == ((FloatColumnData) df.get(2).getData()).array(), "列向量应共享存储 / Column vector should share storage");
+    }
+
+    void testColumnMatrixOperations() {
+        IMatrix view = df.asMatrix();
+        IMatrix rowMajor = df.toMatrix();
+        IMatrix w = IMatrix.of(new float[][]{{1, 2}, {0.5f, -1}});
+        assertMatrixEquals(rowMajor.mmul(w), view.mmul(w), "矩阵乘法 / Matrix multiplication");
+        assertMatrixEquals(rowMajor.transposeNew(), view.transposeNew(), "转置 / Transpose");
+        assertMatrixEquals(rowMajor.covariance(), view.covariance(), "协方差 / Covariance");
+        assertVectorEquals(rowMajor.rowSums(), view.rowSums(), "rowSums");
+        assertVectorEquals(rowMajor.colMeans(), view.colMeans(), "colMeans");
+        assertEquals(rowMajor.sum(), view.sum(), "sum");
+        assertEquals(rowMajor.var(), view.var(), "var");
+        IMatrix copy = view.copy();
+        copy.put(0, 0, 1234f);
+        assertTrue(view.get(0, 0) != 1234f, "copy应独立 / copy should be independent");
+    }
+
+    void testFromRowMajorMatrix() {
+        IMatrix m = IMatrix.of(new float[][]{{1, 2, 3}, {4, 5, 6}});
+        DataFrame view = DataFrame.fromMatrix(m, "x", "y", "z");
+        assertEquals(List.of("x", "y", "z"), view.getColumnNames(), "列名 / Column names");
+        assertEquals(5.0f, view.getColumnByName("y").getData().get(1), "数据 / Data");
+        view.getColumnByName("z").getData().set(0, 30f);
+        assertEquals(30.0f, m.get(0, 2), "数据框写入应反映到矩阵 / DataFrame writes should reach the matrix");
+        assertTrue(view.asMatrix().getData() == m.getData(), "整体包装的矩阵应原样返回 / Wrapped matrix should be returned as is");
+        assertEquals(2, view.lazy().collect().getRowCount(), "视图可用于惰性查询 / View works with lazy queries");
+    }
+
+    void testFromColumnMatrix() {
+        IMatrix view = df.asMatrix();
+        DataFrame back = DataFrame.fromMatrix(view);
+        assertEquals(List.of("col_0", "col_1"), back.getColumnNames(), "默认列名 / Default column names");
+        assertTrue(((FloatColumnData) back.get(1).getData()).array() == ((FloatColumnData) df.get(2).getData()).array(), "应共享列数组 / Should share column arrays");
+        try {
+            DataFrame.fromMatrix(view, "only-one");
+            throw new AssertionError("列名数量不符应该抛出异常 / Mismatched names should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected exception
+        }
+    }
+
+    void testToVecCopiesAndViewShares() {
+        Column b = df.getColumnByName("b");
+        float before = (Float) b.getData().get(0);
+        IVector copy = b.toVec();
+        copy.set(0, -5f);
+        assertEquals(before, b.getData().get(0), "toVec应返回副本 / toVec should return a copy");
+        IVector view = b.asVecView();
+        view.set(0, -5f);
+        assertEquals(-5.0f, b.getData().get(0), "asVecView应共享存储 / asVecView should share storage");
+        DataFrame matrixFrame = DataFrame.fromMatrix(IMatrix.of(new float[][]{{1, 2}, {3, 4}}), "x", "y");
+        IVector y = matrixFrame.getColumnByName("y").toVec();
+        y.set(1, 0f);
+        assertEquals(4.0f, matrixFrame.getColumnByName("y").getData().get(1), "矩阵列的toVec应返回副本 / toVec of a matrix column should copy");
+    }
+
+    void testSerializeMatrixFrame() {
+        IMatrix m = IMatrix.of(new float[][]{{1, 2, 3}, {4, 5, 6}});
+        DataFrame frame = DataFrame.fromMatrix(m, "x", "y", "z");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(frame);
+            }
+            DataFrame back;
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                back = (DataFrame) in.readObject();
+            }
+            assertEquals(6.0f, back.getColumnByName("z").getData().get(1), "反序列化后的数据 / Data after deserialization");
+            back.getColumnByName("x").getData().set(0, 10f);
+            assertEquals(1.0f, m.get(0, 0), "反序列化结果与原矩阵独立 / Deserialized frame is independent of the matrix");
+        } catch (java.io.IOException | ClassNotFoundException e) {
+            throw new AssertionError("序列化失败 / Serialization failed: " + e);
+        }
+    }
+
+    void testFitOnView() {
+        DataFrame frame = new DataFrame();
+        float[] x1 = new float[40];
+        float[] x2 = new float[40];
+        float[] y = new float[40];
+        for (int i = 0; i < 40; i++) {
+            x1[i] = i * 0.1f;
+            x2[i] = (i % 7) - 3f;
+            y[i] = 2f * x1[i] - 0.5f * x2[i] + 1f;
+        }
+        frame.addColumn(column("x1", ColumnType.Float, new FloatColumnData(x1)));
+        frame.addColumn(column("x2", ColumnType.Float, new FloatColumnData(x2)));
+        IVector labels = IVector.of(y);
+        IVector onView = new RereLinearRegression().fit(frame.asMatrix(), labels).getWeights();
+        IVector onCopy = new RereLinearRegression().fit(frame.toMatrix(), labels).getWeights();
+        assertVectorEquals(onCopy, onView, "视图与副本上的训练结果一致 / Fitting on the view matches the copy");
+    }
+
+    private void assertMatrixEquals(IMatrix expected, IMatrix actual, String message) {
+        assertEquals(expected.getRowNum(), actual.getRowNum(), message + " 行数 / rows");
+        assertEquals(expected.getColNum(), actual.getColNum(), message + " 列数 / cols");
+        for (int i = 0; i < expected.getRowNum(); i++) {
+            for (int j = 0; j < expected.getColNum(); j++) {
+                assertTrue(Math.abs(expected.get(i, j) - actual.get(i, j)) < 1e-4f, message + " (" + i + "," + j + ")");
+            }
+        }
+    }
+
+    private void assertVectorEquals(IVector expected, IVector actual, String message) {
+        assertEquals(expected.length(), actual.length(), message + " 长度 / length");
+        for (int i = 0; i < expected.length(); i++) {
+            assertTrue(Math.abs(expected.get(i) - actual.get(i)) < 1e-4f, message + " [" + i + "]");
+        }
+    }
+
+    // 自定义断言方法 / Custom assertion methods
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertEquals(Object expected, Object actual, String message) {
+        if (expected == null && actual == null) {
+            return;
+        }
+        if (expected == null || !expected.equals(actual)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.reremouse.lab.data;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.data.Aggregation;
+import com.reremouse.lab.math.data.CsvBatchReader;
+import com.reremouse.lab.math.data.DataFrame;
+import com.reremouse.lab.math.data.Expr;
+import com.reremouse.lab.math.data.FloatColumnData;
+import com.reremouse.lab.math.data.StreamFrame;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 测试DataFrame的分批流式处理
+ * Test for batched streaming DataFrame processing
+ */
+public class StreamFrameTest {
+
+    private static final int ROWS = 10000;
+    private String testFilePath = "test_stream.csv";
+
+    public static void main(String[] args) {
+        StreamFrameTest test = new StreamFrameTest();
+        try {
+            test.setUp();
+            test.runAllTests();
+        } catch (IOException e) {
+            System.out.println("✗ setUp 失败 / failed: " + e.getMessage());
+        } finally {
+            test.tearDown();
+        }
+    }
+
+    void setUp() throws IOException {
+        try (FileWriter writer = new FileWriter(testFilePath)) {
+            writer.write("id,price,qty,region\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write(i + "," + (1 + i % 10) + "," + (i % 7) + "," + (i % 3 == 0 ? "north" : "south") + "\n");
+            }
+        }
+    }
+
+    void tearDown() {
+        // 清理测试文件 / Clean up test files
+        try {
+            Files.deleteIfExists(Paths.get(testFilePath));
+        } catch (IOException e) {
+            // 忽略清理错误 / Ignore cleanup errors
+        }
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行StreamFrame测试 / Starting StreamFrame tests");
+        run("testBatchReader", this::testBatchReader);
+        run("testFilterAndCount", this::testFilterAndCount);
+        run("testRunningAggregate", this::testRunningAggregate);
+        run("testMatchesInMemory", this::testMatchesInMemory);
+        run("testMatrixBatches", this::testMatrixBatches);
+        run("testPartialFitFromCsv", this::testPartialFitFromCsv);
+        run("testSingleUse", this::testSingleUse);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, ThrowingRunnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+        }
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    void testBatchReader() throws IOException {
+        int batches = 0;
+        int rows = 0;
+        try (CsvBatchReader reader = new CsvBatchReader(testFilePath, ",", true, 3000)) {
+            while (reader.hasNext()) {
+                DataFrame batch = reader.next();
+                assertTrue(batch.getRowCount() <= 3000, "批大小不应超过限制 / Batch size should not exceed limit");
+                assertTrue(batch.get(0).getData() instanceof FloatColumnData, "Float列应为原始数组 / Float columns should be primitive");
+                assertEquals(List.of("id", "price", "qty", "region"), batch.getColumnNames(), "列名 / Column names");
+                rows += batch.getRowCount();
+                batches++;
+            }
+        }
+        assertEquals(4, batches, "批次数 / Number of batches");
+        assertEquals(ROWS, rows, "总行数 / Total rows");
+    }
+
+    void testFilterAndCount() throws IOException {
+        long count = DataFrame.streamCsv(testFilePath, ",", true, 1024)
+            .filter(Expr.col("region").eq("north"))
+            .count();
+        assertEquals((long) ((ROWS + 2) / 3), count, "north行数 / North row count");
+    }
+
+    void testRunningAggregate() throws IOException {
+        DataFrame result = DataFrame.streamCsv(testFilePath, ",", true, 777)
+            .withColumn("total", Expr.col("price").mul(Expr.col("qty")))
+            .aggregate("region", Aggregation.sum("total"), Aggregation.count().as("n"), Aggregation.var("id"));
+        assertEquals(2, result.getRowCount(), "两个分组 / Two groups");
+        assertEquals("north", result.get(0).getData().get(0), "首次出现的分组在前 / First seen group first");
+        double sum = 0;
+        for (int i = 0; i < ROWS; i += 3) {
+            sum += (1 + i % 10) * (i % 7);
+        }
+        assertEquals((float) sum, result.get(1).getData().get(0), "north组sum(total)");
+        assertEquals((float) ((ROWS + 2) / 3), result.get(2).getData().get(0), "north组计数 / North count");
+    }
+
+    void testMatchesInMemory() throws IOException {
+        DataFrame all = DataFrame.readCsv(testFilePath, ",", true);
+        DataFrame expected = all.lazy()
+            .filter(Expr.col("qty").gt(2))
+            .aggregate(Aggregation.mean("price"), Aggregation.std("id"), Aggregation.max("qty"))
+            .collect();
+        DataFrame actual = all.stream(999)
+            .filter(Expr.col("qty").gt(2))
+            .aggregate(Aggregation.mean("price"), Aggregation.std("id"), Aggregation.max("qty"));
+        for (int c = 0; c < expected.getColumnCount(); c++) {
+            float e = (Float) expected.get(c).getData().get(0);
+            float a = (Float) actual.get(c).getData().get(0);
+            assertTrue(Math.abs(e - a) <= 1e-3f * Math.max(1f, Math.abs(e)), "分批与整体结果一致 / Batched matches whole: " + e + " vs " + a);
+        }
+        DataFrame mapped = all.stream(4096)
+            .map(batch -> batch.sliceColumn(0, 2))
+            .collect();
+        assertEquals(List.of("id", "price"), mapped.getColumnNames(), "map结果列 / Mapped columns");
+        assertEquals(ROWS, mapped.getRowCount(), "map结果行数 / Mapped rows");
+    }
+
+    void testMatrixBatches() throws IOException {
+        Iterator<IMatrix> it = DataFrame.streamCsv(testFilePath, ",", true, 4000)
+            .filter(Expr.col("id").ge(2000))
+            .select("id", "qty")
+            .toMatrixBatches();
+        int rows = 0;
+        double sumId = 0;
+        while (it.hasNext()) {
+            IMatrix m = it.next();
+            assertEquals(2, m.getColNum(), "矩阵列数 / Matrix columns");
+            for (int r = 0; r < m.getRowNum(); r++) {
+                sumId += m.get(r, 0);
+            }
+            rows += m.getRowNum();
+        }
+        assertEquals(ROWS - 2000, rows, "矩阵总行数 / Total matrix rows");
+        assertEquals((2000.0 + 9999.0) * 8000.0 / 2.0, sumId, "id之和 / Sum of ids");
+    }
+
+    void testPartialFitFromCsv() throws IOException {
+        // 多个批次的CSV经矩阵批次流式增量训练，与整体训练一致 / A CSV spanning several batches streamed through
+        // matrix batches into an incremental fit matches a full fit
+        String path = "test_stream_regression.csv";
+        Random random = new Random(17);
+        float[][] features = new float[ROWS][2];
+        float[] labels = new float[ROWS];
+        try (FileWriter writer = new FileWriter(path)) {
+            writer.write("x1,y,note,x2\n");
+            for (int i = 0; i < ROWS; i++) {
+                features[i][0] = (float) random.nextGaussian();
+                features[i][1] = (float) random.nextGaussian() * 10;
+                labels[i] = 2.0f + 3.0f * features[i][0] - 0.5f * features[i][1] + 0.1f * (float) random.nextGaussian();
+                writer.write(features[i][0] + "," + labels[i] + ",row" + i + "," + features[i][1] + "\n");
+            }
+        }
+        try {
+            Iterator<IMatrix> batches = DataFrame.streamCsv(path, ",", true, 1500)
+                .select("x1", "x2", "y")
+                .toMatrixBatches();
+            RereLinearRegression online = new RereLinearRegression();
+            online.partialFit(batches, 2);
+            RereLinearRegression full = new RereLinearRegression();
+            full.fit(IMatrix.of(features), IVector.of(labels));
+            for (int j = 0; j < full.getFullWeights().length(); j++) {
+                float e = full.getFullWeights().get(j);
+                float a = online.getFullWeights().get(j);
+                assertTrue(Math.abs(e - a) <= 1e-3f, "流式与整体权重一致 / Streamed matches full weight " + j + ": " + e + " vs " + a);
+            }
+            float[] expected = {3.0f, -0.5f};
+            for (int j = 0; j < expected.length; j++) {
+                float a = online.getFeatureWeights().get(j);
+                assertTrue(Math.abs(expected[j] - a) <= 1e-2f, "真实权重 / True weight " + j + ": " + a);
+            }
+        } finally {
+            Files.deleteIfExists(Paths.get(path));
+        }
+    }
+
+    void testSingleUse() throws IOException {
+        StreamFrame stream = DataFrame.streamCsv(testFilePath, ",", true, 1000);
+        stream.count();
+        try {
+            stream.count();
+            throw new AssertionError("重复消费应该抛出异常 / Consuming twice should throw");
+        } catch (IllegalStateException e) {
+            // 期望的异常 / Expected exception
+        }
+    }
+
+    // 自定义断言方法 / Custom assertion methods
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertEquals(Object expected, Object actual, String message) {
+        if (expected == null && actual == null) {
+            return;
+        }
+        if (expected == null || !expected.equals(actual)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
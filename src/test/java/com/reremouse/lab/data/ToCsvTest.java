@@ -3,11 +3,20 @@ package com.reremouse.lab.data;
 import com.reremouse.lab.math.data.Column;
 import com.reremouse.lab.math.data.DataFrame;
 import com.reremouse.lab.math.data.ColumnType;
+import com.reremouse.lab.math.data.CsvWriter;
+import com.reremouse.lab.math.data.FloatColumnData;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
 
 /**
  * 测试DataFrame的toCsv方法
@@ -17,6 +26,7 @@ public class ToCsvTest {
 
     private DataFrame testDataFrame;
     private String testFilePath = "test_output.csv";
+    private String gzipFilePath = "test_output.csv.gz";
 
     public static void main(String[] args) {
         ToCsvTest test = new ToCsvTest();
@@ -67,6 +77,7 @@ public class ToCsvTest {
         // 清理测试文件 / Clean up test files
         try {
             Files.deleteIfExists(Paths.get(testFilePath));
+            Files.deleteIfExists(Paths.get(gzipFilePath));
         } catch (IOException e) {
             // 忽略清理错误 / Ignore cleanup errors
         }
@@ -110,6 +121,27 @@ public class ToCsvTest {
             System.out.println("✗ testToCsvWithUnequalColumnLengths 失败 / failed: " + e.getMessage());
         }
         
+        try {
+            testToCsvMatchesCsvPrinter();
+            System.out.println("✓ testToCsvMatchesCsvPrinter 通过 / passed");
+        } catch (Exception e) {
+            System.out.println("✗ testToCsvMatchesCsvPrinter 失败 / failed: " + e.getMessage());
+        }
+        
+        try {
+            testToCsvGzip();
+            System.out.println("✓ testToCsvGzip 通过 / passed");
+        } catch (Exception e) {
+            System.out.println("✗ testToCsvGzip 失败 / failed: " + e.getMessage());
+        }
+        
+        try {
+            testToCsvWideFrame();
+            System.out.println("✓ testToCsvWideFrame 通过 / passed");
+        } catch (Exception e) {
+            System.out.println("✗ testToCsvWideFrame 失败 / failed: " + e.getMessage());
+        }
+        
         System.out.println("所有测试完成 / All tests completed");
     }
 
@@ -255,6 +287,104 @@ public class ToCsvTest {
             throw new AssertionError("应该抛出IllegalArgumentException，但抛出了: " + e.getClass().getSimpleName());
         }
     }
+
+    void testToCsvMatchesCsvPrinter() throws IOException {
+        // 多块并行输出应与CSVPrinter逐字节一致 / Multi-chunk parallel output must match CSVPrinter byte for byte
+        DataFrame df = createLargeDataFrame(5000);
+        CsvWriter.write(df, testFilePath, ',', false, 700);
+        String actual = new String(Files.readAllBytes(Paths.get(testFilePath)), StandardCharsets.UTF_8);
+        assertEquals(printWithCsvPrinter(df), actual, "输出应与CSVPrinter一致 / Output should match CSVPrinter");
+        
+        // 原始Float列与装箱Float列输出相同 / Primitive and boxed Float columns produce the same text
+        testDataFrame.toCsv(testFilePath);
+        actual = new String(Files.readAllBytes(Paths.get(testFilePath)), StandardCharsets.UTF_8);
+        assertEquals(printWithCsvPrinter(testDataFrame), actual, "小数据框输出应与CSVPrinter一致 / Small DataFrame should match CSVPrinter");
+        
+        tearDown();
+    }
+
+    void testToCsvGzip() throws IOException {
+        // gzip输出由多个gzip成员组成，解压后应与未压缩输出一致 / Multi-member gzip output must decompress to the plain output
+        DataFrame df = createLargeDataFrame(3000);
+        CsvWriter.write(df, gzipFilePath, ',', true, 500);
+        String decompressed;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Paths.get(gzipFilePath)))) {
+            decompressed = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(printWithCsvPrinter(df), decompressed, "解压后内容应一致 / Decompressed content should match");
+        
+        // 以.gz结尾的路径自动压缩 / Paths ending in .gz are compressed automatically
+        testDataFrame.toCsv(gzipFilePath);
+        byte[] head = Files.readAllBytes(Paths.get(gzipFilePath));
+        assertTrue(head.length > 2 && (head[0] & 0xff) == 0x1f && (head[1] & 0xff) == 0x8b, "应为gzip格式 / Should be gzip format");
+        
+        tearDown();
+    }
+
+    void testToCsvWideFrame() throws IOException {
+        // 宽数据框的每块行数会被自动减少，输出仍应与CSVPrinter一致
+        // Rows per chunk shrink automatically for wide frames; output must still match CSVPrinter
+        int rows = 1200;
+        int cols = 400;
+        Random random = new Random(3);
+        DataFrame df = new DataFrame();
+        for (int j = 0; j < cols; j++) {
+            float[] values = new float[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = random.nextInt(1000) / 8.0f;
+            }
+            df.addColumn(createColumn("c" + j, ColumnType.Float, new FloatColumnData(values)));
+        }
+        assertTrue(16L * cols * rows > 4L << 20, "测试数据应超过每块字节上限 / Test data should exceed the per-chunk limit");
+        CsvWriter.write(df, testFilePath, false);
+        String actual = new String(Files.readAllBytes(Paths.get(testFilePath)), StandardCharsets.UTF_8);
+        assertEquals(printWithCsvPrinter(df), actual, "宽数据框输出应与CSVPrinter一致 / Wide DataFrame should match CSVPrinter");
+        
+        tearDown();
+    }
+
+    private DataFrame createLargeDataFrame(int rows) {
+        // 包含需要引号的字符串、特殊浮点值和原始Float列 / Strings needing quotes, special floats and a primitive Float column
+        String[] tricky = {"plain", "with,comma", "with \"quote\"", "#comment", "trailing ", "", null, "中文文本", "line\nbreak", "-neg"};
+        Random random = new Random(7);
+        List<Object> names = new ArrayList<>();
+        List<Object> boxed = new ArrayList<>();
+        float[] primitive = new float[rows];
+        float[] specials = {0.0f, -0.0f, Float.NaN, Float.POSITIVE_INFINITY, 1e-5f, 3.4e38f, 12345678f, -7f};
+        for (int i = 0; i < rows; i++) {
+            names.add(tricky[i % tricky.length]);
+            boxed.add(i % 13 == 0 ? specials[i % specials.length] : (float) (random.nextGaussian() * 1000));
+            primitive[i] = i % 3 == 0 ? (float) random.nextInt(100000) - 50000 : random.nextFloat() * (float) Math.pow(10, random.nextInt(12) - 4);
+        }
+        DataFrame df = new DataFrame();
+        df.addColumn(createColumn("name", ColumnType.String, names));
+        df.addColumn(createColumn("boxed", ColumnType.Float, boxed));
+        df.addColumn(createColumn("primitive value", ColumnType.Float, new FloatColumnData(primitive)));
+        return df;
+    }
+
+    private Column createColumn(String name, ColumnType type, List<Object> data) {
+        Column column = new Column();
+        column.setName(name);
+        column.setColumnType(type);
+        column.setData(data);
+        return column;
+    }
+
+    private String printWithCsvPrinter(DataFrame df) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
+            printer.printRecord(df.getColumnNames().toArray());
+            for (int i = 0; i < df.getRowCount(); i++) {
+                Object[] row = new Object[df.getColumnCount()];
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = df.get(j).getData().get(i);
+                }
+                printer.printRecord(row);
+            }
+        }
+        return writer.toString();
+    }
     
     // 自定义断言方法 / Custom assertion methods
     private void assertTrue(boolean condition, String message) {
@@ -0,0 +1,183 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.ml.lr.RegressionResult;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import com.reremouse.lab.math.optimize.IDifferentiableFunction;
+import com.reremouse.lab.math.optimize.RereBatchOptimizer;
+import com.reremouse.lab.math.optimize.RereLBFGS;
+import com.reremouse.lab.util.Tuple2;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 批量优化测试：独立问题、多起点与并行训练小模型
+ * Test for batch optimization: independent problems, multi-start and fitting small models in parallel
+ */
+public class BatchOptimizerTest {
+
+    public static void main(String[] args) {
+        BatchOptimizerTest test = new BatchOptimizerTest();
+        test.runAllTests();
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行批量优化测试 / Starting batch optimization tests");
+        run("testIndependentProblems", this::testIndependentProblems);
+        run("testMultiStart", this::testMultiStart);
+        run("testMapFitsModels", this::testMapFitsModels);
+        run("testInvalidArguments", this::testInvalidArguments);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 以center为极小点、对角曲率为scale的二次函数 / Quadratic with minimizer center and diagonal curvature scale
+     */
+    private static IDifferentiableFunction quadratic(float[] center, float[] scale) {
+        return (x, gradient) -> {
+            float sum = 0;
+            for (int i = 0; i < center.length; i++) {
+                float d = x.get(i) - center[i];
+                sum += 0.5f * scale[i] * d * d;
+                gradient[i] = scale[i] * d;
+            }
+            return sum;
+        };
+    }
+
+    void testIndependentProblems() {
+        Random random = new Random(51);
+        int count = 200;
+        int dim = 6;
+        List<IDifferentiableFunction> problems = new ArrayList<>();
+        List<IVector> starts = new ArrayList<>();
+        float[][] centers = new float[count][dim];
+        for (int k = 0; k < count; k++) {
+            float[] scale = new float[dim];
+            for (int i = 0; i < dim; i++) {
+                centers[k][i] = (float) random.nextGaussian();
+                scale[i] = 1 + 20 * random.nextFloat();
+            }
+            problems.add(quadratic(centers[k], scale));
+            starts.add(IVector.zeros(dim));
+        }
+        List<Tuple2<Float, IVector>> results = new RereBatchOptimizer(() -> new RereLBFGS(5, 1e-5f, 200))
+            .optimize(problems, starts);
+        assertTrue(results.size() == count, "结果数量 / Result count");
+        RereLBFGS sequential = new RereLBFGS(5, 1e-5f, 200);
+        for (int k = 0; k < count; k += 17) {
+            Tuple2<Float, IVector> expected = sequential.optimize(IVector.zeros(dim), problems.get(k));
+            assertClose(expected._1, results.get(k)._1, 0.0f, "与顺序求解一致 / Same as sequential " + k);
+            for (int i = 0; i < dim; i++) {
+                assertClose(expected._2.get(i), results.get(k)._2.get(i), 0.0f, "最优点 / Minimizer");
+                assertClose(centers[k][i], results.get(k)._2.get(i), 1e-3f, "极小点 / Minimum");
+            }
+        }
+    }
+
+    void testMultiStart() {
+        // 双井函数 (x² - 1)² + 0.3x：全局极小点在x ≈ -1.04，局部极小点在x ≈ 0.96
+        // Double well (x² - 1)² + 0.3x: global minimum near x = -1.04, local minimum near x = 0.96
+        IDifferentiableFunction doubleWell = (x, gradient) -> {
+            float v = x.get(0);
+            gradient[0] = 4 * v * (v * v - 1) + 0.3f;
+            return (v * v - 1) * (v * v - 1) + 0.3f * v;
+        };
+        List<IVector> starts = RereBatchOptimizer.uniformStarts(16, new float[]{-2.0f}, new float[]{2.0f}, 7L);
+        int[] instances = new int[1];
+        List<Tuple2<Float, IVector>> results = new RereBatchOptimizer().multiStart(() -> {
+            synchronized (instances) {
+                instances[0]++;
+            }
+            return doubleWell;
+        }, starts);
+        boolean sawLocal = false;
+        for (Tuple2<Float, IVector> r : results) {
+            sawLocal |= r._2.get(0) > 0;
+        }
+        assertTrue(sawLocal, "部分起点落入局部极小点 / Some starts end in the local minimum");
+        Tuple2<Float, IVector> best = results.get(RereBatchOptimizer.best(results));
+        assertClose(-1.04f, best._2.get(0), 0.01f, "全局极小点 / Global minimum");
+        assertTrue(instances[0] >= 1 && instances[0] <= starts.size(), "每块一个函数实例 / One instance per range");
+        assertTrue(RereBatchOptimizer.uniformStarts(16, new float[]{-2.0f}, new float[]{2.0f}, 7L).get(3).get(0)
+            == starts.get(3).get(0), "相同种子得到相同起点 / Same seed, same starts");
+    }
+
+    void testMapFitsModels() {
+        Random random = new Random(53);
+        int segments = 40;
+        List<float[][]> features = new ArrayList<>();
+        List<float[]> labels = new ArrayList<>();
+        for (int s = 0; s < segments; s++) {
+            float[][] x = new float[50][3];
+            float[] y = new float[50];
+            for (int i = 0; i < 50; i++) {
+                for (int j = 0; j < 3; j++) {
+                    x[i][j] = (float) random.nextGaussian();
+                }
+                y[i] = s * x[i][0] - x[i][2] + 0.05f * (float) random.nextGaussian();
+            }
+            features.add(x);
+            labels.add(y);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (int s = 0; s < segments; s++) {
+            ids.add(s);
+        }
+        List<RegressionResult> results = RereBatchOptimizer.map(ids, s -> {
+            RereLinearRegression model = new RereLinearRegression(true, 0.0f, 0.01f);
+            model.setSolver(RereLinearRegression.SolverType.LBFGS);
+            return model.fit(IMatrix.of(features.get(s)), IVector.of(labels.get(s)));
+        });
+        for (int s = 0; s < segments; s += 7) {
+            RereLinearRegression model = new RereLinearRegression(true, 0.0f, 0.01f);
+            model.setSolver(RereLinearRegression.SolverType.LBFGS);
+            RegressionResult expected = model.fit(IMatrix.of(features.get(s)), IVector.of(labels.get(s)));
+            assertClose(expected.getLoss(), results.get(s).getLoss(), 0.0f, "与顺序训练一致 / Same as sequential " + s);
+            assertClose(expected.getWeights().get(0), results.get(s).getWeights().get(0), 0.0f, "权重 / Weight");
+        }
+    }
+
+    void testInvalidArguments() {
+        RereBatchOptimizer batch = new RereBatchOptimizer();
+        List<IDifferentiableFunction> problems = new ArrayList<>();
+        problems.add(quadratic(new float[]{1.0f}, new float[]{1.0f}));
+        try {
+            batch.optimize(problems, new ArrayList<>());
+            throw new AssertionError("数量不一致应抛出异常 / Size mismatch should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            RereBatchOptimizer.best(new ArrayList<>());
+            throw new AssertionError("空结果应抛出异常 / Empty results should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        assertTrue(batch.optimize(new ArrayList<>(), new ArrayList<>()).isEmpty(), "空批次 / Empty batch");
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
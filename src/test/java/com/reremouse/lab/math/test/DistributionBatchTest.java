@@ -0,0 +1,226 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.stat.distribution.*;
+import java.util.Random;
+
+/**
+ * 概率分布批量计算测试：批量结果与逐点结果一致、对数密度、向量重载与参数检查
+ * Test for batched distribution evaluation: batch equals pointwise, log densities, vector overloads and argument
+ * checks
+ */
+public class DistributionBatchTest {
+
+    public static void main(String[] args) {
+        DistributionBatchTest test = new DistributionBatchTest();
+        test.runAllTests();
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行概率分布批量计算测试 / Starting batched distribution tests");
+        run("testContinuousBatchMatchesPointwise", this::testContinuousBatchMatchesPointwise);
+        run("testLogPdf", this::testLogPdf);
+        run("testDiscreteBatchMatchesPointwise", this::testDiscreteBatchMatchesPointwise);
+        run("testVectorOverloads", this::testVectorOverloads);
+        run("testLargeInput", this::testLargeInput);
+        run("testInvalidArguments", this::testInvalidArguments);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static IContinuousDistribution[] continuous() {
+        return new IContinuousDistribution[]{
+            new NormalDistribution(1.5f, 2.0f),
+            new ExponentialDistribution(0.7f),
+            new UniformDistribution(-1.0f, 3.0f),
+            new GammaDistribution(2.5f, 1.5f),
+            new BetaDistribution(2.0f, 3.0f),
+            new Chi2Distribution(4.0f),
+            new StudentDistribution(5.0f),
+            new FDistribution(5.0f, 10.0f)
+        };
+    }
+
+    void testContinuousBatchMatchesPointwise() {
+        Random random = new Random(61);
+        float[] x = new float[500];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = -3 + 8 * random.nextFloat();
+        }
+        x[0] = 0.0f;
+        x[1] = 1.0f;
+        x[2] = -1.0f;
+        x[3] = 3.0f;
+        float[] prob = {0.0f, 0.01f, 0.25f, 0.5f, 0.75f, 0.99f};
+        for (IContinuousDistribution dist : continuous()) {
+            String name = dist.getClass().getSimpleName();
+            float[] pdf = new float[x.length];
+            float[] cdf = new float[x.length];
+            dist.pdf(x, pdf);
+            dist.cdf(x, cdf);
+            for (int i = 0; i < x.length; i++) {
+                assertRelative(dist.pdf(x[i]), pdf[i], 1e-5f, name + " pdf(" + x[i] + ")");
+                assertRelative(dist.cdf(x[i]), cdf[i], 1e-5f, name + " cdf(" + x[i] + ")");
+            }
+            float[] ppf = new float[prob.length];
+            dist.ppf(prob, ppf);
+            for (int i = 0; i < prob.length; i++) {
+                assertRelative(dist.ppf(prob[i]), ppf[i], 1e-5f, name + " ppf(" + prob[i] + ")");
+            }
+        }
+    }
+
+    void testLogPdf() {
+        float[] x = {-2.5f, -0.5f, 0.05f, 0.3f, 0.9f, 1.7f, 4.0f, 9.0f};
+        for (IContinuousDistribution dist : continuous()) {
+            String name = dist.getClass().getSimpleName();
+            float[] logPdf = new float[x.length];
+            dist.logPdf(x, logPdf);
+            for (int i = 0; i < x.length; i++) {
+                float expected = (float) Math.log(dist.pdf(x[i]));
+                if (Float.isInfinite(expected)) {
+                    assertTrue(dist.logPdf(x[i]) == expected && logPdf[i] == expected,
+                        name + " logPdf(" + x[i] + ") 应为负无穷 / should be -inf");
+                    continue;
+                }
+                assertClose(expected, dist.logPdf(x[i]), 1e-4f * Math.max(1, Math.abs(expected)),
+                    name + " logPdf(" + x[i] + ")");
+                assertClose(dist.logPdf(x[i]), logPdf[i], 1e-5f * Math.max(1, Math.abs(expected)),
+                    name + " 批量logPdf / batched logPdf(" + x[i] + ")");
+            }
+        }
+        // 密度下溢为0时对数密度仍然有限 / The log density stays finite where the density underflows
+        NormalDistribution normal = new NormalDistribution();
+        assertTrue(normal.pdf(40.0f) == 0.0f, "密度下溢 / Density underflows");
+        assertClose(-800.9189f, normal.logPdf(40.0f), 1e-2f, "标准正态对数密度 / Standard normal log density");
+        assertTrue(new ExponentialDistribution(2.0f).logPdf(-1.0f) == Float.NEGATIVE_INFINITY,
+            "支撑集外为负无穷 / Negative infinity outside the support");
+    }
+
+    void testDiscreteBatchMatchesPointwise() {
+        IDiscreteDistribution[] dists = {
+            new PoissonDistribution(3.5f),
+            new BinomialDistribution(20, 0.3f),
+            new BernoulliDistribution(0.4f),
+            new GeometricDistribution(0.2f)
+        };
+        int[] x = new int[40];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i - 5;
+        }
+        for (IDiscreteDistribution dist : dists) {
+            String name = dist.getClass().getSimpleName();
+            float[] pmf = new float[x.length];
+            float[] logPmf = new float[x.length];
+            float[] cdf = new float[x.length];
+            dist.pmf(x, pmf);
+            dist.logPmf(x, logPmf);
+            dist.cdf(x, cdf);
+            for (int i = 0; i < x.length; i++) {
+                assertRelative(dist.pmf(x[i]), pmf[i], 1e-5f, name + " pmf(" + x[i] + ")");
+                assertRelative(dist.cdf(x[i]), cdf[i], 1e-5f, name + " cdf(" + x[i] + ")");
+                float expected = (float) Math.log(dist.pmf(x[i]));
+                if (Float.isInfinite(expected)) {
+                    assertTrue(logPmf[i] == expected, name + " logPmf(" + x[i] + ") 应为负无穷 / should be -inf");
+                } else {
+                    assertClose(expected, logPmf[i], 1e-4f * Math.max(1, Math.abs(expected)),
+                        name + " logPmf(" + x[i] + ")");
+                }
+            }
+            float[] prob = {0.0f, 0.1f, 0.5f, 0.9f};
+            int[] ppf = new int[prob.length];
+            dist.ppf(prob, ppf);
+            for (int i = 0; i < prob.length; i++) {
+                assertTrue(dist.ppf(prob[i]) == ppf[i], name + " ppf(" + prob[i] + ")");
+            }
+        }
+    }
+
+    void testVectorOverloads() {
+        NormalDistribution normal = new NormalDistribution(0.0f, 1.0f);
+        IVector x = IVector.of(new float[]{-1.0f, 0.0f, 1.0f});
+        IVector pdf = normal.pdf(x);
+        IVector cdf = normal.cdf(x);
+        IVector logPdf = normal.logPdf(x);
+        assertTrue(pdf.length() == 3 && cdf.length() == 3 && logPdf.length() == 3, "向量长度 / Vector length");
+        assertClose(0.398942f, pdf.get(1), 1e-5f, "pdf(0)");
+        assertClose(0.5f, cdf.get(1), 1e-5f, "cdf(0)");
+        assertClose(-0.918939f, logPdf.get(1), 1e-5f, "logPdf(0)");
+        IVector quantiles = normal.ppf(IVector.of(new float[]{0.5f, 0.975f}));
+        assertClose(0.0f, quantiles.get(0), 1e-3f, "ppf(0.5)");
+        assertClose(1.96f, quantiles.get(1), 1e-2f, "ppf(0.975)");
+    }
+
+    void testLargeInput() {
+        int n = 100_000;
+        float[] x = new float[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = -5 + 10.0f * i / n;
+        }
+        NormalDistribution normal = new NormalDistribution(0.5f, 1.5f);
+        GammaDistribution gamma = new GammaDistribution(3.0f, 2.0f);
+        float[] out = new float[n];
+        float[] gammaOut = new float[n];
+        normal.cdf(x, out);
+        gamma.pdf(x, gammaOut);
+        for (int i = 0; i < n; i += 997) {
+            assertRelative(normal.cdf(x[i]), out[i], 1e-5f, "大批量cdf / Large batch cdf " + i);
+            assertRelative(gamma.pdf(x[i]), gammaOut[i], 1e-6f, "大批量pdf / Large batch pdf " + i);
+        }
+        for (int i = 1; i < n; i++) {
+            assertTrue(out[i] >= out[i - 1], "cdf单调 / cdf is monotone at " + i);
+        }
+    }
+
+    void testInvalidArguments() {
+        NormalDistribution normal = new NormalDistribution();
+        try {
+            normal.pdf(new float[3], new float[2]);
+            throw new AssertionError("长度不一致应抛出异常 / Length mismatch should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            new PoissonDistribution(1.0f).pmf(null, new float[1]);
+            throw new AssertionError("空数组应抛出异常 / Null array should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            new ExponentialDistribution(1.0f).ppf(new float[]{0.5f, 1.5f}, new float[2]);
+            throw new AssertionError("概率越界应抛出异常 / Probability out of range should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        float[] empty = new float[0];
+        normal.cdf(empty, empty);
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+
+    private void assertRelative(float expected, float actual, float relative, String message) {
+        if (Float.isNaN(expected) && Float.isNaN(actual) || expected == actual) {
+            return;
+        }
+        assertClose(expected, actual, relative * Math.max(1e-30f, Math.abs(expected)), message);
+    }
+}
@@ -0,0 +1,476 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.ml.lr.RegressionResult;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 线性回归测试
+ * Test for linear regression
+ */
+public class LinearRegressionTest {
+
+    private float[][] features;
+    private float[] labels;
+    private final float[] trueWeights = {2.0f, -1.5f, 0.5f, 3.0f};
+    private final float trueBias = 1.0f;
+
+    public static void main(String[] args) {
+        LinearRegressionTest test = new LinearRegressionTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        // 多于一个行块的合成数据 / Synthetic data spanning several row blocks
+        Random random = new Random(42);
+        int n = 5000;
+        features = new float[n][trueWeights.length];
+        labels = new float[n];
+        for (int i = 0; i < n; i++) {
+            float y = trueBias;
+            for (int j = 0; j < trueWeights.length; j++) {
+                features[i][j] = (float) random.nextGaussian();
+                y += trueWeights[j] * features[i][j];
+            }
+            labels[i] = y + 0.01f * (float) random.nextGaussian();
+        }
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行线性回归测试 / Starting linear regression tests");
+        run("testFitRecoversWeights", this::testFitRecoversWeights);
+        run("testFusedKernelMatchesReference", this::testFusedKernelMatchesReference);
+        run("testRegularizedKernelMatchesReference", this::testRegularizedKernelMatchesReference);
+        run("testCacheInvalidation", this::testCacheInvalidation);
+        run("testSolversAgree", this::testSolversAgree);
+        run("testAutoSolverChoice", this::testAutoSolverChoice);
+        run("testCollinearFallback", this::testCollinearFallback);
+        run("testGramCacheReuse", this::testGramCacheReuse);
+        run("testGramCacheDoesNotRetainFeatures", this::testGramCacheDoesNotRetainFeatures);
+        run("testLassoExactZeros", this::testLassoExactZeros);
+        run("testElasticNetBeatsLbfgs", this::testElasticNetBeatsLbfgs);
+        run("testLambdaPath", this::testLambdaPath);
+        run("testWideLassoKkt", this::testWideLassoKkt);
+        run("testPartialFitMatchesFit", this::testPartialFitMatchesFit);
+        run("testPartialFitMatrixBatches", this::testPartialFitMatrixBatches);
+        run("testPredictBatch", this::testPredictBatch);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+        }
+    }
+
+    void testFitRecoversWeights() {
+        RereLinearRegression lr = new RereLinearRegression();
+        RegressionResult result = lr.fit(IMatrix.of(features), IVector.of(labels));
+        for (int j = 0; j < trueWeights.length; j++) {
+            assertClose(trueWeights[j], result.getWeights().get(j), 1e-2f, "权重 / Weight " + j);
+        }
+        assertClose(trueBias, lr.getBias(), 1e-2f, "偏置 / Bias");
+        assertClose(trueWeights[0] * 1 + trueBias, lr.predict(IVector.of(new float[]{1, 0, 0, 0})), 2e-2f, "预测 / Prediction");
+    }
+
+    void testFusedKernelMatchesReference() {
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.fit(IMatrix.of(features), IVector.of(labels));
+        float[] w = {0.3f, -0.2f, 1.1f, 0.0f, 0.7f};
+        checkAgainstReference(lr, w, 0.0f, 0.0f);
+    }
+
+    void testRegularizedKernelMatchesReference() {
+        RereLinearRegression lr = new RereLinearRegression(true, 0.05f, 0.1f);
+        lr.fit(IMatrix.of(features), IVector.of(labels));
+        float[] w = {0.3f, -0.2f, 1.1f, 0.0f, 0.7f};
+        checkAgainstReference(lr, w, 0.05f, 0.1f);
+    }
+
+    void testCacheInvalidation() {
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.fit(IMatrix.of(features), IVector.of(labels));
+        float[] w = {0.3f, -0.2f, 1.1f, 0.5f, 0.7f};
+        float before = lr.computeObjective(IVector.of(w));
+        // 同一点的重复调用返回一致结果 / Repeated calls at the same point agree
+        assertClose(before, lr.computeObjective(IVector.of(w.clone())), 0.0f, "缓存命中 / Cache hit");
+        // 正则化参数变化后应重新计算 / Changing regularization recomputes
+        lr.setLambda2(1.0f);
+        float after = lr.computeObjective(IVector.of(w));
+        float squaredNorm = 0.0f;
+        for (float v : w) {
+            squaredNorm += v * v;
+        }
+        assertClose(before + squaredNorm / 2.0f, after, 1e-4f, "正则化变化后的目标值 / Objective after regularization change");
+    }
+
+    void testSolversAgree() {
+        // 岭回归的各求解器应得到相同的最优解 / All solvers reach the same ridge optimum
+        IMatrix x = IMatrix.of(features);
+        IVector y = IVector.of(labels);
+        RereLinearRegression reference = new RereLinearRegression(true, 0.0f, 0.1f);
+        reference.setSolver(RereLinearRegression.SolverType.LBFGS);
+        reference.fit(x, y);
+        for (RereLinearRegression.SolverType type : new RereLinearRegression.SolverType[]{
+                RereLinearRegression.SolverType.CHOLESKY, RereLinearRegression.SolverType.QR,
+                RereLinearRegression.SolverType.CG}) {
+            RereLinearRegression lr = new RereLinearRegression(true, 0.0f, 0.1f);
+            lr.setSolver(type);
+            lr.fit(x, y);
+            assertTrue(lr.getLastSolver() == type, "实际使用的求解器 / Solver used: " + type);
+            for (int j = 0; j < reference.getFullWeights().length(); j++) {
+                assertClose(reference.getFullWeights().get(j), lr.getFullWeights().get(j), 1e-3f, type + " 权重 / weight " + j);
+            }
+        }
+    }
+
+    void testAutoSolverChoice() {
+        RereLinearRegression tall = new RereLinearRegression();
+        tall.fit(IMatrix.of(features), IVector.of(labels));
+        assertTrue(tall.getLastSolver() == RereLinearRegression.SolverType.CHOLESKY, "高矩阵使用Cholesky / Tall data uses Cholesky");
+
+        // 宽矩阵：特征数多于样本数 / Wide data: more features than samples
+        Random random = new Random(3);
+        float[][] wide = new float[30][80];
+        float[] wideLabels = new float[30];
+        for (int i = 0; i < wide.length; i++) {
+            for (int j = 0; j < wide[i].length; j++) {
+                wide[i][j] = (float) random.nextGaussian();
+            }
+            wideLabels[i] = wide[i][0] - 2.0f * wide[i][1];
+        }
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.fit(IMatrix.of(wide), IVector.of(wideLabels));
+        assertTrue(lr.getLastSolver() == RereLinearRegression.SolverType.CG, "宽矩阵使用共轭梯度 / Wide data uses CG");
+        assertTrue(lr.computeObjective(lr.getFullWeights()) < 1e-6f, "宽矩阵应完全拟合 / Wide data should be interpolated");
+
+        RereLinearRegression lasso = new RereLinearRegression(true, 0.01f, 0.0f);
+        lasso.fit(IMatrix.of(features), IVector.of(labels));
+        assertTrue(lasso.getLastSolver() == RereLinearRegression.SolverType.COORDINATE_DESCENT, "L1正则化使用坐标下降 / L1 uses coordinate descent");
+    }
+
+    void testCollinearFallback() {
+        // 重复列使XᵀX奇异，应退回到其他求解器 / A duplicated column makes XᵀX singular and triggers a fallback
+        float[][] collinear = new float[features.length][3];
+        for (int i = 0; i < features.length; i++) {
+            collinear[i][0] = features[i][0];
+            collinear[i][1] = features[i][0];
+            collinear[i][2] = features[i][1];
+        }
+        float[] y = new float[features.length];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = 4.0f * features[i][0] + features[i][1] + 0.5f;
+        }
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.setSolver(RereLinearRegression.SolverType.CHOLESKY);
+        lr.fit(IMatrix.of(collinear), IVector.of(y));
+        assertTrue(lr.getLastSolver() != RereLinearRegression.SolverType.CHOLESKY, "应退回其他求解器 / Should fall back");
+        assertClose(4.0f, lr.getFeatureWeights().get(0) + lr.getFeatureWeights().get(1), 1e-3f, "共线权重之和 / Sum of collinear weights");
+        assertClose(0.5f, lr.getBias(), 1e-3f, "偏置 / Bias");
+    }
+
+    void testGramCacheDoesNotRetainFeatures() {
+        // 带偏置项训练后模型只保留增广副本，Gram缓存不应使原特征矩阵保持可达
+        // With a bias term the model keeps only the augmented copy; the Gram cache must not keep the input reachable
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.setSolver(RereLinearRegression.SolverType.CHOLESKY);
+        WeakReference<IMatrix> ref = fitAndForget(lr);
+        for (int i = 0; i < 20 && ref.get() != null; i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        assertTrue(ref.get() == null, "特征矩阵应可被回收 / Feature matrix should be collectable");
+        assertTrue(lr.getWeights() != null, "模型仍然可用 / Model is still usable");
+    }
+
+    private WeakReference<IMatrix> fitAndForget(RereLinearRegression lr) {
+        IMatrix x = IMatrix.of(features);
+        lr.fit(x, IVector.of(labels));
+        return new WeakReference<>(x);
+    }
+
+    void testGramCacheReuse() {
+        IMatrix x = IMatrix.of(features);
+        IVector y = IVector.of(labels);
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.fit(x, y);
+        // 只改变L2系数后重新训练，复用Gram矩阵 / Refit after changing only lambda2 reuses the Gram matrix
+        lr.setLambda2(0.5f);
+        lr.fit(x, y);
+        RereLinearRegression fresh = new RereLinearRegression(true, 0.0f, 0.5f);
+        fresh.fit(x, y);
+        for (int j = 0; j < fresh.getFullWeights().length(); j++) {
+            assertClose(fresh.getFullWeights().get(j), lr.getFullWeights().get(j), 0.0f, "复用缓存的权重 / Weight with cached Gram " + j);
+        }
+    }
+
+    void testLassoExactZeros() {
+        // 追加与标签无关的特征 / Append features unrelated to the labels
+        Random random = new Random(11);
+        float[][] padded = new float[features.length][8];
+        for (int i = 0; i < features.length; i++) {
+            System.arraycopy(features[i], 0, padded[i], 0, 4);
+            for (int j = 4; j < 8; j++) {
+                padded[i][j] = (float) random.nextGaussian();
+            }
+        }
+        RereLinearRegression lr = new RereLinearRegression(true, 0.05f, 0.0f);
+        lr.fit(IMatrix.of(padded), IVector.of(labels));
+        for (int j = 4; j < 8; j++) {
+            assertTrue(lr.getFeatureWeights().get(j) == 0.0f, "无关特征的权重应为精确的0 / Irrelevant weight should be exactly 0: " + j);
+        }
+        assertKkt(lr, 0.05f);
+    }
+
+    void testElasticNetBeatsLbfgs() {
+        IMatrix x = IMatrix.of(features);
+        IVector y = IVector.of(labels);
+        RereLinearRegression cd = new RereLinearRegression(true, 0.1f, 0.2f);
+        RegressionResult cdResult = cd.fit(x, y);
+        RereLinearRegression lbfgs = new RereLinearRegression(true, 0.1f, 0.2f);
+        lbfgs.setSolver(RereLinearRegression.SolverType.LBFGS);
+        RegressionResult lbfgsResult = lbfgs.fit(x, y);
+        assertTrue(cdResult.getLoss() <= lbfgsResult.getLoss() + 1e-5f,
+            "坐标下降的目标值不应更差 / Coordinate descent objective should not be worse: " + cdResult.getLoss() + " vs " + lbfgsResult.getLoss());
+        assertKkt(cd, 0.1f);
+    }
+
+    void testLambdaPath() {
+        IMatrix x = IMatrix.of(features);
+        IVector y = IVector.of(labels);
+        RereLinearRegression lr = new RereLinearRegression();
+        List<RegressionResult> path = lr.fitPath(x, y, 20, 0.001f);
+        assertTrue(path.size() == 20, "路径长度 / Path length");
+        assertTrue(countNonZero(path.get(0)) == 0, "λ_max处所有权重为0 / All weights are zero at lambda max");
+        assertTrue(countNonZero(path.get(19)) == 5, "最小λ处所有权重非零 / All weights non-zero at the smallest lambda");
+        for (int k = 1; k < path.size(); k++) {
+            assertTrue(path.get(k).getLambda1() < path.get(k - 1).getLambda1(), "λ递减 / Lambdas decrease");
+        }
+        // 路径上的点与单独训练的结果一致 / Points on the path match individual fits
+        for (int k : new int[]{3, 10, 17}) {
+            float lambda = path.get(k).getLambda1();
+            RereLinearRegression single = new RereLinearRegression(true, lambda, 0.0f);
+            RegressionResult expected = single.fit(x, y);
+            for (int j = 0; j < trueWeights.length; j++) {
+                assertClose(expected.getWeights().get(j), path.get(k).getWeights().get(j), 1e-4f, "路径权重 / Path weight " + k + "," + j);
+            }
+            assertClose(expected.getLoss(), path.get(k).getLoss(), 1e-4f, "路径损失 / Path loss " + k);
+        }
+        // 任意顺序的λ数组按输入顺序返回 / Arbitrary lambda order is returned in input order
+        List<RegressionResult> custom = lr.fitPath(x, y, new float[]{0.01f, 0.5f, 0.1f});
+        assertClose(0.5f, custom.get(1).getLambda1(), 0.0f, "结果顺序 / Result order");
+        assertClose(0.1f, lr.getLambda1(), 0.0f, "模型保存最后一个λ / Model keeps the last lambda");
+        assertClose(custom.get(2).getBias().get(0), lr.getBias(), 0.0f, "模型保存最后一个解 / Model keeps the last solution");
+    }
+
+    void testWideLassoKkt() {
+        // 权重超过1024时使用残差更新 / More than 1024 weights switches to residual updates
+        Random random = new Random(5);
+        int n = 200;
+        int d = 1100;
+        float[][] wide = new float[n][d];
+        float[] y = new float[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                wide[i][j] = (float) random.nextGaussian();
+            }
+            y[i] = 3.0f * wide[i][0] - 2.0f * wide[i][5] + wide[i][9] + 0.1f * (float) random.nextGaussian();
+        }
+        RereLinearRegression lr = new RereLinearRegression(true, 0.1f, 0.01f);
+        lr.fit(IMatrix.of(wide), IVector.of(y));
+        assertTrue(lr.getLastSolver() == RereLinearRegression.SolverType.COORDINATE_DESCENT, "使用坐标下降 / Uses coordinate descent");
+        assertTrue(countNonZero(lr.getFeatureWeights()) < 50, "解应稀疏 / Solution should be sparse");
+        assertKkt(lr, 0.1f);
+    }
+
+    void testPartialFitMatchesFit() {
+        // 分批累加充分统计量应与整体训练一致 / Accumulating statistics batch by batch matches a full fit
+        IMatrix x = IMatrix.of(features);
+        IVector y = IVector.of(labels);
+        float[][] lambdas = {{0.0f, 0.0f}, {0.0f, 0.5f}, {0.05f, 0.1f}};
+        for (float[] lambda : lambdas) {
+            RereLinearRegression full = new RereLinearRegression(true, lambda[0], lambda[1]);
+            RegressionResult expected = full.fit(x, y);
+            RereLinearRegression online = new RereLinearRegression(true, lambda[0], lambda[1]);
+            RegressionResult actual = null;
+            for (int start = 0; start < features.length; start += 1200) {
+                int end = Math.min(features.length, start + 1200);
+                actual = online.partialFit(IMatrix.of(Arrays.copyOfRange(features, start, end)),
+                    IVector.of(Arrays.copyOfRange(labels, start, end)));
+            }
+            String tag = "λ=" + Arrays.toString(lambda) + " ";
+            for (int j = 0; j < full.getFullWeights().length(); j++) {
+                assertClose(full.getFullWeights().get(j), online.getFullWeights().get(j), 1e-3f, tag + "权重 / Weight " + j);
+            }
+            assertClose(expected.getLoss(), actual.getLoss(), 1e-3f * Math.max(1.0f, expected.getLoss()), tag + "损失 / Loss");
+        }
+        // 增量训练不保留训练数据 / Partial fits do not keep the training data
+        RereLinearRegression online = new RereLinearRegression();
+        online.fit(x, y);
+        online.partialFit(x, y);
+        try {
+            online.computeObjective(online.getFullWeights());
+            throw new AssertionError("训练数据应已释放 / Training data should be released");
+        } catch (IllegalStateException expected) {
+            // 期望的异常 / Expected
+        }
+        try {
+            online.partialFit(IMatrix.of(new float[][]{{1, 2}}), IVector.of(new float[]{1}));
+            throw new AssertionError("应拒绝特征数变化 / Feature count change should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // 期望的异常 / Expected
+        }
+    }
+
+    void testPartialFitMatrixBatches() {
+        // 标签位于中间列的矩阵批次，首批样本少于特征 / Label in a middle column, first batch has fewer rows than weights
+        List<IMatrix> batches = new ArrayList<>();
+        int[] sizes = {3, 997, 1000, 3000};
+        int start = 0;
+        for (int size : sizes) {
+            float[][] batch = new float[size][trueWeights.length + 1];
+            for (int i = 0; i < size; i++) {
+                float[] row = features[start + i];
+                batch[i][0] = row[0];
+                batch[i][1] = row[1];
+                batch[i][2] = labels[start + i];
+                batch[i][3] = row[2];
+                batch[i][4] = row[3];
+            }
+            batches.add(IMatrix.of(batch));
+            start += size;
+        }
+        RereLinearRegression first = new RereLinearRegression();
+        first.partialFit(List.of(batches.get(0)).iterator(), 2);
+        assertTrue(first.getLastSolver() == RereLinearRegression.SolverType.COORDINATE_DESCENT, "奇异时使用坐标下降 / Singular statistics use coordinate descent");
+
+        RereLinearRegression online = new RereLinearRegression();
+        online.partialFit(batches.iterator(), 2);
+        RereLinearRegression full = new RereLinearRegression();
+        full.fit(IMatrix.of(features), IVector.of(labels));
+        assertTrue(online.getLastSolver() == RereLinearRegression.SolverType.CHOLESKY, "使用Cholesky / Uses Cholesky");
+        for (int j = 0; j < full.getFullWeights().length(); j++) {
+            assertClose(full.getFullWeights().get(j), online.getFullWeights().get(j), 1e-3f, "权重 / Weight " + j);
+        }
+        assertClose(full.predict(IVector.of(features[7])), online.predict(IVector.of(features[7])), 1e-3f, "预测 / Prediction");
+    }
+
+    void testPredictBatch() {
+        IMatrix x = IMatrix.of(features);
+        for (boolean bias : new boolean[]{true, false}) {
+            RereLinearRegression lr = new RereLinearRegression(bias, 0.0f);
+            lr.fit(x, IVector.of(labels));
+            float[] batch = lr.predictBatch(x);
+            float[] fullWeights = lr.getFullWeights().getData();
+            for (int i = 0; i < features.length; i++) {
+                float expected = bias ? fullWeights[trueWeights.length] : 0.0f;
+                for (int j = 0; j < trueWeights.length; j++) {
+                    expected += fullWeights[j] * features[i][j];
+                }
+                assertClose(expected, batch[i], 1e-4f, "批量预测 / Batch prediction " + i);
+                assertClose(lr.predict(IVector.of(features[i])), batch[i], 1e-5f, "与单条预测一致 / Matches single prediction " + i);
+            }
+            // 复用调用方提供的数组 / Reuse a caller-provided buffer
+            float[] buffer = new float[features.length + 3];
+            assertTrue(lr.predictBatch(x, buffer) == buffer, "返回调用方的数组 / Returns the caller's buffer");
+            assertClose(batch[17], buffer[17], 0.0f, "缓冲区结果 / Buffer result");
+        }
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.fit(x, IVector.of(labels));
+        try {
+            lr.predictBatch(x, new float[features.length - 1]);
+            throw new AssertionError("应拒绝过短的输出数组 / Short output buffer should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // 期望的异常 / Expected
+        }
+    }
+
+    /**
+     * 检查L1问题的KKT最优性条件 / Check the KKT optimality conditions of the L1 problem
+     */
+    private void assertKkt(RereLinearRegression lr, float lambda1) {
+        IVector w = lr.getFullWeights();
+        IVector g = lr.computeGradient(w);
+        for (int j = 0; j < w.length(); j++) {
+            if (w.get(j) != 0.0f) {
+                assertClose(0.0f, g.get(j), 1e-3f, "非零权重处梯度为0 / Zero gradient at non-zero weight " + j);
+            } else {
+                assertTrue(Math.abs(g.get(j)) <= lambda1 + 1e-3f, "零权重处|梯度|≤λ₁ / |gradient| <= lambda1 at zero weight " + j);
+            }
+        }
+    }
+
+    private int countNonZero(RegressionResult result) {
+        return countNonZero(result.getWeights()) + (result.getBias().get(0) != 0.0f ? 1 : 0);
+    }
+
+    private int countNonZero(IVector v) {
+        int count = 0;
+        for (int j = 0; j < v.length(); j++) {
+            if (v.get(j) != 0.0f) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 与逐元素的朴素实现比较 / Compare with a naive element-wise implementation
+     */
+    private void checkAgainstReference(RereLinearRegression lr, float[] w, float lambda1, float lambda2) {
+        int n = features.length;
+        int d = w.length;
+        double loss = 0.0;
+        double[] grad = new double[d];
+        for (int i = 0; i < n; i++) {
+            double p = w[d - 1];
+            for (int j = 0; j < d - 1; j++) {
+                p += features[i][j] * w[j];
+            }
+            double r = p - labels[i];
+            loss += r * r;
+            for (int j = 0; j < d - 1; j++) {
+                grad[j] += r * features[i][j];
+            }
+            grad[d - 1] += r;
+        }
+        loss /= 2.0 * n;
+        for (int j = 0; j < d; j++) {
+            grad[j] = grad[j] / n + lambda1 * Math.signum(w[j]) + lambda2 * w[j];
+            loss += lambda1 * Math.abs(w[j]) + lambda2 * w[j] * w[j] / 2.0;
+        }
+        IVector gradient = lr.computeGradient(IVector.of(w));
+        float objective = lr.computeObjective(IVector.of(w));
+        assertClose((float) loss, objective, 1e-3f * (float) Math.max(1.0, loss), "目标函数值 / Objective");
+        for (int j = 0; j < d; j++) {
+            assertClose((float) grad[j], gradient.get(j), 1e-3f, "梯度 / Gradient " + j);
+        }
+    }
+
+    // 自定义断言方法 / Custom assertion methods
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
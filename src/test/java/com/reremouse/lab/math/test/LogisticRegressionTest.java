@@ -0,0 +1,304 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.ml.cls.RereLogisticRegression;
+import com.reremouse.lab.math.optimize.RereLBFGS;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 逻辑回归测试
+ * Test for logistic regression
+ */
+public class LogisticRegressionTest {
+
+    private float[][] features;
+    private String[] binaryLabels;
+    private String[] multiLabels;
+
+    public static void main(String[] args) {
+        LogisticRegressionTest test = new LogisticRegressionTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        // 多于一个并行块的合成数据 / Synthetic data spanning several parallel blocks
+        Random random = new Random(21);
+        int n = 5000;
+        int d = 6;
+        features = new float[n][d];
+        binaryLabels = new String[n];
+        multiLabels = new String[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                features[i][j] = (float) random.nextGaussian();
+            }
+            float score = 1.5f * features[i][0] - features[i][1] + 0.5f * features[i][2] + 0.3f * (float) random.nextGaussian();
+            binaryLabels[i] = score > 0 ? "yes" : "no";
+            multiLabels[i] = score < -1 ? "low" : score < 1 ? "mid" : "high";
+        }
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行逻辑回归测试 / Starting logistic regression tests");
+        run("testBinaryPredictProba", this::testBinaryPredictProba);
+        run("testMulticlassPredictProba", this::testMulticlassPredictProba);
+        run("testPredictBuffers", this::testPredictBuffers);
+        run("testKernelMatchesReference", this::testKernelMatchesReference);
+        run("testKernelManyClasses", this::testKernelManyClasses);
+        run("testKernelStability", this::testKernelStability);
+        run("testKernelCacheInvalidation", this::testKernelCacheInvalidation);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+        }
+    }
+
+    void testBinaryPredictProba() {
+        RereLogisticRegression model = new RereLogisticRegression();
+        IMatrix x = IMatrix.of(features);
+        model.fit(x, binaryLabels);
+        String[] classes = model.getClasses();
+        float[][] proba = model.predictProba(x);
+        String[] predicted = model.predictBatch(x);
+        int correct = 0;
+        for (int i = 0; i < features.length; i++) {
+            IVector row = IVector.of(features[i]);
+            float p = model.predictProbability(row);
+            assertClose(p, proba[i][1], 1e-6f, "正类概率 / Positive probability " + i);
+            assertClose(1.0f, proba[i][0] + proba[i][1], 1e-6f, "概率和 / Probability sum " + i);
+            assertTrue(predicted[i].equals(model.predict(row)), "与单条预测一致 / Matches single prediction " + i);
+            assertTrue(predicted[i].equals(classes[p >= 0.5f ? 1 : 0]), "类别列对应 / Class column mapping " + i);
+            if (predicted[i].equals(binaryLabels[i])) {
+                correct++;
+            }
+        }
+        assertTrue(correct > 0.9f * features.length, "准确率 / Accuracy " + correct);
+    }
+
+    void testMulticlassPredictProba() {
+        RereLogisticRegression model = new RereLogisticRegression();
+        IMatrix x = IMatrix.of(features);
+        model.fit(x, multiLabels);
+        String[] classes = model.getClasses();
+        assertTrue(classes.length == 3, "类别数 / Class count");
+        float[][] proba = model.predictProba(x);
+        String[] predicted = model.predictBatch(x);
+        for (int i = 0; i < features.length; i++) {
+            IVector row = IVector.of(features[i]);
+            float[] expected = model.predictProbabilities(row);
+            float sum = 0.0f;
+            int best = 0;
+            for (int k = 0; k < classes.length; k++) {
+                assertClose(expected[k], proba[i][k], 1e-6f, "类别概率 / Class probability " + i + "," + k);
+                sum += proba[i][k];
+                if (proba[i][k] > proba[i][best]) {
+                    best = k;
+                }
+            }
+            assertClose(1.0f, sum, 1e-5f, "概率和 / Probability sum " + i);
+            assertTrue(predicted[i].equals(classes[best]), "最大概率类别 / Most probable class " + i);
+            assertTrue(predicted[i].equals(model.predict(row)), "与单条预测一致 / Matches single prediction " + i);
+        }
+    }
+
+    void testPredictBuffers() {
+        RereLogisticRegression model = new RereLogisticRegression();
+        IMatrix x = IMatrix.of(features);
+        model.fit(x, multiLabels);
+        float[][] expected = model.predictProba(x);
+        float[][] buffer = new float[features.length][3];
+        String[] labels = new String[features.length];
+        for (int round = 0; round < 2; round++) {
+            assertTrue(model.predictProba(x, buffer) == buffer, "返回调用方的数组 / Returns the caller's buffer");
+            assertTrue(model.predictBatch(x, labels) == labels, "返回调用方的标签数组 / Returns the caller's label buffer");
+        }
+        for (int i = 0; i < features.length; i += 97) {
+            for (int k = 0; k < 3; k++) {
+                assertClose(expected[i][k], buffer[i][k], 0.0f, "缓冲区结果 / Buffer result " + i);
+            }
+        }
+        try {
+            model.predictProba(x, new float[features.length][2]);
+            throw new AssertionError("应拒绝过窄的输出行 / Narrow output rows should be rejected");
+        } catch (IllegalArgumentException expectedException) {
+            // 期望的异常 / Expected
+        }
+        try {
+            model.predictBatch(IMatrix.of(new float[][]{{1, 2}}));
+            throw new AssertionError("应拒绝维度不匹配 / Dimension mismatch should be rejected");
+        } catch (IllegalArgumentException expectedException) {
+            // 期望的异常 / Expected
+        }
+    }
+
+    void testKernelMatchesReference() {
+        IMatrix x = IMatrix.of(features);
+        RereLogisticRegression binary = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.01f, 0.02f);
+        binary.setOptimizer(new RereLBFGS(10, 1e-4f, 50));
+        binary.fit(x, binaryLabels);
+        checkAgainstReference(binary, features, binaryLabels, parameters(features[0].length + 1, 1));
+
+        RereLogisticRegression multi = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.0f, 0.05f);
+        multi.setOptimizer(new RereLBFGS(10, 1e-4f, 50));
+        multi.fit(x, multiLabels);
+        checkAgainstReference(multi, features, multiLabels, parameters(3 * (features[0].length + 1), 2));
+    }
+
+    void testKernelManyClasses() {
+        // 120个类别，类别中心随机 / 120 classes around random centers
+        Random random = new Random(4);
+        int classes = 120;
+        int d = 10;
+        int n = 3000;
+        float[][] centers = new float[classes][d];
+        for (float[] center : centers) {
+            for (int j = 0; j < d; j++) {
+                center[j] = 3.0f * (float) random.nextGaussian();
+            }
+        }
+        float[][] x = new float[n][d];
+        String[] y = new String[n];
+        for (int i = 0; i < n; i++) {
+            int c = i % classes;
+            for (int j = 0; j < d; j++) {
+                x[i][j] = centers[c][j] + (float) random.nextGaussian();
+            }
+            y[i] = "c" + c;
+        }
+        RereLogisticRegression model = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.0f, 0.01f);
+        model.setOptimizer(new RereLBFGS(10, 1e-4f, 100));
+        model.fit(IMatrix.of(x), y);
+        checkAgainstReference(model, x, y, parameters(classes * (d + 1), 3));
+        String[] predicted = model.predictBatch(IMatrix.of(x));
+        int correct = 0;
+        for (int i = 0; i < n; i++) {
+            if (predicted[i].equals(y[i])) {
+                correct++;
+            }
+        }
+        assertTrue(correct > 0.8f * n, "准确率 / Accuracy " + correct);
+    }
+
+    void testKernelStability() {
+        // 极大的logit不应产生NaN或无穷 / Huge logits must not produce NaN or infinity
+        RereLogisticRegression model = new RereLogisticRegression();
+        model.fit(IMatrix.of(features), multiLabels);
+        float[] params = parameters(3 * (features[0].length + 1), 5);
+        for (int j = 0; j < params.length; j++) {
+            params[j] *= 1000.0f;
+        }
+        float objective = model.computeObjective(IVector.of(params));
+        assertTrue(Float.isFinite(objective) && objective > 0, "目标函数有限 / Finite objective " + objective);
+        for (float g : model.computeGradient(IVector.of(params)).getData()) {
+            assertTrue(Float.isFinite(g), "梯度有限 / Finite gradient");
+        }
+    }
+
+    void testKernelCacheInvalidation() {
+        RereLogisticRegression model = new RereLogisticRegression();
+        model.fit(IMatrix.of(features), binaryLabels);
+        float[] params = parameters(features[0].length + 1, 6);
+        float before = model.computeObjective(IVector.of(params));
+        assertClose(before, model.computeObjective(IVector.of(params.clone())), 0.0f, "缓存命中 / Cache hit");
+        model.setLambda2(2.0f);
+        float squaredNorm = 0.0f;
+        for (int j = 0; j < features[0].length; j++) {
+            squaredNorm += params[j] * params[j];
+        }
+        assertClose(before + squaredNorm, model.computeObjective(IVector.of(params)), 1e-5f,
+            "正则化变化后的目标值（偏置不参与） / Objective after regularization change, bias excluded");
+    }
+
+    /**
+     * 用double精度逐样本计算的参考值检查融合求值 / Check the fused kernel against a per-sample double reference
+     */
+    private void checkAgainstReference(RereLogisticRegression model, float[][] x, String[] y, float[] params) {
+        String[] classes = model.getClasses();
+        int k = model.isBinaryClassification() ? 1 : classes.length;
+        int d = x[0].length;
+        double loss = 0.0;
+        double[] gradient = new double[params.length];
+        double[] logits = new double[k];
+        for (int i = 0; i < x.length; i++) {
+            int label = Arrays.asList(classes).indexOf(y[i]);
+            for (int c = 0; c < k; c++) {
+                double z = params[k * d + c];
+                for (int j = 0; j < d; j++) {
+                    z += (double) params[c * d + j] * x[i][j];
+                }
+                logits[c] = z;
+            }
+            double[] errors = new double[k];
+            if (k == 1) {
+                double p = 1.0 / (1.0 + Math.exp(-logits[0]));
+                loss -= label == 1 ? Math.log(p) : Math.log(1.0 - p);
+                errors[0] = p - label;
+            } else {
+                double max = Double.NEGATIVE_INFINITY;
+                for (double z : logits) {
+                    max = Math.max(max, z);
+                }
+                double sum = 0.0;
+                for (double z : logits) {
+                    sum += Math.exp(z - max);
+                }
+                loss += max + Math.log(sum) - logits[label];
+                for (int c = 0; c < k; c++) {
+                    errors[c] = Math.exp(logits[c] - max) / sum - (c == label ? 1.0 : 0.0);
+                }
+            }
+            for (int c = 0; c < k; c++) {
+                for (int j = 0; j < d; j++) {
+                    gradient[c * d + j] += errors[c] * x[i][j];
+                }
+                gradient[k * d + c] += errors[c];
+            }
+        }
+        double reference = loss / x.length;
+        float lambda1 = model.getRegularizationType() == RereLogisticRegression.RegularizationType.L2 ? 0.0f : model.getLambda1();
+        float lambda2 = model.getRegularizationType() == RereLogisticRegression.RegularizationType.L1 ? 0.0f : model.getLambda2();
+        for (int j = 0; j < k * d; j++) {
+            reference += lambda1 * Math.abs(params[j]) + lambda2 * params[j] * params[j] / 2.0;
+            gradient[j] = gradient[j] / x.length + lambda1 * Math.signum(params[j]) + lambda2 * params[j];
+        }
+        for (int j = k * d; j < params.length; j++) {
+            gradient[j] /= x.length;
+        }
+        float objective = model.computeObjective(IVector.of(params));
+        assertClose((float) reference, objective, 1e-4f * Math.max(1.0f, Math.abs(objective)), "目标函数 / Objective");
+        IVector actual = model.computeGradient(IVector.of(params));
+        for (int j = 0; j < params.length; j++) {
+            assertClose((float) gradient[j], actual.get(j), 1e-4f, "梯度 / Gradient " + j);
+        }
+    }
+
+    private float[] parameters(int count, long seed) {
+        Random random = new Random(seed);
+        float[] params = new float[count];
+        for (int j = 0; j < count; j++) {
+            params[j] = 0.5f * (float) random.nextGaussian();
+        }
+        return params;
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
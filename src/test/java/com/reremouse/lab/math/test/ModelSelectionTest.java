@@ -0,0 +1,340 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.data.DataFrame;
+import com.reremouse.lab.math.ml.cls.RereLogisticRegression;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import com.reremouse.lab.math.ml.selection.CrossValidation;
+import com.reremouse.lab.math.ml.selection.Fold;
+import com.reremouse.lab.math.ml.selection.ModelSearch;
+import com.reremouse.lab.math.ml.selection.ParameterGrid;
+import com.reremouse.lab.math.ml.selection.SearchResult;
+import com.reremouse.lab.math.optimize.RereLBFGS;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 模型选择测试：k折划分、参数网格与并行交叉验证搜索
+ * Test for model selection: k-fold splits, parameter grids and parallel cross-validated search
+ */
+public class ModelSelectionTest {
+
+    private IMatrix features;
+    private IVector targets;
+    private String[] classLabels;
+
+    public static void main(String[] args) {
+        ModelSelectionTest test = new ModelSelectionTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        // 30个特征中只有5个有效，噪声较大 / Only 5 of 30 features matter, with strong noise
+        Random random = new Random(39);
+        int n = 400;
+        int d = 30;
+        float[][] x = new float[n][d];
+        float[] y = new float[n];
+        classLabels = new String[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                x[i][j] = (float) random.nextGaussian();
+            }
+            float signal = 1.5f * x[i][0] - x[i][1] + 0.8f * x[i][2] + 0.5f * x[i][3] - 0.5f * x[i][4];
+            y[i] = signal + 2.0f + 1.5f * (float) random.nextGaussian();
+            float noisy = signal + 0.5f * (float) random.nextGaussian();
+            classLabels[i] = noisy < -0.8f ? "low" : noisy < 0.8f ? "mid" : "high";
+        }
+        features = IMatrix.of(x);
+        targets = IVector.of(y);
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行模型选择测试 / Starting model selection tests");
+        run("testKFold", this::testKFold);
+        run("testStratifiedKFold", this::testStratifiedKFold);
+        run("testRowViews", this::testRowViews);
+        run("testParameterGrid", this::testParameterGrid);
+        run("testWarmStartMatchesColdStart", this::testWarmStartMatchesColdStart);
+        run("testLinearSearch", this::testLinearSearch);
+        run("testLinearSearchMatchesSequential", this::testLinearSearchMatchesSequential);
+        run("testLogisticSearch", this::testLogisticSearch);
+        run("testInvalidArguments", this::testInvalidArguments);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void testKFold() {
+        int n = 103;
+        List<Fold> folds = CrossValidation.kFold(n, 5, 1L);
+        assertTrue(folds.size() == 5, "折数 / Fold count");
+        int[] seen = new int[n];
+        for (Fold fold : folds) {
+            int test = fold.getTestIndices().length;
+            assertTrue(test == 20 || test == 21, "测试集大小 / Test size " + test);
+            assertTrue(fold.getTrainIndices().length + test == n, "训练集+测试集 / Train + test");
+            assertSorted(fold.getTrainIndices());
+            assertSorted(fold.getTestIndices());
+            boolean[] inTest = new boolean[n];
+            for (int i : fold.getTestIndices()) {
+                inTest[i] = true;
+                seen[i]++;
+            }
+            for (int i : fold.getTrainIndices()) {
+                assertTrue(!inTest[i], "训练集与测试集不相交 / Train and test are disjoint");
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            assertTrue(seen[i] == 1, "每个样本恰好测试一次 / Every sample is tested exactly once");
+        }
+        List<Fold> again = CrossValidation.kFold(n, 5, 1L);
+        List<Fold> other = CrossValidation.kFold(n, 5, 2L);
+        assertTrue(Arrays.equals(folds.get(3).getTestIndices(), again.get(3).getTestIndices()),
+            "相同种子相同划分 / Same seed, same split");
+        assertTrue(!Arrays.equals(folds.get(3).getTestIndices(), other.get(3).getTestIndices()),
+            "不同种子不同划分 / Different seed, different split");
+    }
+
+    void testStratifiedKFold() {
+        String[] labels = new String[100];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = i % 10 == 0 ? "c" : i % 10 < 4 ? "b" : "a";
+        }
+        List<Fold> folds = CrossValidation.stratifiedKFold(labels, 5, 3L);
+        for (Fold fold : folds) {
+            int a = 0;
+            int b = 0;
+            int c = 0;
+            for (int i : fold.getTestIndices()) {
+                if (labels[i].equals("a")) {
+                    a++;
+                } else if (labels[i].equals("b")) {
+                    b++;
+                } else {
+                    c++;
+                }
+            }
+            assertTrue(a == 12 && b == 6 && c == 2, "各折类别比例 / Class proportions per fold: " + a + "/" + b + "/" + c);
+        }
+    }
+
+    void testRowViews() {
+        int[] indices = {5, 0, 17};
+        IMatrix view = CrossValidation.rows(features, indices);
+        assertTrue(view.getRowNum() == 3 && view.getColNum() == features.getColNum(), "子矩阵形状 / View shape");
+        assertTrue(view.getData()[0] == features.getData()[5], "共享行数组 / Shares row arrays");
+        assertClose(targets.get(17), CrossValidation.select(targets, indices).get(2), 0.0f, "标签子集 / Label subset");
+        assertTrue(CrossValidation.select(classLabels, indices)[1].equals(classLabels[0]), "类别子集 / Class subset");
+    }
+
+    void testParameterGrid() {
+        Map<String, float[]> grid = new LinkedHashMap<>();
+        grid.put("lambda1", new float[]{0.1f, 0.2f, 0.3f});
+        grid.put("lambda2", new float[]{0.0f, 1.0f});
+        List<Map<String, Float>> candidates = ParameterGrid.grid(grid);
+        assertTrue(candidates.size() == 6, "网格大小 / Grid size");
+        assertClose(0.1f, candidates.get(1).get("lambda1"), 0.0f, "第一个参数变化较慢 / First parameter varies slowest");
+        assertClose(1.0f, candidates.get(1).get("lambda2"), 0.0f, "最后一个参数变化最快 / Last parameter varies fastest");
+
+        Map<String, float[]> ranges = new LinkedHashMap<>();
+        ranges.put("lambda2", new float[]{1e-4f, 10.0f});
+        List<Map<String, Float>> sampled = ParameterGrid.random(ranges, 50, true, 9L);
+        assertTrue(sampled.equals(ParameterGrid.random(ranges, 50, true, 9L)), "随机搜索可复现 / Reproducible sampling");
+        int small = 0;
+        for (Map<String, Float> candidate : sampled) {
+            float v = candidate.get("lambda2");
+            assertTrue(v >= 1e-4f && v <= 10.0f, "取值在区间内 / Value within range");
+            if (v < 1e-2f) {
+                small++;
+            }
+        }
+        assertTrue(small > 10, "对数尺度覆盖小取值 / Log scale covers small values: " + small);
+
+        float[] space = ParameterGrid.logSpace(1e-3f, 1.0f, 4);
+        assertClose(1e-3f, space[0], 1e-9f, "起点 / Start");
+        assertClose(1e-2f, space[1], 1e-8f, "对数等间距 / Log spacing");
+        assertClose(1.0f, space[3], 1e-6f, "终点 / End");
+    }
+
+    void testWarmStartMatchesColdStart() {
+        // 坐标下降与LBFGS从上一个解出发，结果与冷启动一致 / CD and LBFGS warm starts agree with cold starts
+        RereLinearRegression warm = new RereLinearRegression();
+        warm.setWarmStart(true);
+        RereLinearRegression warmLbfgs = new RereLinearRegression();
+        warmLbfgs.setWarmStart(true);
+        warmLbfgs.setSolver(RereLinearRegression.SolverType.LBFGS);
+        for (float lambda1 : new float[]{0.5f, 0.1f, 0.02f}) {
+            warm.setRegularization(lambda1, 0.01f);
+            float[] warmWeights = warm.fit(features, targets).getWeights().getData();
+            RereLinearRegression cold = new RereLinearRegression(true, lambda1, 0.01f);
+            float[] coldWeights = cold.fit(features, targets).getWeights().getData();
+            for (int j = 0; j < coldWeights.length; j++) {
+                assertClose(coldWeights[j], warmWeights[j], 1e-3f, "坐标下降热启动 / CD warm start λ₁=" + lambda1);
+            }
+        }
+        for (float lambda2 : new float[]{1.0f, 0.1f}) {
+            warmLbfgs.setRegularization(0.0f, lambda2);
+            float[] warmWeights = warmLbfgs.fit(features, targets).getWeights().getData();
+            RereLinearRegression cold = new RereLinearRegression(true, 0.0f, lambda2);
+            float[] coldWeights = cold.fit(features, targets).getWeights().getData();
+            for (int j = 0; j < coldWeights.length; j++) {
+                assertClose(coldWeights[j], warmWeights[j], 1e-2f, "LBFGS热启动 / LBFGS warm start λ₂=" + lambda2);
+            }
+        }
+
+        // 逻辑回归热启动沿用类别映射 / Logistic warm starts keep the label mapping
+        RereLogisticRegression logistic = new RereLogisticRegression();
+        logistic.setOptimizer(new RereLBFGS(10, 1e-4f, 100));
+        logistic.setWarmStart(true);
+        logistic.setRegularization(0.0f, 0.1f);
+        logistic.fit(features, classLabels);
+        Map<String, Integer> mapping = logistic.getLabelMapping();
+        logistic.setRegularization(0.0f, 0.01f);
+        String[] reversed = classLabels.clone();
+        for (int i = 0; i < reversed.length / 2; i++) {
+            String t = reversed[i];
+            reversed[i] = reversed[reversed.length - 1 - i];
+            reversed[reversed.length - 1 - i] = t;
+        }
+        float[][] rows = features.getData();
+        float[][] flipped = new float[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            flipped[i] = rows[rows.length - 1 - i];
+        }
+        logistic.fit(IMatrix.of(flipped), reversed);
+        assertTrue(mapping.equals(logistic.getLabelMapping()), "类别映射不变 / Label mapping unchanged");
+        assertTrue(accuracy(logistic.predictBatch(features), classLabels) > 0.7f, "热启动后的准确率 / Accuracy");
+    }
+
+    void testLinearSearch() {
+        Map<String, float[]> grid = new LinkedHashMap<>();
+        grid.put("lambda1", ParameterGrid.logSpace(1e-3f, 1.0f, 8));
+        grid.put("lambda2", new float[]{0.0f, 0.1f});
+        List<Map<String, Float>> candidates = ParameterGrid.grid(grid);
+        List<Fold> folds = CrossValidation.kFold(features.getRowNum(), 5, 11L);
+        SearchResult result = ModelSearch.linearRegression(features, targets).run(candidates, folds);
+        assertTrue(result.size() == 16 && result.getFoldCount() == 5, "结果表形状 / Result shape");
+
+        int best = result.getBestIndex();
+        assertTrue(result.getRank(best) == 1, "最好的组合排名第一 / Best combination ranks first");
+        float strongest = result.getMeanScore(14);
+        assertTrue(result.getBestScore() > strongest, "过强的L1不是最优 / Too strong L1 is not best");
+        assertTrue(result.getBestParameters().get("lambda1") < 1.0f, "最优λ₁ / Best λ₁");
+        assertTrue(result.getBestScore() > -3.0f, "最优负均方误差接近噪声方差 / Best negative MSE near the noise "
+            + "variance: " + result.getBestScore());
+        for (int c = 0; c < result.size(); c++) {
+            assertTrue(result.getMeanFitMillis(c) >= 0 && result.getStdScore(c) >= 0, "耗时与标准差 / Times and std");
+        }
+
+        SearchResult again = ModelSearch.linearRegression(features, targets).run(candidates, folds);
+        for (int c = 0; c < result.size(); c++) {
+            assertTrue(Arrays.equals(result.getFoldScores(c), again.getFoldScores(c)),
+                "并行结果可复现 / Parallel results are reproducible");
+        }
+
+        DataFrame frame = result.toDataFrame();
+        assertTrue(frame.getRowCount() == 16 && frame.getColumnCount() == 2 + 5 + 5, "结果数据框 / Result frame");
+        assertClose(result.getMeanScore(3), frame.getColumnByName("mean_score").toVec().get(3), 0.0f,
+            "数据框得分 / Frame score");
+    }
+
+    void testLinearSearchMatchesSequential() {
+        // 热启动链的得分与逐个冷启动训练一致 / Warm-start chains score like cold sequential fits
+        float[] lambda1s = {0.3f, 0.1f, 0.03f, 0.01f, 0.003f, 0.0f};
+        Map<String, float[]> grid = new LinkedHashMap<>();
+        grid.put("lambda1", lambda1s);
+        List<Map<String, Float>> candidates = ParameterGrid.grid(grid);
+        List<Fold> folds = CrossValidation.kFold(features.getRowNum(), 3, 5L);
+        SearchResult result = ModelSearch.linearRegression(features, targets).run(candidates, folds);
+        for (int c = 0; c < lambda1s.length; c++) {
+            for (int f = 0; f < folds.size(); f++) {
+                Fold fold = folds.get(f);
+                RereLinearRegression model = new RereLinearRegression(true, lambda1s[c], 0.0f);
+                model.fit(CrossValidation.rows(features, fold.getTrainIndices()),
+                    CrossValidation.select(targets, fold.getTrainIndices()));
+                float[] predicted = model.predictBatch(CrossValidation.rows(features, fold.getTestIndices()));
+                float[] expected = CrossValidation.select(targets, fold.getTestIndices()).getData();
+                double sum = 0.0;
+                for (int i = 0; i < expected.length; i++) {
+                    sum += (predicted[i] - expected[i]) * (predicted[i] - expected[i]);
+                }
+                assertClose((float) (-sum / expected.length), result.getFoldScores(c)[f], 1e-3f,
+                    "折得分 / Fold score c=" + c + " f=" + f);
+            }
+        }
+    }
+
+    void testLogisticSearch() {
+        Map<String, float[]> grid = new LinkedHashMap<>();
+        grid.put("lambda2", new float[]{10.0f, 1.0f, 0.1f, 0.01f, 0.001f});
+        List<Fold> folds = CrossValidation.stratifiedKFold(classLabels, 4, 21L);
+        SearchResult result = ModelSearch.logisticRegression(features, classLabels, () -> {
+            RereLogisticRegression model = new RereLogisticRegression();
+            model.setOptimizer(new RereLBFGS(10, 1e-4f, 100));
+            return model;
+        }).run(ParameterGrid.grid(grid), folds);
+        assertTrue(result.getBestScore() > 0.7f, "最优交叉验证准确率 / Best CV accuracy " + result.getBestScore());
+        assertTrue(result.getBestScore() > result.getMeanScore(0), "过强的L2不是最优 / Too strong L2 is not best");
+        assertTrue(result.getElapsedMillis() > 0, "墙钟耗时 / Wall-clock time");
+    }
+
+    void testInvalidArguments() {
+        try {
+            CrossValidation.kFold(10, 1, 0L);
+            throw new AssertionError("应拒绝k=1 / k=1 should be rejected");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            Map<String, Float> unknown = new LinkedHashMap<>();
+            unknown.put("alpha", 1.0f);
+            ModelSearch.linearRegression(features, targets)
+                .run(Arrays.asList(unknown), CrossValidation.kFold(features.getRowNum(), 2, 0L));
+            throw new AssertionError("应拒绝未知参数 / Unknown parameter should be rejected");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+    }
+
+    private float accuracy(String[] predicted, String[] labels) {
+        int correct = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (predicted[i].equals(labels[i])) {
+                correct++;
+            }
+        }
+        return (float) correct / labels.length;
+    }
+
+    private void assertSorted(int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(indices[i - 1] < indices[i], "行号升序 / Ascending indices");
+        }
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
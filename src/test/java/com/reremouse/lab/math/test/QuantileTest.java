@@ -0,0 +1,119 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.RereMathUtil;
+import com.reremouse.lab.math.stat.distribution.*;
+
+/**
+ * 分位数测试：特殊函数、已知分位数、CDF与PPF互逆以及批量分位数
+ * Test for quantiles: special functions, known quantiles, CDF/PPF round trips and batched quantiles
+ */
+public class QuantileTest {
+
+    public static void main(String[] args) {
+        QuantileTest test = new QuantileTest();
+        test.runAllTests();
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行分位数测试 / Starting quantile tests");
+        run("testSpecialFunctions", this::testSpecialFunctions);
+        run("testKnownQuantiles", this::testKnownQuantiles);
+        run("testRoundTrip", this::testRoundTrip);
+        run("testBatchedPpf", this::testBatchedPpf);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void testSpecialFunctions() {
+        // P(1, x) = 1 - e^(-x)，I_x(1, 1) = x，I_x(a, b) = 1 - I_{1-x}(b, a)
+        for (float x : new float[]{0.01f, 0.5f, 2.0f, 10.0f}) {
+            assertClose(1.0 - Math.exp(-x), RereMathUtil.regularizedIncompleteGamma(1.0f, x), 1e-12, "P(1, " + x + ")");
+        }
+        for (float x : new float[]{0.125f, 0.375f, 0.875f}) {
+            assertClose(x, RereMathUtil.regularizedIncompleteBeta(1.0f, 1.0f, x), 1e-12, "I(1, 1)");
+            assertClose(1.0 - RereMathUtil.regularizedIncompleteBeta(3.5f, 0.5f, 1.0f - x),
+                RereMathUtil.regularizedIncompleteBeta(0.5f, 3.5f, x), 1e-12, "对称性 / Symmetry");
+        }
+        // P(0.5, x) = erf(√x)，erf(1) = 0.8427007929
+        assertClose(0.8427007929, RereMathUtil.regularizedIncompleteGamma(0.5f, 1.0f), 1e-9, "P(0.5, 1)");
+        assertClose(Math.log(120.0), RereMathUtil.logGamma(6.0f), 1e-10, "ln Γ(6)");
+        assertClose(857.9336698, RereMathUtil.logGamma(200.0f), 1e-6, "ln Γ(200)");
+        assertClose(Math.log(Math.sqrt(Math.PI)), RereMathUtil.logGamma(0.5f), 1e-10, "ln Γ(0.5)");
+    }
+
+    void testKnownQuantiles() {
+        assertClose(3.841459f, new Chi2Distribution(1.0f).ppf(0.95f), 1e-4, "χ²(1) 95%");
+        assertClose(18.307038f, new Chi2Distribution(10.0f).ppf(0.95f), 1e-3, "χ²(10) 95%");
+        assertClose(2.228139f, new StudentDistribution(10.0f).ppf(0.975f), 1e-4, "t(10) 97.5%");
+        assertClose(-12.706205f, new StudentDistribution(1.0f).ppf(0.025f), 1e-3, "t(1) 2.5%");
+        assertClose(5.409451f, new FDistribution(3.0f, 5.0f).ppf(0.95f), 1e-3, "F(3, 5) 95%");
+        assertClose(0.5f, new BetaDistribution(2.0f, 2.0f).ppf(0.5f), 1e-6, "Beta(2, 2)中位数 / median");
+        assertClose(0.6931472f, new GammaDistribution(1.0f, 1.0f).ppf(0.5f), 1e-6, "Gamma(1, 1)中位数 / median");
+        assertClose(1.5f * 0.25f, new GammaDistribution(2.0f, 4.0f).ppf(0.4421746f), 1e-5, "Gamma(2, 4)");
+        assertClose(0.75f, new StudentDistribution(10.0f).cdf(new StudentDistribution(10.0f).q3()), 1e-6,
+            "t(10) Q3");
+    }
+
+    void testRoundTrip() {
+        IContinuousDistribution[] dists = {
+            new GammaDistribution(0.3f, 2.0f),
+            new GammaDistribution(250.0f, 0.5f),
+            new BetaDistribution(0.5f, 0.5f),
+            new BetaDistribution(0.8f, 40.0f),
+            new BetaDistribution(200.0f, 300.0f),
+            new Chi2Distribution(2.0f),
+            new Chi2Distribution(400.0f),
+            new FDistribution(1.0f, 1.0f),
+            new FDistribution(30.0f, 7.0f),
+            new StudentDistribution(2.0f),
+            new StudentDistribution(25.0f)
+        };
+        float[] probs = {1e-4f, 0.01f, 0.1f, 0.3f, 0.5f, 0.7f, 0.9f, 0.99f, 0.9999f};
+        for (IContinuousDistribution dist : dists) {
+            float previous = Float.NEGATIVE_INFINITY;
+            for (float p : probs) {
+                float x = dist.ppf(p);
+                assertTrue(x > previous, dist + " 分位数单调 / quantiles increase at " + p);
+                assertClose(p, dist.cdf(x), 2e-5 * Math.max(1.0, p / (1.0 - p)), dist + " cdf(ppf(" + p + "))");
+                previous = x;
+            }
+        }
+    }
+
+    void testBatchedPpf() {
+        GammaDistribution gamma = new GammaDistribution(3.0f, 2.0f);
+        float[] probs = new float[10000];
+        for (int i = 0; i < probs.length; i++) {
+            probs[i] = (i + 0.5f) / probs.length;
+        }
+        float[] quantiles = new float[probs.length];
+        gamma.ppf(probs, quantiles);
+        for (int i = 0; i < probs.length; i += 499) {
+            assertClose(gamma.ppf(probs[i]), quantiles[i], 0.0, "批量与逐点一致 / Batch equals pointwise " + i);
+        }
+        for (int i = 1; i < probs.length; i++) {
+            assertTrue(quantiles[i] > quantiles[i - 1], "分位数单调 / Quantiles increase at " + i);
+        }
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(double expected, double actual, double tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
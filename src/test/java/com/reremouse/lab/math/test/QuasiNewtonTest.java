@@ -0,0 +1,588 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.RereSparseMatrix;
+import com.reremouse.lab.math.ml.cls.RereLogisticRegression;
+import com.reremouse.lab.math.ml.lr.RegressionResult;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import com.reremouse.lab.math.optimize.IDifferentiableFunction;
+import com.reremouse.lab.math.optimize.IGradientFunction;
+import com.reremouse.lab.math.optimize.IObjectiveFunction;
+import com.reremouse.lab.math.optimize.IOptimizationListener;
+import com.reremouse.lab.math.optimize.OptimizationProgress;
+import com.reremouse.lab.math.optimize.OptimizationResult;
+import com.reremouse.lab.math.optimize.RereCachedFunction;
+import com.reremouse.lab.math.optimize.RereLBFGS;
+import com.reremouse.lab.math.optimize.RereLineSearch;
+import com.reremouse.lab.math.optimize.RereNewtonCG;
+import com.reremouse.lab.math.optimize.RereOWLQN;
+import com.reremouse.lab.math.optimize.RereWolfeLineSearch;
+import com.reremouse.lab.util.Tuple2;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 拟牛顿优化器测试：可微函数接口、求值缓存与LBFGS
+ * Test for quasi-Newton optimizers: differentiable functions, evaluation caching and LBFGS
+ */
+public class QuasiNewtonTest {
+
+    public static void main(String[] args) {
+        QuasiNewtonTest test = new QuasiNewtonTest();
+        test.runAllTests();
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行拟牛顿优化器测试 / Starting quasi-Newton optimizer tests");
+        run("testCachedSeparateFunctions", this::testCachedSeparateFunctions);
+        run("testCachedFusedFunction", this::testCachedFusedFunction);
+        run("testLbfgsEvaluatesEachPointOnce", this::testLbfgsEvaluatesEachPointOnce);
+        run("testLbfgsClampsHistoryLength", this::testLbfgsClampsHistoryLength);
+        run("testModelIsDifferentiable", this::testModelIsDifferentiable);
+        run("testWolfeConditions", this::testWolfeConditions);
+        run("testWolfeOnRosenbrock", this::testWolfeOnRosenbrock);
+        run("testBacktrackingLineSearch", this::testBacktrackingLineSearch);
+        run("testOwlqnSoftThreshold", this::testOwlqnSoftThreshold);
+        run("testOwlqnMatchesCoordinateDescent", this::testOwlqnMatchesCoordinateDescent);
+        run("testLogisticL1IsSparse", this::testLogisticL1IsSparse);
+        run("testOptimizationTelemetry", this::testOptimizationTelemetry);
+        run("testListenerStopsEarly", this::testListenerStopsEarly);
+        run("testRelativeDecreaseListener", this::testRelativeDecreaseListener);
+        run("testHessianVectorProducts", this::testHessianVectorProducts);
+        run("testNewtonCGWithDifferences", this::testNewtonCGWithDifferences);
+        run("testNewtonCGOnLogistic", this::testNewtonCGOnLogistic);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void testCachedSeparateFunctions() {
+        int[] calls = new int[2];
+        IObjectiveFunction objFun = x -> {
+            calls[0]++;
+            return x.get(0) * x.get(0) + x.get(1) * x.get(1);
+        };
+        IGradientFunction grdFun = x -> {
+            calls[1]++;
+            return IVector.of(new float[]{2 * x.get(0), 2 * x.get(1)});
+        };
+        RereCachedFunction function = new RereCachedFunction(objFun, grdFun);
+        float[] data = {1.0f, 2.0f};
+        IVector x = IVector.of(data);
+        float[] gradient = new float[2];
+        assertClose(5.0f, function.value(x), 0.0f, "函数值 / Value");
+        assertClose(5.0f, function.value(x), 0.0f, "缓存的函数值 / Cached value");
+        assertTrue(calls[0] == 1 && calls[1] == 0, "只计算函数值 / Only the value is computed");
+        function.gradient(x, gradient);
+        function.gradient(x, gradient);
+        assertTrue(calls[0] == 1 && calls[1] == 1, "梯度只计算一次 / Gradient computed once");
+        assertClose(4.0f, gradient[1], 0.0f, "梯度 / Gradient");
+
+        // 原地修改点的数据后应重新求值 / Data modified in place must be re-evaluated
+        data[0] = 3.0f;
+        assertClose(13.0f, function.value(x), 0.0f, "原地修改后的函数值 / Value after in-place change");
+        assertTrue(calls[0] == 2, "重新求值 / Re-evaluated");
+        assertTrue(function.getValueEvaluations() == 2 && function.getGradientEvaluations() == 1,
+            "求值计数 / Evaluation counts");
+    }
+
+    void testCachedFusedFunction() {
+        int[] calls = new int[1];
+        IDifferentiableFunction quadratic = (x, gradient) -> {
+            calls[0]++;
+            float sum = 0;
+            for (int i = 0; i < gradient.length; i++) {
+                sum += x.get(i) * x.get(i);
+                gradient[i] = 2 * x.get(i);
+            }
+            return sum;
+        };
+        RereCachedFunction function = new RereCachedFunction(quadratic, quadratic);
+        IVector x = IVector.of(new float[]{1.0f, -1.0f, 2.0f});
+        float[] gradient = new float[3];
+        function.value(x);
+        function.gradient(x, gradient);
+        assertClose(6.0f, function.evaluate(x, gradient), 0.0f, "融合求值 / Fused evaluation");
+        assertTrue(calls[0] == 1, "同一点只调用一次 / One call per point: " + calls[0]);
+        assertClose(-2.0f, gradient[1], 0.0f, "梯度 / Gradient");
+        assertClose(6.0f, quadratic.computeObjective(x), 0.0f, "默认的computeObjective / Default computeObjective");
+        assertClose(4.0f, quadratic.computeGradient(x).get(2), 0.0f, "默认的computeGradient / Default computeGradient");
+    }
+
+    void testLbfgsEvaluatesEachPointOnce() {
+        // 记录每次求值的点，不应出现重复 / Record every evaluated point; none may repeat
+        float[] c = {1.0f, 10.0f, 100.0f, 3.0f, 30.0f};
+        List<float[]> points = new ArrayList<>();
+        IDifferentiableFunction function = (x, gradient) -> {
+            points.add(x.getData().clone());
+            float sum = 0;
+            for (int i = 0; i < c.length; i++) {
+                float d = x.get(i) - i;
+                sum += 0.5f * c[i] * d * d;
+                gradient[i] = c[i] * d;
+            }
+            return sum;
+        };
+        Tuple2<Float, IVector> result = new RereLBFGS(5, 1e-5f, 200).optimize(IVector.zeros(c.length), function);
+        for (int i = 0; i < c.length; i++) {
+            assertClose(i, result._2.get(i), 1e-3f, "最优点 / Minimizer");
+        }
+        assertClose(0.0f, result._1, 1e-6f, "最优值 / Minimum");
+        for (int p = 0; p < points.size(); p++) {
+            for (int q = p + 1; q < points.size(); q++) {
+                assertTrue(!Arrays.equals(points.get(p), points.get(q)), "点被重复求值 / Point evaluated twice");
+            }
+        }
+    }
+
+    void testLbfgsClampsHistoryLength() {
+        // 构造函数与setM一样把m限制为至少1 / The constructor clamps m to at least 1 like setM
+        IDifferentiableFunction function = (x, gradient) -> {
+            float d = x.get(0) - 2.0f;
+            gradient[0] = 2.0f * d;
+            return d * d;
+        };
+        for (int m : new int[]{0, -3}) {
+            RereLBFGS lbfgs = new RereLBFGS(m, 1e-5f, 100);
+            assertTrue(lbfgs.getM() == 1, "历史长度 / History length: " + lbfgs.getM());
+            Tuple2<Float, IVector> result = lbfgs.optimize(IVector.zeros(1), function);
+            assertClose(2.0f, result._2.get(0), 1e-3f, "最优点 / Minimizer");
+        }
+    }
+
+    void testModelIsDifferentiable() {
+        Random random = new Random(41);
+        float[][] x = new float[200][3];
+        float[] y = new float[200];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < 3; j++) {
+                x[i][j] = (float) random.nextGaussian();
+            }
+            y[i] = x[i][0] - 2 * x[i][2] + 0.1f * (float) random.nextGaussian();
+        }
+        RereLinearRegression model = new RereLinearRegression(true, 0.0f, 0.1f);
+        model.setSolver(RereLinearRegression.SolverType.LBFGS);
+        model.fit(IMatrix.of(x), IVector.of(y));
+        IVector w = IVector.of(new float[]{0.3f, -0.2f, 0.1f, 0.5f});
+        float[] gradient = new float[4];
+        float value = model.evaluate(w, gradient);
+        assertClose(model.computeObjective(w), value, 0.0f, "融合求值的函数值 / Fused value");
+        float[] expected = model.computeGradient(w).getData();
+        for (int j = 0; j < 4; j++) {
+            assertClose(expected[j], gradient[j], 0.0f, "融合求值的梯度 / Fused gradient");
+        }
+    }
+
+    void testWolfeConditions() {
+        // f(x) = Σ (x_i⁴/4 + x_i²/2)，沿负梯度方向搜索 / Search along the negative gradient
+        IDifferentiableFunction quartic = (x, gradient) -> {
+            float sum = 0;
+            for (int i = 0; i < gradient.length; i++) {
+                float v = x.get(i);
+                sum += v * v * v * v / 4 + v * v / 2;
+                gradient[i] = v * v * v + v;
+            }
+            return sum;
+        };
+        float[] x = {2.0f, -1.5f, 0.5f};
+        float[] grad = new float[3];
+        float value = quartic.evaluate(IVector.of(x), grad);
+        float[] direction = new float[3];
+        for (int i = 0; i < 3; i++) {
+            direction[i] = -grad[i];
+        }
+        IVector trial = IVector.zeros(3);
+        float[] trialGradient = new float[3];
+        float c1 = 1e-4f;
+        float c2 = 0.9f;
+        RereWolfeLineSearch search = new RereWolfeLineSearch(c1, c2, 1.0f, 20);
+        float alpha = search.search(x, value, grad, direction, trial, trialGradient,
+            new RereCachedFunction(quartic));
+        assertTrue(alpha > 0, "步长为正 / Positive step: " + alpha);
+        float slope0 = 0;
+        float slope = 0;
+        for (int i = 0; i < 3; i++) {
+            assertClose(x[i] + alpha * direction[i], trial.get(i), 1e-6f, "试探点 / Trial point");
+            slope0 += grad[i] * direction[i];
+            slope += trialGradient[i] * direction[i];
+        }
+        float trialValue = quartic.computeObjective(trial);
+        assertClose(trialValue, search.getLastValue(), 1e-6f, "接受点的函数值 / Accepted value");
+        assertTrue(trialValue <= value + c1 * alpha * slope0, "充分下降条件 / Sufficient decrease");
+        assertTrue(Math.abs(slope) <= -c2 * slope0, "强曲率条件 / Strong curvature condition");
+        assertTrue(search.getEvaluations() <= 5, "求值次数 / Evaluations: " + search.getEvaluations());
+
+        // 上升方向不移动 / An ascent direction does not move
+        float zero = search.search(x, value, grad, grad, trial, trialGradient, new RereCachedFunction(quartic));
+        assertClose(0.0f, zero, 0.0f, "上升方向的步长 / Step along an ascent direction");
+        assertClose(x[0], trial.get(0), 0.0f, "试探点退回x / Trial falls back to x");
+    }
+
+    void testWolfeOnRosenbrock() {
+        IDifferentiableFunction rosenbrock = (x, gradient) -> {
+            float a = x.get(0);
+            float b = x.get(1);
+            gradient[0] = -2 * (1 - a) - 400 * a * (b - a * a);
+            gradient[1] = 200 * (b - a * a);
+            return (1 - a) * (1 - a) + 100 * (b - a * a) * (b - a * a);
+        };
+        int[] calls = new int[1];
+        IDifferentiableFunction counted = (x, gradient) -> {
+            calls[0]++;
+            return rosenbrock.evaluate(x, gradient);
+        };
+        Tuple2<Float, IVector> result = new RereLBFGS(5, 1e-5f, 500)
+            .optimize(IVector.of(new float[]{-1.2f, 1.0f}), counted);
+        assertClose(1.0f, result._2.get(0), 1e-2f, "x0");
+        assertClose(1.0f, result._2.get(1), 2e-2f, "x1");
+        assertTrue(calls[0] < 200, "求值次数 / Evaluations: " + calls[0]);
+    }
+
+    void testBacktrackingLineSearch() {
+        // 仍可切换回回溯线搜索 / The backtracking search can still be selected
+        IDifferentiableFunction quadratic = (x, gradient) -> {
+            float sum = 0;
+            for (int i = 0; i < gradient.length; i++) {
+                float d = x.get(i) - 1;
+                sum += (i + 1) * d * d;
+                gradient[i] = 2 * (i + 1) * d;
+            }
+            return sum;
+        };
+        RereLBFGS optimizer = new RereLBFGS(5, 1e-5f, 200);
+        optimizer.setLineSearch(RereLineSearch::new);
+        Tuple2<Float, IVector> result = optimizer.optimize(IVector.zeros(4), quadratic);
+        for (int i = 0; i < 4; i++) {
+            assertClose(1.0f, result._2.get(i), 1e-3f, "最优点 / Minimizer");
+        }
+
+        // 上升方向返回0且不移动 / An ascent direction returns 0 and does not move
+        float[] x = {0.5f, -0.5f, 2.0f, 0.0f};
+        float[] grad = new float[4];
+        float value = quadratic.evaluate(IVector.of(x), grad);
+        IVector trial = IVector.zeros(4);
+        float[] trialGradient = new float[4];
+        RereLineSearch search = new RereLineSearch();
+        float zero = search.search(x, value, grad, grad, trial, trialGradient, new RereCachedFunction(quadratic));
+        assertClose(0.0f, zero, 0.0f, "上升方向的步长 / Step along an ascent direction");
+        assertClose(value, search.getLastValue(), 0.0f, "函数值不变 / Value unchanged");
+        for (int i = 0; i < 4; i++) {
+            assertClose(x[i], trial.get(i), 0.0f, "试探点退回x / Trial falls back to x");
+            assertClose(grad[i], trialGradient[i], 0.0f, "梯度退回 / Gradient falls back");
+        }
+    }
+
+    void testOwlqnSoftThreshold() {
+        // min Σ cᵢ(xᵢ - aᵢ)²/2 + λ|xᵢ| 的解为软阈值 aᵢ - sign(aᵢ)·λ/cᵢ（|aᵢ|cᵢ ≤ λ时为0）
+        // The minimizer is the soft threshold aᵢ - sign(aᵢ)·λ/cᵢ, or 0 when |aᵢ|cᵢ ≤ λ
+        float[] c = {1.0f, 4.0f, 0.5f, 2.0f, 10.0f};
+        float[] target = {2.0f, -0.1f, -3.0f, 0.2f, 1.0f};
+        IDifferentiableFunction smooth = (x, gradient) -> {
+            float sum = 0;
+            for (int i = 0; i < c.length; i++) {
+                float d = x.get(i) - target[i];
+                sum += 0.5f * c[i] * d * d;
+                gradient[i] = c[i] * d;
+            }
+            return sum;
+        };
+        float lambda = 0.5f;
+        Tuple2<Float, IVector> result = new RereOWLQN(lambda, 5, 1e-6f, 200).optimize(IVector.zeros(c.length), smooth);
+        float expectedValue = 0;
+        for (int i = 0; i < c.length; i++) {
+            float shrink = lambda / c[i];
+            float expected = Math.abs(target[i]) <= shrink ? 0.0f : target[i] - Math.signum(target[i]) * shrink;
+            if (expected == 0.0f) {
+                assertTrue(result._2.get(i) == 0.0f, "精确为0 / Exactly zero: " + result._2.get(i));
+            } else {
+                assertClose(expected, result._2.get(i), 1e-4f, "软阈值 / Soft threshold " + i);
+            }
+            float d = expected - target[i];
+            expectedValue += 0.5f * c[i] * d * d + lambda * Math.abs(expected);
+        }
+        assertClose(expectedValue, result._1, 1e-5f, "最优值包含L1项 / Optimum includes the L1 term");
+
+        // 不受约束的分量（例如偏置）不被压缩 / Components outside the L1 range are not shrunk
+        RereOWLQN partial = new RereOWLQN(lambda, 5, 1e-6f, 200);
+        partial.setL1Range(0, 3);
+        IVector x = partial.optimize(IVector.zeros(c.length), smooth)._2;
+        assertClose(target[3], x.get(3), 1e-4f, "范围外的分量 / Component outside the range");
+        assertClose(target[4], x.get(4), 1e-4f, "范围外的分量 / Component outside the range");
+        assertTrue(x.get(1) == 0.0f, "范围内的分量 / Component inside the range");
+    }
+
+    void testOwlqnMatchesCoordinateDescent() {
+        Random random = new Random(43);
+        int n = 500;
+        int d = 40;
+        float[][] x = new float[n][d];
+        float[] y = new float[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                x[i][j] = (float) random.nextGaussian();
+            }
+            y[i] = 3 * x[i][0] - 2 * x[i][5] + x[i][17] + 0.1f * (float) random.nextGaussian();
+        }
+        RereLinearRegression cd = new RereLinearRegression(true, 0.05f, 0.01f);
+        cd.setSolver(RereLinearRegression.SolverType.COORDINATE_DESCENT);
+        RegressionResult expected = cd.fit(IMatrix.of(x), IVector.of(y));
+
+        // 默认LBFGS在存在L1时改用OWL-QN / The default LBFGS switches to OWL-QN under L1
+        RereLinearRegression owlqn = new RereLinearRegression(true, 0.05f, 0.01f);
+        owlqn.setSolver(RereLinearRegression.SolverType.LBFGS);
+        RegressionResult actual = owlqn.fit(IMatrix.of(x), IVector.of(y));
+        assertClose(expected.getLoss(), actual.getLoss(), 1e-4f, "目标函数值 / Objective");
+        for (int j = 0; j < d; j++) {
+            float w = actual.getWeights().get(j);
+            assertClose(expected.getWeights().get(j), w, 2e-3f, "权重 / Weight " + j);
+            assertTrue((w == 0.0f) == (expected.getWeights().get(j) == 0.0f), "零模式一致 / Same zero pattern " + j);
+        }
+        assertClose(owlqn.computeObjective(owlqn.getFullWeights()), actual.getLoss(), 1e-6f,
+            "训练后的目标函数包含L1项 / Objective includes the L1 term after training");
+    }
+
+    void testLogisticL1IsSparse() {
+        Random random = new Random(47);
+        int n = 1000;
+        int d = 30;
+        float[][] x = new float[n][d];
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                x[i][j] = (float) random.nextGaussian();
+            }
+            labels[i] = 2 * x[i][0] - x[i][3] + 0.3f * random.nextGaussian() > 0 ? "yes" : "no";
+        }
+        RereLogisticRegression model = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.02f, 0.0f);
+        IVector weights = model.fit(IMatrix.of(x), labels).getWeights();
+        int nonZero = 0;
+        for (int j = 0; j < d; j++) {
+            if (weights.get(j) != 0.0f) {
+                nonZero++;
+            }
+        }
+        assertTrue(weights.get(0) != 0.0f && weights.get(3) != 0.0f, "相关特征被保留 / Relevant features kept");
+        assertTrue(nonZero <= 5, "权重稀疏 / Sparse weights: " + nonZero);
+        String[] predicted = model.predictBatch(IMatrix.of(x));
+        int correct = 0;
+        for (int i = 0; i < n; i++) {
+            if (predicted[i].equals(labels[i])) {
+                correct++;
+            }
+        }
+        assertTrue(correct > 0.9 * n, "准确率 / Accuracy: " + correct);
+    }
+
+    void testOptimizationTelemetry() {
+        float[] c = {1.0f, 10.0f, 100.0f};
+        IDifferentiableFunction quadratic = (x, gradient) -> {
+            float sum = 0;
+            for (int i = 0; i < c.length; i++) {
+                float d = x.get(i) - 1;
+                sum += 0.5f * c[i] * d * d;
+                gradient[i] = c[i] * d;
+            }
+            return sum;
+        };
+        List<OptimizationProgress> seen = new ArrayList<>();
+        RereLBFGS optimizer = new RereLBFGS(5, 1e-4f, 100);
+        optimizer.setListener(seen::add);
+        OptimizationResult result = optimizer.optimize(IVector.zeros(3), quadratic);
+        assertTrue(result.getStopReason() == OptimizationResult.StopReason.CONVERGED,
+            "停止原因 / Stop reason: " + result.getStopReason());
+        assertTrue(seen.size() == result.getIterations() + 1, "每次迭代通知一次 / One notification per iteration");
+        float[] values = result.getValueTrace();
+        float[] norms = result.getGradientNormTrace();
+        assertTrue(values.length == seen.size() && norms.length == seen.size(), "曲线长度 / Trace length");
+        assertClose(result.getValue(), values[values.length - 1], 0.0f, "曲线末尾为最优值 / Trace ends at the optimum");
+        assertTrue(norms[norms.length - 1] < 1e-4f, "收敛时的梯度范数 / Gradient norm at convergence");
+        for (int k = 1; k < values.length; k++) {
+            assertTrue(values[k] <= values[k - 1], "函数值单调下降 / Values decrease");
+            assertTrue(seen.get(k).getIteration() == k && seen.get(k).getStep() > 0, "迭代进度 / Iteration progress");
+        }
+        // 融合求值：梯度不单独计算 / Fused evaluation: no separate gradient calls
+        assertTrue(result.getValueEvaluations() >= result.getIterations() + 1, "求值次数 / Evaluations");
+        assertTrue(result.getLineSearchEvaluations() == result.getValueEvaluations() - 1,
+            "除初始点外都是线搜索求值 / All but the initial evaluation come from line searches");
+        assertTrue(result.getElapsedNanos() >= result.getLineSearchNanos()
+            && result.getLineSearchNanos() >= 0 && result.getDirectionNanos() >= 0, "阶段耗时 / Phase times");
+
+        optimizer.setMaxIterations(2);
+        OptimizationResult limited = optimizer.optimize(IVector.zeros(3), quadratic);
+        assertTrue(limited.getStopReason() == OptimizationResult.StopReason.MAX_ITERATIONS
+            && limited.getIterations() == 2, "最大迭代次数 / Maximum iterations");
+    }
+
+    void testListenerStopsEarly() {
+        IDifferentiableFunction rosenbrock = (x, gradient) -> {
+            float a = x.get(0);
+            float b = x.get(1);
+            gradient[0] = -2 * (1 - a) - 400 * a * (b - a * a);
+            gradient[1] = 200 * (b - a * a);
+            return (1 - a) * (1 - a) + 100 * (b - a * a) * (b - a * a);
+        };
+        RereLBFGS lbfgs = new RereLBFGS(5, 1e-6f, 500);
+        lbfgs.setListener(progress -> progress.getIteration() < 3);
+        OptimizationResult result = lbfgs.optimize(IVector.of(new float[]{-1.2f, 1.0f}), rosenbrock);
+        assertTrue(result.getStopReason() == OptimizationResult.StopReason.STOPPED, "监听器停止 / Stopped by listener");
+        assertTrue(result.getIterations() == 3, "迭代次数 / Iterations: " + result.getIterations());
+
+        // OWL-QN与组合监听器 / OWL-QN and combined listeners
+        int[] calls = new int[2];
+        RereOWLQN owlqn = new RereOWLQN(0.01f, 5, 1e-6f, 500);
+        owlqn.setListener(((IOptimizationListener) p -> ++calls[0] > 0).and(p -> ++calls[1] <= 5));
+        OptimizationResult owl = owlqn.optimize(IVector.of(new float[]{-1.2f, 1.0f}), rosenbrock);
+        assertTrue(owl.getStopReason() == OptimizationResult.StopReason.STOPPED && owl.getIterations() == 5,
+            "组合监听器停止 / Stopped by the combined listener");
+        assertTrue(calls[0] == 6 && calls[1] == 6, "两个监听器都被调用 / Both listeners called");
+    }
+
+    void testRelativeDecreaseListener() {
+        IOptimizationListener listener = IOptimizationListener.relativeDecrease(1e-3f, 2);
+        float[] values = {10.0f, 5.0f, 4.999f, 4.998f, 4.997f};
+        boolean[] expected = {true, true, true, false, false};
+        listener.onStart();
+        for (int k = 0; k < values.length; k++) {
+            boolean go = listener.onIteration(new OptimizationProgress(k, values[k], 1.0f, 1.0f, 1, k + 1, k + 1, 0));
+            assertTrue(go == expected[k], "第" + k + "次 / Iteration " + k);
+        }
+        // onStart重置状态 / onStart resets the state
+        listener.onStart();
+        assertTrue(listener.onIteration(new OptimizationProgress(0, 4.997f, 1.0f, 1.0f, 1, 1, 1, 0)), "重置 / Reset");
+        assertTrue(!IOptimizationListener.timeLimit(1).onIteration(
+            new OptimizationProgress(0, 1.0f, 1.0f, 1.0f, 1, 1, 1, 2_000_000L)), "时间上限 / Time limit");
+    }
+
+    void testHessianVectorProducts() {
+        Random random = new Random(59);
+        int n = 300;
+        int d = 5;
+        float[][] x = new float[n][d];
+        String[] binary = new String[n];
+        String[] multi = new String[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                x[i][j] = random.nextFloat() < 0.4f ? 0.0f : (float) random.nextGaussian();
+            }
+            binary[i] = x[i][0] + 0.5f * random.nextGaussian() > 0 ? "a" : "b";
+            multi[i] = "c" + random.nextInt(3);
+        }
+        for (String[] labels : new String[][]{binary, multi}) {
+            RereLogisticRegression dense = new RereLogisticRegression(0.01f, 5, 1e-6f, 0.0f, 0.05f);
+            dense.fit(IMatrix.of(x), labels);
+            RereLogisticRegression sparse = new RereLogisticRegression(0.01f, 5, 1e-6f, 0.0f, 0.05f);
+            sparse.fit(RereSparseMatrix.of(IMatrix.of(x)), labels);
+            int paramCount = dense.isBinaryClassification() ? d + 1 : dense.getNumClasses() * (d + 1);
+            float[] w = new float[paramCount];
+            float[] v = new float[paramCount];
+            for (int j = 0; j < paramCount; j++) {
+                w[j] = 0.5f * (float) random.nextGaussian();
+                v[j] = (float) random.nextGaussian();
+            }
+            float[] product = new float[paramCount];
+            dense.hessianVector(IVector.of(w), v, product);
+            float[] sparseProduct = new float[paramCount];
+            sparse.hessianVector(IVector.of(w), v, sparseProduct);
+            // 与梯度的中心差分比较 / Compare with central differences of the gradient
+            float epsilon = 1e-2f;
+            float[] plus = new float[paramCount];
+            float[] minus = new float[paramCount];
+            for (int j = 0; j < paramCount; j++) {
+                plus[j] = w[j] + epsilon * v[j];
+                minus[j] = w[j] - epsilon * v[j];
+            }
+            float[] gradientPlus = dense.computeGradient(IVector.of(plus)).getData();
+            float[] gradientMinus = dense.computeGradient(IVector.of(minus)).getData();
+            for (int j = 0; j < paramCount; j++) {
+                float expected = (gradientPlus[j] - gradientMinus[j]) / (2 * epsilon);
+                assertClose(expected, product[j], 2e-3f * (1 + Math.abs(expected)), "H·v " + j);
+                assertClose(product[j], sparseProduct[j], 1e-5f, "稀疏与稠密一致 / Sparse matches dense " + j);
+            }
+            // 同一点上的第二次乘积复用曲率权重 / A second product at the same point reuses the curvature
+            float[] again = new float[paramCount];
+            dense.hessianVector(IVector.of(w), v, again);
+            assertTrue(Arrays.equals(product, again), "重复乘积一致 / Repeated product is identical");
+        }
+    }
+
+    void testNewtonCGWithDifferences() {
+        // 没有Hessian-向量积时使用梯度差分 / Gradient differences when no Hessian-vector product is available
+        IDifferentiableFunction rosenbrock = (x, gradient) -> {
+            float a = x.get(0);
+            float b = x.get(1);
+            gradient[0] = -2 * (1 - a) - 400 * a * (b - a * a);
+            gradient[1] = 200 * (b - a * a);
+            return (1 - a) * (1 - a) + 100 * (b - a * a) * (b - a * a);
+        };
+        OptimizationResult result = new RereNewtonCG(1e-4f, 200)
+            .optimize(IVector.of(new float[]{-1.2f, 1.0f}), rosenbrock, rosenbrock);
+        assertClose(1.0f, result._2.get(0), 1e-2f, "x0");
+        assertClose(1.0f, result._2.get(1), 2e-2f, "x1");
+        assertTrue(result.getStopReason() != OptimizationResult.StopReason.MAX_ITERATIONS, "收敛 / Converged: " + result);
+    }
+
+    void testNewtonCGOnLogistic() {
+        // 特征尺度相差四个数量级的病态问题 / Ill-conditioned problem with feature scales four decades apart
+        Random random = new Random(61);
+        int n = 2000;
+        int d = 20;
+        float[][] x = new float[n][d];
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) {
+            float score = 0.0f;
+            for (int j = 0; j < d; j++) {
+                float z = (float) random.nextGaussian();
+                x[i][j] = z * (float) Math.pow(10, (j % 5) - 2);
+                score += (j % 3 == 0 ? 1 : -0.5f) * z;
+            }
+            labels[i] = score + random.nextGaussian() > 0 ? "yes" : "no";
+        }
+        RereLogisticRegression lbfgs = new RereLogisticRegression(0.01f, 1000, 1e-6f, 0.0f, 1e-3f);
+        lbfgs.setSeed(8L);
+        float lbfgsLoss = lbfgs.fit(IMatrix.of(x), labels).getLoss();
+
+        // 线搜索方式不受特征尺度影响 / The line search mode is unaffected by feature scales
+        RereLogisticRegression newton = new RereLogisticRegression(0.01f, 1000, 1e-6f, 0.0f, 1e-3f);
+        newton.setSeed(8L);
+        RereNewtonCG optimizer = new RereNewtonCG(1e-5f, 100);
+        optimizer.setGlobalization(RereNewtonCG.Globalization.LINE_SEARCH);
+        int[] iterations = new int[1];
+        optimizer.setListener(progress -> {
+            iterations[0] = progress.getIteration();
+            return true;
+        });
+        newton.setOptimizer(optimizer);
+        float newtonLoss = newton.fit(IMatrix.of(x), labels).getLoss();
+        assertTrue(iterations[0] <= 25, "外层迭代次数 / Outer iterations: " + iterations[0]);
+        assertTrue(newtonLoss <= lbfgsLoss + 1e-5f, "不差于LBFGS / No worse than LBFGS: " + newtonLoss + " vs " + lbfgsLoss);
+
+        // 默认的信赖域收敛到同一点 / The default trust region converges to the same point
+        RereLogisticRegression trust = new RereLogisticRegression(0.01f, 1000, 1e-6f, 0.0f, 1e-3f);
+        trust.setSeed(8L);
+        trust.setOptimizer(new RereNewtonCG(1e-5f, 100));
+        assertClose(newtonLoss, trust.fit(IMatrix.of(x), labels).getLoss(), 1e-5f, "信赖域的损失 / Trust-region loss");
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.dimreduce.RereTSNE;
+import com.reremouse.lab.math.dimreduce.RereUMAP;
+import com.reremouse.lab.math.ml.cls.RereLogisticRegression;
+import com.reremouse.lab.math.ml.selection.CrossValidation;
+import com.reremouse.lab.math.ml.selection.Fold;
+import com.reremouse.lab.util.RereRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * 随机数来源测试：按块分裂的并行流、随机矩阵工厂、t-SNE、UMAP与逻辑回归在固定种子下的可复现性
+ * Test for random sources: block-split parallel streams, random matrix factories, and reproducibility of t-SNE,
+ * UMAP and logistic regression under a fixed seed
+ */
+public class RandomSourceTest {
+
+    public static void main(String[] args) {
+        RandomSourceTest test = new RandomSourceTest();
+        test.runAllTests();
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行随机数来源测试 / Starting random source tests");
+        run("testParallelForMatchesSequential", this::testParallelForMatchesSequential);
+        run("testFactories", this::testFactories);
+        run("testSeededOverloadsUnchanged", this::testSeededOverloadsUnchanged);
+        run("testTSNEReproducible", this::testTSNEReproducible);
+        run("testUMAPReproducible", this::testUMAPReproducible);
+        run("testLogisticRegressionReproducible", this::testLogisticRegressionReproducible);
+        run("testInvalidArguments", this::testInvalidArguments);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void testParallelForMatchesSequential() {
+        int n = 100_003;
+        int block = 1000;
+        double[] parallel = new double[n];
+        RereRandom.parallelFor(0, n, block, 42L, (from, to, rng) -> {
+            for (int i = from; i < to; i++) {
+                parallel[i] = rng.nextDouble();
+            }
+        });
+        // 顺序地逐块分裂得到的参考结果 / Reference from splitting block by block in order
+        double[] sequential = new double[n];
+        SplittableGenerator root = RereRandom.create(42L);
+        for (int from = 0; from < n; from += block) {
+            RandomGenerator rng = root.split();
+            for (int i = from; i < Math.min(n, from + block); i++) {
+                sequential[i] = rng.nextDouble();
+            }
+        }
+        assertTrue(Arrays.equals(parallel, sequential),
+            "并行结果与顺序参考一致 / Parallel matches sequential reference");
+        int[] counts = new int[1];
+        RereRandom.parallelFor(5, 5, block, 1L, (from, to, rng) -> counts[0]++);
+        assertTrue(counts[0] == 0, "空区间不执行任务 / Empty range runs no task");
+    }
+
+    void testFactories() {
+        IMatrix a = IMatrix.rand(7, 5, RereRandom.create(3));
+        IMatrix b = IMatrix.rand(7, 5, RereRandom.create(3));
+        IMatrix c = IMatrix.randn(7, 5, 2.0f, 0.5f, RereRandom.create(3));
+        IMatrix d = IMatrix.randn(7, 5, 2.0f, 0.5f, RereRandom.create(3));
+        assertTrue(Arrays.deepEquals(a.getData(), b.getData()), "rand可复现 / rand reproduces");
+        assertTrue(Arrays.deepEquals(c.getData(), d.getData()), "randn可复现 / randn reproduces");
+        IVector u = IVector.rand(50, RereRandom.create(9));
+        IVector v = IVector.rand(50, RereRandom.create(9));
+        IVector w = IVector.randn(50, 0.0f, 1.0f, RereRandom.create(9));
+        IVector z = IVector.randn(50, 0.0f, 1.0f, RereRandom.create(9));
+        assertTrue(Arrays.equals(u.getData(), v.getData()) && Arrays.equals(w.getData(), z.getData()),
+            "向量工厂可复现 / Vector factories reproduce");
+        for (float x : a.getData()[0]) {
+            assertTrue(x >= 0.0f && x < 1.0f, "均匀分布取值范围 / Uniform range: " + x);
+        }
+    }
+
+    void testSeededOverloadsUnchanged() {
+        // 已有的long种子重载仍然基于java.util.Random / Existing long-seed overloads still use java.util.Random
+        Random reference = new Random(17);
+        float[][] data = IMatrix.rand(4, 6, 17L).getData();
+        for (float[] row : data) {
+            for (float x : row) {
+                assertTrue(x == reference.nextFloat(), "rand(rows, cols, seed)");
+            }
+        }
+        reference = new Random(17);
+        data = IMatrix.randn(4, 6, 17L).getData();
+        for (float[] row : data) {
+            for (float x : row) {
+                assertTrue(x == (float) reference.nextGaussian(), "randn(rows, cols, seed)");
+            }
+        }
+        // 本库新增的long种子重载使用RereRandom / Long-seed overloads added by this library use RereRandom
+        List<Fold> seeded = CrossValidation.kFold(40, 4, 5L);
+        List<Fold> explicit = CrossValidation.kFold(40, 4, RereRandom.create(5L));
+        for (int f = 0; f < seeded.size(); f++) {
+            assertTrue(Arrays.equals(seeded.get(f).getTestIndices(), explicit.get(f).getTestIndices()),
+                "kFold种子与生成器一致 / kFold seed matches generator at fold " + f);
+        }
+    }
+
+    void testTSNEReproducible() {
+        IMatrix x = IMatrix.randn(12, 4, 5L);
+        RereTSNE first = new RereTSNE();
+        RereTSNE second = new RereTSNE();
+        first.setSeed(7L);
+        second.setSeed(7L);
+        float[][] a = first.dimensionReduction(x, 2).getData();
+        float[][] b = second.dimensionReduction(x, 2).getData();
+        assertTrue(Arrays.deepEquals(a, b), "相同种子的t-SNE结果相同 / t-SNE with the same seed gives the same embedding");
+    }
+
+    void testUMAPReproducible() {
+        IMatrix x = IMatrix.randn(30, 4, 6L);
+        RereUMAP first = new RereUMAP();
+        RereUMAP second = new RereUMAP();
+        first.setRandom(RereRandom.create(11L));
+        second.setSeed(11L);
+        float[][] a = first.dimensionReduction(x, 2).getData();
+        float[][] b = second.dimensionReduction(x, 2).getData();
+        assertTrue(Arrays.deepEquals(a, b), "相同种子的UMAP结果相同 / UMAP with the same seed gives the same embedding");
+    }
+
+    void testLogisticRegressionReproducible() {
+        Random random = new Random(31);
+        int n = 3000;
+        float[][] features = new float[n][5];
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 5; j++) {
+                features[i][j] = (float) random.nextGaussian();
+            }
+            float score = features[i][0] - 0.7f * features[i][3] + 0.4f * (float) random.nextGaussian();
+            labels[i] = score < -0.5f ? "a" : score < 0.5f ? "b" : "c";
+        }
+        IMatrix x = IMatrix.of(features);
+        RereLogisticRegression first = new RereLogisticRegression();
+        RereLogisticRegression second = new RereLogisticRegression();
+        first.setSeed(13L);
+        second.setSeed(13L);
+        first.fit(x, labels);
+        second.fit(x, labels);
+        assertTrue(Arrays.deepEquals(first.getWeights().getData(), second.getWeights().getData()),
+            "相同种子的权重相同 / Same seed gives the same weights");
+        assertTrue(Arrays.equals(first.getBias().getData(), second.getBias().getData()),
+            "相同种子的偏置相同 / Same seed gives the same bias");
+    }
+
+    void testInvalidArguments() {
+        try {
+            IMatrix.rand(2, 2, (RandomGenerator) null);
+            throw new AssertionError("空生成器应抛出异常 / Null generator should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            new RereTSNE().setRandom(null);
+            throw new AssertionError("空生成器应抛出异常 / Null generator should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            RereRandom.parallelFor(0, 10, 0, 1L, (from, to, rng) -> { });
+            throw new AssertionError("块长度为0应抛出异常 / Zero block length should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        RandomGenerator legacy = new Random(1);
+        assertTrue(RereRandom.splittable(legacy) != null, "非可分裂生成器可转换 / Non-splittable generator converts");
+        SplittableGenerator root = RereRandom.create(1);
+        assertTrue(RereRandom.splittable(root) == root, "可分裂生成器原样返回 / Splittable generator returned as is");
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
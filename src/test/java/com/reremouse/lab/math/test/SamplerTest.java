@@ -0,0 +1,226 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.stat.distribution.*;
+import com.reremouse.lab.util.RereRandom;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.random.RandomGenerator;
+
+/**
+ * 随机变量生成测试：各分布样本的矩、泊松与二项分布的频率、种子可复现性以及参数检查
+ * Test for random variate generation: sample moments, Poisson and binomial frequencies, seed reproducibility and
+ * argument checks
+ */
+public class SamplerTest {
+
+    private static final int N = 200_000;
+
+    public static void main(String[] args) {
+        SamplerTest test = new SamplerTest();
+        test.runAllTests();
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行随机变量生成测试 / Starting sampler tests");
+        run("testContinuousMoments", this::testContinuousMoments);
+        run("testDiscreteMoments", this::testDiscreteMoments);
+        run("testFrequencies", this::testFrequencies);
+        run("testReproducibility", this::testReproducibility);
+        run("testInverseTransformDefault", this::testInverseTransformDefault);
+        run("testInvalidArguments", this::testInvalidArguments);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void testContinuousMoments() {
+        IContinuousDistribution[] dists = {
+            new NormalDistribution(1.5f, 2.0f),
+            new ExponentialDistribution(0.7f),
+            new UniformDistribution(-1.0f, 3.0f),
+            new GammaDistribution(0.4f, 2.0f),
+            new GammaDistribution(7.5f, 0.5f),
+            new BetaDistribution(0.5f, 0.5f),
+            new BetaDistribution(2.0f, 5.0f),
+            new Chi2Distribution(3.0f),
+            new StudentDistribution(6.0f),
+            new FDistribution(5.0f, 12.0f)
+        };
+        long seed = 11;
+        for (IContinuousDistribution dist : dists) {
+            float[] x = dist.sample(N, seed++);
+            double sum = 0;
+            for (float v : x) {
+                sum += v;
+            }
+            double mean = sum / N;
+            double ss = 0;
+            for (float v : x) {
+                ss += (v - mean) * (v - mean);
+            }
+            double var = ss / (N - 1);
+            String name = dist.toString();
+            assertClose(dist.mean(), mean, 5 * Math.sqrt(dist.var() / N), name + " 均值 / mean");
+            assertClose(dist.var(), var, 0.05 * dist.var(), name + " 方差 / variance");
+        }
+    }
+
+    void testDiscreteMoments() {
+        IDiscreteDistribution[] dists = {
+            new PoissonDistribution(3.5f),
+            new PoissonDistribution(250.0f),
+            new BinomialDistribution(20, 0.3f),
+            new BinomialDistribution(1000, 0.6f),
+            new BernoulliDistribution(0.4f),
+            new DiscreteUniformDistribution(-3, 7),
+            new GeometricDistribution(0.2f),
+            new NegativeBinomialDistribution(4, 0.3f)
+        };
+        long seed = 101;
+        for (IDiscreteDistribution dist : dists) {
+            int[] x = dist.sample(N, seed++);
+            double sum = 0;
+            for (int v : x) {
+                sum += v;
+                assertTrue(dist.isInSupport(v), dist.getDistributionName() + " 样本在支持区间内 / sample in support: " + v);
+            }
+            double mean = sum / N;
+            double ss = 0;
+            for (int v : x) {
+                ss += (v - mean) * (v - mean);
+            }
+            double var = ss / (N - 1);
+            String name = dist.getDistributionName() + dist.getParameterInfo();
+            assertClose(dist.mean(), mean, 5 * Math.sqrt(dist.var() / N), name + " 均值 / mean");
+            assertClose(dist.var(), var, 0.05 * dist.var(), name + " 方差 / variance");
+        }
+    }
+
+    void testFrequencies() {
+        // PTRS与BTPE只在较大参数时启用，逐点比较经验频率与概率质量
+        // PTRS and BTPE are only used for larger parameters; compare empirical frequencies with the pmf pointwise
+        IDiscreteDistribution[] dists = {
+            new PoissonDistribution(40.0f),
+            new BinomialDistribution(200, 0.45f)
+        };
+        for (IDiscreteDistribution dist : dists) {
+            int[] x = dist.sample(N, 2024);
+            int[] counts = new int[1024];
+            for (int v : x) {
+                counts[v]++;
+            }
+            for (int k = 0; k < counts.length; k++) {
+                double expected = dist.pmf(k);
+                double observed = (double) counts[k] / N;
+                assertClose(expected, observed, 5 * Math.sqrt(expected / N) + 1e-5,
+                    dist.getDistributionName() + " 频率 / frequency at " + k);
+            }
+        }
+    }
+
+    void testReproducibility() {
+        GammaDistribution gamma = new GammaDistribution(2.5f, 1.5f);
+        float[] a = gamma.sample(50_000, 7L);
+        float[] b = gamma.sample(50_000, 7L);
+        float[] prefix = gamma.sample(1000, 7L);
+        for (int i = 0; i < a.length; i++) {
+            assertTrue(a[i] == b[i], "相同种子结果相同 / Same seed, same samples at " + i);
+        }
+        // 每块的流只取决于种子和块号，与样本总数无关 / Each block's stream depends only on the seed and block index
+        for (int i = 0; i < prefix.length; i++) {
+            assertTrue(prefix[i] == a[i], "前缀一致 / Prefix matches at " + i);
+        }
+        float[] c = gamma.sample(50_000, 8L);
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == c[i]) {
+                same++;
+            }
+        }
+        assertTrue(same < 10, "不同种子结果不同 / Different seeds differ: " + same);
+
+        PoissonDistribution poisson = new PoissonDistribution(60.0f);
+        RandomGenerator r1 = RereRandom.create(99);
+        RandomGenerator r2 = RereRandom.create(99);
+        int[] p1 = new int[2000];
+        int[] p2 = new int[2000];
+        poisson.sample(p1, r1);
+        poisson.sample(p2, r2);
+        for (int i = 0; i < p1.length; i++) {
+            assertTrue(p1[i] == p2[i], "相同生成器结果相同 / Same generator, same samples at " + i);
+        }
+        assertTrue(new NormalDistribution().sample(RereRandom.create(5))
+            == new NormalDistribution().sample(RereRandom.create(5)), "逐个采样可复现 / Single draws reproduce");
+    }
+
+    void testInverseTransformDefault() {
+        // 只实现ppf的外部分布经默认的逆变换法采样 / An external distribution implementing only ppf samples through the
+        // default inverse transform
+        float rate = 2.0f;
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            if (method.getName().equals("ppf")) {
+                return (float) (-Math.log1p(-(Float) args[0]) / rate);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        };
+        IContinuousDistribution exponential = (IContinuousDistribution) Proxy.newProxyInstance(
+            IContinuousDistribution.class.getClassLoader(), new Class<?>[]{IContinuousDistribution.class}, handler);
+        float[] x = exponential.sample(N, 5L);
+        double sum = 0;
+        for (float v : x) {
+            assertTrue(v >= 0 && Float.isFinite(v), "样本在支持区间内 / Sample in support: " + v);
+            sum += v;
+        }
+        assertClose(1.0 / rate, sum / N, 5 * Math.sqrt(1.0 / (rate * rate * N)), "逆变换的均值 / Inverse transform mean");
+        assertTrue(exponential.sample(RereRandom.create(3)) == exponential.sample(RereRandom.create(3)),
+            "逆变换可复现 / Inverse transform reproduces");
+    }
+
+    void testInvalidArguments() {
+        RandomGenerator rng = RereRandom.create(1);
+        try {
+            RereSampler.nextGamma(rng, 0.0);
+            throw new AssertionError("形状参数为0应抛出异常 / Zero shape should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            RereSampler.nextBinomial(rng, 10, 1.5);
+            throw new AssertionError("概率越界应抛出异常 / Probability out of range should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        try {
+            new NormalDistribution().sample(0);
+            throw new AssertionError("样本数量为0应抛出异常 / Zero sample size should throw");
+        } catch (IllegalArgumentException e) {
+            // 期望的异常 / Expected
+        }
+        assertTrue(RereSampler.nextPoisson(rng, 0.0) == 0, "λ = 0");
+        assertTrue(RereSampler.nextBinomial(rng, 10, 1.0) == 10, "p = 1");
+        assertTrue(new NormalDistribution().sample(0, 3L).length == 0, "空样本 / Empty sample");
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(double expected, double actual, double tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
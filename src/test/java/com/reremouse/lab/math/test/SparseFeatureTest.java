@@ -0,0 +1,347 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.RereSparseMatrix;
+import com.reremouse.lab.math.data.Column;
+import com.reremouse.lab.math.data.ColumnType;
+import com.reremouse.lab.math.data.DataFrame;
+import com.reremouse.lab.math.data.FeatureHasher;
+import com.reremouse.lab.math.data.FloatColumnData;
+import com.reremouse.lab.math.ml.cls.RereLogisticRegression;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import com.reremouse.lab.math.optimize.RereLBFGS;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 稀疏特征测试：CSR矩阵、特征哈希与稀疏线性/逻辑回归
+ * Test for sparse features: CSR matrix, feature hashing and sparse linear/logistic regression
+ */
+public class SparseFeatureTest {
+
+    private float[][] dense;
+    private float[] targets;
+    private String[] binaryLabels;
+    private String[] multiLabels;
+
+    public static void main(String[] args) {
+        SparseFeatureTest test = new SparseFeatureTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        // 约80%为零的合成数据 / Synthetic data with about 80% zeros
+        Random random = new Random(38);
+        int n = 3000;
+        int d = 40;
+        dense = new float[n][d];
+        targets = new float[n];
+        binaryLabels = new String[n];
+        multiLabels = new String[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+                if (random.nextFloat() < 0.2f) {
+                    dense[i][j] = (float) random.nextGaussian();
+                }
+            }
+            float score = 2.0f * dense[i][0] - dense[i][1] + dense[i][5] + 0.2f * (float) random.nextGaussian();
+            targets[i] = score + 0.5f;
+            binaryLabels[i] = score > 0 ? "click" : "skip";
+            multiLabels[i] = score < -0.5f ? "low" : score < 0.5f ? "mid" : "high";
+        }
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行稀疏特征测试 / Starting sparse feature tests");
+        run("testCsrStructure", this::testCsrStructure);
+        run("testFeatureHasher", this::testFeatureHasher);
+        run("testSparseLinearRegression", this::testSparseLinearRegression);
+        run("testSparseLogisticKernel", this::testSparseLogisticKernel);
+        run("testSparseMiniBatchGradient", this::testSparseMiniBatchGradient);
+        run("testSparseFtrlMatchesDense", this::testSparseFtrlMatchesDense);
+        run("testHashedHighDimensionalFit", this::testHashedHighDimensionalFit);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void testCsrStructure() {
+        float[][] data = {{0, 2, 0, 1}, {0, 0, 0, 0}, {3, 0, 4, 0}};
+        RereSparseMatrix m = RereSparseMatrix.of(IMatrix.of(data));
+        assertTrue(m.getNonZeroCount() == 4, "非零元素个数 / Non-zero count");
+        assertClose(4.0f, m.get(2, 2), 0.0f, "元素 / Element");
+        assertClose(0.0f, m.get(1, 3), 0.0f, "零元素 / Zero element");
+        assertClose(2.0f * 5 + 1.0f * 7, m.rowDot(0, new float[]{1, 5, 6, 7}), 1e-6f, "行点积 / Row dot");
+        float[] product = m.multiply(IVector.of(new float[]{1, 1, 1, 1})).getData();
+        assertClose(7.0f, product[2], 1e-6f, "矩阵向量乘法 / Matrix-vector product");
+
+        RereSparseMatrix t = m.transpose();
+        assertTrue(t.getRowNum() == 4 && t.getColNum() == 3, "转置形状 / Transpose shape");
+        for (int i = 0; i < data.length; i++) {
+            for (int j = 0; j < data[0].length; j++) {
+                assertClose(data[i][j], t.get(j, i), 0.0f, "转置元素 / Transposed element");
+                assertClose(data[i][j], m.toDense().get(i, j), 0.0f, "稠密化 / Densified");
+            }
+        }
+        try {
+            new RereSparseMatrix(1, 4, new int[]{0, 2}, new int[]{3, 1}, new float[]{1, 1});
+            throw new AssertionError("应拒绝未排序的列号 / Unsorted columns should be rejected");
+        } catch (IllegalArgumentException expectedException) {
+            // 期望的异常 / Expected
+        }
+    }
+
+    void testFeatureHasher() {
+        DataFrame frame = new DataFrame();
+        List<Object> city = new ArrayList<>();
+        List<Object> device = new ArrayList<>();
+        city.add("beijing");
+        city.add("shanghai");
+        city.add(null);
+        device.add("ios");
+        device.add("ios");
+        device.add("android");
+        frame.addColumn(column("city", ColumnType.String, city));
+        frame.addColumn(column("device", ColumnType.String, device));
+        frame.addColumn(column("price", ColumnType.Float, new FloatColumnData(new float[]{2.5f, 0.0f, 1.0f})));
+
+        FeatureHasher hasher = new FeatureHasher(1 << 20);
+        RereSparseMatrix x = hasher.transform(frame);
+        assertTrue(x.getColNum() == 1 << 20, "哈希维度 / Hashed dimension");
+        int[] pointers = x.getRowPointers();
+        assertTrue(pointers[1] - pointers[0] == 3, "第0行3个特征 / Row 0 has 3 features");
+        assertTrue(pointers[2] - pointers[1] == 2, "零值跳过 / Zero value skipped");
+        assertTrue(pointers[3] - pointers[2] == 2, "缺失值跳过 / Missing value skipped");
+        assertClose(1.0f, Math.abs(x.get(0, hasher.indexOf("city=beijing"))), 0.0f, "类别特征 / Categorical feature");
+        assertClose(2.5f, Math.abs(x.get(0, hasher.indexOf("price"))), 0.0f, "数值特征 / Numeric feature");
+        assertClose(x.get(0, hasher.indexOf("device=ios")), x.get(1, hasher.indexOf("device=ios")), 0.0f,
+            "相同取值落在同一列 / Same value hashes to the same column");
+
+        // 只有1列时全部冲突并相加 / With a single column everything collides and is summed
+        RereSparseMatrix collided = new FeatureHasher(1, false).transform(frame, "city", "price");
+        assertClose(3.5f, collided.get(0, 0), 1e-6f, "冲突求和 / Collisions summed");
+        assertClose(1.0f, collided.get(2, 0), 1e-6f, "冲突求和 / Collisions summed");
+    }
+
+    void testSparseLinearRegression() {
+        IMatrix x = IMatrix.of(dense);
+        RereSparseMatrix sparse = RereSparseMatrix.of(x);
+        IVector y = IVector.of(targets);
+
+        RereLinearRegression exact = new RereLinearRegression(true, 0.0f, 0.01f);
+        exact.fit(x, y);
+        RereLinearRegression model = new RereLinearRegression(true, 0.0f, 0.01f);
+        model.fit(sparse, y);
+        float[] a = exact.getFullWeights().getData();
+        float[] b = model.getFullWeights().getData();
+        for (int j = 0; j < a.length; j++) {
+            assertClose(a[j], b[j], 1e-3f, "与闭式解一致 / Matches the closed form " + j);
+        }
+        float[] expected = model.predictBatch(x);
+        float[] predicted = model.predictBatch(sparse);
+        for (int i = 0; i < expected.length; i++) {
+            assertClose(expected[i], predicted[i], 1e-4f, "稀疏预测 / Sparse prediction");
+        }
+
+        // 同一点的目标函数与梯度 / Objective and gradient at the same point
+        float[] w = parameters(a.length, 1);
+        exact.setSolver(RereLinearRegression.SolverType.LBFGS);
+        exact.fit(x, y);
+        assertClose(exact.computeObjective(IVector.of(w)), model.computeObjective(IVector.of(w)), 1e-4f,
+            "目标函数 / Objective");
+        float[] g1 = exact.computeGradient(IVector.of(w)).getData();
+        float[] g2 = model.computeGradient(IVector.of(w)).getData();
+        for (int j = 0; j < g1.length; j++) {
+            assertClose(g1[j], g2[j], 1e-4f, "梯度 / Gradient " + j);
+        }
+    }
+
+    void testSparseLogisticKernel() {
+        IMatrix x = IMatrix.of(dense);
+        RereSparseMatrix sparse = RereSparseMatrix.of(x);
+        for (String[] labels : new String[][]{binaryLabels, multiLabels}) {
+            RereLogisticRegression reference = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.0f, 0.01f);
+            reference.setOptimizer(new RereLBFGS(10, 1e-4f, 50));
+            reference.fit(x, labels);
+            RereLogisticRegression model = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.0f, 0.01f);
+            model.setOptimizer(new RereLBFGS(10, 1e-4f, 50));
+            model.fit(sparse, labels);
+
+            int classes = model.isBinaryClassification() ? 1 : model.getNumClasses();
+            float[] params = parameters(classes * (dense[0].length + 1), 2);
+            assertClose(reference.computeObjective(IVector.of(params)), model.computeObjective(IVector.of(params)),
+                1e-4f, "目标函数 / Objective");
+            float[] g1 = reference.computeGradient(IVector.of(params)).getData();
+            float[] g2 = model.computeGradient(IVector.of(params)).getData();
+            for (int j = 0; j < g1.length; j++) {
+                assertClose(g1[j], g2[j], 1e-4f, "梯度 / Gradient " + j);
+            }
+
+            float[][] expected = model.predictProba(x);
+            float[][] actual = model.predictProba(sparse);
+            String[] predicted = model.predictBatch(sparse);
+            String[] predictedDense = model.predictBatch(x);
+            for (int i = 0; i < expected.length; i++) {
+                for (int c = 0; c < expected[i].length; c++) {
+                    assertClose(expected[i][c], actual[i][c], 1e-5f, "稀疏概率 / Sparse probability");
+                }
+                assertTrue(predicted[i].equals(predictedDense[i]), "稀疏预测 / Sparse prediction");
+            }
+        }
+    }
+
+    void testSparseMiniBatchGradient() {
+        IMatrix x = IMatrix.of(dense);
+        RereSparseMatrix sparse = RereSparseMatrix.of(x);
+        int[] indices = new int[200];
+        for (int k = 0; k < indices.length; k++) {
+            indices[k] = (k * 37) % dense.length;
+        }
+
+        RereLogisticRegression reference = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.01f, 0.01f);
+        reference.setOptimizer(new RereLBFGS(10, 1e-4f, 5));
+        reference.fit(x, multiLabels);
+        RereLogisticRegression model = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.01f, 0.01f);
+        model.setOptimizer(new RereLBFGS(10, 1e-4f, 5));
+        model.fit(sparse, multiLabels);
+        float[] params = parameters(3 * (dense[0].length + 1), 3);
+        float[] g1 = new float[params.length];
+        float[] g2 = new float[params.length];
+        assertClose(reference.computeBatchGradient(params, indices, 10, 150, g1),
+            model.computeBatchGradient(params, indices, 10, 150, g2), 1e-4f, "批目标函数 / Batch objective");
+        for (int j = 0; j < g1.length; j++) {
+            assertClose(g1[j], g2[j], 1e-4f, "批梯度 / Batch gradient " + j);
+        }
+
+        RereLinearRegression linear = new RereLinearRegression();
+        linear.fit(x, IVector.of(targets));
+        RereLinearRegression sparseLinear = new RereLinearRegression();
+        sparseLinear.fit(sparse, IVector.of(targets));
+        float[] w = parameters(dense[0].length + 1, 4);
+        float[] h1 = new float[w.length];
+        float[] h2 = new float[w.length];
+        assertClose(linear.computeBatchGradient(w, indices, 0, 200, h1),
+            sparseLinear.computeBatchGradient(w, indices, 0, 200, h2), 1e-4f, "线性批目标函数 / Linear batch objective");
+        for (int j = 0; j < h1.length; j++) {
+            assertClose(h1[j], h2[j], 1e-4f, "线性批梯度 / Linear batch gradient " + j);
+        }
+    }
+
+    void testSparseFtrlMatchesDense() {
+        RereLogisticRegression reference = new RereLogisticRegression(0.01f, 100, 1e-6f, 1e-4f, 1e-4f);
+        RereLogisticRegression model = new RereLogisticRegression(0.01f, 100, 1e-6f, 1e-4f, 1e-4f);
+        for (String[] labels : new String[][]{binaryLabels, multiLabels}) {
+            reference.resetPartialFit();
+            model.resetPartialFit();
+            for (int start = 0; start < dense.length; start += 1000) {
+                float[][] batch = Arrays.copyOfRange(dense, start, start + 1000);
+                String[] y = Arrays.copyOfRange(labels, start, start + 1000);
+                float loss1 = reference.partialFit(IMatrix.of(batch), y).getLoss();
+                float loss2 = model.partialFit(RereSparseMatrix.of(IMatrix.of(batch)), y).getLoss();
+                assertClose(loss1, loss2, 1e-5f, "渐进验证损失 / Progressive validation loss");
+            }
+            float[][] w1 = reference.getWeights().getData();
+            float[][] w2 = model.getWeights().getData();
+            for (int k = 0; k < w1.length; k++) {
+                for (int j = 0; j < w1[k].length; j++) {
+                    assertClose(w1[k][j], w2[k][j], 1e-5f, "FTRL权重 / FTRL weight");
+                }
+            }
+            assertClose(reference.getBias().get(0), model.getBias().get(0), 1e-5f, "FTRL偏置 / FTRL bias");
+        }
+    }
+
+    void testHashedHighDimensionalFit() {
+        // 用户×广告的组合特征哈希到2^20维 / User x ad cross features hashed into 2^20 dimensions
+        Random random = new Random(7);
+        int n = 20000;
+        List<Object> user = new ArrayList<>();
+        List<Object> ad = new ArrayList<>();
+        List<Object> cross = new ArrayList<>();
+        String[] labels = new String[n];
+        float[] userEffect = new float[500];
+        float[] adEffect = new float[200];
+        for (int u = 0; u < userEffect.length; u++) {
+            userEffect[u] = 2.0f * (float) random.nextGaussian();
+        }
+        for (int a = 0; a < adEffect.length; a++) {
+            adEffect[a] = 2.0f * (float) random.nextGaussian();
+        }
+        for (int i = 0; i < n; i++) {
+            int u = random.nextInt(userEffect.length);
+            int a = random.nextInt(adEffect.length);
+            user.add("u" + u);
+            ad.add("a" + a);
+            cross.add(u + "_" + (a % 10));
+            labels[i] = userEffect[u] + adEffect[a] + 0.5f * (float) random.nextGaussian() > 0 ? "click" : "skip";
+        }
+        DataFrame frame = new DataFrame();
+        frame.addColumn(column("user", ColumnType.String, user));
+        frame.addColumn(column("ad", ColumnType.String, ad));
+        frame.addColumn(column("cross", ColumnType.String, cross));
+        RereSparseMatrix x = new FeatureHasher(1 << 20).transform(frame);
+        assertTrue(x.getNonZeroCount() <= 3 * n, "每行最多3个非零元素 / At most 3 non-zeros per row");
+
+        RereLogisticRegression online = new RereLogisticRegression(0.01f, 100, 1e-6f, 1e-6f, 0.0f);
+        online.setFtrlAlpha(0.5f);
+        for (int epoch = 0; epoch < 3; epoch++) {
+            online.partialFit(x, labels);
+        }
+        int correct = accuracy(online.predictBatch(x), labels);
+        assertTrue(correct > 0.85f * n, "FTRL训练集准确率 / FTRL training accuracy " + correct);
+        float[][] probabilities = online.predictProba(x);
+        assertTrue(probabilities.length == n && Math.abs(probabilities[0][0] + probabilities[0][1] - 1.0f) < 1e-5f,
+            "概率 / Probabilities");
+    }
+
+    private int accuracy(String[] predicted, String[] labels) {
+        int correct = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (predicted[i].equals(labels[i])) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private Column column(String name, ColumnType type, List<Object> data) {
+        Column c = new Column();
+        c.setName(name);
+        c.setColumnType(type);
+        c.setData(data);
+        return c;
+    }
+
+    private float[] parameters(int count, long seed) {
+        Random random = new Random(seed);
+        float[] params = new float[count];
+        for (int j = 0; j < count; j++) {
+            params[j] = 0.5f * (float) random.nextGaussian();
+        }
+        return params;
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
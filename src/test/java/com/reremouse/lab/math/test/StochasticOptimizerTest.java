@@ -0,0 +1,366 @@
+package com.reremouse.lab.math.test;
+
+import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.IVector;
+import com.reremouse.lab.math.ml.cls.RereLogisticRegression;
+import com.reremouse.lab.math.ml.lr.RegressionResult;
+import com.reremouse.lab.math.ml.lr.RereLinearRegression;
+import com.reremouse.lab.math.optimize.IGradientFunction;
+import com.reremouse.lab.math.optimize.ILearningRateSchedule;
+import com.reremouse.lab.math.optimize.IObjectiveFunction;
+import com.reremouse.lab.math.optimize.OptimizationResult;
+import com.reremouse.lab.math.optimize.RereAdaGrad;
+import com.reremouse.lab.math.optimize.RereAdam;
+import com.reremouse.lab.math.optimize.RereSGD;
+import com.reremouse.lab.math.optimize.RereStochasticOptimizer;
+import com.reremouse.lab.util.Tuple2;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 小批量随机优化器测试
+ * Test for mini-batch stochastic optimizers
+ */
+public class StochasticOptimizerTest {
+
+    private float[][] features;
+    private float[] labels;
+    private String[] classLabels;
+    private final float[] trueWeights = {2.0f, -1.5f, 0.5f, 3.0f};
+    private final float trueBias = 1.0f;
+
+    public static void main(String[] args) {
+        StochasticOptimizerTest test = new StochasticOptimizerTest();
+        test.setUp();
+        test.runAllTests();
+    }
+
+    void setUp() {
+        Random random = new Random(7);
+        int n = 2000;
+        features = new float[n][trueWeights.length];
+        labels = new float[n];
+        classLabels = new String[n];
+        for (int i = 0; i < n; i++) {
+            float y = trueBias;
+            for (int j = 0; j < trueWeights.length; j++) {
+                features[i][j] = (float) random.nextGaussian();
+                y += trueWeights[j] * features[i][j];
+            }
+            labels[i] = y + 0.01f * (float) random.nextGaussian();
+            classLabels[i] = y > 1.0f ? "pos" : "neg";
+        }
+    }
+
+    void runAllTests() {
+        System.out.println("开始运行小批量优化器测试 / Starting stochastic optimizer tests");
+        run("testSgdMomentumLinear", this::testSgdMomentumLinear);
+        run("testAdamLinear", this::testAdamLinear);
+        run("testAdaGradLinear", this::testAdaGradLinear);
+        run("testLinearBatchGradient", this::testLinearBatchGradient);
+        run("testLogisticBatchGradient", this::testLogisticBatchGradient);
+        run("testAdamLogistic", this::testAdamLogistic);
+        run("testSchedules", this::testSchedules);
+        run("testFullBatchFallback", this::testFullBatchFallback);
+        run("testSeedReproducible", this::testSeedReproducible);
+        run("testResultAndListener", this::testResultAndListener);
+        run("testNullOptimizerKeepsDefault", this::testNullOptimizerKeepsDefault);
+        run("testFtrlPartialFit", this::testFtrlPartialFit);
+        run("testFtrlSparsity", this::testFtrlSparsity);
+        System.out.println("所有测试完成 / All tests completed");
+    }
+
+    private void run(String name, Runnable test) {
+        try {
+            test.run();
+            System.out.println("✓ " + name + " 通过 / passed");
+        } catch (Throwable e) {
+            System.out.println("✗ " + name + " 失败 / failed: " + e.getMessage());
+        }
+    }
+
+    void testSgdMomentumLinear() {
+        RereSGD sgd = new RereSGD(0.01f, 0.9f, 32, 50);
+        sgd.setSeed(1L);
+        checkLinearFit(sgd);
+    }
+
+    void testAdamLinear() {
+        RereAdam adam = new RereAdam(0.05f, 32, 50);
+        adam.setSeed(1L);
+        adam.setSchedule(ILearningRateSchedule.inverseTime(0.05f, 0.01f));
+        checkLinearFit(adam);
+    }
+
+    void testAdaGradLinear() {
+        RereAdaGrad adaGrad = new RereAdaGrad(0.5f, 32, 50);
+        adaGrad.setSeed(1L);
+        checkLinearFit(adaGrad);
+    }
+
+    void testLinearBatchGradient() {
+        RereLinearRegression lr = new RereLinearRegression(true, 0.1f);
+        lr.fit(IMatrix.of(features), IVector.of(labels));
+        checkBatchGradient(lr, new float[]{0.3f, -0.2f, 0.1f, 0.5f, -0.4f}, features.length);
+    }
+
+    void testLogisticBatchGradient() {
+        RereLogisticRegression binary = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.01f, 0.02f);
+        binary.fit(IMatrix.of(features), classLabels);
+        checkBatchGradient(binary, new float[]{0.3f, -0.2f, 0.1f, 0.5f, -0.4f}, features.length);
+
+        String[] threeClass = new String[features.length];
+        for (int i = 0; i < threeClass.length; i++) {
+            threeClass[i] = labels[i] < -1 ? "a" : labels[i] < 3 ? "b" : "c";
+        }
+        RereLogisticRegression multi = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.0f, 0.05f);
+        multi.fit(IMatrix.of(features), threeClass);
+        float[] params = new float[3 * trueWeights.length + 3];
+        for (int j = 0; j < params.length; j++) {
+            params[j] = 0.1f * ((j * 7) % 5 - 2);
+        }
+        checkBatchGradient(multi, params, features.length);
+    }
+
+    void testAdamLogistic() {
+        RereLogisticRegression model = new RereLogisticRegression();
+        RereAdam adam = new RereAdam(0.01f, 64, 30);
+        adam.setSeed(3L);
+        model.setOptimizer(adam);
+        model.fit(IMatrix.of(features), classLabels);
+        float accuracy = accuracy(model, classLabels);
+        assertTrue(accuracy > 0.95f, "准确率 / Accuracy " + accuracy);
+    }
+
+    void testSchedules() {
+        assertClose(0.1f, ILearningRateSchedule.constant(0.1f).getRate(1000), 0.0f, "常数 / Constant");
+        assertClose(0.05f, ILearningRateSchedule.inverseTime(0.1f, 0.5f).getRate(2), 1e-7f, "逆时间 / Inverse time");
+        ILearningRateSchedule step = ILearningRateSchedule.stepDecay(0.1f, 0.5f, 10);
+        assertClose(0.1f, step.getRate(9), 1e-7f, "阶梯 / Step 9");
+        assertClose(0.025f, step.getRate(25), 1e-7f, "阶梯 / Step 25");
+        ILearningRateSchedule cosine = ILearningRateSchedule.cosine(0.1f, 0.01f, 100);
+        assertClose(0.1f, cosine.getRate(0), 1e-7f, "余弦起点 / Cosine start");
+        assertClose(0.055f, cosine.getRate(50), 1e-6f, "余弦中点 / Cosine midpoint");
+        assertClose(0.01f, cosine.getRate(200), 0.0f, "余弦终点 / Cosine end");
+        try {
+            ILearningRateSchedule.constant(0.0f);
+            throw new AssertionError("应拒绝非正学习率 / Non-positive rate should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // 期望的异常 / Expected
+        }
+    }
+
+    void testFullBatchFallback() {
+        // f(x) = Σ (x_i - i)²，不实现小批量接口 / Does not implement the mini-batch interface
+        IObjectiveFunction objective = x -> {
+            float sum = 0.0f;
+            for (int i = 0; i < x.length(); i++) {
+                sum += (x.get(i) - i) * (x.get(i) - i);
+            }
+            return sum;
+        };
+        IGradientFunction gradient = x -> {
+            float[] g = new float[x.length()];
+            for (int i = 0; i < g.length; i++) {
+                g[i] = 2.0f * (x.get(i) - i);
+            }
+            return IVector.of(g);
+        };
+        RereAdam adam = new RereAdam(0.1f, 1, 2000);
+        Tuple2<Float, IVector> result = adam.optimize(IVector.zeros(3), objective, gradient);
+        for (int i = 0; i < 3; i++) {
+            assertClose(i, result._2.get(i), 1e-2f, "分量 / Component " + i);
+        }
+        assertTrue(result._1 < 1e-3f, "最优值 / Optimal value " + result._1);
+    }
+
+    void testResultAndListener() {
+        RereLinearRegression lr = new RereLinearRegression();
+        RereSGD sgd = new RereSGD(0.01f, 0.9f, 32, 30);
+        sgd.setSeed(5L);
+        int[] calls = new int[1];
+        sgd.setListener(progress -> {
+            calls[0]++;
+            return progress.getIteration() < 4;
+        });
+        lr.setOptimizer(sgd);
+        lr.fit(IMatrix.of(features), IVector.of(labels));
+        assertTrue(calls[0] == 5, "每轮通知一次 / Listener called once per epoch: " + calls[0]);
+
+        // 直接调用优化器得到完整的迭代记录 / Calling the optimizer directly yields the full record
+        IObjectiveFunction objective = x -> (x.get(0) - 3) * (x.get(0) - 3);
+        IGradientFunction gradient = x -> IVector.of(new float[]{2.0f * (x.get(0) - 3)});
+        RereAdaGrad adagrad = new RereAdaGrad(0.5f, 1, 5000);
+        adagrad.setTolerance(1e-3f);
+        OptimizationResult result = adagrad.optimize(IVector.zeros(1), objective, gradient);
+        assertTrue(result.getStopReason() == OptimizationResult.StopReason.CONVERGED, "停止原因 / Stop reason: " + result.getStopReason());
+        assertTrue(result.getIterations() < 5000, "迭代次数 / Iterations: " + result.getIterations());
+        assertTrue(result.getGradientEvaluations() == result.getIterations() + 1, "梯度求值次数 / Gradient evaluations");
+        assertTrue(result.getValueEvaluations() == 1, "函数值求值次数 / Value evaluations");
+        adagrad.setMaxEpochs(3);
+        result = adagrad.optimize(IVector.zeros(1), objective, gradient);
+        assertTrue(result.getStopReason() == OptimizationResult.StopReason.MAX_ITERATIONS && result.getIterations() == 3,
+            "达到最大轮数 / Maximum epochs reached");
+    }
+
+    void testNullOptimizerKeepsDefault() {
+        RereLinearRegression lr = new RereLinearRegression(true, RereLinearRegression.RegularizationType.NONE,
+            0.0f, 0.0f, null);
+        assertTrue(lr.getOptimizer() != null, "使用默认优化器 / Uses the default optimizer");
+        RegressionResult result = lr.fit(IMatrix.of(features), IVector.of(labels));
+        for (int j = 0; j < trueWeights.length; j++) {
+            assertClose(trueWeights[j], result.getWeights().get(j), 1e-2f, "权重 / Weight " + j);
+        }
+        lr.setOptimizer(new RereAdam());
+        lr.setOptimizer(null);
+        assertTrue(lr.getSolver() == RereLinearRegression.SolverType.AUTO, "恢复默认求解器 / Default solver restored");
+    }
+
+    void testSeedReproducible() {
+        float[] first = fitWithSeed(11L);
+        float[] second = fitWithSeed(11L);
+        for (int j = 0; j < first.length; j++) {
+            assertClose(first[j], second[j], 0.0f, "相同种子 / Same seed " + j);
+        }
+    }
+
+    void testFtrlPartialFit() {
+        RereLogisticRegression model = new RereLogisticRegression();
+        float firstLoss = 0.0f;
+        float lastLoss = 0.0f;
+        for (int epoch = 0; epoch < 3; epoch++) {
+            for (int start = 0; start < features.length; start += 250) {
+                int end = Math.min(features.length, start + 250);
+                float loss = model.partialFit(IMatrix.of(Arrays.copyOfRange(features, start, end)),
+                    Arrays.copyOfRange(classLabels, start, end), new String[]{"neg", "pos"}).getLoss();
+                if (epoch == 0 && start == 0) {
+                    firstLoss = loss;
+                }
+                lastLoss = loss;
+            }
+        }
+        assertTrue(lastLoss < firstLoss / 2, "渐进损失下降 / Progressive loss decreases: " + firstLoss + " -> " + lastLoss);
+        assertTrue(accuracy(model, classLabels) > 0.95f, "准确率 / Accuracy");
+
+        // 多分类 / Multiclass
+        String[] threeClass = new String[features.length];
+        for (int i = 0; i < threeClass.length; i++) {
+            threeClass[i] = labels[i] < -1 ? "a" : labels[i] < 3 ? "b" : "c";
+        }
+        RereLogisticRegression multi = new RereLogisticRegression();
+        multi.setFtrlAlpha(0.5f);
+        for (int epoch = 0; epoch < 3; epoch++) {
+            multi.partialFit(IMatrix.of(features), threeClass);
+        }
+        assertTrue(multi.getNumClasses() == 3, "类别数 / Class count");
+        assertTrue(accuracy(multi, threeClass) > 0.85f, "多分类准确率 / Multiclass accuracy");
+        try {
+            multi.partialFit(IMatrix.of(new float[][]{features[0]}), new String[]{"d"});
+            throw new AssertionError("应拒绝未知标签 / Unknown label should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // 期望的异常 / Expected
+        }
+    }
+
+    void testFtrlSparsity() {
+        // 加入与标签无关的噪声特征，L1正则化应将其权重置为精确的0 /
+        // With irrelevant noise features, L1 regularization drives their weights to exactly zero
+        Random random = new Random(9);
+        int noise = 20;
+        float[][] wide = new float[features.length][trueWeights.length + noise];
+        for (int i = 0; i < wide.length; i++) {
+            System.arraycopy(features[i], 0, wide[i], 0, trueWeights.length);
+            for (int j = trueWeights.length; j < wide[i].length; j++) {
+                wide[i][j] = 0.1f * (float) random.nextGaussian();
+            }
+        }
+        RereLogisticRegression model = new RereLogisticRegression(0.01f, 100, 1e-6f, 0.01f, 0.0f);
+        for (int epoch = 0; epoch < 2; epoch++) {
+            model.partialFit(IMatrix.of(wide), classLabels);
+        }
+        IVector w = model.getWeights().getRow(0);
+        int zeros = 0;
+        for (int j = trueWeights.length; j < w.length(); j++) {
+            if (w.get(j) == 0.0f) {
+                zeros++;
+            }
+        }
+        assertTrue(zeros >= noise - 2, "噪声特征的零权重数 / Zero weights on noise features: " + zeros);
+        for (int j = 0; j < trueWeights.length; j++) {
+            assertTrue(w.get(j) != 0.0f, "有效特征非零 / Informative feature non-zero " + j);
+        }
+    }
+
+    private float accuracy(RereLogisticRegression model, String[] expected) {
+        String[] predicted = model.predictBatch(IMatrix.of(features));
+        int correct = 0;
+        for (int i = 0; i < predicted.length; i++) {
+            if (predicted[i].equals(expected[i])) {
+                correct++;
+            }
+        }
+        return (float) correct / predicted.length;
+    }
+
+    private float[] fitWithSeed(long seed) {
+        RereSGD sgd = new RereSGD(0.01f, 0.5f, 16, 5);
+        sgd.setSeed(seed);
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.setOptimizer(sgd);
+        lr.fit(IMatrix.of(features), IVector.of(labels));
+        return lr.getFullWeights().getData();
+    }
+
+    private void checkLinearFit(RereStochasticOptimizer optimizer) {
+        RereLinearRegression lr = new RereLinearRegression();
+        lr.setOptimizer(optimizer);
+        RegressionResult result = lr.fit(IMatrix.of(features), IVector.of(labels));
+        assertTrue(lr.getLastSolver() == RereLinearRegression.SolverType.LBFGS, "使用优化器 / Uses the optimizer");
+        for (int j = 0; j < trueWeights.length; j++) {
+            assertClose(trueWeights[j], result.getWeights().get(j), 0.05f, "权重 / Weight " + j);
+        }
+        assertClose(trueBias, lr.getBias(), 0.05f, "偏置 / Bias");
+    }
+
+    /**
+     * 全部样本组成一个批次时，小批量结果应与全量目标函数和梯度一致
+     * With all samples in one batch the mini-batch result must match the full objective and gradient
+     */
+    private void checkBatchGradient(Object model, float[] params, int m) {
+        int[] indices = new int[m];
+        for (int i = 0; i < m; i++) {
+            indices[m - 1 - i] = i;
+        }
+        float[] batchGradient = new float[params.length];
+        float batchLoss;
+        IVector fullGradient;
+        float fullLoss;
+        if (model instanceof RereLinearRegression) {
+            RereLinearRegression lr = (RereLinearRegression) model;
+            batchLoss = lr.computeBatchGradient(params, indices, 0, m, batchGradient);
+            fullLoss = lr.computeObjective(IVector.of(params.clone()));
+            fullGradient = lr.computeGradient(IVector.of(params.clone()));
+        } else {
+            RereLogisticRegression lr = (RereLogisticRegression) model;
+            batchLoss = lr.computeBatchGradient(params, indices, 0, m, batchGradient);
+            fullLoss = lr.computeObjective(IVector.of(params.clone()));
+            fullGradient = lr.computeGradient(IVector.of(params.clone()));
+        }
+        assertClose(fullLoss, batchLoss, 1e-4f * Math.max(1.0f, Math.abs(fullLoss)), "目标函数 / Objective");
+        for (int j = 0; j < params.length; j++) {
+            assertClose(fullGradient.get(j), batchGradient[j], 1e-4f, "梯度 / Gradient " + j);
+        }
+    }
+
+    private void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private void assertClose(float expected, float actual, float tolerance, String message) {
+        if (!(Math.abs(expected - actual) <= tolerance)) {
+            throw new AssertionError(message + " - 期望: " + expected + ", 实际: " + actual);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.reremouse.lab.math.test;
 
 import com.reremouse.lab.math.dimreduce.RereTSNE;
 import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.optimize.IOptimizationListener;
 
 /**
  * t-SNE算法测试类
@@ -26,6 +27,7 @@ public class TSNETest {
         
         // 创建t-SNE实例并进行降维
         RereTSNE tsne = new RereTSNE();
+        tsne.setListener(IOptimizationListener.printing(System.out, RereTSNE.REPORT_INTERVAL)); // 输出优化进度
         IMatrix reducedData = tsne.dimensionReduction(originalData, 2); // 降至2维
         
         System.out.println("\n降维后数据维度: " + reducedData.getRowNum() + "x" + reducedData.getColNum());
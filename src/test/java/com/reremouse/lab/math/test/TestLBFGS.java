@@ -32,6 +32,10 @@ public class TestLBFGS {
         // 测试4：自定义参数的LBFGS
         System.out.println("\n4. 测试自定义参数的LBFGS");
         testCustomParameters();
+        
+        // 测试5：迭代次数远多于历史长度，梯度函数复用自己的缓冲区
+        System.out.println("\n5. 测试环形历史缓冲区（m=3，病态二次函数，梯度复用缓冲区）");
+        testRingBufferHistory();
     }
     
     /**
@@ -220,4 +224,43 @@ public class TestLBFGS {
         System.out.println("理论最优解: x = [0.0, 0.0], f = 0.0");
         System.out.println("误差范数: " + result._2.norm2());
     }
-} 
\ No newline at end of file
+
+    /**
+     * 测试环形历史缓冲区：f(x) = Σ c_i (x_i - 1)^2 / 2，c_i从1到1000，历史长度只有3，
+     * 梯度函数每次返回同一个缓冲区，优化器必须自己复制梯度
+     */
+    private static void testRingBufferHistory() {
+        int n = 200;
+        float[] c = new float[n];
+        for (int i = 0; i < n; i++) {
+            c[i] = (float) Math.pow(1000.0, (double) i / (n - 1));
+        }
+        float[] gradBuffer = new float[n];
+        IObjectiveFunction objFun = x -> {
+            float sum = 0;
+            for (int i = 0; i < n; i++) {
+                float d = x.get(i) - 1.0f;
+                sum += 0.5f * c[i] * d * d;
+            }
+            return sum;
+        };
+        IGradientFunction grdFun = x -> {
+            for (int i = 0; i < n; i++) {
+                gradBuffer[i] = c[i] * (x.get(i) - 1.0f);
+            }
+            return IVector.of(gradBuffer);
+        };
+        
+        IVector initX = IVector.zeros(n);
+        Tuple2<Float, IVector> result = new RereLBFGS(3, 1e-4f, 2000).optimize(initX, objFun, grdFun);
+        
+        float maxError = 0;
+        for (int i = 0; i < n; i++) {
+            maxError = Math.max(maxError, Math.abs(result._2.get(i) - 1.0f));
+        }
+        System.out.println("最优值: " + result._1);
+        System.out.println("最大坐标误差: " + maxError);
+        System.out.println("初始点未被修改: " + (initX.norm2() == 0.0f));
+        System.out.println("结果与初始点不共享数据: " + (result._2.getData() != initX.getData()));
+    }
+}
@@ -2,6 +2,7 @@ package com.reremouse.lab.math.test;
 
 import com.reremouse.lab.math.dimreduce.RereUMAP;
 import com.reremouse.lab.math.IMatrix;
+import com.reremouse.lab.math.optimize.IOptimizationListener;
 
 /**
  * UMAP算法测试类
@@ -33,6 +34,7 @@ public class UMAPTest {
         
         // 创建UMAP实例并进行降维
         RereUMAP umap = new RereUMAP();
+        umap.setListener(IOptimizationListener.printing(System.out, RereUMAP.REPORT_INTERVAL)); // 输出优化进度
         IMatrix reducedData = umap.dimensionReduction(originalData, 2);
         
         System.out.println("降维后数据维度: " + java.util.Arrays.toString(reducedData.shape()));